@@ -7,6 +7,9 @@
  */
 package com.sitewhere.asset.grpc;
 
+import java.util.List;
+import java.util.UUID;
+
 import com.sitewhere.asset.spi.microservice.IAssetManagementMicroservice;
 import com.sitewhere.grpc.client.GrpcUtils;
 import com.sitewhere.grpc.client.spi.server.IGrpcApiImplementation;
@@ -31,6 +34,8 @@ import com.sitewhere.grpc.service.GGetAssetTypeByIdRequest;
 import com.sitewhere.grpc.service.GGetAssetTypeByIdResponse;
 import com.sitewhere.grpc.service.GGetAssetTypeByTokenRequest;
 import com.sitewhere.grpc.service.GGetAssetTypeByTokenResponse;
+import com.sitewhere.grpc.service.GGetAssetsByIdRequest;
+import com.sitewhere.grpc.service.GGetAssetsByIdResponse;
 import com.sitewhere.grpc.service.GListAssetTypesRequest;
 import com.sitewhere.grpc.service.GListAssetTypesResponse;
 import com.sitewhere.grpc.service.GListAssetsRequest;
@@ -284,6 +289,28 @@ public class AssetManagementImpl extends AssetManagementGrpc.AssetManagementImpl
 	}
     }
 
+    /*
+     * @see com.sitewhere.grpc.service.AssetManagementGrpc.AssetManagementImplBase#
+     * getAssetsById(com.sitewhere.grpc.service.GGetAssetsByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getAssetsById(GGetAssetsByIdRequest request, StreamObserver<GGetAssetsByIdResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, AssetManagementGrpc.getGetAssetsByIdMethod());
+	    List<UUID> ids = CommonModelConverter.asApiUuids(request.getAssetIdsList());
+	    List<IAsset> apiResult = getAssetManagement().getAssetsById(ids);
+	    GGetAssetsByIdResponse.Builder response = GGetAssetsByIdResponse.newBuilder();
+	    response.addAllAssets(AssetModelConverter.asGrpcAssets(apiResult));
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(AssetManagementGrpc.getGetAssetsByIdMethod(), e, responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(AssetManagementGrpc.getGetAssetsByIdMethod());
+	}
+    }
+
     /*
      * @see com.sitewhere.grpc.service.AssetManagementGrpc.AssetManagementImplBase#
      * getAssetByToken(com.sitewhere.grpc.service.GGetAssetByTokenRequest,
@@ -34,6 +34,8 @@ import com.sitewhere.grpc.service.GGetAssetTypeByIdRequest;
 import com.sitewhere.grpc.service.GGetAssetTypeByIdResponse;
 import com.sitewhere.grpc.service.GGetAssetTypeByTokenRequest;
 import com.sitewhere.grpc.service.GGetAssetTypeByTokenResponse;
+import com.sitewhere.grpc.service.GGetAssetsByIdRequest;
+import com.sitewhere.grpc.service.GGetAssetsByIdResponse;
 import com.sitewhere.grpc.service.GListAssetTypesRequest;
 import com.sitewhere.grpc.service.GListAssetTypesResponse;
 import com.sitewhere.grpc.service.GListAssetsRequest;
@@ -196,6 +198,19 @@ public class AssetManagementRouter extends AssetManagementGrpc.AssetManagementIm
 	}
     }
 
+    /*
+     * @see com.sitewhere.grpc.service.AssetManagementGrpc.AssetManagementImplBase#
+     * getAssetsById(com.sitewhere.grpc.service.GGetAssetsByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getAssetsById(GGetAssetsByIdRequest request, StreamObserver<GGetAssetsByIdResponse> responseObserver) {
+	AssetManagementGrpc.AssetManagementImplBase engine = getTenantImplementation(responseObserver);
+	if (engine != null) {
+	    engine.getAssetsById(request, responseObserver);
+	}
+    }
+
     /*
      * @see com.sitewhere.grpc.service.AssetManagementGrpc.AssetManagementImplBase#
      * getAssetByToken(com.sitewhere.grpc.service.GGetAssetByTokenRequest,
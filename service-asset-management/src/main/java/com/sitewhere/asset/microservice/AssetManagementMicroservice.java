@@ -14,6 +14,7 @@ import com.sitewhere.asset.spi.grpc.IAssetManagementGrpcServer;
 import com.sitewhere.asset.spi.microservice.IAssetManagementMicroservice;
 import com.sitewhere.asset.spi.microservice.IAssetManagementTenantEngine;
 import com.sitewhere.grpc.client.ApiChannelNotAvailableException;
+import com.sitewhere.grpc.client.asset.AssetManagementCacheSerializers;
 import com.sitewhere.grpc.client.device.DeviceManagementApiDemux;
 import com.sitewhere.grpc.client.spi.client.IDeviceManagementApiDemux;
 import com.sitewhere.microservice.hazelcast.HazelcastManager;
@@ -129,7 +130,7 @@ public class AssetManagementMicroservice
     @Override
     public void microserviceInitialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	// Create Hazelcast manager.
-	this.hazelcastManager = new HazelcastManager();
+	this.hazelcastManager = new HazelcastManager(AssetManagementCacheSerializers.createRegistry());
 
 	// Create GRPC components.
 	createGrpcComponents();
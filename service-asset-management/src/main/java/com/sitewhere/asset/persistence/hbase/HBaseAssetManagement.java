@@ -7,6 +7,8 @@
  */
 package com.sitewhere.asset.persistence.hbase;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import org.apache.hadoop.hbase.regionserver.BloomType;
@@ -166,6 +168,21 @@ public class HBaseAssetManagement extends TenantEngineLifecycleComponent impleme
 	throw new SiteWhereException("Not implemented yet for HBase asset managment.");
     }
 
+    /*
+     * @see com.sitewhere.spi.asset.IAssetManagement#getAssetsById(java.util.List)
+     */
+    @Override
+    public List<IAsset> getAssetsById(List<UUID> ids) throws SiteWhereException {
+	List<IAsset> results = new ArrayList<IAsset>();
+	for (UUID id : ids) {
+	    IAsset asset = getAsset(id);
+	    if (asset != null) {
+		results.add(asset);
+	    }
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.spi.asset.IAssetManagement#getAssetByToken(java.lang.String)
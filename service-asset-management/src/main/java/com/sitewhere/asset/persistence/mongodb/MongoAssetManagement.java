@@ -7,17 +7,19 @@
  */
 package com.sitewhere.asset.persistence.mongodb;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import org.bson.Document;
 
 import com.mongodb.MongoClientException;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
 import com.sitewhere.asset.persistence.AssetManagementPersistence;
 import com.sitewhere.asset.spi.microservice.IAssetManagementMicroservice;
 import com.sitewhere.mongodb.IMongoConverterLookup;
+import com.sitewhere.mongodb.MongoIndexCatalog;
 import com.sitewhere.mongodb.MongoPersistence;
 import com.sitewhere.mongodb.common.MongoPersistentEntity;
 import com.sitewhere.rest.model.asset.Asset;
@@ -69,15 +71,26 @@ public class MongoAssetManagement extends TenantEngineLifecycleComponent impleme
     }
 
     /**
-     * Ensure that expected collection indexes exist.
+     * Ensure that collection indexes match the index catalog.
      * 
      * @throws SiteWhereException
      */
     protected void ensureIndexes() throws SiteWhereException {
-	getMongoClient().getAssetTypesCollection().createIndex(Indexes.ascending(MongoPersistentEntity.PROP_TOKEN),
-		new IndexOptions().unique(true));
-	getMongoClient().getAssetsCollection().createIndex(Indexes.ascending(MongoPersistentEntity.PROP_TOKEN),
-		new IndexOptions().unique(true));
+	createIndexCatalog().reconcile();
+    }
+
+    /**
+     * Create catalog of indexes required by asset management queries.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    protected MongoIndexCatalog createIndexCatalog() throws SiteWhereException {
+	MongoIndexCatalog catalog = new MongoIndexCatalog(
+		getMongoClient().getConfiguration().isRebuildMismatchedIndexes());
+	catalog.unique(getMongoClient().getAssetTypesCollection(), Indexes.ascending(MongoPersistentEntity.PROP_TOKEN));
+	catalog.unique(getMongoClient().getAssetsCollection(), Indexes.ascending(MongoPersistentEntity.PROP_TOKEN));
+	return catalog;
     }
 
     /*
@@ -234,6 +247,24 @@ public class MongoAssetManagement extends TenantEngineLifecycleComponent impleme
 	return null;
     }
 
+    /*
+     * @see com.sitewhere.spi.asset.IAssetManagement#getAssetsById(java.util.List)
+     */
+    @Override
+    public List<IAsset> getAssetsById(List<UUID> ids) throws SiteWhereException {
+	try {
+	    MongoCollection<Document> assets = getMongoClient().getAssetsCollection();
+	    Document query = new Document(MongoPersistentEntity.PROP_ID, new Document("$in", ids));
+	    List<IAsset> results = new ArrayList<IAsset>();
+	    for (Document document : assets.find(query)) {
+		results.add(MongoAsset.fromDocument(document));
+	    }
+	    return results;
+	} catch (MongoClientException e) {
+	    throw MongoPersistence.handleClientException(e);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.spi.asset.IAssetManagement#getAssetByToken(java.lang.String)
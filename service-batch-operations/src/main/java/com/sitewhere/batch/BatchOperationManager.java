@@ -7,22 +7,30 @@
  */
 package com.sitewhere.batch;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
+import com.codahale.metrics.Meter;
+import com.google.common.util.concurrent.RateLimiter;
 import com.sitewhere.batch.handler.BatchCommandInvocationHandler;
 import com.sitewhere.batch.spi.IBatchOperationHandler;
 import com.sitewhere.batch.spi.IBatchOperationManager;
 import com.sitewhere.batch.spi.microservice.IBatchOperationsTenantEngine;
 import com.sitewhere.rest.model.batch.request.BatchElementUpdateRequest;
 import com.sitewhere.rest.model.batch.request.BatchOperationUpdateRequest;
+import com.sitewhere.rest.model.search.batch.BatchOperationSearchCriteria;
 import com.sitewhere.rest.model.search.device.BatchElementSearchCriteria;
 import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent;
 import com.sitewhere.spi.SiteWhereException;
@@ -31,8 +39,8 @@ import com.sitewhere.spi.batch.ElementProcessingStatus;
 import com.sitewhere.spi.batch.IBatchElement;
 import com.sitewhere.spi.batch.IBatchManagement;
 import com.sitewhere.spi.batch.IBatchOperation;
+import com.sitewhere.spi.batch.request.IBatchElementUpdateRequest;
 import com.sitewhere.spi.search.ISearchResults;
-import com.sitewhere.spi.search.device.IBatchElementSearchCriteria;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
 import com.sitewhere.spi.server.lifecycle.LifecycleStatus;
@@ -41,19 +49,59 @@ import com.sitewhere.spi.server.lifecycle.LifecycleStatus;
  * Default implementation of {@link IBatchOperationManager}. Uses multiple
  * threads to process batch operations.
  * 
+ * Elements are loaded a page at a time rather than all at once. Each page is
+ * marked as being processed with a single bulk update, processed with bounded
+ * parallelism and optional rate limiting, then the results are written back
+ * with a second bulk update. Since element status is persisted as each page
+ * completes, operations that were interrupted by a restart are resumed from
+ * the last completed page when the manager is started again.
+ * 
  * @author Derek
  */
 public class BatchOperationManager extends TenantEngineLifecycleComponent implements IBatchOperationManager {
 
-    /** Number of threads used for batch operation processing */
-    private static final int BATCH_PROCESSOR_THREAD_COUNT = 10;
+    /** Default number of batch operations processed concurrently */
+    private static final int DEFAULT_OPERATION_THREAD_COUNT = 10;
+
+    /** Default number of elements processed concurrently */
+    private static final int DEFAULT_ELEMENT_THREAD_COUNT = 5;
+
+    /** Default number of elements loaded in a page */
+    private static final int DEFAULT_PAGE_SIZE = 100;
 
-    /** Thread pool for processing events */
+    /** Thread pool for processing operations */
     private ExecutorService processorPool;
 
+    /** Thread pool for processing elements */
+    private ExecutorService elementPool;
+
+    /** Limits rate at which elements are processed */
+    private RateLimiter rateLimiter;
+
+    /** Number of batch operations processed concurrently */
+    private int operationThreadCount = DEFAULT_OPERATION_THREAD_COUNT;
+
+    /** Number of elements processed concurrently */
+    private int elementThreadCount = DEFAULT_ELEMENT_THREAD_COUNT;
+
+    /** Number of elements loaded in a page */
+    private int pageSize = DEFAULT_PAGE_SIZE;
+
+    /** Maximum number of elements processed per second (0 for unlimited) */
+    private double maxElementsPerSecond = 0;
+
     /** Throttling delay in milliseconds */
     private long throttleDelayMs;
 
+    /** Indicates whether interrupted operations are resumed on startup */
+    private boolean resumeOnStartup = true;
+
+    /** Meter for processed elements */
+    private Meter processedElements;
+
+    /** Meter for elements that failed processing */
+    private Meter failedElements;
+
     /** Map of handlers by operation type */
     private Map<String, IBatchOperationHandler> handlersByOperationType = new HashMap<String, IBatchOperationHandler>();
 
@@ -73,13 +121,22 @@ public class BatchOperationManager extends TenantEngineLifecycleComponent implem
      */
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
-	processorPool = Executors.newFixedThreadPool(BATCH_PROCESSOR_THREAD_COUNT, new ProcessorsThreadFactory());
+	processorPool = Executors.newFixedThreadPool(getOperationThreadCount(), new ProcessorsThreadFactory());
+	elementPool = Executors.newFixedThreadPool(getElementThreadCount(), new ElementsThreadFactory());
+	rateLimiter = (getMaxElementsPerSecond() > 0) ? RateLimiter.create(getMaxElementsPerSecond()) : null;
+	processedElements = createMeterMetric("processedElements");
+	failedElements = createMeterMetric("failedElements");
 
 	// Start handlers.
 	for (String key : getHandlersByOperationType().keySet()) {
 	    IBatchOperationHandler handler = getHandlersByOperationType().get(key);
 	    startNestedComponent(handler, monitor, true);
 	}
+
+	// Pick up operations that were interrupted by a shutdown.
+	if (isResumeOnStartup()) {
+	    resumeInterruptedOperations();
+	}
     }
 
     /*
@@ -100,7 +157,12 @@ public class BatchOperationManager extends TenantEngineLifecycleComponent implem
      */
     @Override
     public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
-	processorPool.shutdownNow();
+	if (processorPool != null) {
+	    processorPool.shutdownNow();
+	}
+	if (elementPool != null) {
+	    elementPool.shutdownNow();
+	}
 
 	// Stop handlers.
 	for (String key : getHandlersByOperationType().keySet()) {
@@ -120,12 +182,35 @@ public class BatchOperationManager extends TenantEngineLifecycleComponent implem
 	processorPool.execute(new BatchOperationProcessor(operation));
     }
 
-    public long getThrottleDelayMs() {
-	return throttleDelayMs;
-    }
-
-    public void setThrottleDelayMs(long throttleDelayMs) {
-	this.throttleDelayMs = throttleDelayMs;
+    /**
+     * Find operations that were being processed when the manager was last
+     * stopped and resubmit them. Elements already completed are skipped. All
+     * pages are loaded before resubmitting since operations that finish are no
+     * longer matched and would shift later pages.
+     * 
+     * @throws SiteWhereException
+     */
+    protected void resumeInterruptedOperations() throws SiteWhereException {
+	List<IBatchOperation> interrupted = new ArrayList<IBatchOperation>();
+	int page = 1;
+	while (true) {
+	    BatchOperationSearchCriteria criteria = new BatchOperationSearchCriteria(page, getPageSize());
+	    criteria.setProcessingStatus(BatchOperationStatus.Processing);
+	    ISearchResults<IBatchOperation> matches = getBatchManagement().listBatchOperations(criteria);
+	    interrupted.addAll(matches.getResults());
+	    if (matches.getResults().size() < getPageSize()) {
+		break;
+	    }
+	    page++;
+	}
+	for (IBatchOperation operation : interrupted) {
+	    try {
+		getLogger().info("Resuming interrupted batch operation: " + operation.getToken());
+		process(operation);
+	    } catch (Throwable t) {
+		getLogger().error("Unable to resume interrupted batch operation: " + operation.getToken(), t);
+	    }
+	}
     }
 
     public IBatchManagement getBatchManagement() {
@@ -153,22 +238,26 @@ public class BatchOperationManager extends TenantEngineLifecycleComponent implem
 	public void run() {
 	    getLogger().debug("Processing batch operation: " + operation.getToken());
 	    try {
-		BatchOperationUpdateRequest request = new BatchOperationUpdateRequest();
-		request.setProcessingStatus(BatchOperationStatus.Processing);
-		request.setProcessingStartedDate(new Date());
-		getBatchManagement().updateBatchOperation(operation.getId(), request);
+		if (operation.getProcessingStatus() != BatchOperationStatus.Processing) {
+		    BatchOperationUpdateRequest request = new BatchOperationUpdateRequest();
+		    request.setProcessingStatus(BatchOperationStatus.Processing);
+		    request.setProcessingStartedDate(new Date());
+		    getBatchManagement().updateBatchOperation(operation.getId(), request);
+		}
 
-		// Process all batch elements.
-		IBatchElementSearchCriteria criteria = new BatchElementSearchCriteria(1, 0);
-		ISearchResults<IBatchElement> matches = getBatchManagement().listBatchElements(operation.getId(),
-			criteria);
-		BatchProcessingResults result = processBatchElements(operation, matches.getResults());
+		// Finish elements left in progress by an earlier run, then remaining ones.
+		if (!processElements(ElementProcessingStatus.Processing)) {
+		    return;
+		}
+		if (!processElements(ElementProcessingStatus.Unprocessed)) {
+		    return;
+		}
 
 		// Update operation to reflect processing results.
-		request = new BatchOperationUpdateRequest();
+		BatchOperationUpdateRequest request = new BatchOperationUpdateRequest();
 		request.setProcessingStatus(BatchOperationStatus.FinishedSuccessfully);
 		request.setProcessingEndedDate(new Date());
-		if (result.getErrorCount() > 0) {
+		if (countElements(ElementProcessingStatus.Failed) > 0) {
 		    request.setProcessingStatus(BatchOperationStatus.FinishedWithErrors);
 		}
 		getBatchManagement().updateBatchOperation(operation.getId(), request);
@@ -178,120 +267,230 @@ public class BatchOperationManager extends TenantEngineLifecycleComponent implem
 	}
 
 	/**
-	 * Handle case where batch operation manager has been paused.
+	 * Process elements with the given status a page at a time until none remain.
+	 * Since processed elements no longer match the status, the first page is
+	 * always requested.
+	 * 
+	 * @param status
+	 * @return false if processing was interrupted
+	 * @throws SiteWhereException
 	 */
-	protected void handlePauseAndThrottle() {
-	    while (getLifecycleStatus() == LifecycleStatus.Paused) {
-		try {
-		    Thread.sleep(1000);
-		} catch (InterruptedException e) {
+	protected boolean processElements(ElementProcessingStatus status) throws SiteWhereException {
+	    BatchElementSearchCriteria criteria = new BatchElementSearchCriteria(1, getPageSize());
+	    criteria.setProcessingStatus(status);
+	    while (true) {
+		if (!handlePause()) {
+		    return false;
 		}
-	    }
-	    if (getThrottleDelayMs() > 0) {
-		try {
-		    Thread.sleep(getThrottleDelayMs());
-		} catch (InterruptedException e) {
-		    getLogger().warn("Throttle timer interrupted.");
+		List<IBatchElement> page = getBatchManagement().listBatchElements(operation.getId(), criteria)
+			.getResults();
+		if (page.isEmpty()) {
+		    return true;
+		}
+
+		// Checkpoint elements as being processed.
+		if (status != ElementProcessingStatus.Processing) {
+		    Map<UUID, IBatchElementUpdateRequest> processing = new HashMap<UUID, IBatchElementUpdateRequest>();
+		    for (IBatchElement element : page) {
+			BatchElementUpdateRequest request = new BatchElementUpdateRequest();
+			request.setProcessingStatus(ElementProcessingStatus.Processing);
+			processing.put(element.getId(), request);
+		    }
+		    getBatchManagement().updateBatchElements(processing);
+		}
+
+		Map<UUID, IBatchElementUpdateRequest> results = processPage(page);
+		getBatchManagement().updateBatchElements(results);
+		if (results.size() < page.size()) {
+		    return false;
 		}
 	    }
 	}
 
 	/**
-	 * Processes a page of batch elements.
+	 * Processes a page of batch elements using the element thread pool.
 	 * 
-	 * @param operation
 	 * @param elements
 	 * @return
 	 * @throws SiteWhereException
 	 */
-	protected BatchProcessingResults processBatchElements(IBatchOperation operation, List<IBatchElement> elements)
+	protected Map<UUID, IBatchElementUpdateRequest> processPage(List<IBatchElement> elements)
 		throws SiteWhereException {
-	    BatchProcessingResults results = new BatchProcessingResults();
+	    List<Future<BatchElementUpdateRequest>> futures = new ArrayList<Future<BatchElementUpdateRequest>>();
 	    for (IBatchElement element : elements) {
-		// Check whether manager has been paused.
-		handlePauseAndThrottle();
-
-		// Only process unprocessed elements.
-		if (element.getProcessingStatus() != ElementProcessingStatus.Unprocessed) {
-		    continue;
-		}
-
-		// Indicate element is being processed.
-		BatchElementUpdateRequest request = new BatchElementUpdateRequest();
-		request.setProcessingStatus(ElementProcessingStatus.Processing);
-		getBatchManagement().updateBatchElement(element.getBatchOperationId(), request);
-
-		request = new BatchElementUpdateRequest();
-		ElementProcessingStatus status = ElementProcessingStatus.Succeeded;
+		futures.add(elementPool.submit(new BatchElementProcessor(operation, element)));
+	    }
+	    Map<UUID, IBatchElementUpdateRequest> results = new LinkedHashMap<UUID, IBatchElementUpdateRequest>();
+	    for (int i = 0; i < elements.size(); i++) {
 		try {
-		    IBatchOperationHandler handler = getHandlersByOperationType().get(operation.getOperationType());
-		    if (handler != null) {
-			status = handler.process(operation, element, request);
-		    } else {
-			status = ElementProcessingStatus.Failed;
-		    }
-
-		    // Indicate element succeeded in processing.
-		    request.setProcessingStatus(status);
-		    request.setProcessedDate(new Date());
-		} catch (SiteWhereException t) {
-		    // Indicate element failed in processing.
-		    getLogger().error("Error processing batch invocation element.", t);
-		    request.setProcessingStatus(ElementProcessingStatus.Failed);
-		} finally {
-		    IBatchElement updated = getBatchManagement().updateBatchElement(element.getBatchOperationId(),
-			    request);
-		    results.process(updated);
+		    results.put(elements.get(i).getId(), futures.get(i).get());
+		} catch (InterruptedException e) {
+		    getLogger().warn("Interrupted while processing batch elements.");
+		    Thread.currentThread().interrupt();
+		    break;
+		} catch (ExecutionException e) {
+		    throw new SiteWhereException("Unhandled error processing batch element.", e.getCause());
 		}
 	    }
 	    return results;
 	}
-    }
 
-    public Map<String, IBatchOperationHandler> getHandlersByOperationType() {
-	return handlersByOperationType;
-    }
+	/**
+	 * Count elements with the given status.
+	 * 
+	 * @param status
+	 * @return
+	 * @throws SiteWhereException
+	 */
+	protected long countElements(ElementProcessingStatus status) throws SiteWhereException {
+	    BatchElementSearchCriteria criteria = new BatchElementSearchCriteria(1, 1);
+	    criteria.setProcessingStatus(status);
+	    return getBatchManagement().listBatchElements(operation.getId(), criteria).getNumResults();
+	}
 
-    public void setHandlersByOperationType(Map<String, IBatchOperationHandler> handlersByOperationType) {
-	this.handlersByOperationType = handlersByOperationType;
+	/**
+	 * Handle case where batch operation manager has been paused.
+	 * 
+	 * @return false if manager was stopped
+	 */
+	protected boolean handlePause() {
+	    while (getLifecycleStatus() == LifecycleStatus.Paused) {
+		try {
+		    Thread.sleep(1000);
+		} catch (InterruptedException e) {
+		    return false;
+		}
+	    }
+	    return !Thread.currentThread().isInterrupted();
+	}
     }
 
     /**
-     * Used to track status of processed elements.
+     * Processes a single batch element and returns the resulting update.
      * 
      * @author Derek
      */
-    private class BatchProcessingResults {
+    private class BatchElementProcessor implements Callable<BatchElementUpdateRequest> {
 
-	// Count of successfully processed elements.
-	private AtomicLong success = new AtomicLong();
+	/** Parent operation */
+	private IBatchOperation operation;
 
-	// Count of elements that failed to process.
-	private AtomicLong failed = new AtomicLong();
+	/** Element being processed */
+	private IBatchElement element;
 
-	public void process(IBatchElement element) {
-	    switch (element.getProcessingStatus()) {
-	    case Succeeded: {
-		success.incrementAndGet();
-		break;
-	    }
-	    case Failed: {
-		failed.incrementAndGet();
-		break;
+	public BatchElementProcessor(IBatchOperation operation, IBatchElement element) {
+	    this.operation = operation;
+	    this.element = element;
+	}
+
+	/*
+	 * @see java.util.concurrent.Callable#call()
+	 */
+	@Override
+	public BatchElementUpdateRequest call() throws Exception {
+	    handleThrottle();
+
+	    BatchElementUpdateRequest request = new BatchElementUpdateRequest();
+	    request.setMetadata(new HashMap<String, String>());
+	    if (element.getMetadata() != null) {
+		request.getMetadata().putAll(element.getMetadata());
 	    }
-	    case Processing:
-	    case Unprocessed: {
-		getLogger().warn("Batch element was not in an expected state: " + element.getProcessingStatus());
-		break;
+	    ElementProcessingStatus status = ElementProcessingStatus.Succeeded;
+	    try {
+		IBatchOperationHandler handler = getHandlersByOperationType().get(operation.getOperationType());
+		if (handler != null) {
+		    status = handler.process(operation, element, request);
+		} else {
+		    status = ElementProcessingStatus.Failed;
+		}
+	    } catch (SiteWhereException t) {
+		getLogger().error("Error processing batch invocation element.", t);
+		status = ElementProcessingStatus.Failed;
 	    }
+	    request.setProcessingStatus(status);
+	    request.setProcessedDate(new Date());
+
+	    processedElements.mark();
+	    if (status == ElementProcessingStatus.Failed) {
+		failedElements.mark();
 	    }
+	    return request;
 	}
 
-	public long getErrorCount() {
-	    return failed.get();
+	/**
+	 * Apply rate limit and throttle delay if configured.
+	 */
+	protected void handleThrottle() {
+	    if (rateLimiter != null) {
+		rateLimiter.acquire();
+	    }
+	    if (getThrottleDelayMs() > 0) {
+		try {
+		    Thread.sleep(getThrottleDelayMs());
+		} catch (InterruptedException e) {
+		    getLogger().warn("Throttle timer interrupted.");
+		    Thread.currentThread().interrupt();
+		}
+	    }
 	}
     }
 
+    public Map<String, IBatchOperationHandler> getHandlersByOperationType() {
+	return handlersByOperationType;
+    }
+
+    public void setHandlersByOperationType(Map<String, IBatchOperationHandler> handlersByOperationType) {
+	this.handlersByOperationType = handlersByOperationType;
+    }
+
+    public int getOperationThreadCount() {
+	return operationThreadCount;
+    }
+
+    public void setOperationThreadCount(int operationThreadCount) {
+	this.operationThreadCount = operationThreadCount;
+    }
+
+    public int getElementThreadCount() {
+	return elementThreadCount;
+    }
+
+    public void setElementThreadCount(int elementThreadCount) {
+	this.elementThreadCount = elementThreadCount;
+    }
+
+    public int getPageSize() {
+	return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+	this.pageSize = pageSize;
+    }
+
+    public double getMaxElementsPerSecond() {
+	return maxElementsPerSecond;
+    }
+
+    public void setMaxElementsPerSecond(double maxElementsPerSecond) {
+	this.maxElementsPerSecond = maxElementsPerSecond;
+    }
+
+    public long getThrottleDelayMs() {
+	return throttleDelayMs;
+    }
+
+    public void setThrottleDelayMs(long throttleDelayMs) {
+	this.throttleDelayMs = throttleDelayMs;
+    }
+
+    public boolean isResumeOnStartup() {
+	return resumeOnStartup;
+    }
+
+    public void setResumeOnStartup(boolean resumeOnStartup) {
+	this.resumeOnStartup = resumeOnStartup;
+    }
+
     /** Used for naming batch operation processor threads */
     private class ProcessorsThreadFactory implements ThreadFactory {
 
@@ -302,4 +501,15 @@ public class BatchOperationManager extends TenantEngineLifecycleComponent implem
 	    return new Thread(r, "Batch Operation Processor " + counter.incrementAndGet());
 	}
     }
-}
\ No newline at end of file
+
+    /** Used for naming batch element processor threads */
+    private class ElementsThreadFactory implements ThreadFactory {
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public Thread newThread(Runnable r) {
+	    return new Thread(r, "Batch Element Processor " + counter.incrementAndGet());
+	}
+    }
+}
@@ -101,6 +101,29 @@ public class BatchOperationsModelProvider extends ConfigurationModelProvider {
 			.description("Number of milliseconds to wait between processing elements in a "
 				+ "batch operation. This throttles the output to prevent overloading the system.")
 			.defaultValue("0").build()));
+	builder.attribute((new AttributeNode.Builder("Operation threads", "operationThreadCount",
+		AttributeType.Integer, ConfigurationModelProvider.ATTR_GROUP_GENERAL)
+			.description("Number of batch operations that may be processed concurrently.")
+			.defaultValue("10").build()));
+	builder.attribute((new AttributeNode.Builder("Element threads", "elementThreadCount", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_GENERAL)
+			.description("Number of elements that may be processed concurrently across all batch operations.")
+			.defaultValue("5").build()));
+	builder.attribute((new AttributeNode.Builder("Page size", "pageSize", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_GENERAL)
+			.description("Number of elements loaded and checkpointed together while processing "
+				+ "a batch operation.")
+			.defaultValue("100").build()));
+	builder.attribute((new AttributeNode.Builder("Max elements per second", "maxElementsPerSecond",
+		AttributeType.Decimal, ConfigurationModelProvider.ATTR_GROUP_GENERAL)
+			.description("Maximum number of elements processed per second. A value of zero "
+				+ "disables rate limiting.")
+			.defaultValue("0").build()));
+	builder.attribute((new AttributeNode.Builder("Resume on startup", "resumeOnStartup", AttributeType.Boolean,
+		ConfigurationModelProvider.ATTR_GROUP_GENERAL)
+			.description("Indicates whether batch operations that were interrupted by a shutdown "
+				+ "are resumed on startup.")
+			.defaultValue("true").build()));
 	return builder.build();
     }
 }
\ No newline at end of file
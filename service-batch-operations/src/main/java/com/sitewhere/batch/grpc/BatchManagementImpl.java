@@ -7,6 +7,7 @@
  */
 package com.sitewhere.batch.grpc;
 
+import com.sitewhere.batch.spi.IBatchOperationManager;
 import com.sitewhere.batch.spi.microservice.IBatchOperationsMicroservice;
 import com.sitewhere.grpc.client.GrpcUtils;
 import com.sitewhere.grpc.client.spi.server.IGrpcApiImplementation;
@@ -56,9 +57,18 @@ public class BatchManagementImpl extends BatchManagementGrpc.BatchManagementImpl
     /** Batch management persistence */
     private IBatchManagement batchManagement;
 
+    /** Processes batch operations once created */
+    private IBatchOperationManager batchOperationManager;
+
     public BatchManagementImpl(IBatchOperationsMicroservice microservice, IBatchManagement batchManagement) {
+	this(microservice, batchManagement, null);
+    }
+
+    public BatchManagementImpl(IBatchOperationsMicroservice microservice, IBatchManagement batchManagement,
+	    IBatchOperationManager batchOperationManager) {
 	this.microservice = microservice;
 	this.batchManagement = batchManagement;
+	this.batchOperationManager = batchOperationManager;
     }
 
     /*
@@ -99,6 +109,9 @@ public class BatchManagementImpl extends BatchManagementGrpc.BatchManagementImpl
 	    IBatchCommandInvocationRequest apiRequest = BatchModelConverter
 		    .asApiBatchCommandInvocationRequest(request.getRequest());
 	    IBatchOperation apiResult = getBatchManagement().createBatchCommandInvocation(apiRequest);
+	    if (getBatchOperationManager() != null) {
+		getBatchOperationManager().process(apiResult);
+	    }
 	    GCreateBatchCommandInvocationResponse.Builder response = GCreateBatchCommandInvocationResponse.newBuilder();
 	    response.setBatchOperation(BatchModelConverter.asGrpcBatchOperation(apiResult));
 	    responseObserver.onNext(response.build());
@@ -283,4 +296,8 @@ public class BatchManagementImpl extends BatchManagementGrpc.BatchManagementImpl
     protected IBatchManagement getBatchManagement() {
 	return batchManagement;
     }
+
+    protected IBatchOperationManager getBatchOperationManager() {
+	return batchOperationManager;
+    }
 }
\ No newline at end of file
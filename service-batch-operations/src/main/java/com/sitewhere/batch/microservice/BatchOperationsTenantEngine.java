@@ -7,7 +7,9 @@
  */
 package com.sitewhere.batch.microservice;
 
+import com.sitewhere.batch.BatchOperationManager;
 import com.sitewhere.batch.grpc.BatchManagementImpl;
+import com.sitewhere.batch.spi.IBatchOperationManager;
 import com.sitewhere.batch.spi.microservice.IBatchOperationsMicroservice;
 import com.sitewhere.batch.spi.microservice.IBatchOperationsTenantEngine;
 import com.sitewhere.grpc.service.BatchManagementGrpc;
@@ -33,6 +35,9 @@ public class BatchOperationsTenantEngine extends MicroserviceTenantEngine implem
     /** Batch management persistence implementation */
     private IBatchManagement batchManagement;
 
+    /** Processes batch operations */
+    private IBatchOperationManager batchOperationManager;
+
     /** Responds to batch management GRPC requests */
     private BatchManagementGrpc.BatchManagementImplBase batchManagementImpl;
 
@@ -50,8 +55,14 @@ public class BatchOperationsTenantEngine extends MicroserviceTenantEngine implem
 	// Create management interfaces.
 	this.batchManagement = (IBatchManagement) getModuleContext()
 		.getBean(BatchManagementBeans.BEAN_BATCH_MANAGEMENT);
+	if (getModuleContext().containsBean(BatchManagementBeans.BEAN_BATCH_OPERATION_MANAGER)) {
+	    this.batchOperationManager = (IBatchOperationManager) getModuleContext()
+		    .getBean(BatchManagementBeans.BEAN_BATCH_OPERATION_MANAGER);
+	} else {
+	    this.batchOperationManager = new BatchOperationManager();
+	}
 	this.batchManagementImpl = new BatchManagementImpl((IBatchOperationsMicroservice) getMicroservice(),
-		getBatchManagement());
+		getBatchManagement(), getBatchOperationManager());
 
 	// Create step that will initialize components.
 	ICompositeLifecycleStep init = new CompositeLifecycleStep("Initialize " + getComponentName());
@@ -62,6 +73,9 @@ public class BatchOperationsTenantEngine extends MicroserviceTenantEngine implem
 	// Initialize batch management persistence.
 	init.addInitializeStep(this, getBatchManagement(), true);
 
+	// Initialize batch operation manager.
+	init.addInitializeStep(this, getBatchOperationManager(), true);
+
 	// Execute initialization steps.
 	init.execute(monitor);
     }
@@ -81,6 +95,9 @@ public class BatchOperationsTenantEngine extends MicroserviceTenantEngine implem
 	// Start batch management persistence.
 	start.addStartStep(this, getBatchManagement(), true);
 
+	// Start batch operation manager.
+	start.addStartStep(this, getBatchOperationManager(), true);
+
 	// Execute startup steps.
 	start.execute(monitor);
     }
@@ -104,6 +121,9 @@ public class BatchOperationsTenantEngine extends MicroserviceTenantEngine implem
 	// Create step that will stop components.
 	ICompositeLifecycleStep stop = new CompositeLifecycleStep("Stop " + getComponentName());
 
+	// Stop batch operation manager.
+	stop.addStopStep(this, getBatchOperationManager());
+
 	// Stop batch management persistence.
 	stop.addStopStep(this, getBatchManagement());
 
@@ -127,6 +147,19 @@ public class BatchOperationsTenantEngine extends MicroserviceTenantEngine implem
 	this.batchManagement = batchManagement;
     }
 
+    /*
+     * @see com.sitewhere.batch.spi.microservice.IBatchOperationsTenantEngine#
+     * getBatchOperationManager()
+     */
+    @Override
+    public IBatchOperationManager getBatchOperationManager() {
+	return batchOperationManager;
+    }
+
+    public void setBatchOperationManager(IBatchOperationManager batchOperationManager) {
+	this.batchOperationManager = batchOperationManager;
+    }
+
     /*
      * @see com.sitewhere.batch.spi.microservice.IBatchOperationsTenantEngine#
      * getBatchManagementImpl()
@@ -7,6 +7,7 @@
  */
 package com.sitewhere.batch.persistence.hbase;
 
+import java.util.Map;
 import java.util.UUID;
 
 import com.sitewhere.batch.persistence.BatchManagementPersistence;
@@ -131,6 +132,17 @@ public class HBaseBatchManagement extends TenantEngineLifecycleComponent impleme
 	return null;
     }
 
+    /*
+     * @see com.sitewhere.spi.batch.IBatchManagement#updateBatchElements(java.util.
+     * Map)
+     */
+    @Override
+    public void updateBatchElements(Map<UUID, IBatchElementUpdateRequest> requests) throws SiteWhereException {
+	for (Map.Entry<UUID, IBatchElementUpdateRequest> entry : requests.entrySet()) {
+	    updateBatchElement(entry.getKey(), entry.getValue());
+	}
+    }
+
     /*
      * (non-Javadoc)
      * 
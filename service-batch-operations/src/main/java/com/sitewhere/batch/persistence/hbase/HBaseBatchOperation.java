@@ -171,7 +171,8 @@ public class HBaseBatchOperation {
 	IFilter<BatchOperation> filter = new IFilter<BatchOperation>() {
 
 	    public boolean isExcluded(BatchOperation item) {
-		return false;
+		return (criteria.getProcessingStatus() != null)
+			&& (criteria.getProcessingStatus() != item.getProcessingStatus());
 	    }
 	};
 	return HBaseUtils.getFilteredList(context, ISiteWhereHBase.DEVICES_TABLE_NAME, KEY_BUILDER, false,
@@ -10,6 +10,7 @@ package com.sitewhere.batch.persistence.mongodb;
 import org.bson.Document;
 
 import com.mongodb.client.MongoCollection;
+import com.sitewhere.configuration.instance.mongodb.MongoConfiguration;
 import com.sitewhere.spi.SiteWhereException;
 
 /**
@@ -40,4 +41,11 @@ public interface IBatchManagementMongoClient {
      * @throws SiteWhereException
      */
     public MongoCollection<Document> getBatchOperationElementsCollection() throws SiteWhereException;
+
+    /**
+     * Get configuration used to connect to MongoDB.
+     * 
+     * @return
+     */
+    public MongoConfiguration getConfiguration();
 }
\ No newline at end of file
@@ -7,17 +7,24 @@
  */
 package com.sitewhere.batch.persistence.mongodb;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.bson.Document;
 
 import com.mongodb.MongoClientException;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
 import com.sitewhere.batch.persistence.BatchManagementPersistence;
 import com.sitewhere.batch.spi.microservice.IBatchOperationsMicroservice;
 import com.sitewhere.mongodb.IMongoConverterLookup;
+import com.sitewhere.mongodb.MongoIndexCatalog;
 import com.sitewhere.mongodb.MongoPersistence;
+import com.sitewhere.mongodb.common.MongoMetadataProvider;
 import com.sitewhere.mongodb.common.MongoPersistentEntity;
 import com.sitewhere.rest.model.batch.BatchElement;
 import com.sitewhere.rest.model.batch.BatchOperation;
@@ -54,17 +61,33 @@ public class MongoBatchManagement extends TenantEngineLifecycleComponent impleme
     }
 
     /**
-     * Ensure that expected collection indexes exist.
+     * Ensure that collection indexes match the index catalog.
      * 
      * @throws SiteWhereException
      */
     protected void ensureIndexes() throws SiteWhereException {
+	createIndexCatalog().reconcile();
+    }
+
+    /**
+     * Create catalog of indexes required by batch management queries.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    protected MongoIndexCatalog createIndexCatalog() throws SiteWhereException {
+	MongoIndexCatalog catalog = new MongoIndexCatalog(
+		getMongoClient().getConfiguration().isRebuildMismatchedIndexes());
 	// Batch operation indexes.
-	getMongoClient().getBatchOperationsCollection().createIndex(new Document(MongoPersistentEntity.PROP_TOKEN, 1),
-		new IndexOptions().unique(true));
-	getMongoClient().getBatchOperationElementsCollection().createIndex(
-		new Document(MongoBatchElement.PROP_BATCH_OPERATION_ID, 1).append(MongoBatchElement.PROP_DEVICE_ID, 1),
-		new IndexOptions().unique(true));
+	catalog.unique(getMongoClient().getBatchOperationsCollection(),
+		new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	catalog.index(getMongoClient().getBatchOperationsCollection(),
+		new Document(MongoBatchOperation.PROP_PROC_STATUS, 1).append(MongoPersistentEntity.PROP_CREATED_DATE, -1));
+	catalog.unique(getMongoClient().getBatchOperationElementsCollection(),
+		new Document(MongoBatchElement.PROP_BATCH_OPERATION_ID, 1).append(MongoBatchElement.PROP_DEVICE_ID, 1));
+	catalog.index(getMongoClient().getBatchOperationElementsCollection(), new Document(
+		MongoBatchElement.PROP_BATCH_OPERATION_ID, 1).append(MongoBatchElement.PROP_PROCESSING_STATUS, 1));
+	return catalog;
     }
 
     /*
@@ -155,6 +178,9 @@ public class MongoBatchManagement extends TenantEngineLifecycleComponent impleme
 	    throws SiteWhereException {
 	MongoCollection<Document> ops = getMongoClient().getBatchOperationsCollection();
 	Document dbCriteria = new Document();
+	if (criteria.getProcessingStatus() != null) {
+	    dbCriteria.append(MongoBatchOperation.PROP_PROC_STATUS, criteria.getProcessingStatus().name());
+	}
 	Document sort = new Document(MongoPersistentEntity.PROP_CREATED_DATE, -1);
 	return MongoPersistence.search(IBatchOperation.class, ops, dbCriteria, sort, criteria, LOOKUP);
     }
@@ -215,6 +241,46 @@ public class MongoBatchManagement extends TenantEngineLifecycleComponent impleme
 	return MongoBatchElement.fromDocument(updated);
     }
 
+    /*
+     * @see com.sitewhere.spi.batch.IBatchManagement#updateBatchElements(java.util.
+     * Map)
+     */
+    @Override
+    public void updateBatchElements(Map<UUID, IBatchElementUpdateRequest> requests) throws SiteWhereException {
+	if (requests.isEmpty()) {
+	    return;
+	}
+	List<WriteModel<Document>> updates = new ArrayList<WriteModel<Document>>();
+	for (Map.Entry<UUID, IBatchElementUpdateRequest> entry : requests.entrySet()) {
+	    Document fields = new Document();
+	    IBatchElementUpdateRequest request = entry.getValue();
+	    if (request.getProcessingStatus() != null) {
+		fields.append(MongoBatchElement.PROP_PROCESSING_STATUS, request.getProcessingStatus().name());
+	    }
+	    if (request.getProcessedDate() != null) {
+		fields.append(MongoBatchElement.PROP_PROCESSED_DATE, request.getProcessedDate());
+	    }
+	    if (request.getMetadata() != null) {
+		Document metadata = new Document();
+		metadata.putAll(request.getMetadata());
+		fields.append(MongoMetadataProvider.PROP_METADATA, metadata);
+	    }
+	    if (!fields.isEmpty()) {
+		updates.add(new UpdateOneModel<Document>(new Document(MongoBatchElement.PROP_ID, entry.getKey()),
+			new Document("$set", fields)));
+	    }
+	}
+	if (updates.isEmpty()) {
+	    return;
+	}
+	try {
+	    MongoCollection<Document> elements = getMongoClient().getBatchOperationElementsCollection();
+	    elements.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+	} catch (MongoClientException e) {
+	    throw MongoPersistence.handleClientException(e);
+	}
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -7,6 +7,7 @@
  */
 package com.sitewhere.batch.spi.microservice;
 
+import com.sitewhere.batch.spi.IBatchOperationManager;
 import com.sitewhere.grpc.service.BatchManagementGrpc;
 import com.sitewhere.spi.batch.IBatchManagement;
 import com.sitewhere.spi.microservice.multitenant.IMicroserviceTenantEngine;
@@ -26,6 +27,13 @@ public interface IBatchOperationsTenantEngine extends IMicroserviceTenantEngine
      */
     public IBatchManagement getBatchManagement();
 
+    /**
+     * Get manager that processes batch operations.
+     * 
+     * @return
+     */
+    public IBatchOperationManager getBatchOperationManager();
+
     /**
      * Get implementation class that wraps batch management with GRPC conversions.
      * 
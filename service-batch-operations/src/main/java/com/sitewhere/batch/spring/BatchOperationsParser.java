@@ -16,8 +16,10 @@ import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.xml.AbstractBeanDefinitionParser;
 import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.util.xml.DomUtils;
+import org.w3c.dom.Attr;
 import org.w3c.dom.Element;
 
+import com.sitewhere.batch.BatchOperationManager;
 import com.sitewhere.batch.persistence.mongodb.BatchManagementMongoClient;
 import com.sitewhere.batch.persistence.mongodb.MongoBatchManagement;
 import com.sitewhere.configuration.datastore.DatastoreConfigurationChoice;
@@ -57,6 +59,7 @@ public class BatchOperationsParser extends AbstractBeanDefinitionParser {
 		break;
 	    }
 	    case BatchOperationManager: {
+		parseBatchOperationManager(child, context);
 		break;
 	    }
 	    }
@@ -64,6 +67,49 @@ public class BatchOperationsParser extends AbstractBeanDefinitionParser {
 	return null;
     }
 
+    /**
+     * Parse batch operation manager element.
+     * 
+     * @param element
+     * @param context
+     */
+    protected void parseBatchOperationManager(Element element, ParserContext context) {
+	BeanDefinitionBuilder manager = BeanDefinitionBuilder.rootBeanDefinition(BatchOperationManager.class);
+
+	Attr throttleDelayMs = element.getAttributeNode("throttleDelayMs");
+	if (throttleDelayMs != null) {
+	    manager.addPropertyValue("throttleDelayMs", throttleDelayMs.getValue());
+	}
+
+	Attr operationThreadCount = element.getAttributeNode("operationThreadCount");
+	if (operationThreadCount != null) {
+	    manager.addPropertyValue("operationThreadCount", operationThreadCount.getValue());
+	}
+
+	Attr elementThreadCount = element.getAttributeNode("elementThreadCount");
+	if (elementThreadCount != null) {
+	    manager.addPropertyValue("elementThreadCount", elementThreadCount.getValue());
+	}
+
+	Attr pageSize = element.getAttributeNode("pageSize");
+	if (pageSize != null) {
+	    manager.addPropertyValue("pageSize", pageSize.getValue());
+	}
+
+	Attr maxElementsPerSecond = element.getAttributeNode("maxElementsPerSecond");
+	if (maxElementsPerSecond != null) {
+	    manager.addPropertyValue("maxElementsPerSecond", maxElementsPerSecond.getValue());
+	}
+
+	Attr resumeOnStartup = element.getAttributeNode("resumeOnStartup");
+	if (resumeOnStartup != null) {
+	    manager.addPropertyValue("resumeOnStartup", resumeOnStartup.getValue());
+	}
+
+	context.getRegistry().registerBeanDefinition(BatchManagementBeans.BEAN_BATCH_OPERATION_MANAGER,
+		manager.getBeanDefinition());
+    }
+
     /**
      * Parse device management datastore element.
      * 
@@ -12,7 +12,9 @@ import java.io.IOException;
 
 import com.google.protobuf.ByteString;
 import com.sitewhere.commands.spi.ICommandExecutionEncoder;
+import com.sitewhere.commands.spi.microservice.ICommandDeliveryMicroservice;
 import com.sitewhere.common.MarshalUtils;
+import com.sitewhere.communication.protobuf.DeviceTypeDescriptorCache;
 import com.sitewhere.communication.protobuf.ProtobufMessageBuilder;
 import com.sitewhere.communication.protobuf.proto.Sitewhere.Device.Command;
 import com.sitewhere.communication.protobuf.proto.Sitewhere.Device.DeviceStreamAck;
@@ -24,6 +26,9 @@ import com.sitewhere.communication.protobuf.proto.Sitewhere.Device.RegistrationA
 import com.sitewhere.communication.protobuf.proto.Sitewhere.Model;
 import com.sitewhere.communication.protobuf.proto.Sitewhere.Model.DeviceStreamData;
 import com.sitewhere.core.DataUtils;
+import com.sitewhere.grpc.client.device.CachedDeviceManagementApiChannel;
+import com.sitewhere.grpc.client.spi.cache.ICacheListener;
+import com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel;
 import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.device.IDeviceAssignment;
@@ -34,21 +39,107 @@ import com.sitewhere.spi.device.command.IRegistrationAckCommand;
 import com.sitewhere.spi.device.command.IRegistrationFailureCommand;
 import com.sitewhere.spi.device.command.ISendDeviceStreamDataCommand;
 import com.sitewhere.spi.device.command.ISystemCommand;
+import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
 
 /**
  * Implementation of {@link ICommandExecutionEncoder} that uses Google Protocol
- * Buffers to encode the execution.
+ * Buffers to encode the execution. Descriptors generated for device type
+ * commands are cached and invalidated when the shared device type cache
+ * reports that a device type changed.
  * 
  * @author Derek
  */
 public class ProtobufExecutionEncoder extends TenantEngineLifecycleComponent
 	implements ICommandExecutionEncoder<byte[]> {
 
+    /** Interval between attempts to register device type cache listener */
+    private static final long LISTENER_RETRY_INTERVAL_MS = 10 * 1000;
+
+    /** Caches descriptors generated for device type commands */
+    private DeviceTypeDescriptorCache descriptorCache = new DeviceTypeDescriptorCache();
+
+    /** Registration id for device type cache listener */
+    private volatile String deviceTypeListenerId;
+
+    /** Last time listener registration was attempted */
+    private volatile long lastListenerAttempt;
+
     public ProtobufExecutionEncoder() {
 	super(LifecycleComponentType.CommandExecutionEncoder);
     }
 
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#start(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	super.start(monitor);
+	this.lastListenerAttempt = 0;
+	checkDeviceTypeListener();
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#stop(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	getLogger().info("Protobuf descriptor cache had " + getDescriptorCache().getHits() + " hits, "
+		+ getDescriptorCache().getMisses() + " misses and " + getDescriptorCache().getRebuilds()
+		+ " rebuilds.");
+	if (deviceTypeListenerId != null) {
+	    IDeviceManagementApiChannel<?> channel = getDeviceManagementApiChannel();
+	    if (channel instanceof CachedDeviceManagementApiChannel) {
+		((CachedDeviceManagementApiChannel) channel).getDeviceTypeCache()
+			.removeCacheListener(getTenantEngine().getTenant(), deviceTypeListenerId);
+	    }
+	    this.deviceTypeListenerId = null;
+	}
+	getDescriptorCache().invalidateAll();
+	super.stop(monitor);
+    }
+
+    /**
+     * Register a listener that invalidates cached descriptors when a device type
+     * is updated or removed from the shared cache. Attempts are throttled since
+     * the cache may not be available until after startup.
+     */
+    protected void checkDeviceTypeListener() {
+	if (deviceTypeListenerId != null) {
+	    return;
+	}
+	long now = System.currentTimeMillis();
+	if ((now - lastListenerAttempt) < LISTENER_RETRY_INTERVAL_MS) {
+	    return;
+	}
+	lastListenerAttempt = now;
+	IDeviceManagementApiChannel<?> channel = getDeviceManagementApiChannel();
+	if (!(channel instanceof CachedDeviceManagementApiChannel)) {
+	    return;
+	}
+	try {
+	    this.deviceTypeListenerId = ((CachedDeviceManagementApiChannel) channel).getDeviceTypeCache()
+		    .addCacheListener(getTenantEngine().getTenant(), new ICacheListener<String>() {
+
+			@Override
+			public void entryChanged(String token) {
+			    getDescriptorCache().invalidate(token);
+			}
+
+			@Override
+			public void cacheCleared() {
+			    getDescriptorCache().invalidateAll();
+			}
+		    });
+	} catch (SiteWhereException e) {
+	    getLogger().warn("Unable to register protobuf descriptor cache listener.", e);
+	}
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -60,9 +151,12 @@ public class ProtobufExecutionEncoder extends TenantEngineLifecycleComponent
     @Override
     public byte[] encode(IDeviceCommandExecution execution, IDeviceNestingContext nested, IDeviceAssignment assignment)
 	    throws SiteWhereException {
+	checkDeviceTypeListener();
 	byte[] encoded = ProtobufMessageBuilder.createMessage(execution, nested, assignment,
-		getTenantEngine().getTenant());
-	getLogger().debug("Protobuf message: 0x" + DataUtils.bytesToHex(encoded));
+		getDeviceManagementApiChannel(), getDescriptorCache());
+	if (getLogger().isDebugEnabled()) {
+	    getLogger().debug("Protobuf message: 0x" + DataUtils.bytesToHex(encoded));
+	}
 	return encoded;
     }
 
@@ -213,4 +307,16 @@ public class ProtobufExecutionEncoder extends TenantEngineLifecycleComponent
 	    throw new SiteWhereException("Unable to marshal device stream data chunk to protobuf.", e);
 	}
     }
-}
\ No newline at end of file
+
+    public DeviceTypeDescriptorCache getDescriptorCache() {
+	return descriptorCache;
+    }
+
+    public void setDescriptorCache(DeviceTypeDescriptorCache descriptorCache) {
+	this.descriptorCache = descriptorCache;
+    }
+
+    private IDeviceManagementApiChannel<?> getDeviceManagementApiChannel() {
+	return ((ICommandDeliveryMicroservice) getMicroservice()).getDeviceManagementApiDemux().getApiChannel();
+    }
+}
@@ -7,6 +7,9 @@
  */
 package com.sitewhere.device;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.security.core.Authentication;
@@ -17,9 +20,9 @@ import com.sitewhere.device.spi.microservice.IDeviceManagementTenantEngine;
 import com.sitewhere.grpc.client.event.BlockingDeviceEventManagement;
 import com.sitewhere.rest.model.device.event.request.DeviceStateChangeCreateRequest;
 import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.common.IBulkCreateResult;
 import com.sitewhere.spi.device.IDeviceAssignment;
 import com.sitewhere.spi.device.IDeviceManagement;
-import com.sitewhere.spi.device.event.IDeviceEventManagement;
 import com.sitewhere.spi.device.event.request.IDeviceStateChangeCreateRequest;
 import com.sitewhere.spi.device.request.IDeviceAssignmentCreateRequest;
 
@@ -58,6 +61,32 @@ public class DeviceManagementTriggers extends DeviceManagementDecorator {
 	return created;
     }
 
+    /*
+     * @see
+     * com.sitewhere.device.DeviceManagementDecorator#createDeviceAssignments(java.
+     * util.List)
+     */
+    @Override
+    public List<IBulkCreateResult<IDeviceAssignment>> createDeviceAssignments(
+	    List<IDeviceAssignmentCreateRequest> requests) throws SiteWhereException {
+	List<IBulkCreateResult<IDeviceAssignment>> results = super.createDeviceAssignments(requests);
+
+	Map<UUID, IDeviceStateChangeCreateRequest> states = new LinkedHashMap<>();
+	for (IBulkCreateResult<IDeviceAssignment> result : results) {
+	    if (result.getEntity() != null) {
+		DeviceStateChangeCreateRequest state = new DeviceStateChangeCreateRequest();
+		state.setAttribute(IDeviceStateChangeCreateRequest.ATTRIBUTE_ASSIGNMENT);
+		state.setType("create");
+		states.put(result.getEntity().getId(), state);
+	    }
+	}
+	if (!states.isEmpty()) {
+	    updateTenantAuthentication();
+	    getDeviceEventManagement().addDeviceStateChanges(states);
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.device.DeviceManagementDecorator#updateDeviceAssignment(java.
@@ -105,7 +134,7 @@ public class DeviceManagementTriggers extends DeviceManagementDecorator {
 	SecurityContextHolder.getContext().setAuthentication(system);
     }
 
-    protected IDeviceEventManagement getDeviceEventManagement() throws SiteWhereException {
+    protected BlockingDeviceEventManagement getDeviceEventManagement() throws SiteWhereException {
 	return new BlockingDeviceEventManagement(
 		((IDeviceManagementMicroservice) getDeviceManagementTenantEngine().getMicroservice())
 			.getEventManagementApiDemux().getApiChannel());
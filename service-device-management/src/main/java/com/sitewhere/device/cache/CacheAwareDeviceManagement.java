@@ -7,6 +7,8 @@
  */
 package com.sitewhere.device.cache;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import com.sitewhere.device.DeviceManagementDecorator;
@@ -17,11 +19,14 @@ import com.sitewhere.security.UserContextManager;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.area.IArea;
 import com.sitewhere.spi.area.request.IAreaCreateRequest;
+import com.sitewhere.spi.common.IBulkCreateResult;
 import com.sitewhere.spi.device.IDevice;
 import com.sitewhere.spi.device.IDeviceAssignment;
 import com.sitewhere.spi.device.IDeviceManagement;
 import com.sitewhere.spi.device.IDeviceType;
+import com.sitewhere.spi.device.command.IDeviceCommand;
 import com.sitewhere.spi.device.request.IDeviceAssignmentCreateRequest;
+import com.sitewhere.spi.device.request.IDeviceCommandCreateRequest;
 import com.sitewhere.spi.device.request.IDeviceCreateRequest;
 import com.sitewhere.spi.device.request.IDeviceTypeCreateRequest;
 import com.sitewhere.spi.microservice.ICachingMicroservice;
@@ -258,6 +263,33 @@ public class CacheAwareDeviceManagement extends DeviceManagementDecorator {
 	return result;
     }
 
+    /*
+     * @see
+     * com.sitewhere.device.DeviceManagementDecorator#createDeviceAssignments(java.
+     * util.List)
+     */
+    @Override
+    public List<IBulkCreateResult<IDeviceAssignment>> createDeviceAssignments(
+	    List<IDeviceAssignmentCreateRequest> requests) throws SiteWhereException {
+	ITenant tenant = UserContextManager.getCurrentTenant(true);
+	List<IBulkCreateResult<IDeviceAssignment>> results = super.createDeviceAssignments(requests);
+
+	// Devices now reference new assignments, so drop any cached copies.
+	List<UUID> deviceIds = new ArrayList<UUID>();
+	for (IBulkCreateResult<IDeviceAssignment> result : results) {
+	    if (result.getEntity() != null) {
+		deviceIds.add(result.getEntity().getDeviceId());
+	    }
+	}
+	if (!deviceIds.isEmpty()) {
+	    for (IDevice device : super.getDevicesById(deviceIds)) {
+		getDeviceCache().removeCacheEntry(tenant, device.getToken());
+		getDeviceByIdCache().removeCacheEntry(tenant, device.getId());
+	    }
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.device.DeviceManagementDecorator#getDeviceAssignmentByToken(
@@ -432,6 +464,64 @@ public class CacheAwareDeviceManagement extends DeviceManagementDecorator {
 	return result;
     }
 
+    /*
+     * @see
+     * com.sitewhere.device.DeviceManagementDecorator#createDeviceCommand(com.
+     * sitewhere.spi.device.request.IDeviceCommandCreateRequest)
+     */
+    @Override
+    public IDeviceCommand createDeviceCommand(IDeviceCommandCreateRequest request) throws SiteWhereException {
+	IDeviceCommand result = super.createDeviceCommand(request);
+	onDeviceCommandsChanged(result);
+	return result;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.device.DeviceManagementDecorator#updateDeviceCommand(java.util.
+     * UUID, com.sitewhere.spi.device.request.IDeviceCommandCreateRequest)
+     */
+    @Override
+    public IDeviceCommand updateDeviceCommand(UUID id, IDeviceCommandCreateRequest request)
+	    throws SiteWhereException {
+	IDeviceCommand result = super.updateDeviceCommand(id, request);
+	onDeviceCommandsChanged(result);
+	return result;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.device.DeviceManagementDecorator#deleteDeviceCommand(java.util.
+     * UUID)
+     */
+    @Override
+    public IDeviceCommand deleteDeviceCommand(UUID id) throws SiteWhereException {
+	IDeviceCommand result = super.deleteDeviceCommand(id);
+	onDeviceCommandsChanged(result);
+	return result;
+    }
+
+    /**
+     * Remove the cached device type for a command that was added, updated or
+     * removed. Listeners on the device type cache use the removal to drop data
+     * derived from the device type command set.
+     * 
+     * @param command
+     * @throws SiteWhereException
+     */
+    protected void onDeviceCommandsChanged(IDeviceCommand command) throws SiteWhereException {
+	if ((command == null) || (command.getDeviceTypeId() == null)) {
+	    return;
+	}
+	ITenant tenant = UserContextManager.getCurrentTenant(true);
+	IDeviceType deviceType = super.getDeviceType(command.getDeviceTypeId());
+	if (deviceType != null) {
+	    getDeviceTypeCache().removeCacheEntry(tenant, deviceType.getToken());
+	    getDeviceTypeByIdCache().removeCacheEntry(tenant, deviceType.getId());
+	    CacheUtils.logCacheRemoved(deviceType.getToken());
+	}
+    }
+
     public ICacheProvider<String, IArea> getAreaCache() {
 	return areaCache;
     }
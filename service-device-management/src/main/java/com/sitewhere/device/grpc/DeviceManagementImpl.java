@@ -8,6 +8,7 @@
 package com.sitewhere.device.grpc;
 
 import java.util.List;
+import java.util.UUID;
 
 import com.sitewhere.device.spi.microservice.IDeviceManagementMicroservice;
 import com.sitewhere.grpc.client.GrpcUtils;
@@ -35,6 +36,7 @@ import com.sitewhere.spi.area.IZone;
 import com.sitewhere.spi.area.request.IAreaCreateRequest;
 import com.sitewhere.spi.area.request.IAreaTypeCreateRequest;
 import com.sitewhere.spi.area.request.IZoneCreateRequest;
+import com.sitewhere.spi.common.IBulkCreateResult;
 import com.sitewhere.spi.customer.ICustomer;
 import com.sitewhere.spi.customer.ICustomerType;
 import com.sitewhere.spi.customer.request.ICustomerCreateRequest;
@@ -294,6 +296,30 @@ public class DeviceManagementImpl extends DeviceManagementGrpc.DeviceManagementI
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getCustomersById(com.sitewhere.grpc.service.GGetCustomersByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getCustomersById(GGetCustomersByIdRequest request,
+	    StreamObserver<GGetCustomersByIdResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, DeviceManagementGrpc.getGetCustomersByIdMethod());
+	    List<UUID> ids = CommonModelConverter.asApiUuids(request.getIdsList());
+	    List<ICustomer> apiResult = getDeviceManagement().getCustomersById(ids);
+	    GGetCustomersByIdResponse.Builder response = GGetCustomersByIdResponse.newBuilder();
+	    response.addAllCustomers(DeviceModelConverter.asGrpcCustomers(apiResult));
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(DeviceManagementGrpc.getGetCustomersByIdMethod(), e, responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(DeviceManagementGrpc.getGetCustomersByIdMethod());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -346,6 +372,32 @@ public class DeviceManagementImpl extends DeviceManagementGrpc.DeviceManagementI
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getCustomerDescendants(com.sitewhere.grpc.service.
+     * GGetCustomerDescendantsRequest, io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getCustomerDescendants(GGetCustomerDescendantsRequest request,
+	    StreamObserver<GGetCustomerDescendantsResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, DeviceManagementGrpc.getGetCustomerDescendantsMethod());
+	    List<ICustomer> apiResult = getDeviceManagement().getCustomerDescendants(request.getToken());
+	    GGetCustomerDescendantsResponse.Builder response = GGetCustomerDescendantsResponse.newBuilder();
+	    if (apiResult != null) {
+		response.addAllCustomers(DeviceModelConverter.asGrpcCustomers(apiResult));
+	    }
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(DeviceManagementGrpc.getGetCustomerDescendantsMethod(), e,
+		    responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(DeviceManagementGrpc.getGetCustomerDescendantsMethod());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -472,6 +524,30 @@ public class DeviceManagementImpl extends DeviceManagementGrpc.DeviceManagementI
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getAreaTypesById(com.sitewhere.grpc.service.GGetAreaTypesByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getAreaTypesById(GGetAreaTypesByIdRequest request,
+	    StreamObserver<GGetAreaTypesByIdResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, DeviceManagementGrpc.getGetAreaTypesByIdMethod());
+	    List<UUID> ids = CommonModelConverter.asApiUuids(request.getIdsList());
+	    List<IAreaType> apiResult = getDeviceManagement().getAreaTypesById(ids);
+	    GGetAreaTypesByIdResponse.Builder response = GGetAreaTypesByIdResponse.newBuilder();
+	    response.addAllAreaTypes(DeviceModelConverter.asGrpcAreaTypes(apiResult));
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(DeviceManagementGrpc.getGetAreaTypesByIdMethod(), e, responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(DeviceManagementGrpc.getGetAreaTypesByIdMethod());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -623,6 +699,29 @@ public class DeviceManagementImpl extends DeviceManagementGrpc.DeviceManagementI
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getAreasById(com.sitewhere.grpc.service.GGetAreasByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getAreasById(GGetAreasByIdRequest request, StreamObserver<GGetAreasByIdResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, DeviceManagementGrpc.getGetAreasByIdMethod());
+	    List<UUID> ids = CommonModelConverter.asApiUuids(request.getIdsList());
+	    List<IArea> apiResult = getDeviceManagement().getAreasById(ids);
+	    GGetAreasByIdResponse.Builder response = GGetAreasByIdResponse.newBuilder();
+	    response.addAllAreas(DeviceModelConverter.asGrpcAreas(apiResult));
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(DeviceManagementGrpc.getGetAreasByIdMethod(), e, responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(DeviceManagementGrpc.getGetAreasByIdMethod());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -673,6 +772,56 @@ public class DeviceManagementImpl extends DeviceManagementGrpc.DeviceManagementI
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getAreaDescendants(com.sitewhere.grpc.service.GGetAreaDescendantsRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getAreaDescendants(GGetAreaDescendantsRequest request,
+	    StreamObserver<GGetAreaDescendantsResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, DeviceManagementGrpc.getGetAreaDescendantsMethod());
+	    List<IArea> apiResult = getDeviceManagement().getAreaDescendants(request.getToken());
+	    GGetAreaDescendantsResponse.Builder response = GGetAreaDescendantsResponse.newBuilder();
+	    if (apiResult != null) {
+		response.addAllAreas(DeviceModelConverter.asGrpcAreas(apiResult));
+	    }
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(DeviceManagementGrpc.getGetAreaDescendantsMethod(), e,
+		    responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(DeviceManagementGrpc.getGetAreaDescendantsMethod());
+	}
+    }
+
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * rebuildHierarchyPaths(com.sitewhere.grpc.service.
+     * GRebuildHierarchyPathsRequest, io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void rebuildHierarchyPaths(GRebuildHierarchyPathsRequest request,
+	    StreamObserver<GRebuildHierarchyPathsResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, DeviceManagementGrpc.getRebuildHierarchyPathsMethod());
+	    int apiResult = getDeviceManagement().rebuildHierarchyPaths();
+	    GRebuildHierarchyPathsResponse.Builder response = GRebuildHierarchyPathsResponse.newBuilder();
+	    response.setUpdated(apiResult);
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(DeviceManagementGrpc.getRebuildHierarchyPathsMethod(), e,
+		    responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(DeviceManagementGrpc.getRebuildHierarchyPathsMethod());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -957,6 +1106,30 @@ public class DeviceManagementImpl extends DeviceManagementGrpc.DeviceManagementI
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getDeviceTypesById(com.sitewhere.grpc.service.GGetDeviceTypesByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getDeviceTypesById(GGetDeviceTypesByIdRequest request,
+	    StreamObserver<GGetDeviceTypesByIdResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, DeviceManagementGrpc.getGetDeviceTypesByIdMethod());
+	    List<UUID> ids = CommonModelConverter.asApiUuids(request.getIdsList());
+	    List<IDeviceType> apiResult = getDeviceManagement().getDeviceTypesById(ids);
+	    GGetDeviceTypesByIdResponse.Builder response = GGetDeviceTypesByIdResponse.newBuilder();
+	    response.addAllDeviceTypes(DeviceModelConverter.asGrpcDeviceTypes(apiResult));
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(DeviceManagementGrpc.getGetDeviceTypesByIdMethod(), e, responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(DeviceManagementGrpc.getGetDeviceTypesByIdMethod());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -1429,6 +1602,30 @@ public class DeviceManagementImpl extends DeviceManagementGrpc.DeviceManagementI
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * createDevices(com.sitewhere.grpc.service.GCreateDevicesRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void createDevices(GCreateDevicesRequest request, StreamObserver<GCreateDevicesResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, DeviceManagementGrpc.getCreateDevicesMethod());
+	    List<IDeviceCreateRequest> apiRequests = DeviceModelConverter
+		    .asApiDeviceCreateRequests(request.getRequestsList());
+	    List<IBulkCreateResult<IDevice>> apiResult = getDeviceManagement().createDevices(apiRequests);
+	    GCreateDevicesResponse.Builder response = GCreateDevicesResponse.newBuilder();
+	    response.addAllResults(DeviceModelConverter.asGrpcDeviceCreateResults(apiResult));
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(DeviceManagementGrpc.getCreateDevicesMethod(), e, responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(DeviceManagementGrpc.getCreateDevicesMethod());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -1453,6 +1650,30 @@ public class DeviceManagementImpl extends DeviceManagementGrpc.DeviceManagementI
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getDevicesById(com.sitewhere.grpc.service.GGetDevicesByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getDevicesById(GGetDevicesByIdRequest request,
+	    StreamObserver<GGetDevicesByIdResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, DeviceManagementGrpc.getGetDevicesByIdMethod());
+	    List<UUID> ids = CommonModelConverter.asApiUuids(request.getIdsList());
+	    List<IDevice> apiResult = getDeviceManagement().getDevicesById(ids);
+	    GGetDevicesByIdResponse.Builder response = GGetDevicesByIdResponse.newBuilder();
+	    response.addAllDevices(DeviceModelConverter.asGrpcDevices(apiResult));
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(DeviceManagementGrpc.getGetDevicesByIdMethod(), e, responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(DeviceManagementGrpc.getGetDevicesByIdMethod());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -1938,6 +2159,33 @@ public class DeviceManagementImpl extends DeviceManagementGrpc.DeviceManagementI
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * createDeviceAssignments(com.sitewhere.grpc.service.
+     * GCreateDeviceAssignmentsRequest, io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void createDeviceAssignments(GCreateDeviceAssignmentsRequest request,
+	    StreamObserver<GCreateDeviceAssignmentsResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, DeviceManagementGrpc.getCreateDeviceAssignmentsMethod());
+	    List<IDeviceAssignmentCreateRequest> apiRequests = DeviceModelConverter
+		    .asApiDeviceAssignmentCreateRequests(request.getRequestsList());
+	    List<IBulkCreateResult<IDeviceAssignment>> apiResult = getDeviceManagement()
+		    .createDeviceAssignments(apiRequests);
+	    GCreateDeviceAssignmentsResponse.Builder response = GCreateDeviceAssignmentsResponse.newBuilder();
+	    response.addAllResults(DeviceModelConverter.asGrpcDeviceAssignmentCreateResults(apiResult));
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(DeviceManagementGrpc.getCreateDeviceAssignmentsMethod(), e,
+		    responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(DeviceManagementGrpc.getCreateDeviceAssignmentsMethod());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
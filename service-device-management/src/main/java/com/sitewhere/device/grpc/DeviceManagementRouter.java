@@ -179,6 +179,21 @@ public class DeviceManagementRouter extends DeviceManagementGrpc.DeviceManagemen
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getCustomersById(com.sitewhere.grpc.service.GGetCustomersByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getCustomersById(GGetCustomersByIdRequest request,
+	    StreamObserver<GGetCustomersByIdResponse> responseObserver) {
+	DeviceManagementGrpc.DeviceManagementImplBase engine = getTenantImplementation(responseObserver);
+	if (engine != null) {
+	    engine.getCustomersById(request, responseObserver);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -209,6 +224,21 @@ public class DeviceManagementRouter extends DeviceManagementGrpc.DeviceManagemen
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getCustomerDescendants(com.sitewhere.grpc.service.
+     * GGetCustomerDescendantsRequest, io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getCustomerDescendants(GGetCustomerDescendantsRequest request,
+	    StreamObserver<GGetCustomerDescendantsResponse> responseObserver) {
+	DeviceManagementGrpc.DeviceManagementImplBase engine = getTenantImplementation(responseObserver);
+	if (engine != null) {
+	    engine.getCustomerDescendants(request, responseObserver);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -282,6 +312,21 @@ public class DeviceManagementRouter extends DeviceManagementGrpc.DeviceManagemen
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getAreaTypesById(com.sitewhere.grpc.service.GGetAreaTypesByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getAreaTypesById(GGetAreaTypesByIdRequest request,
+	    StreamObserver<GGetAreaTypesByIdResponse> responseObserver) {
+	DeviceManagementGrpc.DeviceManagementImplBase engine = getTenantImplementation(responseObserver);
+	if (engine != null) {
+	    engine.getAreaTypesById(request, responseObserver);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -369,6 +414,20 @@ public class DeviceManagementRouter extends DeviceManagementGrpc.DeviceManagemen
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getAreasById(com.sitewhere.grpc.service.GGetAreasByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getAreasById(GGetAreasByIdRequest request, StreamObserver<GGetAreasByIdResponse> responseObserver) {
+	DeviceManagementGrpc.DeviceManagementImplBase engine = getTenantImplementation(responseObserver);
+	if (engine != null) {
+	    engine.getAreasById(request, responseObserver);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -399,6 +458,36 @@ public class DeviceManagementRouter extends DeviceManagementGrpc.DeviceManagemen
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getAreaDescendants(com.sitewhere.grpc.service.GGetAreaDescendantsRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getAreaDescendants(GGetAreaDescendantsRequest request,
+	    StreamObserver<GGetAreaDescendantsResponse> responseObserver) {
+	DeviceManagementGrpc.DeviceManagementImplBase engine = getTenantImplementation(responseObserver);
+	if (engine != null) {
+	    engine.getAreaDescendants(request, responseObserver);
+	}
+    }
+
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * rebuildHierarchyPaths(com.sitewhere.grpc.service.
+     * GRebuildHierarchyPathsRequest, io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void rebuildHierarchyPaths(GRebuildHierarchyPathsRequest request,
+	    StreamObserver<GRebuildHierarchyPathsResponse> responseObserver) {
+	DeviceManagementGrpc.DeviceManagementImplBase engine = getTenantImplementation(responseObserver);
+	if (engine != null) {
+	    engine.rebuildHierarchyPaths(request, responseObserver);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -555,6 +644,21 @@ public class DeviceManagementRouter extends DeviceManagementGrpc.DeviceManagemen
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getDeviceTypesById(com.sitewhere.grpc.service.GGetDeviceTypesByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getDeviceTypesById(GGetDeviceTypesByIdRequest request,
+	    StreamObserver<GGetDeviceTypesByIdResponse> responseObserver) {
+	DeviceManagementGrpc.DeviceManagementImplBase engine = getTenantImplementation(responseObserver);
+	if (engine != null) {
+	    engine.getDeviceTypesById(request, responseObserver);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -809,6 +913,20 @@ public class DeviceManagementRouter extends DeviceManagementGrpc.DeviceManagemen
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * createDevices(com.sitewhere.grpc.service.GCreateDevicesRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void createDevices(GCreateDevicesRequest request, StreamObserver<GCreateDevicesResponse> responseObserver) {
+	DeviceManagementGrpc.DeviceManagementImplBase engine = getTenantImplementation(responseObserver);
+	if (engine != null) {
+	    engine.createDevices(request, responseObserver);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -823,6 +941,21 @@ public class DeviceManagementRouter extends DeviceManagementGrpc.DeviceManagemen
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * getDevicesById(com.sitewhere.grpc.service.GGetDevicesByIdRequest,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void getDevicesById(GGetDevicesByIdRequest request,
+	    StreamObserver<GGetDevicesByIdResponse> responseObserver) {
+	DeviceManagementGrpc.DeviceManagementImplBase engine = getTenantImplementation(responseObserver);
+	if (engine != null) {
+	    engine.getDevicesById(request, responseObserver);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -1075,6 +1208,21 @@ public class DeviceManagementRouter extends DeviceManagementGrpc.DeviceManagemen
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
+     * createDeviceAssignments(com.sitewhere.grpc.service.
+     * GCreateDeviceAssignmentsRequest, io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void createDeviceAssignments(GCreateDeviceAssignmentsRequest request,
+	    StreamObserver<GCreateDeviceAssignmentsResponse> responseObserver) {
+	DeviceManagementGrpc.DeviceManagementImplBase engine = getTenantImplementation(responseObserver);
+	if (engine != null) {
+	    engine.createDeviceAssignments(request, responseObserver);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.service.DeviceManagementGrpc.DeviceManagementImplBase#
@@ -13,6 +13,7 @@ import com.sitewhere.device.spi.grpc.IDeviceManagementGrpcServer;
 import com.sitewhere.device.spi.microservice.IDeviceManagementMicroservice;
 import com.sitewhere.device.spi.microservice.IDeviceManagementTenantEngine;
 import com.sitewhere.grpc.client.asset.AssetManagementApiDemux;
+import com.sitewhere.grpc.client.device.DeviceManagementCacheSerializers;
 import com.sitewhere.grpc.client.event.DeviceEventManagementApiDemux;
 import com.sitewhere.grpc.client.spi.client.IAssetManagementApiDemux;
 import com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiDemux;
@@ -106,7 +107,7 @@ public class DeviceManagementMicroservice
     @Override
     public void microserviceInitialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	// Create Hazelcast manager.
-	this.hazelcastManager = new HazelcastManager();
+	this.hazelcastManager = new HazelcastManager(DeviceManagementCacheSerializers.createRegistry());
 
 	// Create device management GRPC server.
 	this.deviceManagementGrpcServer = new DeviceManagementGrpcServer(this);
@@ -7,6 +7,7 @@
  */
 package com.sitewhere.device.persistence.hbase;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,6 +30,7 @@ import com.sitewhere.spi.area.IZone;
 import com.sitewhere.spi.area.request.IAreaCreateRequest;
 import com.sitewhere.spi.area.request.IAreaTypeCreateRequest;
 import com.sitewhere.spi.area.request.IZoneCreateRequest;
+import com.sitewhere.spi.common.IBulkCreateResult;
 import com.sitewhere.spi.customer.ICustomer;
 import com.sitewhere.spi.customer.ICustomerType;
 import com.sitewhere.spi.customer.request.ICustomerCreateRequest;
@@ -146,6 +148,22 @@ public class HBaseDeviceManagement extends TenantEngineLifecycleComponent implem
 	return null;
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getDeviceTypesById(java.util.List)
+     */
+    @Override
+    public List<IDeviceType> getDeviceTypesById(List<UUID> ids) throws SiteWhereException {
+	List<IDeviceType> results = new ArrayList<IDeviceType>();
+	for (UUID id : ids) {
+	    IDeviceType deviceType = getDeviceType(id);
+	    if (deviceType != null) {
+		results.add(deviceType);
+	    }
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceTypeByToken(java.lang.
@@ -321,6 +339,15 @@ public class HBaseDeviceManagement extends TenantEngineLifecycleComponent implem
 	return HBaseDevice.createDevice(context, device);
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#createDevices(java.util.List)
+     */
+    @Override
+    public List<IBulkCreateResult<IDevice>> createDevices(List<IDeviceCreateRequest> requests)
+	    throws SiteWhereException {
+	throw new SiteWhereException("Not implemented yet for HBase device managment.");
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getDevice(java.util.UUID)
      */
@@ -329,6 +356,22 @@ public class HBaseDeviceManagement extends TenantEngineLifecycleComponent implem
 	return null;
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getDevicesById(java.util.List)
+     */
+    @Override
+    public List<IDevice> getDevicesById(List<UUID> ids) throws SiteWhereException {
+	List<IDevice> results = new ArrayList<IDevice>();
+	for (UUID id : ids) {
+	    IDevice device = getDevice(id);
+	    if (device != null) {
+		results.add(device);
+	    }
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceByToken(java.lang.String)
@@ -414,6 +457,17 @@ public class HBaseDeviceManagement extends TenantEngineLifecycleComponent implem
 	return HBaseDeviceAssignment.createDeviceAssignment(context, request);
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#createDeviceAssignments(java.util.
+     * List)
+     */
+    @Override
+    public List<IBulkCreateResult<IDeviceAssignment>> createDeviceAssignments(
+	    List<IDeviceAssignmentCreateRequest> requests) throws SiteWhereException {
+	throw new SiteWhereException("Not implemented yet for HBase device managment.");
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceAssignment(java.util.
@@ -640,6 +694,22 @@ public class HBaseDeviceManagement extends TenantEngineLifecycleComponent implem
 	throw new SiteWhereException("Not implemented yet for HBase device managment.");
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getCustomersById(java.util.List)
+     */
+    @Override
+    public List<ICustomer> getCustomersById(List<UUID> ids) throws SiteWhereException {
+	List<ICustomer> results = new ArrayList<ICustomer>();
+	for (UUID id : ids) {
+	    ICustomer customer = getCustomer(id);
+	    if (customer != null) {
+		results.add(customer);
+	    }
+	}
+	return results;
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getCustomerByToken(java.lang.
      * String)
@@ -659,6 +729,16 @@ public class HBaseDeviceManagement extends TenantEngineLifecycleComponent implem
 	throw new SiteWhereException("Not implemented yet for HBase device managment.");
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#getCustomerDescendants(java.lang.
+     * String)
+     */
+    @Override
+    public List<ICustomer> getCustomerDescendants(String token) throws SiteWhereException {
+	throw new SiteWhereException("Not implemented yet for HBase device managment.");
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#updateCustomer(java.util.UUID,
@@ -706,6 +786,22 @@ public class HBaseDeviceManagement extends TenantEngineLifecycleComponent implem
 	throw new SiteWhereException("Not implemented yet for HBase device managment.");
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getAreaTypesById(java.util.List)
+     */
+    @Override
+    public List<IAreaType> getAreaTypesById(List<UUID> ids) throws SiteWhereException {
+	List<IAreaType> results = new ArrayList<IAreaType>();
+	for (UUID id : ids) {
+	    IAreaType areaType = getAreaType(id);
+	    if (areaType != null) {
+		results.add(areaType);
+	    }
+	}
+	return results;
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getAreaTypeByToken(java.lang.
      * String)
@@ -781,6 +877,21 @@ public class HBaseDeviceManagement extends TenantEngineLifecycleComponent implem
 	return null;
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#getAreasById(java.util.List)
+     */
+    @Override
+    public List<IArea> getAreasById(List<UUID> ids) throws SiteWhereException {
+	List<IArea> results = new ArrayList<IArea>();
+	for (UUID id : ids) {
+	    IArea area = getArea(id);
+	    if (area != null) {
+		results.add(area);
+	    }
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getAreaByToken(java.lang.String)
@@ -799,6 +910,24 @@ public class HBaseDeviceManagement extends TenantEngineLifecycleComponent implem
 	return null;
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#getAreaDescendants(java.lang.
+     * String)
+     */
+    @Override
+    public List<IArea> getAreaDescendants(String token) throws SiteWhereException {
+	throw new SiteWhereException("Not implemented yet for HBase device managment.");
+    }
+
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#rebuildHierarchyPaths()
+     */
+    @Override
+    public int rebuildHierarchyPaths() throws SiteWhereException {
+	throw new SiteWhereException("Not implemented yet for HBase device managment.");
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#listAreas(com.sitewhere.spi.search
@@ -10,6 +10,7 @@ package com.sitewhere.device.persistence.mongodb;
 import org.bson.Document;
 
 import com.mongodb.client.MongoCollection;
+import com.sitewhere.configuration.instance.mongodb.MongoConfiguration;
 import com.sitewhere.spi.SiteWhereException;
 
 /**
@@ -183,4 +184,11 @@ public interface IDeviceManagementMongoClient {
      * @throws SiteWhereException
      */
     public MongoCollection<Document> getStreamDataCollection() throws SiteWhereException;
+
+    /**
+     * Get configuration used to connect to MongoDB.
+     * 
+     * @return
+     */
+    public MongoConfiguration getConfiguration();
 }
\ No newline at end of file
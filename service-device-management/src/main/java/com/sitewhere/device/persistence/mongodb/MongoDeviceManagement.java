@@ -8,8 +8,13 @@
 package com.sitewhere.device.persistence.mongodb;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.apache.commons.lang.StringUtils;
@@ -19,17 +24,21 @@ import com.mongodb.MongoClientException;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
-import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.sitewhere.common.MarshalUtils;
 import com.sitewhere.device.microservice.DeviceManagementMicroservice;
 import com.sitewhere.device.persistence.DeviceManagementPersistence;
 import com.sitewhere.mongodb.IMongoConverterLookup;
+import com.sitewhere.mongodb.MongoIndexCatalog;
 import com.sitewhere.mongodb.MongoPersistence;
 import com.sitewhere.mongodb.common.MongoPersistentEntity;
 import com.sitewhere.rest.model.area.Area;
 import com.sitewhere.rest.model.area.AreaType;
 import com.sitewhere.rest.model.area.Zone;
+import com.sitewhere.rest.model.common.BulkCreateResult;
 import com.sitewhere.rest.model.customer.Customer;
 import com.sitewhere.rest.model.customer.CustomerType;
 import com.sitewhere.rest.model.device.Device;
@@ -56,6 +65,7 @@ import com.sitewhere.spi.area.request.IAreaTypeCreateRequest;
 import com.sitewhere.spi.area.request.IZoneCreateRequest;
 import com.sitewhere.spi.asset.IAsset;
 import com.sitewhere.spi.asset.IAssetManagement;
+import com.sitewhere.spi.common.IBulkCreateResult;
 import com.sitewhere.spi.customer.ICustomer;
 import com.sitewhere.spi.customer.ICustomerType;
 import com.sitewhere.spi.customer.request.ICustomerCreateRequest;
@@ -128,46 +138,106 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	// Ensure that collection indexes exist.
 	ensureIndexes();
+
+	// Populate or repair materialized paths for hierarchies.
+	rebuildHierarchyPaths();
     }
 
     /**
-     * Ensure that expected collection indexes exist.
+     * Ensure that collection indexes match the index catalog.
      * 
      * @throws SiteWhereException
      */
     protected void ensureIndexes() throws SiteWhereException {
+	createIndexCatalog().reconcile();
+    }
+
+    /**
+     * Create catalog of indexes required by device management queries.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    protected MongoIndexCatalog createIndexCatalog() throws SiteWhereException {
+	MongoIndexCatalog catalog = new MongoIndexCatalog(
+		getMongoClient().getConfiguration().isRebuildMismatchedIndexes());
+
+	// Customer indexes.
+	MongoCollection<Document> customerTypes = getMongoClient().getCustomerTypesCollection();
+	catalog.unique(customerTypes, new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	MongoCollection<Document> customers = getMongoClient().getCustomersCollection();
+	catalog.unique(customers, new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	catalog.index(customers,
+		new Document(MongoCustomer.PROP_PARENT_CUSTOMER_ID, 1).append(MongoCustomer.PROP_NAME, 1));
+	catalog.index(customers, new Document(MongoCustomer.PROP_CUSTOMER_TYPE_ID, 1));
+	MongoMaterializedPath.addIndexes(catalog, customers);
+
 	// Area indexes.
-	getMongoClient().getAreasCollection().createIndex(new Document(MongoPersistentEntity.PROP_TOKEN, 1),
-		new IndexOptions().unique(true));
+	MongoCollection<Document> areaTypes = getMongoClient().getAreaTypesCollection();
+	catalog.unique(areaTypes, new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	MongoCollection<Document> areas = getMongoClient().getAreasCollection();
+	catalog.unique(areas, new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	catalog.index(areas, new Document(MongoArea.PROP_PARENT_AREA_ID, 1).append(MongoArea.PROP_NAME, 1));
+	catalog.index(areas, new Document(MongoArea.PROP_AREA_TYPE_ID, 1));
+	MongoMaterializedPath.addIndexes(catalog, areas);
+	MongoCollection<Document> zones = getMongoClient().getZonesCollection();
+	catalog.unique(zones, new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	catalog.index(zones,
+		new Document(MongoZone.PROP_AREA_ID, 1).append(MongoPersistentEntity.PROP_CREATED_DATE, -1));
 
 	// Device-type-related indexes.
-	getMongoClient().getDeviceTypesCollection().createIndex(new Document(MongoPersistentEntity.PROP_TOKEN, 1),
-		new IndexOptions().unique(true));
-	getMongoClient().getDeviceStatusesCollection().createIndex(
-		new Document(MongoDeviceStatus.PROP_DEVICE_TYPE_ID, 1).append(MongoDeviceStatus.PROP_CODE, 1),
-		new IndexOptions().unique(true));
+	catalog.unique(getMongoClient().getDeviceTypesCollection(), new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	MongoCollection<Document> commands = getMongoClient().getDeviceCommandsCollection();
+	catalog.unique(commands, new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	catalog.index(commands,
+		new Document(MongoDeviceCommand.PROP_DEVICE_TYPE_ID, 1).append(MongoDeviceCommand.PROP_NAME, 1));
+	MongoCollection<Document> statuses = getMongoClient().getDeviceStatusesCollection();
+	catalog.unique(statuses, new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	catalog.unique(statuses,
+		new Document(MongoDeviceStatus.PROP_DEVICE_TYPE_ID, 1).append(MongoDeviceStatus.PROP_CODE, 1));
 
 	// Devices.
-	getMongoClient().getDevicesCollection().createIndex(new Document(MongoPersistentEntity.PROP_TOKEN, 1),
-		new IndexOptions().unique(true));
+	MongoCollection<Document> devices = getMongoClient().getDevicesCollection();
+	catalog.unique(devices, new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	catalog.index(devices, new Document(MongoPersistentEntity.PROP_CREATED_DATE, -1));
+	catalog.index(devices,
+		new Document(MongoDevice.PROP_DEVICE_TYPE_ID, 1).append(MongoPersistentEntity.PROP_CREATED_DATE, -1));
 
 	// Device assignments.
-	getMongoClient().getDeviceAssignmentsCollection().createIndex(new Document(MongoPersistentEntity.PROP_TOKEN, 1),
-		new IndexOptions().unique(true));
-	getMongoClient().getDeviceAssignmentsCollection()
-		.createIndex(new Document(MongoDeviceAssignment.PROP_AREA_ID, 1)
-			.append(MongoDeviceAssignment.PROP_ASSET_ID, 1).append(MongoDeviceAssignment.PROP_STATUS, 1));
+	MongoCollection<Document> assignments = getMongoClient().getDeviceAssignmentsCollection();
+	catalog.unique(assignments, new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	catalog.index(assignments, new Document(MongoDeviceAssignment.PROP_AREA_ID, 1)
+		.append(MongoDeviceAssignment.PROP_ASSET_ID, 1).append(MongoDeviceAssignment.PROP_STATUS, 1));
+	catalog.index(assignments, new Document(MongoDeviceAssignment.PROP_DEVICE_ID, 1)
+		.append(MongoDeviceAssignment.PROP_ACTIVE_DATE, -1));
+
+	// Device alarms.
+	MongoCollection<Document> alarms = getMongoClient().getDeviceAlarmsCollection();
+	catalog.index(alarms,
+		new Document(MongoDeviceAlarm.PROP_DEVICE_ID, 1).append(MongoDeviceAlarm.PROP_TRIGGERED_DATE, -1));
+	catalog.index(alarms, new Document(MongoDeviceAlarm.PROP_DEVICE_ASSIGNMENT_ID, 1)
+		.append(MongoDeviceAlarm.PROP_TRIGGERED_DATE, -1));
+	catalog.index(alarms,
+		new Document(MongoDeviceAlarm.PROP_AREA_ID, 1).append(MongoDeviceAlarm.PROP_TRIGGERED_DATE, -1));
+	catalog.index(alarms,
+		new Document(MongoDeviceAlarm.PROP_ALARM_STATE, 1).append(MongoDeviceAlarm.PROP_TRIGGERED_DATE, -1));
+
+	// Device streams.
+	catalog.index(getMongoClient().getStreamsCollection(),
+		new Document(MongoDeviceStream.PROP_ASSIGNMENT_ID, 1).append(MongoDeviceStream.PROP_STREAM_ID, 1));
 
 	// Device group indexes.
-	getMongoClient().getDeviceGroupsCollection().createIndex(new Document(MongoPersistentEntity.PROP_TOKEN, 1),
-		new IndexOptions().unique(true));
-	getMongoClient().getDeviceGroupsCollection().createIndex(new Document(MongoDeviceGroup.PROP_ROLES, 1));
+	MongoCollection<Document> groups = getMongoClient().getDeviceGroupsCollection();
+	catalog.unique(groups, new Document(MongoPersistentEntity.PROP_TOKEN, 1));
+	catalog.index(groups, new Document(MongoDeviceGroup.PROP_ROLES, 1));
 
 	// Device group element indexes.
-	getMongoClient().getGroupElementsCollection().createIndex(new Document(MongoDeviceGroupElement.PROP_GROUP_ID, 1)
-		.append(MongoDeviceGroupElement.PROP_DEVICE_ID, 1), new IndexOptions().unique(true));
-	getMongoClient().getGroupElementsCollection().createIndex(
+	MongoCollection<Document> elements = getMongoClient().getGroupElementsCollection();
+	catalog.unique(elements, new Document(MongoDeviceGroupElement.PROP_GROUP_ID, 1)
+		.append(MongoDeviceGroupElement.PROP_DEVICE_ID, 1));
+	catalog.index(elements,
 		new Document(MongoDeviceGroupElement.PROP_GROUP_ID, 1).append(MongoDeviceGroupElement.PROP_ROLES, 1));
+	return catalog;
     }
 
     /*
@@ -199,6 +269,19 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	return null;
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getDeviceTypesById(java.util.List)
+     */
+    @Override
+    public List<IDeviceType> getDeviceTypesById(List<UUID> ids) throws SiteWhereException {
+	List<IDeviceType> results = new ArrayList<IDeviceType>();
+	for (Document document : getDocumentsById(getMongoClient().getDeviceTypesCollection(), ids)) {
+	    results.add(MongoDeviceType.fromDocument(document));
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceTypeByToken(java.lang.
@@ -290,6 +373,48 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	return types.find(query).first();
     }
 
+    /**
+     * Get all documents in a collection whose ids are in the given list using a
+     * single query.
+     * 
+     * @param collection
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    protected FindIterable<Document> getDocumentsById(MongoCollection<Document> collection, List<UUID> ids)
+	    throws SiteWhereException {
+	Document query = new Document(MongoPersistentEntity.PROP_ID, new Document("$in", ids));
+	return collection.find(query);
+    }
+
+    /**
+     * Get documents for all entities matching a set of tokens using a single
+     * query. Results are indexed by token.
+     * 
+     * @param collection
+     * @param tokens
+     * @return
+     * @throws SiteWhereException
+     */
+    protected Map<String, Document> getDocumentsByToken(MongoCollection<Document> collection, Set<String> tokens)
+	    throws SiteWhereException {
+	Map<String, Document> results = new HashMap<String, Document>();
+	if (tokens.isEmpty()) {
+	    return results;
+	}
+	try {
+	    Document query = new Document(MongoPersistentEntity.PROP_TOKEN,
+		    new Document("$in", new ArrayList<String>(tokens)));
+	    for (Document document : collection.find(query)) {
+		results.put(document.getString(MongoPersistentEntity.PROP_TOKEN), document);
+	    }
+	} catch (MongoClientException e) {
+	    throw MongoPersistence.handleClientException(e);
+	}
+	return results;
+    }
+
     /**
      * Return the {@link Document} for the device type with the given token. Throws
      * an exception if the token is not valid.
@@ -675,6 +800,55 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	return newDevice;
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#createDevices(java.util.List)
+     */
+    @Override
+    public List<IBulkCreateResult<IDevice>> createDevices(List<IDeviceCreateRequest> requests)
+	    throws SiteWhereException {
+	// Resolve all referenced device types with a single query.
+	Set<String> typeTokens = new HashSet<String>();
+	for (IDeviceCreateRequest request : requests) {
+	    if (request.getDeviceTypeToken() != null) {
+		typeTokens.add(request.getDeviceTypeToken());
+	    }
+	}
+	Map<String, Document> types = getDocumentsByToken(getMongoClient().getDeviceTypesCollection(), typeTokens);
+
+	List<IBulkCreateResult<IDevice>> results = new ArrayList<IBulkCreateResult<IDevice>>();
+	List<Device> pending = new ArrayList<Device>();
+	List<Integer> pendingIndexes = new ArrayList<Integer>();
+	List<Document> documents = new ArrayList<Document>();
+	for (int i = 0; i < requests.size(); i++) {
+	    IDeviceCreateRequest request = requests.get(i);
+	    results.add(null);
+	    try {
+		Document type = types.get(request.getDeviceTypeToken());
+		if (type == null) {
+		    throw new SiteWhereSystemException(ErrorCode.InvalidDeviceTypeToken, ErrorLevel.ERROR);
+		}
+		Device newDevice = DeviceManagementPersistence.deviceCreateLogic(request,
+			MongoDeviceType.fromDocument(type));
+		documents.add(MongoDevice.toDocument(newDevice));
+		pending.add(newDevice);
+		pendingIndexes.add(i);
+	    } catch (SiteWhereException e) {
+		results.set(i, BulkCreateResult.failure(i, e));
+	    }
+	}
+
+	// Write all valid devices in a single unordered insert.
+	Map<Integer, SiteWhereException> failures = MongoPersistence.insertMany(getMongoClient().getDevicesCollection(),
+		documents, ErrorCode.DuplicateDeviceToken);
+	for (int j = 0; j < pending.size(); j++) {
+	    int index = pendingIndexes.get(j);
+	    SiteWhereException failure = failures.get(j);
+	    results.set(index, (failure != null) ? BulkCreateResult.failure(index, failure)
+		    : BulkCreateResult.success(index, pending.get(j)));
+	}
+	return results;
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#updateDevice(java.util.UUID,
      * com.sitewhere.spi.device.request.IDeviceCreateRequest)
@@ -722,6 +896,19 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	return null;
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getDevicesById(java.util.List)
+     */
+    @Override
+    public List<IDevice> getDevicesById(List<UUID> ids) throws SiteWhereException {
+	List<IDevice> results = new ArrayList<IDevice>();
+	for (Document document : getDocumentsById(getMongoClient().getDevicesCollection(), ids)) {
+	    results.add(MongoDevice.fromDocument(document));
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceByToken(java.lang.String)
@@ -914,6 +1101,127 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	return newAssignment;
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#createDeviceAssignments(java.util.
+     * List)
+     */
+    @Override
+    public List<IBulkCreateResult<IDeviceAssignment>> createDeviceAssignments(
+	    List<IDeviceAssignmentCreateRequest> requests) throws SiteWhereException {
+	// Resolve all referenced devices, customers, areas and assets once.
+	Set<String> deviceTokens = new HashSet<String>();
+	Set<String> customerTokens = new HashSet<String>();
+	Set<String> areaTokens = new HashSet<String>();
+	Set<String> assetTokens = new HashSet<String>();
+	for (IDeviceAssignmentCreateRequest request : requests) {
+	    if (request.getDeviceToken() != null) {
+		deviceTokens.add(request.getDeviceToken());
+	    }
+	    if (request.getCustomerToken() != null) {
+		customerTokens.add(request.getCustomerToken());
+	    }
+	    if (request.getAreaToken() != null) {
+		areaTokens.add(request.getAreaToken());
+	    }
+	    if (request.getAssetToken() != null) {
+		assetTokens.add(request.getAssetToken());
+	    }
+	}
+	Map<String, Document> devices = getDocumentsByToken(getMongoClient().getDevicesCollection(), deviceTokens);
+	Map<String, Document> customers = getDocumentsByToken(getMongoClient().getCustomersCollection(),
+		customerTokens);
+	Map<String, Document> areas = getDocumentsByToken(getMongoClient().getAreasCollection(), areaTokens);
+	Map<String, IAsset> assets = new HashMap<String, IAsset>();
+	for (String assetToken : assetTokens) {
+	    IAsset asset = getAssetManagement().getAssetByToken(assetToken);
+	    if (asset != null) {
+		assets.put(assetToken, asset);
+	    }
+	}
+
+	List<IBulkCreateResult<IDeviceAssignment>> results = new ArrayList<IBulkCreateResult<IDeviceAssignment>>();
+	List<DeviceAssignment> pending = new ArrayList<DeviceAssignment>();
+	List<Integer> pendingIndexes = new ArrayList<Integer>();
+	List<Document> documents = new ArrayList<Document>();
+	Set<String> assigned = new HashSet<String>();
+	for (int i = 0; i < requests.size(); i++) {
+	    IDeviceAssignmentCreateRequest request = requests.get(i);
+	    results.add(null);
+	    try {
+		Document deviceDb = devices.get(request.getDeviceToken());
+		if (deviceDb == null) {
+		    throw new SiteWhereSystemException(ErrorCode.InvalidDeviceToken, ErrorLevel.ERROR);
+		}
+		IDevice device = MongoDevice.fromDocument(deviceDb);
+		if ((device.getDeviceAssignmentId() != null) || (assigned.contains(device.getToken()))) {
+		    throw new SiteWhereSystemException(ErrorCode.DeviceAlreadyAssigned, ErrorLevel.ERROR);
+		}
+		ICustomer customer = null;
+		if (request.getCustomerToken() != null) {
+		    Document customerDb = customers.get(request.getCustomerToken());
+		    if (customerDb == null) {
+			throw new SiteWhereSystemException(ErrorCode.InvalidCustomerToken, ErrorLevel.ERROR);
+		    }
+		    customer = MongoCustomer.fromDocument(customerDb);
+		}
+		IArea area = null;
+		if (request.getAreaToken() != null) {
+		    Document areaDb = areas.get(request.getAreaToken());
+		    if (areaDb == null) {
+			throw new SiteWhereSystemException(ErrorCode.InvalidAreaToken, ErrorLevel.ERROR);
+		    }
+		    area = MongoArea.fromDocument(areaDb);
+		}
+		IAsset asset = null;
+		if (request.getAssetToken() != null) {
+		    asset = assets.get(request.getAssetToken());
+		    if (asset == null) {
+			throw new SiteWhereSystemException(ErrorCode.InvalidAssetToken, ErrorLevel.ERROR);
+		    }
+		}
+		DeviceAssignment newAssignment = DeviceManagementPersistence.deviceAssignmentCreateLogic(request,
+			customer, area, asset, device);
+		if (newAssignment.getToken() == null) {
+		    newAssignment.setToken(UUID.randomUUID().toString());
+		}
+		documents.add(MongoDeviceAssignment.toDocument(newAssignment));
+		pending.add(newAssignment);
+		pendingIndexes.add(i);
+		assigned.add(device.getToken());
+	    } catch (SiteWhereException e) {
+		results.set(i, BulkCreateResult.failure(i, e));
+	    }
+	}
+
+	// Write all valid assignments in a single unordered insert.
+	Map<Integer, SiteWhereException> failures = MongoPersistence.insertMany(
+		getMongoClient().getDeviceAssignmentsCollection(), documents, ErrorCode.DuplicateDeviceAssignment);
+	List<WriteModel<Document>> updates = new ArrayList<WriteModel<Document>>();
+	for (int j = 0; j < pending.size(); j++) {
+	    int index = pendingIndexes.get(j);
+	    SiteWhereException failure = failures.get(j);
+	    if (failure != null) {
+		results.set(index, BulkCreateResult.failure(index, failure));
+		continue;
+	    }
+	    DeviceAssignment created = pending.get(j);
+	    results.set(index, BulkCreateResult.success(index, created));
+	    updates.add(new UpdateOneModel<Document>(new Document(MongoPersistentEntity.PROP_ID, created.getDeviceId()),
+		    new Document("$set", new Document(MongoDevice.PROP_ASSIGNMENT_ID, created.getId()))));
+	}
+
+	// Update devices to point to created assignments.
+	if (!updates.isEmpty()) {
+	    try {
+		getMongoClient().getDevicesCollection().bulkWrite(updates, new BulkWriteOptions().ordered(false));
+	    } catch (MongoClientException e) {
+		throw MongoPersistence.handleClientException(e);
+	    }
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceAssignment(java.util.
@@ -1367,15 +1675,17 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	}
 
 	// Look up parent customer.
-	ICustomer parentCustomer = (request.getParentCustomerToken() != null)
-		? getCustomerByToken(request.getParentCustomerToken())
+	Document parent = (request.getParentCustomerToken() != null)
+		? getCustomerDocumentByToken(request.getParentCustomerToken())
 		: null;
+	ICustomer parentCustomer = (parent != null) ? MongoCustomer.fromDocument(parent) : null;
 
 	// Use common logic so all backend implementations work the same.
 	Customer customer = DeviceManagementPersistence.customerCreateLogic(request, customerType, parentCustomer);
 
 	MongoCollection<Document> customers = getMongoClient().getCustomersCollection();
 	Document created = MongoCustomer.toDocument(customer);
+	MongoMaterializedPath.setPath(created, parent);
 	MongoPersistence.insert(customers, created, ErrorCode.DuplicateCustomerToken);
 	return MongoCustomer.fromDocument(created);
     }
@@ -1392,6 +1702,19 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	return null;
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getCustomersById(java.util.List)
+     */
+    @Override
+    public List<ICustomer> getCustomersById(List<UUID> ids) throws SiteWhereException {
+	List<ICustomer> results = new ArrayList<ICustomer>();
+	for (Document document : getDocumentsById(getMongoClient().getCustomersCollection(), ids)) {
+	    results.add(MongoCustomer.fromDocument(document));
+	}
+	return results;
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getCustomerByToken(java.lang.
      * String)
@@ -1425,6 +1748,26 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	return matches.getResults();
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#getCustomerDescendants(java.lang.
+     * String)
+     */
+    @Override
+    public List<ICustomer> getCustomerDescendants(String token) throws SiteWhereException {
+	ICustomer existing = getCustomerByToken(token);
+	if (existing == null) {
+	    throw new SiteWhereSystemException(ErrorCode.InvalidCustomerToken, ErrorLevel.ERROR);
+	}
+
+	MongoCollection<Document> customers = getMongoClient().getCustomersCollection();
+	Document query = MongoMaterializedPath.getDescendantsQuery(existing.getId());
+	Document sort = new Document(MongoCustomer.PROP_NAME, 1);
+	SearchResults<ICustomer> matches = MongoPersistence.search(ICustomer.class, customers, query, sort,
+		SearchCriteria.ALL, LOOKUP);
+	return matches.getResults();
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#updateCustomer(java.util.UUID,
@@ -1432,7 +1775,29 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
      */
     @Override
     public ICustomer updateCustomer(UUID id, ICustomerCreateRequest request) throws SiteWhereException {
-	ICustomer customer = assertApiCustomer(id);
+	Document existing = getCustomerDocumentById(id);
+	if (existing == null) {
+	    throw new SiteWhereSystemException(ErrorCode.InvalidCustomerToken, ErrorLevel.ERROR);
+	}
+	ICustomer customer = MongoCustomer.fromDocument(existing);
+
+	// Look up new parent if customer is being moved.
+	Document parent = null;
+	boolean moved = false;
+	if (request.getParentCustomerToken() != null) {
+	    parent = getCustomerDocumentByToken(request.getParentCustomerToken());
+	    if (parent == null) {
+		throw new SiteWhereSystemException(ErrorCode.InvalidCustomerToken, ErrorLevel.ERROR);
+	    }
+	    UUID parentId = (UUID) parent.get(MongoPersistentEntity.PROP_ID);
+	    if (!parentId.equals(customer.getParentCustomerId())) {
+		if (id.equals(parentId) || MongoMaterializedPath.isCycle(id, parent)) {
+		    throw new SiteWhereSystemException(ErrorCode.InvalidParentCustomer, ErrorLevel.ERROR);
+		}
+		((Customer) customer).setParentCustomerId(parentId);
+		moved = true;
+	    }
+	}
 
 	// Use common update logic.
 	DeviceManagementPersistence.customerUpdateLogic(request, (Customer) customer);
@@ -1442,6 +1807,9 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	MongoCollection<Document> customers = getMongoClient().getCustomersCollection();
 	Document query = new Document(MongoPersistentEntity.PROP_ID, id);
 	MongoPersistence.update(customers, query, updated);
+	if (moved) {
+	    MongoMaterializedPath.move(customers, existing, parent);
+	}
 	return MongoCustomer.fromDocument(updated);
     }
 
@@ -1478,6 +1846,7 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	}
 	MongoCollection<Document> customers = getMongoClient().getCustomersCollection();
 	MongoPersistence.delete(customers, existing);
+	MongoMaterializedPath.detach(customers, existing);
 	return MongoCustomer.fromDocument(existing);
     }
 
@@ -1512,6 +1881,19 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	return null;
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getAreaTypesById(java.util.List)
+     */
+    @Override
+    public List<IAreaType> getAreaTypesById(List<UUID> ids) throws SiteWhereException {
+	List<IAreaType> results = new ArrayList<IAreaType>();
+	for (Document document : getDocumentsById(getMongoClient().getAreaTypesCollection(), ids)) {
+	    results.add(MongoAreaType.fromDocument(document));
+	}
+	return results;
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getAreaTypeByToken(java.lang.
      * String)
@@ -1590,13 +1972,16 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	}
 
 	// Look up parent area.
-	IArea parentArea = (request.getParentAreaToken() != null) ? getAreaByToken(request.getParentAreaToken()) : null;
+	Document parent = (request.getParentAreaToken() != null) ? getAreaDocumentByToken(request.getParentAreaToken())
+		: null;
+	IArea parentArea = (parent != null) ? MongoArea.fromDocument(parent) : null;
 
 	// Use common logic so all backend implementations work the same.
 	Area area = DeviceManagementPersistence.areaCreateLogic(request, areaType, parentArea);
 
 	MongoCollection<Document> areas = getMongoClient().getAreasCollection();
 	Document created = MongoArea.toDocument(area);
+	MongoMaterializedPath.setPath(created, parent);
 	MongoPersistence.insert(areas, created, ErrorCode.DuplicateAreaToken);
 	return MongoArea.fromDocument(created);
     }
@@ -1613,6 +1998,18 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	return null;
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#getAreasById(java.util.List)
+     */
+    @Override
+    public List<IArea> getAreasById(List<UUID> ids) throws SiteWhereException {
+	List<IArea> results = new ArrayList<IArea>();
+	for (Document document : getDocumentsById(getMongoClient().getAreasCollection(), ids)) {
+	    results.add(MongoArea.fromDocument(document));
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getAreaByToken(java.lang.String)
@@ -1645,13 +2042,66 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	return matches.getResults();
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#getAreaDescendants(java.lang.
+     * String)
+     */
+    @Override
+    public List<IArea> getAreaDescendants(String token) throws SiteWhereException {
+	IArea existing = getAreaByToken(token);
+	if (existing == null) {
+	    throw new SiteWhereSystemException(ErrorCode.InvalidAreaToken, ErrorLevel.ERROR);
+	}
+
+	MongoCollection<Document> areas = getMongoClient().getAreasCollection();
+	Document query = MongoMaterializedPath.getDescendantsQuery(existing.getId());
+	Document sort = new Document(MongoArea.PROP_NAME, 1);
+	SearchResults<IArea> matches = MongoPersistence.search(IArea.class, areas, query, sort, SearchCriteria.ALL,
+		LOOKUP);
+	return matches.getResults();
+    }
+
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#rebuildHierarchyPaths()
+     */
+    @Override
+    public int rebuildHierarchyPaths() throws SiteWhereException {
+	int updated = MongoMaterializedPath.rebuild(getMongoClient().getCustomersCollection(),
+		MongoCustomer.PROP_PARENT_CUSTOMER_ID);
+	updated += MongoMaterializedPath.rebuild(getMongoClient().getAreasCollection(), MongoArea.PROP_PARENT_AREA_ID);
+	return updated;
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#updateArea(java.util.UUID,
      * com.sitewhere.spi.area.request.IAreaCreateRequest)
      */
     @Override
     public IArea updateArea(UUID id, IAreaCreateRequest request) throws SiteWhereException {
-	IArea area = assertApiArea(id);
+	Document existing = getAreaDocumentById(id);
+	if (existing == null) {
+	    throw new SiteWhereSystemException(ErrorCode.InvalidAreaToken, ErrorLevel.ERROR);
+	}
+	IArea area = MongoArea.fromDocument(existing);
+
+	// Look up new parent if area is being moved.
+	Document parent = null;
+	boolean moved = false;
+	if (request.getParentAreaToken() != null) {
+	    parent = getAreaDocumentByToken(request.getParentAreaToken());
+	    if (parent == null) {
+		throw new SiteWhereSystemException(ErrorCode.InvalidAreaToken, ErrorLevel.ERROR);
+	    }
+	    UUID parentId = (UUID) parent.get(MongoPersistentEntity.PROP_ID);
+	    if (!parentId.equals(area.getParentAreaId())) {
+		if (id.equals(parentId) || MongoMaterializedPath.isCycle(id, parent)) {
+		    throw new SiteWhereSystemException(ErrorCode.InvalidParentArea, ErrorLevel.ERROR);
+		}
+		((Area) area).setParentAreaId(parentId);
+		moved = true;
+	    }
+	}
 
 	// Use common update logic.
 	DeviceManagementPersistence.areaUpdateLogic(request, (Area) area);
@@ -1661,6 +2111,9 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	MongoCollection<Document> areas = getMongoClient().getAreasCollection();
 	Document query = new Document(MongoPersistentEntity.PROP_ID, id);
 	MongoPersistence.update(areas, query, updated);
+	if (moved) {
+	    MongoMaterializedPath.move(areas, existing, parent);
+	}
 	return MongoArea.fromDocument(updated);
     }
 
@@ -1696,6 +2149,7 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	}
 	MongoCollection<Document> areas = getMongoClient().getAreasCollection();
 	MongoPersistence.delete(areas, existing);
+	MongoMaterializedPath.detach(areas, existing);
 	return MongoArea.fromDocument(existing);
     }
 
@@ -1924,40 +2378,116 @@ public class MongoDeviceManagement extends TenantEngineLifecycleComponent implem
 	    List<IDeviceGroupElementCreateRequest> elements, boolean ignoreDuplicates) throws SiteWhereException {
 	Document existing = assertDeviceGroup(groupId);
 	IDeviceGroup group = MongoDeviceGroup.fromDocument(existing);
-	List<IDeviceGroupElement> results = new ArrayList<IDeviceGroupElement>();
+
+	// Resolve all referenced devices and nested groups once.
+	Set<String> deviceTokens = new HashSet<String>();
+	Set<String> groupTokens = new HashSet<String>();
+	for (IDeviceGroupElementCreateRequest request : elements) {
+	    if (request.getDeviceToken() != null) {
+		deviceTokens.add(request.getDeviceToken());
+	    }
+	    if (request.getNestedGroupToken() != null) {
+		groupTokens.add(request.getNestedGroupToken());
+	    }
+	}
+	Map<String, Document> devices = getDocumentsByToken(getMongoClient().getDevicesCollection(), deviceTokens);
+	Map<String, Document> groups = getDocumentsByToken(getMongoClient().getDeviceGroupsCollection(), groupTokens);
+
+	List<DeviceGroupElement> created = new ArrayList<DeviceGroupElement>();
 	for (IDeviceGroupElementCreateRequest request : elements) {
 	    // Look up referenced device if provided.
 	    IDevice device = null;
 	    if (request.getDeviceToken() != null) {
-		device = getDeviceByToken(request.getDeviceToken());
-		if (device == null) {
+		Document deviceDb = devices.get(request.getDeviceToken());
+		if (deviceDb == null) {
 		    throw new SiteWhereSystemException(ErrorCode.InvalidDeviceToken, ErrorLevel.ERROR);
 		}
+		device = MongoDevice.fromDocument(deviceDb);
 	    }
 	    // Look up referenced nested group if provided.
 	    IDeviceGroup nested = null;
 	    if (request.getNestedGroupToken() != null) {
-		nested = getDeviceGroupByToken(request.getNestedGroupToken());
-		if (nested == null) {
+		Document nestedDb = groups.get(request.getNestedGroupToken());
+		if (nestedDb == null) {
 		    throw new SiteWhereSystemException(ErrorCode.InvalidDeviceGroupToken, ErrorLevel.ERROR);
 		}
+		nested = MongoDeviceGroup.fromDocument(nestedDb);
 	    }
 
-	    DeviceGroupElement element = DeviceManagementPersistence.deviceGroupElementCreateLogic(request, group,
-		    device, nested);
-	    Document created = MongoDeviceGroupElement.toDocument(element);
-	    try {
-		MongoPersistence.insert(getMongoClient().getGroupElementsCollection(), created, ErrorCode.DuplicateId);
-		results.add(MongoDeviceGroupElement.fromDocument(created));
-	    } catch (ResourceExistsException e) {
-		if (!ignoreDuplicates) {
-		    throw e;
-		}
+	    created.add(DeviceManagementPersistence.deviceGroupElementCreateLogic(request, group, device, nested));
+	}
+
+	// Check for duplicates before writing so a rejected request writes nothing.
+	Set<UUID> deviceIds = new HashSet<UUID>();
+	Set<UUID> nestedIds = new HashSet<UUID>();
+	findExistingGroupElements(groupId, created, deviceIds, nestedIds);
+	List<Document> documents = new ArrayList<Document>();
+	for (DeviceGroupElement element : created) {
+	    boolean added = (element.getDeviceId() != null) ? deviceIds.add(element.getDeviceId())
+		    : (element.getNestedGroupId() == null) || nestedIds.add(element.getNestedGroupId());
+	    if (added) {
+		documents.add(MongoDeviceGroupElement.toDocument(element));
+	    } else if (!ignoreDuplicates) {
+		throw new ResourceExistsException(ErrorCode.DuplicateId);
+	    }
+	}
+
+	// Write all elements in a single unordered insert.
+	Map<Integer, SiteWhereException> failures = MongoPersistence
+		.insertMany(getMongoClient().getGroupElementsCollection(), documents, ErrorCode.DuplicateId);
+	List<IDeviceGroupElement> results = new ArrayList<IDeviceGroupElement>();
+	for (int i = 0; i < documents.size(); i++) {
+	    SiteWhereException failure = failures.get(i);
+	    if (failure == null) {
+		results.add(MongoDeviceGroupElement.fromDocument(documents.get(i)));
+	    } else if (!(failure instanceof ResourceExistsException) || !ignoreDuplicates) {
+		throw failure;
 	    }
 	}
 	return results;
     }
 
+    /**
+     * Add ids of devices and nested groups that are already elements of a group
+     * to the given sets. Only ids referenced by the new elements are queried.
+     * 
+     * @param groupId
+     * @param elements
+     * @param deviceIds
+     * @param nestedIds
+     * @throws SiteWhereException
+     */
+    protected void findExistingGroupElements(UUID groupId, List<DeviceGroupElement> elements, Set<UUID> deviceIds,
+	    Set<UUID> nestedIds) throws SiteWhereException {
+	List<UUID> devices = new ArrayList<UUID>();
+	List<UUID> nested = new ArrayList<UUID>();
+	for (DeviceGroupElement element : elements) {
+	    if (element.getDeviceId() != null) {
+		devices.add(element.getDeviceId());
+	    } else if (element.getNestedGroupId() != null) {
+		nested.add(element.getNestedGroupId());
+	    }
+	}
+	if (devices.isEmpty() && nested.isEmpty()) {
+	    return;
+	}
+	try {
+	    Document query = new Document(MongoDeviceGroupElement.PROP_GROUP_ID, groupId).append("$or",
+		    Arrays.asList(new Document(MongoDeviceGroupElement.PROP_DEVICE_ID, new Document("$in", devices)),
+			    new Document(MongoDeviceGroupElement.PROP_NESTED_GROUP_ID, new Document("$in", nested))));
+	    for (Document match : getMongoClient().getGroupElementsCollection().find(query)) {
+		IDeviceGroupElement existing = MongoDeviceGroupElement.fromDocument(match);
+		if (existing.getDeviceId() != null) {
+		    deviceIds.add(existing.getDeviceId());
+		} else if (existing.getNestedGroupId() != null) {
+		    nestedIds.add(existing.getNestedGroupId());
+		}
+	    }
+	} catch (MongoClientException e) {
+	    throw MongoPersistence.handleClientException(e);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#removeDeviceGroupElements(java.
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.device.persistence.mongodb;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.Document;
+
+import com.mongodb.MongoClientException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.sitewhere.mongodb.MongoIndexCatalog;
+import com.sitewhere.mongodb.MongoPersistence;
+import com.sitewhere.mongodb.common.MongoPersistentEntity;
+import com.sitewhere.spi.SiteWhereException;
+
+/**
+ * Maintains a materialized path for hierarchical entities such as areas and
+ * customers. Each document stores the ids of its ancestors ordered from the
+ * root, so all descendants of an entity can be found with a single indexed
+ * query on the path rather than walking the tree one level at a time.
+ * 
+ * @author Derek
+ */
+public class MongoMaterializedPath {
+
+    /** Static logger instance */
+    private static Log LOGGER = LogFactory.getLog(MongoMaterializedPath.class);
+
+    /** Property for ids of ancestors ordered from the root */
+    public static final String PROP_PATH = "path";
+
+    /**
+     * Add index used for descendant queries to an index catalog.
+     * 
+     * @param catalog
+     * @param collection
+     */
+    public static void addIndexes(MongoIndexCatalog catalog, MongoCollection<Document> collection) {
+	catalog.index(collection, new Document(PROP_PATH, 1));
+    }
+
+    /**
+     * Get the path stored on a document.
+     * 
+     * @param document
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static List<UUID> getPath(Document document) {
+	List<UUID> path = (List<UUID>) document.get(PROP_PATH);
+	return (path != null) ? path : new ArrayList<UUID>();
+    }
+
+    /**
+     * Get the path for a child of the given parent document.
+     * 
+     * @param parent
+     * @return
+     */
+    public static List<UUID> getChildPath(Document parent) {
+	List<UUID> path = new ArrayList<UUID>();
+	if (parent != null) {
+	    path.addAll(getPath(parent));
+	    path.add((UUID) parent.get(MongoPersistentEntity.PROP_ID));
+	}
+	return path;
+    }
+
+    /**
+     * Set the path on a document that is about to be inserted.
+     * 
+     * @param document
+     * @param parent
+     */
+    public static void setPath(Document document, Document parent) {
+	document.append(PROP_PATH, getChildPath(parent));
+    }
+
+    /**
+     * Get query that matches all descendants of an entity.
+     * 
+     * @param id
+     * @return
+     */
+    public static Document getDescendantsQuery(UUID id) {
+	return new Document(PROP_PATH, id);
+    }
+
+    /**
+     * Indicates whether a move below the given parent would create a cycle.
+     * 
+     * @param id
+     * @param parent
+     * @return
+     */
+    public static boolean isCycle(UUID id, Document parent) {
+	return (parent != null) && getChildPath(parent).contains(id);
+    }
+
+    /**
+     * Move an entity below a new parent. Paths of all descendants are rewritten
+     * by removing the old ancestors and prepending the new ones.
+     * 
+     * @param collection
+     * @param existing
+     * @param parent
+     * @throws SiteWhereException
+     */
+    public static void move(MongoCollection<Document> collection, Document existing, Document parent)
+	    throws SiteWhereException {
+	UUID id = (UUID) existing.get(MongoPersistentEntity.PROP_ID);
+	List<UUID> before = getPath(existing);
+	List<UUID> after = getChildPath(parent);
+	try {
+	    Document descendants = getDescendantsQuery(id);
+	    if (!before.isEmpty()) {
+		collection.updateMany(descendants, new Document("$pullAll", new Document(PROP_PATH, before)));
+	    }
+	    if (!after.isEmpty()) {
+		collection.updateMany(descendants, new Document("$push",
+			new Document(PROP_PATH, new Document("$each", after).append("$position", 0))));
+	    }
+	    collection.updateOne(new Document(MongoPersistentEntity.PROP_ID, id),
+		    new Document("$set", new Document(PROP_PATH, after)));
+	} catch (MongoClientException e) {
+	    throw MongoPersistence.handleClientException(e);
+	}
+	existing.put(PROP_PATH, after);
+    }
+
+    /**
+     * Update paths after an entity is deleted. Descendants of the deleted entity
+     * become a detached subtree, so the deleted entity and its ancestors are
+     * removed from their paths.
+     * 
+     * @param collection
+     * @param deleted
+     * @throws SiteWhereException
+     */
+    public static void detach(MongoCollection<Document> collection, Document deleted) throws SiteWhereException {
+	UUID id = (UUID) deleted.get(MongoPersistentEntity.PROP_ID);
+	List<UUID> removed = getChildPath(deleted);
+	try {
+	    collection.updateMany(getDescendantsQuery(id), new Document("$pullAll", new Document(PROP_PATH, removed)));
+	} catch (MongoClientException e) {
+	    throw MongoPersistence.handleClientException(e);
+	}
+    }
+
+    /**
+     * Recompute paths from parent references and update documents where the
+     * stored path is missing or stale. Used to populate paths for data created
+     * before they were maintained and to repair paths left inconsistent by a
+     * move that was interrupted.
+     * 
+     * @param collection
+     * @param parentProperty
+     * @return number of documents updated
+     * @throws SiteWhereException
+     */
+    public static int rebuild(MongoCollection<Document> collection, String parentProperty)
+	    throws SiteWhereException {
+	try {
+	    Map<UUID, Document> all = new HashMap<UUID, Document>();
+	    Document projection = new Document(MongoPersistentEntity.PROP_ID, 1).append(parentProperty, 1)
+		    .append(PROP_PATH, 1);
+	    for (Document document : collection.find().projection(projection)) {
+		all.put((UUID) document.get(MongoPersistentEntity.PROP_ID), document);
+	    }
+
+	    List<WriteModel<Document>> updates = new ArrayList<WriteModel<Document>>();
+	    for (Document document : all.values()) {
+		List<UUID> expected = computePath(document, all, parentProperty);
+		if (!expected.equals(document.get(PROP_PATH))) {
+		    updates.add(new UpdateOneModel<Document>(
+			    new Document(MongoPersistentEntity.PROP_ID, document.get(MongoPersistentEntity.PROP_ID)),
+			    new Document("$set", new Document(PROP_PATH, expected))));
+		}
+	    }
+	    if (!updates.isEmpty()) {
+		collection.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+		LOGGER.info("Updated materialized path for " + updates.size() + " entries in '"
+			+ collection.getNamespace().getCollectionName() + "'.");
+	    }
+	    return updates.size();
+	} catch (MongoClientException e) {
+	    throw MongoPersistence.handleClientException(e);
+	}
+    }
+
+    /**
+     * Compute path by following parent references. Stops at missing parents and
+     * at cycles.
+     * 
+     * @param document
+     * @param all
+     * @param parentProperty
+     * @return
+     */
+    protected static List<UUID> computePath(Document document, Map<UUID, Document> all, String parentProperty) {
+	List<UUID> path = new ArrayList<UUID>();
+	UUID parentId = (UUID) document.get(parentProperty);
+	while ((parentId != null) && all.containsKey(parentId) && !path.contains(parentId)) {
+	    path.add(0, parentId);
+	    parentId = (UUID) all.get(parentId).get(parentProperty);
+	}
+	return path;
+    }
+}
@@ -10,6 +10,7 @@ package com.sitewhere.devicestate.persistence.mongodb;
 import org.bson.Document;
 
 import com.mongodb.client.MongoCollection;
+import com.sitewhere.configuration.instance.mongodb.MongoConfiguration;
 import com.sitewhere.spi.SiteWhereException;
 
 /**
@@ -29,4 +30,11 @@ public interface IDeviceStateManagementMongoClient {
      * @throws SiteWhereException
      */
     public MongoCollection<Document> getDeviceStatesCollection() throws SiteWhereException;
+
+    /**
+     * Get configuration used to connect to MongoDB.
+     * 
+     * @return
+     */
+    public MongoConfiguration getConfiguration();
 }
@@ -13,10 +13,10 @@ import org.bson.Document;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.IndexOptions;
 import com.sitewhere.devicestate.microservice.DeviceStateMicroservice;
 import com.sitewhere.devicestate.persistence.DeviceStatePersistence;
 import com.sitewhere.mongodb.IMongoConverterLookup;
+import com.sitewhere.mongodb.MongoIndexCatalog;
 import com.sitewhere.mongodb.MongoPersistence;
 import com.sitewhere.rest.model.device.state.DeviceState;
 import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent;
@@ -64,15 +64,28 @@ public class MongoDeviceStateManagement extends TenantEngineLifecycleComponent i
     }
 
     /**
-     * Ensure that expected collection indexes exist.
+     * Ensure that collection indexes match the index catalog.
      * 
      * @throws SiteWhereException
      */
     protected void ensureIndexes() throws SiteWhereException {
-	getMongoClient().getDeviceStatesCollection().createIndex(
-		new BasicDBObject(MongoDeviceState.PROP_DEVICE_ASSIGNMENT_ID, 1), new IndexOptions().unique(true));
-	getMongoClient().getDeviceStatesCollection()
-		.createIndex(new Document(MongoDeviceState.PROP_LAST_INTERACTION_DATE, 1));
+	createIndexCatalog().reconcile();
+    }
+
+    /**
+     * Create catalog of indexes required by device state queries.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    protected MongoIndexCatalog createIndexCatalog() throws SiteWhereException {
+	MongoIndexCatalog catalog = new MongoIndexCatalog(
+		getMongoClient().getConfiguration().isRebuildMismatchedIndexes());
+	catalog.unique(getMongoClient().getDeviceStatesCollection(),
+		new BasicDBObject(MongoDeviceState.PROP_DEVICE_ASSIGNMENT_ID, 1));
+	catalog.index(getMongoClient().getDeviceStatesCollection(),
+		new Document(MongoDeviceState.PROP_LAST_INTERACTION_DATE, 1));
+	return catalog;
     }
 
     /*
@@ -30,6 +30,7 @@ import com.sitewhere.spi.device.event.request.IDeviceLocationCreateRequest;
 import com.sitewhere.spi.device.event.request.IDeviceMeasurementCreateRequest;
 import com.sitewhere.spi.device.event.request.IDeviceStateChangeCreateRequest;
 import com.sitewhere.spi.search.IDateRangeSearchCriteria;
+import com.sitewhere.spi.search.IProximitySearchCriteria;
 import com.sitewhere.spi.search.ISearchResults;
 
 /**
@@ -123,6 +124,16 @@ public class DeviceEventManagementDecorator extends TenantEngineLifecycleCompone
 	return getDelegate().listDeviceLocationsForIndex(index, entityIds, criteria);
     }
 
+    /*
+     * @see com.sitewhere.spi.device.event.IDeviceEventManagement#
+     * listDeviceLocationsNear(com.sitewhere.spi.search.IProximitySearchCriteria)
+     */
+    @Override
+    public ISearchResults<IDeviceLocation> listDeviceLocationsNear(IProximitySearchCriteria criteria)
+	    throws SiteWhereException {
+	return getDelegate().listDeviceLocationsNear(criteria);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.event.IDeviceEventManagement#addDeviceAlerts(java.
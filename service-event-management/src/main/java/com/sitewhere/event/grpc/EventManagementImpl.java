@@ -49,6 +49,8 @@ import com.sitewhere.grpc.service.GListCommandResponsesForInvocationRequest;
 import com.sitewhere.grpc.service.GListCommandResponsesForInvocationResponse;
 import com.sitewhere.grpc.service.GListLocationsForIndexRequest;
 import com.sitewhere.grpc.service.GListLocationsForIndexResponse;
+import com.sitewhere.grpc.service.GListLocationsNearRequest;
+import com.sitewhere.grpc.service.GListLocationsNearResponse;
 import com.sitewhere.grpc.service.GListMeasurementsForIndexRequest;
 import com.sitewhere.grpc.service.GListMeasurementsForIndexResponse;
 import com.sitewhere.grpc.service.GListStateChangesForIndexRequest;
@@ -298,6 +300,35 @@ public class EventManagementImpl extends DeviceEventManagementGrpc.DeviceEventMa
 	}
     }
 
+    /*
+     * @see com.sitewhere.grpc.service.DeviceEventManagementGrpc.
+     * DeviceEventManagementImplBase#listLocationsNear(com.sitewhere.grpc.service.
+     * GListLocationsNearRequest, io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void listLocationsNear(GListLocationsNearRequest request,
+	    StreamObserver<GListLocationsNearResponse> responseObserver) {
+	try {
+	    GrpcUtils.handleServerMethodEntry(this, DeviceEventManagementGrpc.getListLocationsNearMethod());
+	    ISearchResults<IDeviceLocation> apiResult = getDeviceEventManagement()
+		    .listDeviceLocationsNear(CommonModelConverter.asApiProximitySearchCriteria(request.getCriteria()));
+	    GListLocationsNearResponse.Builder response = GListLocationsNearResponse.newBuilder();
+	    GDeviceLocationSearchResults.Builder results = GDeviceLocationSearchResults.newBuilder();
+	    for (IDeviceLocation api : apiResult.getResults()) {
+		results.addLocations(EventModelConverter.asGrpcDeviceLocation(api));
+	    }
+	    results.setCount(apiResult.getNumResults());
+	    response.setResults(results.build());
+	    responseObserver.onNext(response.build());
+	    responseObserver.onCompleted();
+	} catch (Throwable e) {
+	    GrpcUtils.handleServerMethodException(DeviceEventManagementGrpc.getListLocationsNearMethod(), e,
+		    responseObserver);
+	} finally {
+	    GrpcUtils.handleServerMethodExit(DeviceEventManagementGrpc.getListLocationsNearMethod());
+	}
+    }
+
     /*
      * @see com.sitewhere.grpc.service.DeviceEventManagementGrpc.
      * DeviceEventManagementImplBase#addAlerts(com.sitewhere.grpc.service.
@@ -126,6 +126,13 @@ public class DeviceEventManagementPersistence extends Persistence {
 	    IDeviceLocationCreateRequest request) throws SiteWhereException {
 	DeviceLocation location = new DeviceLocation();
 	deviceEventCreateLogic(request, assignment, location);
+
+	// Coordinates must be valid to be included in geospatial indexes.
+	requireNotNull("Latitude", request.getLatitude());
+	requireNotNull("Longitude", request.getLongitude());
+	if ((Math.abs(request.getLatitude()) > 90) || (Math.abs(request.getLongitude()) > 180)) {
+	    throw new SiteWhereException("Location coordinates are out of range.");
+	}
 	location.setLatitude(request.getLatitude());
 	location.setLongitude(request.getLongitude());
 	location.setElevation(request.getElevation());
@@ -45,6 +45,7 @@ import com.sitewhere.spi.device.event.request.IDeviceStateChangeCreateRequest;
 import com.sitewhere.spi.error.ErrorCode;
 import com.sitewhere.spi.error.ErrorLevel;
 import com.sitewhere.spi.search.IDateRangeSearchCriteria;
+import com.sitewhere.spi.search.IProximitySearchCriteria;
 import com.sitewhere.spi.search.ISearchResults;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
@@ -207,6 +208,16 @@ public class HBaseDeviceEventManagement extends TenantEngineLifecycleComponent i
 	return HBaseDeviceEvent.listDeviceLocations(context, null, criteria);
     }
 
+    /*
+     * @see com.sitewhere.spi.device.event.IDeviceEventManagement#
+     * listDeviceLocationsNear(com.sitewhere.spi.search.IProximitySearchCriteria)
+     */
+    @Override
+    public SearchResults<IDeviceLocation> listDeviceLocationsNear(IProximitySearchCriteria criteria)
+	    throws SiteWhereException {
+	throw new SiteWhereException("Not implemented yet for HBase device management.");
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.event.IDeviceEventManagement#addDeviceAlerts(java.
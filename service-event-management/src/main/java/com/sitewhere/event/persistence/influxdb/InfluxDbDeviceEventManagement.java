@@ -49,6 +49,7 @@ import com.sitewhere.spi.device.event.request.IDeviceStateChangeCreateRequest;
 import com.sitewhere.spi.error.ErrorCode;
 import com.sitewhere.spi.error.ErrorLevel;
 import com.sitewhere.spi.search.IDateRangeSearchCriteria;
+import com.sitewhere.spi.search.IProximitySearchCriteria;
 import com.sitewhere.spi.search.ISearchResults;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
@@ -245,6 +246,16 @@ public class InfluxDbDeviceEventManagement extends TenantEngineLifecycleComponen
 		IDeviceLocation.class);
     }
 
+    /*
+     * @see com.sitewhere.spi.device.event.IDeviceEventManagement#
+     * listDeviceLocationsNear(com.sitewhere.spi.search.IProximitySearchCriteria)
+     */
+    @Override
+    public ISearchResults<IDeviceLocation> listDeviceLocationsNear(IProximitySearchCriteria criteria)
+	    throws SiteWhereException {
+	throw new SiteWhereException("Not implemented.");
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.event.IDeviceEventManagement#addDeviceAlerts(java.
@@ -10,6 +10,7 @@ package com.sitewhere.event.persistence.mongodb;
 import org.bson.Document;
 
 import com.mongodb.client.MongoCollection;
+import com.sitewhere.configuration.instance.mongodb.MongoConfiguration;
 import com.sitewhere.spi.SiteWhereException;
 
 /**
@@ -29,4 +30,11 @@ public interface IDeviceEventManagementMongoClient {
      * @throws SiteWhereException
      */
     public MongoCollection<Document> getEventsCollection() throws SiteWhereException;
+
+    /**
+     * Get configuration used to connect to MongoDB.
+     * 
+     * @return
+     */
+    public MongoConfiguration getConfiguration();
 }
@@ -8,17 +8,21 @@
 package com.sitewhere.event.persistence.mongodb;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import org.bson.Document;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.MongoException;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.result.UpdateResult;
 import com.sitewhere.event.persistence.DeviceEventManagementPersistence;
 import com.sitewhere.event.spi.microservice.IEventManagementMicroservice;
 import com.sitewhere.mongodb.IMongoConverterLookup;
+import com.sitewhere.mongodb.MongoIndexCatalog;
 import com.sitewhere.mongodb.MongoPersistence;
 import com.sitewhere.rest.model.device.event.DeviceAlert;
 import com.sitewhere.rest.model.device.event.DeviceCommandInvocation;
@@ -53,6 +57,7 @@ import com.sitewhere.spi.device.event.request.IDeviceStateChangeCreateRequest;
 import com.sitewhere.spi.error.ErrorCode;
 import com.sitewhere.spi.error.ErrorLevel;
 import com.sitewhere.spi.search.IDateRangeSearchCriteria;
+import com.sitewhere.spi.search.IProximitySearchCriteria;
 import com.sitewhere.spi.search.ISearchResults;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
@@ -122,22 +127,73 @@ public class MongoDeviceEventManagement extends TenantEngineLifecycleComponent i
     }
 
     /**
-     * Ensure that expected collection indexes exist.
+     * Ensure that collection indexes match the index catalog.
      * 
      * @throws SiteWhereException
      */
     protected void ensureIndexes() throws SiteWhereException {
-	getMongoClient().getEventsCollection().createIndex(new BasicDBObject(MongoDeviceEvent.PROP_ALTERNATE_ID, 1),
+	moveUnindexableLocations();
+	createIndexCatalog().reconcile();
+    }
+
+    /**
+     * Move location coordinates that can not be stored in the 2dsphere index
+     * (missing, non-numeric or out of range values written by older versions) to
+     * a separate field so that the index can be built. Locations that were moved
+     * are still returned, but are not found by proximity searches. The check
+     * scans location events, so it only runs while the index does not exist.
+     */
+    protected void moveUnindexableLocations() {
+	MongoCollection<Document> events = getMongoClient().getEventsCollection();
+	try {
+	    for (Document index : events.listIndexes()) {
+		if (((Document) index.get("key")).containsKey(MongoDeviceLocation.PROP_LATLONG)) {
+		    return;
+		}
+	    }
+	    Document indexable = new Document(
+		    MongoDeviceLocation.PROP_LATLONG + "." + MongoDeviceLocation.PROP_LATITUDE,
+		    new Document("$gte", -90).append("$lte", 90)).append(
+			    MongoDeviceLocation.PROP_LATLONG + "." + MongoDeviceLocation.PROP_LONGITUDE,
+			    new Document("$gte", -180).append("$lte", 180));
+	    Document query = new Document(MongoDeviceEvent.PROP_EVENT_TYPE, DeviceEventType.Location.name())
+		    .append(MongoDeviceLocation.PROP_LATLONG, new Document("$exists", true))
+		    .append("$nor", Collections.singletonList(indexable));
+	    Document rename = new Document("$rename",
+		    new Document(MongoDeviceLocation.PROP_LATLONG, MongoDeviceLocation.PROP_INVALID_LATLONG));
+	    UpdateResult result = events.updateMany(query, rename);
+	    if (result.getModifiedCount() > 0) {
+		getLogger().warn("Moved coordinates for " + result.getModifiedCount()
+			+ " location events that can not be indexed to '" + MongoDeviceLocation.PROP_INVALID_LATLONG
+			+ "'.");
+	    }
+	} catch (MongoException e) {
+	    getLogger().error("Unable to check location events for coordinates that can not be indexed.", e);
+	}
+    }
+
+    /**
+     * Create catalog of indexes required by event management queries.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    protected MongoIndexCatalog createIndexCatalog() throws SiteWhereException {
+	MongoIndexCatalog catalog = new MongoIndexCatalog(
+		getMongoClient().getConfiguration().isRebuildMismatchedIndexes());
+	MongoCollection<Document> events = getMongoClient().getEventsCollection();
+	catalog.index(events, new BasicDBObject(MongoDeviceEvent.PROP_ALTERNATE_ID, 1),
 		new IndexOptions().unique(true).sparse(true));
-	getMongoClient().getEventsCollection()
-		.createIndex(new BasicDBObject(MongoDeviceEvent.PROP_DEVICE_ASSIGNMENT_ID, 1)
-			.append(MongoDeviceEvent.PROP_EVENT_TYPE, 1).append(MongoDeviceEvent.PROP_EVENT_DATE, -1));
-	getMongoClient().getEventsCollection().createIndex(new BasicDBObject(MongoDeviceEvent.PROP_CUSTOMER_ID, 1)
+	catalog.index(events, new BasicDBObject(MongoDeviceEvent.PROP_DEVICE_ASSIGNMENT_ID, 1)
+		.append(MongoDeviceEvent.PROP_EVENT_TYPE, 1).append(MongoDeviceEvent.PROP_EVENT_DATE, -1));
+	catalog.index(events, new BasicDBObject(MongoDeviceEvent.PROP_CUSTOMER_ID, 1)
 		.append(MongoDeviceEvent.PROP_EVENT_TYPE, 1).append(MongoDeviceEvent.PROP_EVENT_DATE, -1));
-	getMongoClient().getEventsCollection().createIndex(new BasicDBObject(MongoDeviceEvent.PROP_AREA_ID, 1)
+	catalog.index(events, new BasicDBObject(MongoDeviceEvent.PROP_AREA_ID, 1)
 		.append(MongoDeviceEvent.PROP_EVENT_TYPE, 1).append(MongoDeviceEvent.PROP_EVENT_DATE, -1));
-	getMongoClient().getEventsCollection().createIndex(new BasicDBObject(MongoDeviceEvent.PROP_ASSET_ID, 1)
+	catalog.index(events, new BasicDBObject(MongoDeviceEvent.PROP_ASSET_ID, 1)
 		.append(MongoDeviceEvent.PROP_EVENT_TYPE, 1).append(MongoDeviceEvent.PROP_EVENT_DATE, -1));
+	catalog.optional(events, new BasicDBObject(MongoDeviceLocation.PROP_LATLONG, "2dsphere"));
+	return catalog;
     }
 
     /*
@@ -261,6 +317,21 @@ public class MongoDeviceEventManagement extends TenantEngineLifecycleComponent i
 	return MongoPersistence.search(IDeviceLocation.class, events, query, sort, criteria, LOOKUP);
     }
 
+    /*
+     * @see com.sitewhere.spi.device.event.IDeviceEventManagement#
+     * listDeviceLocationsNear(com.sitewhere.spi.search.IProximitySearchCriteria)
+     */
+    @Override
+    public SearchResults<IDeviceLocation> listDeviceLocationsNear(IProximitySearchCriteria criteria)
+	    throws SiteWhereException {
+	MongoCollection<Document> events = getMongoClient().getEventsCollection();
+	Document query = new Document(MongoDeviceEvent.PROP_EVENT_TYPE, DeviceEventType.Location.name());
+	MongoPersistence.addDateSearchCriteria(query, MongoDeviceEvent.PROP_EVENT_DATE, criteria);
+	Document sort = new Document(MongoDeviceEvent.PROP_EVENT_DATE, -1);
+	return MongoPersistence.searchNear(IDeviceLocation.class, events, MongoDeviceLocation.PROP_LATLONG, query, sort,
+		criteria, LOOKUP);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.event.IDeviceEventManagement#addDeviceAlerts(java.
@@ -23,6 +23,9 @@ public class MongoDeviceLocation implements MongoConverter<IDeviceLocation> {
     /** Element that holds location information */
     public static final String PROP_LATLONG = "ltln";
 
+    /** Element that holds location information that can not be indexed */
+    public static final String PROP_INVALID_LATLONG = "ltln_invalid";
+
     /** Property for latitude */
     public static final String PROP_LATITUDE = "lati";
 
@@ -79,14 +82,26 @@ public class MongoDeviceLocation implements MongoConverter<IDeviceLocation> {
     public static void fromDocument(Document source, DeviceLocation target, boolean isNested) {
 	MongoDeviceEvent.fromDocument(source, target, isNested);
 
-	Document location = (Document) source.get(PROP_LATLONG);
-	Double latitude = (Double) location.get(PROP_LATITUDE);
-	Double longitude = (Double) location.get(PROP_LONGITUDE);
-	Double elevation = (Double) source.get(PROP_ELEVATION);
+	Object location = source.get(PROP_LATLONG);
+	if (location == null) {
+	    location = source.get(PROP_INVALID_LATLONG);
+	}
+	if (location instanceof Document) {
+	    target.setLatitude(asDouble(((Document) location).get(PROP_LATITUDE)));
+	    target.setLongitude(asDouble(((Document) location).get(PROP_LONGITUDE)));
+	}
+	target.setElevation(asDouble(source.get(PROP_ELEVATION)));
+    }
 
-	target.setLatitude(latitude);
-	target.setLongitude(longitude);
-	target.setElevation(elevation);
+    /**
+     * Get a stored coordinate as a double. Values written by older versions may
+     * not be stored as doubles.
+     * 
+     * @param value
+     * @return
+     */
+    protected static Double asDouble(Object value) {
+	return (value instanceof Number) ? ((Number) value).doubleValue() : null;
     }
 
     /**
@@ -9,11 +9,13 @@ package com.sitewhere.search.solr;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrQuery.ORDER;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.impl.NoOpResponseParser;
 import org.apache.solr.client.solrj.request.QueryRequest;
@@ -30,15 +32,19 @@ import org.springframework.web.util.UriComponentsBuilder;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sitewhere.configuration.instance.solr.SolrConfiguration;
+import com.sitewhere.rest.model.search.SearchResults;
 import com.sitewhere.server.lifecycle.LifecycleComponent;
+import com.sitewhere.solr.ISolrFields;
 import com.sitewhere.solr.SiteWhereSolrFactory;
 import com.sitewhere.solr.SolrConnection;
+import com.sitewhere.solr.SolrEventType;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.device.event.IDeviceEvent;
 import com.sitewhere.spi.device.event.IDeviceLocation;
-import com.sitewhere.spi.search.IDateRangeSearchCriteria;
 import com.sitewhere.spi.search.IDeviceEventSearchProvider;
+import com.sitewhere.spi.search.IProximitySearchCriteria;
 import com.sitewhere.spi.search.ISearchProvider;
+import com.sitewhere.spi.search.ISearchResults;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
 
@@ -53,6 +59,9 @@ public class SolrSearchProvider extends LifecycleComponent implements IDeviceEve
     /** Name returned for provider */
     private static final String DEFAULT_NAME = "Solr Search Provider";
 
+    /** Maximum number of results returned when no page size is given */
+    private static final int MAX_UNPAGED_RESULTS = 1000;
+
     /** Provider id */
     private String id;
 
@@ -98,6 +107,11 @@ public class SolrSearchProvider extends LifecycleComponent implements IDeviceEve
 	} catch (IOException e) {
 	    throw new SiteWhereException("Exception in ping. Verify that Solr server is available.", e);
 	}
+	try {
+	    getSolrConnection().ensureSpatialSchema();
+	} catch (SiteWhereException e) {
+	    getLogger().warn("Unable to verify Solr spatial schema. Proximity searches may fail.", e);
+	}
     }
 
     /**
@@ -167,28 +181,76 @@ public class SolrSearchProvider extends LifecycleComponent implements IDeviceEve
     }
 
     /*
-     * @see
-     * com.sitewhere.spi.search.IDeviceEventSearchProvider#getLocationsNear(double,
-     * double, double, com.sitewhere.spi.search.IDateRangeSearchCriteria)
+     * @see com.sitewhere.spi.search.IDeviceEventSearchProvider#getLocationsNear(com.
+     * sitewhere.spi.search.IProximitySearchCriteria)
      */
     @Override
-    public List<IDeviceLocation> getLocationsNear(double latitude, double longitude, double distance,
-	    IDateRangeSearchCriteria criteria) throws SiteWhereException {
-	ModifiableSolrParams params = new ModifiableSolrParams();
+    public ISearchResults<IDeviceLocation> getLocationsNear(IProximitySearchCriteria criteria)
+	    throws SiteWhereException {
 	try {
-	    QueryResponse response = getSolrConnection().getSolrClient().query(params);
+	    SolrQuery query = createProximityQuery(criteria);
+	    getLogger().debug("About to execute Solr proximity search: " + query);
+	    QueryResponse response = getSolrConnection().getSolrClient().query(query);
 	    SolrDocumentList docs = response.getResults();
-	    while (docs.iterator().hasNext()) {
-		SolrDocument doc = docs.iterator().next();
-		doc.getFieldNames();
-	    }
 	    List<IDeviceLocation> results = new ArrayList<IDeviceLocation>();
-	    return results;
+	    for (SolrDocument doc : docs) {
+		results.add((IDeviceLocation) SiteWhereSolrFactory.parseDocument(doc));
+	    }
+	    return new SearchResults<IDeviceLocation>(results, docs.getNumFound());
 	} catch (SolrServerException e) {
 	    throw new SiteWhereException("Unable to execute 'getLocationsNear' query.", e);
 	} catch (IOException e) {
-	    throw new SiteWhereException("Unable to execute query.", e);
+	    throw new SiteWhereException("Unable to execute 'getLocationsNear' query.", e);
+	}
+    }
+
+    /**
+     * Create a query for location events within a distance of a point. A cached
+     * bounding box filter narrows the candidates and a circle query scores each
+     * match by distance so results can be sorted nearest first, then most recent
+     * first.
+     * 
+     * @param criteria
+     * @return
+     * @throws SiteWhereException
+     */
+    protected SolrQuery createProximityQuery(IProximitySearchCriteria criteria) throws SiteWhereException {
+	if ((criteria.getLatitude() == null) || (criteria.getLongitude() == null)
+		|| (criteria.getMaxDistance() == null)) {
+	    throw new SiteWhereException("Proximity search requires latitude, longitude and maximum distance.");
 	}
+	SolrQuery query = new SolrQuery();
+	query.set("sfield", ISolrFields.LOCATION);
+	query.set("pt", criteria.getLatitude() + "," + criteria.getLongitude());
+	query.set("d", String.valueOf(criteria.getMaxDistance() / 1000.0));
+	query.setQuery("{!geofilt score=kilometers}");
+	query.addFilterQuery("{!bbox}");
+	query.addFilterQuery(ISolrFields.EVENT_TYPE + ":" + SolrEventType.Location.name());
+	if ((criteria.getStartDate() != null) || (criteria.getEndDate() != null)) {
+	    query.addFilterQuery(ISolrFields.EVENT_DATE + ":[" + asSolrDate(criteria.getStartDate()) + " TO "
+		    + asSolrDate(criteria.getEndDate()) + "]");
+	}
+	if (criteria.getMinDistance() != null) {
+	    query.addFilterQuery("{!frange l=" + (criteria.getMinDistance() / 1000.0) + "}geodist()");
+	}
+	query.addSort("score", ORDER.asc);
+	query.addSort(ISolrFields.EVENT_DATE, ORDER.desc);
+
+	int pageSize = (criteria.getPageSize() > 0) ? criteria.getPageSize() : MAX_UNPAGED_RESULTS;
+	int pageNumber = (criteria.getPageSize() > 0) ? Math.max(1, criteria.getPageNumber()) : 1;
+	query.setStart((pageNumber - 1) * pageSize);
+	query.setRows(pageSize);
+	return query;
+    }
+
+    /**
+     * Format a date for use in a Solr range query.
+     * 
+     * @param date
+     * @return
+     */
+    protected static String asSolrDate(Date date) {
+	return (date != null) ? date.toInstant().toString() : "*";
     }
 
     /*
@@ -7,10 +7,12 @@
  */
 package com.sitewhere.sources;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import com.sitewhere.grpc.client.event.EventModelMarshaler;
+import com.sitewhere.microservice.kafka.MicroserviceKafkaProducer;
 import com.sitewhere.rest.model.microservice.kafka.payload.DeviceRegistrationPayload;
 import com.sitewhere.rest.model.microservice.kafka.payload.InboundEventPayload;
 import com.sitewhere.server.lifecycle.CompositeLifecycleStep;
@@ -196,6 +198,48 @@ public class EventSourcesManager extends TenantEngineLifecycleComponent implemen
 	}
     }
 
+    /*
+     * @see com.sitewhere.sources.spi.IEventSourcesManager#flushProducers()
+     */
+    @Override
+    public long flushProducers() {
+	for (MicroserviceKafkaProducer producer : getProducers()) {
+	    producer.flush();
+	}
+	return getFailedSendCount();
+    }
+
+    /*
+     * @see com.sitewhere.sources.spi.IEventSourcesManager#getFailedSendCount()
+     */
+    @Override
+    public long getFailedSendCount() {
+	long failures = 0;
+	for (MicroserviceKafkaProducer producer : getProducers()) {
+	    failures += producer.getFailedSendCount();
+	}
+	return failures;
+    }
+
+    /**
+     * Get producers that receive messages from event sources.
+     * 
+     * @return
+     */
+    protected List<MicroserviceKafkaProducer> getProducers() {
+	List<MicroserviceKafkaProducer> producers = new ArrayList<MicroserviceKafkaProducer>();
+	if (getDecodedEventsProducer() != null) {
+	    producers.add(getDecodedEventsProducer());
+	}
+	if (getDeviceRegistrationEventsProducer() != null) {
+	    producers.add(getDeviceRegistrationEventsProducer());
+	}
+	if (getFailedDecodeEventsProducer() != null) {
+	    producers.add(getFailedDecodeEventsProducer());
+	}
+	return producers;
+    }
+
     /*
      * @see com.sitewhere.sources.spi.IEventSourcesManager#getEventSources()
      */
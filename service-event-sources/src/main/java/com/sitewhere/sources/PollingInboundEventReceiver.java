@@ -7,15 +7,30 @@
  */
 package com.sitewhere.sources;
 
-import java.util.concurrent.ExecutorService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.sitewhere.sources.polling.PollingEndpoint;
+import com.sitewhere.sources.spi.polling.IPollingEndpoint;
+import com.sitewhere.sources.spi.polling.PollResult;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 
 /**
- * Abstract base class for event receivers that poll an external source at a
- * given interval.
+ * Abstract base class for event receivers that poll one or more external
+ * endpoints. Polls are scheduled on a shared pool so that the number of threads
+ * is bounded regardless of the number of endpoints. If a backoff multiplier
+ * above 1.0 and a maximum interval above the polling interval are configured,
+ * each endpoint backs off toward the maximum interval while nothing changes
+ * and returns to the base interval when new data arrives. By default every
+ * endpoint is polled at the fixed polling interval.
  * 
  * @author Derek
  *
@@ -26,18 +41,51 @@ public abstract class PollingInboundEventReceiver<T> extends InboundEventReceive
     /** Default polling interval in milliseconds */
     private static final int DEFAULT_POLL_INTERVAL_MS = 10000;
 
+    /** Default maximum polling interval (0 uses polling interval) */
+    private static final int DEFAULT_MAX_POLL_INTERVAL_MS = 0;
+
+    /** Default multiplier applied to interval when nothing changed */
+    private static final double DEFAULT_BACKOFF_MULTIPLIER = 1.0;
+
+    /** Default number of polls that may run concurrently */
+    private static final int DEFAULT_MAX_CONCURRENT_POLLS = 4;
+
     /** Polling interval in milliseconds */
     private int pollIntervalMs = DEFAULT_POLL_INTERVAL_MS;
 
+    /** Maximum polling interval in milliseconds */
+    private int maxPollIntervalMs = DEFAULT_MAX_POLL_INTERVAL_MS;
+
+    /** Multiplier applied to interval when nothing changed */
+    private double backoffMultiplier = DEFAULT_BACKOFF_MULTIPLIER;
+
+    /** Number of polls that may run concurrently */
+    private int maxConcurrentPolls = DEFAULT_MAX_CONCURRENT_POLLS;
+
+    /** Endpoints being polled */
+    private List<PollingEndpoint> endpoints = new ArrayList<PollingEndpoint>();
+
     /** Handles poller threading */
-    private ExecutorService executor;
+    private ScheduledExecutorService executor;
 
     /**
-     * Implemented in subclass to do work when polling occurs.
+     * Implemented in subclass to poll an endpoint.
      * 
+     * @param endpoint
+     * @return
      * @throws SiteWhereException
      */
-    public abstract void doPoll() throws SiteWhereException;
+    public abstract PollResult doPoll(IPollingEndpoint endpoint) throws SiteWhereException;
+
+    /**
+     * Get paths for endpoints to be polled. By default, a single endpoint is
+     * polled.
+     * 
+     * @return
+     */
+    protected List<String> getEndpointPaths() {
+	return Collections.singletonList("");
+    }
 
     /*
      * (non-Javadoc)
@@ -48,8 +96,19 @@ public abstract class PollingInboundEventReceiver<T> extends InboundEventReceive
      */
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
-	this.executor = Executors.newSingleThreadExecutor();
-	executor.submit(new Poller());
+	this.endpoints = new ArrayList<PollingEndpoint>();
+	for (String path : getEndpointPaths()) {
+	    endpoints.add(new PollingEndpoint(path, getPollIntervalMs(), getMaxPollIntervalMs(),
+		    getBackoffMultiplier()));
+	}
+	int threads = Math.max(1, Math.min(getMaxConcurrentPolls(), endpoints.size()));
+	this.executor = Executors.newScheduledThreadPool(threads, new PollerThreadFactory());
+
+	// Spread initial polls across the interval.
+	for (int i = 0; i < endpoints.size(); i++) {
+	    long delay = ((long) getPollIntervalMs() * i) / endpoints.size();
+	    executor.schedule(new Poller(endpoints.get(i)), delay, TimeUnit.MILLISECONDS);
+	}
     }
 
     /*
@@ -67,32 +126,64 @@ public abstract class PollingInboundEventReceiver<T> extends InboundEventReceive
     }
 
     /**
-     * Class that excutes polling code at a given interval.
+     * Polls a single endpoint, then schedules the next poll based on the result.
      * 
      * @author Derek
      */
     public class Poller implements Runnable {
 
+	/** Endpoint being polled */
+	private PollingEndpoint endpoint;
+
+	public Poller(PollingEndpoint endpoint) {
+	    this.endpoint = endpoint;
+	}
+
 	@Override
 	public void run() {
-	    while (true) {
-		try {
-		    doPoll();
-		} catch (SiteWhereException e) {
-		    getLogger().error("Error executing polling logic.", e);
-		} catch (Exception e) {
-		    getLogger().error("Unhandled exception in polling operation.", e);
-		}
-		try {
-		    Thread.sleep(getPollIntervalMs());
-		} catch (InterruptedException e) {
-		    getLogger().warn("Poller thread interrupted.");
-		    return;
+	    PollResult result;
+	    try {
+		result = doPoll(endpoint);
+	    } catch (SiteWhereException e) {
+		getLogger().error("Error executing polling logic for '" + endpoint.getPath() + "'.", e);
+		result = PollResult.Failed;
+	    } catch (Throwable e) {
+		getLogger().error("Unhandled exception in polling operation for '" + endpoint.getPath() + "'.", e);
+		result = PollResult.Failed;
+	    }
+
+	    // Only skip unchanged resources once their content was processed.
+	    if (result == PollResult.Failed) {
+		endpoint.discardValidators();
+	    } else {
+		endpoint.commitValidators();
+	    }
+	    long next = endpoint.onPollCompleted((result != null) ? result : PollResult.Changed);
+	    try {
+		if (!executor.isShutdown()) {
+		    executor.schedule(this, next, TimeUnit.MILLISECONDS);
 		}
+	    } catch (RejectedExecutionException e) {
+		getLogger().debug("Poller stopped for '" + endpoint.getPath() + "'.");
 	    }
 	}
     }
 
+    /** Used for naming poller threads */
+    private class PollerThreadFactory implements ThreadFactory {
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public Thread newThread(Runnable r) {
+	    return new Thread(r, "SiteWhere Poller " + counter.incrementAndGet());
+	}
+    }
+
+    public List<PollingEndpoint> getEndpoints() {
+	return endpoints;
+    }
+
     public int getPollIntervalMs() {
 	return pollIntervalMs;
     }
@@ -100,4 +191,28 @@ public abstract class PollingInboundEventReceiver<T> extends InboundEventReceive
     public void setPollIntervalMs(int pollIntervalMs) {
 	this.pollIntervalMs = pollIntervalMs;
     }
-}
\ No newline at end of file
+
+    public int getMaxPollIntervalMs() {
+	return maxPollIntervalMs;
+    }
+
+    public void setMaxPollIntervalMs(int maxPollIntervalMs) {
+	this.maxPollIntervalMs = maxPollIntervalMs;
+    }
+
+    public double getBackoffMultiplier() {
+	return backoffMultiplier;
+    }
+
+    public void setBackoffMultiplier(double backoffMultiplier) {
+	this.backoffMultiplier = backoffMultiplier;
+    }
+
+    public int getMaxConcurrentPolls() {
+	return maxConcurrentPolls;
+    }
+
+    public void setMaxConcurrentPolls(int maxConcurrentPolls) {
+	this.maxConcurrentPolls = maxConcurrentPolls;
+    }
+}
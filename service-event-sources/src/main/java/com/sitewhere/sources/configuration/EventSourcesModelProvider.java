@@ -62,6 +62,7 @@ public class EventSourcesModelProvider extends ConfigurationModelProvider {
 	addElement(createHttpSocketInteractionHandlerElement());
 	addElement(createGroovySocketInteractionHandlerElement());
 	addElement(createSocketEventSourceElement());
+	addElement(createNettySocketEventSourceElement());
 
 	// WebSocket event source.
 	addElement(createWebSocketHeaderElement());
@@ -70,6 +71,7 @@ public class EventSourcesModelProvider extends ConfigurationModelProvider {
 	// Binary event decoders.
 	addElement(createProtobufEventDecoderElement());
 	addElement(createJsonDeviceRequestDecoderElement());
+	addElement(createJsonStreamingDeviceRequestDecoderElement());
 	addElement(createJsonBatchEventDecoderElement());
 	addElement(createGroovyEventDecoderElement());
 	addElement(createCompositeEventDecoderElement());
@@ -153,6 +155,24 @@ public class EventSourcesModelProvider extends ConfigurationModelProvider {
 	builder.attribute((new AttributeNode.Builder("Processing threads", "numThreads", AttributeType.Integer,
 		ATTR_GROUP_PERFORMANCE).defaultValue("5")
 			.description("Number of threads used for processing MQTT payloads.").build()));
+	builder.attribute((new AttributeNode.Builder("Queue capacity", "queueCapacity", AttributeType.Integer,
+		ATTR_GROUP_PERFORMANCE).defaultValue("1000")
+			.description("Maximum number of messages received but not yet processed. No more messages "
+				+ "are pulled from the broker while the queue is full.")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Acknowledge batch size", "ackBatchSize", AttributeType.Integer,
+		ATTR_GROUP_PERFORMANCE).defaultValue("10")
+			.description("Number of processed messages that triggers acknowledgement (QoS 1 and 2). "
+				+ "Keep well below the broker in-flight limit.")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Acknowledge interval (ms)", "ackIntervalMs",
+		AttributeType.Integer, ATTR_GROUP_PERFORMANCE).defaultValue("1000")
+			.description("Maximum time a processed message waits before being acknowledged.").build()));
+	builder.attribute((new AttributeNode.Builder("Shared subscription group", "sharedSubscriptionGroup",
+		AttributeType.String, ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("If set, subscribes using '$share/group/topic' so that event source instances "
+				+ "in the same group split messages for the topic.")
+			.build()));
 
 	return builder.build();
     }
@@ -188,6 +208,20 @@ public class EventSourcesModelProvider extends ConfigurationModelProvider {
 	builder.attribute((new AttributeNode.Builder("Consumer threads", "numConsumers", AttributeType.Integer,
 		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY).defaultValue("5")
 			.description("Number of thread used by consumers to pull data from the queue.").build()));
+	builder.attribute((new AttributeNode.Builder("Auto acknowledge", "autoAcknowledge", AttributeType.Boolean,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY).defaultValue("false")
+			.description("Indicates if messages are acknowledged as soon as they are delivered. If false, "
+				+ "messages are acknowledged only after decoded events have been sent to Kafka.")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Prefetch count", "prefetchCount", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY).defaultValue("100")
+			.description("Maximum number of unacknowledged messages delivered to each consumer.").build()));
+	builder.attribute((new AttributeNode.Builder("Acknowledge batch size", "ackBatchSize", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY).defaultValue("50")
+			.description("Number of processed messages acknowledged together.").build()));
+	builder.attribute((new AttributeNode.Builder("Acknowledge interval (ms)", "ackIntervalMs",
+		AttributeType.Integer, ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY).defaultValue("1000")
+			.description("Maximum time a processed message waits before being acknowledged.").build()));
 
 	return builder.build();
     }
@@ -380,6 +414,76 @@ public class EventSourcesModelProvider extends ConfigurationModelProvider {
 	return builder.build();
     }
 
+    /**
+     * Create element configuration for non-blocking socket event source.
+     * 
+     * @return
+     */
+    protected ElementNode createNettySocketEventSourceElement() {
+	ElementNode.Builder builder = new ElementNode.Builder("Non-Blocking Socket Event Source",
+		IEventSourcesParser.Elements.NettySocketEventSource.getLocalName(), "plug",
+		EventSourcesRoleKeys.EventSource, this);
+
+	builder.description("Event source that accepts persistent device connections on a non-blocking TCP/IP "
+		+ "server socket and splits each connection's data into frames.");
+	builder.attributeGroup(ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY);
+	addEventSourceAttributes(builder, ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY);
+
+	// Only accept binary event decoders.
+	builder.specializes(EventSourcesRoleKeys.EventDecoder, EventSourcesRoleKeys.BinaryEventDecoder);
+
+	builder.attribute((new AttributeNode.Builder("Bind address", "bindAddress", AttributeType.String,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Address the server socket binds to. Binds to all interfaces if not specified.")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Port", "port", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Port on which the server socket will listen.").defaultValue("8484").makeRequired()
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Number of threads", "numThreads", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Number of event loop threads used to service connections. "
+				+ "Zero uses twice the number of cores.")
+			.defaultValue("0").build()));
+	builder.attribute((new AttributeNode.Builder("Maximum connections", "maxConnections", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY).description("Maximum number of concurrent connections.")
+			.defaultValue("50000").build()));
+	builder.attribute((new AttributeNode.Builder("Idle timeout (secs)", "idleTimeoutSecs", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Seconds without received data before a connection is closed. Zero disables the timeout.")
+			.defaultValue("300").build()));
+	builder.attribute((new AttributeNode.Builder("Connection backlog", "backlog", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Number of pending connections queued by the server socket.").defaultValue("1024")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Decoder threads", "numDecoderThreads", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Number of threads used to decode received payloads.").defaultValue("16").build()));
+	builder.attribute((new AttributeNode.Builder("Decode queue capacity", "decodeQueueCapacity",
+		AttributeType.Integer, ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Payloads waiting to be decoded per decoder thread.").defaultValue("10000").build()));
+	builder.attribute((new AttributeNode.Builder("Framing", "framing", AttributeType.String,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Determines how the byte stream is split into payloads.")
+			.choice("Length prefixed", "length-prefixed").choice("Delimiter", "delimiter")
+			.choice("Fixed length", "fixed-length").defaultValue("length-prefixed").build()));
+	builder.attribute((new AttributeNode.Builder("Maximum frame length", "maxFrameLength", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Maximum length of a length-prefixed or delimited frame.").defaultValue("65536")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Length field bytes", "lengthFieldLength", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Number of bytes in the length prefix (1, 2, 3, 4 or 8).").defaultValue("4").build()));
+	builder.attribute((new AttributeNode.Builder("Delimiter", "delimiter", AttributeType.String,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Delimiter between frames. Defaults to line endings.").build()));
+	builder.attribute((new AttributeNode.Builder("Frame length", "frameLength", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Number of bytes in each fixed-length frame.").build()));
+
+	return builder.build();
+    }
+
     /**
      * Create element configuration for WebSocket header.
      * 
@@ -412,13 +516,38 @@ public class EventSourcesModelProvider extends ConfigurationModelProvider {
 		IEventSourcesParser.Elements.WebSocketEventSource.getLocalName(), "plug",
 		EventSourcesRoleKeys.WebSocketEventSource, this);
 
-	builder.description("Event source that pulls data from a web socket. Note that the event decoder needs "
+	builder.description("Event source that pulls data from one or more web sockets and/or accepts device "
+		+ "connections on an embedded web socket server. Note that the event decoder needs "
 		+ "to correspond to the payload type chosen.");
 	builder.attributeGroup(ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY);
 	addEventSourceAttributes(builder, ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY);
 
 	builder.attribute((new AttributeNode.Builder("Web socket URL", "webSocketUrl", AttributeType.String,
-		ATTR_GROUP_CONNECTIVITY).description("URL of the web socket to connect to.").makeRequired().build()));
+		ATTR_GROUP_CONNECTIVITY).description(
+			"Comma-separated URLs of web sockets to connect to. Connections are reestablished if dropped.")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Server port", "serverPort", AttributeType.Integer,
+		ATTR_GROUP_CONNECTIVITY)
+			.description("Port for embedded server that accepts device connections. No server if not set.")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Server path", "serverPath", AttributeType.String,
+		ATTR_GROUP_CONNECTIVITY)
+			.description("Path of embedded server endpoint (relative to '/sitewhere').")
+			.defaultValue("/events").build()));
+	builder.attribute((new AttributeNode.Builder("Decoder threads", "numThreads", AttributeType.Integer,
+		ATTR_GROUP_CONNECTIVITY).description("Number of threads used to decode received frames.")
+			.defaultValue("5").build()));
+	builder.attribute((new AttributeNode.Builder("Queue capacity", "queueCapacity", AttributeType.Integer,
+		ATTR_GROUP_CONNECTIVITY)
+			.description("Frames waiting to be decoded before reading from sockets is paused.")
+			.defaultValue("1000").build()));
+	builder.attribute((new AttributeNode.Builder("Initial reconnect delay (ms)", "initialReconnectDelayMs",
+		AttributeType.Integer, ATTR_GROUP_CONNECTIVITY)
+			.description("Delay before the first reconnect attempt. Doubles on each failure.")
+			.defaultValue("1000").build()));
+	builder.attribute((new AttributeNode.Builder("Maximum reconnect delay (ms)", "maxReconnectDelayMs",
+		AttributeType.Integer, ATTR_GROUP_CONNECTIVITY)
+			.description("Longest delay between reconnect attempts.").defaultValue("60000").build()));
 	builder.attribute((new AttributeNode.Builder("Payload type", "payloadType", AttributeType.String,
 		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
 			.description("Chooses whether payload is processed as binary or string.")
@@ -479,6 +608,26 @@ public class EventSourcesModelProvider extends ConfigurationModelProvider {
 		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
 			.description("Time interval (in milliseconds) to wait between script executions.")
 			.makeRequired().defaultValue("10000").build()));
+	builder.attribute((new AttributeNode.Builder("Maximum polling interval (ms)", "maxPollIntervalMs",
+		AttributeType.Integer, ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Longest interval (in milliseconds) an endpoint backs off to when "
+				+ "nothing changes. Defaults to the polling interval.")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Backoff multiplier", "backoffMultiplier", AttributeType.Decimal,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Factor applied to the polling interval each time an endpoint is unchanged. "
+				+ "A value of 1.0 disables backoff.")
+			.defaultValue("1.0").build()));
+	builder.attribute((new AttributeNode.Builder("Maximum concurrent polls", "maxConcurrentPolls",
+		AttributeType.Integer, ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
+			.description("Number of endpoints that may be polled at the same time.").defaultValue("4")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Endpoints", "endpoints", AttributeType.String,
+		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY).description(
+			"Comma-separated paths relative to the base URL. Each path is fetched with a conditional "
+				+ "request and passed to the script when changed. '{cursor}' is replaced by the "
+				+ "endpoint cursor.")
+			.build()));
 	builder.attribute((new AttributeNode.Builder("Username", "username", AttributeType.String,
 		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
 			.description("Username used for basic authentication.").build()));
@@ -523,6 +672,21 @@ public class EventSourcesModelProvider extends ConfigurationModelProvider {
 	return builder.build();
     }
 
+    /**
+     * Create element configuration for streaming JSON event decoder.
+     * 
+     * @return
+     */
+    protected ElementNode createJsonStreamingDeviceRequestDecoderElement() {
+	ElementNode.Builder builder = new ElementNode.Builder("JSON Streaming Device Request Decoder",
+		IEventSourcesParser.BinaryDecoders.JsonStreamingDeviceRequestDecoder.getLocalName(), "cogs",
+		EventSourcesRoleKeys.BinaryEventDecoder, this);
+
+	builder.description("Event decoder that parses binary messages containing the JSON representation "
+		+ "of a device request (or an array of requests) in a single pass without building a JSON tree.");
+	return builder.build();
+    }
+
     /**
      * Create element configuration for JSON event decoder.
      * 
@@ -9,10 +9,18 @@ package com.sitewhere.sources.decoder.composite;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
+import com.sitewhere.grpc.client.device.CachedDeviceManagementApiChannel;
+import com.sitewhere.grpc.client.spi.cache.ICacheListener;
+import com.sitewhere.grpc.client.spi.cache.ICacheProvider;
+import com.sitewhere.grpc.client.spi.client.IDeviceManagementApiDemux;
 import com.sitewhere.sources.spi.ICompositeDeviceEventDecoder;
+import com.sitewhere.sources.spi.microservice.IEventSourcesMicroservice;
 import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.IDevice;
 import com.sitewhere.spi.device.IDeviceManagement;
+import com.sitewhere.spi.device.IDeviceType;
 import com.sitewhere.spi.tenant.ITenant;
 
 /**
@@ -29,6 +37,21 @@ public class BinaryCompositeDeviceEventDecoder extends CompositeDeviceEventDecod
     /** List of decoder choices */
     private List<ICompositeDeviceEventDecoder.IDecoderChoice<byte[]>> decoderChoices = new ArrayList<ICompositeDeviceEventDecoder.IDecoderChoice<byte[]>>();
 
+    /** API channel whose caches hold the registered listeners */
+    private CachedDeviceManagementApiChannel listenerChannel;
+
+    /** Device cache listener was registered with */
+    private ICacheProvider<String, IDevice> deviceCache;
+
+    /** Registration id for device cache listener */
+    private String deviceListenerId;
+
+    /** Device type cache listener was registered with */
+    private ICacheProvider<UUID, IDeviceType> deviceTypeCache;
+
+    /** Registration id for device type cache listener */
+    private String deviceTypeListenerId;
+
     /*
      * (non-Javadoc)
      * 
@@ -38,21 +61,122 @@ public class BinaryCompositeDeviceEventDecoder extends CompositeDeviceEventDecod
      */
     @Override
     public IDeviceContext<byte[]> buildContext(IMessageMetadata<byte[]> metadata) throws SiteWhereException {
-	BinaryDeviceContext context = new BinaryDeviceContext();
-
-	IDeviceManagement devices = getDeviceManagement(getTenantEngine().getTenant());
-	context.setDevice(devices.getDeviceByToken(metadata.getDeviceToken()));
-	if (context.getDevice() == null) {
+	IDeviceManagement devices = getDeviceManagement();
+	IDevice device = devices.getDeviceByToken(metadata.getDeviceToken());
+	if (device == null) {
 	    throw new SiteWhereException(
 		    "Unable to build device context. Device not found for token: " + metadata.getDeviceToken());
 	}
+	return buildContext(metadata, device, devices.getDeviceType(device.getDeviceTypeId()));
+    }
 
-	context.setDeviceType(devices.getDeviceType(context.getDevice().getDeviceTypeId()));
-
+    /*
+     * @see com.sitewhere.sources.decoder.composite.CompositeDeviceEventDecoder#
+     * buildContext(com.sitewhere.sources.spi.ICompositeDeviceEventDecoder.
+     * IMessageMetadata, com.sitewhere.spi.device.IDevice,
+     * com.sitewhere.spi.device.IDeviceType)
+     */
+    @Override
+    public IDeviceContext<byte[]> buildContext(IMessageMetadata<byte[]> metadata, IDevice device,
+	    IDeviceType deviceType) throws SiteWhereException {
+	BinaryDeviceContext context = new BinaryDeviceContext();
+	context.setDevice(device);
+	context.setDeviceType(deviceType);
 	context.setPayload(metadata.getPayload());
 	return context;
     }
 
+    /*
+     * @see com.sitewhere.sources.decoder.composite.CompositeDeviceEventDecoder#
+     * registerInvalidationListeners(com.sitewhere.sources.decoder.composite.
+     * DecoderRoutingCache)
+     */
+    @Override
+    protected boolean registerInvalidationListeners(DecoderRoutingCache<byte[]> cache) throws SiteWhereException {
+	IDeviceManagement devices = getDeviceManagement();
+	if (!(devices instanceof CachedDeviceManagementApiChannel)) {
+	    return false;
+	}
+	CachedDeviceManagementApiChannel cached = (CachedDeviceManagementApiChannel) devices;
+	if ((listenerChannel != null) && (listenerChannel != cached)) {
+	    unregisterInvalidationListeners();
+	}
+	this.listenerChannel = cached;
+	ITenant tenant = getTenantEngine().getTenant();
+	if (deviceListenerId == null) {
+	    this.deviceCache = cached.getDeviceCache();
+	    this.deviceListenerId = deviceCache.addCacheListener(tenant, cache);
+	    if (deviceListenerId == null) {
+		return false;
+	    }
+	}
+	if (deviceTypeListenerId != null) {
+	    return true;
+	}
+	ICacheListener<UUID> deviceTypeListener = new ICacheListener<UUID>() {
+
+	    @Override
+	    public void entryChanged(UUID key) {
+		cache.invalidateAll();
+	    }
+
+	    @Override
+	    public void cacheCleared() {
+		cache.invalidateAll();
+	    }
+	};
+	this.deviceTypeCache = cached.getDeviceTypeByIdCache();
+	this.deviceTypeListenerId = deviceTypeCache.addCacheListener(tenant, deviceTypeListener);
+	return deviceTypeListenerId != null;
+    }
+
+    /*
+     * @see com.sitewhere.sources.decoder.composite.CompositeDeviceEventDecoder#
+     * areInvalidationListenersAttached()
+     */
+    @Override
+    protected boolean areInvalidationListenersAttached() {
+	CachedDeviceManagementApiChannel channel = listenerChannel;
+	return (channel != null) && getDeviceManagementApiDemux().getApiChannels().containsValue(channel);
+    }
+
+    /*
+     * @see com.sitewhere.sources.decoder.composite.CompositeDeviceEventDecoder#
+     * unregisterInvalidationListeners()
+     */
+    @Override
+    protected void unregisterInvalidationListeners() throws SiteWhereException {
+	ITenant tenant = getTenantEngine().getTenant();
+	if (deviceListenerId != null) {
+	    removeCacheListener(deviceCache, tenant, deviceListenerId);
+	}
+	if (deviceTypeListenerId != null) {
+	    removeCacheListener(deviceTypeCache, tenant, deviceTypeListenerId);
+	}
+	this.deviceListenerId = null;
+	this.deviceCache = null;
+	this.deviceTypeListenerId = null;
+	this.deviceTypeCache = null;
+	this.listenerChannel = null;
+    }
+
+    /**
+     * Remove a listener from the cache it was registered with. Failures are
+     * logged since the cache client may already be shut down along with its API
+     * channel.
+     * 
+     * @param provider
+     * @param tenant
+     * @param registrationId
+     */
+    protected void removeCacheListener(ICacheProvider<?, ?> provider, ITenant tenant, String registrationId) {
+	try {
+	    provider.removeCacheListener(tenant, registrationId);
+	} catch (SiteWhereException | RuntimeException e) {
+	    getLogger().warn("Unable to remove composite decoder cache listener.", e);
+	}
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -81,7 +205,11 @@ public class BinaryCompositeDeviceEventDecoder extends CompositeDeviceEventDecod
 	this.decoderChoices = decoderChoices;
     }
 
-    private IDeviceManagement getDeviceManagement(ITenant tenant) {
-	return null;
+    private IDeviceManagement getDeviceManagement() {
+	return getDeviceManagementApiDemux().getApiChannel();
+    }
+
+    private IDeviceManagementApiDemux getDeviceManagementApiDemux() {
+	return ((IEventSourcesMicroservice) getTenantEngine().getMicroservice()).getDeviceManagementApiDemux();
     }
 }
\ No newline at end of file
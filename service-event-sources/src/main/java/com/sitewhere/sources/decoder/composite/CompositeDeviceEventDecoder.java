@@ -9,22 +9,30 @@ package com.sitewhere.sources.decoder.composite;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
 import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent;
 import com.sitewhere.sources.spi.EventDecodeException;
 import com.sitewhere.sources.spi.ICompositeDeviceEventDecoder;
 import com.sitewhere.sources.spi.IDecodedDeviceRequest;
 import com.sitewhere.sources.spi.IDeviceEventDecoder;
 import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.IDevice;
+import com.sitewhere.spi.device.IDeviceType;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
 
 /**
  * Basic logic for a composite decoder. Extracts metadata from initial payload,
- * looks up device management data to build a context, then loops through a list
- * of potential decoders, returning the first one that applies to the context.
+ * looks up device management data to build a context, then uses the first of a
+ * list of potential decoders that applies to the context. Choices are compiled
+ * into a {@link DecoderDispatchTable} on startup and, once invalidation
+ * listeners are registered, resolved routes are cached per device token so that
+ * device management is not queried for every message.
  * 
  * @author Derek
  *
@@ -33,6 +41,36 @@ import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
 public abstract class CompositeDeviceEventDecoder<T> extends TenantEngineLifecycleComponent
 	implements ICompositeDeviceEventDecoder<T> {
 
+    /** Interval between attempts to register cache listeners */
+    private static final long LISTENER_RETRY_INTERVAL_MS = 10 * 1000;
+
+    /** Routes cached by device token */
+    private DecoderRoutingCache<T> routingCache = new DecoderRoutingCache<T>();
+
+    /** Compiled decoder choices */
+    private DecoderDispatchTable<T> dispatchTable;
+
+    /** Indicates if routing cache receives invalidation events */
+    private volatile boolean routingCacheEnabled;
+
+    /** Last time listener registration was attempted */
+    private volatile long lastListenerAttempt;
+
+    /** Decode timers by choice */
+    private Map<IDecoderChoice<T>, Timer> choiceTimers = new IdentityHashMap<>();
+
+    /** Meter for routing cache hits */
+    private Meter routeHits;
+
+    /** Meter for routing cache misses */
+    private Meter routeMisses;
+
+    /** Meter for routes that required evaluating payload-dependent choices */
+    private Meter routeFallbacks;
+
+    /** Meter for messages with no applicable choice */
+    private Meter unmatched;
+
     public CompositeDeviceEventDecoder() {
 	super(LifecycleComponentType.DeviceEventDecoder);
     }
@@ -47,6 +85,52 @@ public abstract class CompositeDeviceEventDecoder<T> extends TenantEngineLifecyc
      */
     public abstract IDeviceContext<T> buildContext(IMessageMetadata<T> metadata) throws SiteWhereException;
 
+    /**
+     * Build an {@link IDeviceContext} from device data that has already been
+     * resolved for the message.
+     * 
+     * @param metadata
+     * @param device
+     * @param deviceType
+     * @return
+     * @throws SiteWhereException
+     */
+    public abstract IDeviceContext<T> buildContext(IMessageMetadata<T> metadata, IDevice device,
+	    IDeviceType deviceType) throws SiteWhereException;
+
+    /**
+     * Register listeners that invalidate the routing cache when device or device
+     * type data changes. Routes are only cached once this returns true.
+     * 
+     * @param cache
+     * @return
+     * @throws SiteWhereException
+     */
+    protected boolean registerInvalidationListeners(DecoderRoutingCache<T> cache) throws SiteWhereException {
+	return false;
+    }
+
+    /**
+     * Indicates whether listeners added by
+     * {@link #registerInvalidationListeners(DecoderRoutingCache)} are still
+     * attached to a live cache. If not, the routing cache is disabled and
+     * listeners are registered again.
+     * 
+     * @return
+     */
+    protected boolean areInvalidationListenersAttached() {
+	return true;
+    }
+
+    /**
+     * Remove any listeners added by
+     * {@link #registerInvalidationListeners(DecoderRoutingCache)}.
+     * 
+     * @throws SiteWhereException
+     */
+    protected void unregisterInvalidationListeners() throws SiteWhereException {
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -59,13 +143,37 @@ public abstract class CompositeDeviceEventDecoder<T> extends TenantEngineLifecyc
 
 	// Parse metadata from payload.
 	IMessageMetadata<T> metadata = getMetadataExtractor().extractMetadata(payload, eventSourceMetadata);
-	getLogger().info("Extracted payload metadata: DeviceToken: " + metadata.getDeviceToken() + " Payload: "
-		+ metadata.getPayload().toString());
+	if (getLogger().isDebugEnabled()) {
+	    getLogger().debug("Extracted payload metadata: DeviceToken: " + metadata.getDeviceToken() + " Payload: "
+		    + metadata.getPayload().toString());
+	}
 
 	try {
-	    IDeviceContext<T> context = buildContext(metadata);
-	    getLogger().debug("Built context: Device: " + context.getDevice().getToken() + " Device type: "
-		    + context.getDeviceType().getToken());
+	    checkInvalidationListeners();
+
+	    IDeviceContext<T> context;
+	    IDecoderChoice<T> choice;
+	    DecoderRoute<T> route = routingCacheEnabled ? getRoutingCache().get(metadata.getDeviceToken()) : null;
+	    if (route != null) {
+		routeHits.mark();
+		context = buildContext(metadata, route.getDevice(), route.getDeviceType());
+		choice = route.getChoice();
+	    } else {
+		routeMisses.mark();
+		context = buildContext(metadata);
+		choice = null;
+		if (getDispatchTable().isStatic(context.getDeviceType().getToken())) {
+		    choice = getDispatchTable().resolve(context);
+		}
+		if (routingCacheEnabled) {
+		    getRoutingCache().put(metadata.getDeviceToken(),
+			    new DecoderRoute<T>(context.getDevice(), context.getDeviceType(), choice));
+		}
+	    }
+	    if (getLogger().isDebugEnabled()) {
+		getLogger().debug("Built context: Device: " + context.getDevice().getToken() + " Device type: "
+			+ context.getDeviceType().getToken());
+	    }
 
 	    // Add context metadata to event source metadata.
 	    Map<String, Object> combined = new HashMap<String, Object>();
@@ -75,13 +183,20 @@ public abstract class CompositeDeviceEventDecoder<T> extends TenantEngineLifecyc
 	    combined.put(IDeviceEventDecoder.META_DEVICE, context.getDevice());
 	    combined.put(IDeviceEventDecoder.META_DEVICE_TYPE, context.getDeviceType());
 
-	    // Loop through choices and use first one that applies.
-	    for (ICompositeDeviceEventDecoder.IDecoderChoice<T> choice : getDecoderChoices()) {
-
-		if (choice.appliesTo(context)) {
+	    // Evaluate choices that depend on more than device type.
+	    if (choice == null) {
+		routeFallbacks.mark();
+		choice = getDispatchTable().resolve(context);
+	    }
+	    if (choice != null) {
+		Timer.Context timer = choiceTimers.get(choice).time();
+		try {
 		    return choice.getDeviceEventDecoder().decode(context.getPayload(), combined);
+		} finally {
+		    timer.stop();
 		}
 	    }
+	    unmatched.mark();
 	} catch (SiteWhereException e) {
 	    throw new EventDecodeException("Exception in composite decoder.", e);
 	} catch (Throwable t) {
@@ -112,6 +227,71 @@ public abstract class CompositeDeviceEventDecoder<T> extends TenantEngineLifecyc
 	for (ICompositeDeviceEventDecoder.IDecoderChoice<T> choice : getDecoderChoices()) {
 	    startNestedComponent(choice, monitor, true);
 	}
+
+	// Compile choices and create metrics.
+	this.dispatchTable = new DecoderDispatchTable<T>(getDecoderChoices());
+	this.choiceTimers.clear();
+	for (int i = 0; i < getDecoderChoices().size(); i++) {
+	    IDecoderChoice<T> choice = getDecoderChoices().get(i);
+	    String decoder = choice.getDeviceEventDecoder().getClass().getSimpleName();
+	    choiceTimers.put(choice, createTimerMetric("compositeDecoder.choice" + i + "." + decoder + ".decodeTime"));
+	}
+	this.routeHits = createMeterMetric("compositeDecoder.routeHits");
+	this.routeMisses = createMeterMetric("compositeDecoder.routeMisses");
+	this.routeFallbacks = createMeterMetric("compositeDecoder.routeFallbacks");
+	this.unmatched = createMeterMetric("compositeDecoder.unmatched");
+
+	getRoutingCache().invalidateAll();
+	this.lastListenerAttempt = 0;
+	checkInvalidationListeners();
+    }
+
+    /**
+     * Attempt to register cache invalidation listeners if not already registered
+     * or if the cache they were registered with has gone away. Attempts are
+     * throttled since the shared caches may not be available until after startup.
+     */
+    protected void checkInvalidationListeners() {
+	if (routingCacheEnabled && areInvalidationListenersAttached()) {
+	    return;
+	}
+	updateInvalidationListeners();
+    }
+
+    /**
+     * Disable the routing cache if its listeners were detached, then make a
+     * throttled attempt to register them.
+     */
+    protected synchronized void updateInvalidationListeners() {
+	if (routingCacheEnabled) {
+	    if (areInvalidationListenersAttached()) {
+		return;
+	    }
+	    routingCacheEnabled = false;
+	    getRoutingCache().invalidateAll();
+	    getLogger().warn("Composite decoder cache listeners detached. Routing cache disabled.");
+	    try {
+		unregisterInvalidationListeners();
+	    } catch (SiteWhereException e) {
+		getLogger().warn("Unable to remove composite decoder cache listeners.", e);
+	    }
+	    lastListenerAttempt = 0;
+	}
+	long now = System.currentTimeMillis();
+	if ((now - lastListenerAttempt) < LISTENER_RETRY_INTERVAL_MS) {
+	    return;
+	}
+	lastListenerAttempt = now;
+	try {
+	    boolean registered = registerInvalidationListeners(getRoutingCache());
+	    if (registered) {
+		getRoutingCache().invalidateAll();
+		routingCacheEnabled = true;
+		getLogger().info("Composite decoder routing cache enabled.");
+	    }
+	} catch (SiteWhereException | RuntimeException e) {
+	    getLogger().warn("Unable to register composite decoder cache listeners. Will retry.", e);
+	}
     }
 
     /*
@@ -129,5 +309,24 @@ public abstract class CompositeDeviceEventDecoder<T> extends TenantEngineLifecyc
 	for (ICompositeDeviceEventDecoder.IDecoderChoice<T> choice : getDecoderChoices()) {
 	    choice.lifecycleStop(monitor);
 	}
+	this.routingCacheEnabled = false;
+	try {
+	    unregisterInvalidationListeners();
+	} catch (SiteWhereException | RuntimeException e) {
+	    getLogger().warn("Unable to remove composite decoder cache listeners.", e);
+	}
+	getRoutingCache().invalidateAll();
+    }
+
+    public DecoderRoutingCache<T> getRoutingCache() {
+	return routingCache;
+    }
+
+    public void setRoutingCache(DecoderRoutingCache<T> routingCache) {
+	this.routingCache = routingCache;
+    }
+
+    public DecoderDispatchTable<T> getDispatchTable() {
+	return dispatchTable;
     }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.decoder.composite;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sitewhere.sources.spi.ICompositeDeviceEventDecoder.IDecoderChoice;
+import com.sitewhere.sources.spi.ICompositeDeviceEventDecoder.IDeviceContext;
+
+/**
+ * Compiled form of a list of decoder choices. Choices that match on device type
+ * are indexed by device type token. Other choices are kept in order and only
+ * evaluated if they appear before the indexed choice for the device type, so
+ * the result is the same as scanning the list and taking the first match.
+ * 
+ * @author Derek
+ * 
+ * @param <T>
+ */
+public class DecoderDispatchTable<T> {
+
+    /** Index of first device type choice by device type token */
+    private Map<String, Integer> byDeviceType = new HashMap<>();
+
+    /** Indexes of choices that can not be resolved by device type */
+    private List<Integer> opaque = new ArrayList<>();
+
+    /** All choices in original order */
+    private List<IDecoderChoice<T>> choices;
+
+    public DecoderDispatchTable(List<IDecoderChoice<T>> choices) {
+	this.choices = new ArrayList<>(choices);
+	for (int i = 0; i < this.choices.size(); i++) {
+	    IDecoderChoice<T> choice = this.choices.get(i);
+	    if (choice instanceof DeviceTypeDecoderChoice) {
+		String token = ((DeviceTypeDecoderChoice<T>) choice).getDeviceTypeToken();
+		if (!byDeviceType.containsKey(token)) {
+		    byDeviceType.put(token, i);
+		}
+	    } else {
+		opaque.add(i);
+	    }
+	}
+    }
+
+    /**
+     * Indicates whether the choice for a device type can be resolved without
+     * evaluating any choices that may depend on the payload.
+     * 
+     * @param deviceTypeToken
+     * @return
+     */
+    public boolean isStatic(String deviceTypeToken) {
+	return opaque.isEmpty() || (opaque.get(0) > getTypedIndex(deviceTypeToken));
+    }
+
+    /**
+     * Resolve the choice for a context. Returns null if no choice applies.
+     * 
+     * @param context
+     * @return
+     */
+    public IDecoderChoice<T> resolve(IDeviceContext<T> context) {
+	int typed = getTypedIndex(context.getDeviceType().getToken());
+	for (Integer index : opaque) {
+	    if (index > typed) {
+		break;
+	    }
+	    IDecoderChoice<T> choice = choices.get(index);
+	    if (choice.appliesTo(context)) {
+		return choice;
+	    }
+	}
+	return (typed < choices.size()) ? choices.get(typed) : null;
+    }
+
+    /**
+     * Get index of the choice for a device type or the list size if none.
+     * 
+     * @param deviceTypeToken
+     * @return
+     */
+    protected int getTypedIndex(String deviceTypeToken) {
+	Integer index = byDeviceType.get(deviceTypeToken);
+	return (index != null) ? index : choices.size();
+    }
+
+    public List<IDecoderChoice<T>> getChoices() {
+	return choices;
+    }
+}
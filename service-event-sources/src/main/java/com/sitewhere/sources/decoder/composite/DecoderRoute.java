@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.decoder.composite;
+
+import com.sitewhere.sources.spi.ICompositeDeviceEventDecoder.IDecoderChoice;
+import com.sitewhere.spi.device.IDevice;
+import com.sitewhere.spi.device.IDeviceType;
+
+/**
+ * Cached result of resolving a device token to its device, device type and
+ * decoder choice.
+ * 
+ * @author Derek
+ * 
+ * @param <T>
+ */
+public class DecoderRoute<T> {
+
+    /** Device for token */
+    private IDevice device;
+
+    /** Device type for device */
+    private IDeviceType deviceType;
+
+    /** Choice resolved by device type (null if it depends on payload) */
+    private IDecoderChoice<T> choice;
+
+    /** Time route was created */
+    private long created = System.currentTimeMillis();
+
+    public DecoderRoute(IDevice device, IDeviceType deviceType, IDecoderChoice<T> choice) {
+	this.device = device;
+	this.deviceType = deviceType;
+	this.choice = choice;
+    }
+
+    public IDevice getDevice() {
+	return device;
+    }
+
+    public IDeviceType getDeviceType() {
+	return deviceType;
+    }
+
+    public IDecoderChoice<T> getChoice() {
+	return choice;
+    }
+
+    public long getCreated() {
+	return created;
+    }
+}
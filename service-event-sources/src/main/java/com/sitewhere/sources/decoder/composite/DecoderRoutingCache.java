@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.decoder.composite;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sitewhere.grpc.client.spi.cache.ICacheListener;
+
+/**
+ * Per-decoder cache of routes keyed by device token. Entries expire after a
+ * fixed time and are invalidated when the shared device cache reports a change
+ * for the token. The cache is cleared when it reaches its maximum size rather
+ * than tracking usage, since routes are cheap to rebuild.
+ * 
+ * @author Derek
+ * 
+ * @param <T>
+ */
+public class DecoderRoutingCache<T> implements ICacheListener<String> {
+
+    /** Default maximum number of routes */
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    /** Default time to live in milliseconds (matches device near cache) */
+    public static final long DEFAULT_TTL_MS = 60 * 1000;
+
+    /** Routes indexed by device token */
+    private Map<String, DecoderRoute<T>> routes = new ConcurrentHashMap<>();
+
+    /** Maximum number of routes */
+    private int maxSize;
+
+    /** Time to live in milliseconds */
+    private long ttlMs;
+
+    public DecoderRoutingCache() {
+	this(DEFAULT_MAX_SIZE, DEFAULT_TTL_MS);
+    }
+
+    public DecoderRoutingCache(int maxSize, long ttlMs) {
+	this.maxSize = maxSize;
+	this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Get route for a device token or null if not cached or expired.
+     * 
+     * @param token
+     * @return
+     */
+    public DecoderRoute<T> get(String token) {
+	DecoderRoute<T> route = routes.get(token);
+	if (route == null) {
+	    return null;
+	}
+	if ((System.currentTimeMillis() - route.getCreated()) > ttlMs) {
+	    routes.remove(token, route);
+	    return null;
+	}
+	return route;
+    }
+
+    /**
+     * Cache a route for a device token.
+     * 
+     * @param token
+     * @param route
+     */
+    public void put(String token, DecoderRoute<T> route) {
+	if (routes.size() >= maxSize) {
+	    routes.clear();
+	}
+	routes.put(token, route);
+    }
+
+    /**
+     * Remove route for a device token.
+     * 
+     * @param token
+     */
+    public void invalidate(String token) {
+	routes.remove(token);
+    }
+
+    /**
+     * Remove all routes.
+     */
+    public void invalidateAll() {
+	routes.clear();
+    }
+
+    /**
+     * Get number of cached routes.
+     * 
+     * @return
+     */
+    public int size() {
+	return routes.size();
+    }
+
+    /*
+     * @see
+     * com.sitewhere.grpc.client.spi.cache.ICacheListener#entryChanged(java.lang.
+     * Object)
+     */
+    @Override
+    public void entryChanged(String key) {
+	invalidate(key);
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.cache.ICacheListener#cacheCleared()
+     */
+    @Override
+    public void cacheCleared() {
+	invalidateAll();
+    }
+}
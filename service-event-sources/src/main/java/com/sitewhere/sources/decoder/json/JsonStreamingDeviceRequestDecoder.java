@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.decoder.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.sitewhere.rest.model.device.communication.DeviceRequest.Type;
+import com.sitewhere.rest.model.device.event.request.DeviceAlertCreateRequest;
+import com.sitewhere.rest.model.device.event.request.DeviceCommandResponseCreateRequest;
+import com.sitewhere.rest.model.device.event.request.DeviceLocationCreateRequest;
+import com.sitewhere.rest.model.device.event.request.DeviceMeasurementCreateRequest;
+import com.sitewhere.rest.model.device.event.request.DeviceRegistrationRequest;
+import com.sitewhere.rest.model.device.request.DeviceStreamCreateRequest;
+import com.sitewhere.rest.model.device.streaming.request.DeviceStreamDataCreateRequest;
+import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent;
+import com.sitewhere.sources.DecodedDeviceRequest;
+import com.sitewhere.sources.spi.EventDecodeException;
+import com.sitewhere.sources.spi.IDecodedDeviceRequest;
+import com.sitewhere.sources.spi.IDeviceEventDecoder;
+import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
+
+/**
+ * Decodes binary device messages in the same JSON format as
+ * {@link JsonDeviceRequestDecoder} using a single pass over the Jackson token
+ * stream. The envelope fields are read directly from the parser and the
+ * request body is bound straight into the create request class for its type,
+ * so no intermediate {@link com.fasterxml.jackson.databind.JsonNode} tree is
+ * built. If the request body appears before the type, its tokens are buffered
+ * and replayed once the type is known.
+ * 
+ * The payload may contain a single request object or an array of request
+ * objects, allowing a batch of requests to be sent in one message.
+ * 
+ * @author Derek
+ */
+public class JsonStreamingDeviceRequestDecoder extends TenantEngineLifecycleComponent
+	implements IDeviceEventDecoder<byte[]> {
+
+    /** Field containing request type */
+    private static final String FIELD_TYPE = "type";
+
+    /** Field containing device token */
+    private static final String FIELD_DEVICE_TOKEN = "deviceToken";
+
+    /** Field containing originator */
+    private static final String FIELD_ORIGINATOR = "originator";
+
+    /** Field containing request body */
+    private static final String FIELD_REQUEST = "request";
+
+    /** Used to bind request bodies */
+    private static ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Factory for creating parsers */
+    private static JsonFactory FACTORY = MAPPER.getFactory();
+
+    /** Readers for request body by type */
+    private static Map<Type, ObjectReader> READERS = createReaders();
+
+    public JsonStreamingDeviceRequestDecoder() {
+	super(LifecycleComponentType.DeviceEventDecoder);
+    }
+
+    /*
+     * @see com.sitewhere.sources.spi.IDeviceEventDecoder#decode(java.lang.Object,
+     * java.util.Map)
+     */
+    @Override
+    public List<IDecodedDeviceRequest<?>> decode(byte[] payload, Map<String, Object> metadata)
+	    throws EventDecodeException {
+	try (JsonParser parser = FACTORY.createParser(payload)) {
+	    List<IDecodedDeviceRequest<?>> events = new ArrayList<IDecodedDeviceRequest<?>>();
+	    JsonToken token = parser.nextToken();
+	    if (token == JsonToken.START_OBJECT) {
+		events.add(readRequest(parser));
+	    } else if (token == JsonToken.START_ARRAY) {
+		while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+		    events.add(readRequest(parser));
+		}
+		if (token != JsonToken.END_ARRAY) {
+		    throw new EventDecodeException("Expected request object in array but found " + token + ".");
+		}
+	    } else {
+		throw new EventDecodeException("Expected request object or array but found " + token + ".");
+	    }
+	    return events;
+	} catch (IOException e) {
+	    throw new EventDecodeException(e);
+	}
+    }
+
+    /**
+     * Read a single request. Parser must be positioned on the start of the
+     * request object and is left on the end of the object.
+     * 
+     * @param parser
+     * @return
+     * @throws IOException
+     * @throws EventDecodeException
+     */
+    public static DecodedDeviceRequest<?> readRequest(JsonParser parser) throws IOException, EventDecodeException {
+	Type type = null;
+	String deviceToken = null;
+	String originator = null;
+	Object request = null;
+	TokenBuffer buffered = null;
+
+	while (parser.nextToken() == JsonToken.FIELD_NAME) {
+	    String field = parser.getCurrentName();
+	    JsonToken value = parser.nextToken();
+	    switch (field) {
+	    case FIELD_TYPE: {
+		type = parseType(parser.getValueAsString());
+		if (buffered != null) {
+		    request = bindRequest(type, buffered.asParser(parser.getCodec()));
+		    buffered = null;
+		}
+		break;
+	    }
+	    case FIELD_DEVICE_TOKEN: {
+		deviceToken = parser.getValueAsString();
+		break;
+	    }
+	    case FIELD_ORIGINATOR: {
+		originator = parser.getValueAsString();
+		break;
+	    }
+	    case FIELD_REQUEST: {
+		if (value == JsonToken.VALUE_NULL) {
+		    break;
+		}
+		if (type != null) {
+		    request = bindRequest(type, parser);
+		} else {
+		    buffered = new TokenBuffer(parser);
+		    buffered.copyCurrentStructure(parser);
+		}
+		break;
+	    }
+	    default: {
+		parser.skipChildren();
+	    }
+	    }
+	}
+
+	if (type == null) {
+	    throw new EventDecodeException("Event type is required.");
+	}
+	if (request == null) {
+	    throw new EventDecodeException("Request is missing.");
+	}
+	if (deviceToken == null) {
+	    throw new EventDecodeException("Device token is missing.");
+	}
+	return new DecodedDeviceRequest<Object>(deviceToken, originator, request);
+    }
+
+    /**
+     * Parse request type.
+     * 
+     * @param value
+     * @return
+     * @throws EventDecodeException
+     */
+    protected static Type parseType(String value) throws EventDecodeException {
+	if (value == null) {
+	    throw new EventDecodeException("Event type is required.");
+	}
+	try {
+	    return Type.valueOf(value);
+	} catch (IllegalArgumentException e) {
+	    throw new EventDecodeException("Event type is not valid.");
+	}
+    }
+
+    /**
+     * Bind request body for the given type starting at the current token.
+     * 
+     * @param type
+     * @param parser
+     * @return
+     * @throws IOException
+     * @throws EventDecodeException
+     */
+    protected static Object bindRequest(Type type, JsonParser parser) throws IOException, EventDecodeException {
+	ObjectReader reader = READERS.get(type);
+	if (reader == null) {
+	    throw new EventDecodeException("Unhandled event type: " + type.name());
+	}
+	return reader.readValue(parser);
+    }
+
+    /**
+     * Create readers for each request type. Readers are immutable and reuse the
+     * deserializers resolved on first use.
+     * 
+     * @return
+     */
+    protected static Map<Type, ObjectReader> createReaders() {
+	Map<Type, ObjectReader> readers = new EnumMap<Type, ObjectReader>(Type.class);
+	readers.put(Type.RegisterDevice, MAPPER.readerFor(DeviceRegistrationRequest.class));
+	readers.put(Type.DeviceLocation, MAPPER.readerFor(DeviceLocationCreateRequest.class));
+	readers.put(Type.DeviceMeasurement, MAPPER.readerFor(DeviceMeasurementCreateRequest.class));
+	readers.put(Type.DeviceAlert, MAPPER.readerFor(DeviceAlertCreateRequest.class));
+	readers.put(Type.DeviceStream, MAPPER.readerFor(DeviceStreamCreateRequest.class));
+	readers.put(Type.DeviceStreamData, MAPPER.readerFor(DeviceStreamDataCreateRequest.class));
+	readers.put(Type.Acknowledge, MAPPER.readerFor(DeviceCommandResponseCreateRequest.class));
+	return readers;
+    }
+}
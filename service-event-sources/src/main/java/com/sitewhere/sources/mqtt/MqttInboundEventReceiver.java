@@ -9,10 +9,18 @@ package com.sitewhere.sources.mqtt;
 
 import java.io.EOFException;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.fusesource.hawtdispatch.ShutdownException;
 import org.fusesource.mqtt.client.Future;
@@ -24,8 +32,10 @@ import org.fusesource.mqtt.client.Topic;
 import com.codahale.metrics.Meter;
 import com.sitewhere.communication.mqtt.MqttLifecycleComponent;
 import com.sitewhere.sources.messages.EventSourcesMessages;
+import com.sitewhere.sources.spi.IEventSourcesManager;
 import com.sitewhere.sources.spi.IInboundEventReceiver;
 import com.sitewhere.sources.spi.IInboundEventSource;
+import com.sitewhere.sources.spi.microservice.IEventSourcesTenantEngine;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
@@ -34,6 +44,19 @@ import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
  * Implementation of {@link IInboundEventReceiver} that subscribes to an MQTT
  * topic and pulls the message contents into SiteWhere for processing.
  * 
+ * At most <code>queueCapacity</code> messages are received but not yet
+ * processed. When that limit is reached, no more messages are pulled from the
+ * connection until processing catches up. For QoS 1 and 2, each message is
+ * acknowledged in the order it was received, once the Kafka producers have
+ * confirmed that the resulting messages were sent. Messages count against
+ * <code>queueCapacity</code> until they are acknowledged. If a send can not be
+ * confirmed, a persistent session (clean session disabled and client id set) is
+ * reconnected so that the broker redelivers everything not yet acknowledged.
+ * Otherwise the payload is routed to the failed decode topic and acknowledged
+ * once that send is confirmed. If a shared subscription group is
+ * configured, the receiver subscribes to <code>$share/group/topic</code> so
+ * that multiple event source instances split the load for a topic.
+ * 
  * @author Derek
  */
 public class MqttInboundEventReceiver extends MqttLifecycleComponent implements IInboundEventReceiver<byte[]> {
@@ -47,6 +70,22 @@ public class MqttInboundEventReceiver extends MqttLifecycleComponent implements
     /** MQTT Topic Quality of Service */
     public static final QoS DEFAULT_QoS = QoS.AT_LEAST_ONCE;
 
+    /** Default maximum number of messages received but not yet processed */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    /**
+     * Default number of processed messages that triggers an acknowledgement pass.
+     * Kept well below typical broker in-flight limits so that the broker does not
+     * stop delivering while waiting for acknowledgements
+     */
+    public static final int DEFAULT_ACK_BATCH_SIZE = 10;
+
+    /** Default maximum time a processed message waits for acknowledgement */
+    public static final long DEFAULT_ACK_INTERVAL_MS = 1000;
+
+    /** Delay between attempts to reconnect to the broker */
+    private static final long RECONNECT_DELAY_MS = 5000;
+
     /** Parent event source */
     private IInboundEventSource<byte[]> eventSource;
 
@@ -56,8 +95,26 @@ public class MqttInboundEventReceiver extends MqttLifecycleComponent implements
     /** Number of threads used for processing */
     private int numThreads = DEFAULT_NUM_THREADS;
 
+    /** Maximum number of messages received but not yet processed */
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    /** Number of processed messages that triggers an acknowledgement pass */
+    private int ackBatchSize = DEFAULT_ACK_BATCH_SIZE;
+
+    /** Maximum time a processed message waits for acknowledgement */
+    private long ackIntervalMs = DEFAULT_ACK_INTERVAL_MS;
+
+    /** Shared subscription group (not shared if null) */
+    private String sharedSubscriptionGroup;
+
     /** Shared MQTT connection */
-    private FutureConnection connection;
+    private volatile FutureConnection connection;
+
+    /** Topics subscribed on each connection */
+    private Topic[] topics;
+
+    /** Indicates a reconnect was requested so that unconfirmed messages are redelivered */
+    private AtomicBoolean reconnectRequested = new AtomicBoolean();
 
     /** Used to execute MQTT subscribe in separate thread */
     private ExecutorService subscriptionExecutor;
@@ -65,6 +122,27 @@ public class MqttInboundEventReceiver extends MqttLifecycleComponent implements
     /** Used to process MQTT events in a thread pool */
     private ExecutorService processorsExecutor;
 
+    /** Used to acknowledge partial batches periodically */
+    private ScheduledExecutorService acknowledgeExecutor;
+
+    /** Holds reference to periodic acknowledgement task */
+    private ScheduledFuture<?> acknowledgeFuture;
+
+    /** Limits number of messages received but not yet processed (or acknowledged) */
+    private Semaphore available;
+
+    /** Indicates whether messages are acknowledged after producers confirm sends */
+    private boolean deferAcknowledge;
+
+    /** Received messages waiting to be acknowledged in order of receipt */
+    private Queue<PendingAck> pendingAcks = new ConcurrentLinkedQueue<PendingAck>();
+
+    /** Number of messages processed since the last acknowledgement pass */
+    private AtomicInteger processedCount = new AtomicInteger();
+
+    /** Allows a single thread to acknowledge at a time */
+    private ReentrantLock acknowledgeLock = new ReentrantLock();
+
     /** Meter for counting received events */
     private Meter receivedEvents;
 
@@ -85,6 +163,7 @@ public class MqttInboundEventReceiver extends MqttLifecycleComponent implements
 
 	this.subscriptionExecutor = Executors.newSingleThreadExecutor(new SubscribersThreadFactory());
 	this.processorsExecutor = Executors.newFixedThreadPool(getNumThreads(), new ProcessorsThreadFactory());
+	this.available = new Semaphore(getQueueCapacity());
 
 	// Set up metrics.
 	this.receivedEvents = createMeterMetric(getMetricPrefix() + "receivedEvents");
@@ -96,19 +175,212 @@ public class MqttInboundEventReceiver extends MqttLifecycleComponent implements
 	getLogger().info("Suscribing using QoS: " + getQos());
 	QoS qos = qosFromConfig(getQos());
 
+	// Acknowledge after producers confirm sends unless QoS does not require it.
+	this.deferAcknowledge = (qos != QoS.AT_MOST_ONCE);
+	if (deferAcknowledge) {
+	    if (!isPersistentSession()) {
+		getLogger().warn("MQTT session is not persistent. Messages whose Kafka sends can not be confirmed "
+			+ "will be routed to the failed decode topic rather than redelivered.");
+	    }
+	    this.acknowledgeExecutor = Executors.newSingleThreadScheduledExecutor();
+	    this.acknowledgeFuture = acknowledgeExecutor.scheduleWithFixedDelay(() -> acknowledgePending(),
+		    getAckIntervalMs(), getAckIntervalMs(), TimeUnit.MILLISECONDS);
+	}
+
 	// Subscribe to chosen topic.
-	Topic[] topics = { new Topic(getTopic(), qos) };
+	this.topics = new Topic[] { new Topic(getSubscriptionTopic(), qos) };
+	subscribe(connection);
+
+	// Handle message processing in separate thread.
+	subscriptionExecutor.execute(new MqttSubscriptionProcessor());
+    }
+
+    /**
+     * Subscribe to the configured topic on the given connection.
+     * 
+     * @param target
+     * @throws SiteWhereException
+     */
+    protected void subscribe(FutureConnection target) throws SiteWhereException {
 	try {
-	    Future<byte[]> future = connection.subscribe(topics);
+	    Future<byte[]> future = target.subscribe(topics);
 	    future.await();
 
-	    getLogger().info(EventSourcesMessages.SUBSCRIBED_TO_EVENTS_MQTT, getTopic(), getNumThreads());
+	    getLogger().info(EventSourcesMessages.SUBSCRIBED_TO_EVENTS_MQTT, getSubscriptionTopic(), getNumThreads());
 	} catch (Exception e) {
-	    throw new SiteWhereException("Exception while attempting to subscribe to MQTT topic: " + getTopic(), e);
+	    throw new SiteWhereException(
+		    "Exception while attempting to subscribe to MQTT topic: " + getSubscriptionTopic(), e);
 	}
+    }
 
-	// Handle message processing in separate thread.
-	subscriptionExecutor.execute(new MqttSubscriptionProcessor());
+    /**
+     * Indicates whether the broker keeps unacknowledged messages across
+     * reconnects.
+     * 
+     * @return
+     */
+    protected boolean isPersistentSession() {
+	return !isCleanSession() && (getClientId() != null);
+    }
+
+    /**
+     * Get number of processed messages that triggers an acknowledgement pass.
+     * Limited to half the queue capacity since messages hold their slot until
+     * they are acknowledged.
+     * 
+     * @return
+     */
+    protected int getEffectiveAckBatchSize() {
+	return Math.max(1, Math.min(getAckBatchSize(), getQueueCapacity() / 2));
+    }
+
+    /**
+     * Get topic used for subscription. If a shared subscription group is set, the
+     * topic is prefixed so that the broker distributes messages across all
+     * subscribers in the group.
+     * 
+     * @return
+     */
+    protected String getSubscriptionTopic() {
+	if ((getSharedSubscriptionGroup() != null) && (getSharedSubscriptionGroup().trim().length() > 0)) {
+	    return "$share/" + getSharedSubscriptionGroup().trim() + "/" + getTopic();
+	}
+	return getTopic();
+    }
+
+    /**
+     * Mark a message as processed. Messages are acknowledged immediately for QoS
+     * 0 or left in the pending queue until producers have confirmed sends.
+     * 
+     * @param pending
+     */
+    protected void onMessageProcessed(PendingAck pending) {
+	if (!deferAcknowledge) {
+	    pending.getMessage().ack();
+	    return;
+	}
+	pending.setProcessed(true);
+	if (processedCount.incrementAndGet() >= getEffectiveAckBatchSize()) {
+	    acknowledgePending();
+	}
+    }
+
+    /**
+     * Wait for producers to confirm sends, then acknowledge processed messages in
+     * the order they were received. Stops at the first message that is still
+     * being processed or whose sends could not be confirmed.
+     */
+    protected void acknowledgePending() {
+	if (!acknowledgeLock.tryLock()) {
+	    return;
+	}
+	try {
+	    processedCount.set(0);
+
+	    // Only messages processed before the flush are covered by it.
+	    int ready = 0;
+	    for (PendingAck pending : pendingAcks) {
+		if (!pending.isProcessed()) {
+		    break;
+		}
+		ready++;
+	    }
+	    if (ready == 0) {
+		return;
+	    }
+	    long failures = getEventSourcesManager().flushProducers();
+	    for (int i = 0; i < ready; i++) {
+		PendingAck pending = pendingAcks.peek();
+
+		// Received on a replaced connection. The broker redelivers it.
+		if (pending.getConnection() != connection) {
+		    removePending();
+		    continue;
+		}
+		if (pending.isFailed() || (failures > pending.getFailuresBefore())) {
+		    handleUnconfirmed(pending);
+		    return;
+		}
+		pending.getMessage().ack();
+		removePending();
+	    }
+	} catch (Throwable t) {
+	    getLogger().error("Unable to acknowledge MQTT messages.", t);
+	} finally {
+	    acknowledgeLock.unlock();
+	}
+    }
+
+    /**
+     * Handle a message whose Kafka sends could not be confirmed. Neither it nor
+     * any message received after it is acknowledged until it has been handled.
+     * 
+     * @param pending
+     * @throws SiteWhereException
+     */
+    protected void handleUnconfirmed(PendingAck pending) throws SiteWhereException {
+	if (isPersistentSession()) {
+	    getLogger().warn("Kafka send was not confirmed. Reconnecting so that the broker redelivers "
+		    + pendingAcks.size() + " unacknowledged MQTT messages.");
+	    requestReconnect(pending.getConnection());
+	    return;
+	}
+	getLogger().warn("Kafka send was not confirmed. Routing MQTT message to failed decode topic.");
+	pending.setFailed(false);
+	pending.setFailuresBefore(getEventSourcesManager().getFailedSendCount());
+	getEventSourcesManager().handleFailedDecode(getEventSource().getSourceId(), pending.getMessage().getPayload(),
+		null, new SiteWhereException("Kafka send was not confirmed."));
+    }
+
+    /**
+     * Remove the message at the head of the pending queue and free its slot.
+     */
+    protected void removePending() {
+	if (pendingAcks.poll() != null) {
+	    available.release();
+	}
+    }
+
+    /**
+     * Kill the given connection so that the subscription processor reconnects.
+     * 
+     * @param failed
+     */
+    protected void requestReconnect(FutureConnection failed) {
+	if ((failed == connection) && reconnectRequested.compareAndSet(false, true)) {
+	    failed.kill();
+	}
+    }
+
+    /**
+     * Replace the current connection and subscribe again. Retries until
+     * successful or interrupted.
+     * 
+     * @return false if interrupted
+     */
+    protected boolean reconnect() {
+	while (true) {
+	    try {
+		getLogger().info("Receiver reconnecting to MQTT broker at '" + getBrokerInfo() + "'...");
+		FutureConnection replacement = getConnection();
+		subscribe(replacement);
+		this.connection = replacement;
+		reconnectRequested.set(false);
+		getLogger().info("Receiver reconnected to MQTT broker.");
+		return true;
+	    } catch (SiteWhereException e) {
+		getLogger().error("Unable to reconnect to MQTT broker.", e);
+	    }
+	    try {
+		Thread.sleep(RECONNECT_DELAY_MS);
+	    } catch (InterruptedException e) {
+		return false;
+	    }
+	}
+    }
+
+    protected IEventSourcesManager getEventSourcesManager() {
+	return ((IEventSourcesTenantEngine) getTenantEngine()).getEventSourcesManager();
     }
 
     /**
@@ -169,18 +441,45 @@ public class MqttInboundEventReceiver extends MqttLifecycleComponent implements
 	public void run() {
 	    getLogger().info("Started MQTT subscription processing thread.");
 	    while (true) {
+		// Stop pulling messages while processing queue is full.
 		try {
-		    Future<Message> future = connection.receive();
-		    Message message = future.await();
-		    processorsExecutor.execute(new MqttPayloadProcessor(message));
-		} catch (EOFException e) {
-		    getLogger().error("Connection terminated by remote. Subscription processor terminating.", e);
+		    available.acquire();
+		} catch (InterruptedException e) {
+		    getLogger().info("Subcription processor shutdown requested.");
 		    return;
+		}
+		PendingAck pending = null;
+		try {
+		    FutureConnection current = connection;
+		    Future<Message> future = current.receive();
+		    Message message = future.await();
+		    pending = new PendingAck(message, current);
+		    if (deferAcknowledge) {
+			pendingAcks.add(pending);
+		    }
+		    processorsExecutor.execute(new MqttPayloadProcessor(pending));
 		} catch (InterruptedException e) {
+		    available.release();
 		    getLogger().info("Subcription processor shutdown requested.");
 		    return;
 		} catch (Throwable e) {
-		    getLogger().error("Error in MQTT subscription processing.", e);
+		    if ((pending != null) && deferAcknowledge) {
+			pending.setFailed(true);
+			pending.setProcessed(true);
+		    } else {
+			available.release();
+		    }
+		    if (reconnectRequested.get()) {
+			if (!reconnect()) {
+			    getLogger().info("Subcription processor shutdown requested.");
+			    return;
+			}
+		    } else if (e instanceof EOFException) {
+			getLogger().error("Connection terminated by remote. Subscription processor terminating.", e);
+			return;
+		    } else {
+			getLogger().error("Error in MQTT subscription processing.", e);
+		    }
 		}
 	    }
 	}
@@ -193,22 +492,33 @@ public class MqttInboundEventReceiver extends MqttLifecycleComponent implements
      */
     private class MqttPayloadProcessor implements Runnable {
 
-	/** MQTT message */
-	private Message message;
+	/** Received message */
+	private PendingAck pending;
 
-	public MqttPayloadProcessor(Message message) {
-	    this.message = message;
+	public MqttPayloadProcessor(PendingAck pending) {
+	    this.pending = pending;
 	}
 
 	@Override
 	public void run() {
 	    try {
 		getReceivedEvents().mark();
-		byte[] payload = message.getPayload();
+		if (deferAcknowledge) {
+		    pending.setFailuresBefore(getEventSourcesManager().getFailedSendCount());
+		}
+		byte[] payload = pending.getMessage().getPayload();
 		getEventSource().onEncodedEventReceived(MqttInboundEventReceiver.this, payload, null);
-		message.ack();
+		onMessageProcessed(pending);
 	    } catch (Throwable e) {
 		getLogger().error("Error in MQTT processing.", e);
+		if (deferAcknowledge) {
+		    pending.setFailed(true);
+		    pending.setProcessed(true);
+		}
+	    } finally {
+		if (!deferAcknowledge) {
+		    available.release();
+		}
 	    }
 	}
     }
@@ -221,11 +531,28 @@ public class MqttInboundEventReceiver extends MqttLifecycleComponent implements
      */
     @Override
     public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	if (subscriptionExecutor != null) {
+	    subscriptionExecutor.shutdownNow();
+	}
 	if (processorsExecutor != null) {
+	    processorsExecutor.shutdown();
+	    try {
+		processorsExecutor.awaitTermination(5, TimeUnit.SECONDS);
+	    } catch (InterruptedException e) {
+		getLogger().warn("Interrupted while waiting for MQTT processors to finish.");
+	    }
 	    processorsExecutor.shutdownNow();
 	}
-	if (subscriptionExecutor != null) {
-	    subscriptionExecutor.shutdownNow();
+	if (acknowledgeFuture != null) {
+	    acknowledgeFuture.cancel(false);
+	}
+	if (acknowledgeExecutor != null) {
+	    acknowledgeExecutor.shutdownNow();
+	}
+
+	// Acknowledge anything already processed before disconnecting.
+	if (deferAcknowledge) {
+	    acknowledgePending();
 	}
 	if (connection != null) {
 	    try {
@@ -276,6 +603,38 @@ public class MqttInboundEventReceiver extends MqttLifecycleComponent implements
 	this.numThreads = numThreads;
     }
 
+    public int getQueueCapacity() {
+	return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+	this.queueCapacity = queueCapacity;
+    }
+
+    public int getAckBatchSize() {
+	return ackBatchSize;
+    }
+
+    public void setAckBatchSize(int ackBatchSize) {
+	this.ackBatchSize = ackBatchSize;
+    }
+
+    public long getAckIntervalMs() {
+	return ackIntervalMs;
+    }
+
+    public void setAckIntervalMs(long ackIntervalMs) {
+	this.ackIntervalMs = ackIntervalMs;
+    }
+
+    public String getSharedSubscriptionGroup() {
+	return sharedSubscriptionGroup;
+    }
+
+    public void setSharedSubscriptionGroup(String sharedSubscriptionGroup) {
+	this.sharedSubscriptionGroup = sharedSubscriptionGroup;
+    }
+
     protected Meter getReceivedEvents() {
 	return receivedEvents;
     }
@@ -284,6 +643,66 @@ public class MqttInboundEventReceiver extends MqttLifecycleComponent implements
 	this.receivedEvents = receivedEvents;
     }
 
+    /**
+     * Received message waiting to be acknowledged.
+     * 
+     * @author Derek
+     */
+    private static class PendingAck {
+
+	/** MQTT message */
+	private Message message;
+
+	/** Connection message was received on */
+	private FutureConnection connection;
+
+	/** Producer failure count before message was processed */
+	private volatile long failuresBefore;
+
+	/** Indicates processing has completed */
+	private volatile boolean processed;
+
+	/** Indicates processing failed */
+	private volatile boolean failed;
+
+	public PendingAck(Message message, FutureConnection connection) {
+	    this.message = message;
+	    this.connection = connection;
+	}
+
+	public Message getMessage() {
+	    return message;
+	}
+
+	public FutureConnection getConnection() {
+	    return connection;
+	}
+
+	public long getFailuresBefore() {
+	    return failuresBefore;
+	}
+
+	public void setFailuresBefore(long failuresBefore) {
+	    this.failuresBefore = failuresBefore;
+	}
+
+	public boolean isProcessed() {
+	    return processed;
+	}
+
+	public void setProcessed(boolean processed) {
+	    this.processed = processed;
+	}
+
+	public boolean isFailed() {
+	    return failed;
+	}
+
+	public void setFailed(boolean failed) {
+	    this.failed = failed;
+	}
+    }
+
     /** Used for naming consumer threads */
     private class SubscribersThreadFactory implements ThreadFactory {
 
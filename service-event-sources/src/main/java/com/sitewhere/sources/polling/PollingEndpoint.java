@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.polling;
+
+import com.sitewhere.sources.spi.polling.IPollingEndpoint;
+import com.sitewhere.sources.spi.polling.PollResult;
+
+/**
+ * Default implementation of {@link IPollingEndpoint}. The polling interval
+ * starts at the minimum value, is multiplied by the backoff factor each time a
+ * poll finds no new data (up to the maximum value) and is reset to the minimum
+ * when new data arrives. Validators from a fetch and cursor updates are held as
+ * pending until the poll that made them completes, so records from a poll that
+ * fails are fetched again.
+ * 
+ * @author Derek
+ */
+public class PollingEndpoint implements IPollingEndpoint {
+
+    /** Resource path */
+    private String path;
+
+    /** Cursor for last processed record */
+    private volatile String cursor;
+
+    /** URL validators apply to */
+    private volatile String validatedUrl;
+
+    /** Entity tag from last processed fetch */
+    private volatile String entityTag;
+
+    /** Last modified value from last processed fetch */
+    private volatile String lastModified;
+
+    /** URL for validators of current poll */
+    private volatile String pendingUrl;
+
+    /** Entity tag from fetch in current poll */
+    private volatile String pendingEntityTag;
+
+    /** Last modified value from fetch in current poll */
+    private volatile String pendingLastModified;
+
+    /** Cursor set in current poll */
+    private volatile String pendingCursor;
+
+    /** Indicates cursor was set in current poll */
+    private volatile boolean cursorPending;
+
+    /** Minimum polling interval */
+    private long minIntervalMs;
+
+    /** Maximum polling interval */
+    private long maxIntervalMs;
+
+    /** Multiplier applied when nothing changed */
+    private double backoffMultiplier;
+
+    /** Current polling interval */
+    private volatile long pollIntervalMs;
+
+    public PollingEndpoint(String path, long minIntervalMs, long maxIntervalMs, double backoffMultiplier) {
+	this.path = path;
+	this.minIntervalMs = minIntervalMs;
+	this.maxIntervalMs = Math.max(minIntervalMs, maxIntervalMs);
+	this.backoffMultiplier = Math.max(1.0, backoffMultiplier);
+	this.pollIntervalMs = minIntervalMs;
+    }
+
+    /**
+     * Update polling interval based on the result of a poll.
+     * 
+     * @param result
+     * @return interval until next poll
+     */
+    public long onPollCompleted(PollResult result) {
+	if (result == PollResult.Changed) {
+	    pollIntervalMs = minIntervalMs;
+	} else {
+	    pollIntervalMs = Math.min(maxIntervalMs, (long) Math.ceil(pollIntervalMs * backoffMultiplier));
+	}
+	return pollIntervalMs;
+    }
+
+    /**
+     * Keep validators and cursor recorded during a poll whose results were
+     * processed.
+     */
+    public void commitValidators() {
+	if (pendingUrl != null) {
+	    this.entityTag = pendingEntityTag;
+	    this.lastModified = pendingLastModified;
+	    this.validatedUrl = pendingUrl;
+	}
+	if (cursorPending) {
+	    this.cursor = pendingCursor;
+	}
+	discardValidators();
+    }
+
+    /**
+     * Drop validators and cursor recorded during a poll that failed.
+     */
+    public void discardValidators() {
+	this.pendingUrl = null;
+	this.pendingEntityTag = null;
+	this.pendingLastModified = null;
+	this.cursorPending = false;
+	this.pendingCursor = null;
+    }
+
+    /*
+     * @see com.sitewhere.sources.spi.polling.IPollingEndpoint#getPath()
+     */
+    @Override
+    public String getPath() {
+	return path;
+    }
+
+    /*
+     * @see com.sitewhere.sources.spi.polling.IPollingEndpoint#getCursor()
+     */
+    @Override
+    public String getCursor() {
+	return cursor;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.sources.spi.polling.IPollingEndpoint#setCursor(java.lang.
+     * String)
+     */
+    @Override
+    public void setCursor(String cursor) {
+	this.pendingCursor = cursor;
+	this.cursorPending = true;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.sources.spi.polling.IPollingEndpoint#getEntityTag(java.lang.
+     * String)
+     */
+    @Override
+    public String getEntityTag(String url) {
+	return url.equals(validatedUrl) ? entityTag : null;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.sources.spi.polling.IPollingEndpoint#getLastModified(java.
+     * lang.String)
+     */
+    @Override
+    public String getLastModified(String url) {
+	return url.equals(validatedUrl) ? lastModified : null;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.sources.spi.polling.IPollingEndpoint#setValidators(java.lang
+     * .String, java.lang.String, java.lang.String)
+     */
+    @Override
+    public void setValidators(String url, String entityTag, String lastModified) {
+	this.pendingEntityTag = entityTag;
+	this.pendingLastModified = lastModified;
+	this.pendingUrl = url;
+    }
+
+    /*
+     * @see com.sitewhere.sources.spi.polling.IPollingEndpoint#getPollIntervalMs()
+     */
+    @Override
+    public long getPollIntervalMs() {
+	return pollIntervalMs;
+    }
+}
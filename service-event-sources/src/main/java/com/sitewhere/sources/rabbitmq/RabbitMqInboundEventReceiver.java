@@ -8,6 +8,8 @@
 package com.sitewhere.sources.rabbitmq;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -18,18 +20,25 @@ import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
-import com.rabbitmq.client.Consumer;
 import com.rabbitmq.client.DefaultConsumer;
 import com.rabbitmq.client.Envelope;
 import com.rabbitmq.client.ShutdownListener;
 import com.rabbitmq.client.ShutdownSignalException;
 import com.sitewhere.sources.InboundEventReceiver;
+import com.sitewhere.sources.spi.IEventSourcesManager;
+import com.sitewhere.sources.spi.microservice.IEventSourcesTenantEngine;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 
 /**
  * Binary inbound event source that consumes messages from a RabbitMQ broker.
  * 
+ * Each consumer thread has its own channel. Unless automatic acknowledgement
+ * is enabled, each channel limits unacknowledged deliveries to the configured
+ * prefetch count and acknowledges deliveries in batches only after the Kafka
+ * producers have confirmed that the resulting messages were sent. If a send
+ * fails, the batch is rejected and requeued so that no events are lost.
+ * 
  * @author Derek
  */
 public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
@@ -46,6 +55,15 @@ public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
     /** Default period in which to attempt connects/re-connects to RabbitMQ */
     private static final int DEFAULT_RECONNECT_INTERVAL = 10;
 
+    /** Default maximum number of unacknowledged deliveries per channel */
+    private static final int DEFAULT_PREFETCH_COUNT = 100;
+
+    /** Default number of deliveries acknowledged together */
+    private static final int DEFAULT_ACK_BATCH_SIZE = 50;
+
+    /** Default maximum time a processed delivery waits for acknowledgement */
+    private static final long DEFAULT_ACK_INTERVAL_MS = 1000;
+
     /** Connection URI */
     private String connectionUri = DEFAULT_CONNECTION_URI;
 
@@ -61,14 +79,26 @@ public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
     /** Indicates if queue should be durable */
     private boolean durable = false;
 
+    /** Indicates if broker should consider messages acknowledged on delivery */
+    private boolean autoAcknowledge = false;
+
+    /** Maximum number of unacknowledged deliveries per channel */
+    private int prefetchCount = DEFAULT_PREFETCH_COUNT;
+
+    /** Number of deliveries acknowledged together */
+    private int ackBatchSize = DEFAULT_ACK_BATCH_SIZE;
+
+    /** Maximum time a processed delivery waits for acknowledgement */
+    private long ackIntervalMs = DEFAULT_ACK_INTERVAL_MS;
+
     /** RabbitMQ connection factory **/
     private ConnectionFactory factory;
 
     /** RabbitMQ connection */
     private Connection connection;
 
-    /** RabbitMQ channel */
-    private Channel channel;
+    /** Consumers for current connection (one channel each) */
+    private List<BatchAcknowledgingConsumer> consumers = new CopyOnWriteArrayList<BatchAcknowledgingConsumer>();
 
     /** Used for consumer thread pool */
     private ExecutorService executors;
@@ -76,7 +106,10 @@ public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
     /** Holds reference to scheduled reconnection task */
     private ScheduledFuture<?> connectionFuture;
 
-    /** Shedules reconnection attempts */
+    /** Holds reference to periodic acknowledgement task */
+    private ScheduledFuture<?> acknowledgeFuture;
+
+    /** Shedules reconnection attempts and periodic acknowledgements */
     private ScheduledExecutorService connectionExecutor;
 
     /*
@@ -89,7 +122,7 @@ public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	executors = Executors.newFixedThreadPool(getNumConsumers());
-	connectionExecutor = Executors.newScheduledThreadPool(1);
+	connectionExecutor = Executors.newScheduledThreadPool(2);
 	factory = new ConnectionFactory();
 
 	try {
@@ -99,6 +132,12 @@ public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
 	}
 
 	connect();
+
+	// Acknowledge partial batches when traffic is light.
+	if (!isAutoAcknowledge()) {
+	    acknowledgeFuture = connectionExecutor.scheduleWithFixedDelay(() -> acknowledgeAll(), getAckIntervalMs(),
+		    getAckIntervalMs(), TimeUnit.MILLISECONDS);
+	}
     }
 
     /*
@@ -123,6 +162,7 @@ public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
     private void connect() {
 
 	try {
+	    consumers.clear();
 
 	    this.connection = factory.newConnection(executors);
 
@@ -138,24 +178,27 @@ public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
 		}
 	    });
 
-	    this.channel = connection.createChannel();
-
 	    getLogger().info("RabbitMQ receiver connected to: " + getConnectionUri());
 
-	    channel.queueDeclare(getQueueName(), isDurable(), false, false, null);
-
-	    getLogger().info("RabbitMQ receiver using " + (isDurable() ? "durable " : "") + "queue: " + getQueueName());
-
-	    // Add consumer callback for channel.
-	    Consumer consumer = new DefaultConsumer(channel) {
-		@Override
-		public void handleDelivery(String consumerTag, Envelope envelope, AMQP.BasicProperties properties,
-			byte[] body) throws IOException {
-		    onEventPayloadReceived(body, null);
+	    // Create one channel per consumer thread.
+	    for (int i = 0; i < getNumConsumers(); i++) {
+		Channel channel = connection.createChannel();
+		if (i == 0) {
+		    channel.queueDeclare(getQueueName(), isDurable(), false, false, null);
+		    getLogger().info(
+			    "RabbitMQ receiver using " + (isDurable() ? "durable " : "") + "queue: " + getQueueName());
 		}
-	    };
+		if (!isAutoAcknowledge()) {
+		    channel.basicQos(getPrefetchCount());
+		}
+		BatchAcknowledgingConsumer consumer = new BatchAcknowledgingConsumer(channel);
+		channel.basicConsume(getQueueName(), isAutoAcknowledge(), consumer);
+		consumers.add(consumer);
+	    }
 
-	    channel.basicConsume(getQueueName(), true, consumer);
+	    getLogger().info("RabbitMQ receiver started " + getNumConsumers() + " consumers "
+		    + (isAutoAcknowledge() ? "with automatic acknowledgement."
+			    : "with prefetch of " + getPrefetchCount() + "."));
 
 	} catch (Exception e) {
 	    getLogger().error("Connection Error", e);
@@ -165,6 +208,15 @@ public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
 
     }
 
+    /**
+     * Acknowledge processed deliveries for all consumers.
+     */
+    protected void acknowledgeAll() {
+	for (BatchAcknowledgingConsumer consumer : consumers) {
+	    consumer.acknowledgePending();
+	}
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -179,11 +231,22 @@ public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
 	if (connectionFuture != null && !connectionFuture.isDone()) {
 	    connectionFuture.cancel(true);
 	}
+	if (acknowledgeFuture != null) {
+	    acknowledgeFuture.cancel(false);
+	}
+
+	// Acknowledge anything already processed before closing channels.
+	if (!isAutoAcknowledge()) {
+	    acknowledgeAll();
+	}
 
 	try {
-	    if (channel != null) {
-		channel.close();
+	    for (BatchAcknowledgingConsumer consumer : consumers) {
+		if (consumer.getChannel().isOpen()) {
+		    consumer.getChannel().close();
+		}
 	    }
+	    consumers.clear();
 	    if (connection != null) {
 		connection.close();
 	    }
@@ -206,6 +269,10 @@ public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
 	return "RabbitMQ uri=" + getConnectionUri() + " queue=" + getQueueName();
     }
 
+    protected IEventSourcesManager getEventSourcesManager() {
+	return ((IEventSourcesTenantEngine) getTenantEngine()).getEventSourcesManager();
+    }
+
     public int getReconnectInterval() {
 	return this.reconnectInterval;
     }
@@ -245,4 +312,111 @@ public class RabbitMqInboundEventReceiver extends InboundEventReceiver<byte[]> {
     public void setDurable(boolean durable) {
 	this.durable = durable;
     }
-}
\ No newline at end of file
+
+    public boolean isAutoAcknowledge() {
+	return autoAcknowledge;
+    }
+
+    public void setAutoAcknowledge(boolean autoAcknowledge) {
+	this.autoAcknowledge = autoAcknowledge;
+    }
+
+    public int getPrefetchCount() {
+	return prefetchCount;
+    }
+
+    public void setPrefetchCount(int prefetchCount) {
+	this.prefetchCount = prefetchCount;
+    }
+
+    public int getAckBatchSize() {
+	return ackBatchSize;
+    }
+
+    public void setAckBatchSize(int ackBatchSize) {
+	this.ackBatchSize = ackBatchSize;
+    }
+
+    public long getAckIntervalMs() {
+	return ackIntervalMs;
+    }
+
+    public void setAckIntervalMs(long ackIntervalMs) {
+	this.ackIntervalMs = ackIntervalMs;
+    }
+
+    /**
+     * Consumer for a single channel that passes deliveries to the event source
+     * and acknowledges them in batches once the Kafka producers confirm that the
+     * resulting messages were sent.
+     * 
+     * @author Derek
+     */
+    private class BatchAcknowledgingConsumer extends DefaultConsumer {
+
+	/** Number of processed deliveries not yet acknowledged */
+	private int pending;
+
+	/** Delivery tag of last processed delivery */
+	private long lastDeliveryTag;
+
+	/** Producer failure count when current batch started */
+	private long failuresAtBatchStart;
+
+	public BatchAcknowledgingConsumer(Channel channel) {
+	    super(channel);
+	}
+
+	/*
+	 * @see com.rabbitmq.client.DefaultConsumer#handleDelivery(java.lang.String,
+	 * com.rabbitmq.client.Envelope, com.rabbitmq.client.AMQP.BasicProperties,
+	 * byte[])
+	 */
+	@Override
+	public void handleDelivery(String consumerTag, Envelope envelope, AMQP.BasicProperties properties,
+		byte[] body) throws IOException {
+	    if (isAutoAcknowledge()) {
+		onEventPayloadReceived(body, null);
+		return;
+	    }
+	    synchronized (this) {
+		if (pending == 0) {
+		    failuresAtBatchStart = getEventSourcesManager().getFailedSendCount();
+		}
+		try {
+		    onEventPayloadReceived(body, null);
+		} catch (Throwable t) {
+		    getLogger().error("Unhandled exception processing RabbitMQ delivery.", t);
+		}
+		lastDeliveryTag = envelope.getDeliveryTag();
+		pending++;
+		if (pending >= getAckBatchSize()) {
+		    acknowledgePending();
+		}
+	    }
+	}
+
+	/**
+	 * Wait for producers to confirm sends, then acknowledge all processed
+	 * deliveries. If any send failed, the deliveries are requeued instead.
+	 */
+	public synchronized void acknowledgePending() {
+	    if (pending == 0) {
+		return;
+	    }
+	    try {
+		long failures = getEventSourcesManager().flushProducers();
+		if (failures > failuresAtBatchStart) {
+		    getLogger().warn("Kafka send failed. Requeueing " + pending + " RabbitMQ deliveries.");
+		    getChannel().basicNack(lastDeliveryTag, true, true);
+		} else {
+		    getChannel().basicAck(lastDeliveryTag, true);
+		}
+	    } catch (Throwable t) {
+		getLogger().warn("Unable to acknowledge RabbitMQ deliveries. They will be redelivered.", t);
+	    } finally {
+		pending = 0;
+	    }
+	}
+    }
+}
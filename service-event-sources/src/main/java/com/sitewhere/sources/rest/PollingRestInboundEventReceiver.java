@@ -7,7 +7,10 @@
  */
 package com.sitewhere.sources.rest;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.commons.logging.Log;
@@ -15,6 +18,8 @@ import org.apache.commons.logging.LogFactory;
 
 import com.sitewhere.groovy.IGroovyVariables;
 import com.sitewhere.sources.PollingInboundEventReceiver;
+import com.sitewhere.sources.spi.polling.IPollingEndpoint;
+import com.sitewhere.sources.spi.polling.PollResult;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.microservice.configuration.IConfigurableMicroservice;
 import com.sitewhere.spi.microservice.scripting.IScriptMetadata;
@@ -23,7 +28,13 @@ import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import groovy.lang.Binding;
 
 /**
- * Performs polling on a REST endpoint at a given interval.
+ * Performs polling on one or more REST endpoints. If endpoint paths are
+ * configured, each path is fetched with a conditional GET and the Groovy script
+ * is only run when the resource has changed, with the response passed as the
+ * payload variable. A <code>{cursor}</code> token in a path is replaced by the
+ * cursor the script stored on the endpoint so that only new records are
+ * requested. If no paths are configured, the script makes the REST calls
+ * itself.
  * 
  * @author Derek
  */
@@ -32,6 +43,9 @@ public class PollingRestInboundEventReceiver extends PollingInboundEventReceiver
     /** Static logger instance */
     private static Log LOGGER = LogFactory.getLog(PollingRestInboundEventReceiver.class);
 
+    /** Token in endpoint path replaced by current cursor */
+    public static final String CURSOR_TOKEN = "{cursor}";
+
     /** Script metadata */
     private IScriptMetadata scriptMetadata;
 
@@ -47,6 +61,9 @@ public class PollingRestInboundEventReceiver extends PollingInboundEventReceiver
     /** Password used for REST calls */
     private String password;
 
+    /** Comma-separated list of endpoint paths relative to base URL */
+    private String endpoints;
+
     /** Helper class for REST operations */
     private RestHelper rest;
 
@@ -84,19 +101,45 @@ public class PollingRestInboundEventReceiver extends PollingInboundEventReceiver
     }
 
     /*
-     * (non-Javadoc)
-     * 
-     * @see com.sitewhere.device.communication.PollingInboundEventReceiver#doPoll()
+     * @see com.sitewhere.sources.PollingInboundEventReceiver#getEndpointPaths()
+     */
+    @Override
+    protected List<String> getEndpointPaths() {
+	List<String> paths = new ArrayList<String>();
+	if (getEndpoints() != null) {
+	    for (String path : getEndpoints().split(",")) {
+		if (path.trim().length() > 0) {
+		    paths.add(path.trim());
+		}
+	    }
+	}
+	return paths.isEmpty() ? Collections.singletonList("") : paths;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.sources.PollingInboundEventReceiver#doPoll(com.sitewhere.
+     * sources.spi.polling.IPollingEndpoint)
      */
     @Override
     @SuppressWarnings("unchecked")
-    public void doPoll() throws SiteWhereException {
+    public PollResult doPoll(IPollingEndpoint endpoint) throws SiteWhereException {
 	Binding binding = new Binding();
 	List<byte[]> payloads = new ArrayList<byte[]>();
 	binding.setVariable(IGroovyVariables.VAR_REST_CLIENT, rest);
 	binding.setVariable(IGroovyVariables.VAR_EVENT_PAYLOADS, payloads);
+	binding.setVariable(IGroovyVariables.VAR_POLLING_ENDPOINT, endpoint);
 	binding.setVariable(IGroovyVariables.VAR_LOGGER, LOGGER);
 
+	// Fetch configured endpoints directly so unchanged resources are skipped.
+	if (endpoint.getPath().length() > 0) {
+	    byte[] response = rest.getIfChanged(resolvePath(endpoint), endpoint);
+	    if (response == null) {
+		return PollResult.Unchanged;
+	    }
+	    binding.setVariable(IGroovyVariables.VAR_PAYLOAD, response);
+	}
+
 	try {
 	    getTenantEngine().getGroovyConfiguration().run(getScriptMetadata(), binding);
 	    payloads = (List<byte[]>) binding.getVariable(IGroovyVariables.VAR_EVENT_PAYLOADS);
@@ -105,6 +148,7 @@ public class PollingRestInboundEventReceiver extends PollingInboundEventReceiver
 	    for (byte[] payload : payloads) {
 		onEventPayloadReceived(payload, null);
 	    }
+	    return payloads.isEmpty() ? PollResult.Unchanged : PollResult.Changed;
 	} catch (SiteWhereException e) {
 	    throw e;
 	} catch (Exception e) {
@@ -112,6 +156,22 @@ public class PollingRestInboundEventReceiver extends PollingInboundEventReceiver
 	}
     }
 
+    /**
+     * Replace the cursor token in an endpoint path with the current cursor.
+     * 
+     * @param endpoint
+     * @return
+     * @throws SiteWhereException
+     */
+    protected String resolvePath(IPollingEndpoint endpoint) throws SiteWhereException {
+	String cursor = (endpoint.getCursor() != null) ? endpoint.getCursor() : "";
+	try {
+	    return endpoint.getPath().replace(CURSOR_TOKEN, URLEncoder.encode(cursor, "UTF-8"));
+	} catch (UnsupportedEncodingException e) {
+	    throw new SiteWhereException("Unable to encode cursor.", e);
+	}
+    }
+
     protected IScriptMetadata getScriptMetadata() {
 	return scriptMetadata;
     }
@@ -147,4 +207,12 @@ public class PollingRestInboundEventReceiver extends PollingInboundEventReceiver
     public void setPassword(String password) {
 	this.password = password;
     }
+
+    public String getEndpoints() {
+	return endpoints;
+    }
+
+    public void setEndpoints(String endpoints) {
+	this.endpoints = endpoints;
+    }
 }
\ No newline at end of file
@@ -24,15 +24,18 @@ import org.apache.http.impl.client.HttpClientBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.sitewhere.sources.spi.polling.IPollingEndpoint;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.SiteWhereSystemException;
 
@@ -66,6 +69,7 @@ public class RestHelper {
 
 	this.client = isIgnoreBadCertificate() ? new RestTemplate(createSecureTransport()) : new RestTemplate();
 	List<HttpMessageConverter<?>> converters = new ArrayList<HttpMessageConverter<?>>();
+	converters.add(new ByteArrayHttpMessageConverter());
 	converters.add(new MappingJackson2HttpMessageConverter());
 	client.setMessageConverters(converters);
     }
@@ -92,6 +96,43 @@ public class RestHelper {
 	return get(relativeUrl, String.class);
     }
 
+    /**
+     * Make a conditional GET request using the entity tag and last modified
+     * values stored on the endpoint for the same URL. Returns null if the
+     * resource has not changed. Otherwise returns the response body and records
+     * the new validators, which the endpoint keeps once the poll succeeds.
+     * 
+     * @param relativeUrl
+     * @param endpoint
+     * @return
+     * @throws SiteWhereException
+     */
+    public byte[] getIfChanged(String relativeUrl, IPollingEndpoint endpoint) throws SiteWhereException {
+	try {
+	    HttpHeaders headers = new HttpHeaders();
+	    if (!StringUtils.isEmpty(getUsername()) && !StringUtils.isEmpty(getPassword())) {
+		headers.add("Authorization", getAuthHeader());
+	    }
+	    String url = baseUrl + relativeUrl;
+	    if (endpoint.getEntityTag(url) != null) {
+		headers.set(HttpHeaders.IF_NONE_MATCH, endpoint.getEntityTag(url));
+	    }
+	    if (endpoint.getLastModified(url) != null) {
+		headers.set(HttpHeaders.IF_MODIFIED_SINCE, endpoint.getLastModified(url));
+	    }
+	    HttpEntity<Void> entity = new HttpEntity<Void>(headers);
+	    ResponseEntity<byte[]> response = client.exchange(url, HttpMethod.GET, entity, byte[].class);
+	    if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+		return null;
+	    }
+	    endpoint.setValidators(url, response.getHeaders().getFirst(HttpHeaders.ETAG),
+		    response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+	    return (response.getBody() != null) ? response.getBody() : new byte[0];
+	} catch (ResourceAccessException e) {
+	    throw new SiteWhereException(e);
+	}
+    }
+
     /**
      * Perform a GET request to the given relative URL.
      * 
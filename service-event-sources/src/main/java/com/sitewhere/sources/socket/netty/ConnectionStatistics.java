@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.socket.netty;
+
+import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters tracked for a single connection to a
+ * {@link NettySocketInboundEventReceiver}.
+ * 
+ * @author Derek
+ */
+public class ConnectionStatistics {
+
+    /** Remote address of connection */
+    private SocketAddress remoteAddress;
+
+    /** Time connection was established */
+    private long connectedTime = System.currentTimeMillis();
+
+    /** Time of last received data */
+    private volatile long lastReceivedTime = connectedTime;
+
+    /** Number of bytes received */
+    private AtomicLong bytesReceived = new AtomicLong();
+
+    /** Number of messages (frames) received */
+    private AtomicLong messagesReceived = new AtomicLong();
+
+    public ConnectionStatistics(SocketAddress remoteAddress) {
+	this.remoteAddress = remoteAddress;
+    }
+
+    /**
+     * Called when bytes are read from the connection.
+     * 
+     * @param count
+     */
+    public void onBytesReceived(long count) {
+	bytesReceived.addAndGet(count);
+	lastReceivedTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Called when a complete message is decoded from the connection.
+     */
+    public void onMessageReceived() {
+	messagesReceived.incrementAndGet();
+    }
+
+    public SocketAddress getRemoteAddress() {
+	return remoteAddress;
+    }
+
+    public long getConnectedTime() {
+	return connectedTime;
+    }
+
+    public long getLastReceivedTime() {
+	return lastReceivedTime;
+    }
+
+    public long getBytesReceived() {
+	return bytesReceived.get();
+    }
+
+    public long getMessagesReceived() {
+	return messagesReceived.get();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.socket.netty;
+
+import java.nio.charset.StandardCharsets;
+
+import com.sitewhere.sources.spi.socket.ISocketFrameDecoderFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.DelimiterBasedFrameDecoder;
+import io.netty.handler.codec.Delimiters;
+
+/**
+ * Implementation of {@link ISocketFrameDecoderFactory} for payloads separated
+ * by a delimiter. If no delimiter is configured, payloads are separated by line
+ * endings ('\n' or '\r\n').
+ * 
+ * @author Derek
+ */
+public class DelimiterFrameDecoderFactory implements ISocketFrameDecoderFactory {
+
+    /** Default maximum frame length */
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 64 * 1024;
+
+    /** Maximum frame length */
+    private int maxFrameLength = DEFAULT_MAX_FRAME_LENGTH;
+
+    /** Delimiter (null for line endings) */
+    private String delimiter;
+
+    /*
+     * @see com.sitewhere.sources.spi.socket.ISocketFrameDecoderFactory#
+     * createFrameDecoder()
+     */
+    @Override
+    public ChannelHandler createFrameDecoder() {
+	if ((getDelimiter() == null) || (getDelimiter().length() == 0)) {
+	    return new DelimiterBasedFrameDecoder(getMaxFrameLength(), Delimiters.lineDelimiter());
+	}
+	ByteBuf delimiter = Unpooled.copiedBuffer(getDelimiter(), StandardCharsets.UTF_8);
+	return new DelimiterBasedFrameDecoder(getMaxFrameLength(), delimiter);
+    }
+
+    public int getMaxFrameLength() {
+	return maxFrameLength;
+    }
+
+    public void setMaxFrameLength(int maxFrameLength) {
+	this.maxFrameLength = maxFrameLength;
+    }
+
+    public String getDelimiter() {
+	return delimiter;
+    }
+
+    public void setDelimiter(String delimiter) {
+	this.delimiter = delimiter;
+    }
+}
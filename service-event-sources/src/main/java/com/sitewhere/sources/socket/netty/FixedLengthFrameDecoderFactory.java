@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.socket.netty;
+
+import com.sitewhere.sources.spi.socket.ISocketFrameDecoderFactory;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.FixedLengthFrameDecoder;
+
+/**
+ * Implementation of {@link ISocketFrameDecoderFactory} for payloads that
+ * always contain the same number of bytes.
+ * 
+ * @author Derek
+ */
+public class FixedLengthFrameDecoderFactory implements ISocketFrameDecoderFactory {
+
+    /** Default frame length */
+    public static final int DEFAULT_FRAME_LENGTH = 64;
+
+    /** Frame length */
+    private int frameLength = DEFAULT_FRAME_LENGTH;
+
+    /*
+     * @see com.sitewhere.sources.spi.socket.ISocketFrameDecoderFactory#
+     * createFrameDecoder()
+     */
+    @Override
+    public ChannelHandler createFrameDecoder() {
+	return new FixedLengthFrameDecoder(getFrameLength());
+    }
+
+    public int getFrameLength() {
+	return frameLength;
+    }
+
+    public void setFrameLength(int frameLength) {
+	this.frameLength = frameLength;
+    }
+}
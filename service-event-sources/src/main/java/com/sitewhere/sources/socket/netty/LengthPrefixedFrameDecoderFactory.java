@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.socket.netty;
+
+import com.sitewhere.sources.spi.socket.ISocketFrameDecoderFactory;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+
+/**
+ * Implementation of {@link ISocketFrameDecoderFactory} for payloads that are
+ * preceded by a binary length field. The length field is stripped before the
+ * payload is delivered to the decoder.
+ * 
+ * @author Derek
+ */
+public class LengthPrefixedFrameDecoderFactory implements ISocketFrameDecoderFactory {
+
+    /** Default maximum frame length */
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 64 * 1024;
+
+    /** Default number of bytes in the length field */
+    public static final int DEFAULT_LENGTH_FIELD_LENGTH = 4;
+
+    /** Maximum frame length */
+    private int maxFrameLength = DEFAULT_MAX_FRAME_LENGTH;
+
+    /** Number of bytes in the length field (1, 2, 3, 4 or 8) */
+    private int lengthFieldLength = DEFAULT_LENGTH_FIELD_LENGTH;
+
+    /*
+     * @see com.sitewhere.sources.spi.socket.ISocketFrameDecoderFactory#
+     * createFrameDecoder()
+     */
+    @Override
+    public ChannelHandler createFrameDecoder() {
+	return new LengthFieldBasedFrameDecoder(getMaxFrameLength(), 0, getLengthFieldLength(), 0,
+		getLengthFieldLength());
+    }
+
+    public int getMaxFrameLength() {
+	return maxFrameLength;
+    }
+
+    public void setMaxFrameLength(int maxFrameLength) {
+	this.maxFrameLength = maxFrameLength;
+    }
+
+    public int getLengthFieldLength() {
+	return lengthFieldLength;
+    }
+
+    public void setLengthFieldLength(int lengthFieldLength) {
+	this.lengthFieldLength = lengthFieldLength;
+    }
+}
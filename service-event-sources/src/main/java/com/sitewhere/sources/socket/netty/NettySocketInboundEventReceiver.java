@@ -0,0 +1,610 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.socket.netty;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.codahale.metrics.Meter;
+import com.sitewhere.sources.InboundEventReceiver;
+import com.sitewhere.sources.spi.IInboundEventReceiver;
+import com.sitewhere.sources.spi.socket.ISocketFrameDecoderFactory;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler.Sharable;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.RejectedExecutionHandlers;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+/**
+ * Implementation of {@link IInboundEventReceiver} that accepts persistent
+ * device connections on a non-blocking server socket. Connections are serviced
+ * by a small number of Netty event loops rather than a thread per connection.
+ * The byte stream for each connection is split into payloads by a pluggable
+ * {@link ISocketFrameDecoderFactory} and each payload is delivered to the
+ * event source for decoding. Decoding runs on a separate executor group so that
+ * slow decoders or producers do not stall the event loops. Reads for a
+ * connection are paused when it has too many payloads waiting to be decoded or
+ * when its decoder thread's queue is half full, and resumed once its payloads
+ * drain. Each decoder thread holds at most <code>decodeQueueCapacity</code>
+ * pending payloads; if the queue is full anyway, the payload is dropped and the
+ * connection is closed.
+ * 
+ * @author Derek
+ */
+public class NettySocketInboundEventReceiver extends InboundEventReceiver<byte[]> {
+
+    /** Default port for server socket */
+    private static final int DEFAULT_PORT = 8484;
+
+    /** Default number of event loop threads (0 uses Netty default) */
+    private static final int DEFAULT_NUM_THREADS = 0;
+
+    /** Default maximum number of concurrent connections */
+    private static final int DEFAULT_MAX_CONNECTIONS = 50000;
+
+    /** Default number of seconds without data before a connection is closed */
+    private static final int DEFAULT_IDLE_TIMEOUT_SECS = 300;
+
+    /** Default size of pending connection backlog */
+    private static final int DEFAULT_BACKLOG = 1024;
+
+    /** Default number of decoder threads */
+    private static final int DEFAULT_NUM_DECODER_THREADS = 16;
+
+    /** Default number of pending payloads per decoder thread */
+    private static final int DEFAULT_DECODE_QUEUE_CAPACITY = 10000;
+
+    /** Number of pending payloads at which reads for a connection are paused */
+    private static final int MAX_PENDING_PAYLOADS = 64;
+
+    /** Number of pending payloads at which paused reads are resumed */
+    private static final int RESUME_PENDING_PAYLOADS = 16;
+
+    /** Attribute that holds statistics for a connection */
+    private static final AttributeKey<ConnectionStatistics> STATISTICS = AttributeKey
+	    .valueOf(ConnectionStatistics.class.getName());
+
+    /** Bind address used for server socket (null for all interfaces) */
+    private String bindAddress;
+
+    /** Port used for server socket */
+    private int port = DEFAULT_PORT;
+
+    /** Number of event loop threads used to service connections */
+    private int numThreads = DEFAULT_NUM_THREADS;
+
+    /** Maximum number of concurrent connections */
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+
+    /** Seconds without received data before connection is closed */
+    private int idleTimeoutSecs = DEFAULT_IDLE_TIMEOUT_SECS;
+
+    /** Size of pending connection backlog */
+    private int backlog = DEFAULT_BACKLOG;
+
+    /** Number of threads used to decode payloads */
+    private int numDecoderThreads = DEFAULT_NUM_DECODER_THREADS;
+
+    /** Number of pending payloads per decoder thread */
+    private int decodeQueueCapacity = DEFAULT_DECODE_QUEUE_CAPACITY;
+
+    /** Factory for frame decoders */
+    private ISocketFrameDecoderFactory frameDecoderFactory = new LengthPrefixedFrameDecoderFactory();
+
+    /** Event loop that accepts connections */
+    private EventLoopGroup bossGroup;
+
+    /** Event loops that service connections */
+    private EventLoopGroup workerGroup;
+
+    /** Executors that decode payloads */
+    private EventExecutorGroup decoderGroup;
+
+    /** Server channel */
+    private Channel serverChannel;
+
+    /** Tracks all open connections */
+    private ChannelGroup connections;
+
+    /** Count of active connections */
+    private AtomicInteger activeConnections = new AtomicInteger();
+
+    /** Enforces connection limit and tracks connection statistics */
+    private ConnectionTracker connectionTracker = new ConnectionTracker();
+
+    /** Meter for accepted connections */
+    private Meter acceptedConnections;
+
+    /** Meter for connections rejected due to connection limit */
+    private Meter rejectedConnections;
+
+    /** Meter for connections closed due to idle timeout */
+    private Meter idleConnections;
+
+    /** Meter for received bytes */
+    private Meter receivedBytes;
+
+    /** Meter for received messages */
+    private Meter receivedMessages;
+
+    /** Meter for reads paused due to pending payloads */
+    private Meter pausedReads;
+
+    /** Meter for payloads dropped due to a full decode queue */
+    private Meter rejectedPayloads;
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#start(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	if (getFrameDecoderFactory() == null) {
+	    throw new SiteWhereException("No frame decoder factory configured for Netty socket event source.");
+	}
+
+	// Set up metrics.
+	this.acceptedConnections = createMeterMetric(getMetricPrefix() + "acceptedConnections");
+	this.rejectedConnections = createMeterMetric(getMetricPrefix() + "rejectedConnections");
+	this.idleConnections = createMeterMetric(getMetricPrefix() + "idleConnections");
+	this.receivedBytes = createMeterMetric(getMetricPrefix() + "receivedBytes");
+	this.receivedMessages = createMeterMetric(getMetricPrefix() + "receivedMessages");
+	this.pausedReads = createMeterMetric(getMetricPrefix() + "pausedReads");
+	this.rejectedPayloads = createMeterMetric(getMetricPrefix() + "rejectedPayloads");
+
+	this.bossGroup = new NioEventLoopGroup(1,
+		new DefaultThreadFactory("SiteWhere Socket(" + getEventSource().getSourceId() + ") Acceptor"));
+	this.workerGroup = new NioEventLoopGroup(getNumThreads(),
+		new DefaultThreadFactory("SiteWhere Socket(" + getEventSource().getSourceId() + ") Worker"));
+	this.decoderGroup = new DefaultEventExecutorGroup(getNumDecoderThreads(),
+		new DefaultThreadFactory("SiteWhere Socket(" + getEventSource().getSourceId() + ") Decoder"),
+		getDecodeQueueCapacity(), RejectedExecutionHandlers.reject());
+	this.connections = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+
+	ServerBootstrap bootstrap = new ServerBootstrap();
+	bootstrap.group(bossGroup, workerGroup).channel(NioServerSocketChannel.class)
+		.option(ChannelOption.SO_BACKLOG, getBacklog()).childOption(ChannelOption.SO_KEEPALIVE, true)
+		.childOption(ChannelOption.TCP_NODELAY, true).childHandler(new ConnectionInitializer());
+
+	InetSocketAddress address = (getBindAddress() != null) ? new InetSocketAddress(getBindAddress(), getPort())
+		: new InetSocketAddress(getPort());
+	try {
+	    getLogger().info("Receiver binding non-blocking server socket on " + getDisplayName() + ".");
+	    this.serverChannel = bootstrap.bind(address).sync().channel();
+	    getLogger().info("Socket receiver accepting up to " + getMaxConnections() + " connections.");
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new SiteWhereException("Interrupted while binding server socket for event receiver.", e);
+	} catch (Exception e) {
+	    shutdownEventLoops();
+	    throw new SiteWhereException("Unable to bind server socket for event receiver.", e);
+	}
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#stop(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	if (serverChannel != null) {
+	    serverChannel.close().awaitUninterruptibly();
+	}
+	if (connections != null) {
+	    connections.close().awaitUninterruptibly();
+	}
+	shutdownEventLoops();
+	getLogger().info("Socket receiver processing stopped.");
+    }
+
+    /**
+     * Shut down event loop groups.
+     */
+    protected void shutdownEventLoops() {
+	if (workerGroup != null) {
+	    workerGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+	}
+	if (bossGroup != null) {
+	    bossGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+	}
+	if (decoderGroup != null) {
+	    decoderGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+	}
+    }
+
+    /**
+     * Get prefix appended to metrics.
+     * 
+     * @return
+     */
+    protected String getMetricPrefix() {
+	return getEventSource().getSourceId() + ".NettySocketEventReceiver.";
+    }
+
+    /*
+     * @see com.sitewhere.sources.InboundEventReceiver#getDisplayName()
+     */
+    @Override
+    public String getDisplayName() {
+	return ((getBindAddress() != null) ? getBindAddress() : "*") + ":" + getPort();
+    }
+
+    /**
+     * Get number of currently open connections.
+     * 
+     * @return
+     */
+    public int getActiveConnectionCount() {
+	return activeConnections.get();
+    }
+
+    /**
+     * Get a snapshot of statistics for all open connections.
+     * 
+     * @return
+     */
+    public List<ConnectionStatistics> getConnectionStatistics() {
+	List<ConnectionStatistics> results = new ArrayList<ConnectionStatistics>();
+	if (connections != null) {
+	    for (Channel channel : connections) {
+		ConnectionStatistics stats = channel.attr(STATISTICS).get();
+		if (stats != null) {
+		    results.add(stats);
+		}
+	    }
+	}
+	return results;
+    }
+
+    /**
+     * Builds the pipeline for each accepted connection.
+     * 
+     * @author Derek
+     */
+    private class ConnectionInitializer extends ChannelInitializer<SocketChannel> {
+
+	/*
+	 * @see io.netty.channel.ChannelInitializer#initChannel(io.netty.channel.
+	 * Channel)
+	 */
+	@Override
+	protected void initChannel(SocketChannel channel) throws Exception {
+	    channel.attr(STATISTICS).set(new ConnectionStatistics(channel.remoteAddress()));
+	    if (getIdleTimeoutSecs() > 0) {
+		channel.pipeline().addLast("idle", new IdleStateHandler(getIdleTimeoutSecs(), 0, 0));
+	    }
+	    channel.pipeline().addLast("tracker", connectionTracker);
+	    channel.pipeline().addLast("framer", getFrameDecoderFactory().createFrameDecoder());
+	    channel.pipeline().addLast("payload", new PayloadHandler(decoderGroup.next()));
+	}
+    }
+
+    /**
+     * Enforces connection limit, closes idle connections and counts received
+     * bytes. Shared across all connections.
+     * 
+     * @author Derek
+     */
+    @Sharable
+    private class ConnectionTracker extends ChannelInboundHandlerAdapter {
+
+	/*
+	 * @see
+	 * io.netty.channel.ChannelInboundHandlerAdapter#channelActive(io.netty.channel
+	 * .ChannelHandlerContext)
+	 */
+	@Override
+	public void channelActive(ChannelHandlerContext ctx) throws Exception {
+	    if (activeConnections.incrementAndGet() > getMaxConnections()) {
+		activeConnections.decrementAndGet();
+		rejectedConnections.mark();
+		getLogger().warn("Rejecting connection from " + ctx.channel().remoteAddress()
+			+ ". Connection limit of " + getMaxConnections() + " reached.");
+		ctx.channel().attr(STATISTICS).set(null);
+		ctx.close();
+		return;
+	    }
+	    acceptedConnections.mark();
+	    connections.add(ctx.channel());
+	    super.channelActive(ctx);
+	}
+
+	/*
+	 * @see io.netty.channel.ChannelInboundHandlerAdapter#channelInactive(io.netty.
+	 * channel.ChannelHandlerContext)
+	 */
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+	    if (ctx.channel().attr(STATISTICS).getAndSet(null) != null) {
+		activeConnections.decrementAndGet();
+	    }
+	    super.channelInactive(ctx);
+	}
+
+	/*
+	 * @see
+	 * io.netty.channel.ChannelInboundHandlerAdapter#channelRead(io.netty.channel.
+	 * ChannelHandlerContext, java.lang.Object)
+	 */
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+	    if (msg instanceof ByteBuf) {
+		int count = ((ByteBuf) msg).readableBytes();
+		ConnectionStatistics stats = ctx.channel().attr(STATISTICS).get();
+		if (stats != null) {
+		    stats.onBytesReceived(count);
+		}
+		receivedBytes.mark(count);
+	    }
+	    super.channelRead(ctx, msg);
+	}
+
+	/*
+	 * @see
+	 * io.netty.channel.ChannelInboundHandlerAdapter#userEventTriggered(io.netty.
+	 * channel.ChannelHandlerContext, java.lang.Object)
+	 */
+	@Override
+	public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+	    if (evt instanceof IdleStateEvent) {
+		getLogger().debug("Closing idle connection from " + ctx.channel().remoteAddress() + ".");
+		idleConnections.mark();
+		ctx.close();
+		return;
+	    }
+	    super.userEventTriggered(ctx, evt);
+	}
+    }
+
+    /**
+     * Hands frames for a connection to its decoder thread and applies
+     * backpressure by pausing reads while too many payloads are pending. Runs on
+     * the event loop. One instance per connection.
+     * 
+     * @author Derek
+     */
+    private class PayloadHandler extends ChannelInboundHandlerAdapter {
+
+	/** Decoder thread for the connection (keeps payloads in order) */
+	private EventExecutor executor;
+
+	/** Payloads handed to the decoder thread but not yet delivered */
+	private AtomicInteger pending = new AtomicInteger();
+
+	public PayloadHandler(EventExecutor executor) {
+	    this.executor = executor;
+	}
+
+	/*
+	 * @see
+	 * io.netty.channel.ChannelInboundHandlerAdapter#channelRead(io.netty.channel.
+	 * ChannelHandlerContext, java.lang.Object)
+	 */
+	@Override
+	public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+	    if (!(msg instanceof ByteBuf)) {
+		ctx.fireChannelRead(msg);
+		return;
+	    }
+	    ByteBuf frame = (ByteBuf) msg;
+	    byte[] payload;
+	    try {
+		payload = new byte[frame.readableBytes()];
+		frame.readBytes(payload);
+	    } finally {
+		frame.release();
+	    }
+	    int count = pending.incrementAndGet();
+	    try {
+		executor.execute(new PayloadDelivery(ctx.channel(), payload));
+	    } catch (RejectedExecutionException e) {
+		pending.decrementAndGet();
+		rejectedPayloads.mark();
+		getLogger().warn(
+			"Closing connection from " + ctx.channel().remoteAddress() + ". Decode queue is full.");
+		ctx.close();
+		return;
+	    }
+	    if ((count >= MAX_PENDING_PAYLOADS) || isDecodeQueueCongested()) {
+		pauseReads(ctx.channel(), count);
+	    }
+	}
+
+	/**
+	 * Indicates whether the decoder thread's queue is at least half full.
+	 * 
+	 * @return
+	 */
+	protected boolean isDecodeQueueCongested() {
+	    return (executor instanceof SingleThreadEventExecutor)
+		    && (((SingleThreadEventExecutor) executor).pendingTasks() >= (getDecodeQueueCapacity() / 2));
+	}
+
+	/**
+	 * Stop reading from the connection until pending payloads drain. If a
+	 * payload was delivered before reads were paused, the decoder thread may
+	 * have missed the pause, so the resume condition is checked again here.
+	 * 
+	 * @param channel
+	 * @param count
+	 */
+	protected void pauseReads(Channel channel, int count) {
+	    if (!channel.config().isAutoRead()) {
+		return;
+	    }
+	    channel.config().setAutoRead(false);
+	    pausedReads.mark();
+	    int current = pending.get();
+	    if ((current < count) && (current <= RESUME_PENDING_PAYLOADS)) {
+		channel.config().setAutoRead(true);
+	    }
+	}
+
+	/**
+	 * Called on the decoder thread after a payload is delivered. Resumes reads
+	 * once enough pending payloads have drained.
+	 * 
+	 * @param channel
+	 */
+	protected void onPayloadDelivered(Channel channel) {
+	    if ((pending.decrementAndGet() <= RESUME_PENDING_PAYLOADS) && !channel.config().isAutoRead()) {
+		channel.config().setAutoRead(true);
+	    }
+	}
+
+	/**
+	 * Delivers a payload to the event source on the decoder thread.
+	 * 
+	 * @author Derek
+	 */
+	private class PayloadDelivery implements Runnable {
+
+	    /** Connection payload was received on */
+	    private Channel channel;
+
+	    /** Payload */
+	    private byte[] payload;
+
+	    public PayloadDelivery(Channel channel, byte[] payload) {
+		this.channel = channel;
+		this.payload = payload;
+	    }
+
+	    /*
+	     * @see java.lang.Runnable#run()
+	     */
+	    @Override
+	    public void run() {
+		try {
+		    ConnectionStatistics stats = channel.attr(STATISTICS).get();
+		    if (stats != null) {
+			stats.onMessageReceived();
+		    }
+		    receivedMessages.mark();
+		    onEventPayloadReceived(payload, null);
+		} catch (Throwable t) {
+		    getLogger().error("Closing connection from " + channel.remoteAddress() + " due to error.", t);
+		    channel.close();
+		} finally {
+		    onPayloadDelivered(channel);
+		}
+	    }
+	}
+
+	/*
+	 * @see
+	 * io.netty.channel.ChannelInboundHandlerAdapter#exceptionCaught(io.netty.
+	 * channel.ChannelHandlerContext, java.lang.Throwable)
+	 */
+	@Override
+	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+	    getLogger().error("Closing connection from " + ctx.channel().remoteAddress() + " due to error.", cause);
+	    ctx.close();
+	}
+    }
+
+    public String getBindAddress() {
+	return bindAddress;
+    }
+
+    public void setBindAddress(String bindAddress) {
+	this.bindAddress = bindAddress;
+    }
+
+    public int getPort() {
+	return port;
+    }
+
+    public void setPort(int port) {
+	this.port = port;
+    }
+
+    public int getNumThreads() {
+	return numThreads;
+    }
+
+    public void setNumThreads(int numThreads) {
+	this.numThreads = numThreads;
+    }
+
+    public int getMaxConnections() {
+	return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+	this.maxConnections = maxConnections;
+    }
+
+    public int getIdleTimeoutSecs() {
+	return idleTimeoutSecs;
+    }
+
+    public void setIdleTimeoutSecs(int idleTimeoutSecs) {
+	this.idleTimeoutSecs = idleTimeoutSecs;
+    }
+
+    public int getBacklog() {
+	return backlog;
+    }
+
+    public void setBacklog(int backlog) {
+	this.backlog = backlog;
+    }
+
+    public int getNumDecoderThreads() {
+	return numDecoderThreads;
+    }
+
+    public void setNumDecoderThreads(int numDecoderThreads) {
+	this.numDecoderThreads = numDecoderThreads;
+    }
+
+    public int getDecodeQueueCapacity() {
+	return decodeQueueCapacity;
+    }
+
+    public void setDecodeQueueCapacity(int decodeQueueCapacity) {
+	this.decodeQueueCapacity = decodeQueueCapacity;
+    }
+
+    public ISocketFrameDecoderFactory getFrameDecoderFactory() {
+	return frameDecoderFactory;
+    }
+
+    public void setFrameDecoderFactory(ISocketFrameDecoderFactory frameDecoderFactory) {
+	this.frameDecoderFactory = frameDecoderFactory;
+    }
+}
@@ -74,4 +74,20 @@ public interface IEventSourcesManager extends ITenantEngineLifecycleComponent {
      */
     public void handleFailedDecode(String sourceId, byte[] encoded, Map<String, Object> metadata, Throwable t)
 	    throws SiteWhereException;
+
+    /**
+     * Block until all messages passed to the Kafka producers have either been
+     * sent or failed. Receivers use this to confirm delivery before acknowledging
+     * messages to their source.
+     * 
+     * @return total number of failed sends (see {@link #getFailedSendCount()})
+     */
+    public long flushProducers();
+
+    /**
+     * Get total number of messages the Kafka producers have failed to send.
+     * 
+     * @return
+     */
+    public long getFailedSendCount();
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.spi.polling;
+
+/**
+ * State kept for a single resource polled by a polling event receiver.
+ * 
+ * @author Derek
+ */
+public interface IPollingEndpoint {
+
+    /**
+     * Get path (or other identifier) of resource being polled.
+     * 
+     * @return
+     */
+    public String getPath();
+
+    /**
+     * Get cursor indicating the last record that was processed by a poll that
+     * completed successfully.
+     * 
+     * @return
+     */
+    public String getCursor();
+
+    /**
+     * Set cursor indicating the last record that was processed. Like validators,
+     * it is used only after the current poll completes successfully, so records
+     * from a poll that fails are fetched again.
+     * 
+     * @param cursor
+     */
+    public void setCursor(String cursor);
+
+    /**
+     * Get entity tag returned by the last successfully processed fetch of the
+     * given URL. Returns null if the last processed fetch was for a different
+     * URL.
+     * 
+     * @param url
+     * @return
+     */
+    public String getEntityTag(String url);
+
+    /**
+     * Get last modified value returned by the last successfully processed fetch
+     * of the given URL. Returns null if the last processed fetch was for a
+     * different URL.
+     * 
+     * @param url
+     * @return
+     */
+    public String getLastModified(String url);
+
+    /**
+     * Record validators returned by a fetch of the given URL. They are used for
+     * later fetches only after the current poll completes successfully, so a
+     * response that fails processing is fetched again.
+     * 
+     * @param url
+     * @param entityTag
+     * @param lastModified
+     */
+    public void setValidators(String url, String entityTag, String lastModified);
+
+    /**
+     * Get interval (in milliseconds) until the next poll.
+     * 
+     * @return
+     */
+    public long getPollIntervalMs();
+}
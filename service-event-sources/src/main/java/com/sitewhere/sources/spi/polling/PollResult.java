@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.spi.polling;
+
+/**
+ * Outcome of polling an endpoint. Used to adjust the polling interval.
+ * 
+ * @author Derek
+ */
+public enum PollResult {
+
+    /** New data was found */
+    Changed,
+
+    /** Resource was unchanged or had no new records */
+    Unchanged,
+
+    /** Poll failed */
+    Failed;
+}
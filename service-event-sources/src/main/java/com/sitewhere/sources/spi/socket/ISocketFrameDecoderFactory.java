@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.spi.socket;
+
+import io.netty.channel.ChannelHandler;
+
+/**
+ * Factory that produces Netty frame decoders which split the byte stream of a
+ * persistent device connection into discrete payloads. Each decoded frame is
+ * delivered to the event receiver in the same way an
+ * {@link ISocketInteractionHandler} delivers the payload it reads from a
+ * blocking socket.
+ * 
+ * @author Derek
+ */
+public interface ISocketFrameDecoderFactory {
+
+    /**
+     * Create a new frame decoder. Frame decoders hold per-connection state, so a
+     * new instance is required for each channel.
+     * 
+     * @return
+     */
+    public ChannelHandler createFrameDecoder();
+}
@@ -49,6 +49,7 @@ import com.sitewhere.sources.decoder.composite.GroovyMessageMetadataExtractor;
 import com.sitewhere.sources.decoder.debug.EchoStringDecoder;
 import com.sitewhere.sources.decoder.json.JsonBatchEventDecoder;
 import com.sitewhere.sources.decoder.json.JsonDeviceRequestDecoder;
+import com.sitewhere.sources.decoder.json.JsonStreamingDeviceRequestDecoder;
 import com.sitewhere.sources.decoder.protobuf.ProtobufDeviceEventDecoder;
 import com.sitewhere.sources.deduplicator.AlternateIdDeduplicator;
 import com.sitewhere.sources.deduplicator.GroovyEventDeduplicator;
@@ -59,6 +60,10 @@ import com.sitewhere.sources.socket.BinarySocketInboundEventReceiver;
 import com.sitewhere.sources.socket.GroovySocketInteractionHandler;
 import com.sitewhere.sources.socket.HttpInteractionHandler;
 import com.sitewhere.sources.socket.ReadAllInteractionHandler;
+import com.sitewhere.sources.socket.netty.DelimiterFrameDecoderFactory;
+import com.sitewhere.sources.socket.netty.FixedLengthFrameDecoderFactory;
+import com.sitewhere.sources.socket.netty.LengthPrefixedFrameDecoderFactory;
+import com.sitewhere.sources.socket.netty.NettySocketInboundEventReceiver;
 import com.sitewhere.sources.spi.IInboundEventReceiver;
 import com.sitewhere.sources.spi.IInboundEventSource;
 import com.sitewhere.sources.spi.socket.ISocketInteractionHandlerFactory;
@@ -129,6 +134,10 @@ public class EventSourcesParser extends AbstractBeanDefinitionParser {
 		sources.add(parseSocketEventSource(child, context));
 		break;
 	    }
+	    case NettySocketEventSource: {
+		sources.add(parseNettySocketEventSource(child, context));
+		break;
+	    }
 	    case WebSocketEventSource: {
 		sources.add(parseWebSocketEventSource(child, context));
 		break;
@@ -234,6 +243,26 @@ public class EventSourcesParser extends AbstractBeanDefinitionParser {
 	    mqtt.addPropertyValue("numThreads", numThreads.getValue());
 	}
 
+	Attr queueCapacity = element.getAttributeNode("queueCapacity");
+	if (queueCapacity != null) {
+	    mqtt.addPropertyValue("queueCapacity", queueCapacity.getValue());
+	}
+
+	Attr ackBatchSize = element.getAttributeNode("ackBatchSize");
+	if (ackBatchSize != null) {
+	    mqtt.addPropertyValue("ackBatchSize", ackBatchSize.getValue());
+	}
+
+	Attr ackIntervalMs = element.getAttributeNode("ackIntervalMs");
+	if (ackIntervalMs != null) {
+	    mqtt.addPropertyValue("ackIntervalMs", ackIntervalMs.getValue());
+	}
+
+	Attr sharedSubscriptionGroup = element.getAttributeNode("sharedSubscriptionGroup");
+	if (sharedSubscriptionGroup != null) {
+	    mqtt.addPropertyValue("sharedSubscriptionGroup", sharedSubscriptionGroup.getValue());
+	}
+
 	Attr trustStorePath = element.getAttributeNode("trustStorePath");
 	if (trustStorePath != null) {
 	    mqtt.addPropertyValue("trustStorePath", trustStorePath.getValue());
@@ -328,7 +357,7 @@ public class EventSourcesParser extends AbstractBeanDefinitionParser {
 	}
 
 	Attr queueName = element.getAttributeNode("queueName");
-	if (connectionUri != null) {
+	if (queueName != null) {
 	    mqtt.addPropertyValue("queueName", queueName.getValue());
 	}
 
@@ -338,10 +367,30 @@ public class EventSourcesParser extends AbstractBeanDefinitionParser {
 	}
 
 	Attr numConsumers = element.getAttributeNode("numConsumers");
-	if (connectionUri != null) {
+	if (numConsumers != null) {
 	    mqtt.addPropertyValue("numConsumers", numConsumers.getValue());
 	}
 
+	Attr autoAcknowledge = element.getAttributeNode("autoAcknowledge");
+	if (autoAcknowledge != null) {
+	    mqtt.addPropertyValue("autoAcknowledge", autoAcknowledge.getValue());
+	}
+
+	Attr prefetchCount = element.getAttributeNode("prefetchCount");
+	if (prefetchCount != null) {
+	    mqtt.addPropertyValue("prefetchCount", prefetchCount.getValue());
+	}
+
+	Attr ackBatchSize = element.getAttributeNode("ackBatchSize");
+	if (ackBatchSize != null) {
+	    mqtt.addPropertyValue("ackBatchSize", ackBatchSize.getValue());
+	}
+
+	Attr ackIntervalMs = element.getAttributeNode("ackIntervalMs");
+	if (ackIntervalMs != null) {
+	    mqtt.addPropertyValue("ackIntervalMs", ackIntervalMs.getValue());
+	}
+
 	return mqtt.getBeanDefinition();
     }
 
@@ -773,6 +822,137 @@ public class EventSourcesParser extends AbstractBeanDefinitionParser {
 	source.addPropertyReference("handlerFactory", name);
     }
 
+    /**
+     * Parse a non-blocking (Netty) socket event source.
+     * 
+     * @param element
+     * @param context
+     * @return
+     */
+    protected AbstractBeanDefinition parseNettySocketEventSource(Element element, ParserContext context) {
+	BeanDefinitionBuilder source = BeanDefinitionBuilder.rootBeanDefinition(BinaryInboundEventSource.class);
+
+	// Verify that a sourceId was provided and set it on the bean.
+	parseEventSourceId(element, source);
+
+	// Create socket event receiver bean and register it.
+	AbstractBeanDefinition receiver = createNettySocketEventReceiver(element, context);
+	String receiverName = nameGenerator.generateBeanName(receiver, context.getRegistry());
+	context.getRegistry().registerBeanDefinition(receiverName, receiver);
+
+	// Create list with bean reference and add it as property.
+	ManagedList<Object> list = new ManagedList<Object>();
+	RuntimeBeanReference ref = new RuntimeBeanReference(receiverName);
+	list.add(ref);
+	source.addPropertyValue("inboundEventReceivers", list);
+
+	// Add decoder reference.
+	parseBinaryDecoder(element, context, source);
+
+	// Parse deduplicator if configured.
+	parseDeduplicator(element, context, source);
+
+	return source.getBeanDefinition();
+    }
+
+    /**
+     * Create non-blocking socket event receiver from XML element.
+     * 
+     * @param element
+     * @param context
+     * @return
+     */
+    protected AbstractBeanDefinition createNettySocketEventReceiver(Element element, ParserContext context) {
+	BeanDefinitionBuilder socket = BeanDefinitionBuilder.rootBeanDefinition(NettySocketInboundEventReceiver.class);
+
+	Attr bindAddress = element.getAttributeNode("bindAddress");
+	if (bindAddress != null) {
+	    socket.addPropertyValue("bindAddress", bindAddress.getValue());
+	}
+
+	Attr port = element.getAttributeNode("port");
+	if (port != null) {
+	    socket.addPropertyValue("port", port.getValue());
+	}
+
+	Attr numThreads = element.getAttributeNode("numThreads");
+	if (numThreads != null) {
+	    socket.addPropertyValue("numThreads", numThreads.getValue());
+	}
+
+	Attr maxConnections = element.getAttributeNode("maxConnections");
+	if (maxConnections != null) {
+	    socket.addPropertyValue("maxConnections", maxConnections.getValue());
+	}
+
+	Attr idleTimeoutSecs = element.getAttributeNode("idleTimeoutSecs");
+	if (idleTimeoutSecs != null) {
+	    socket.addPropertyValue("idleTimeoutSecs", idleTimeoutSecs.getValue());
+	}
+
+	Attr backlog = element.getAttributeNode("backlog");
+	if (backlog != null) {
+	    socket.addPropertyValue("backlog", backlog.getValue());
+	}
+
+	Attr numDecoderThreads = element.getAttributeNode("numDecoderThreads");
+	if (numDecoderThreads != null) {
+	    socket.addPropertyValue("numDecoderThreads", numDecoderThreads.getValue());
+	}
+
+	Attr decodeQueueCapacity = element.getAttributeNode("decodeQueueCapacity");
+	if (decodeQueueCapacity != null) {
+	    socket.addPropertyValue("decodeQueueCapacity", decodeQueueCapacity.getValue());
+	}
+
+	// Add frame decoder factory based on framing type.
+	socket.addPropertyValue("frameDecoderFactory", createSocketFrameDecoderFactory(element));
+
+	return socket.getBeanDefinition();
+    }
+
+    /**
+     * Create frame decoder factory based on 'framing' attribute.
+     * 
+     * @param element
+     * @return
+     */
+    protected AbstractBeanDefinition createSocketFrameDecoderFactory(Element element) {
+	Attr framing = element.getAttributeNode("framing");
+	String type = (framing != null) ? framing.getValue() : "length-prefixed";
+	Attr maxFrameLength = element.getAttributeNode("maxFrameLength");
+
+	BeanDefinitionBuilder factory;
+	if ("length-prefixed".equals(type)) {
+	    factory = BeanDefinitionBuilder.rootBeanDefinition(LengthPrefixedFrameDecoderFactory.class);
+	    Attr lengthFieldLength = element.getAttributeNode("lengthFieldLength");
+	    if (lengthFieldLength != null) {
+		factory.addPropertyValue("lengthFieldLength", lengthFieldLength.getValue());
+	    }
+	    if (maxFrameLength != null) {
+		factory.addPropertyValue("maxFrameLength", maxFrameLength.getValue());
+	    }
+	} else if ("delimiter".equals(type)) {
+	    factory = BeanDefinitionBuilder.rootBeanDefinition(DelimiterFrameDecoderFactory.class);
+	    Attr delimiter = element.getAttributeNode("delimiter");
+	    if (delimiter != null) {
+		factory.addPropertyValue("delimiter", delimiter.getValue());
+	    }
+	    if (maxFrameLength != null) {
+		factory.addPropertyValue("maxFrameLength", maxFrameLength.getValue());
+	    }
+	} else if ("fixed-length".equals(type)) {
+	    factory = BeanDefinitionBuilder.rootBeanDefinition(FixedLengthFrameDecoderFactory.class);
+	    Attr frameLength = element.getAttributeNode("frameLength");
+	    if (frameLength != null) {
+		factory.addPropertyValue("frameLength", frameLength.getValue());
+	    }
+	} else {
+	    throw new RuntimeException("Invalid 'framing' attribute specified for socket event source: " + type);
+	}
+	return factory.getBeanDefinition();
+    }
+
     /**
      * Parse a polling REST event source.
      * 
@@ -821,6 +1001,26 @@ public class EventSourcesParser extends AbstractBeanDefinitionParser {
 	    builder.addPropertyValue("pollIntervalMs", pollIntervalMs.getValue());
 	}
 
+	Attr maxPollIntervalMs = element.getAttributeNode("maxPollIntervalMs");
+	if (maxPollIntervalMs != null) {
+	    builder.addPropertyValue("maxPollIntervalMs", maxPollIntervalMs.getValue());
+	}
+
+	Attr backoffMultiplier = element.getAttributeNode("backoffMultiplier");
+	if (backoffMultiplier != null) {
+	    builder.addPropertyValue("backoffMultiplier", backoffMultiplier.getValue());
+	}
+
+	Attr maxConcurrentPolls = element.getAttributeNode("maxConcurrentPolls");
+	if (maxConcurrentPolls != null) {
+	    builder.addPropertyValue("maxConcurrentPolls", maxConcurrentPolls.getValue());
+	}
+
+	Attr endpoints = element.getAttributeNode("endpoints");
+	if (endpoints != null) {
+	    builder.addPropertyValue("endpoints", endpoints.getValue());
+	}
+
 	Attr scriptId = element.getAttributeNode("scriptId");
 	if (scriptId != null) {
 	    builder.addPropertyValue("scriptId", scriptId.getValue());
@@ -917,6 +1117,36 @@ public class EventSourcesParser extends AbstractBeanDefinitionParser {
 	    receiver.addPropertyValue("webSocketUrl", webSocketUrl.getValue());
 	}
 
+	Attr serverPort = element.getAttributeNode("serverPort");
+	if (serverPort != null) {
+	    receiver.addPropertyValue("serverPort", serverPort.getValue());
+	}
+
+	Attr serverPath = element.getAttributeNode("serverPath");
+	if (serverPath != null) {
+	    receiver.addPropertyValue("serverPath", serverPath.getValue());
+	}
+
+	Attr numThreads = element.getAttributeNode("numThreads");
+	if (numThreads != null) {
+	    receiver.addPropertyValue("numThreads", numThreads.getValue());
+	}
+
+	Attr queueCapacity = element.getAttributeNode("queueCapacity");
+	if (queueCapacity != null) {
+	    receiver.addPropertyValue("queueCapacity", queueCapacity.getValue());
+	}
+
+	Attr initialReconnectDelayMs = element.getAttributeNode("initialReconnectDelayMs");
+	if (initialReconnectDelayMs != null) {
+	    receiver.addPropertyValue("initialReconnectDelayMs", initialReconnectDelayMs.getValue());
+	}
+
+	Attr maxReconnectDelayMs = element.getAttributeNode("maxReconnectDelayMs");
+	if (maxReconnectDelayMs != null) {
+	    receiver.addPropertyValue("maxReconnectDelayMs", maxReconnectDelayMs.getValue());
+	}
+
 	List<Element> children = DomUtils.getChildElements(element);
 	Map<String, String> headers = new HashMap<String, String>();
 	for (Element child : children) {
@@ -1013,6 +1243,10 @@ public class EventSourcesParser extends AbstractBeanDefinitionParser {
 		decoder = parseJsonDeviceRequestDecoder(parent, child, context);
 		break;
 	    }
+	    case JsonStreamingDeviceRequestDecoder: {
+		decoder = parseJsonStreamingDeviceRequestDecoder(parent, child, context);
+		break;
+	    }
 	    case JsonBatchEventDecoder: {
 		decoder = parseJsonBatchDecoder(parent, child, context);
 		break;
@@ -1100,6 +1334,21 @@ public class EventSourcesParser extends AbstractBeanDefinitionParser {
 	return builder.getBeanDefinition();
     }
 
+    /**
+     * Create parser for SiteWhere JSON format that uses a streaming parser.
+     * 
+     * @param parent
+     * @param decoder
+     * @param context
+     * @return
+     */
+    protected AbstractBeanDefinition parseJsonStreamingDeviceRequestDecoder(Element parent, Element decoder,
+	    ParserContext context) {
+	BeanDefinitionBuilder builder = BeanDefinitionBuilder
+		.rootBeanDefinition(JsonStreamingDeviceRequestDecoder.class);
+	return builder.getBeanDefinition();
+    }
+
     /**
      * Create parser for JSON batch event format.
      * 
@@ -7,85 +7,30 @@
  */
 package com.sitewhere.sources.websocket;
 
-import javax.websocket.CloseReason;
-import javax.websocket.Endpoint;
-import javax.websocket.EndpointConfig;
 import javax.websocket.MessageHandler;
 import javax.websocket.Session;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
-import com.sitewhere.sources.spi.IInboundEventReceiver;
-
 /**
  * Implementation of {@link WebSocketEventReceiver} that operates on String
- * payloads.
+ * payloads. Byte metrics count characters for String frames.
  * 
  * @author Derek
  */
 public class StringWebSocketEventReceiver extends WebSocketEventReceiver<String> {
 
-    /** Static logger instance */
-    private static Log LOGGER = LogFactory.getLog(StringWebSocketEventReceiver.class);
-
     /*
-     * (non-Javadoc)
-     * 
-     * @see com.sitewhere.device.communication.websocket.WebSocketEventReceiver#
-     * getWebSocketClientClass()
+     * @see
+     * com.sitewhere.sources.websocket.WebSocketEventReceiver#createMessageHandler(
+     * javax.websocket.Session)
      */
     @Override
-    public Class<? extends Endpoint> getWebSocketClientClass() {
-	return StringWebSocketClient.class;
-    }
-
-    /**
-     * Implementation of {@link Endpoint} that operates on String payloads.
-     * 
-     * @author Derek
-     */
-    public static class StringWebSocketClient extends Endpoint {
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see javax.websocket.Endpoint#onOpen(javax.websocket.Session,
-	 * javax.websocket.EndpointConfig)
-	 */
-	@Override
-	public void onOpen(Session session, final EndpointConfig config) {
-	    session.addMessageHandler(new MessageHandler.Whole<String>() {
-
-		@SuppressWarnings("unchecked")
-		public void onMessage(String payload) {
-		    IInboundEventReceiver<String> receiver = (IInboundEventReceiver<String>) config.getUserProperties()
-			    .get(WebSocketEventReceiver.PROP_EVENT_RECEIVER);
-		    receiver.onEventPayloadReceived(payload, null);
-		}
-	    });
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see javax.websocket.Endpoint#onClose(javax.websocket.Session,
-	 * javax.websocket.CloseReason)
-	 */
-	@Override
-	public void onClose(Session session, CloseReason closeReason) {
-	    LOGGER.info("Web socket closed.");
-	}
-
-	/*
-	 * (non-Javadoc)
-	 * 
-	 * @see javax.websocket.Endpoint#onError(javax.websocket.Session,
-	 * java.lang.Throwable)
-	 */
-	@Override
-	public void onError(Session session, Throwable e) {
-	    LOGGER.error("Web socket error.", e);
-	}
+    public MessageHandler createMessageHandler(final Session session) {
+	return new MessageHandler.Whole<String>() {
+
+	    @Override
+	    public void onMessage(String payload) {
+		onFrameReceived(session, payload, payload.length());
+	    }
+	};
     }
-}
\ No newline at end of file
+}
@@ -9,24 +9,52 @@ package com.sitewhere.sources.websocket;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.websocket.ClientEndpointConfig;
+import javax.websocket.CloseReason;
 import javax.websocket.ContainerProvider;
 import javax.websocket.DeploymentException;
 import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.MessageHandler;
 import javax.websocket.Session;
 import javax.websocket.WebSocketContainer;
+import javax.websocket.server.ServerEndpointConfig;
 
+import org.glassfish.tyrus.spi.ServerContainer;
+import org.glassfish.tyrus.spi.ServerContainerFactory;
+
+import com.codahale.metrics.Meter;
 import com.sitewhere.sources.InboundEventReceiver;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 
 /**
- * Event receiver that pulls data from a web socket.
+ * Event receiver that ingests data over web sockets. Connects as a client to
+ * one or more web socket URLs, reconnecting with exponential backoff when a
+ * connection drops, and optionally runs an embedded server that devices connect
+ * to directly. Each URL has its own connect thread, so a handshake that hangs
+ * does not delay connections to other URLs. Frames from all sessions are
+ * decoded on a shared thread pool. At most <code>queueCapacity</code> frames
+ * may be waiting to be decoded; when the limit is reached the socket thread
+ * blocks, which stops reading from the connection until the decoders catch up.
+ * 
+ * Session metrics are grouped under <code>sessions.client.[index]</code> for
+ * client connections and <code>sessions.server.[session id]</code> for server
+ * connections, using the same meter names as the receiver totals.
  * 
  * @author Derek
  *
@@ -34,24 +62,95 @@ import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
  */
 public abstract class WebSocketEventReceiver<T> extends InboundEventReceiver<T> {
 
-    /** User property that references the event reciever */
-    public static final String PROP_EVENT_RECEIVER = "sw.event.receiver";
+    /** User property that references the client connection for a session */
+    public static final String PROP_CLIENT_CONNECTION = "sw.client.connection";
+
+    /** User property that references the metrics for a session */
+    public static final String PROP_SESSION_METRICS = "sw.session.metrics";
+
+    /** Context path for embedded server */
+    public static final String SERVER_ROOT_PATH = "/sitewhere";
+
+    /** Default path of endpoint on embedded server */
+    public static final String DEFAULT_SERVER_PATH = "/events";
+
+    /** Default number of decoder threads */
+    public static final int DEFAULT_NUM_THREADS = 5;
 
-    /** Web socket session */
-    private Session session;
+    /** Default number of frames waiting to be decoded */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
 
-    /** Web socket URL to connect to */
+    /** Default delay before first reconnect attempt */
+    public static final int DEFAULT_INITIAL_RECONNECT_DELAY_MS = 1000;
+
+    /** Default maximum delay between reconnect attempts */
+    public static final int DEFAULT_MAX_RECONNECT_DELAY_MS = 60000;
+
+    /** Comma-separated list of web socket URLs to connect to */
     private String webSocketUrl;
 
     /** Headers passed in web socket configuration */
     private Map<String, String> headers = new HashMap<String, String>();
 
+    /** Port for embedded server (no server if not set) */
+    private Integer serverPort;
+
+    /** Path of endpoint on embedded server */
+    private String serverPath = DEFAULT_SERVER_PATH;
+
+    /** Number of decoder threads */
+    private int numThreads = DEFAULT_NUM_THREADS;
+
+    /** Number of frames waiting to be decoded */
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    /** Delay before first reconnect attempt */
+    private int initialReconnectDelayMs = DEFAULT_INITIAL_RECONNECT_DELAY_MS;
+
+    /** Maximum delay between reconnect attempts */
+    private int maxReconnectDelayMs = DEFAULT_MAX_RECONNECT_DELAY_MS;
+
+    /** Container used for client connections */
+    private WebSocketContainer container;
+
+    /** Client connections */
+    private List<ClientConnection> clients = new ArrayList<ClientConnection>();
+
+    /** Embedded server */
+    private ServerContainer server;
+
+    /** Decodes received frames */
+    private ExecutorService decodersExecutor;
+
+    /** Runs connect and reconnect attempts with one thread per URL */
+    private ScheduledExecutorService reconnectExecutor;
+
+    /** Limits number of frames received but not yet decoded */
+    private Semaphore available;
+
+    /** Indicates whether receiver is running */
+    private volatile boolean running;
+
+    /** Meter for received messages */
+    private Meter receivedMessages;
+
+    /** Meter for received bytes */
+    private Meter receivedBytes;
+
+    /** Meter for messages that could not be processed */
+    private Meter errors;
+
+    /** Meter for reconnect attempts */
+    private Meter reconnects;
+
     /**
-     * Get concrete {@link Endpoint} implementation class.
+     * Create handler that passes frames for a session to
+     * {@link #onFrameReceived(Session, Object, int)}.
      * 
+     * @param session
      * @return
      */
-    public abstract Class<? extends Endpoint> getWebSocketClientClass();
+    public abstract MessageHandler createMessageHandler(Session session);
 
     /*
      * (non-Javadoc)
@@ -62,16 +161,64 @@ public abstract class WebSocketEventReceiver<T> extends InboundEventReceiver<T>
      */
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
-	WebSocketContainer container = ContainerProvider.getWebSocketContainer();
-	ClientEndpointConfig config = ClientEndpointConfig.Builder.create().configurator(new WebSocketConfigurator())
-		.build();
-	config.getUserProperties().put(PROP_EVENT_RECEIVER, this);
+	List<URI> uris = getWebSocketUris();
+	if (uris.isEmpty() && (getServerPort() == null)) {
+	    throw new SiteWhereException("Web socket receiver requires a URL to connect to or a server port.");
+	}
+	this.running = true;
+	this.decodersExecutor = Executors.newFixedThreadPool(getNumThreads(), new DecodersThreadFactory());
+	this.reconnectExecutor = Executors.newScheduledThreadPool(Math.max(1, uris.size()),
+		new ReconnectThreadFactory());
+	this.available = new Semaphore(getQueueCapacity());
+
+	// Set up metrics.
+	this.receivedMessages = createMeterMetric(getMetricPrefix() + WebSocketSessionMetrics.RECEIVED_MESSAGES);
+	this.receivedBytes = createMeterMetric(getMetricPrefix() + WebSocketSessionMetrics.RECEIVED_BYTES);
+	this.errors = createMeterMetric(getMetricPrefix() + WebSocketSessionMetrics.ERRORS);
+	this.reconnects = createMeterMetric(getMetricPrefix() + "reconnects");
+
+	if (getServerPort() != null) {
+	    startServer();
+	}
+
+	// Connect clients in the background so an unavailable URL does not block
+	// startup or connections to other URLs.
+	if (!uris.isEmpty()) {
+	    this.container = ContainerProvider.getWebSocketContainer();
+	    this.clients = new ArrayList<ClientConnection>();
+	    for (URI uri : uris) {
+		ClientConnection client = new ClientConnection(uri, clients.size());
+		clients.add(client);
+		reconnectExecutor.execute(client);
+	    }
+	}
+    }
+
+    /**
+     * Start embedded server that accepts device connections.
+     * 
+     * @throws SiteWhereException
+     */
+    protected void startServer() throws SiteWhereException {
+	ServerEndpointConfig config = ServerEndpointConfig.Builder.create(IngestEndpoint.class, getServerPath())
+		.configurator(new ServerEndpointConfig.Configurator() {
+
+		    @Override
+		    @SuppressWarnings("unchecked")
+		    public <E> E getEndpointInstance(Class<E> endpointClass) throws InstantiationException {
+			return (E) new IngestEndpoint();
+		    }
+		}).build();
 	try {
-	    session = container.connectToServer(getWebSocketClientClass(), config, URI.create(getWebSocketUrl()));
+	    this.server = ServerContainerFactory.createServerContainer(new HashMap<String, Object>());
+	    server.addEndpoint(config);
+	    server.start(SERVER_ROOT_PATH, getServerPort());
+	    getLogger().info("Web socket server listening on port " + getServerPort() + " at '" + SERVER_ROOT_PATH
+		    + getServerPath() + "'.");
 	} catch (DeploymentException e) {
-	    throw new SiteWhereException("Unable to connect to web socket.", e);
+	    throw new SiteWhereException("Unable to start web socket server.", e);
 	} catch (IOException e) {
-	    throw new SiteWhereException("Unable to connect to web socket.", e);
+	    throw new SiteWhereException("Unable to start web socket server.", e);
 	}
     }
 
@@ -84,11 +231,94 @@ public abstract class WebSocketEventReceiver<T> extends InboundEventReceiver<T>
      */
     @Override
     public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	this.running = false;
+	if (reconnectExecutor != null) {
+	    reconnectExecutor.shutdownNow();
+	}
+	for (ClientConnection client : clients) {
+	    client.close();
+	}
+	if (server != null) {
+	    server.stop();
+	    server = null;
+	}
+	if (decodersExecutor != null) {
+	    decodersExecutor.shutdown();
+	    try {
+		decodersExecutor.awaitTermination(5, TimeUnit.SECONDS);
+	    } catch (InterruptedException e) {
+		getLogger().warn("Interrupted while waiting for web socket decoders to finish.");
+	    }
+	    decodersExecutor.shutdownNow();
+	}
+    }
+
+    /**
+     * Called on the socket thread when a frame is received. Blocks while the
+     * decode queue is full.
+     * 
+     * @param session
+     * @param payload
+     * @param size
+     */
+    protected void onFrameReceived(Session session, T payload, int size) {
+	WebSocketSessionMetrics metrics = (WebSocketSessionMetrics) session.getUserProperties()
+		.get(PROP_SESSION_METRICS);
+	receivedMessages.mark();
+	receivedBytes.mark(size);
+	if (metrics != null) {
+	    metrics.getReceivedMessages().mark();
+	    metrics.getReceivedBytes().mark(size);
+	}
 	try {
-	    session.close();
-	} catch (IOException e) {
-	    getLogger().error("IOException closing web socket: ", e);
+	    available.acquire();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    return;
 	}
+	try {
+	    decodersExecutor.execute(new FrameProcessor(payload, metrics));
+	} catch (RejectedExecutionException e) {
+	    available.release();
+	}
+    }
+
+    /**
+     * Get list of URLs to connect to.
+     * 
+     * @return
+     */
+    protected List<URI> getWebSocketUris() {
+	List<URI> uris = new ArrayList<URI>();
+	if (getWebSocketUrl() != null) {
+	    for (String url : getWebSocketUrl().split(",")) {
+		if (url.trim().length() > 0) {
+		    uris.add(URI.create(url.trim()));
+		}
+	    }
+	}
+	return uris;
+    }
+
+    /**
+     * Get prefix appended to metrics.
+     * 
+     * @return
+     */
+    protected String getMetricPrefix() {
+	return getEventSource().getSourceId() + ".WebSocketEventReceiver.";
+    }
+
+    /**
+     * Get prefix appended to metrics for a single session.
+     * 
+     * @param session
+     * @return
+     */
+    protected String getSessionMetricPrefix(Session session) {
+	ClientConnection client = (ClientConnection) session.getUserProperties().get(PROP_CLIENT_CONNECTION);
+	String name = (client != null) ? ("client." + client.getIndex()) : ("server." + session.getId());
+	return getTenentMetricPrefix() + getMetricPrefix() + "sessions." + name + ".";
     }
 
     /*
@@ -99,7 +329,222 @@ public abstract class WebSocketEventReceiver<T> extends InboundEventReceiver<T>
      */
     @Override
     public String getDisplayName() {
-	return "WebSocket()";
+	String urls = (getWebSocketUrl() != null) ? getWebSocketUrl() : "";
+	String port = (getServerPort() != null) ? (":" + getServerPort()) : "";
+	return "WebSocket(" + urls + ((urls.length() > 0 && port.length() > 0) ? "," : "") + port + ")";
+    }
+
+    /**
+     * Endpoint used for both client and server sessions.
+     * 
+     * @author Derek
+     */
+    public class IngestEndpoint extends Endpoint {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.websocket.Endpoint#onOpen(javax.websocket.Session,
+	 * javax.websocket.EndpointConfig)
+	 */
+	@Override
+	public void onOpen(Session session, EndpointConfig config) {
+	    ClientConnection client = (ClientConnection) config.getUserProperties().get(PROP_CLIENT_CONNECTION);
+	    if (client != null) {
+		session.getUserProperties().put(PROP_CLIENT_CONNECTION, client);
+	    }
+	    WebSocketSessionMetrics metrics = new WebSocketSessionMetrics(
+		    getTenantEngine().getMicroservice().getMetricRegistry(), getSessionMetricPrefix(session));
+	    session.getUserProperties().put(PROP_SESSION_METRICS, metrics);
+	    session.addMessageHandler(createMessageHandler(session));
+	    getLogger().info("Web socket session opened (" + metrics.getPrefix() + ").");
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.websocket.Endpoint#onClose(javax.websocket.Session,
+	 * javax.websocket.CloseReason)
+	 */
+	@Override
+	public void onClose(Session session, CloseReason closeReason) {
+	    WebSocketSessionMetrics metrics = (WebSocketSessionMetrics) session.getUserProperties()
+		    .get(PROP_SESSION_METRICS);
+	    if (metrics != null) {
+		metrics.remove();
+	    }
+	    getLogger().info("Web socket closed: " + closeReason.getCloseCode() + " " + closeReason.getReasonPhrase());
+	    ClientConnection client = (ClientConnection) session.getUserProperties().get(PROP_CLIENT_CONNECTION);
+	    if (client != null) {
+		client.onClosed();
+	    }
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see javax.websocket.Endpoint#onError(javax.websocket.Session,
+	 * java.lang.Throwable)
+	 */
+	@Override
+	public void onError(Session session, Throwable e) {
+	    errors.mark();
+	    WebSocketSessionMetrics metrics = (WebSocketSessionMetrics) session.getUserProperties()
+		    .get(PROP_SESSION_METRICS);
+	    if (metrics != null) {
+		metrics.getErrors().mark();
+	    }
+	    getLogger().error("Web socket error.", e);
+	}
+    }
+
+    /**
+     * Maintains a client connection to a web socket URL, reconnecting with
+     * exponential backoff when the connection fails or is closed.
+     * 
+     * @author Derek
+     */
+    private class ClientConnection implements Runnable {
+
+	/** URL to connect to */
+	private URI uri;
+
+	/** Index used in metric names */
+	private int index;
+
+	/** Current session */
+	private volatile Session session;
+
+	/** Delay before next reconnect attempt */
+	private long delayMs = getInitialReconnectDelayMs();
+
+	public ClientConnection(URI uri, int index) {
+	    this.uri = uri;
+	    this.index = index;
+	}
+
+	/*
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+	    if (!running) {
+		return;
+	    }
+	    ClientEndpointConfig config = ClientEndpointConfig.Builder.create()
+		    .configurator(new WebSocketConfigurator()).build();
+	    config.getUserProperties().put(PROP_CLIENT_CONNECTION, this);
+	    try {
+		session = container.connectToServer(new IngestEndpoint(), config, uri);
+		delayMs = getInitialReconnectDelayMs();
+		getLogger().info("Connected to web socket at '" + uri + "'.");
+	    } catch (DeploymentException | IOException e) {
+		getLogger().warn("Unable to connect to web socket at '" + uri + "'. Retrying in " + delayMs + "ms.",
+			e);
+		scheduleReconnect();
+	    }
+	}
+
+	/**
+	 * Called when the session is closed.
+	 */
+	public void onClosed() {
+	    session = null;
+	    if (running) {
+		getLogger().info("Web socket at '" + uri + "' disconnected. Reconnecting in " + delayMs + "ms.");
+		scheduleReconnect();
+	    }
+	}
+
+	/**
+	 * Schedule a reconnect attempt and increase delay for the next one.
+	 */
+	protected void scheduleReconnect() {
+	    if (!running) {
+		return;
+	    }
+	    reconnects.mark();
+	    try {
+		reconnectExecutor.schedule(this, delayMs, TimeUnit.MILLISECONDS);
+	    } catch (RejectedExecutionException e) {
+		return;
+	    }
+	    delayMs = Math.min(getMaxReconnectDelayMs(), delayMs * 2);
+	}
+
+	/**
+	 * Close current session.
+	 */
+	public void close() {
+	    Session current = session;
+	    if (current != null) {
+		try {
+		    current.close();
+		} catch (IOException e) {
+		    getLogger().error("IOException closing web socket: ", e);
+		}
+	    }
+	}
+
+	public int getIndex() {
+	    return index;
+	}
+    }
+
+    /**
+     * Decodes a single frame.
+     * 
+     * @author Derek
+     */
+    private class FrameProcessor implements Runnable {
+
+	/** Frame payload */
+	private T payload;
+
+	/** Metrics for originating session */
+	private WebSocketSessionMetrics metrics;
+
+	public FrameProcessor(T payload, WebSocketSessionMetrics metrics) {
+	    this.payload = payload;
+	    this.metrics = metrics;
+	}
+
+	@Override
+	public void run() {
+	    try {
+		onEventPayloadReceived(payload, null);
+	    } catch (Throwable e) {
+		errors.mark();
+		if (metrics != null) {
+		    metrics.getErrors().mark();
+		}
+		getLogger().error("Error processing web socket payload.", e);
+	    } finally {
+		available.release();
+	    }
+	}
+    }
+
+    /** Used for naming connect threads */
+    private class ReconnectThreadFactory implements ThreadFactory {
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public Thread newThread(Runnable r) {
+	    return new Thread(r, "SiteWhere WebSocket Connect " + counter.incrementAndGet());
+	}
+    }
+
+    /** Used for naming decoder threads */
+    private class DecodersThreadFactory implements ThreadFactory {
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public Thread newThread(Runnable r) {
+	    return new Thread(r, "SiteWhere WebSocket Decoder " + counter.incrementAndGet());
+	}
     }
 
     /**
@@ -133,4 +578,52 @@ public abstract class WebSocketEventReceiver<T> extends InboundEventReceiver<T>
     public void setHeaders(Map<String, String> headers) {
 	this.headers = headers;
     }
-}
\ No newline at end of file
+
+    public Integer getServerPort() {
+	return serverPort;
+    }
+
+    public void setServerPort(Integer serverPort) {
+	this.serverPort = serverPort;
+    }
+
+    public String getServerPath() {
+	return serverPath;
+    }
+
+    public void setServerPath(String serverPath) {
+	this.serverPath = serverPath;
+    }
+
+    public int getNumThreads() {
+	return numThreads;
+    }
+
+    public void setNumThreads(int numThreads) {
+	this.numThreads = numThreads;
+    }
+
+    public int getQueueCapacity() {
+	return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+	this.queueCapacity = queueCapacity;
+    }
+
+    public int getInitialReconnectDelayMs() {
+	return initialReconnectDelayMs;
+    }
+
+    public void setInitialReconnectDelayMs(int initialReconnectDelayMs) {
+	this.initialReconnectDelayMs = initialReconnectDelayMs;
+    }
+
+    public int getMaxReconnectDelayMs() {
+	return maxReconnectDelayMs;
+    }
+
+    public void setMaxReconnectDelayMs(int maxReconnectDelayMs) {
+	this.maxReconnectDelayMs = maxReconnectDelayMs;
+    }
+}
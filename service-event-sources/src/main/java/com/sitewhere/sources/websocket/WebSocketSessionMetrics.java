@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.websocket;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Meters tracked for a single web socket session. Meters are registered when
+ * the session opens and removed when it closes so that short-lived device
+ * connections do not accumulate in the registry.
+ * 
+ * @author Derek
+ */
+public class WebSocketSessionMetrics {
+
+    /** Name of meter for received messages */
+    public static final String RECEIVED_MESSAGES = "receivedMessages";
+
+    /** Name of meter for received bytes */
+    public static final String RECEIVED_BYTES = "receivedBytes";
+
+    /** Name of meter for messages that could not be processed */
+    public static final String ERRORS = "errors";
+
+    /** Registry meters are stored in */
+    private MetricRegistry registry;
+
+    /** Prefix for meter names */
+    private String prefix;
+
+    /** Meter for received messages */
+    private Meter receivedMessages;
+
+    /** Meter for received bytes */
+    private Meter receivedBytes;
+
+    /** Meter for messages that could not be processed */
+    private Meter errors;
+
+    public WebSocketSessionMetrics(MetricRegistry registry, String prefix) {
+	this.registry = registry;
+	this.prefix = prefix;
+	this.receivedMessages = registry.meter(prefix + RECEIVED_MESSAGES);
+	this.receivedBytes = registry.meter(prefix + RECEIVED_BYTES);
+	this.errors = registry.meter(prefix + ERRORS);
+    }
+
+    /**
+     * Remove meters from the registry.
+     */
+    public void remove() {
+	registry.remove(prefix + RECEIVED_MESSAGES);
+	registry.remove(prefix + RECEIVED_BYTES);
+	registry.remove(prefix + ERRORS);
+    }
+
+    public String getPrefix() {
+	return prefix;
+    }
+
+    public Meter getReceivedMessages() {
+	return receivedMessages;
+    }
+
+    public Meter getReceivedBytes() {
+	return receivedBytes;
+    }
+
+    public Meter getErrors() {
+	return errors;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.sources.decoder.composite;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.sitewhere.rest.model.device.DeviceType;
+import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent;
+import com.sitewhere.sources.spi.ICompositeDeviceEventDecoder.IDecoderChoice;
+import com.sitewhere.sources.spi.ICompositeDeviceEventDecoder.IDeviceContext;
+import com.sitewhere.sources.spi.IDeviceEventDecoder;
+import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
+
+/**
+ * Verifies that {@link DecoderDispatchTable} picks the same choice as scanning
+ * the choice list in order.
+ * 
+ * @author Derek
+ */
+public class DecoderDispatchTableTest {
+
+    /** Device type tokens used in contexts */
+    private static final List<String> DEVICE_TYPES = Arrays.asList("t1", "t2", "t3", "unknown");
+
+    /** Payload markers used in contexts */
+    private static final List<Byte> MARKERS = Arrays.asList((byte) 0, (byte) 1, (byte) 2);
+
+    @Test
+    public void testDeviceTypeChoicesOnly() {
+	List<IDecoderChoice<byte[]>> choices = Arrays.asList(typed("t1"), typed("t2"), typed("t1"));
+	DecoderDispatchTable<byte[]> table = new DecoderDispatchTable<byte[]>(choices);
+	assertSame(choices.get(0), table.resolve(context("t1", (byte) 0)));
+	assertSame(choices.get(1), table.resolve(context("t2", (byte) 0)));
+	assertNull(table.resolve(context("t3", (byte) 0)));
+	assertMatchesLinearScan(choices);
+    }
+
+    @Test
+    public void testPayloadChoiceBeforeDeviceTypeChoice() {
+	List<IDecoderChoice<byte[]>> choices = Arrays.asList(typed("t2"), payload((byte) 1), typed("t1"));
+	DecoderDispatchTable<byte[]> table = new DecoderDispatchTable<byte[]>(choices);
+	assertSame(choices.get(1), table.resolve(context("t1", (byte) 1)));
+	assertSame(choices.get(2), table.resolve(context("t1", (byte) 0)));
+	assertSame(choices.get(0), table.resolve(context("t2", (byte) 1)));
+	assertMatchesLinearScan(choices);
+    }
+
+    @Test
+    public void testRandomChoiceLists() {
+	Random random = new Random(42);
+	for (int run = 0; run < 500; run++) {
+	    List<IDecoderChoice<byte[]>> choices = new ArrayList<IDecoderChoice<byte[]>>();
+	    int size = 1 + random.nextInt(8);
+	    for (int i = 0; i < size; i++) {
+		if (random.nextBoolean()) {
+		    choices.add(typed(DEVICE_TYPES.get(random.nextInt(DEVICE_TYPES.size() - 1))));
+		} else {
+		    choices.add(payload(MARKERS.get(random.nextInt(MARKERS.size()))));
+		}
+	    }
+	    assertMatchesLinearScan(choices);
+	}
+    }
+
+    /**
+     * Compare table resolution with a linear scan for every combination of
+     * device type and payload. Also checks that device types reported as static
+     * resolve to the same choice regardless of payload.
+     * 
+     * @param choices
+     */
+    protected static void assertMatchesLinearScan(List<IDecoderChoice<byte[]>> choices) {
+	DecoderDispatchTable<byte[]> table = new DecoderDispatchTable<byte[]>(choices);
+	for (String deviceType : DEVICE_TYPES) {
+	    IDecoderChoice<byte[]> first = null;
+	    for (Byte marker : MARKERS) {
+		IDeviceContext<byte[]> context = context(deviceType, marker);
+		IDecoderChoice<byte[]> expected = scan(choices, context);
+		assertSame(choices + " " + deviceType + "/" + marker, expected, table.resolve(context));
+		if (table.isStatic(deviceType)) {
+		    if (marker == MARKERS.get(0)) {
+			first = expected;
+		    }
+		    assertSame(choices + " " + deviceType + " static", first, expected);
+		}
+	    }
+	}
+    }
+
+    /**
+     * Find the first choice that applies by scanning the list.
+     * 
+     * @param choices
+     * @param context
+     * @return
+     */
+    protected static IDecoderChoice<byte[]> scan(List<IDecoderChoice<byte[]>> choices,
+	    IDeviceContext<byte[]> context) {
+	for (IDecoderChoice<byte[]> choice : choices) {
+	    if (choice.appliesTo(context)) {
+		return choice;
+	    }
+	}
+	return null;
+    }
+
+    protected static IDeviceContext<byte[]> context(String deviceTypeToken, byte marker) {
+	DeviceType deviceType = new DeviceType();
+	deviceType.setToken(deviceTypeToken);
+	BinaryDeviceContext context = new BinaryDeviceContext();
+	context.setDeviceType(deviceType);
+	context.setPayload(new byte[] { marker });
+	return context;
+    }
+
+    protected static IDecoderChoice<byte[]> typed(String deviceTypeToken) {
+	DeviceTypeDecoderChoice<byte[]> choice = new DeviceTypeDecoderChoice<byte[]>();
+	choice.setDeviceTypeToken(deviceTypeToken);
+	return choice;
+    }
+
+    protected static IDecoderChoice<byte[]> payload(byte marker) {
+	return new PayloadDecoderChoice(marker);
+    }
+
+    /**
+     * Choice that depends on the message payload rather than the device type.
+     * 
+     * @author Derek
+     */
+    private static class PayloadDecoderChoice extends TenantEngineLifecycleComponent
+	    implements IDecoderChoice<byte[]> {
+
+	/** First payload byte to match */
+	private byte marker;
+
+	public PayloadDecoderChoice(byte marker) {
+	    super(LifecycleComponentType.DeviceEventDecoder);
+	    this.marker = marker;
+	}
+
+	/*
+	 * @see com.sitewhere.sources.spi.ICompositeDeviceEventDecoder.IDecoderChoice#
+	 * appliesTo(com.sitewhere.sources.spi.ICompositeDeviceEventDecoder.
+	 * IDeviceContext)
+	 */
+	@Override
+	public boolean appliesTo(IDeviceContext<byte[]> criteria) {
+	    return criteria.getPayload()[0] == marker;
+	}
+
+	/*
+	 * @see com.sitewhere.sources.spi.ICompositeDeviceEventDecoder.IDecoderChoice#
+	 * getDeviceEventDecoder()
+	 */
+	@Override
+	public IDeviceEventDecoder<byte[]> getDeviceEventDecoder() {
+	    return null;
+	}
+
+	/*
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+	    return "payload(" + marker + ")";
+	}
+    }
+}
@@ -127,6 +127,11 @@ public class LabelGenerationModelProvider extends ConfigurationModelProvider {
 		ConfigurationModelProvider.ATTR_GROUP_GENERAL)
 			.description("Foreground color of QR-Code image in AARRGGBB format.").defaultValue("FF333333")
 			.build()));
+	builder.attribute((new AttributeNode.Builder("Rendered image cache size", "cacheSize", AttributeType.Integer,
+		ConfigurationModelProvider.ATTR_GROUP_GENERAL)
+			.description("Maximum number of rendered QR-Code images kept in memory. A value of zero "
+				+ "disables caching.")
+			.defaultValue("1000").build()));
 	return builder.build();
     }
 }
\ No newline at end of file
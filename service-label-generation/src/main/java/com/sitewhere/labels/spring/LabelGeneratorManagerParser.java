@@ -104,6 +104,11 @@ public class LabelGeneratorManagerParser extends AbstractBeanDefinitionParser {
 	    generator.addPropertyValue("foregroundColor", foregroundColor.getValue());
 	}
 
+	Attr cacheSize = element.getAttributeNode("cacheSize");
+	if (cacheSize != null) {
+	    generator.addPropertyValue("cacheSize", cacheSize.getValue());
+	}
+
 	return generator.getBeanDefinition();
     }
 }
@@ -23,6 +23,7 @@ import com.sitewhere.spi.device.IDeviceType;
 import com.sitewhere.spi.device.group.IDeviceGroup;
 import com.sitewhere.spi.label.IEntityUriProvider;
 import com.sitewhere.spi.label.ILabelGenerator;
+import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
 
 import net.glxn.qrgen.core.image.ImageType;
@@ -54,10 +55,40 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
     /** Background color */
     private int backgroundColor = 0xffffffff;
 
+    /** Maximum number of rendered labels to cache (0 disables caching) */
+    private int cacheSize = RenderedLabelCache.DEFAULT_MAX_ENTRIES;
+
+    /** Cache of rendered labels */
+    private RenderedLabelCache cache;
+
     public QrCodeGenerator() {
 	super(LifecycleComponentType.LabelGenerator);
     }
 
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#start(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	this.cache = (getCacheSize() > 0) ? new RenderedLabelCache(getCacheSize()) : null;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#stop(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	if (cache != null) {
+	    getLogger().info("Label cache for '" + getId() + "' had " + cache.getHits() + " hits, "
+		    + cache.getMisses() + " misses and " + cache.getEvictions() + " evictions.");
+	    cache.clear();
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.spi.label.ILabelGenerator#getCustomerTypeLabel(com.sitewhere.
@@ -67,8 +98,7 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
     public byte[] getCustomerTypeLabel(ICustomerType customerType, IEntityUriProvider provider)
 	    throws SiteWhereException {
 	URI uri = provider.getCustomerTypeIdentifier(customerType);
-	return QRCode.from(uri.toString()).withSize(getWidth(), getHeight())
-		.withColor(getForegroundColor(), getBackgroundColor()).to(ImageType.PNG).stream().toByteArray();
+	return render(uri);
     }
 
     /*
@@ -79,8 +109,7 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
     @Override
     public byte[] getCustomerLabel(ICustomer customer, IEntityUriProvider provider) throws SiteWhereException {
 	URI uri = provider.getCustomerIdentifier(customer);
-	return QRCode.from(uri.toString()).withSize(getWidth(), getHeight())
-		.withColor(getForegroundColor(), getBackgroundColor()).to(ImageType.PNG).stream().toByteArray();
+	return render(uri);
     }
 
     /*
@@ -91,8 +120,7 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
     @Override
     public byte[] getAreaTypeLabel(IAreaType areaType, IEntityUriProvider provider) throws SiteWhereException {
 	URI uri = provider.getAreaTypeIdentifier(areaType);
-	return QRCode.from(uri.toString()).withSize(getWidth(), getHeight())
-		.withColor(getForegroundColor(), getBackgroundColor()).to(ImageType.PNG).stream().toByteArray();
+	return render(uri);
     }
 
     /*
@@ -103,8 +131,7 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
     @Override
     public byte[] getAreaLabel(IArea area, IEntityUriProvider provider) throws SiteWhereException {
 	URI uri = provider.getAreaIdentifier(area);
-	return QRCode.from(uri.toString()).withSize(getWidth(), getHeight())
-		.withColor(getForegroundColor(), getBackgroundColor()).to(ImageType.PNG).stream().toByteArray();
+	return render(uri);
     }
 
     /*
@@ -115,8 +142,7 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
     @Override
     public byte[] getDeviceTypeLabel(IDeviceType deviceType, IEntityUriProvider provider) throws SiteWhereException {
 	URI uri = provider.getDeviceTypeIdentifier(deviceType);
-	return QRCode.from(uri.toString()).withSize(getWidth(), getHeight())
-		.withColor(getForegroundColor(), getBackgroundColor()).to(ImageType.PNG).stream().toByteArray();
+	return render(uri);
     }
 
     /*
@@ -127,8 +153,7 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
     @Override
     public byte[] getDeviceLabel(IDevice device, IEntityUriProvider provider) throws SiteWhereException {
 	URI uri = provider.getDeviceIdentifier(device);
-	return QRCode.from(uri.toString()).withSize(getWidth(), getHeight())
-		.withColor(getForegroundColor(), getBackgroundColor()).to(ImageType.PNG).stream().toByteArray();
+	return render(uri);
     }
 
     /*
@@ -139,8 +164,7 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
     @Override
     public byte[] getDeviceGroupLabel(IDeviceGroup group, IEntityUriProvider provider) throws SiteWhereException {
 	URI uri = provider.getDeviceGroupIdentifier(group);
-	return QRCode.from(uri.toString()).withSize(getWidth(), getHeight())
-		.withColor(getForegroundColor(), getBackgroundColor()).to(ImageType.PNG).stream().toByteArray();
+	return render(uri);
     }
 
     /*
@@ -152,8 +176,7 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
     public byte[] getDeviceAssignmentLabel(IDeviceAssignment assignment, IEntityUriProvider provider)
 	    throws SiteWhereException {
 	URI uri = provider.getDeviceAssignmentIdentifier(assignment);
-	return QRCode.from(uri.toString()).withSize(getWidth(), getHeight())
-		.withColor(getForegroundColor(), getBackgroundColor()).to(ImageType.PNG).stream().toByteArray();
+	return render(uri);
     }
 
     /*
@@ -164,8 +187,7 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
     @Override
     public byte[] getAssetTypeLabel(IAssetType assetType, IEntityUriProvider provider) throws SiteWhereException {
 	URI uri = provider.getAssetTypeIdentifier(assetType);
-	return QRCode.from(uri.toString()).withSize(getWidth(), getHeight())
-		.withColor(getForegroundColor(), getBackgroundColor()).to(ImageType.PNG).stream().toByteArray();
+	return render(uri);
     }
 
     /*
@@ -176,8 +198,41 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
     @Override
     public byte[] getAssetLabel(IAsset asset, IEntityUriProvider provider) throws SiteWhereException {
 	URI uri = provider.getAssetIdentifier(asset);
-	return QRCode.from(uri.toString()).withSize(getWidth(), getHeight())
+	return render(uri);
+    }
+
+    /**
+     * Render a QR-Code image for the given URI, using cached content if the same
+     * label has already been rendered with the current settings.
+     * 
+     * @param uri
+     * @return
+     */
+    protected byte[] render(URI uri) {
+	String key = null;
+	if (cache != null) {
+	    key = RenderedLabelCache.createKey(getId(), uri.toString(), getRenderParameters());
+	    byte[] cached = cache.get(key);
+	    if (cached != null) {
+		return cached;
+	    }
+	}
+	byte[] content = QRCode.from(uri.toString()).withSize(getWidth(), getHeight())
 		.withColor(getForegroundColor(), getBackgroundColor()).to(ImageType.PNG).stream().toByteArray();
+	if (cache != null) {
+	    cache.put(key, content);
+	}
+	return content;
+    }
+
+    /**
+     * Get string representation of settings that affect rendered output.
+     * 
+     * @return
+     */
+    protected String getRenderParameters() {
+	return getWidth() + "x" + getHeight() + ":" + Integer.toHexString(getForegroundColor()) + ":"
+		+ Integer.toHexString(getBackgroundColor());
     }
 
     /*
@@ -238,6 +293,18 @@ public class QrCodeGenerator extends TenantEngineLifecycleComponent implements I
 	this.backgroundColor = parse(backgroundColor);
     }
 
+    public int getCacheSize() {
+	return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+	this.cacheSize = cacheSize;
+    }
+
+    public RenderedLabelCache getCache() {
+	return cache;
+    }
+
     /**
      * Parse an ARGB string into an integer.
      * 
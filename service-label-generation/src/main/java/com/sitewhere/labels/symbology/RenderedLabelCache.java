@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.labels.symbology;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded, least-recently-used cache of rendered label images. Keys are
+ * built from the generator id, the entity identifier encoded in the label and
+ * the parameters used for rendering, so a change to any of them results in a
+ * new entry rather than stale content.
+ * 
+ * @author Derek
+ */
+public class RenderedLabelCache {
+
+    /** Default maximum number of cached labels */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /** Cached label content indexed by key */
+    private Map<String, byte[]> entries;
+
+    /** Maximum number of cached labels */
+    private int maxEntries;
+
+    /** Number of cache hits */
+    private AtomicLong hits = new AtomicLong();
+
+    /** Number of cache misses */
+    private AtomicLong misses = new AtomicLong();
+
+    /** Number of entries evicted to stay within size limit */
+    private AtomicLong evictions = new AtomicLong();
+
+    public RenderedLabelCache() {
+	this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public RenderedLabelCache(int maxEntries) {
+	this.maxEntries = maxEntries;
+	this.entries = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+
+	    /** Serial version UID */
+	    private static final long serialVersionUID = -1786127011468251853L;
+
+	    /*
+	     * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
+	     */
+	    @Override
+	    protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+		if (size() > getMaxEntries()) {
+		    evictions.incrementAndGet();
+		    return true;
+		}
+		return false;
+	    }
+	};
+    }
+
+    /**
+     * Build a cache key.
+     * 
+     * @param generatorId
+     * @param entityIdentifier
+     * @param renderParameters
+     * @return
+     */
+    public static String createKey(String generatorId, String entityIdentifier, String renderParameters) {
+	return generatorId + "|" + entityIdentifier + "|" + renderParameters;
+    }
+
+    /**
+     * Get cached label content. Returns null if not cached.
+     * 
+     * @param key
+     * @return
+     */
+    public byte[] get(String key) {
+	byte[] content;
+	synchronized (entries) {
+	    content = entries.get(key);
+	}
+	if (content != null) {
+	    hits.incrementAndGet();
+	} else {
+	    misses.incrementAndGet();
+	}
+	return content;
+    }
+
+    /**
+     * Add rendered label content to the cache.
+     * 
+     * @param key
+     * @param content
+     */
+    public void put(String key, byte[] content) {
+	synchronized (entries) {
+	    entries.put(key, content);
+	}
+    }
+
+    /**
+     * Remove all cached labels.
+     */
+    public void clear() {
+	synchronized (entries) {
+	    entries.clear();
+	}
+    }
+
+    public int getSize() {
+	synchronized (entries) {
+	    return entries.size();
+	}
+    }
+
+    public int getMaxEntries() {
+	return maxEntries;
+    }
+
+    public long getHits() {
+	return hits.get();
+    }
+
+    public long getMisses() {
+	return misses.get();
+    }
+
+    public long getEvictions() {
+	return evictions.get();
+    }
+}
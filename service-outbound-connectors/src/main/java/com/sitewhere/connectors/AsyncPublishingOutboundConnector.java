@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.connectors;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.sitewhere.common.MarshalUtils;
+import com.sitewhere.connectors.spi.IMulticastingOutboundConnector;
+import com.sitewhere.connectors.spi.multicast.IDeviceEventMulticaster;
+import com.sitewhere.connectors.spi.routing.IRouteBuilder;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.IDevice;
+import com.sitewhere.spi.device.IDeviceAssignment;
+import com.sitewhere.spi.device.event.IDeviceEvent;
+import com.sitewhere.spi.microservice.kafka.payload.IEnrichedEventPayload;
+import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
+
+/**
+ * Outbound connector that publishes each event in a batch to a message broker
+ * without waiting for the broker to acknowledge it. Up to a configurable number
+ * of messages may be awaiting confirmation at once. The batch is not complete
+ * until every message has been confirmed, so records that the broker rejects
+ * (or does not confirm in time) are passed to
+ * {@link #handleFailedRecord(IEnrichedEventPayload)}.
+ * 
+ * If a multicaster or route builder is configured, the device and assignment
+ * for each event are looked up through the cached device management channel so
+ * that routes have access to the complete entities, including tokens.
+ * 
+ * @author Derek
+ */
+public abstract class AsyncPublishingOutboundConnector extends SerialOutboundConnector
+	implements IMulticastingOutboundConnector<String> {
+
+    /** Default maximum number of unconfirmed messages */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1000;
+
+    /** Default time to wait for confirmations at the end of a batch */
+    public static final long DEFAULT_CONFIRM_TIMEOUT_MS = 30 * 1000;
+
+    /** Maximum number of unconfirmed messages */
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+
+    /** Time to wait for confirmations at the end of a batch */
+    private long confirmTimeoutMs = DEFAULT_CONFIRM_TIMEOUT_MS;
+
+    /** Multicaster for events */
+    private IDeviceEventMulticaster<String> multicaster;
+
+    /** Route builder for generating topics */
+    private IRouteBuilder<String> routeBuilder;
+
+    /*
+     * @see
+     * com.sitewhere.connectors.FilteredOutboundConnector#start(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	// Required for filters.
+	super.start(monitor);
+
+	// Start multicaster if configured.
+	if (multicaster != null) {
+	    startNestedComponent(multicaster, monitor, true);
+	}
+
+	// Start route builder if configured.
+	if (routeBuilder != null) {
+	    startNestedComponent(routeBuilder, monitor, true);
+	}
+    }
+
+    /*
+     * @see
+     * com.sitewhere.connectors.FilteredOutboundConnector#stop(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	// Stop multicaster if configured.
+	if (multicaster != null) {
+	    multicaster.lifecycleStop(monitor);
+	}
+
+	// Stop route builder if configured.
+	if (routeBuilder != null) {
+	    routeBuilder.lifecycleStop(monitor);
+	}
+	super.stop(monitor);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.connectors.SerialOutboundConnector#processFilteredEventBatch(
+     * java.util.List)
+     */
+    @Override
+    public void processFilteredEventBatch(List<IEnrichedEventPayload> payloads) throws SiteWhereException {
+	PublishConfirmTracker tracker = getConfirmTracker();
+	try {
+	    for (IEnrichedEventPayload payload : payloads) {
+		try {
+		    List<String> routes = calculateRoutes(payload.getEvent());
+		    if (routes.isEmpty()) {
+			continue;
+		    }
+		    byte[] message = MarshalUtils.marshalJson(payload.getEvent());
+		    for (String route : routes) {
+			publish(tracker, payload, route, message);
+		    }
+		} catch (SiteWhereException e) {
+		    getLogger().error("Unable to publish event.", e);
+		    handleFailedRecord(payload);
+		}
+	    }
+	    List<IEnrichedEventPayload> failed = tracker.awaitConfirms(getConfirmTimeoutMs(), TimeUnit.MILLISECONDS);
+	    for (IEnrichedEventPayload payload : failed) {
+		handleFailedRecord(payload);
+	    }
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new SiteWhereException("Interrupted while publishing event batch.", e);
+	}
+    }
+
+    /**
+     * Calculate routes an event should be published to based on the multicaster,
+     * route builder or default topic.
+     * 
+     * @param event
+     * @return
+     * @throws SiteWhereException
+     */
+    protected List<String> calculateRoutes(IDeviceEvent event) throws SiteWhereException {
+	if ((getMulticaster() == null) && (getRouteBuilder() == null)) {
+	    return Collections.singletonList(getTopic());
+	}
+	IDeviceAssignment assignment = getDeviceManagement().getDeviceAssignment(event.getDeviceAssignmentId());
+	if (assignment == null) {
+	    throw new SiteWhereException("Device assignment not found for event: " + event.getDeviceAssignmentId());
+	}
+	IDevice device = getDeviceManagement().getDevice(assignment.getDeviceId());
+	if (device == null) {
+	    throw new SiteWhereException("Device not found for assignment: " + assignment.getDeviceId());
+	}
+	if (getMulticaster() != null) {
+	    return getMulticaster().calculateRoutes(event, device, assignment);
+	}
+	return Collections.singletonList(getRouteBuilder().build(event, device, assignment));
+    }
+
+    /**
+     * Get tracker for messages published by the current batch.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    protected abstract PublishConfirmTracker getConfirmTracker() throws SiteWhereException;
+
+    /**
+     * Publish a message asynchronously. Implementations register the message with
+     * the tracker before publishing and confirm or reject it when the broker
+     * responds.
+     * 
+     * @param tracker
+     * @param payload
+     * @param route
+     * @param message
+     * @throws SiteWhereException
+     * @throws InterruptedException
+     */
+    protected abstract void publish(PublishConfirmTracker tracker, IEnrichedEventPayload payload, String route,
+	    byte[] message) throws SiteWhereException, InterruptedException;
+
+    /**
+     * Get topic used when no multicaster or route builder is configured.
+     * 
+     * @return
+     */
+    public abstract String getTopic();
+
+    /*
+     * @see
+     * com.sitewhere.connectors.spi.IMulticastingOutboundConnector#getMulticaster()
+     */
+    @Override
+    public IDeviceEventMulticaster<String> getMulticaster() {
+	return multicaster;
+    }
+
+    public void setMulticaster(IDeviceEventMulticaster<String> multicaster) {
+	this.multicaster = multicaster;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.connectors.spi.IMulticastingOutboundConnector#getRouteBuilder()
+     */
+    @Override
+    public IRouteBuilder<String> getRouteBuilder() {
+	return routeBuilder;
+    }
+
+    public void setRouteBuilder(IRouteBuilder<String> routeBuilder) {
+	this.routeBuilder = routeBuilder;
+    }
+
+    public int getMaxInFlight() {
+	return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+	this.maxInFlight = maxInFlight;
+    }
+
+    public long getConfirmTimeoutMs() {
+	return confirmTimeoutMs;
+    }
+
+    public void setConfirmTimeoutMs(long confirmTimeoutMs) {
+	this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+}
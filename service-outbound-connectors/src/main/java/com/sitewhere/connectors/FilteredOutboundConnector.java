@@ -10,6 +10,7 @@ package com.sitewhere.connectors;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.sitewhere.connectors.filter.CompiledFilterChain;
 import com.sitewhere.connectors.spi.IDeviceEventFilter;
 import com.sitewhere.connectors.spi.IFilteredOutboundConnector;
 import com.sitewhere.spi.SiteWhereException;
@@ -26,6 +27,9 @@ public abstract class FilteredOutboundConnector extends OutboundConnector implem
     /** List of filters in order they should be applied */
     private List<IDeviceEventFilter> filters = new ArrayList<IDeviceEventFilter>();
 
+    /** Filters compiled into a single predicate when started */
+    private CompiledFilterChain filterChain;
+
     /*
      * (non-Javadoc)
      * 
@@ -39,6 +43,9 @@ public abstract class FilteredOutboundConnector extends OutboundConnector implem
 	for (IDeviceEventFilter filter : filters) {
 	    startNestedComponent(filter, monitor, true);
 	}
+
+	// Compile started filters into a single predicate.
+	this.filterChain = new CompiledFilterChain(this, filters);
     }
 
     /*
@@ -80,12 +87,7 @@ public abstract class FilteredOutboundConnector extends OutboundConnector implem
      * @throws SiteWhereException
      */
     protected boolean isFiltered(IEnrichedEventPayload payload) throws SiteWhereException {
-	for (IDeviceEventFilter filter : filters) {
-	    if (filter.isFiltered(payload.getEventContext(), payload.getEvent())) {
-		return true;
-	    }
-	}
-	return false;
+	return getFilterChain().isFiltered(payload.getEventContext(), payload.getEvent());
     }
 
     /*
@@ -99,4 +101,8 @@ public abstract class FilteredOutboundConnector extends OutboundConnector implem
     public void setFilters(List<IDeviceEventFilter> filters) {
 	this.filters = filters;
     }
+
+    public CompiledFilterChain getFilterChain() {
+	return filterChain;
+    }
 }
\ No newline at end of file
@@ -8,8 +8,12 @@
 package com.sitewhere.connectors;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import com.codahale.metrics.Timer;
 import com.sitewhere.connectors.kafka.KafkaOutboundConnectorHost;
 import com.sitewhere.connectors.spi.IOutboundConnector;
 import com.sitewhere.connectors.spi.IOutboundConnectorsManager;
@@ -25,6 +29,9 @@ import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
  */
 public class OutboundConnectorsManager extends TenantEngineLifecycleComponent implements IOutboundConnectorsManager {
 
+    /** Prefix for timers that track reload of individual connectors */
+    private static final String TIMER_RELOAD_PREFIX = "outboundConnectors.reload.";
+
     /** List of connectors */
     private List<IOutboundConnector> outboundConnectors;
 
@@ -42,7 +49,7 @@ public class OutboundConnectorsManager extends TenantEngineLifecycleComponent im
 	for (IOutboundConnector processor : getOutboundConnectors()) {
 	    try {
 		// Create host for managing outbound connector.
-		KafkaOutboundConnectorHost host = new KafkaOutboundConnectorHost(processor);
+		KafkaOutboundConnectorHost host = createConnectorHost(processor);
 		initializeNestedComponent(host, monitor, true);
 		getConnectorHosts().add(host);
 	    } catch (SiteWhereException e) {
@@ -83,6 +90,89 @@ public class OutboundConnectorsManager extends TenantEngineLifecycleComponent im
 	}
     }
 
+    /*
+     * @see com.sitewhere.connectors.spi.IOutboundConnectorsManager#
+     * updateOutboundConnectors(java.util.List, java.util.Set,
+     * com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public boolean updateOutboundConnectors(List<IOutboundConnector> connectors, Set<String> updatedIds,
+	    ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	Map<String, KafkaOutboundConnectorHost> existing = new HashMap<String, KafkaOutboundConnectorHost>();
+	for (KafkaOutboundConnectorHost host : getConnectorHosts()) {
+	    existing.put(host.getOutboundConnector().getConnectorId(), host);
+	}
+
+	boolean applied = true;
+	List<IOutboundConnector> merged = new ArrayList<IOutboundConnector>();
+	List<KafkaOutboundConnectorHost> hosts = new ArrayList<KafkaOutboundConnectorHost>();
+	for (IOutboundConnector connector : connectors) {
+	    KafkaOutboundConnectorHost current = existing.remove(connector.getConnectorId());
+	    if ((current != null) && !updatedIds.contains(connector.getConnectorId())) {
+		merged.add(current.getOutboundConnector());
+		hosts.add(current);
+		continue;
+	    }
+	    Timer.Context timer = createTimerMetric(TIMER_RELOAD_PREFIX + connector.getConnectorId()).time();
+	    try {
+		// Start replacement before stopping current host so events keep flowing.
+		KafkaOutboundConnectorHost host = createConnectorHost(connector);
+		try {
+		    initializeNestedComponent(host, monitor, true);
+		    startNestedComponent(host, monitor, true);
+		} catch (SiteWhereException e) {
+		    getLogger().error("Unable to start outbound connector '" + connector.getConnectorId() + "'.", e);
+		    removeConnectorHost(host, monitor);
+		    applied = false;
+		    if (current != null) {
+			merged.add(current.getOutboundConnector());
+			hosts.add(current);
+		    }
+		    continue;
+		}
+		if (current != null) {
+		    removeConnectorHost(current, monitor);
+		}
+		merged.add(connector);
+		hosts.add(host);
+		getLogger().info("Reloaded outbound connector '" + connector.getConnectorId() + "'.");
+	    } finally {
+		timer.stop();
+	    }
+	}
+	for (KafkaOutboundConnectorHost removed : existing.values()) {
+	    removeConnectorHost(removed, monitor);
+	    getLogger().info("Removed outbound connector '" + removed.getOutboundConnector().getConnectorId() + "'.");
+	}
+	setOutboundConnectors(merged);
+	setConnectorHosts(hosts);
+	return applied;
+    }
+
+    /**
+     * Create host that feeds events to an outbound connector.
+     * 
+     * @param connector
+     * @return
+     */
+    protected KafkaOutboundConnectorHost createConnectorHost(IOutboundConnector connector) {
+	return new KafkaOutboundConnectorHost(connector);
+    }
+
+    /**
+     * Stop and terminate a connector host that is no longer used. Stopping also
+     * removes it from the nested components of this manager.
+     * 
+     * @param host
+     * @param monitor
+     * @throws SiteWhereException
+     */
+    protected void removeConnectorHost(KafkaOutboundConnectorHost host, ILifecycleProgressMonitor monitor)
+	    throws SiteWhereException {
+	stopNestedComponent(host, monitor);
+	host.lifecycleTerminate(monitor);
+    }
+
     /*
      * @see
      * com.sitewhere.connectors.spi.IOutboundConnectorsManager#getOutboundConnectors
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.connectors;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.sitewhere.spi.microservice.kafka.payload.IEnrichedEventPayload;
+
+/**
+ * Tracks messages that have been published asynchronously but not yet
+ * confirmed by the broker. The number of unconfirmed messages is bounded so
+ * that a publisher blocks once the window is full rather than buffering an
+ * unlimited number of messages. Messages are keyed by a sequence number that
+ * increases with each publish, which allows brokers that confirm a range of
+ * messages at once (such as RabbitMQ) to be handled.
+ * 
+ * @author Derek
+ */
+public class PublishConfirmTracker {
+
+    /** Permits for unconfirmed messages */
+    private Semaphore window;
+
+    /** Unconfirmed messages by sequence number */
+    private ConcurrentNavigableMap<Long, IEnrichedEventPayload> pending = new ConcurrentSkipListMap<>();
+
+    /** Payloads for which at least one message was rejected */
+    private Map<IEnrichedEventPayload, Boolean> failed = new IdentityHashMap<>();
+
+    public PublishConfirmTracker(int maxInFlight) {
+	this.window = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Register a message that is about to be published, blocking until there is
+     * room in the in-flight window.
+     * 
+     * @param sequence
+     * @param payload
+     * @throws InterruptedException
+     */
+    public void register(long sequence, IEnrichedEventPayload payload) throws InterruptedException {
+	window.acquire();
+	pending.put(sequence, payload);
+    }
+
+    /**
+     * Mark a message (or all messages up to and including it) as confirmed.
+     * 
+     * @param sequence
+     * @param multiple
+     */
+    public void confirm(long sequence, boolean multiple) {
+	complete(sequence, multiple, false);
+    }
+
+    /**
+     * Mark a message (or all messages up to and including it) as rejected.
+     * 
+     * @param sequence
+     * @param multiple
+     */
+    public void reject(long sequence, boolean multiple) {
+	complete(sequence, multiple, true);
+    }
+
+    /**
+     * Remove completed messages and release their window permits.
+     * 
+     * @param sequence
+     * @param multiple
+     * @param rejected
+     */
+    protected void complete(long sequence, boolean multiple, boolean rejected) {
+	List<IEnrichedEventPayload> completed = new ArrayList<>();
+	if (multiple) {
+	    Map<Long, IEnrichedEventPayload> head = pending.headMap(sequence, true);
+	    for (Long key : head.keySet()) {
+		IEnrichedEventPayload payload = pending.remove(key);
+		if (payload != null) {
+		    completed.add(payload);
+		}
+	    }
+	} else {
+	    IEnrichedEventPayload payload = pending.remove(sequence);
+	    if (payload != null) {
+		completed.add(payload);
+	    }
+	}
+	if (rejected) {
+	    synchronized (failed) {
+		for (IEnrichedEventPayload payload : completed) {
+		    failed.put(payload, Boolean.TRUE);
+		}
+	    }
+	}
+	window.release(completed.size());
+	if (pending.isEmpty()) {
+	    synchronized (this) {
+		notifyAll();
+	    }
+	}
+    }
+
+    /**
+     * Wait for all in-flight messages to be confirmed or rejected. Messages still
+     * pending when the timeout expires are treated as rejected.
+     * 
+     * @param timeout
+     * @param unit
+     * @return payloads with at least one rejected message
+     * @throws InterruptedException
+     */
+    public List<IEnrichedEventPayload> awaitConfirms(long timeout, TimeUnit unit) throws InterruptedException {
+	long deadline = System.currentTimeMillis() + unit.toMillis(timeout);
+	synchronized (this) {
+	    while (!pending.isEmpty()) {
+		long remaining = deadline - System.currentTimeMillis();
+		if (remaining <= 0) {
+		    break;
+		}
+		wait(remaining);
+	    }
+	}
+	for (Long sequence : pending.keySet()) {
+	    reject(sequence, false);
+	}
+	synchronized (failed) {
+	    List<IEnrichedEventPayload> result = new ArrayList<>(failed.keySet());
+	    failed.clear();
+	    return result;
+	}
+    }
+
+    /**
+     * Get number of messages awaiting confirmation.
+     * 
+     * @return
+     */
+    public int getInFlight() {
+	return pending.size();
+    }
+}
@@ -126,6 +126,7 @@ public class OutboundConnectorsModelProvider extends ConfigurationModelProvider
 	builder.attribute((new AttributeNode.Builder("MQTT topic", "topic", AttributeType.String,
 		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY)
 			.description("MQTT topic used if no route builder is specified.").build()));
+	addAsyncPublishingAttributes(builder, ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY);
 	return builder.build();
     }
 
@@ -151,6 +152,7 @@ public class OutboundConnectorsModelProvider extends ConfigurationModelProvider
 	builder.attribute((new AttributeNode.Builder("Topic", "topic", AttributeType.String,
 		ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY).defaultValue("sitewhere.output")
 			.description("Topic used if no route builder is specified.").build()));
+	addAsyncPublishingAttributes(builder, ConfigurationModelProvider.ATTR_GROUP_CONNECTIVITY);
 	return builder.build();
     }
 
@@ -297,6 +299,23 @@ public class OutboundConnectorsModelProvider extends ConfigurationModelProvider
 			.build()));
     }
 
+    /**
+     * Add attributes for connectors that publish asynchronously.
+     * 
+     * @param builder
+     * @param group
+     */
+    public static void addAsyncPublishingAttributes(ElementNode.Builder builder, IAttributeGroup group) {
+	builder.attribute((new AttributeNode.Builder("Maximum in-flight events", "maxInFlight", AttributeType.Integer,
+		group).defaultValue("1000")
+			.description("Maximum number of published events awaiting confirmation from the broker.")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Confirm timeout (ms)", "confirmTimeoutMs", AttributeType.Integer,
+		group).defaultValue("30000")
+			.description("Time to wait for the broker to confirm a batch before unconfirmed events fail.")
+			.build()));
+    }
+
     /**
      * Create a Groovy route builder.
      * 
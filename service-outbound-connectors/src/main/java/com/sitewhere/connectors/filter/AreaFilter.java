@@ -10,8 +10,10 @@ package com.sitewhere.connectors.filter;
 import java.util.UUID;
 
 import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.area.IArea;
 import com.sitewhere.spi.device.event.IDeviceEvent;
 import com.sitewhere.spi.device.event.IDeviceEventContext;
+import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 
 /**
  * Includes or excludes events for devices associated with a given area.
@@ -20,12 +22,37 @@ import com.sitewhere.spi.device.event.IDeviceEventContext;
  */
 public class AreaFilter extends DeviceEventFilter {
 
-    /** Area id to allow */
+    /** Token of area to match */
+    private String areaToken;
+
+    /** Area id to match (resolved from token if not set) */
     private UUID areaId;
 
     /** Operation filter performs */
     private FilterOperation operation = FilterOperation.Include;
 
+    /*
+     * @see
+     * com.sitewhere.connectors.filter.DeviceEventFilter#start(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	super.start(monitor);
+
+	// Resolve token once rather than per event.
+	if (getAreaId() == null) {
+	    if (getAreaToken() == null) {
+		throw new SiteWhereException("Area filter requires an area token.");
+	    }
+	    IArea area = getDeviceManagement().getAreaByToken(getAreaToken());
+	    if (area == null) {
+		throw new SiteWhereException("Area filter references unknown area '" + getAreaToken() + "'.");
+	    }
+	    setAreaId(area.getId());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.outbound.spi.IDeviceEventFilter#isFiltered(com.sitewhere.spi.
@@ -40,6 +67,14 @@ public class AreaFilter extends DeviceEventFilter {
 	return (getOperation() == FilterOperation.Include);
     }
 
+    public String getAreaToken() {
+	return areaToken;
+    }
+
+    public void setAreaToken(String areaToken) {
+	this.areaToken = areaToken;
+    }
+
     public UUID getAreaId() {
 	return areaId;
     }
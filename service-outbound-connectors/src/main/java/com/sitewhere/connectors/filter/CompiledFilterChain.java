@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.connectors.filter;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.codahale.metrics.Meter;
+import com.sitewhere.connectors.spi.IDeviceEventFilter;
+import com.sitewhere.connectors.spi.IOutboundConnector;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.event.IDeviceEvent;
+import com.sitewhere.spi.device.event.IDeviceEventContext;
+
+/**
+ * Single predicate built from the filters configured for a connector once they
+ * have been started and have resolved any tokens to ids. An event is filtered
+ * as soon as one filter rejects it. Since the result does not depend on the
+ * order filters are evaluated in, the chain periodically reorders them so that
+ * filters which reject the most events for the least cost run first. Each
+ * filter has meters counting the events it passed and rejected.
+ * 
+ * @author Derek
+ */
+public class CompiledFilterChain {
+
+    /** Static logger instance */
+    private static Log LOGGER = LogFactory.getLog(CompiledFilterChain.class);
+
+    /** Default number of evaluations between reordering filters */
+    public static final int DEFAULT_REORDER_INTERVAL = 1000;
+
+    /** Prefix for filter metric names */
+    private static final String METRIC_PREFIX = "filters.";
+
+    /** Orders stages by expected cost of reaching a rejection */
+    private static final Comparator<Stage> BY_RANK = new Comparator<Stage>() {
+
+	@Override
+	public int compare(Stage first, Stage second) {
+	    return Double.compare(first.getRank(), second.getRank());
+	}
+    };
+
+    /** Stages in current evaluation order */
+    private volatile Stage[] stages;
+
+    /** Number of evaluations between reordering filters */
+    private int reorderInterval = DEFAULT_REORDER_INTERVAL;
+
+    /** Evaluations since chain was compiled */
+    private AtomicLong evaluations = new AtomicLong();
+
+    public CompiledFilterChain(IOutboundConnector connector, List<IDeviceEventFilter> filters) {
+	this.stages = new Stage[filters.size()];
+	for (int i = 0; i < filters.size(); i++) {
+	    IDeviceEventFilter filter = filters.get(i);
+	    String prefix = METRIC_PREFIX + connector.getConnectorId() + "." + i + "."
+		    + filter.getClass().getSimpleName() + ".";
+	    stages[i] = new Stage(filter, connector.createMeterMetric(prefix + "passed"),
+		    connector.createMeterMetric(prefix + "rejected"));
+	}
+    }
+
+    /**
+     * Indicates if an event is filtered by any filter in the chain.
+     * 
+     * @param context
+     * @param event
+     * @return
+     * @throws SiteWhereException
+     */
+    public boolean isFiltered(IDeviceEventContext context, IDeviceEvent event) throws SiteWhereException {
+	Stage[] current = stages;
+	if (current.length == 0) {
+	    return false;
+	}
+	boolean filtered = false;
+	for (Stage stage : current) {
+	    long start = System.nanoTime();
+	    filtered = stage.getFilter().isFiltered(context, event);
+	    stage.record(filtered, System.nanoTime() - start);
+	    if (filtered) {
+		break;
+	    }
+	}
+	if ((current.length > 1) && (evaluations.incrementAndGet() % getReorderInterval() == 0)) {
+	    reorder();
+	}
+	return filtered;
+    }
+
+    /**
+     * Reorder stages based on statistics gathered since the last reorder.
+     */
+    protected synchronized void reorder() {
+	Stage[] reordered = Arrays.copyOf(stages, stages.length);
+	for (Stage stage : reordered) {
+	    stage.updateRank();
+	}
+	Arrays.sort(reordered, BY_RANK);
+	if (!Arrays.equals(reordered, stages)) {
+	    stages = reordered;
+	    if (LOGGER.isDebugEnabled()) {
+		LOGGER.debug("Reordered filters to " + Arrays.toString(reordered));
+	    }
+	}
+    }
+
+    /**
+     * Get filters in current evaluation order.
+     * 
+     * @return
+     */
+    public IDeviceEventFilter[] getFilters() {
+	Stage[] current = stages;
+	IDeviceEventFilter[] filters = new IDeviceEventFilter[current.length];
+	for (int i = 0; i < current.length; i++) {
+	    filters[i] = current[i].getFilter();
+	}
+	return filters;
+    }
+
+    public int getReorderInterval() {
+	return reorderInterval;
+    }
+
+    public void setReorderInterval(int reorderInterval) {
+	this.reorderInterval = reorderInterval;
+    }
+
+    /**
+     * Filter along with counters for events it has evaluated.
+     * 
+     * @author Derek
+     */
+    private static class Stage {
+
+	/** Wrapped filter */
+	private IDeviceEventFilter filter;
+
+	/** Events passed by filter */
+	private Meter passed;
+
+	/** Events rejected by filter */
+	private Meter rejected;
+
+	/** Evaluations since last reorder */
+	private AtomicLong windowEvaluations = new AtomicLong();
+
+	/** Rejections since last reorder */
+	private AtomicLong windowRejections = new AtomicLong();
+
+	/** Time spent evaluating since last reorder */
+	private AtomicLong windowNanos = new AtomicLong();
+
+	/** Expected cost per rejected event (lower runs earlier) */
+	private volatile double rank = 0;
+
+	public Stage(IDeviceEventFilter filter, Meter passed, Meter rejected) {
+	    this.filter = filter;
+	    this.passed = passed;
+	    this.rejected = rejected;
+	}
+
+	/**
+	 * Record result of evaluating an event.
+	 * 
+	 * @param filtered
+	 * @param nanos
+	 */
+	public void record(boolean filtered, long nanos) {
+	    windowEvaluations.incrementAndGet();
+	    windowNanos.addAndGet(nanos);
+	    if (filtered) {
+		windowRejections.incrementAndGet();
+		rejected.mark();
+	    } else {
+		passed.mark();
+	    }
+	}
+
+	/**
+	 * Compute rank from the statistics gathered since the last reorder. Stages
+	 * that were not reached keep their previous rank.
+	 */
+	public void updateRank() {
+	    long count = windowEvaluations.getAndSet(0);
+	    long rejections = windowRejections.getAndSet(0);
+	    long nanos = windowNanos.getAndSet(0);
+	    if (count == 0) {
+		return;
+	    }
+	    if (rejections == 0) {
+		rank = Double.MAX_VALUE;
+	    } else {
+		rank = ((double) nanos / count) / ((double) rejections / count);
+	    }
+	}
+
+	public IDeviceEventFilter getFilter() {
+	    return filter;
+	}
+
+	public double getRank() {
+	    return rank;
+	}
+
+	/*
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+	    return filter.getClass().getSimpleName() + "(passed=" + passed.getCount() + ", rejected="
+		    + rejected.getCount() + ")";
+	}
+    }
+}
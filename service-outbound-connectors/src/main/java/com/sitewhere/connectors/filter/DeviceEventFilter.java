@@ -8,8 +8,10 @@
 package com.sitewhere.connectors.filter;
 
 import com.sitewhere.connectors.spi.IDeviceEventFilter;
+import com.sitewhere.connectors.spi.microservice.IOutboundConnectorsMicroservice;
 import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent;
 import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.IDeviceManagement;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
 
@@ -44,4 +46,14 @@ public abstract class DeviceEventFilter extends TenantEngineLifecycleComponent i
     @Override
     public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
     }
+
+    /**
+     * Get device management implementation used to resolve tokens.
+     * 
+     * @return
+     */
+    protected IDeviceManagement getDeviceManagement() {
+	return ((IOutboundConnectorsMicroservice) getTenantEngine().getMicroservice()).getDeviceManagementApiDemux()
+		.getApiChannel();
+    }
 }
\ No newline at end of file
@@ -7,9 +7,13 @@
  */
 package com.sitewhere.connectors.filter;
 
+import java.util.UUID;
+
 import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.IDeviceType;
 import com.sitewhere.spi.device.event.IDeviceEvent;
 import com.sitewhere.spi.device.event.IDeviceEventContext;
+import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 
 /**
  * Includes or excludes events for devices using a given device type.
@@ -21,9 +25,35 @@ public class DeviceTypeFilter extends DeviceEventFilter {
     /** Device type token to match */
     private String deviceTypeToken;
 
+    /** Device type id to match (resolved from token if not set) */
+    private UUID deviceTypeId;
+
     /** Operation filter performs */
     private FilterOperation operation = FilterOperation.Include;
 
+    /*
+     * @see
+     * com.sitewhere.connectors.filter.DeviceEventFilter#start(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	super.start(monitor);
+
+	// Resolve token once rather than per event.
+	if (getDeviceTypeId() == null) {
+	    if (getDeviceTypeToken() == null) {
+		throw new SiteWhereException("Device type filter requires a device type token.");
+	    }
+	    IDeviceType deviceType = getDeviceManagement().getDeviceTypeByToken(getDeviceTypeToken());
+	    if (deviceType == null) {
+		throw new SiteWhereException(
+			"Device type filter references unknown device type '" + getDeviceTypeToken() + "'.");
+	    }
+	    setDeviceTypeId(deviceType.getId());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.outbound.spi.IDeviceEventFilter#isFiltered(com.sitewhere.spi.
@@ -32,7 +62,7 @@ public class DeviceTypeFilter extends DeviceEventFilter {
      */
     @Override
     public boolean isFiltered(IDeviceEventContext context, IDeviceEvent event) throws SiteWhereException {
-	if (getDeviceTypeToken().equals(context.getDeviceTypeId().toString())) {
+	if (getDeviceTypeId().equals(context.getDeviceTypeId())) {
 	    return (getOperation() != FilterOperation.Include);
 	}
 	return (getOperation() == FilterOperation.Include);
@@ -46,6 +76,14 @@ public class DeviceTypeFilter extends DeviceEventFilter {
 	this.deviceTypeToken = deviceTypeToken;
     }
 
+    public UUID getDeviceTypeId() {
+	return deviceTypeId;
+    }
+
+    public void setDeviceTypeId(UUID deviceTypeId) {
+	this.deviceTypeId = deviceTypeId;
+    }
+
     public FilterOperation getOperation() {
 	return operation;
     }
@@ -28,6 +28,7 @@ import com.sitewhere.rest.model.device.DeviceAssignment;
 import com.sitewhere.rest.model.device.marshaling.MarshaledDeviceAssignment;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.SiteWhereSystemException;
+import com.sitewhere.spi.asset.IAssetManagement;
 import com.sitewhere.spi.device.IDeviceAssignment;
 import com.sitewhere.spi.device.event.IDeviceAlert;
 import com.sitewhere.spi.device.event.IDeviceEventContext;
@@ -154,7 +155,7 @@ public class InitialStateOutboundConnector extends SerialOutboundConnector {
 	DeviceAssignmentMarshalHelper helper = new DeviceAssignmentMarshalHelper(getDeviceManagement());
 	helper.setIncludeAsset(false);
 	helper.setIncludeDevice(true);
-	MarshaledDeviceAssignment converted = helper.convert(assignment, null);
+	MarshaledDeviceAssignment converted = helper.convert(assignment, (IAssetManagement) null);
 
 	createBucket(converted.getToken(), converted.getAssetName() + " (" + converted.getDevice().getToken() + ")");
 	assignmentsById.put(assignmentId, converted);
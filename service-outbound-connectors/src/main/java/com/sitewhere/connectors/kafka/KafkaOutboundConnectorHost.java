@@ -156,7 +156,7 @@ public class KafkaOutboundConnectorHost extends MicroserviceKafkaConsumer {
 	}
     }
 
-    protected IOutboundConnector getOutboundConnector() {
+    public IOutboundConnector getOutboundConnector() {
 	return outboundConnector;
     }
 
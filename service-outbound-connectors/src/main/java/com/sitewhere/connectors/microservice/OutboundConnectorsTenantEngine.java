@@ -7,9 +7,20 @@
  */
 package com.sitewhere.connectors.microservice;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+
 import com.sitewhere.connectors.spi.IOutboundConnectorsManager;
 import com.sitewhere.connectors.spi.microservice.IOutboundConnectorsTenantEngine;
 import com.sitewhere.microservice.multitenant.MicroserviceTenantEngine;
+import com.sitewhere.microservice.multitenant.ModuleConfigurationChanges;
 import com.sitewhere.server.lifecycle.CompositeLifecycleStep;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.microservice.multitenant.IDatasetTemplate;
@@ -28,6 +39,9 @@ import com.sitewhere.spi.tenant.ITenant;
 public class OutboundConnectorsTenantEngine extends MicroserviceTenantEngine
 	implements IOutboundConnectorsTenantEngine {
 
+    /** Property containing list of connectors in manager definition */
+    private static final String PROPERTY_OUTBOUND_CONNECTORS = "outboundConnectors";
+
     /** Manages the outbound connectors for this tenant */
     private IOutboundConnectorsManager outboundConnectorsManager;
 
@@ -98,6 +112,84 @@ public class OutboundConnectorsTenantEngine extends MicroserviceTenantEngine
 	start.execute(monitor);
     }
 
+    /**
+     * Changing the connectors manager definition only restarts connectors whose
+     * definitions changed, so editing one connector does not interrupt the
+     * others.
+     * 
+     * @see com.sitewhere.microservice.multitenant.MicroserviceTenantEngine#
+     *      tenantReload(com.sitewhere.microservice.multitenant.
+     *      ModuleConfigurationChanges,
+     *      com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    protected boolean tenantReload(ModuleConfigurationChanges changes, ILifecycleProgressMonitor monitor)
+	    throws SiteWhereException {
+	String name = OutboundConnectorsBeans.BEAN_OUTBOUND_CONNECTORS_MANAGER;
+	if (!changes.getChanged().contains(name)) {
+	    return super.tenantReload(changes, monitor);
+	}
+	if ((changes.getChanged().size() > 1) || !changes.getAdded().isEmpty() || !changes.getRemoved().isEmpty()) {
+	    return false;
+	}
+	BeanDefinition before = changes.getCurrentDefinition(name);
+	BeanDefinition after = changes.getUpdatedDefinition(name);
+	Map<String, Object> connectorsBefore = getConnectorDefinitions(before);
+	Map<String, Object> connectorsAfter = getConnectorDefinitions(after);
+	if ((connectorsBefore == null) || (connectorsAfter == null)) {
+	    return false;
+	}
+
+	// Only the list of connectors may differ.
+	AbstractBeanDefinition managerBefore = ((AbstractBeanDefinition) before).cloneBeanDefinition();
+	managerBefore.getPropertyValues().removePropertyValue(PROPERTY_OUTBOUND_CONNECTORS);
+	AbstractBeanDefinition managerAfter = ((AbstractBeanDefinition) after).cloneBeanDefinition();
+	managerAfter.getPropertyValues().removePropertyValue(PROPERTY_OUTBOUND_CONNECTORS);
+	if (!managerBefore.equals(managerAfter)) {
+	    return false;
+	}
+
+	Set<String> updatedIds = new HashSet<String>();
+	for (Map.Entry<String, Object> entry : connectorsAfter.entrySet()) {
+	    if (!entry.getValue().equals(connectorsBefore.get(entry.getKey()))) {
+		updatedIds.add(entry.getKey());
+	    }
+	}
+	IOutboundConnectorsManager updated = (IOutboundConnectorsManager) createBean(name, after);
+	if (!getOutboundConnectorsManager().updateOutboundConnectors(updated.getOutboundConnectors(), updatedIds,
+		monitor)) {
+	    return false;
+	}
+	retainBean(name, after, getOutboundConnectorsManager());
+	return true;
+    }
+
+    /**
+     * Get connector definitions from the connectors manager definition indexed
+     * by connector id. Returns null if any connector does not have a unique id.
+     * 
+     * @param manager
+     * @return
+     */
+    protected Map<String, Object> getConnectorDefinitions(BeanDefinition manager) {
+	PropertyValue connectors = manager.getPropertyValues().getPropertyValue(PROPERTY_OUTBOUND_CONNECTORS);
+	if ((connectors == null) || !(connectors.getValue() instanceof List)) {
+	    return null;
+	}
+	Map<String, Object> byId = new HashMap<String, Object>();
+	for (Object connector : (List<?>) connectors.getValue()) {
+	    if (!(connector instanceof BeanDefinition)) {
+		return null;
+	    }
+	    PropertyValue id = ((BeanDefinition) connector).getPropertyValues().getPropertyValue("connectorId");
+	    if ((id == null) || !(id.getValue() instanceof String) || byId.containsKey(id.getValue())) {
+		return null;
+	    }
+	    byId.put((String) id.getValue(), connector);
+	}
+	return byId;
+    }
+
     /*
      * @see
      * com.sitewhere.connectors.spi.microservice.IOutboundConnectorsTenantEngine#
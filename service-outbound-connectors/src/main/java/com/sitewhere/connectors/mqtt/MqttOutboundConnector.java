@@ -7,42 +7,32 @@
  */
 package com.sitewhere.connectors.mqtt;
 
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.fusesource.hawtdispatch.Dispatch;
 import org.fusesource.hawtdispatch.DispatchQueue;
+import org.fusesource.mqtt.client.Callback;
 import org.fusesource.mqtt.client.Future;
 import org.fusesource.mqtt.client.FutureConnection;
 import org.fusesource.mqtt.client.MQTT;
 import org.fusesource.mqtt.client.QoS;
 
-import com.sitewhere.common.MarshalUtils;
 import com.sitewhere.communication.mqtt.IMqttComponent;
 import com.sitewhere.communication.mqtt.MqttLifecycleComponent;
-import com.sitewhere.connectors.SerialOutboundConnector;
-import com.sitewhere.connectors.spi.IMulticastingOutboundConnector;
-import com.sitewhere.connectors.spi.multicast.IDeviceEventMulticaster;
-import com.sitewhere.connectors.spi.routing.IRouteBuilder;
+import com.sitewhere.connectors.AsyncPublishingOutboundConnector;
+import com.sitewhere.connectors.PublishConfirmTracker;
 import com.sitewhere.spi.SiteWhereException;
-import com.sitewhere.spi.device.IDevice;
-import com.sitewhere.spi.device.IDeviceAssignment;
-import com.sitewhere.spi.device.event.IDeviceAlert;
-import com.sitewhere.spi.device.event.IDeviceCommandInvocation;
-import com.sitewhere.spi.device.event.IDeviceCommandResponse;
-import com.sitewhere.spi.device.event.IDeviceEvent;
-import com.sitewhere.spi.device.event.IDeviceEventContext;
-import com.sitewhere.spi.device.event.IDeviceLocation;
-import com.sitewhere.spi.device.event.IDeviceMeasurement;
+import com.sitewhere.spi.microservice.kafka.payload.IEnrichedEventPayload;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 
 /**
- * Outbound connector that sends events to an MQTT topic.
+ * Outbound connector that sends events to an MQTT topic. Events in a batch are
+ * published without waiting for each to be acknowledged and the batch completes
+ * once the broker has acknowledged all of them.
  * 
  * @author Derek
  */
-public class MqttOutboundConnector extends SerialOutboundConnector
-	implements IMulticastingOutboundConnector<String>, IMqttComponent {
+public class MqttOutboundConnector extends AsyncPublishingOutboundConnector implements IMqttComponent {
 
     private String protocol = MqttLifecycleComponent.DEFAULT_PROTOCOL;
 
@@ -91,11 +81,8 @@ public class MqttOutboundConnector extends SerialOutboundConnector
     /** Shared MQTT connection */
     private FutureConnection connection;
 
-    /** Multicaster for events */
-    private IDeviceEventMulticaster<String> multicaster;
-
-    /** Route builder for generating topics */
-    private IRouteBuilder<String> routeBuilder;
+    /** Quality of service used for publishing */
+    private QoS publishQos;
 
     /*
      * @see
@@ -104,22 +91,14 @@ public class MqttOutboundConnector extends SerialOutboundConnector
      */
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
-	if ((topic == null) && ((multicaster == null) && (routeBuilder == null))) {
+	if ((topic == null) && ((getMulticaster() == null) && (getRouteBuilder() == null))) {
 	    throw new SiteWhereException("No topic specified and no multicaster or route builder configured.");
 	}
 
-	// Required for filters.
+	// Required for filters, multicaster and route builder.
 	super.start(monitor);
 
-	// Start multicaster if configured.
-	if (multicaster != null) {
-	    startNestedComponent(multicaster, monitor, true);
-	}
-
-	// Start route builder if configured.
-	if (routeBuilder != null) {
-	    startNestedComponent(routeBuilder, monitor, true);
-	}
+	this.publishQos = qosFromConfig(getQos());
 
 	// Use common MQTT configuration setup.
 	this.queue = Dispatch.createQueue(getComponentId().toString());
@@ -143,16 +122,6 @@ public class MqttOutboundConnector extends SerialOutboundConnector
      */
     @Override
     public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
-	// Stop multicaster if configured.
-	if (multicaster != null) {
-	    multicaster.lifecycleStop(monitor);
-	}
-
-	// Stop route builder if configured.
-	if (routeBuilder != null) {
-	    routeBuilder.lifecycleStop(monitor);
-	}
-
 	if (connection != null) {
 	    try {
 		connection.disconnect();
@@ -168,120 +137,53 @@ public class MqttOutboundConnector extends SerialOutboundConnector
     }
 
     /*
-     * @see
-     * com.sitewhere.connectors.SerialOutboundConnector#onMeasurement(com.sitewhere.
-     * spi.device.event.IDeviceEventContext,
-     * com.sitewhere.spi.device.event.IDeviceMeasurement)
-     */
-    @Override
-    public void onMeasurement(IDeviceEventContext context, IDeviceMeasurement mx) throws SiteWhereException {
-	sendEvent(mx);
-    }
-
-    /*
-     * @see
-     * com.sitewhere.connectors.SerialOutboundConnector#onLocation(com.sitewhere.spi
-     * .device.event.IDeviceEventContext,
-     * com.sitewhere.spi.device.event.IDeviceLocation)
-     */
-    @Override
-    public void onLocation(IDeviceEventContext context, IDeviceLocation location) throws SiteWhereException {
-	sendEvent(location);
-    }
-
-    /*
-     * @see
-     * com.sitewhere.connectors.SerialOutboundConnector#onAlert(com.sitewhere.spi.
-     * device.event.IDeviceEventContext,
-     * com.sitewhere.spi.device.event.IDeviceAlert)
+     * @see com.sitewhere.connectors.AsyncPublishingOutboundConnector#
+     * getConfirmTracker()
      */
     @Override
-    public void onAlert(IDeviceEventContext context, IDeviceAlert alert) throws SiteWhereException {
-	sendEvent(alert);
+    protected PublishConfirmTracker getConfirmTracker() throws SiteWhereException {
+	return new MqttConfirmTracker(getMaxInFlight());
     }
 
     /*
      * @see
-     * com.sitewhere.connectors.SerialOutboundConnector#onCommandInvocation(com.
-     * sitewhere.spi.device.event.IDeviceEventContext,
-     * com.sitewhere.spi.device.event.IDeviceCommandInvocation)
+     * com.sitewhere.connectors.AsyncPublishingOutboundConnector#publish(com.
+     * sitewhere.connectors.PublishConfirmTracker,
+     * com.sitewhere.spi.microservice.kafka.payload.IEnrichedEventPayload,
+     * java.lang.String, byte[])
      */
     @Override
-    public void onCommandInvocation(IDeviceEventContext context, IDeviceCommandInvocation invocation)
-	    throws SiteWhereException {
-	sendEvent(invocation);
-    }
-
-    /*
-     * @see com.sitewhere.connectors.SerialOutboundConnector#onCommandResponse(com.
-     * sitewhere.spi.device.event.IDeviceEventContext,
-     * com.sitewhere.spi.device.event.IDeviceCommandResponse)
-     */
-    @Override
-    public void onCommandResponse(IDeviceEventContext context, IDeviceCommandResponse response)
-	    throws SiteWhereException {
-	sendEvent(response);
-    }
-
-    /**
-     * Send an {@link IDeviceEvent} to the configured topic.
-     * 
-     * @param event
-     * @throws SiteWhereException
-     */
-    protected void sendEvent(IDeviceEvent event) throws SiteWhereException {
-	if (getMulticaster() != null) {
-	    IDeviceAssignment assignment = getDeviceManagement().getDeviceAssignment(event.getDeviceAssignmentId());
-	    IDevice device = getDeviceManagement().getDevice(assignment.getDeviceId());
-	    List<String> routes = getMulticaster().calculateRoutes(event, device, assignment);
-	    for (String route : routes) {
-		publish(event, route);
+    protected void publish(PublishConfirmTracker tracker, IEnrichedEventPayload payload, String route,
+	    byte[] message) throws SiteWhereException, InterruptedException {
+	final long sequence = ((MqttConfirmTracker) tracker).nextSequence();
+	tracker.register(sequence, payload);
+	connection.publish(route, message, publishQos, false).then(new Callback<Void>() {
+
+	    @Override
+	    public void onSuccess(Void value) {
+		tracker.confirm(sequence, false);
 	    }
-	} else {
-	    if (getRouteBuilder() != null) {
-		IDeviceAssignment assignment = getDeviceManagement().getDeviceAssignment(event.getDeviceAssignmentId());
-		IDevice device = getDeviceManagement().getDevice(assignment.getDeviceId());
-		publish(event, getRouteBuilder().build(event, device, assignment));
-	    } else {
-		publish(event, getTopic());
+
+	    @Override
+	    public void onFailure(Throwable e) {
+		getLogger().warn("Unable to publish event to MQTT topic '" + route + "'.", e);
+		tracker.reject(sequence, false);
 	    }
-	}
+	});
     }
 
     /**
-     * Publish an event to an MQTT topic.
+     * Get quality of service used for publishing from configured value.
      * 
-     * @param event
-     * @throws SiteWhereException
+     * @param qos
+     * @return
      */
-    protected void publish(IDeviceEvent event, String topic) throws SiteWhereException {
-	connection.publish(topic, MarshalUtils.marshalJson(event), QoS.AT_LEAST_ONCE, false);
-    }
-
-    /*
-     * @see
-     * com.sitewhere.connectors.spi.IMulticastingOutboundConnector#getMulticaster()
-     */
-    @Override
-    public IDeviceEventMulticaster<String> getMulticaster() {
-	return multicaster;
-    }
-
-    public void setMulticaster(IDeviceEventMulticaster<String> multicaster) {
-	this.multicaster = multicaster;
-    }
-
-    /*
-     * @see
-     * com.sitewhere.connectors.spi.IMulticastingOutboundConnector#getRouteBuilder()
-     */
-    @Override
-    public IRouteBuilder<String> getRouteBuilder() {
-	return routeBuilder;
-    }
-
-    public void setRouteBuilder(IRouteBuilder<String> routeBuilder) {
-	this.routeBuilder = routeBuilder;
+    private static QoS qosFromConfig(String qos) {
+	if ("0".equals(qos) || "AT_MOST_ONCE".equals(qos))
+	    return QoS.AT_MOST_ONCE;
+	if ("2".equals(qos) || "EXACTLY_ONCE".equals(qos))
+	    return QoS.EXACTLY_ONCE;
+	return QoS.AT_LEAST_ONCE;
     }
 
     /*
@@ -435,4 +337,24 @@ public class MqttOutboundConnector extends SerialOutboundConnector
     public void setTopic(String topic) {
 	this.topic = topic;
     }
+
+    /**
+     * Tracks publishes for a single batch. MQTT publishes are acknowledged
+     * individually, so sequence numbers are assigned locally.
+     * 
+     * @author Derek
+     */
+    private static class MqttConfirmTracker extends PublishConfirmTracker {
+
+	/** Next sequence number */
+	private long sequence;
+
+	public MqttConfirmTracker(int maxInFlight) {
+	    super(maxInFlight);
+	}
+
+	public long nextSequence() {
+	    return sequence++;
+	}
+    }
 }
\ No newline at end of file
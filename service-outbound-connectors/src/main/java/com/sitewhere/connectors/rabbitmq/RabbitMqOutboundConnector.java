@@ -9,39 +9,27 @@ package com.sitewhere.connectors.rabbitmq;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmListener;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
-import com.sitewhere.common.MarshalUtils;
-import com.sitewhere.connectors.FilteredOutboundConnector;
-import com.sitewhere.connectors.SerialOutboundConnector;
-import com.sitewhere.connectors.spi.IMulticastingOutboundConnector;
-import com.sitewhere.connectors.spi.multicast.IDeviceEventMulticaster;
-import com.sitewhere.connectors.spi.routing.IRouteBuilder;
+import com.sitewhere.connectors.AsyncPublishingOutboundConnector;
+import com.sitewhere.connectors.PublishConfirmTracker;
 import com.sitewhere.spi.SiteWhereException;
-import com.sitewhere.spi.device.IDevice;
-import com.sitewhere.spi.device.IDeviceAssignment;
-import com.sitewhere.spi.device.IDeviceManagement;
-import com.sitewhere.spi.device.event.IDeviceAlert;
-import com.sitewhere.spi.device.event.IDeviceCommandInvocation;
-import com.sitewhere.spi.device.event.IDeviceCommandResponse;
-import com.sitewhere.spi.device.event.IDeviceEvent;
-import com.sitewhere.spi.device.event.IDeviceEventContext;
-import com.sitewhere.spi.device.event.IDeviceLocation;
-import com.sitewhere.spi.device.event.IDeviceMeasurement;
-import com.sitewhere.spi.device.event.IDeviceStateChange;
+import com.sitewhere.spi.microservice.kafka.payload.IEnrichedEventPayload;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
-import com.sitewhere.spi.tenant.ITenant;
 
 /**
- * Extension of {@link FilteredOutboundConnector} that sends messages to
- * RabbitMQ via AMQP.
+ * Extension of {@link AsyncPublishingOutboundConnector} that sends messages to
+ * RabbitMQ via AMQP. Each processing thread publishes on its own channel with
+ * publisher confirms enabled so that a batch completes only after the broker
+ * has confirmed every message in it.
  * 
  * @author Derek
  */
-public class RabbitMqOutboundConnector extends SerialOutboundConnector
-	implements IMulticastingOutboundConnector<String> {
+public class RabbitMqOutboundConnector extends AsyncPublishingOutboundConnector {
 
     /** Default connection URI */
     private static final String DEFAULT_CONNECTION_URI = "amqp://localhost";
@@ -64,14 +52,14 @@ public class RabbitMqOutboundConnector extends SerialOutboundConnector
     /** RabbitMQ connection */
     private Connection connection;
 
-    /** RabbitMQ channel */
+    /** RabbitMQ channel used for declaring exchange */
     private Channel channel;
 
-    /** Multicaster for events */
-    private IDeviceEventMulticaster<String> multicaster;
+    /** Channel used for publishing by each processing thread */
+    private ThreadLocal<ChannelPublisher> publishers;
 
-    /** Route builder for generating topics */
-    private IRouteBuilder<String> routeBuilder;
+    /** All channels created for publishing */
+    private List<ChannelPublisher> allPublishers = new CopyOnWriteArrayList<ChannelPublisher>();
 
     /*
      * (non-Javadoc)
@@ -82,17 +70,10 @@ public class RabbitMqOutboundConnector extends SerialOutboundConnector
      */
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	// Required for filters, multicaster and route builder.
 	super.start(monitor);
 
-	// Start multicaster if configured.
-	if (multicaster != null) {
-	    startNestedComponent(multicaster, monitor, true);
-	}
-
-	// Start route builder if configured.
-	if (routeBuilder != null) {
-	    startNestedComponent(routeBuilder, monitor, true);
-	}
+	this.publishers = new ThreadLocal<ChannelPublisher>();
 	try {
 	    ConnectionFactory factory = new ConnectionFactory();
 	    factory.setUri(getConnectionUri());
@@ -115,17 +96,13 @@ public class RabbitMqOutboundConnector extends SerialOutboundConnector
      */
     @Override
     public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
-	// Stop multicaster if configured.
-	if (multicaster != null) {
-	    multicaster.lifecycleStop(monitor);
-	}
-
-	// Stop route builder if configured.
-	if (routeBuilder != null) {
-	    routeBuilder.lifecycleStop(monitor);
-	}
-
 	try {
+	    for (ChannelPublisher publisher : allPublishers) {
+		if (publisher.getChannel().isOpen()) {
+		    publisher.getChannel().close();
+		}
+	    }
+	    allPublishers.clear();
 	    if (channel != null) {
 		channel.close();
 	    }
@@ -139,139 +116,47 @@ public class RabbitMqOutboundConnector extends SerialOutboundConnector
     }
 
     /*
-     * @see
-     * com.sitewhere.connectors.SerialOutboundConnector#onMeasurement(com.sitewhere.
-     * spi.device.event.IDeviceEventContext,
-     * com.sitewhere.spi.device.event.IDeviceMeasurement)
-     */
-    @Override
-    public void onMeasurement(IDeviceEventContext context, IDeviceMeasurement mx) throws SiteWhereException {
-	sendEvent(mx);
-    }
-
-    /*
-     * @see
-     * com.sitewhere.connectors.SerialOutboundConnector#onLocation(com.sitewhere.spi
-     * .device.event.IDeviceEventContext,
-     * com.sitewhere.spi.device.event.IDeviceLocation)
-     */
-    @Override
-    public void onLocation(IDeviceEventContext context, IDeviceLocation location) throws SiteWhereException {
-	sendEvent(location);
-    }
-
-    /*
-     * @see
-     * com.sitewhere.connectors.SerialOutboundConnector#onAlert(com.sitewhere.spi.
-     * device.event.IDeviceEventContext,
-     * com.sitewhere.spi.device.event.IDeviceAlert)
+     * @see com.sitewhere.connectors.AsyncPublishingOutboundConnector#
+     * getConfirmTracker()
      */
     @Override
-    public void onAlert(IDeviceEventContext context, IDeviceAlert alert) throws SiteWhereException {
-	sendEvent(alert);
-    }
-
-    /*
-     * @see
-     * com.sitewhere.connectors.SerialOutboundConnector#onStateChange(com.sitewhere.
-     * spi.device.event.IDeviceEventContext,
-     * com.sitewhere.spi.device.event.IDeviceStateChange)
-     */
-    @Override
-    public void onStateChange(IDeviceEventContext context, IDeviceStateChange state) throws SiteWhereException {
-	sendEvent(state);
-    }
-
-    /*
-     * @see
-     * com.sitewhere.connectors.SerialOutboundConnector#onCommandInvocation(com.
-     * sitewhere.spi.device.event.IDeviceEventContext,
-     * com.sitewhere.spi.device.event.IDeviceCommandInvocation)
-     */
-    @Override
-    public void onCommandInvocation(IDeviceEventContext context, IDeviceCommandInvocation invocation)
-	    throws SiteWhereException {
-	sendEvent(invocation);
-    }
-
-    /*
-     * @see com.sitewhere.connectors.SerialOutboundConnector#onCommandResponse(com.
-     * sitewhere.spi.device.event.IDeviceEventContext,
-     * com.sitewhere.spi.device.event.IDeviceCommandResponse)
-     */
-    @Override
-    public void onCommandResponse(IDeviceEventContext context, IDeviceCommandResponse response)
-	    throws SiteWhereException {
-	sendEvent(response);
-    }
-
-    /**
-     * Send an {@link IDeviceEvent} to the configured topic.
-     * 
-     * @param event
-     * @throws SiteWhereException
-     */
-    protected void sendEvent(IDeviceEvent event) throws SiteWhereException {
-	IDeviceManagement dm = getDeviceManagement(getTenantEngine().getTenant());
-	IDeviceAssignment assignment = dm.getDeviceAssignment(event.getDeviceAssignmentId());
-	IDevice device = dm.getDevice(assignment.getDeviceId());
-	if (getMulticaster() != null) {
-	    List<String> routes = getMulticaster().calculateRoutes(event, device, assignment);
-	    for (String route : routes) {
-		publish(event, route);
+    protected PublishConfirmTracker getConfirmTracker() throws SiteWhereException {
+	ChannelPublisher publisher = publishers.get();
+	if ((publisher == null) || (!publisher.getChannel().isOpen())) {
+	    if (publisher != null) {
+		allPublishers.remove(publisher);
 	    }
-	} else {
-	    if (getRouteBuilder() != null) {
-		publish(event, getRouteBuilder().build(event, device, assignment));
-	    } else {
-		publish(event, getTopic());
+	    try {
+		publisher = new ChannelPublisher(connection.createChannel());
+	    } catch (IOException e) {
+		throw new SiteWhereException("Unable to create RabbitMQ channel for publishing.", e);
 	    }
+	    publishers.set(publisher);
+	    allPublishers.add(publisher);
 	}
-    }
-
-    /**
-     * Publish an event to an MQTT topic.
-     * 
-     * @param event
-     * @throws SiteWhereException
-     */
-    protected void publish(IDeviceEvent event, String topic) throws SiteWhereException {
-	try {
-	    channel.basicPublish(exchange, topic, null, MarshalUtils.marshalJson(event));
-	    getLogger().debug("Publishing event " + event.getId() + " to topic: " + topic);
-	} catch (IOException e) {
-	    throw new SiteWhereException("Unable to publish to RabbitMQ topic.", e);
-	}
-    }
-
-    /*
-     * (non-Javadoc)
-     * 
-     * @see com.sitewhere.spi.device.event.processor.
-     * IMulticastingOutboundEventProcessor# getMulticaster()
-     */
-    @Override
-    public IDeviceEventMulticaster<String> getMulticaster() {
-	return this.multicaster;
+	return publisher.getTracker();
     }
 
     /*
-     * (non-Javadoc)
-     * 
-     * @see com.sitewhere.spi.device.event.processor.
-     * IMulticastingOutboundEventProcessor# getRouteBuilder()
+     * @see
+     * com.sitewhere.connectors.AsyncPublishingOutboundConnector#publish(com.
+     * sitewhere.connectors.PublishConfirmTracker,
+     * com.sitewhere.spi.microservice.kafka.payload.IEnrichedEventPayload,
+     * java.lang.String, byte[])
      */
     @Override
-    public IRouteBuilder<String> getRouteBuilder() {
-	return this.routeBuilder;
-    }
-
-    public void setMulticaster(IDeviceEventMulticaster<String> multicaster) {
-	this.multicaster = multicaster;
-    }
-
-    public void setRouteBuilder(IRouteBuilder<String> routeBuilder) {
-	this.routeBuilder = routeBuilder;
+    protected void publish(PublishConfirmTracker tracker, IEnrichedEventPayload payload, String route,
+	    byte[] message) throws SiteWhereException, InterruptedException {
+	Channel publishChannel = publishers.get().getChannel();
+	long sequence = publishChannel.getNextPublishSeqNo();
+	tracker.register(sequence, payload);
+	try {
+	    publishChannel.basicPublish(exchange, route, null, message);
+	} catch (IOException | RuntimeException e) {
+	    // Includes AlreadyClosedException if the channel was closed under us.
+	    getLogger().error("Unable to publish to RabbitMQ topic '" + route + "'.", e);
+	    tracker.reject(sequence, false);
+	}
     }
 
     public String getConnectionUri() {
@@ -290,7 +175,50 @@ public class RabbitMqOutboundConnector extends SerialOutboundConnector
 	this.topic = topic;
     }
 
-    private IDeviceManagement getDeviceManagement(ITenant tenant) {
-	return null;
+    /**
+     * Channel with publisher confirms enabled and tracker for the messages
+     * published on it.
+     * 
+     * @author Derek
+     */
+    private class ChannelPublisher implements ConfirmListener {
+
+	/** Channel used for publishing */
+	private Channel channel;
+
+	/** Tracks unconfirmed messages */
+	private PublishConfirmTracker tracker;
+
+	public ChannelPublisher(Channel channel) throws IOException {
+	    this.channel = channel;
+	    this.tracker = new PublishConfirmTracker(getMaxInFlight());
+	    channel.confirmSelect();
+	    channel.addConfirmListener(this);
+	}
+
+	/*
+	 * @see com.rabbitmq.client.ConfirmListener#handleAck(long, boolean)
+	 */
+	@Override
+	public void handleAck(long deliveryTag, boolean multiple) throws IOException {
+	    tracker.confirm(deliveryTag, multiple);
+	}
+
+	/*
+	 * @see com.rabbitmq.client.ConfirmListener#handleNack(long, boolean)
+	 */
+	@Override
+	public void handleNack(long deliveryTag, boolean multiple) throws IOException {
+	    getLogger().warn("RabbitMQ rejected published message " + deliveryTag + ".");
+	    tracker.reject(deliveryTag, multiple);
+	}
+
+	public Channel getChannel() {
+	    return channel;
+	}
+
+	public PublishConfirmTracker getTracker() {
+	    return tracker;
+	}
     }
 }
\ No newline at end of file
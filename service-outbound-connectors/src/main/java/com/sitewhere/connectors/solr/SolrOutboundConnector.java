@@ -93,6 +93,11 @@ public class SolrOutboundConnector extends SerialOutboundConnector {
 	} catch (IOException e) {
 	    throw new SiteWhereException("Exception in ping. Verify that Solr server is available.", e);
 	}
+	try {
+	    getSolrConnection().ensureSpatialSchema();
+	} catch (SiteWhereException e) {
+	    getLogger().warn("Unable to verify Solr spatial schema. Locations may not support proximity search.", e);
+	}
 	getLogger().info(
 		"Solr event processor indexing events to server at: " + getSolrConfiguration().getSolrServerUrl());
 	executor.execute(new SolrDocumentQueueProcessor());
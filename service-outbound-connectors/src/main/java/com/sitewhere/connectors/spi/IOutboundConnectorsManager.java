@@ -8,7 +8,10 @@
 package com.sitewhere.connectors.spi;
 
 import java.util.List;
+import java.util.Set;
 
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.server.lifecycle.ITenantEngineLifecycleComponent;
 
 /**
@@ -24,4 +27,21 @@ public interface IOutboundConnectorsManager extends ITenantEngineLifecycleCompon
      * @return
      */
     public List<IOutboundConnector> getOutboundConnectors();
+
+    /**
+     * Apply an updated list of connectors without stopping connectors that
+     * have not changed. Connectors are matched by id. Those listed as updated,
+     * those not currently running and those no longer in the list are
+     * restarted, started or stopped respectively. An updated connector is
+     * started before the connector it replaces is stopped. If it fails to start,
+     * the existing connector is kept and false is returned.
+     * 
+     * @param connectors
+     * @param updatedIds
+     * @param monitor
+     * @return true if all connectors were applied
+     * @throws SiteWhereException
+     */
+    public boolean updateOutboundConnectors(List<IOutboundConnector> connectors, Set<String> updatedIds,
+	    ILifecycleProgressMonitor monitor) throws SiteWhereException;
 }
\ No newline at end of file
@@ -141,6 +141,24 @@ public class OutboundConnectorsParser extends AbstractBeanDefinitionParser {
 	}
     }
 
+    /**
+     * Parse attributes for connectors that publish asynchronously.
+     * 
+     * @param element
+     * @param builder
+     */
+    protected void parseAsyncPublishingAttributes(Element element, BeanDefinitionBuilder builder) {
+	Attr maxInFlight = element.getAttributeNode("maxInFlight");
+	if (maxInFlight != null) {
+	    builder.addPropertyValue("maxInFlight", maxInFlight.getValue());
+	}
+
+	Attr confirmTimeoutMs = element.getAttributeNode("confirmTimeoutMs");
+	if (confirmTimeoutMs != null) {
+	    builder.addPropertyValue("confirmTimeoutMs", confirmTimeoutMs.getValue());
+	}
+    }
+
     /**
      * Parse configuration for custom outbound connector.
      * 
@@ -225,6 +243,9 @@ public class OutboundConnectorsParser extends AbstractBeanDefinitionParser {
 	    processor.addPropertyValue("topic", topic.getValue());
 	}
 
+	// Parse in-flight window and confirm timeout.
+	parseAsyncPublishingAttributes(element, processor);
+
 	// Parse nested filters.
 	processor.addPropertyValue("filters", parseFilters(element, context));
 
@@ -262,6 +283,9 @@ public class OutboundConnectorsParser extends AbstractBeanDefinitionParser {
 	    processor.addPropertyValue("topic", topic.getValue());
 	}
 
+	// Parse in-flight window and confirm timeout.
+	parseAsyncPublishingAttributes(element, processor);
+
 	// Parse nested filters.
 	processor.addPropertyValue("filters", parseFilters(element, context));
 
@@ -546,7 +570,7 @@ public class OutboundConnectorsParser extends AbstractBeanDefinitionParser {
 	if (specification == null) {
 	    throw new RuntimeException("Attribute 'specification' is required for specification-filter.");
 	}
-	filter.addPropertyValue("specificationToken", specification.getValue());
+	filter.addPropertyValue("deviceTypeToken", specification.getValue());
 
 	Attr operation = element.getAttributeNode("operation");
 	if (operation != null) {
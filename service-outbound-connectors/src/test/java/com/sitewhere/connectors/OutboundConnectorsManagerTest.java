@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.connectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.codahale.metrics.Timer;
+import com.sitewhere.connectors.kafka.KafkaOutboundConnectorHost;
+import com.sitewhere.connectors.spi.IOutboundConnector;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.microservice.IMicroservice;
+import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
+import com.sitewhere.spi.server.lifecycle.LifecycleStatus;
+
+/**
+ * Tests for applying updated connector lists to a running
+ * {@link OutboundConnectorsManager}.
+ * 
+ * @author Derek
+ */
+public class OutboundConnectorsManagerTest {
+
+    /** Monitor that ignores progress */
+    private ILifecycleProgressMonitor monitor = stub(ILifecycleProgressMonitor.class);
+
+    /** Manager under test */
+    private TestConnectorsManager manager;
+
+    @Before
+    public void setup() throws SiteWhereException {
+	manager = new TestConnectorsManager();
+	manager.setMicroservice(stub(IMicroservice.class));
+	manager.setOutboundConnectors(Arrays.asList(connector("a"), connector("b"), connector("c")));
+	manager.initialize(monitor);
+	manager.start(monitor);
+    }
+
+    @Test
+    public void testUnchangedConnectorsKeepRunning() throws SiteWhereException {
+	StubHost a = host("a");
+	StubHost b = host("b");
+	StubHost c = host("c");
+	List<IOutboundConnector> connectors = Arrays.asList(connector("a"), connector("b"), connector("c"));
+	boolean applied = manager.updateOutboundConnectors(connectors, Collections.<String> emptySet(), monitor);
+	assertTrue(applied);
+	assertSame(a, host("a"));
+	assertSame(b, host("b"));
+	assertSame(c, host("c"));
+	assertEquals(3, manager.getCreated().size());
+    }
+
+    @Test
+    public void testAddedChangedAndRemovedConnectors() throws SiteWhereException {
+	StubHost a = host("a");
+	StubHost b = host("b");
+	StubHost c = host("c");
+	List<IOutboundConnector> connectors = Arrays.asList(connector("a"), connector("b"), connector("d"));
+	Set<String> updated = new HashSet<String>(Arrays.asList("b"));
+	boolean applied = manager.updateOutboundConnectors(connectors, updated, monitor);
+	assertTrue(applied);
+
+	// Unchanged connector keeps its host.
+	assertSame(a, host("a"));
+	assertEquals(LifecycleStatus.Started, a.getLifecycleStatus());
+
+	// Changed connector is replaced and the old host is terminated.
+	assertTrue(host("b") != b);
+	assertEquals(LifecycleStatus.Started, host("b").getLifecycleStatus());
+	assertTrue(b.isTerminated());
+	assertFalse(manager.getLifecycleComponents().containsKey(b.getComponentId()));
+
+	// Added connector is started.
+	assertEquals(LifecycleStatus.Started, host("d").getLifecycleStatus());
+
+	// Removed connector is stopped, terminated and unregistered.
+	assertTrue(c.isTerminated());
+	assertFalse(manager.getLifecycleComponents().containsKey(c.getComponentId()));
+	assertEquals(3, manager.getConnectorHosts().size());
+	assertEquals(3, manager.getOutboundConnectors().size());
+    }
+
+    @Test
+    public void testFailedStartKeepsExistingConnector() throws SiteWhereException {
+	StubHost b = host("b");
+	manager.getFailing().add("b");
+	List<IOutboundConnector> connectors = Arrays.asList(connector("a"), connector("b"), connector("c"));
+	Set<String> updated = new HashSet<String>(Arrays.asList("b"));
+	boolean applied = manager.updateOutboundConnectors(connectors, updated, monitor);
+	assertFalse(applied);
+
+	// Existing host is still running and the failed replacement is cleaned up.
+	assertSame(b, host("b"));
+	assertEquals(LifecycleStatus.Started, b.getLifecycleStatus());
+	assertFalse(b.isTerminated());
+	StubHost failed = manager.getCreated().get(manager.getCreated().size() - 1);
+	assertTrue(failed.isTerminated());
+	assertFalse(manager.getLifecycleComponents().containsKey(failed.getComponentId()));
+	assertEquals(3, manager.getConnectorHosts().size());
+    }
+
+    @Test
+    public void testFailedStartOfAddedConnector() throws SiteWhereException {
+	manager.getFailing().add("d");
+	List<IOutboundConnector> connectors = Arrays.asList(connector("a"), connector("b"), connector("c"),
+		connector("d"));
+	boolean applied = manager.updateOutboundConnectors(connectors, Collections.<String> emptySet(), monitor);
+	assertFalse(applied);
+	assertEquals(3, manager.getConnectorHosts().size());
+	assertNull(host("d"));
+    }
+
+    /**
+     * Find host for a connector id.
+     * 
+     * @param id
+     * @return
+     */
+    protected StubHost host(String id) {
+	for (KafkaOutboundConnectorHost host : manager.getConnectorHosts()) {
+	    if (id.equals(host.getOutboundConnector().getConnectorId())) {
+		return (StubHost) host;
+	    }
+	}
+	return null;
+    }
+
+    /**
+     * Create a connector that only provides an id.
+     * 
+     * @param id
+     * @return
+     */
+    protected static IOutboundConnector connector(String id) {
+	return (IOutboundConnector) Proxy.newProxyInstance(OutboundConnectorsManagerTest.class.getClassLoader(),
+		new Class<?>[] { IOutboundConnector.class }, (proxy, method, args) -> {
+		    switch (method.getName()) {
+		    case "getConnectorId":
+			return id;
+		    case "hashCode":
+			return System.identityHashCode(proxy);
+		    case "equals":
+			return proxy == args[0];
+		    case "toString":
+			return id;
+		    default:
+			return null;
+		    }
+		});
+    }
+
+    /**
+     * Create an implementation of an interface that returns null for all methods.
+     * 
+     * @param type
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T> T stub(Class<T> type) {
+	return (T) Proxy.newProxyInstance(OutboundConnectorsManagerTest.class.getClassLoader(), new Class<?>[] { type },
+		(proxy, method, args) -> {
+		    switch (method.getName()) {
+		    case "hashCode":
+			return System.identityHashCode(proxy);
+		    case "equals":
+			return proxy == args[0];
+		    case "toString":
+			return type.getSimpleName();
+		    default:
+			return null;
+		    }
+		});
+    }
+
+    /**
+     * Manager that creates stub hosts and untracked timers.
+     * 
+     * @author Derek
+     */
+    private static class TestConnectorsManager extends OutboundConnectorsManager {
+
+	/** Connector ids whose hosts fail to start */
+	private Set<String> failing = new HashSet<String>();
+
+	/** All hosts created */
+	private List<StubHost> created = new ArrayList<StubHost>();
+
+	@Override
+	protected KafkaOutboundConnectorHost createConnectorHost(IOutboundConnector connector) {
+	    StubHost host = new StubHost(connector, failing.contains(connector.getConnectorId()));
+	    created.add(host);
+	    return host;
+	}
+
+	@Override
+	public Timer createTimerMetric(String name) {
+	    return new Timer();
+	}
+
+	public Set<String> getFailing() {
+	    return failing;
+	}
+
+	public List<StubHost> getCreated() {
+	    return created;
+	}
+    }
+
+    /**
+     * Host that does not connect to Kafka.
+     * 
+     * @author Derek
+     */
+    private static class StubHost extends KafkaOutboundConnectorHost {
+
+	/** Indicates start should fail */
+	private boolean failStart;
+
+	/** Indicates host was terminated */
+	private boolean terminated;
+
+	public StubHost(IOutboundConnector connector, boolean failStart) {
+	    super(connector);
+	    this.failStart = failStart;
+	}
+
+	@Override
+	public void initialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	}
+
+	@Override
+	public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	    if (failStart) {
+		throw new SiteWhereException("Unable to start connector.");
+	    }
+	}
+
+	@Override
+	public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	}
+
+	@Override
+	public void terminate(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	    terminated = true;
+	}
+
+	public boolean isTerminated() {
+	    return terminated;
+	}
+    }
+}
@@ -7,24 +7,31 @@
  */
 package com.sitewhere.schedule;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
 import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
 import org.quartz.Trigger;
 import org.quartz.TriggerKey;
 import org.quartz.impl.DirectSchedulerFactory;
-import org.quartz.simpl.RAMJobStore;
-import org.quartz.simpl.SimpleThreadPool;
+import org.quartz.impl.matchers.GroupMatcher;
 
+import com.novemberain.quartz.mongodb.MongoDBJobStore;
+import com.sitewhere.mongodb.MongoDbClient;
 import com.sitewhere.rest.model.search.SearchCriteria;
+import com.sitewhere.schedule.jobs.MisfirePolicy;
 import com.sitewhere.schedule.jobs.QuartzBuilder;
 import com.sitewhere.schedule.spi.IScheduleManager;
+import com.sitewhere.schedule.spi.microservice.IScheduleManagementMicroservice;
 import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent;
 import com.sitewhere.spi.SiteWhereException;
-import com.sitewhere.spi.microservice.multitenant.IMicroserviceTenantEngine;
 import com.sitewhere.spi.scheduling.ISchedule;
 import com.sitewhere.spi.scheduling.IScheduleManagement;
 import com.sitewhere.spi.scheduling.IScheduledJob;
@@ -34,46 +41,69 @@ import com.sitewhere.spi.server.lifecycle.LifecycleComponentType;
 
 /**
  * Implementation of {@link IScheduleManager} that uses Quartz to handle
- * schedule management.
+ * schedule management. Triggers are persisted in the schedule management
+ * MongoDB database so that misfires are detected across restarts, and the job
+ * store is clustered so that each trigger fires on only one replica of the
+ * microservice. Jobs run on the worker threads shared by all tenants.
  * 
  * @author Derek
  */
 public class QuartzScheduleManager extends TenantEngineLifecycleComponent implements IScheduleManager {
 
-    /** Instance id common to all schedulers */
-    private static final String INSTANCE_ID = "sitewhere";
+    /** Key for schedule manager in scheduler context */
+    public static final String CONTEXT_SCHEDULE_MANAGER = "scheduleManager";
 
-    /** Default number of threads used to process scheduled tasks */
-    private static final int DEFAULT_THREAD_COUNT = 5;
+    /** Prefix for Quartz collections */
+    private static final String COLLECTION_PREFIX = "quartz";
+
+    /** Default misfire threshold in milliseconds */
+    private static final long DEFAULT_MISFIRE_THRESHOLD_MS = 60 * 1000;
+
+    /** Default cluster checkin interval in milliseconds */
+    private static final long DEFAULT_CLUSTER_CHECKIN_INTERVAL_MS = 7500;
 
     /** Schedule management implementation */
     private IScheduleManagement scheduleManagement;
 
-    /** Number of threads used for processing */
-    private int numProcessingThreads = DEFAULT_THREAD_COUNT;
+    /** Client for database that stores triggers */
+    private MongoDbClient mongoClient;
+
+    /** Policy applied to triggers that miss their fire time */
+    private MisfirePolicy misfirePolicy = MisfirePolicy.Smart;
+
+    /** Time after which a late trigger is considered misfired */
+    private long misfireThresholdMs = DEFAULT_MISFIRE_THRESHOLD_MS;
+
+    /** Indicates whether the job store is shared with other replicas */
+    private boolean clustered = true;
+
+    /** Interval at which replicas check in with the cluster */
+    private long clusterCheckinIntervalMs = DEFAULT_CLUSTER_CHECKIN_INTERVAL_MS;
+
+    /** Scheduler instance */
+    private Scheduler scheduler;
 
     /** Cache schedules by token */
     private Map<String, ISchedule> schedulesByToken = new HashMap<String, ISchedule>();
 
-    public QuartzScheduleManager(IScheduleManagement scheduleManagement) {
+    public QuartzScheduleManager() {
 	super(LifecycleComponentType.ScheduleManager);
+    }
+
+    public QuartzScheduleManager(IScheduleManagement scheduleManagement) {
+	this();
 	this.scheduleManagement = scheduleManagement;
     }
 
-    /*
-     * @see
-     * com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent#setTenantEngine
-     * (com.sitewhere.spi.microservice.multitenant.IMicroserviceTenantEngine)
+    /**
+     * Get the schedule manager for the tenant that fired a job.
+     * 
+     * @param context
+     * @return
+     * @throws SchedulerException
      */
-    @Override
-    public void setTenantEngine(IMicroserviceTenantEngine tenantEngine) {
-	super.setTenantEngine(tenantEngine);
-	try {
-	    DirectSchedulerFactory.getInstance().createScheduler(tenantEngine.getTenant().getToken(), INSTANCE_ID,
-		    new SimpleThreadPool(getNumProcessingThreads(), Thread.NORM_PRIORITY), new RAMJobStore());
-	} catch (SchedulerException e) {
-	    throw new RuntimeException("Unable to create Quartz scheduler for schedule manager.", e);
-	}
+    public static IScheduleManager getScheduleManager(JobExecutionContext context) throws SchedulerException {
+	return (IScheduleManager) context.getScheduler().getContext().get(CONTEXT_SCHEDULE_MANAGER);
     }
 
     /*
@@ -86,14 +116,45 @@ public class QuartzScheduleManager extends TenantEngineLifecycleComponent implem
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	try {
-	    getScheduler().start();
+	    this.scheduler = createScheduler();
+	    getScheduler().getContext().put(CONTEXT_SCHEDULE_MANAGER, this);
 	    cacheSchedules();
 	    scheduleJobs();
+	    getScheduler().start();
 	} catch (SchedulerException e) {
 	    throw new SiteWhereException("Unable to start scheduler instance.", e);
 	}
     }
 
+    /**
+     * Create a scheduler that stores triggers in MongoDB and runs jobs on the
+     * shared worker threads. All replicas use the tenant token as the scheduler
+     * name and a unique instance id, which allows the job store to coordinate
+     * them as a cluster.
+     * 
+     * @return
+     * @throws SiteWhereException
+     * @throws SchedulerException
+     */
+    protected Scheduler createScheduler() throws SiteWhereException, SchedulerException {
+	if (getMongoClient() == null) {
+	    throw new SiteWhereException("No MongoDB client configured for schedule manager.");
+	}
+	MongoDBJobStore store = new MongoDBJobStore(getMongoClient().getMongoClient());
+	store.setDbName(getMongoClient().getDatabaseName().getValue());
+	store.setCollectionPrefix(COLLECTION_PREFIX);
+	store.setIsClustered(isClustered());
+	store.setClusterCheckinIntervalMillis(getClusterCheckinIntervalMs());
+	store.setMisfireThreshold(getMisfireThresholdMs());
+
+	IScheduleManagementMicroservice microservice = (IScheduleManagementMicroservice) getTenantEngine()
+		.getMicroservice();
+	String name = getTenantEngine().getTenant().getToken();
+	DirectSchedulerFactory.getInstance().createScheduler(name, microservice.getHostname(),
+		microservice.getSchedulerThreadPool().createTenantThreadPool(), store);
+	return DirectSchedulerFactory.getInstance().getScheduler(name);
+    }
+
     /**
      * Cache the list of schedules by unique token.
      * 
@@ -110,14 +171,48 @@ public class QuartzScheduleManager extends TenantEngineLifecycleComponent implem
     }
 
     /**
-     * Schedule all jobs registered in the system.
+     * Bring the persistent job store in line with the jobs registered in the
+     * system. Jobs that already have a trigger are left alone so that their
+     * next fire time and misfire state are preserved. Missing jobs are added in
+     * a single bulk call and triggers for jobs that no longer exist are
+     * removed.
      * 
      * @throws SiteWhereException
      */
     protected void scheduleJobs() throws SiteWhereException {
-	ISearchResults<IScheduledJob> jobs = getScheduleManagement().listScheduledJobs(SearchCriteria.ALL);
-	for (IScheduledJob job : jobs.getResults()) {
-	    scheduleJob(job);
+	try {
+	    ISearchResults<IScheduledJob> jobs = getScheduleManagement().listScheduledJobs(SearchCriteria.ALL);
+	    Set<TriggerKey> expected = new HashSet<TriggerKey>();
+	    Map<JobDetail, Set<? extends Trigger>> missing = new HashMap<JobDetail, Set<? extends Trigger>>();
+	    for (IScheduledJob job : jobs.getResults()) {
+		TriggerKey key = new TriggerKey(job.getToken());
+		expected.add(key);
+		if (getScheduler().checkExists(key)) {
+		    continue;
+		}
+		try {
+		    ISchedule schedule = getScheduleForJob(job);
+		    missing.put(QuartzBuilder.buildJobDetail(job),
+			    Collections.singleton(QuartzBuilder.buildTrigger(job, schedule, getMisfirePolicy())));
+		} catch (SiteWhereException e) {
+		    getLogger().error("Unable to schedule job " + job.getToken() + ".", e);
+		}
+	    }
+	    if (missing.size() > 0) {
+		getScheduler().scheduleJobs(missing, true);
+	    }
+
+	    int removed = 0;
+	    for (TriggerKey key : getScheduler().getTriggerKeys(GroupMatcher.anyTriggerGroup())) {
+		if (!expected.contains(key)) {
+		    getScheduler().unscheduleJob(key);
+		    removed++;
+		}
+	    }
+	    getLogger().info("Scheduled " + missing.size() + " new jobs, kept " + (expected.size() - missing.size())
+		    + " persisted jobs and removed " + removed + " stale triggers.");
+	} catch (SchedulerException e) {
+	    throw new SiteWhereException("Unable to synchronize scheduled jobs.", e);
 	}
     }
 
@@ -131,9 +226,11 @@ public class QuartzScheduleManager extends TenantEngineLifecycleComponent implem
     @Override
     public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	try {
-	    getScheduler().shutdown();
+	    if (getScheduler() != null) {
+		getScheduler().shutdown(true);
+	    }
 	} catch (SchedulerException e) {
-	    throw new SiteWhereException("Unable to start scheduler instance.", e);
+	    throw new SiteWhereException("Unable to stop scheduler instance.", e);
 	}
     }
 
@@ -169,15 +266,12 @@ public class QuartzScheduleManager extends TenantEngineLifecycleComponent implem
     @Override
     public void scheduleJob(IScheduledJob job) throws SiteWhereException {
 	JobDetail detail = QuartzBuilder.buildJobDetail(job);
-	ISchedule schedule = getSchedulesByToken().get(job.getScheduleToken());
-	if (schedule == null) {
-	    throw new SiteWhereException("Job references unknown schedule: " + job.getScheduleToken());
-	}
+	ISchedule schedule = getScheduleForJob(job);
 
 	getLogger().info("Scheduling job " + job.getToken() + " for '" + schedule.getName() + "'.");
-	Trigger trigger = QuartzBuilder.buildTrigger(job, schedule);
+	Trigger trigger = QuartzBuilder.buildTrigger(job, schedule, getMisfirePolicy());
 	try {
-	    getScheduler().scheduleJob(detail, trigger);
+	    getScheduler().scheduleJob(detail, Collections.singleton(trigger), true);
 	} catch (SchedulerException e) {
 	    throw new SiteWhereException("Unable to schedule job.", e);
 	}
@@ -199,18 +293,44 @@ public class QuartzScheduleManager extends TenantEngineLifecycleComponent implem
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.schedule.spi.IScheduleManager#submitBatchOperation(java.lang.
+     * Runnable)
+     */
+    @Override
+    public void submitBatchOperation(Runnable operation) throws SiteWhereException {
+	IScheduleManagementMicroservice microservice = (IScheduleManagementMicroservice) getTenantEngine()
+		.getMicroservice();
+	try {
+	    microservice.getSchedulerThreadPool().submitBatchOperation(operation);
+	} catch (RejectedExecutionException e) {
+	    throw new SiteWhereException("Batch operation queue is full.", e);
+	}
+    }
+
     /**
-     * Get scheduler instance for this tenant.
+     * Get cached schedule referenced by a job.
      * 
+     * @param job
      * @return
      * @throws SiteWhereException
      */
-    public Scheduler getScheduler() throws SiteWhereException {
-	try {
-	    return DirectSchedulerFactory.getInstance().getScheduler(getTenantEngine().getTenant().getToken());
-	} catch (SchedulerException e) {
-	    throw new SiteWhereException("Unable to get scheduler instance.", e);
+    protected ISchedule getScheduleForJob(IScheduledJob job) throws SiteWhereException {
+	ISchedule schedule = getSchedulesByToken().get(job.getScheduleToken());
+	if (schedule == null) {
+	    throw new SiteWhereException("Job references unknown schedule: " + job.getScheduleToken());
 	}
+	return schedule;
+    }
+
+    /**
+     * Get scheduler instance for this tenant.
+     * 
+     * @return
+     */
+    public Scheduler getScheduler() {
+	return scheduler;
     }
 
     public IScheduleManagement getScheduleManagement() {
@@ -221,12 +341,44 @@ public class QuartzScheduleManager extends TenantEngineLifecycleComponent implem
 	this.scheduleManagement = scheduleManagement;
     }
 
-    public int getNumProcessingThreads() {
-	return numProcessingThreads;
+    public MongoDbClient getMongoClient() {
+	return mongoClient;
+    }
+
+    public void setMongoClient(MongoDbClient mongoClient) {
+	this.mongoClient = mongoClient;
+    }
+
+    public MisfirePolicy getMisfirePolicy() {
+	return misfirePolicy;
+    }
+
+    public void setMisfirePolicy(MisfirePolicy misfirePolicy) {
+	this.misfirePolicy = misfirePolicy;
+    }
+
+    public long getMisfireThresholdMs() {
+	return misfireThresholdMs;
+    }
+
+    public void setMisfireThresholdMs(long misfireThresholdMs) {
+	this.misfireThresholdMs = misfireThresholdMs;
+    }
+
+    public boolean isClustered() {
+	return clustered;
+    }
+
+    public void setClustered(boolean clustered) {
+	this.clustered = clustered;
+    }
+
+    public long getClusterCheckinIntervalMs() {
+	return clusterCheckinIntervalMs;
     }
 
-    public void setNumProcessingThreads(int numProcessingThreads) {
-	this.numProcessingThreads = numProcessingThreads;
+    public void setClusterCheckinIntervalMs(long clusterCheckinIntervalMs) {
+	this.clusterCheckinIntervalMs = clusterCheckinIntervalMs;
     }
 
     public Map<String, ISchedule> getSchedulesByToken() {
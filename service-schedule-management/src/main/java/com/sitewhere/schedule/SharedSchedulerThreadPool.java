@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.schedule;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.ThreadPool;
+
+/**
+ * Worker threads shared by the Quartz schedulers of all tenants in a
+ * microservice. Each tenant scheduler is given a {@link ThreadPool} view that
+ * draws from a common set of permits, so the total number of jobs executing
+ * at once is bounded no matter how many tenants are active. A separate
+ * executor handles batch operations that jobs hand off so that they do not
+ * hold a Quartz worker while fanning out.
+ * 
+ * @author Derek
+ */
+public class SharedSchedulerThreadPool {
+
+    /** Static logger instance */
+    private static Log LOGGER = LogFactory.getLog(SharedSchedulerThreadPool.class);
+
+    /** Default number of threads used to execute jobs */
+    public static final int DEFAULT_WORKER_THREAD_COUNT = 10;
+
+    /** Default number of threads used for batch operations */
+    public static final int DEFAULT_BATCH_THREAD_COUNT = 2;
+
+    /** Default number of batch operations that may be queued */
+    public static final int DEFAULT_BATCH_QUEUE_SIZE = 1000;
+
+    /** Interval at which waiting schedulers recheck for shutdown */
+    private static final long WAIT_INTERVAL_MS = 1000;
+
+    /** Number of threads used to execute jobs */
+    private int workerThreadCount;
+
+    /** Number of threads used for batch operations */
+    private int batchThreadCount;
+
+    /** Number of batch operations that may be queued */
+    private int batchQueueSize = DEFAULT_BATCH_QUEUE_SIZE;
+
+    /** Permits for running jobs */
+    private Semaphore permits;
+
+    /** Used to signal that a permit was released */
+    private Object released = new Object();
+
+    /** Executes jobs */
+    private ExecutorService workers;
+
+    /** Executes batch operations */
+    private ExecutorService batchOperations;
+
+    public SharedSchedulerThreadPool() {
+	this(DEFAULT_WORKER_THREAD_COUNT, DEFAULT_BATCH_THREAD_COUNT);
+    }
+
+    public SharedSchedulerThreadPool(int workerThreadCount, int batchThreadCount) {
+	this.workerThreadCount = workerThreadCount;
+	this.batchThreadCount = batchThreadCount;
+    }
+
+    /**
+     * Create the worker and batch operation threads.
+     */
+    public void start() {
+	this.permits = new Semaphore(getWorkerThreadCount());
+	this.workers = Executors.newFixedThreadPool(getWorkerThreadCount(), new WorkersThreadFactory());
+	this.batchOperations = new ThreadPoolExecutor(getBatchThreadCount(), getBatchThreadCount(), 0L,
+		TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(getBatchQueueSize()),
+		new BatchOperationsThreadFactory());
+	LOGGER.info("Started shared scheduler pool with " + getWorkerThreadCount() + " worker threads and "
+		+ getBatchThreadCount() + " batch operation threads.");
+    }
+
+    /**
+     * Stop all threads. Tenant schedulers should be shut down first.
+     */
+    public void stop() {
+	if (workers != null) {
+	    workers.shutdownNow();
+	}
+	if (batchOperations != null) {
+	    batchOperations.shutdownNow();
+	}
+	synchronized (released) {
+	    released.notifyAll();
+	}
+    }
+
+    /**
+     * Create a Quartz {@link ThreadPool} for a tenant scheduler that runs jobs
+     * on the shared worker threads.
+     * 
+     * @return
+     */
+    public ThreadPool createTenantThreadPool() {
+	return new TenantThreadPool();
+    }
+
+    /**
+     * Queue a batch operation for execution.
+     * 
+     * @param operation
+     * @throws RejectedExecutionException
+     *             if the batch queue is full
+     */
+    public void submitBatchOperation(Runnable operation) throws RejectedExecutionException {
+	batchOperations.execute(operation);
+    }
+
+    /**
+     * Release a job permit and wake schedulers waiting for one.
+     */
+    protected void releasePermit() {
+	permits.release();
+	synchronized (released) {
+	    released.notifyAll();
+	}
+    }
+
+    public int getWorkerThreadCount() {
+	return workerThreadCount;
+    }
+
+    public void setWorkerThreadCount(int workerThreadCount) {
+	this.workerThreadCount = workerThreadCount;
+    }
+
+    public int getBatchThreadCount() {
+	return batchThreadCount;
+    }
+
+    public void setBatchThreadCount(int batchThreadCount) {
+	this.batchThreadCount = batchThreadCount;
+    }
+
+    public int getBatchQueueSize() {
+	return batchQueueSize;
+    }
+
+    public void setBatchQueueSize(int batchQueueSize) {
+	this.batchQueueSize = batchQueueSize;
+    }
+
+    /**
+     * View of the shared pool used by a single tenant scheduler. Shutting down
+     * the view only stops the tenant from submitting jobs and optionally waits
+     * for its running jobs. The shared threads are left running.
+     * 
+     * @author Derek
+     */
+    private class TenantThreadPool implements ThreadPool {
+
+	/** Number of jobs running for this tenant */
+	private AtomicInteger running = new AtomicInteger();
+
+	/** Indicates the tenant scheduler has shut down */
+	private volatile boolean shutdown = false;
+
+	/*
+	 * @see org.quartz.spi.ThreadPool#runInThread(java.lang.Runnable)
+	 */
+	@Override
+	public boolean runInThread(Runnable runnable) {
+	    if (shutdown) {
+		return false;
+	    }
+	    try {
+		permits.acquire();
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		return false;
+	    }
+	    running.incrementAndGet();
+	    try {
+		workers.execute(new Runnable() {
+
+		    @Override
+		    public void run() {
+			try {
+			    runnable.run();
+			} finally {
+			    running.decrementAndGet();
+			    releasePermit();
+			}
+		    }
+		});
+		return true;
+	    } catch (RejectedExecutionException e) {
+		running.decrementAndGet();
+		releasePermit();
+		return false;
+	    }
+	}
+
+	/*
+	 * @see org.quartz.spi.ThreadPool#blockForAvailableThreads()
+	 */
+	@Override
+	public int blockForAvailableThreads() {
+	    synchronized (released) {
+		while (!shutdown && !workers.isShutdown() && (permits.availablePermits() < 1)) {
+		    try {
+			released.wait(WAIT_INTERVAL_MS);
+		    } catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			break;
+		    }
+		}
+	    }
+	    return permits.availablePermits();
+	}
+
+	/*
+	 * @see org.quartz.spi.ThreadPool#initialize()
+	 */
+	@Override
+	public void initialize() throws SchedulerConfigException {
+	    if (workers == null) {
+		throw new SchedulerConfigException("Shared scheduler pool has not been started.");
+	    }
+	}
+
+	/*
+	 * @see org.quartz.spi.ThreadPool#shutdown(boolean)
+	 */
+	@Override
+	public void shutdown(boolean waitForJobsToComplete) {
+	    this.shutdown = true;
+	    synchronized (released) {
+		released.notifyAll();
+		while (waitForJobsToComplete && (running.get() > 0) && !workers.isShutdown()) {
+		    try {
+			released.wait(WAIT_INTERVAL_MS);
+		    } catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			break;
+		    }
+		}
+	    }
+	}
+
+	/*
+	 * @see org.quartz.spi.ThreadPool#getPoolSize()
+	 */
+	@Override
+	public int getPoolSize() {
+	    return getWorkerThreadCount();
+	}
+
+	/*
+	 * @see org.quartz.spi.ThreadPool#setInstanceId(java.lang.String)
+	 */
+	@Override
+	public void setInstanceId(String schedInstId) {
+	}
+
+	/*
+	 * @see org.quartz.spi.ThreadPool#setInstanceName(java.lang.String)
+	 */
+	@Override
+	public void setInstanceName(String schedName) {
+	}
+    }
+
+    /** Used for naming scheduler worker threads */
+    private class WorkersThreadFactory implements ThreadFactory {
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public Thread newThread(Runnable r) {
+	    return new Thread(r, "Scheduler Worker " + counter.incrementAndGet());
+	}
+    }
+
+    /** Used for naming batch operation threads */
+    private class BatchOperationsThreadFactory implements ThreadFactory {
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public Thread newThread(Runnable r) {
+	    return new Thread(r, "Scheduler Batch Operation " + counter.incrementAndGet());
+	}
+    }
+}
@@ -10,7 +10,9 @@ package com.sitewhere.schedule.configuration;
 import com.sitewhere.configuration.model.CommonDatastoreProvider;
 import com.sitewhere.configuration.model.ConfigurationModelProvider;
 import com.sitewhere.configuration.parser.IScheduleManagementParser;
+import com.sitewhere.rest.model.configuration.AttributeNode;
 import com.sitewhere.rest.model.configuration.ElementNode;
+import com.sitewhere.spi.microservice.configuration.model.AttributeType;
 import com.sitewhere.spi.microservice.configuration.model.IConfigurationRoleProvider;
 
 /**
@@ -45,6 +47,7 @@ public class ScheduleManagementModelProvider extends ConfigurationModelProvider
     @Override
     public void initializeElements() {
 	addElement(createScheduleManagementElement());
+	addElement(createScheduleManagerElement());
     }
 
     /*
@@ -80,4 +83,41 @@ public class ScheduleManagementModelProvider extends ConfigurationModelProvider
 
 	return builder.build();
     }
+
+    /**
+     * Create schedule manager element.
+     * 
+     * @return
+     */
+    protected ElementNode createScheduleManagerElement() {
+	ElementNode.Builder builder = new ElementNode.Builder("Schedule Manager",
+		IScheduleManagementParser.Elements.ScheduleManager.getLocalName(), "clock",
+		ScheduleManagementRoleKeys.ScheduleManager, this);
+
+	builder.description("Controls how scheduled jobs are stored and fired.");
+	builder.attributeGroup(ConfigurationModelProvider.ATTR_GROUP_GENERAL);
+
+	builder.attribute((new AttributeNode.Builder("Misfire policy", "misfirePolicy", AttributeType.String,
+		ConfigurationModelProvider.ATTR_GROUP_GENERAL)
+			.description("Action taken when a trigger misses its fire time, for instance because "
+				+ "no scheduler was running.")
+			.choice("Smart", "smart").choice("Fire once now", "fire-now")
+			.choice("Fire all missed", "ignore-misfires").choice("Skip to next", "skip").defaultValue("smart")
+			.build()));
+	builder.attribute((new AttributeNode.Builder("Misfire threshold (ms)", "misfireThresholdMs",
+		AttributeType.Integer, ConfigurationModelProvider.ATTR_GROUP_GENERAL)
+			.description("Number of milliseconds a trigger may be late before it is considered misfired.")
+			.defaultValue("60000").build()));
+	builder.attribute((new AttributeNode.Builder("Clustered", "clustered", AttributeType.Boolean,
+		ConfigurationModelProvider.ATTR_GROUP_GENERAL)
+			.description("Indicates whether replicas share the job store so that each trigger fires "
+				+ "on only one of them.")
+			.defaultValue("true").build()));
+	builder.attribute((new AttributeNode.Builder("Cluster checkin interval (ms)", "clusterCheckinIntervalMs",
+		AttributeType.Integer, ConfigurationModelProvider.ATTR_GROUP_GENERAL)
+			.description("Interval at which replicas check in with the cluster. Triggers held by a replica "
+				+ "that stops checking in are recovered by the others.")
+			.defaultValue("7500").build()));
+	return builder.build();
+    }
 }
\ No newline at end of file
@@ -12,7 +12,10 @@ import com.sitewhere.spi.microservice.configuration.model.IRoleKey;
 public enum ScheduleManagementRoleKeys implements IRoleKey {
 
     /** Schedule management */
-    ScheduleManagement("sched_mgmt");
+    ScheduleManagement("sched_mgmt"),
+
+    /** Schedule manager */
+    ScheduleManager("sched_mgr");
 
     private String id;
 
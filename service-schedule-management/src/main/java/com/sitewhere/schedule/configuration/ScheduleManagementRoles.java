@@ -22,8 +22,13 @@ public enum ScheduleManagementRoles implements IConfigurationRoleProvider {
 
     /** Root schedule management role. */
     ScheduleManagement(ConfigurationRole.build(ScheduleManagementRoleKeys.ScheduleManagement, "Schedule Management",
-	    false, false, false, new IRoleKey[] { CommonDatastoreRoleKeys.DeviceManagementDatastore }, new IRoleKey[0],
-	    true));
+	    false, false, false, new IRoleKey[] { CommonDatastoreRoleKeys.DeviceManagementDatastore,
+		    ScheduleManagementRoleKeys.ScheduleManager },
+	    new IRoleKey[0], true)),
+
+    /** Schedule manager. */
+    ScheduleManager(ConfigurationRole.build(ScheduleManagementRoleKeys.ScheduleManager, "Schedule Manager", true,
+	    false, false));
 
     private ConfigurationRole role;
 
@@ -23,6 +23,7 @@ import com.sitewhere.batch.BatchUtils;
 import com.sitewhere.rest.model.batch.request.BatchCommandForCriteriaRequest;
 import com.sitewhere.rest.model.batch.request.BatchCommandInvocationRequest;
 import com.sitewhere.schedule.BatchCommandInvocationJobParser;
+import com.sitewhere.schedule.QuartzScheduleManager;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.asset.IAssetManagement;
 import com.sitewhere.spi.batch.IBatchManagement;
@@ -31,7 +32,10 @@ import com.sitewhere.spi.tenant.ITenant;
 import com.sitewhere.spi.tenant.ITenantManagement;
 
 /**
- * Creates a batch command invocation as the result of a Quartz schedule.
+ * Creates a batch command invocation as the result of a Quartz schedule. The
+ * criteria are validated on the scheduler thread, then resolving devices and
+ * creating the invocation are handed off to the batch operation threads so
+ * that a large fan-out does not hold a scheduler worker.
  * 
  * @author Derek
  */
@@ -62,28 +66,52 @@ public class BatchCommandInvocationJob implements Job {
 	    throw new JobExecutionException("Command token not provided.");
 	}
 	try {
-	    ITenant tenant = getTenantManagement().getTenantByToken(context.getScheduler().getSchedulerName());
+	    String tenantToken = context.getScheduler().getSchedulerName();
+	    QuartzScheduleManager.getScheduleManager(context).submitBatchOperation(new Runnable() {
 
-	    // Resolve tokens for devices matching criteria.
-	    List<String> deviceTokens = BatchUtils.resolveDeviceTokensForCriteria(criteria, getDeviceManagement(),
-		    getAssetManagement());
-
-	    // Create batch command invocation.
-	    BatchCommandInvocationRequest invoke = new BatchCommandInvocationRequest();
-	    invoke.setCommandToken(criteria.getCommandToken());
-	    invoke.setParameterValues(criteria.getParameterValues());
-	    invoke.setDeviceTokens(deviceTokens);
-
-	    getBatchManagement(tenant).createBatchCommandInvocation(invoke);
-
-	    LOGGER.info("Executed batch command invocation job.");
+		@Override
+		public void run() {
+		    try {
+			createBatchCommandInvocation(tenantToken, criteria);
+		    } catch (SiteWhereException e) {
+			LOGGER.error("Unable to create batch command invocation.", e);
+		    }
+		}
+	    });
 	} catch (SiteWhereException e) {
-	    throw new JobExecutionException("Unable to create batch command invocation.", e);
+	    throw new JobExecutionException("Unable to queue batch command invocation.", e);
 	} catch (SchedulerException e) {
-	    throw new JobExecutionException("Unable to get scheduler name.", e);
+	    throw new JobExecutionException("Unable to get scheduler information.", e);
 	}
     }
 
+    /**
+     * Resolve devices matching the criteria and create a batch command
+     * invocation for them.
+     * 
+     * @param tenantToken
+     * @param criteria
+     * @throws SiteWhereException
+     */
+    protected void createBatchCommandInvocation(String tenantToken, BatchCommandForCriteriaRequest criteria)
+	    throws SiteWhereException {
+	ITenant tenant = getTenantManagement().getTenantByToken(tenantToken);
+
+	// Resolve tokens for devices matching criteria.
+	List<String> deviceTokens = BatchUtils.resolveDeviceTokensForCriteria(criteria, getDeviceManagement(),
+		getAssetManagement());
+
+	// Create batch command invocation.
+	BatchCommandInvocationRequest invoke = new BatchCommandInvocationRequest();
+	invoke.setCommandToken(criteria.getCommandToken());
+	invoke.setParameterValues(criteria.getParameterValues());
+	invoke.setDeviceTokens(deviceTokens);
+
+	getBatchManagement(tenant).createBatchCommandInvocation(invoke);
+
+	LOGGER.info("Executed batch command invocation job for " + deviceTokens.size() + " devices.");
+    }
+
     private IDeviceManagement getDeviceManagement() {
 	return null;
     }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.schedule.jobs;
+
+/**
+ * Indicates how a trigger is handled when it misses its fire time, for
+ * instance because no scheduler was running.
+ * 
+ * @author Derek
+ */
+public enum MisfirePolicy {
+
+    /** Use the Quartz default for the trigger type */
+    Smart("smart"),
+
+    /** Fire once immediately, then continue with the schedule */
+    FireNow("fire-now"),
+
+    /** Fire once for every missed execution */
+    IgnoreMisfires("ignore-misfires"),
+
+    /** Skip missed executions and wait for the next scheduled time */
+    Skip("skip");
+
+    /** Value used in configuration */
+    private String value;
+
+    private MisfirePolicy(String value) {
+	this.value = value;
+    }
+
+    public static MisfirePolicy getByValue(String value) {
+	for (MisfirePolicy policy : MisfirePolicy.values()) {
+	    if (policy.getValue().equals(value)) {
+		return policy;
+	    }
+	}
+	return null;
+    }
+
+    public String getValue() {
+	return value;
+    }
+}
@@ -67,12 +67,27 @@ public class QuartzBuilder {
      * @throws SiteWhereException
      */
     public static Trigger buildTrigger(IScheduledJob job, ISchedule schedule) throws SiteWhereException {
+	return buildTrigger(job, schedule, MisfirePolicy.Smart);
+    }
+
+    /**
+     * Build Quartz {@link Trigger} information using the given policy for
+     * handling misfires.
+     * 
+     * @param job
+     * @param schedule
+     * @param misfirePolicy
+     * @return
+     * @throws SiteWhereException
+     */
+    public static Trigger buildTrigger(IScheduledJob job, ISchedule schedule, MisfirePolicy misfirePolicy)
+	    throws SiteWhereException {
 	switch (schedule.getTriggerType()) {
 	case SimpleTrigger: {
-	    return buildSimpleTrigger(job, schedule);
+	    return buildSimpleTrigger(job, schedule, misfirePolicy);
 	}
 	case CronTrigger: {
-	    return buildCronTrigger(job, schedule);
+	    return buildCronTrigger(job, schedule, misfirePolicy);
 	}
 	default: {
 	    throw new SiteWhereException("Unhandled trigger type: " + schedule.getTriggerType());
@@ -85,10 +100,12 @@ public class QuartzBuilder {
      * 
      * @param job
      * @param schedule
+     * @param misfirePolicy
      * @return
      * @throws SiteWhereException
      */
-    protected static Trigger buildSimpleTrigger(IScheduledJob job, ISchedule schedule) throws SiteWhereException {
+    protected static Trigger buildSimpleTrigger(IScheduledJob job, ISchedule schedule, MisfirePolicy misfirePolicy)
+	    throws SiteWhereException {
 	SimpleScheduleBuilder simple = SimpleScheduleBuilder.simpleSchedule();
 	String repeat = schedule.getTriggerConfiguration().get(TriggerConstants.SimpleTrigger.REPEAT_COUNT);
 	if (repeat != null) {
@@ -111,6 +128,20 @@ public class QuartzBuilder {
 		throw new SiteWhereException("Non-numeric value used for repeat interval.", e);
 	    }
 	}
+	switch (misfirePolicy) {
+	case FireNow: {
+	    simple.withMisfireHandlingInstructionFireNow();
+	    break;
+	}
+	case IgnoreMisfires: {
+	    simple.withMisfireHandlingInstructionIgnoreMisfires();
+	    break;
+	}
+	case Skip: {
+	    simple.withMisfireHandlingInstructionNextWithRemainingCount();
+	    break;
+	}
+	}
 	TriggerBuilder<?> builder = TriggerBuilder.newTrigger().withIdentity(job.getToken()).withSchedule(simple);
 	addCommonFields(job, schedule, builder);
 	return builder.build();
@@ -121,10 +152,12 @@ public class QuartzBuilder {
      * 
      * @param job
      * @param schedule
+     * @param misfirePolicy
      * @return
      * @throws SiteWhereException
      */
-    protected static Trigger buildCronTrigger(IScheduledJob job, ISchedule schedule) throws SiteWhereException {
+    protected static Trigger buildCronTrigger(IScheduledJob job, ISchedule schedule, MisfirePolicy misfirePolicy)
+	    throws SiteWhereException {
 	String expression = schedule.getTriggerConfiguration().get(TriggerConstants.CronTrigger.CRON_EXPRESSION);
 	if (expression == null) {
 	    throw new SiteWhereException("Cron trigger did not specify expression.");
@@ -133,6 +166,20 @@ public class QuartzBuilder {
 	    throw new SiteWhereException("Cron expression is invalid.");
 	}
 	CronScheduleBuilder cron = CronScheduleBuilder.cronSchedule(expression);
+	switch (misfirePolicy) {
+	case FireNow: {
+	    cron.withMisfireHandlingInstructionFireAndProceed();
+	    break;
+	}
+	case IgnoreMisfires: {
+	    cron.withMisfireHandlingInstructionIgnoreMisfires();
+	    break;
+	}
+	case Skip: {
+	    cron.withMisfireHandlingInstructionDoNothing();
+	    break;
+	}
+	}
 	TriggerBuilder<?> builder = TriggerBuilder.newTrigger().withIdentity(job.getToken()).withSchedule(cron);
 	addCommonFields(job, schedule, builder);
 	return builder.build();
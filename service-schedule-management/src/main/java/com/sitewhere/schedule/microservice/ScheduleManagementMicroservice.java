@@ -7,7 +7,10 @@
  */
 package com.sitewhere.schedule.microservice;
 
+import org.springframework.beans.factory.annotation.Value;
+
 import com.sitewhere.microservice.multitenant.MultitenantMicroservice;
+import com.sitewhere.schedule.SharedSchedulerThreadPool;
 import com.sitewhere.schedule.configuration.ScheduleManagementModelProvider;
 import com.sitewhere.schedule.grpc.ScheduleManagementGrpcServer;
 import com.sitewhere.schedule.spi.grpc.IScheduleManagementGrpcServer;
@@ -36,6 +39,17 @@ public class ScheduleManagementMicroservice
     /** Provides server for schedule management GRPC requests */
     private IScheduleManagementGrpcServer scheduleManagementGrpcServer;
 
+    /** Number of threads used to execute scheduled jobs across all tenants */
+    @Value("${sitewhere.schedule.worker.threads:10}")
+    private int schedulerWorkerThreads;
+
+    /** Number of threads used for batch operations started by jobs */
+    @Value("${sitewhere.schedule.batch.threads:2}")
+    private int schedulerBatchThreads;
+
+    /** Worker threads shared by tenant schedulers */
+    private SharedSchedulerThreadPool schedulerThreadPool;
+
     /*
      * @see com.sitewhere.spi.microservice.IMicroservice#getName()
      */
@@ -89,6 +103,10 @@ public class ScheduleManagementMicroservice
 	// Create schedule management GRPC server.
 	this.scheduleManagementGrpcServer = new ScheduleManagementGrpcServer(this);
 
+	// Create worker threads shared by tenant schedulers.
+	this.schedulerThreadPool = new SharedSchedulerThreadPool(schedulerWorkerThreads, schedulerBatchThreads);
+	getSchedulerThreadPool().start();
+
 	// Create step that will start components.
 	ICompositeLifecycleStep init = new CompositeLifecycleStep("Initialize " + getName());
 
@@ -135,6 +153,11 @@ public class ScheduleManagementMicroservice
 
 	// Execute shutdown steps.
 	stop.execute(monitor);
+
+	// Stop shared scheduler threads.
+	if (getSchedulerThreadPool() != null) {
+	    getSchedulerThreadPool().stop();
+	}
     }
 
     /*
@@ -149,4 +172,17 @@ public class ScheduleManagementMicroservice
     protected void setScheduleManagementGrpcServer(IScheduleManagementGrpcServer scheduleManagementGrpcServer) {
 	this.scheduleManagementGrpcServer = scheduleManagementGrpcServer;
     }
+
+    /*
+     * @see com.sitewhere.schedule.spi.microservice.IScheduleManagementMicroservice#
+     * getSchedulerThreadPool()
+     */
+    @Override
+    public SharedSchedulerThreadPool getSchedulerThreadPool() {
+	return schedulerThreadPool;
+    }
+
+    protected void setSchedulerThreadPool(SharedSchedulerThreadPool schedulerThreadPool) {
+	this.schedulerThreadPool = schedulerThreadPool;
+    }
 }
\ No newline at end of file
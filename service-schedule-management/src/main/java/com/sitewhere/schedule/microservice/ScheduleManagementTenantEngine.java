@@ -16,8 +16,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import com.sitewhere.grpc.service.ScheduleManagementGrpc;
 import com.sitewhere.microservice.groovy.GroovyConfiguration;
 import com.sitewhere.microservice.multitenant.MicroserviceTenantEngine;
+import com.sitewhere.mongodb.MongoDbClient;
+import com.sitewhere.schedule.QuartzScheduleManager;
+import com.sitewhere.schedule.ScheduleManagementTriggers;
 import com.sitewhere.schedule.grpc.ScheduleManagementImpl;
 import com.sitewhere.schedule.initializer.GroovyScheduleModelInitializer;
+import com.sitewhere.schedule.spi.IScheduleManager;
 import com.sitewhere.schedule.spi.microservice.IScheduleManagementMicroservice;
 import com.sitewhere.schedule.spi.microservice.IScheduleManagementTenantEngine;
 import com.sitewhere.server.lifecycle.CompositeLifecycleStep;
@@ -44,6 +48,9 @@ public class ScheduleManagementTenantEngine extends MicroserviceTenantEngine
     /** Schedule management persistence API */
     private IScheduleManagement scheduleManagement;
 
+    /** Fires scheduled jobs */
+    private IScheduleManager scheduleManager;
+
     /** Responds to schedule management GRPC requests */
     private ScheduleManagementGrpc.ScheduleManagementImplBase scheduleManagementImpl;
 
@@ -61,8 +68,19 @@ public class ScheduleManagementTenantEngine extends MicroserviceTenantEngine
 	// Create management interfaces.
 	this.scheduleManagement = (IScheduleManagement) getModuleContext()
 		.getBean(ScheduleManagementBeans.BEAN_SCHEDULE_MANAGEMENT);
+	QuartzScheduleManager manager;
+	if (getModuleContext().containsBean(ScheduleManagementBeans.BEAN_SCHEDULE_MANAGER)) {
+	    manager = (QuartzScheduleManager) getModuleContext().getBean(ScheduleManagementBeans.BEAN_SCHEDULE_MANAGER);
+	} else {
+	    manager = new QuartzScheduleManager();
+	}
+	manager.setScheduleManagement(getScheduleManagement());
+	manager.setMongoClient((MongoDbClient) getModuleContext().getBean(ScheduleManagementBeans.BEAN_MONGODB_CLIENT));
+	this.scheduleManager = manager;
+
+	// Keep scheduler in sync with changes made through the API.
 	this.scheduleManagementImpl = new ScheduleManagementImpl((IScheduleManagementMicroservice) getMicroservice(),
-		getScheduleManagement());
+		new ScheduleManagementTriggers(getScheduleManagement(), getScheduleManager()));
 
 	// Create step that will initialize components.
 	ICompositeLifecycleStep init = new CompositeLifecycleStep("Initialize " + getComponentName());
@@ -73,6 +91,9 @@ public class ScheduleManagementTenantEngine extends MicroserviceTenantEngine
 	// Initialize schedule management persistence.
 	init.addInitializeStep(this, getScheduleManagement(), true);
 
+	// Initialize schedule manager.
+	init.addInitializeStep(this, getScheduleManager(), true);
+
 	// Execute initialization steps.
 	init.execute(monitor);
     }
@@ -92,6 +113,9 @@ public class ScheduleManagementTenantEngine extends MicroserviceTenantEngine
 	// Start schedule management persistence.
 	start.addStartStep(this, getScheduleManagement(), true);
 
+	// Start schedule manager.
+	start.addStartStep(this, getScheduleManager(), true);
+
 	// Execute startup steps.
 	start.execute(monitor);
     }
@@ -122,7 +146,7 @@ public class ScheduleManagementTenantEngine extends MicroserviceTenantEngine
 		    getMicroservice()));
 	    for (String script : scripts) {
 		GroovyScheduleModelInitializer initializer = new GroovyScheduleModelInitializer(groovy, script);
-		initializer.initialize(getScheduleManagement());
+		initializer.initialize(new ScheduleManagementTriggers(getScheduleManagement(), getScheduleManager()));
 	    }
 	} finally {
 	    SecurityContextHolder.getContext().setAuthentication(previous);
@@ -138,6 +162,9 @@ public class ScheduleManagementTenantEngine extends MicroserviceTenantEngine
 	// Create step that will stop components.
 	ICompositeLifecycleStep stop = new CompositeLifecycleStep("Stop " + getComponentName());
 
+	// Stop schedule manager.
+	stop.addStopStep(this, getScheduleManager());
+
 	// Stop schedule management persistence.
 	stop.addStopStep(this, getScheduleManagement());
 
@@ -161,6 +188,19 @@ public class ScheduleManagementTenantEngine extends MicroserviceTenantEngine
 	this.scheduleManagement = scheduleManagement;
     }
 
+    /*
+     * @see com.sitewhere.schedule.spi.microservice.IScheduleManagementTenantEngine#
+     * getScheduleManager()
+     */
+    @Override
+    public IScheduleManager getScheduleManager() {
+	return scheduleManager;
+    }
+
+    protected void setScheduleManager(IScheduleManager scheduleManager) {
+	this.scheduleManager = scheduleManager;
+    }
+
     /*
      * @see com.sitewhere.schedule.spi.microservice.IScheduleManagementTenantEngine#
      * getScheduleManagementImpl()
@@ -13,8 +13,8 @@ import org.bson.Document;
 
 import com.mongodb.MongoTimeoutException;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.IndexOptions;
 import com.sitewhere.mongodb.IMongoConverterLookup;
+import com.sitewhere.mongodb.MongoIndexCatalog;
 import com.sitewhere.mongodb.MongoPersistence;
 import com.sitewhere.mongodb.common.MongoPersistentEntity;
 import com.sitewhere.rest.model.scheduling.Schedule;
@@ -66,15 +66,26 @@ public class MongoScheduleManagement extends TenantEngineLifecycleComponent impl
     }
 
     /**
-     * Ensure that expected collection indexes exist.
+     * Ensure that collection indexes match the index catalog.
      * 
      * @throws SiteWhereException
      */
     protected void ensureIndexes() throws SiteWhereException {
-	getMongoClient().getSchedulesCollection().createIndex(new Document(MongoSchedule.PROP_TOKEN, 1),
-		new IndexOptions().unique(true));
-	getMongoClient().getScheduledJobsCollection().createIndex(new Document(MongoScheduledJob.PROP_TOKEN, 1),
-		new IndexOptions().unique(true));
+	createIndexCatalog().reconcile();
+    }
+
+    /**
+     * Create catalog of indexes required by schedule management queries.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    protected MongoIndexCatalog createIndexCatalog() throws SiteWhereException {
+	MongoIndexCatalog catalog = new MongoIndexCatalog(
+		getMongoClient().getConfiguration().isRebuildMismatchedIndexes());
+	catalog.unique(getMongoClient().getSchedulesCollection(), new Document(MongoSchedule.PROP_TOKEN, 1));
+	catalog.unique(getMongoClient().getScheduledJobsCollection(), new Document(MongoScheduledJob.PROP_TOKEN, 1));
+	return catalog;
     }
 
     /*
@@ -50,4 +50,13 @@ public interface IScheduleManager extends ITenantEngineLifecycleComponent {
      * @throws SiteWhereException
      */
     public void unscheduleJob(IScheduledJob job) throws SiteWhereException;
+
+    /**
+     * Queue work started by a job so that it runs outside of the scheduler
+     * worker threads.
+     * 
+     * @param operation
+     * @throws SiteWhereException
+     */
+    public void submitBatchOperation(Runnable operation) throws SiteWhereException;
 }
\ No newline at end of file
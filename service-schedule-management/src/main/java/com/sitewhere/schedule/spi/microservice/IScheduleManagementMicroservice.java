@@ -7,6 +7,7 @@
  */
 package com.sitewhere.schedule.spi.microservice;
 
+import com.sitewhere.schedule.SharedSchedulerThreadPool;
 import com.sitewhere.schedule.spi.grpc.IScheduleManagementGrpcServer;
 import com.sitewhere.spi.microservice.MicroserviceIdentifier;
 import com.sitewhere.spi.microservice.multitenant.IMultitenantMicroservice;
@@ -25,4 +26,11 @@ public interface IScheduleManagementMicroservice
      * @return
      */
     public IScheduleManagementGrpcServer getScheduleManagementGrpcServer();
+
+    /**
+     * Get worker threads shared by tenant schedulers.
+     * 
+     * @return
+     */
+    public SharedSchedulerThreadPool getSchedulerThreadPool();
 }
\ No newline at end of file
@@ -8,6 +8,7 @@
 package com.sitewhere.schedule.spi.microservice;
 
 import com.sitewhere.grpc.service.ScheduleManagementGrpc;
+import com.sitewhere.schedule.spi.IScheduleManager;
 import com.sitewhere.spi.microservice.multitenant.IMicroserviceTenantEngine;
 import com.sitewhere.spi.scheduling.IScheduleManagement;
 
@@ -26,6 +27,13 @@ public interface IScheduleManagementTenantEngine extends IMicroserviceTenantEngi
      */
     public IScheduleManagement getScheduleManagement();
 
+    /**
+     * Get manager that fires scheduled jobs.
+     * 
+     * @return
+     */
+    public IScheduleManager getScheduleManager();
+
     /**
      * Get implementation class that wraps schedule management with GRPC
      * conversions.
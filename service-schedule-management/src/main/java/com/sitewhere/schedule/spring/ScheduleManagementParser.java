@@ -16,11 +16,14 @@ import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.xml.AbstractBeanDefinitionParser;
 import org.springframework.beans.factory.xml.ParserContext;
 import org.springframework.util.xml.DomUtils;
+import org.w3c.dom.Attr;
 import org.w3c.dom.Element;
 
 import com.sitewhere.configuration.datastore.DatastoreConfigurationChoice;
 import com.sitewhere.configuration.datastore.DatastoreConfigurationParser;
 import com.sitewhere.configuration.parser.IScheduleManagementParser.Elements;
+import com.sitewhere.schedule.QuartzScheduleManager;
+import com.sitewhere.schedule.jobs.MisfirePolicy;
 import com.sitewhere.schedule.persistence.mongodb.MongoScheduleManagement;
 import com.sitewhere.schedule.persistence.mongodb.ScheduleManagementMongoClient;
 import com.sitewhere.spi.microservice.spring.ScheduleManagementBeans;
@@ -56,6 +59,10 @@ public class ScheduleManagementParser extends AbstractBeanDefinitionParser {
 		parseDeviceManagementDatastore(child, context);
 		break;
 	    }
+	    case ScheduleManager: {
+		parseScheduleManager(child, context);
+		break;
+	    }
 	    }
 	}
 	return null;
@@ -99,4 +106,41 @@ public class ScheduleManagementParser extends AbstractBeanDefinitionParser {
 	context.getRegistry().registerBeanDefinition(ScheduleManagementBeans.BEAN_SCHEDULE_MANAGEMENT,
 		management.getBeanDefinition());
     }
+
+    /**
+     * Parse schedule manager element.
+     * 
+     * @param element
+     * @param context
+     */
+    protected void parseScheduleManager(Element element, ParserContext context) {
+	BeanDefinitionBuilder manager = BeanDefinitionBuilder.rootBeanDefinition(QuartzScheduleManager.class);
+
+	Attr misfirePolicy = element.getAttributeNode("misfirePolicy");
+	if (misfirePolicy != null) {
+	    MisfirePolicy policy = MisfirePolicy.getByValue(misfirePolicy.getValue());
+	    if (policy == null) {
+		throw new RuntimeException("Invalid misfire policy: " + misfirePolicy.getValue());
+	    }
+	    manager.addPropertyValue("misfirePolicy", policy);
+	}
+
+	Attr misfireThresholdMs = element.getAttributeNode("misfireThresholdMs");
+	if (misfireThresholdMs != null) {
+	    manager.addPropertyValue("misfireThresholdMs", misfireThresholdMs.getValue());
+	}
+
+	Attr clustered = element.getAttributeNode("clustered");
+	if (clustered != null) {
+	    manager.addPropertyValue("clustered", clustered.getValue());
+	}
+
+	Attr clusterCheckinIntervalMs = element.getAttributeNode("clusterCheckinIntervalMs");
+	if (clusterCheckinIntervalMs != null) {
+	    manager.addPropertyValue("clusterCheckinIntervalMs", clusterCheckinIntervalMs.getValue());
+	}
+
+	context.getRegistry().registerBeanDefinition(ScheduleManagementBeans.BEAN_SCHEDULE_MANAGER,
+		manager.getBeanDefinition());
+    }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 
+import com.sitewhere.grpc.client.tenant.TenantManagementCacheSerializers;
 import com.sitewhere.microservice.GlobalMicroservice;
 import com.sitewhere.microservice.hazelcast.HazelcastManager;
 import com.sitewhere.server.lifecycle.CompositeLifecycleStep;
@@ -222,7 +223,7 @@ public class TenantManagementMicroservice extends GlobalMicroservice<Microservic
     @Override
     public void microserviceInitialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	// Create Hazelcast manager.
-	this.hazelcastManager = new HazelcastManager();
+	this.hazelcastManager = new HazelcastManager(TenantManagementCacheSerializers.createRegistry());
 
 	// Initialize components that communicate via Kafka.
 	initializeKafkaComponents();
@@ -10,6 +10,7 @@ package com.sitewhere.tenant.persistence.mongodb;
 import org.bson.Document;
 
 import com.mongodb.client.MongoCollection;
+import com.sitewhere.configuration.instance.mongodb.MongoConfiguration;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.server.lifecycle.ILifecycleComponent;
 
@@ -29,4 +30,11 @@ public interface ITenantManagementMongoClient extends ILifecycleComponent {
      * @return
      */
     public MongoCollection<Document> getTenantsCollection() throws SiteWhereException;
+
+    /**
+     * Get configuration used to connect to MongoDB.
+     * 
+     * @return
+     */
+    public MongoConfiguration getConfiguration();
 }
\ No newline at end of file
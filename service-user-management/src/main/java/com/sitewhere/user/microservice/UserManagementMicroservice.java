@@ -12,6 +12,7 @@ import org.springframework.context.ApplicationContext;
 
 import com.sitewhere.grpc.client.spi.client.ITenantManagementApiDemux;
 import com.sitewhere.grpc.client.tenant.TenantManagementApiDemux;
+import com.sitewhere.grpc.client.user.UserManagementCacheSerializers;
 import com.sitewhere.microservice.GlobalMicroservice;
 import com.sitewhere.microservice.hazelcast.HazelcastManager;
 import com.sitewhere.server.lifecycle.CompositeLifecycleStep;
@@ -195,7 +196,7 @@ public class UserManagementMicroservice extends GlobalMicroservice<MicroserviceI
     @Override
     public void microserviceInitialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	// Create Hazelcast manager.
-	this.hazelcastManager = new HazelcastManager();
+	this.hazelcastManager = new HazelcastManager(UserManagementCacheSerializers.createRegistry());
 
 	// Create GRPC components.
 	createGrpcComponents();
@@ -10,6 +10,7 @@ package com.sitewhere.user.persistence.mongodb;
 import org.bson.Document;
 
 import com.mongodb.client.MongoCollection;
+import com.sitewhere.configuration.instance.mongodb.MongoConfiguration;
 import com.sitewhere.spi.SiteWhereException;
 
 /**
@@ -40,4 +41,11 @@ public interface IUserManagementMongoClient {
      * @throws SiteWhereException
      */
     public MongoCollection<Document> getAuthoritiesCollection() throws SiteWhereException;
+
+    /**
+     * Get configuration used to connect to MongoDB.
+     * 
+     * @return
+     */
+    public MongoConfiguration getConfiguration();
 }
\ No newline at end of file
@@ -17,9 +17,9 @@ import org.springframework.stereotype.Component;
 import com.mongodb.DBObject;
 import com.mongodb.MongoTimeoutException;
 import com.mongodb.client.MongoCollection;
-import com.mongodb.client.model.IndexOptions;
 import com.sitewhere.grpc.client.spi.client.ITenantManagementApiChannel;
 import com.sitewhere.mongodb.IMongoConverterLookup;
+import com.sitewhere.mongodb.MongoIndexCatalog;
 import com.sitewhere.mongodb.MongoPersistence;
 import com.sitewhere.rest.model.user.GrantedAuthority;
 import com.sitewhere.rest.model.user.GrantedAuthoritySearchCriteria;
@@ -73,15 +73,27 @@ public class MongoUserManagement extends LifecycleComponent implements IUserMana
     }
 
     /**
-     * Ensure that expected collection indexes exist.
+     * Ensure that collection indexes match the index catalog.
      * 
      * @throws SiteWhereException
      */
     protected void ensureIndexes() throws SiteWhereException {
-	getMongoClient().getUsersCollection().createIndex(new Document(MongoUser.PROP_USERNAME, 1),
-		new IndexOptions().unique(true));
-	getMongoClient().getAuthoritiesCollection().createIndex(new Document(MongoGrantedAuthority.PROP_AUTHORITY, 1),
-		new IndexOptions().unique(true));
+	createIndexCatalog().reconcile();
+    }
+
+    /**
+     * Create catalog of indexes required by user management queries.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    protected MongoIndexCatalog createIndexCatalog() throws SiteWhereException {
+	MongoIndexCatalog catalog = new MongoIndexCatalog(
+		getMongoClient().getConfiguration().isRebuildMismatchedIndexes());
+	catalog.unique(getMongoClient().getUsersCollection(), new Document(MongoUser.PROP_USERNAME, 1));
+	catalog.unique(getMongoClient().getAuthoritiesCollection(),
+		new Document(MongoGrantedAuthority.PROP_AUTHORITY, 1));
+	return catalog;
     }
 
     /*
@@ -12,12 +12,16 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 
 import com.sitewhere.security.UserContextManager;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.SiteWhereSystemException;
 import com.sitewhere.spi.error.ErrorCode;
 import com.sitewhere.spi.error.ErrorLevel;
+import com.sitewhere.spi.label.ILabel;
 import com.sitewhere.spi.user.IUser;
 import com.sitewhere.spi.user.SiteWhereAuthority;
 import com.sitewhere.web.spi.microservice.IWebRestMicroservice;
@@ -91,4 +95,20 @@ public class RestControllerBase {
 	return new SiteWhereSystemException(ErrorCode.OperationNotPermitted, ErrorLevel.ERROR,
 		HttpServletResponse.SC_FORBIDDEN);
     }
+
+    /**
+     * Create the response for a generated label image. Includes an ETag derived
+     * from the label content so that clients revalidating with If-None-Match
+     * receive a "not modified" response instead of the full image.
+     * 
+     * @param label
+     * @return
+     */
+    protected ResponseEntity<byte[]> createLabelResponse(ILabel label) {
+	if ((label == null) || (label.getContent() == null)) {
+	    return ResponseEntity.notFound().build();
+	}
+	String etag = "\"" + DigestUtils.md5DigestAsHex(label.getContent()) + "\"";
+	return ResponseEntity.ok().contentType(MediaType.IMAGE_PNG).eTag(etag).body(label.getContent());
+    }
 }
\ No newline at end of file
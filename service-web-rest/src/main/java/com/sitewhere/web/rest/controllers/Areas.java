@@ -8,9 +8,7 @@
 package com.sitewhere.web.rest.controllers;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 import javax.servlet.http.HttpServletRequest;
@@ -18,9 +16,6 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -160,12 +155,7 @@ public class Areas extends RestControllerBase {
 	    HttpServletRequest servletRequest, HttpServletResponse response) throws SiteWhereException {
 	IArea existing = assertArea(areaToken);
 	ILabel label = getLabelGeneration().getAreaLabel(generatorId, existing.getId());
-	if (label == null) {
-	    return ResponseEntity.notFound().build();
-	}
-	final HttpHeaders headers = new HttpHeaders();
-	headers.setContentType(MediaType.IMAGE_PNG);
-	return new ResponseEntity<byte[]>(label.getContent(), headers, HttpStatus.OK);
+	return createLabelResponse(label);
     }
 
     /**
@@ -198,9 +188,7 @@ public class Areas extends RestControllerBase {
 	helper.setIncludeAssignments(includeAssignments);
 
 	List<IArea> results = new ArrayList<IArea>();
-	for (IArea area : matches.getResults()) {
-	    results.add(helper.convert(area));
-	}
+	results.addAll(helper.convertAll(matches.getResults()));
 	return new SearchResults<IArea>(results, matches.getNumResults());
     }
 
@@ -257,6 +245,19 @@ public class Areas extends RestControllerBase {
 	return getDeviceManagement().deleteArea(existing.getId());
     }
 
+    /**
+     * Rebuild area and customer hierarchy information from parent references.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    @RequestMapping(value = "/hierarchy/rebuild", method = RequestMethod.POST)
+    @ApiOperation(value = "Rebuild area and customer hierarchy")
+    @Secured({ SiteWhereRoles.REST })
+    public int rebuildHierarchy() throws SiteWhereException {
+	return getDeviceManagement().rebuildHierarchyPaths();
+    }
+
     /**
      * Get device measurements for an area.
      * 
@@ -514,9 +515,7 @@ public class Areas extends RestControllerBase {
 	helper.setIncludeAsset(includeAsset);
 
 	List<DeviceAssignment> converted = new ArrayList<DeviceAssignment>();
-	for (IDeviceAssignment assignment : matches.getResults()) {
-	    converted.add(helper.convert(assignment, getAssetManagement()));
-	}
+	converted.addAll(helper.convertAll(matches.getResults(), getAssetManagement()));
 	return new SearchResults<DeviceAssignment>(converted, matches.getNumResults());
     }
 
@@ -588,29 +587,12 @@ public class Areas extends RestControllerBase {
 	if (existing == null) {
 	    return new ArrayList<IArea>();
 	}
-	Map<String, IArea> resolved = new HashMap<>();
-	resolveAreasRecursively(existing, recursive, resolved, deviceManagement);
 	List<IArea> response = new ArrayList<>();
-	response.addAll(resolved.values());
-	return response;
-    }
-
-    /**
-     * Resolve areas recursively.
-     * 
-     * @param current
-     * @param recursive
-     * @param matches
-     * @param deviceManagement
-     * @throws SiteWhereException
-     */
-    protected static void resolveAreasRecursively(IArea current, boolean recursive, Map<String, IArea> matches,
-	    IDeviceManagement deviceManagement) throws SiteWhereException {
-	matches.put(current.getToken(), current);
-	List<IArea> children = deviceManagement.getAreaChildren(current.getToken());
-	for (IArea child : children) {
-	    resolveAreasRecursively(child, recursive, matches, deviceManagement);
+	response.add(existing);
+	if (recursive) {
+	    response.addAll(deviceManagement.getAreaDescendants(existing.getToken()));
 	}
+	return response;
     }
 
     private IDeviceManagement getDeviceManagement() {
@@ -213,12 +213,7 @@ public class Assignments extends RestControllerBase {
 	    HttpServletRequest servletRequest, HttpServletResponse response) throws SiteWhereException {
 	IDeviceAssignment existing = assertDeviceAssignment(token);
 	ILabel label = getLabelGeneration().getDeviceAssignmentLabel(generatorId, existing.getId());
-	if (label == null) {
-	    return ResponseEntity.notFound().build();
-	}
-	final HttpHeaders headers = new HttpHeaders();
-	headers.setContentType(MediaType.IMAGE_PNG);
-	return new ResponseEntity<byte[]>(label.getContent(), headers, HttpStatus.OK);
+	return createLabelResponse(label);
     }
 
     /**
@@ -292,9 +287,7 @@ public class Assignments extends RestControllerBase {
 	helper.setIncludeAsset(includeAsset);
 
 	List<IDeviceAssignment> results = new ArrayList<>();
-	for (IDeviceAssignment assn : matches.getResults()) {
-	    results.add(helper.convert(assn, getAssetManagement()));
-	}
+	results.addAll(helper.convertAll(matches.getResults(), getAssetManagement()));
 	return new SearchResults<IDeviceAssignment>(results, matches.getNumResults());
     }
 
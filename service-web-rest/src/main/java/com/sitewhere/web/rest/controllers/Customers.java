@@ -8,9 +8,7 @@
 package com.sitewhere.web.rest.controllers;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 import javax.servlet.http.HttpServletRequest;
@@ -18,9 +16,6 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -164,12 +159,7 @@ public class Customers extends RestControllerBase {
 	    HttpServletRequest servletRequest, HttpServletResponse response) throws SiteWhereException {
 	ICustomer existing = assertCustomer(customerToken);
 	ILabel label = getLabelGeneration().getCustomerLabel(generatorId, existing.getId());
-	if (label == null) {
-	    return ResponseEntity.notFound().build();
-	}
-	final HttpHeaders headers = new HttpHeaders();
-	headers.setContentType(MediaType.IMAGE_PNG);
-	return new ResponseEntity<byte[]>(label.getContent(), headers, HttpStatus.OK);
+	return createLabelResponse(label);
     }
 
     /**
@@ -557,9 +547,7 @@ public class Customers extends RestControllerBase {
 	helper.setIncludeArea(includeArea);
 	helper.setIncludeAsset(includeAsset);
 	List<DeviceAssignment> converted = new ArrayList<DeviceAssignment>();
-	for (IDeviceAssignment assignment : matches.getResults()) {
-	    converted.add(helper.convert(assignment, getAssetManagement()));
-	}
+	converted.addAll(helper.convertAll(matches.getResults(), getAssetManagement()));
 	return new SearchResults<DeviceAssignment>(converted, matches.getNumResults());
     }
 
@@ -597,29 +585,12 @@ public class Customers extends RestControllerBase {
 	if (existing == null) {
 	    return new ArrayList<ICustomer>();
 	}
-	Map<String, ICustomer> resolved = new HashMap<>();
-	resolveCustomersRecursively(existing, recursive, resolved, deviceManagement);
 	List<ICustomer> response = new ArrayList<>();
-	response.addAll(resolved.values());
-	return response;
-    }
-
-    /**
-     * Resolve customers recursively.
-     * 
-     * @param current
-     * @param recursive
-     * @param matches
-     * @param deviceManagement
-     * @throws SiteWhereException
-     */
-    protected static void resolveCustomersRecursively(ICustomer current, boolean recursive,
-	    Map<String, ICustomer> matches, IDeviceManagement deviceManagement) throws SiteWhereException {
-	matches.put(current.getToken(), current);
-	List<ICustomer> children = deviceManagement.getCustomerChildren(current.getToken());
-	for (ICustomer child : children) {
-	    resolveCustomersRecursively(child, recursive, matches, deviceManagement);
+	response.add(existing);
+	if (recursive) {
+	    response.addAll(deviceManagement.getCustomerDescendants(existing.getToken()));
 	}
+	return response;
     }
 
     /**
@@ -7,6 +7,7 @@
  */
 package com.sitewhere.web.rest.controllers;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -40,6 +41,7 @@ import com.sitewhere.rest.model.device.event.DeviceEventBatch;
 import com.sitewhere.rest.model.device.event.request.DeviceAlertCreateRequest;
 import com.sitewhere.rest.model.device.event.request.DeviceLocationCreateRequest;
 import com.sitewhere.rest.model.device.event.request.DeviceMeasurementCreateRequest;
+import com.sitewhere.rest.model.device.request.DeviceAssignmentCreateRequest;
 import com.sitewhere.rest.model.device.request.DeviceCreateRequest;
 import com.sitewhere.rest.model.search.SearchResults;
 import com.sitewhere.rest.model.search.device.DeviceAssignmentSearchCriteria;
@@ -47,6 +49,7 @@ import com.sitewhere.rest.model.search.device.DeviceSearchCriteria;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.SiteWhereSystemException;
 import com.sitewhere.spi.asset.IAssetManagement;
+import com.sitewhere.spi.common.IBulkCreateResult;
 import com.sitewhere.spi.device.IDevice;
 import com.sitewhere.spi.device.IDeviceAssignment;
 import com.sitewhere.spi.device.IDeviceManagement;
@@ -56,6 +59,8 @@ import com.sitewhere.spi.device.event.request.IDeviceAlertCreateRequest;
 import com.sitewhere.spi.device.event.request.IDeviceLocationCreateRequest;
 import com.sitewhere.spi.device.event.request.IDeviceMeasurementCreateRequest;
 import com.sitewhere.spi.device.group.IDeviceGroup;
+import com.sitewhere.spi.device.request.IDeviceAssignmentCreateRequest;
+import com.sitewhere.spi.device.request.IDeviceCreateRequest;
 import com.sitewhere.spi.error.ErrorCode;
 import com.sitewhere.spi.error.ErrorLevel;
 import com.sitewhere.spi.label.ILabel;
@@ -65,6 +70,9 @@ import com.sitewhere.spi.search.device.IDeviceSearchCriteria;
 import com.sitewhere.spi.user.SiteWhereRoles;
 import com.sitewhere.web.annotation.SiteWhereCrossOrigin;
 import com.sitewhere.web.rest.RestControllerBase;
+import com.sitewhere.web.rest.model.DeviceImportReader;
+import com.sitewhere.web.rest.model.DeviceImportRequest;
+import com.sitewhere.web.rest.model.DeviceImportSummary;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -85,6 +93,9 @@ public class Devices extends RestControllerBase {
     @SuppressWarnings("unused")
     private static Log LOGGER = LogFactory.getLog(Devices.class);
 
+    /** Largest number of devices created in a single import batch */
+    private static final int MAX_IMPORT_BATCH_SIZE = 5000;
+
     /**
      * Create a device.
      * 
@@ -102,6 +113,98 @@ public class Devices extends RestControllerBase {
 	return helper.convert(result, getAssetManagement());
     }
 
+    /**
+     * Import devices in bulk. The request body is streamed and processed in
+     * batches so that large imports are not held in memory. Rows that reference
+     * a customer, area or asset are assigned after the device is created. If the
+     * data can not be parsed, rows before the error are still imported and the
+     * summary reports the row that failed.
+     * 
+     * @param batchSize
+     * @param servletRequest
+     * @return
+     * @throws SiteWhereException
+     */
+    @RequestMapping(value = "/import", method = RequestMethod.POST, consumes = { MediaType.APPLICATION_JSON_VALUE,
+	    "text/csv" })
+    @ApiOperation(value = "Import devices in bulk from a JSON array or CSV")
+    @Secured({ SiteWhereRoles.REST })
+    public DeviceImportSummary importDevices(
+	    @ApiParam(value = "Number of devices created per batch", required = false) @RequestParam(defaultValue = "500") int batchSize,
+	    HttpServletRequest servletRequest) throws SiteWhereException {
+	int size = Math.max(1, Math.min(batchSize, MAX_IMPORT_BATCH_SIZE));
+	boolean csv = (servletRequest.getContentType() != null) && servletRequest.getContentType().contains("csv");
+	DeviceImportSummary summary = new DeviceImportSummary();
+	List<DeviceImportRequest> batch = new ArrayList<DeviceImportRequest>();
+	try (DeviceImportReader reader = csv ? DeviceImportReader.forCsv(servletRequest.getInputStream())
+		: DeviceImportReader.forJson(servletRequest.getInputStream())) {
+	    DeviceImportRequest row;
+	    while ((row = reader.next()) != null) {
+		batch.add(row);
+		if (batch.size() == size) {
+		    importDeviceBatch(batch, summary);
+		    batch.clear();
+		}
+	    }
+	} catch (IOException e) {
+	    // Stop at the row that could not be read and report what was imported.
+	    summary.setFailedRow(summary.getRowsProcessed() + batch.size());
+	    summary.setReadError(e.getMessage());
+	}
+	if (!batch.isEmpty()) {
+	    importDeviceBatch(batch, summary);
+	}
+	return summary;
+    }
+
+    /**
+     * Create devices for a batch of import rows, then create assignments for
+     * the devices that were created and requested one.
+     * 
+     * @param batch
+     * @param summary
+     * @throws SiteWhereException
+     */
+    protected void importDeviceBatch(List<DeviceImportRequest> batch, DeviceImportSummary summary)
+	    throws SiteWhereException {
+	int offset = summary.getRowsProcessed();
+	List<IBulkCreateResult<IDevice>> devices = getDeviceManagement()
+		.createDevices(new ArrayList<IDeviceCreateRequest>(batch));
+	List<IDeviceAssignmentCreateRequest> assignments = new ArrayList<IDeviceAssignmentCreateRequest>();
+	List<Integer> assigned = new ArrayList<Integer>();
+	for (IBulkCreateResult<IDevice> result : devices) {
+	    DeviceImportRequest row = batch.get(result.getIndex());
+	    if (result.getEntity() == null) {
+		summary.setDevicesFailed(summary.getDevicesFailed() + 1);
+		summary.addError(offset + result.getIndex(), row.getToken(), "Device", result);
+		continue;
+	    }
+	    summary.setDevicesCreated(summary.getDevicesCreated() + 1);
+	    if (row.isAssignmentRequested()) {
+		DeviceAssignmentCreateRequest assignment = new DeviceAssignmentCreateRequest();
+		assignment.setDeviceToken(result.getEntity().getToken());
+		assignment.setCustomerToken(row.getCustomerToken());
+		assignment.setAreaToken(row.getAreaToken());
+		assignment.setAssetToken(row.getAssetToken());
+		assignments.add(assignment);
+		assigned.add(result.getIndex());
+	    }
+	}
+	if (!assignments.isEmpty()) {
+	    for (IBulkCreateResult<IDeviceAssignment> result : getDeviceManagement()
+		    .createDeviceAssignments(assignments)) {
+		if (result.getEntity() == null) {
+		    int index = assigned.get(result.getIndex());
+		    summary.setAssignmentsFailed(summary.getAssignmentsFailed() + 1);
+		    summary.addError(offset + index, batch.get(index).getToken(), "DeviceAssignment", result);
+		} else {
+		    summary.setAssignmentsCreated(summary.getAssignmentsCreated() + 1);
+		}
+	    }
+	}
+	summary.setRowsProcessed(offset + batch.size());
+    }
+
     /**
      * Used by AJAX calls to find a device by hardware id.
      * 
@@ -164,12 +267,7 @@ public class Devices extends RestControllerBase {
 	    HttpServletRequest servletRequest, HttpServletResponse response) throws SiteWhereException {
 	IDevice existing = assertDeviceByToken(deviceToken);
 	ILabel label = getLabelGeneration().getDeviceLabel(generatorId, existing.getId());
-	if (label == null) {
-	    return ResponseEntity.notFound().build();
-	}
-	final HttpHeaders headers = new HttpHeaders();
-	headers.setContentType(MediaType.IMAGE_PNG);
-	return new ResponseEntity<byte[]>(label.getContent(), headers, HttpStatus.OK);
+	return createLabelResponse(label);
     }
 
     /**
@@ -253,9 +351,7 @@ public class Devices extends RestControllerBase {
 	helper.setIncludeAsset(includeAsset);
 
 	List<IDeviceAssignment> converted = new ArrayList<IDeviceAssignment>();
-	for (IDeviceAssignment assignment : history.getResults()) {
-	    converted.add(helper.convert(assignment, getAssetManagement()));
-	}
+	converted.addAll(helper.convertAll(history.getResults(), getAssetManagement()));
 	return new SearchResults<IDeviceAssignment>(converted, history.getNumResults());
     }
 
@@ -359,9 +455,7 @@ public class Devices extends RestControllerBase {
 	helper.setIncludeDeviceType(includeDeviceType);
 	helper.setIncludeAssignment(includeAssignment);
 	List<IDevice> devicesConv = new ArrayList<IDevice>();
-	for (IDevice device : results.getResults()) {
-	    devicesConv.add(helper.convert(device, getAssetManagement()));
-	}
+	devicesConv.addAll(helper.convertAll(results.getResults(), getAssetManagement()));
 	return new SearchResults<IDevice>(devicesConv, results.getNumResults());
     }
 
@@ -389,9 +483,7 @@ public class Devices extends RestControllerBase {
 	helper.setIncludeDeviceType(includeDeviceType);
 	helper.setIncludeAssignment(includeAssignment);
 	List<IDevice> devicesConv = new ArrayList<IDevice>();
-	for (IDevice device : matches) {
-	    devicesConv.add(helper.convert(device, getAssetManagement()));
-	}
+	devicesConv.addAll(helper.convertAll(matches, getAssetManagement()));
 	return new SearchResults<IDevice>(devicesConv, matches.size());
     }
 
@@ -418,9 +510,7 @@ public class Devices extends RestControllerBase {
 	helper.setIncludeDeviceType(includeDeviceType);
 	helper.setIncludeAssignment(includeAssignment);
 	List<IDevice> devicesConv = new ArrayList<IDevice>();
-	for (IDevice device : matches) {
-	    devicesConv.add(helper.convert(device, getAssetManagement()));
-	}
+	devicesConv.addAll(helper.convertAll(matches, getAssetManagement()));
 	return new SearchResults<IDevice>(devicesConv, matches.size());
     }
 
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.web.rest.model;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads device import rows one at a time from a stream so that large imports
+ * do not have to be held in memory. Supports a JSON array of
+ * {@link DeviceImportRequest} objects or CSV with a header row naming the
+ * columns.
+ * 
+ * @author Derek
+ */
+public abstract class DeviceImportReader implements Closeable {
+
+    /** Prefix for CSV columns that hold metadata values */
+    public static final String METADATA_PREFIX = "metadata.";
+
+    /**
+     * Read the next row or return null if the end of the stream was reached.
+     * 
+     * @return
+     * @throws IOException
+     */
+    public abstract DeviceImportRequest next() throws IOException;
+
+    /**
+     * Create a reader for a JSON array of rows.
+     * 
+     * @param input
+     * @return
+     * @throws IOException
+     */
+    public static DeviceImportReader forJson(InputStream input) throws IOException {
+	return new JsonReader(input);
+    }
+
+    /**
+     * Create a reader for CSV rows.
+     * 
+     * @param input
+     * @return
+     * @throws IOException
+     */
+    public static DeviceImportReader forCsv(InputStream input) throws IOException {
+	return new CsvReader(input);
+    }
+
+    /**
+     * Reads rows from a JSON array using the Jackson streaming parser.
+     * 
+     * @author Derek
+     */
+    private static class JsonReader extends DeviceImportReader {
+
+	/** Shared mapper */
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+		.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+	/** JSON parser */
+	private JsonParser parser;
+
+	public JsonReader(InputStream input) throws IOException {
+	    this.parser = MAPPER.getFactory().createParser(input);
+	    if (parser.nextToken() != JsonToken.START_ARRAY) {
+		throw new IOException("Device import JSON must be an array of devices.");
+	    }
+	}
+
+	/*
+	 * @see com.sitewhere.web.rest.model.DeviceImportReader#next()
+	 */
+	@Override
+	public DeviceImportRequest next() throws IOException {
+	    JsonToken token = parser.nextToken();
+	    if ((token == null) || (token == JsonToken.END_ARRAY)) {
+		return null;
+	    }
+	    if (token != JsonToken.START_OBJECT) {
+		throw new IOException("Expected device object in import but found " + token + ".");
+	    }
+	    return MAPPER.readValue(parser, DeviceImportRequest.class);
+	}
+
+	/*
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+	    parser.close();
+	}
+    }
+
+    /**
+     * Reads rows from CSV. Fields may be quoted with double quotes, in which case
+     * they can contain commas, line breaks and escaped ("") quotes.
+     * 
+     * @author Derek
+     */
+    private static class CsvReader extends DeviceImportReader {
+
+	/** Reader for stream */
+	private BufferedReader reader;
+
+	/** Column names from header */
+	private List<String> columns;
+
+	public CsvReader(InputStream input) throws IOException {
+	    this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+	    this.columns = readRecord();
+	    if (columns == null) {
+		throw new IOException("Device import CSV must start with a header row.");
+	    }
+	}
+
+	/*
+	 * @see com.sitewhere.web.rest.model.DeviceImportReader#next()
+	 */
+	@Override
+	public DeviceImportRequest next() throws IOException {
+	    List<String> values = readRecord();
+	    if (values == null) {
+		return null;
+	    }
+	    DeviceImportRequest request = new DeviceImportRequest();
+	    for (int i = 0; i < Math.min(columns.size(), values.size()); i++) {
+		String value = values.get(i).trim();
+		if (value.isEmpty()) {
+		    continue;
+		}
+		setField(request, columns.get(i).trim(), value);
+	    }
+	    return request;
+	}
+
+	/**
+	 * Set a row field based on column name. Unknown columns are ignored.
+	 * 
+	 * @param request
+	 * @param column
+	 * @param value
+	 */
+	protected void setField(DeviceImportRequest request, String column, String value) {
+	    if (column.startsWith(METADATA_PREFIX)) {
+		request.getMetadata().put(column.substring(METADATA_PREFIX.length()), value);
+		return;
+	    }
+	    switch (column) {
+	    case "token":
+		request.setToken(value);
+		break;
+	    case "deviceTypeToken":
+		request.setDeviceTypeToken(value);
+		break;
+	    case "parentDeviceToken":
+		request.setParentDeviceToken(value);
+		break;
+	    case "comments":
+		request.setComments(value);
+		break;
+	    case "status":
+		request.setStatus(value);
+		break;
+	    case "customerToken":
+		request.setCustomerToken(value);
+		break;
+	    case "areaToken":
+		request.setAreaToken(value);
+		break;
+	    case "assetToken":
+		request.setAssetToken(value);
+		break;
+	    }
+	}
+
+	/**
+	 * Read the next non-empty record or return null at end of stream.
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	protected List<String> readRecord() throws IOException {
+	    List<String> fields = new ArrayList<String>();
+	    StringBuilder field = new StringBuilder();
+	    boolean quoted = false;
+	    boolean empty = true;
+	    int c;
+	    while ((c = reader.read()) != -1) {
+		if (quoted) {
+		    if (c == '"') {
+			reader.mark(1);
+			if (reader.read() == '"') {
+			    field.append('"');
+			} else {
+			    reader.reset();
+			    quoted = false;
+			}
+		    } else {
+			field.append((char) c);
+		    }
+		} else if (c == '"') {
+		    quoted = true;
+		    empty = false;
+		} else if (c == ',') {
+		    fields.add(field.toString());
+		    field.setLength(0);
+		    empty = false;
+		} else if ((c == '\r') || (c == '\n')) {
+		    if (c == '\r') {
+			reader.mark(1);
+			if (reader.read() != '\n') {
+			    reader.reset();
+			}
+		    }
+		    if (!empty) {
+			fields.add(field.toString());
+			return fields;
+		    }
+		} else {
+		    field.append((char) c);
+		    empty = false;
+		}
+	    }
+	    if (quoted) {
+		throw new IOException("Unterminated quoted field in device import CSV.");
+	    }
+	    if (empty) {
+		return null;
+	    }
+	    fields.add(field.toString());
+	    return fields;
+	}
+
+	/*
+	 * @see java.io.Closeable#close()
+	 */
+	@Override
+	public void close() throws IOException {
+	    reader.close();
+	}
+    }
+}
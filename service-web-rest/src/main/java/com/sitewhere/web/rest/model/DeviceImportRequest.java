@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.web.rest.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.sitewhere.rest.model.device.request.DeviceCreateRequest;
+
+/**
+ * Single row of a bulk device import. Contains information for creating the
+ * device and optional references used to create an assignment for it.
+ * 
+ * @author Derek
+ */
+@JsonInclude(Include.NON_NULL)
+public class DeviceImportRequest extends DeviceCreateRequest {
+
+    /** Serial version UID */
+    private static final long serialVersionUID = 3306012853208493468L;
+
+    /** Token for customer to assign device to */
+    private String customerToken;
+
+    /** Token for area to assign device to */
+    private String areaToken;
+
+    /** Token for asset to assign device to */
+    private String assetToken;
+
+    /**
+     * Indicates whether an assignment should be created for the device.
+     * 
+     * @return
+     */
+    @JsonIgnore
+    public boolean isAssignmentRequested() {
+	return (getCustomerToken() != null) || (getAreaToken() != null) || (getAssetToken() != null);
+    }
+
+    public String getCustomerToken() {
+	return customerToken;
+    }
+
+    public void setCustomerToken(String customerToken) {
+	this.customerToken = customerToken;
+    }
+
+    public String getAreaToken() {
+	return areaToken;
+    }
+
+    public void setAreaToken(String areaToken) {
+	this.areaToken = areaToken;
+    }
+
+    public String getAssetToken() {
+	return assetToken;
+    }
+
+    public void setAssetToken(String assetToken) {
+	this.assetToken = assetToken;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.web.rest.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.sitewhere.spi.common.IBulkCreateResult;
+import com.sitewhere.spi.error.ErrorCode;
+
+/**
+ * Summary of a bulk device import. Counts cover all rows while the list of
+ * errors is capped to keep the response small for very large imports. If the
+ * import data could not be read, rows before the failing row are still
+ * imported and the failing row and error are reported.
+ * 
+ * @author Derek
+ */
+@JsonInclude(Include.NON_NULL)
+public class DeviceImportSummary {
+
+    /** Maximum number of errors included in summary */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    /** Number of rows read */
+    private int rowsProcessed;
+
+    /** Number of devices created */
+    private int devicesCreated;
+
+    /** Number of devices that could not be created */
+    private int devicesFailed;
+
+    /** Number of assignments created */
+    private int assignmentsCreated;
+
+    /** Number of assignments that could not be created */
+    private int assignmentsFailed;
+
+    /** Errors for rows that failed */
+    private List<RowError> errors = new ArrayList<RowError>();
+
+    /** Index of row that could not be read */
+    private Integer failedRow;
+
+    /** Error that stopped reading import data */
+    private String readError;
+
+    /**
+     * Record a failed device or assignment for a row.
+     * 
+     * @param index
+     * @param token
+     * @param entity
+     * @param result
+     */
+    public void addError(int index, String token, String entity, IBulkCreateResult<?> result) {
+	if (getErrors().size() >= MAX_REPORTED_ERRORS) {
+	    return;
+	}
+	RowError error = new RowError();
+	error.setIndex(index);
+	error.setToken(token);
+	error.setEntity(entity);
+	error.setErrorCode(result.getErrorCode());
+	error.setErrorMessage(result.getErrorMessage());
+	getErrors().add(error);
+    }
+
+    public int getRowsProcessed() {
+	return rowsProcessed;
+    }
+
+    public void setRowsProcessed(int rowsProcessed) {
+	this.rowsProcessed = rowsProcessed;
+    }
+
+    public int getDevicesCreated() {
+	return devicesCreated;
+    }
+
+    public void setDevicesCreated(int devicesCreated) {
+	this.devicesCreated = devicesCreated;
+    }
+
+    public int getDevicesFailed() {
+	return devicesFailed;
+    }
+
+    public void setDevicesFailed(int devicesFailed) {
+	this.devicesFailed = devicesFailed;
+    }
+
+    public int getAssignmentsCreated() {
+	return assignmentsCreated;
+    }
+
+    public void setAssignmentsCreated(int assignmentsCreated) {
+	this.assignmentsCreated = assignmentsCreated;
+    }
+
+    public int getAssignmentsFailed() {
+	return assignmentsFailed;
+    }
+
+    public void setAssignmentsFailed(int assignmentsFailed) {
+	this.assignmentsFailed = assignmentsFailed;
+    }
+
+    public List<RowError> getErrors() {
+	return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+	this.errors = errors;
+    }
+
+    public Integer getFailedRow() {
+	return failedRow;
+    }
+
+    public void setFailedRow(Integer failedRow) {
+	this.failedRow = failedRow;
+    }
+
+    public String getReadError() {
+	return readError;
+    }
+
+    public void setReadError(String readError) {
+	this.readError = readError;
+    }
+
+    /**
+     * Error for a single row of an import.
+     * 
+     * @author Derek
+     */
+    @JsonInclude(Include.NON_NULL)
+    public static class RowError {
+
+	/** Row index in import */
+	private int index;
+
+	/** Device token from row */
+	private String token;
+
+	/** Type of entity that failed */
+	private String entity;
+
+	/** Error code */
+	private ErrorCode errorCode;
+
+	/** Error message */
+	private String errorMessage;
+
+	public int getIndex() {
+	    return index;
+	}
+
+	public void setIndex(int index) {
+	    this.index = index;
+	}
+
+	public String getToken() {
+	    return token;
+	}
+
+	public void setToken(String token) {
+	    this.token = token;
+	}
+
+	public String getEntity() {
+	    return entity;
+	}
+
+	public void setEntity(String entity) {
+	    this.entity = entity;
+	}
+
+	public ErrorCode getErrorCode() {
+	    return errorCode;
+	}
+
+	public void setErrorCode(ErrorCode errorCode) {
+	    this.errorCode = errorCode;
+	}
+
+	public String getErrorMessage() {
+	    return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+	    this.errorMessage = errorMessage;
+	}
+    }
+}
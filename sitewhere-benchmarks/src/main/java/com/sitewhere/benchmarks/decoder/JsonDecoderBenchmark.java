@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.benchmarks.decoder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sitewhere.rest.model.device.communication.DeviceRequest;
+import com.sitewhere.rest.model.device.event.DeviceEventBatch;
+import com.sitewhere.rest.model.device.event.request.DeviceMeasurementCreateRequest;
+import com.sitewhere.sources.decoder.json.JsonBatchEventDecoder;
+import com.sitewhere.sources.decoder.json.JsonDeviceRequestDecoder;
+import com.sitewhere.sources.decoder.json.JsonStreamingDeviceRequestDecoder;
+import com.sitewhere.sources.spi.IDecodedDeviceRequest;
+
+/**
+ * Compares the tree-based JSON decoders with
+ * {@link JsonStreamingDeviceRequestDecoder} for a single device request and for
+ * batches of measurements.
+ * 
+ * @author Derek
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDecoderBenchmark {
+
+    /** Number of events in batch payloads */
+    @Param({ "10", "100" })
+    private int batchSize;
+
+    /** Existing device request decoder */
+    private JsonDeviceRequestDecoder requestDecoder;
+
+    /** Existing batch decoder */
+    private JsonBatchEventDecoder batchDecoder;
+
+    /** Streaming decoder */
+    private JsonStreamingDeviceRequestDecoder streamingDecoder;
+
+    /** Single device request */
+    private byte[] singlePayload;
+
+    /** Batch in {@link DeviceEventBatch} format */
+    private byte[] eventBatchPayload;
+
+    /** Batch as array of device requests */
+    private byte[] requestArrayPayload;
+
+    @Setup
+    public void setup() throws Exception {
+	this.requestDecoder = new JsonDeviceRequestDecoder();
+	this.batchDecoder = new JsonBatchEventDecoder();
+	this.streamingDecoder = new JsonStreamingDeviceRequestDecoder();
+
+	ObjectMapper mapper = new ObjectMapper();
+	this.singlePayload = mapper.writeValueAsBytes(createRequest(0));
+
+	DeviceEventBatch batch = new DeviceEventBatch();
+	batch.setHardwareId("benchmark-device");
+	List<DeviceRequest> requests = new ArrayList<DeviceRequest>();
+	for (int i = 0; i < batchSize; i++) {
+	    batch.getMeasurements().add(createMeasurement(i));
+	    requests.add(createRequest(i));
+	}
+	this.eventBatchPayload = mapper.writeValueAsBytes(batch);
+	this.requestArrayPayload = mapper.writeValueAsBytes(requests);
+    }
+
+    @Benchmark
+    public List<IDecodedDeviceRequest<?>> singleTree() throws Exception {
+	return requestDecoder.decode(singlePayload, null);
+    }
+
+    @Benchmark
+    public List<IDecodedDeviceRequest<?>> singleStreaming() throws Exception {
+	return streamingDecoder.decode(singlePayload, null);
+    }
+
+    @Benchmark
+    public List<IDecodedDeviceRequest<?>> batchEventBatch() throws Exception {
+	return batchDecoder.decode(eventBatchPayload, null);
+    }
+
+    @Benchmark
+    public List<IDecodedDeviceRequest<?>> batchStreaming() throws Exception {
+	return streamingDecoder.decode(requestArrayPayload, null);
+    }
+
+    /**
+     * Create a device request wrapping a measurement.
+     * 
+     * @param index
+     * @return
+     */
+    protected DeviceRequest createRequest(int index) {
+	DeviceRequest request = new DeviceRequest();
+	request.setDeviceToken("benchmark-device");
+	request.setType(DeviceRequest.Type.DeviceMeasurement);
+	request.setRequest(createMeasurement(index));
+	return request;
+    }
+
+    /**
+     * Create a representative measurement.
+     * 
+     * @param index
+     * @return
+     */
+    protected DeviceMeasurementCreateRequest createMeasurement(int index) {
+	DeviceMeasurementCreateRequest measurement = new DeviceMeasurementCreateRequest();
+	measurement.setName("engine.temperature");
+	measurement.setValue(80.0 + index);
+	measurement.setEventDate(new Date());
+	measurement.setUpdateState(true);
+	Map<String, String> metadata = new HashMap<String, String>();
+	metadata.put("sensor", "sensor-" + index);
+	metadata.put("unit", "celsius");
+	measurement.setMetadata(metadata);
+	return measurement;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.benchmarks.grpc;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sitewhere.grpc.client.device.DeviceModelConverter;
+import com.sitewhere.grpc.model.DeviceModel.GDevice;
+import com.sitewhere.grpc.model.DeviceModel.GDeviceAssignment;
+import com.sitewhere.rest.model.device.Device;
+import com.sitewhere.rest.model.device.DeviceAssignment;
+
+/**
+ * Measures throughput of converting the device entities most frequently passed
+ * between microservices with {@link DeviceModelConverter}.
+ * 
+ * @author Derek
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeviceModelConverterBenchmark {
+
+    /** API device */
+    private Device apiDevice;
+
+    /** GRPC device */
+    private GDevice grpcDevice;
+
+    /** API assignment */
+    private DeviceAssignment apiAssignment;
+
+    /** GRPC assignment */
+    private GDeviceAssignment grpcAssignment;
+
+    @Setup
+    public void setup() throws Exception {
+	this.apiDevice = SampleModel.createDevice();
+	this.grpcDevice = DeviceModelConverter.asGrpcDevice(apiDevice);
+	this.apiAssignment = SampleModel.createDeviceAssignment();
+	this.grpcAssignment = DeviceModelConverter.asGrpcDeviceAssignment(apiAssignment);
+    }
+
+    @Benchmark
+    public GDevice deviceToGrpc() throws Exception {
+	return DeviceModelConverter.asGrpcDevice(apiDevice);
+    }
+
+    @Benchmark
+    public Device deviceToApi() throws Exception {
+	return DeviceModelConverter.asApiDevice(grpcDevice);
+    }
+
+    @Benchmark
+    public GDeviceAssignment assignmentToGrpc() throws Exception {
+	return DeviceModelConverter.asGrpcDeviceAssignment(apiAssignment);
+    }
+
+    @Benchmark
+    public DeviceAssignment assignmentToApi() throws Exception {
+	return DeviceModelConverter.asApiDeviceAssignment(grpcAssignment);
+    }
+}
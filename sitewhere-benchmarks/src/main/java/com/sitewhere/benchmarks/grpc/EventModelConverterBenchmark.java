@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.benchmarks.grpc;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sitewhere.grpc.client.event.EventModelConverter;
+import com.sitewhere.grpc.model.DeviceEventModel.GAnyDeviceEvent;
+import com.sitewhere.grpc.model.DeviceEventModel.GAnyDeviceEventCreateRequest;
+import com.sitewhere.grpc.model.DeviceEventModel.GDeviceEventContext;
+import com.sitewhere.rest.model.device.event.DeviceEventContext;
+import com.sitewhere.spi.device.event.DeviceEventType;
+import com.sitewhere.spi.device.event.IDeviceEvent;
+import com.sitewhere.spi.device.event.IDeviceEventContext;
+import com.sitewhere.spi.device.event.request.IDeviceEventCreateRequest;
+
+/**
+ * Measures throughput of converting each event type and its create request
+ * between the API model and the GRPC model with {@link EventModelConverter}.
+ * 
+ * @author Derek
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventModelConverterBenchmark {
+
+    /** Type of event being converted */
+    @Param({ "Measurement", "Location", "Alert", "CommandInvocation", "CommandResponse", "StateChange" })
+    private DeviceEventType eventType;
+
+    /** API event */
+    private IDeviceEvent apiEvent;
+
+    /** GRPC event */
+    private GAnyDeviceEvent grpcEvent;
+
+    /** API create request */
+    private IDeviceEventCreateRequest apiRequest;
+
+    /** GRPC create request */
+    private GAnyDeviceEventCreateRequest grpcRequest;
+
+    /** API event context */
+    private DeviceEventContext apiContext;
+
+    /** GRPC event context */
+    private GDeviceEventContext grpcContext;
+
+    @Setup
+    public void setup() throws Exception {
+	this.apiEvent = SampleModel.createEvent(eventType);
+	this.grpcEvent = EventModelConverter.asGrpcGenericDeviceEvent(apiEvent);
+	this.apiRequest = SampleModel.createEventCreateRequest(eventType);
+	this.grpcRequest = EventModelConverter.asGrpcDeviceEventCreateRequest(apiRequest);
+	this.apiContext = SampleModel.createEventContext();
+	this.grpcContext = EventModelConverter.asGrpcDeviceEventContext(apiContext);
+    }
+
+    @Benchmark
+    public GAnyDeviceEvent eventToGrpc() throws Exception {
+	return EventModelConverter.asGrpcGenericDeviceEvent(apiEvent);
+    }
+
+    @Benchmark
+    public IDeviceEvent eventToApi() throws Exception {
+	return EventModelConverter.asApiGenericDeviceEvent(grpcEvent);
+    }
+
+    @Benchmark
+    public GAnyDeviceEventCreateRequest createRequestToGrpc() throws Exception {
+	return EventModelConverter.asGrpcDeviceEventCreateRequest(apiRequest);
+    }
+
+    @Benchmark
+    public IDeviceEventCreateRequest createRequestToApi() throws Exception {
+	return EventModelConverter.asApiDeviceEventCreateRequest(grpcRequest);
+    }
+
+    @Benchmark
+    public GDeviceEventContext contextToGrpc() throws Exception {
+	return EventModelConverter.asGrpcDeviceEventContext(apiContext);
+    }
+
+    @Benchmark
+    public IDeviceEventContext contextToApi() throws Exception {
+	return EventModelConverter.asApiDeviceEventContext(grpcContext);
+    }
+}
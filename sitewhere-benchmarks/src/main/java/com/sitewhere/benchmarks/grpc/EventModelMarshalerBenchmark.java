@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.benchmarks.grpc;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sitewhere.grpc.client.event.EventModelConverter;
+import com.sitewhere.grpc.client.event.EventModelMarshaler;
+import com.sitewhere.grpc.model.DeviceEventModel.GEnrichedEventPayload;
+import com.sitewhere.grpc.model.DeviceEventModel.GInboundEventPayload;
+import com.sitewhere.grpc.model.DeviceEventModel.GPersistedEventPayload;
+import com.sitewhere.rest.model.device.event.DeviceEvent;
+import com.sitewhere.rest.model.microservice.kafka.payload.EnrichedEventPayload;
+import com.sitewhere.rest.model.microservice.kafka.payload.InboundEventPayload;
+import com.sitewhere.rest.model.microservice.kafka.payload.PersistedEventPayload;
+import com.sitewhere.spi.device.event.DeviceEventType;
+
+/**
+ * Measures throughput of building and parsing the payloads exchanged between
+ * microservices over Kafka with {@link EventModelMarshaler}. Building includes
+ * conversion from the API model, which is how payloads are produced in the
+ * event pipeline. Parsing includes conversion back to the API model.
+ * 
+ * @author Derek
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventModelMarshalerBenchmark {
+
+    /** Type of event carried in payloads */
+    @Param({ "Measurement", "Location", "Alert", "CommandInvocation", "CommandResponse", "StateChange" })
+    private DeviceEventType eventType;
+
+    /** Inbound payload */
+    private InboundEventPayload inbound;
+
+    /** Encoded inbound payload */
+    private byte[] inboundBytes;
+
+    /** Persisted payload */
+    private PersistedEventPayload persisted;
+
+    /** Encoded persisted payload */
+    private byte[] persistedBytes;
+
+    /** Enriched payload */
+    private EnrichedEventPayload enriched;
+
+    /** Encoded enriched payload */
+    private byte[] enrichedBytes;
+
+    @Setup
+    public void setup() throws Exception {
+	DeviceEvent event = SampleModel.createEvent(eventType);
+
+	this.inbound = new InboundEventPayload();
+	inbound.setSourceId("benchmark");
+	inbound.setDeviceToken("device-" + event.getDeviceId());
+	inbound.setOriginator("originator");
+	inbound.setEventCreateRequest(SampleModel.createEventCreateRequest(eventType));
+	this.inboundBytes = EventModelMarshaler.buildInboundEventPayloadMessage(inbound);
+
+	this.persisted = new PersistedEventPayload();
+	persisted.setDeviceId(event.getDeviceId());
+	persisted.setEvent(event);
+	this.persistedBytes = buildPersisted();
+
+	this.enriched = new EnrichedEventPayload();
+	enriched.setEventContext(SampleModel.createEventContext());
+	enriched.setEvent(event);
+	this.enrichedBytes = EventModelMarshaler.buildEnrichedEventPayloadMessage(enriched);
+    }
+
+    @Benchmark
+    public byte[] buildInbound() throws Exception {
+	return EventModelMarshaler.buildInboundEventPayloadMessage(inbound);
+    }
+
+    @Benchmark
+    public InboundEventPayload parseInbound() throws Exception {
+	GInboundEventPayload grpc = EventModelMarshaler.parseInboundEventPayloadMessage(inboundBytes);
+	return EventModelConverter.asApiInboundEventPayload(grpc);
+    }
+
+    @Benchmark
+    public byte[] buildPersisted() throws Exception {
+	return EventModelMarshaler
+		.buildPersistedEventPayloadMessage(EventModelConverter.asGrpcPersistedEventPayload(persisted));
+    }
+
+    @Benchmark
+    public PersistedEventPayload parsePersisted() throws Exception {
+	GPersistedEventPayload grpc = EventModelMarshaler.parsePersistedEventPayloadMessage(persistedBytes);
+	return EventModelConverter.asApiPersisedEventPayload(grpc);
+    }
+
+    @Benchmark
+    public byte[] buildEnriched() throws Exception {
+	return EventModelMarshaler.buildEnrichedEventPayloadMessage(enriched);
+    }
+
+    @Benchmark
+    public EnrichedEventPayload parseEnriched() throws Exception {
+	GEnrichedEventPayload grpc = EventModelMarshaler.parseEnrichedEventPayloadMessage(enrichedBytes);
+	return EventModelConverter.asApiEnrichedEventPayload(grpc);
+    }
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.benchmarks.grpc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.sitewhere.rest.model.area.Area;
+import com.sitewhere.rest.model.asset.Asset;
+import com.sitewhere.rest.model.asset.AssetType;
+import com.sitewhere.rest.model.common.BrandedEntity;
+import com.sitewhere.rest.model.common.Location;
+import com.sitewhere.rest.model.common.PersistentEntity;
+import com.sitewhere.rest.model.device.Device;
+import com.sitewhere.rest.model.device.DeviceAssignment;
+import com.sitewhere.rest.model.device.DeviceType;
+import com.sitewhere.rest.model.device.event.DeviceAlert;
+import com.sitewhere.rest.model.device.event.DeviceCommandInvocation;
+import com.sitewhere.rest.model.device.event.DeviceCommandResponse;
+import com.sitewhere.rest.model.device.event.DeviceEvent;
+import com.sitewhere.rest.model.device.event.DeviceEventContext;
+import com.sitewhere.rest.model.device.event.DeviceLocation;
+import com.sitewhere.rest.model.device.event.DeviceMeasurement;
+import com.sitewhere.rest.model.device.event.DeviceStateChange;
+import com.sitewhere.rest.model.device.event.request.DeviceAlertCreateRequest;
+import com.sitewhere.rest.model.device.event.request.DeviceCommandInvocationCreateRequest;
+import com.sitewhere.rest.model.device.event.request.DeviceCommandResponseCreateRequest;
+import com.sitewhere.rest.model.device.event.request.DeviceEventCreateRequest;
+import com.sitewhere.rest.model.device.event.request.DeviceLocationCreateRequest;
+import com.sitewhere.rest.model.device.event.request.DeviceMeasurementCreateRequest;
+import com.sitewhere.rest.model.device.event.request.DeviceStateChangeCreateRequest;
+import com.sitewhere.rest.model.tenant.Tenant;
+import com.sitewhere.rest.model.user.User;
+import com.sitewhere.spi.asset.AssetCategory;
+import com.sitewhere.spi.device.DeviceAssignmentStatus;
+import com.sitewhere.spi.device.DeviceContainerPolicy;
+import com.sitewhere.spi.device.event.AlertLevel;
+import com.sitewhere.spi.device.event.AlertSource;
+import com.sitewhere.spi.device.event.CommandInitiator;
+import com.sitewhere.spi.device.event.CommandTarget;
+import com.sitewhere.spi.device.event.DeviceEventType;
+import com.sitewhere.spi.user.AccountStatus;
+
+/**
+ * Creates representative model objects used as input for conversion and
+ * marshaling benchmarks. All optional fields are populated so that every
+ * branch of the converters is exercised.
+ * 
+ * @author Derek
+ */
+public class SampleModel {
+
+    /**
+     * Create a persisted event of the given type.
+     * 
+     * @param type
+     * @return
+     */
+    public static DeviceEvent createEvent(DeviceEventType type) {
+	DeviceEvent event;
+	switch (type) {
+	case Measurement: {
+	    DeviceMeasurement measurement = new DeviceMeasurement();
+	    measurement.setName("engine.temperature");
+	    measurement.setValue(81.5);
+	    event = measurement;
+	    break;
+	}
+	case Location: {
+	    DeviceLocation location = new DeviceLocation();
+	    location.setLatitude(33.7550);
+	    location.setLongitude(-84.3900);
+	    location.setElevation(320.0);
+	    event = location;
+	    break;
+	}
+	case Alert: {
+	    DeviceAlert alert = new DeviceAlert();
+	    alert.setSource(AlertSource.Device);
+	    alert.setLevel(AlertLevel.Warning);
+	    alert.setType("engine.overheat");
+	    alert.setMessage("Engine temperature above threshold.");
+	    event = alert;
+	    break;
+	}
+	case CommandInvocation: {
+	    DeviceCommandInvocation invocation = new DeviceCommandInvocation();
+	    invocation.setInitiator(CommandInitiator.REST);
+	    invocation.setInitiatorId("admin");
+	    invocation.setTarget(CommandTarget.Assignment);
+	    invocation.setTargetId(UUID.randomUUID().toString());
+	    invocation.setCommandToken("set-reporting-interval");
+	    invocation.setParameterValues(createMetadata("interval", 3));
+	    event = invocation;
+	    break;
+	}
+	case CommandResponse: {
+	    DeviceCommandResponse response = new DeviceCommandResponse();
+	    response.setOriginatingEventId(UUID.randomUUID());
+	    response.setResponseEventId(UUID.randomUUID());
+	    response.setResponse("Reporting interval updated.");
+	    event = response;
+	    break;
+	}
+	case StateChange: {
+	    DeviceStateChange change = new DeviceStateChange();
+	    change.setAttribute("presence");
+	    change.setType("missing");
+	    change.setPreviousState("present");
+	    change.setNewState("missing");
+	    event = change;
+	    break;
+	}
+	default:
+	    throw new IllegalArgumentException("Unsupported event type: " + type);
+	}
+	event.setId(UUID.randomUUID());
+	event.setAlternateId("alt-" + event.getId());
+	event.setDeviceId(UUID.randomUUID());
+	event.setDeviceAssignmentId(UUID.randomUUID());
+	event.setCustomerId(UUID.randomUUID());
+	event.setAreaId(UUID.randomUUID());
+	event.setAssetId(UUID.randomUUID());
+	event.setEventDate(new Date());
+	event.setReceivedDate(new Date());
+	event.setMetadata(createMetadata("meta", 4));
+	return event;
+    }
+
+    /**
+     * Create an event create request of the given type.
+     * 
+     * @param type
+     * @return
+     */
+    public static DeviceEventCreateRequest createEventCreateRequest(DeviceEventType type) {
+	DeviceEventCreateRequest request;
+	switch (type) {
+	case Measurement: {
+	    DeviceMeasurementCreateRequest measurement = new DeviceMeasurementCreateRequest();
+	    measurement.setName("engine.temperature");
+	    measurement.setValue(81.5);
+	    request = measurement;
+	    break;
+	}
+	case Location: {
+	    DeviceLocationCreateRequest location = new DeviceLocationCreateRequest();
+	    location.setLatitude(33.7550);
+	    location.setLongitude(-84.3900);
+	    location.setElevation(320.0);
+	    request = location;
+	    break;
+	}
+	case Alert: {
+	    DeviceAlertCreateRequest alert = new DeviceAlertCreateRequest();
+	    alert.setSource(AlertSource.Device);
+	    alert.setLevel(AlertLevel.Warning);
+	    alert.setType("engine.overheat");
+	    alert.setMessage("Engine temperature above threshold.");
+	    request = alert;
+	    break;
+	}
+	case CommandInvocation: {
+	    DeviceCommandInvocationCreateRequest invocation = new DeviceCommandInvocationCreateRequest();
+	    invocation.setInitiator(CommandInitiator.REST);
+	    invocation.setInitiatorId("admin");
+	    invocation.setTarget(CommandTarget.Assignment);
+	    invocation.setTargetId(UUID.randomUUID().toString());
+	    invocation.setCommandToken("set-reporting-interval");
+	    invocation.setParameterValues(createMetadata("interval", 3));
+	    request = invocation;
+	    break;
+	}
+	case CommandResponse: {
+	    DeviceCommandResponseCreateRequest response = new DeviceCommandResponseCreateRequest();
+	    response.setOriginatingEventId(UUID.randomUUID());
+	    response.setResponseEventId(UUID.randomUUID());
+	    response.setResponse("Reporting interval updated.");
+	    request = response;
+	    break;
+	}
+	case StateChange: {
+	    DeviceStateChangeCreateRequest change = new DeviceStateChangeCreateRequest();
+	    change.setAttribute("presence");
+	    change.setType("missing");
+	    change.setPreviousState("present");
+	    change.setNewState("missing");
+	    request = change;
+	    break;
+	}
+	default:
+	    throw new IllegalArgumentException("Unsupported event type: " + type);
+	}
+	request.setAlternateId("alt-" + UUID.randomUUID());
+	request.setEventDate(new Date());
+	request.setUpdateState(true);
+	request.setMetadata(createMetadata("meta", 4));
+	return request;
+    }
+
+    /**
+     * Create context information attached to enriched events.
+     * 
+     * @return
+     */
+    public static DeviceEventContext createEventContext() {
+	DeviceEventContext context = new DeviceEventContext();
+	context.setDeviceId(UUID.randomUUID());
+	context.setDeviceTypeId(UUID.randomUUID());
+	context.setParentDeviceId(UUID.randomUUID());
+	context.setDeviceStatus("online");
+	context.setDeviceMetadata(createMetadata("device", 4));
+	context.setAssignmentStatus(DeviceAssignmentStatus.Active);
+	context.setAssignmentMetadata(createMetadata("assignment", 4));
+	return context;
+    }
+
+    /**
+     * Create a device.
+     * 
+     * @return
+     */
+    public static Device createDevice() {
+	Device device = new Device();
+	device.setDeviceTypeId(UUID.randomUUID());
+	device.setDeviceAssignmentId(UUID.randomUUID());
+	device.setParentDeviceId(UUID.randomUUID());
+	device.setComments("Benchmark device.");
+	device.setStatus("online");
+	populateEntity(device);
+	return device;
+    }
+
+    /**
+     * Create a device assignment.
+     * 
+     * @return
+     */
+    public static DeviceAssignment createDeviceAssignment() {
+	DeviceAssignment assignment = new DeviceAssignment();
+	assignment.setDeviceId(UUID.randomUUID());
+	assignment.setDeviceTypeId(UUID.randomUUID());
+	assignment.setCustomerId(UUID.randomUUID());
+	assignment.setAreaId(UUID.randomUUID());
+	assignment.setAssetId(UUID.randomUUID());
+	assignment.setStatus(DeviceAssignmentStatus.Active);
+	assignment.setActiveDate(new Date());
+	assignment.setReleasedDate(new Date());
+	populateEntity(assignment);
+	return assignment;
+    }
+
+    /**
+     * Create an area.
+     * 
+     * @return
+     */
+    public static Area createArea() {
+	Area area = new Area();
+	area.setAreaTypeId(UUID.randomUUID());
+	area.setParentAreaId(UUID.randomUUID());
+	area.setName("Benchmark area");
+	area.setDescription("Area used for benchmarks.");
+	List<Location> bounds = new ArrayList<Location>();
+	for (int i = 0; i < 4; i++) {
+	    Location location = new Location();
+	    location.setLatitude(33.7550 + (i * 0.01));
+	    location.setLongitude(-84.3900 + (i * 0.01));
+	    location.setElevation(0.0);
+	    bounds.add(location);
+	}
+	area.setBounds(bounds);
+	populateBranding(area);
+	return area;
+    }
+
+    /**
+     * Create a device type.
+     * 
+     * @return
+     */
+    public static DeviceType createDeviceType() {
+	DeviceType type = new DeviceType();
+	type.setName("Benchmark device type");
+	type.setDescription("Device type used for benchmarks.");
+	type.setContainerPolicy(DeviceContainerPolicy.Standalone);
+	populateBranding(type);
+	return type;
+    }
+
+    /**
+     * Create an asset type.
+     * 
+     * @return
+     */
+    public static AssetType createAssetType() {
+	AssetType type = new AssetType();
+	type.setName("Benchmark asset type");
+	type.setDescription("Asset type used for benchmarks.");
+	type.setAssetCategory(AssetCategory.Hardware);
+	populateBranding(type);
+	return type;
+    }
+
+    /**
+     * Create an asset.
+     * 
+     * @return
+     */
+    public static Asset createAsset() {
+	Asset asset = new Asset();
+	asset.setAssetTypeId(UUID.randomUUID());
+	asset.setName("Benchmark asset");
+	populateBranding(asset);
+	return asset;
+    }
+
+    /**
+     * Create a user.
+     * 
+     * @return
+     */
+    public static User createUser() {
+	User user = new User();
+	user.setUsername("benchmark");
+	user.setHashedPassword("5f4dcc3b5aa765d61d8327deb882cf99");
+	user.setFirstName("Benchmark");
+	user.setLastName("User");
+	user.setStatus(AccountStatus.Active);
+	user.setLastLogin(new Date());
+	user.setAuthorities(new ArrayList<String>(Arrays.asList("REST", "ADMINISTER_USERS", "ADMINISTER_TENANTS")));
+	populateEntity(user);
+	return user;
+    }
+
+    /**
+     * Create a tenant.
+     * 
+     * @return
+     */
+    public static Tenant createTenant() {
+	Tenant tenant = new Tenant();
+	tenant.setName("Benchmark tenant");
+	tenant.setAuthenticationToken(UUID.randomUUID().toString());
+	tenant.setAuthorizedUserIds(new ArrayList<String>(Arrays.asList("admin", "benchmark")));
+	tenant.setTenantTemplateId("default");
+	tenant.setDatasetTemplateId("construction");
+	populateBranding(tenant);
+	return tenant;
+    }
+
+    /**
+     * Populate branded entity fields.
+     * 
+     * @param entity
+     */
+    protected static void populateBranding(BrandedEntity entity) {
+	entity.setImageUrl("https://s3.amazonaws.com/sitewhere-demo/benchmark.png");
+	entity.setIcon("fa-microchip");
+	entity.setBackgroundColor("#dceefd");
+	entity.setForegroundColor("#333333");
+	entity.setBorderColor("#2196f3");
+	populateEntity(entity);
+    }
+
+    /**
+     * Populate common persistent entity fields.
+     * 
+     * @param entity
+     */
+    protected static void populateEntity(PersistentEntity entity) {
+	entity.setId(UUID.randomUUID());
+	entity.setToken(entity.getId().toString());
+	entity.setCreatedDate(new Date());
+	entity.setCreatedBy("admin");
+	entity.setUpdatedDate(new Date());
+	entity.setUpdatedBy("admin");
+	entity.setMetadata(createMetadata("meta", 4));
+    }
+
+    /**
+     * Create a metadata map with the given number of entries.
+     * 
+     * @param prefix
+     * @param count
+     * @return
+     */
+    protected static Map<String, String> createMetadata(String prefix, int count) {
+	Map<String, String> metadata = new HashMap<String, String>();
+	for (int i = 0; i < count; i++) {
+	    metadata.put(prefix + i, "value" + i);
+	}
+	return metadata;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.benchmarks.hazelcast;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.sitewhere.benchmarks.grpc.SampleModel;
+import com.sitewhere.grpc.client.asset.AssetManagementCacheSerializers;
+import com.sitewhere.grpc.client.cache.CacheSerializerRegistry;
+import com.sitewhere.grpc.client.device.DeviceManagementCacheSerializers;
+import com.sitewhere.grpc.client.tenant.TenantManagementCacheSerializers;
+import com.sitewhere.grpc.client.user.UserManagementCacheSerializers;
+
+/**
+ * Compares the default Java serialization Hazelcast uses for cached entities
+ * with the protobuf serializers registered for them. Throughput is measured
+ * for writing and reading each entity type. The serialized size of the entity
+ * is printed once per trial, so sizes for each format can be compared directly
+ * in the run output. Writes also report the serialized bytes produced per
+ * second as a secondary metric.
+ * 
+ * @author Derek
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheSerializationBenchmark {
+
+    /** Cached entity type */
+    @Param({ "Area", "DeviceType", "Device", "DeviceAssignment", "AssetType", "Asset", "User", "Tenant" })
+    private String entity;
+
+    /** Serialization format */
+    @Param({ "java", "protobuf" })
+    private String format;
+
+    /** Hazelcast serialization service */
+    private InternalSerializationService serializationService;
+
+    /** Entity being cached */
+    private Object object;
+
+    /** Serialized entity */
+    private Data data;
+
+    @Setup
+    public void setup() throws Exception {
+	SerializationConfig config = new SerializationConfig();
+	if ("protobuf".equals(format)) {
+	    CacheSerializerRegistry registry = new CacheSerializerRegistry()
+		    .registerAll(DeviceManagementCacheSerializers.createRegistry())
+		    .registerAll(AssetManagementCacheSerializers.createRegistry())
+		    .registerAll(UserManagementCacheSerializers.createRegistry())
+		    .registerAll(TenantManagementCacheSerializers.createRegistry());
+	    registry.configure(config);
+	}
+	this.serializationService = new DefaultSerializationServiceBuilder().setConfig(config).build();
+	this.object = createEntity(entity);
+	this.data = serializationService.toData(object);
+	System.out.println("Serialized size of " + entity + " (" + format + "): " + data.totalSize() + " bytes");
+    }
+
+    @TearDown
+    public void tearDown() {
+	serializationService.dispose();
+    }
+
+    @Benchmark
+    public Data write(SerializedBytes counters) {
+	Data written = serializationService.toData(object);
+	counters.bytes += written.totalSize();
+	return written;
+    }
+
+    @Benchmark
+    public Object read() {
+	return serializationService.toObject(data);
+    }
+
+    /**
+     * Create sample entity of the given type.
+     * 
+     * @param type
+     * @return
+     */
+    protected static Object createEntity(String type) {
+	switch (type) {
+	case "Area":
+	    return SampleModel.createArea();
+	case "DeviceType":
+	    return SampleModel.createDeviceType();
+	case "Device":
+	    return SampleModel.createDevice();
+	case "DeviceAssignment":
+	    return SampleModel.createDeviceAssignment();
+	case "AssetType":
+	    return SampleModel.createAssetType();
+	case "Asset":
+	    return SampleModel.createAsset();
+	case "User":
+	    return SampleModel.createUser();
+	case "Tenant":
+	    return SampleModel.createTenant();
+	default:
+	    throw new IllegalArgumentException("Unsupported entity type: " + type);
+	}
+    }
+
+    /**
+     * Counts serialized bytes produced by writes. Reported by JMH as a
+     * secondary metric next to the write throughput.
+     * 
+     * @author Derek
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class SerializedBytes {
+
+	/** Serialized bytes written during the iteration */
+	public long bytes;
+
+	@Setup(Level.Iteration)
+	public void reset() {
+	    bytes = 0;
+	}
+    }
+}
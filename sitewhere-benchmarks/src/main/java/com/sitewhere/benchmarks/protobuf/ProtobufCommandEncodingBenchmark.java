@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.benchmarks.protobuf;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.sitewhere.communication.protobuf.DeviceTypeDescriptorCache;
+import com.sitewhere.communication.protobuf.ProtobufMessageBuilder;
+import com.sitewhere.rest.model.device.DeviceType;
+import com.sitewhere.rest.model.device.command.CommandParameter;
+import com.sitewhere.rest.model.device.command.DeviceCommand;
+import com.sitewhere.rest.model.device.command.DeviceCommandExecution;
+import com.sitewhere.rest.model.device.event.DeviceCommandInvocation;
+import com.sitewhere.rest.model.search.SearchResults;
+import com.sitewhere.spi.device.IDevice;
+import com.sitewhere.spi.device.IDeviceManagement;
+import com.sitewhere.spi.device.IDeviceNestingContext;
+import com.sitewhere.spi.device.command.IDeviceCommand;
+import com.sitewhere.spi.device.command.ParameterType;
+
+/**
+ * Measures throughput of encoding command invocations with
+ * {@link ProtobufMessageBuilder}, with and without reuse of generated
+ * descriptors via {@link DeviceTypeDescriptorCache}.
+ * 
+ * @author Derek
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtobufCommandEncodingBenchmark {
+
+    /** Number of commands defined for device type */
+    @Param({ "5", "50" })
+    private int commandCount;
+
+    /** Device type commands are generated for */
+    private DeviceType deviceType;
+
+    /** Commands for device type */
+    private List<IDeviceCommand> commands;
+
+    /** Execution being encoded */
+    private DeviceCommandExecution execution;
+
+    /** Nesting context (not nested) */
+    private IDeviceNestingContext nested;
+
+    /** Device management that returns static data */
+    private IDeviceManagement deviceManagement;
+
+    /** Descriptor cache */
+    private DeviceTypeDescriptorCache cache;
+
+    @Setup
+    public void setup() {
+	this.deviceType = new DeviceType();
+	deviceType.setId(UUID.randomUUID());
+	deviceType.setToken("benchmark");
+	deviceType.setName("Benchmark");
+
+	this.commands = new ArrayList<IDeviceCommand>();
+	for (int i = 0; i < commandCount; i++) {
+	    DeviceCommand command = new DeviceCommand();
+	    command.setId(UUID.randomUUID());
+	    command.setToken("command" + i);
+	    command.setName("command" + i);
+	    command.setDeviceTypeId(deviceType.getId());
+	    command.getParameters().add(new CommandParameter("name", ParameterType.String, true));
+	    command.getParameters().add(new CommandParameter("count", ParameterType.Int32, true));
+	    command.getParameters().add(new CommandParameter("value", ParameterType.Double, false));
+	    command.getParameters().add(new CommandParameter("enabled", ParameterType.Bool, false));
+	    commands.add(command);
+	}
+
+	DeviceCommandInvocation invocation = new DeviceCommandInvocation();
+	invocation.setId(UUID.randomUUID());
+
+	Map<String, Object> parameters = new HashMap<String, Object>();
+	parameters.put("name", "benchmark");
+	parameters.put("count", 42);
+	parameters.put("value", 3.1415d);
+	parameters.put("enabled", true);
+
+	this.execution = new DeviceCommandExecution();
+	execution.setCommand(commands.get(0));
+	execution.setInvocation(invocation);
+	execution.setParameters(parameters);
+
+	this.nested = new NotNestedContext();
+	this.deviceManagement = createDeviceManagement();
+	this.cache = new DeviceTypeDescriptorCache();
+    }
+
+    @Benchmark
+    public byte[] encodeWithoutCache() throws Exception {
+	return ProtobufMessageBuilder.createMessage(execution, nested, null, deviceManagement, null);
+    }
+
+    @Benchmark
+    public byte[] encodeWithCache() throws Exception {
+	return ProtobufMessageBuilder.createMessage(execution, nested, null, deviceManagement, cache);
+    }
+
+    /**
+     * Create a device management implementation that only answers the calls made
+     * while encoding.
+     * 
+     * @return
+     */
+    protected IDeviceManagement createDeviceManagement() {
+	final SearchResults<IDeviceCommand> results = new SearchResults<IDeviceCommand>(commands);
+	return (IDeviceManagement) Proxy.newProxyInstance(getClass().getClassLoader(),
+		new Class<?>[] { IDeviceManagement.class }, (proxy, method, args) -> {
+		    switch (method.getName()) {
+		    case "getDeviceType":
+			return deviceType;
+		    case "listDeviceCommands":
+			return results;
+		    default:
+			throw new UnsupportedOperationException(method.getName());
+		    }
+		});
+    }
+
+    /**
+     * Nesting context for a device that is not nested.
+     * 
+     * @author Derek
+     */
+    private static class NotNestedContext implements IDeviceNestingContext {
+
+	@Override
+	public IDevice getGateway() {
+	    return null;
+	}
+
+	@Override
+	public IDevice getNested() {
+	    return null;
+	}
+
+	@Override
+	public String getPath() {
+	    return null;
+	}
+    }
+}
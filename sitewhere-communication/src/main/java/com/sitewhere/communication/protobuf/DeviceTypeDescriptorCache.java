@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.communication.protobuf;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.protobuf.Descriptors;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.IDeviceManagement;
+import com.sitewhere.spi.device.IDeviceType;
+import com.sitewhere.spi.device.command.IDeviceCommand;
+
+/**
+ * Caches the dynamic protobuf descriptors generated for device type commands
+ * so that encoding a command does not rebuild identical schema objects for
+ * every invocation. Entries are keyed by device type token and hold the
+ * version of the command set they were built from. After the revalidation
+ * interval passes, the command list is reloaded and the descriptor is only
+ * rebuilt if the command set version has changed.
+ * 
+ * Instances are intended to be held by a tenant engine component so that each
+ * tenant has its own cache.
+ * 
+ * @author Derek
+ */
+public class DeviceTypeDescriptorCache {
+
+    /** Default interval after which command set version is checked */
+    public static final long DEFAULT_REVALIDATE_INTERVAL_MS = 60 * 1000;
+
+    /** Default maximum number of cached device types */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /** Cached entries indexed by device type token */
+    private Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    /** Interval after which command set version is checked */
+    private long revalidateIntervalMs = DEFAULT_REVALIDATE_INTERVAL_MS;
+
+    /** Maximum number of cached device types */
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    /** Number of cache hits */
+    private AtomicLong hits = new AtomicLong();
+
+    /** Number of cache misses */
+    private AtomicLong misses = new AtomicLong();
+
+    /** Number of descriptors rebuilt due to command changes */
+    private AtomicLong rebuilds = new AtomicLong();
+
+    public DeviceTypeDescriptorCache() {
+    }
+
+    public DeviceTypeDescriptorCache(long revalidateIntervalMs, int maxEntries) {
+	this.revalidateIntervalMs = revalidateIntervalMs;
+	this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get descriptor for the message generated for a device type, building it if
+     * not cached or if the command set has changed.
+     * 
+     * @param deviceType
+     * @param deviceManagement
+     * @return
+     * @throws SiteWhereException
+     */
+    public Descriptors.Descriptor getDeviceTypeDescriptor(IDeviceType deviceType,
+	    IDeviceManagement deviceManagement) throws SiteWhereException {
+	long now = System.currentTimeMillis();
+	Entry entry = entries.get(deviceType.getToken());
+	if ((entry != null) && ((now - entry.getValidated()) < getRevalidateIntervalMs())) {
+	    hits.incrementAndGet();
+	    return entry.getDescriptor();
+	}
+
+	// Load command set and compare version with cached entry.
+	List<IDeviceCommand> commands = ProtobufSpecificationBuilder.listDeviceTypeCommands(deviceType,
+		deviceManagement);
+	long version = computeCommandSetVersion(commands);
+	if ((entry != null) && (entry.getVersion() == version)) {
+	    hits.incrementAndGet();
+	    entry.setValidated(now);
+	    return entry.getDescriptor();
+	}
+
+	if (entry == null) {
+	    misses.incrementAndGet();
+	} else {
+	    rebuilds.incrementAndGet();
+	}
+	Descriptors.Descriptor descriptor = ProtobufMessageBuilder.buildDeviceTypeDescriptor(deviceType, commands);
+	if ((entry == null) && (entries.size() >= getMaxEntries())) {
+	    evictOldest();
+	}
+	entries.put(deviceType.getToken(), new Entry(version, descriptor, now));
+	return descriptor;
+    }
+
+    /**
+     * Invalidate the cached descriptor for a device type. Should be called when
+     * commands for the device type are known to have changed.
+     * 
+     * @param deviceTypeToken
+     */
+    public void invalidate(String deviceTypeToken) {
+	entries.remove(deviceTypeToken);
+    }
+
+    /**
+     * Invalidate all cached descriptors.
+     */
+    public void invalidateAll() {
+	entries.clear();
+    }
+
+    /**
+     * Compute a version for a command set. Changes when commands are added,
+     * removed or updated.
+     * 
+     * @param commands
+     * @return
+     */
+    public static long computeCommandSetVersion(List<IDeviceCommand> commands) {
+	long version = commands.size();
+	for (IDeviceCommand command : commands) {
+	    version = 31 * version + ((command.getId() != null) ? command.getId().hashCode() : 0);
+	    version = 31 * version + ((command.getName() != null) ? command.getName().hashCode() : 0);
+	    if (command.getUpdatedDate() != null) {
+		version = 31 * version + command.getUpdatedDate().getTime();
+	    } else if (command.getCreatedDate() != null) {
+		version = 31 * version + command.getCreatedDate().getTime();
+	    }
+	}
+	return version;
+    }
+
+    /**
+     * Evict the entry that was validated least recently.
+     */
+    protected void evictOldest() {
+	String oldest = null;
+	long oldestTime = Long.MAX_VALUE;
+	for (Map.Entry<String, Entry> current : entries.entrySet()) {
+	    if (current.getValue().getValidated() < oldestTime) {
+		oldest = current.getKey();
+		oldestTime = current.getValue().getValidated();
+	    }
+	}
+	if (oldest != null) {
+	    entries.remove(oldest);
+	}
+    }
+
+    public int getSize() {
+	return entries.size();
+    }
+
+    public long getHits() {
+	return hits.get();
+    }
+
+    public long getMisses() {
+	return misses.get();
+    }
+
+    public long getRebuilds() {
+	return rebuilds.get();
+    }
+
+    public long getRevalidateIntervalMs() {
+	return revalidateIntervalMs;
+    }
+
+    public void setRevalidateIntervalMs(long revalidateIntervalMs) {
+	this.revalidateIntervalMs = revalidateIntervalMs;
+    }
+
+    public int getMaxEntries() {
+	return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+	this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Cached descriptor along with the command set version it was built from.
+     * 
+     * @author Derek
+     */
+    private static class Entry {
+
+	/** Command set version */
+	private long version;
+
+	/** Device type message descriptor */
+	private Descriptors.Descriptor descriptor;
+
+	/** Time command set version was last checked */
+	private volatile long validated;
+
+	public Entry(long version, Descriptors.Descriptor descriptor, long validated) {
+	    this.version = version;
+	    this.descriptor = descriptor;
+	    this.validated = validated;
+	}
+
+	public long getVersion() {
+	    return version;
+	}
+
+	public Descriptors.Descriptor getDescriptor() {
+	    return descriptor;
+	}
+
+	public long getValidated() {
+	    return validated;
+	}
+
+	public void setValidated(long validated) {
+	    this.validated = validated;
+	}
+    }
+}
@@ -9,6 +9,7 @@ package com.sitewhere.communication.protobuf;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,8 +22,8 @@ import com.sitewhere.spi.device.IDeviceAssignment;
 import com.sitewhere.spi.device.IDeviceManagement;
 import com.sitewhere.spi.device.IDeviceNestingContext;
 import com.sitewhere.spi.device.IDeviceType;
+import com.sitewhere.spi.device.command.IDeviceCommand;
 import com.sitewhere.spi.device.command.IDeviceCommandExecution;
-import com.sitewhere.spi.tenant.ITenant;
 
 /**
  * Produces an encoded message based on Google Protocol Buffer derived from an
@@ -37,27 +38,66 @@ public class ProtobufMessageBuilder {
 
     /**
      * Create a protobuf message for an {@link IDeviceCommandExecution} targeted at
-     * the
+     * the given assignment. If a descriptor cache is passed, the descriptor for the
+     * device type commands is reused rather than regenerated.
      * 
      * @param execution
      * @param nested
      * @param assignment
-     * @param tenant
+     * @param deviceManagement
+     * @param cache
      * @return
      * @throws SiteWhereException
      */
     public static byte[] createMessage(IDeviceCommandExecution execution, IDeviceNestingContext nested,
-	    IDeviceAssignment assignment, ITenant tenant) throws SiteWhereException {
-	IDeviceType deviceType = getDeviceManagement(tenant).getDeviceType(execution.getCommand().getDeviceTypeId());
-	DescriptorProtos.FileDescriptorProto fdproto = getFileDescriptor(deviceType, tenant);
-	LOGGER.debug("Using the following device type proto:\n" + fdproto.toString());
-	Descriptors.FileDescriptor[] fdescs = new Descriptors.FileDescriptor[0];
-	ByteArrayOutputStream out = new ByteArrayOutputStream();
+	    IDeviceAssignment assignment, IDeviceManagement deviceManagement, DeviceTypeDescriptorCache cache)
+	    throws SiteWhereException {
+	IDeviceType deviceType = deviceManagement.getDeviceType(execution.getCommand().getDeviceTypeId());
+	Descriptors.Descriptor mdesc = (cache != null) ? cache.getDeviceTypeDescriptor(deviceType, deviceManagement)
+		: buildDeviceTypeDescriptor(deviceType,
+			ProtobufSpecificationBuilder.listDeviceTypeCommands(deviceType, deviceManagement));
+	return createMessage(execution, nested, mdesc, deviceManagement);
+    }
+
+    /**
+     * Build the descriptor for the message generated for a device type.
+     * 
+     * @param deviceType
+     * @param commands
+     * @return
+     * @throws SiteWhereException
+     */
+    public static Descriptors.Descriptor buildDeviceTypeDescriptor(IDeviceType deviceType,
+	    List<IDeviceCommand> commands) throws SiteWhereException {
+	DescriptorProtos.FileDescriptorProto fdproto = ProtobufSpecificationBuilder.createFileDescriptor(deviceType,
+		commands);
+	if (LOGGER.isDebugEnabled()) {
+	    LOGGER.debug("Using the following device type proto:\n" + fdproto.toString());
+	}
 	try {
-	    Descriptors.FileDescriptor filedesc = Descriptors.FileDescriptor.buildFrom(fdproto, fdescs);
-	    Descriptors.Descriptor mdesc = filedesc
-		    .findMessageTypeByName(ProtobufNaming.getDeviceTypeIdentifier(deviceType));
+	    Descriptors.FileDescriptor filedesc = Descriptors.FileDescriptor.buildFrom(fdproto,
+		    new Descriptors.FileDescriptor[0]);
+	    return filedesc.findMessageTypeByName(ProtobufNaming.getDeviceTypeIdentifier(deviceType));
+	} catch (Descriptors.DescriptorValidationException e) {
+	    throw new SiteWhereException("Unable to create protobuf message.", e);
+	}
+    }
 
+    /**
+     * Create a protobuf message for an {@link IDeviceCommandExecution} using a
+     * prebuilt device type descriptor.
+     * 
+     * @param execution
+     * @param nested
+     * @param mdesc
+     * @param deviceManagement
+     * @return
+     * @throws SiteWhereException
+     */
+    public static byte[] createMessage(IDeviceCommandExecution execution, IDeviceNestingContext nested,
+	    Descriptors.Descriptor mdesc, IDeviceManagement deviceManagement) throws SiteWhereException {
+	ByteArrayOutputStream out = new ByteArrayOutputStream();
+	try {
 	    // Create the header message.
 	    Descriptors.Descriptor header = mdesc.findNestedTypeByName(ProtobufNaming.HEADER_MSG_NAME);
 	    DynamicMessage.Builder headBuilder = DynamicMessage.newBuilder(header);
@@ -71,11 +111,10 @@ public class ProtobufMessageBuilder {
 	    }
 	    headBuilder.setField(header.findFieldByName(ProtobufNaming.HEADER_COMMAND_FIELD_NAME), enumValue);
 	    headBuilder.setField(header.findFieldByName(ProtobufNaming.HEADER_ORIGINATOR_FIELD_NAME),
-		    execution.getInvocation().getId());
+		    execution.getInvocation().getId().toString());
 
 	    if (nested.getNested() != null) {
-		IDeviceType nestedType = getDeviceManagement(tenant)
-			.getDeviceType(nested.getNested().getDeviceTypeId());
+		IDeviceType nestedType = deviceManagement.getDeviceType(nested.getNested().getDeviceTypeId());
 		LOGGER.debug(
 			"Targeting nested device with type: " + nestedType.getName() + " at path " + nested.getPath());
 		headBuilder.setField(header.findFieldByName(ProtobufNaming.HEADER_NESTED_PATH_FIELD_NAME),
@@ -85,7 +124,9 @@ public class ProtobufMessageBuilder {
 	    }
 
 	    DynamicMessage hmessage = headBuilder.build();
-	    LOGGER.debug("Header:\n" + hmessage.toString());
+	    if (LOGGER.isDebugEnabled()) {
+		LOGGER.debug("Header:\n" + hmessage.toString());
+	    }
 	    hmessage.writeDelimitedTo(out);
 
 	    // Find nested type for command and create/populate an instance.
@@ -108,31 +149,14 @@ public class ProtobufMessageBuilder {
 		}
 	    }
 	    DynamicMessage cmessage = cbuilder.build();
-	    LOGGER.debug("Message:\n" + cmessage.toString());
+	    if (LOGGER.isDebugEnabled()) {
+		LOGGER.debug("Message:\n" + cmessage.toString());
+	    }
 	    cmessage.writeDelimitedTo(out);
 
 	    return out.toByteArray();
-	} catch (Descriptors.DescriptorValidationException e) {
-	    throw new SiteWhereException("Unable to create protobuf message.", e);
 	} catch (IOException e) {
 	    throw new SiteWhereException("Unable to encode protobuf message.", e);
 	}
     }
-
-    /**
-     * Gets a file descriptor for protobuf representation of {@link IDeviceType}.
-     * 
-     * @param deviceType
-     * @param tenant
-     * @return
-     * @throws SiteWhereException
-     */
-    protected static DescriptorProtos.FileDescriptorProto getFileDescriptor(IDeviceType deviceType, ITenant tenant)
-	    throws SiteWhereException {
-	return ProtobufSpecificationBuilder.createFileDescriptor(deviceType, tenant);
-    }
-
-    private static IDeviceManagement getDeviceManagement(ITenant tenant) {
-	return null;
-    }
-}
\ No newline at end of file
+}
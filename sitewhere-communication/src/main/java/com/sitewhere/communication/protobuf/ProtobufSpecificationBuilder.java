@@ -20,7 +20,6 @@ import com.sitewhere.spi.device.command.ICommandParameter;
 import com.sitewhere.spi.device.command.IDeviceCommand;
 import com.sitewhere.spi.device.command.ParameterType;
 import com.sitewhere.spi.search.ISearchResults;
-import com.sitewhere.spi.tenant.ITenant;
 
 /**
  * Builds Google Protocol Buffer data structures that allow commands for a
@@ -34,38 +33,64 @@ public class ProtobufSpecificationBuilder {
      * Creates a {@link FileDescriptorProto} based on an {@link IDeviceType}.
      * 
      * @param deviceType
-     * @param tenant
+     * @param deviceManagement
      * @return
      * @throws SiteWhereException
      */
-    public static DescriptorProtos.FileDescriptorProto createFileDescriptor(IDeviceType deviceType, ITenant tenant)
-	    throws SiteWhereException {
+    public static DescriptorProtos.FileDescriptorProto createFileDescriptor(IDeviceType deviceType,
+	    IDeviceManagement deviceManagement) throws SiteWhereException {
+	return createFileDescriptor(deviceType, listDeviceTypeCommands(deviceType, deviceManagement));
+    }
+
+    /**
+     * Creates a {@link FileDescriptorProto} based on an {@link IDeviceType} and
+     * its list of commands.
+     * 
+     * @param deviceType
+     * @param commands
+     * @return
+     * @throws SiteWhereException
+     */
+    public static DescriptorProtos.FileDescriptorProto createFileDescriptor(IDeviceType deviceType,
+	    List<IDeviceCommand> commands) throws SiteWhereException {
 	DescriptorProtos.FileDescriptorProto.Builder builder = DescriptorProtos.FileDescriptorProto.newBuilder();
-	builder.addMessageType(createDeviceTypeMessage(deviceType, tenant));
+	builder.addMessageType(createDeviceTypeMessage(deviceType, commands));
 	return builder.build();
     }
 
     /**
-     * Create the message for a device type.
+     * List all commands for a device type.
      * 
-     * @param specification
-     * @param tenant
+     * @param deviceType
+     * @param deviceManagement
      * @return
      * @throws SiteWhereException
      */
-    public static DescriptorProtos.DescriptorProto createDeviceTypeMessage(IDeviceType deviceType, ITenant tenant)
-	    throws SiteWhereException {
+    public static List<IDeviceCommand> listDeviceTypeCommands(IDeviceType deviceType,
+	    IDeviceManagement deviceManagement) throws SiteWhereException {
 	DeviceCommandSearchCriteria criteria = new DeviceCommandSearchCriteria(1, 0);
 	criteria.setDeviceTypeId(deviceType.getId());
-	ISearchResults<IDeviceCommand> commands = getDeviceManagement().listDeviceCommands(criteria);
+	ISearchResults<IDeviceCommand> commands = deviceManagement.listDeviceCommands(criteria);
+	return commands.getResults();
+    }
 
+    /**
+     * Create the message for a device type.
+     * 
+     * @param deviceType
+     * @param commands
+     * @return
+     * @throws SiteWhereException
+     */
+    public static DescriptorProtos.DescriptorProto createDeviceTypeMessage(IDeviceType deviceType,
+	    List<IDeviceCommand> commands) throws SiteWhereException {
 	DescriptorProtos.DescriptorProto.Builder builder = DescriptorProtos.DescriptorProto.newBuilder();
 	builder.setName(ProtobufNaming.getDeviceTypeIdentifier(deviceType));
-	builder.addEnumType(createCommandsEnum(commands.getResults()));
+	builder.addEnumType(createCommandsEnum(commands));
 	builder.addNestedType(createUuidMessage());
 	builder.addNestedType(createHeaderMessage());
 
-	for (IDeviceCommand command : commands.getResults()) {
+	for (IDeviceCommand command : commands) {
 	    builder.addNestedType(createCommandMessage(command)).build();
 	}
 
@@ -216,8 +241,4 @@ public class ProtobufSpecificationBuilder {
 	    throw new SiteWhereException("Unknown parameter type: " + param.name());
 	}
     }
-
-    private static IDeviceManagement getDeviceManagement() {
-	return null;
-    }
 }
\ No newline at end of file
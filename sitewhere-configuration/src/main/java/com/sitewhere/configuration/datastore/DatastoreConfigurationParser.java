@@ -207,6 +207,12 @@ public class DatastoreConfigurationParser {
 	if (autoConfigureReplication != null) {
 	    client.addPropertyValue("autoConfigureReplication", autoConfigureReplication.getValue());
 	}
+
+	// Determine if indexes with mismatched options should be rebuilt.
+	Attr rebuildMismatchedIndexes = element.getAttributeNode("rebuildMismatchedIndexes");
+	if (rebuildMismatchedIndexes != null) {
+	    client.addPropertyValue("rebuildMismatchedIndexes", rebuildMismatchedIndexes.getValue());
+	}
     }
 
     /**
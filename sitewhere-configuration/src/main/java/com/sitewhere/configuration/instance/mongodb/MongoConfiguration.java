@@ -44,6 +44,9 @@ public class MongoConfiguration {
     /** Indicates if replication should be auto-configured */
     private boolean autoConfigureReplication = true;
 
+    /** Indicates whether indexes with options that do not match are rebuilt */
+    private boolean rebuildMismatchedIndexes = false;
+
     /** Database that holds sitewhere collections */
     private String databaseName = DEFAULT_DATABASE_NAME;
 
@@ -98,6 +101,14 @@ public class MongoConfiguration {
 	this.autoConfigureReplication = autoConfigureReplication;
     }
 
+    public boolean isRebuildMismatchedIndexes() {
+	return rebuildMismatchedIndexes;
+    }
+
+    public void setRebuildMismatchedIndexes(boolean rebuildMismatchedIndexes) {
+	this.rebuildMismatchedIndexes = rebuildMismatchedIndexes;
+    }
+
     public String getDatabaseName() {
 	return databaseName;
     }
@@ -264,6 +264,11 @@ public class CommonDatastoreProvider extends ConfigurationModelProvider {
 			.description("Indicates whether replication should be configured automatically "
 				+ "when multiple hosts/ports are specified.")
 			.build()));
+	builder.attribute((new AttributeNode.Builder("Rebuild mismatched indexes", "rebuildMismatchedIndexes",
+		AttributeType.Boolean, connectivity)
+			.description("Indicates whether indexes whose options do not match those expected are "
+				+ "rebuilt at startup. Otherwise a warning is logged.")
+			.defaultValue("false").build()));
     }
 
     /**
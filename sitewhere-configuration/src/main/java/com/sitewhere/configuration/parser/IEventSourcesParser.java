@@ -48,6 +48,9 @@ public interface IEventSourcesParser {
 	/** Socket event source */
 	SocketEventSource("socket-event-source"),
 
+	/** Non-blocking socket event source */
+	NettySocketEventSource("netty-socket-event-source"),
+
 	/** Web socket event source */
 	WebSocketEventSource("web-socket-event-source");
 
@@ -89,6 +92,9 @@ public interface IEventSourcesParser {
 	/** SiteWhere JSON device request decoder */
 	JsonDeviceRequestDecoder("json-device-request-decoder"),
 
+	/** SiteWhere JSON device request decoder using streaming parser */
+	JsonStreamingDeviceRequestDecoder("json-streaming-device-request-decoder"),
+
 	/** SiteWhere JSON batch decoder */
 	JsonBatchEventDecoder("json-batch-event-decoder"),
 
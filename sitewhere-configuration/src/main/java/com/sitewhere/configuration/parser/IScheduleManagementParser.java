@@ -20,7 +20,10 @@ public interface IScheduleManagementParser {
     public static enum Elements {
 
 	/** Device management datastore */
-	DeviceManagementDatastore("device-management-datastore");
+	DeviceManagementDatastore("device-management-datastore"),
+
+	/** Schedule manager */
+	ScheduleManager("schedule-manager");
 
 	/** Event code */
 	private String localName;
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.rest.model.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.sitewhere.spi.SiteWhereSystemException;
+import com.sitewhere.spi.common.IBulkCreateResult;
+import com.sitewhere.spi.error.ErrorCode;
+import com.sitewhere.spi.error.ResourceExistsException;
+
+/**
+ * Model object for the result of creating a single entity as part of a bulk
+ * create operation.
+ * 
+ * @author Derek
+ * 
+ * @param <T>
+ */
+@JsonInclude(Include.NON_NULL)
+public class BulkCreateResult<T> implements IBulkCreateResult<T> {
+
+    /** Serial version UID */
+    private static final long serialVersionUID = -2873318805927126214L;
+
+    /** Index of request in batch */
+    private int index;
+
+    /** Entity that was created */
+    private T entity;
+
+    /** Error code if creation failed */
+    private ErrorCode errorCode;
+
+    /** Error message if creation failed */
+    private String errorMessage;
+
+    /**
+     * Create result for an entity that was created.
+     * 
+     * @param index
+     * @param entity
+     * @return
+     */
+    public static <T> BulkCreateResult<T> success(int index, T entity) {
+	BulkCreateResult<T> result = new BulkCreateResult<T>();
+	result.setIndex(index);
+	result.setEntity(entity);
+	return result;
+    }
+
+    /**
+     * Create result for an entity that could not be created.
+     * 
+     * @param index
+     * @param code
+     * @param message
+     * @return
+     */
+    public static <T> BulkCreateResult<T> failure(int index, ErrorCode code, String message) {
+	BulkCreateResult<T> result = new BulkCreateResult<T>();
+	result.setIndex(index);
+	result.setErrorCode(code);
+	result.setErrorMessage(message);
+	return result;
+    }
+
+    /**
+     * Create result for an entity that could not be created based on the
+     * exception that was thrown.
+     * 
+     * @param index
+     * @param t
+     * @return
+     */
+    public static <T> BulkCreateResult<T> failure(int index, Throwable t) {
+	ErrorCode code = ErrorCode.Error;
+	if (t instanceof SiteWhereSystemException) {
+	    code = ((SiteWhereSystemException) t).getCode();
+	} else if (t instanceof ResourceExistsException) {
+	    code = ((ResourceExistsException) t).getCode();
+	}
+	String message = (t.getMessage() != null) ? t.getMessage() : code.getMessage();
+	return failure(index, code, message);
+    }
+
+    /*
+     * @see com.sitewhere.spi.common.IBulkCreateResult#getIndex()
+     */
+    @Override
+    public int getIndex() {
+	return index;
+    }
+
+    public void setIndex(int index) {
+	this.index = index;
+    }
+
+    /*
+     * @see com.sitewhere.spi.common.IBulkCreateResult#getEntity()
+     */
+    @Override
+    public T getEntity() {
+	return entity;
+    }
+
+    public void setEntity(T entity) {
+	this.entity = entity;
+    }
+
+    /*
+     * @see com.sitewhere.spi.common.IBulkCreateResult#getErrorCode()
+     */
+    @Override
+    public ErrorCode getErrorCode() {
+	return errorCode;
+    }
+
+    public void setErrorCode(ErrorCode errorCode) {
+	this.errorCode = errorCode;
+    }
+
+    /*
+     * @see com.sitewhere.spi.common.IBulkCreateResult#getErrorMessage()
+     */
+    @Override
+    public String getErrorMessage() {
+	return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+	this.errorMessage = errorMessage;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.rest.model.search;
+
+import java.util.Date;
+
+import com.sitewhere.spi.search.IProximitySearchCriteria;
+
+/**
+ * Extends date range search criteria with a point and distance.
+ * 
+ * @author Derek
+ */
+public class ProximitySearchCriteria extends DateRangeSearchCriteria implements IProximitySearchCriteria {
+
+    /** Latitude of point */
+    private Double latitude;
+
+    /** Longitude of point */
+    private Double longitude;
+
+    /** Maximum distance from point in meters */
+    private Double maxDistance;
+
+    /** Minimum distance from point in meters */
+    private Double minDistance;
+
+    public ProximitySearchCriteria(int pageNumber, int pageSize, Date startDate, Date endDate) {
+	super(pageNumber, pageSize, startDate, endDate);
+    }
+
+    /*
+     * @see com.sitewhere.spi.search.IProximitySearchCriteria#getLatitude()
+     */
+    @Override
+    public Double getLatitude() {
+	return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+	this.latitude = latitude;
+    }
+
+    /*
+     * @see com.sitewhere.spi.search.IProximitySearchCriteria#getLongitude()
+     */
+    @Override
+    public Double getLongitude() {
+	return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+	this.longitude = longitude;
+    }
+
+    /*
+     * @see com.sitewhere.spi.search.IProximitySearchCriteria#getMaxDistance()
+     */
+    @Override
+    public Double getMaxDistance() {
+	return maxDistance;
+    }
+
+    public void setMaxDistance(Double maxDistance) {
+	this.maxDistance = maxDistance;
+    }
+
+    /*
+     * @see com.sitewhere.spi.search.IProximitySearchCriteria#getMinDistance()
+     */
+    @Override
+    public Double getMinDistance() {
+	return minDistance;
+    }
+
+    public void setMinDistance(Double minDistance) {
+	this.minDistance = minDistance;
+    }
+}
@@ -8,6 +8,7 @@
 package com.sitewhere.rest.model.search.batch;
 
 import com.sitewhere.rest.model.search.SearchCriteria;
+import com.sitewhere.spi.batch.BatchOperationStatus;
 import com.sitewhere.spi.search.batch.IBatchOperationSearchCriteria;
 
 /**
@@ -17,7 +18,23 @@ import com.sitewhere.spi.search.batch.IBatchOperationSearchCriteria;
  */
 public class BatchOperationSearchCriteria extends SearchCriteria implements IBatchOperationSearchCriteria {
 
+    /** Operation processing status */
+    private BatchOperationStatus processingStatus;
+
     public BatchOperationSearchCriteria(int pageNumber, int pageSize) {
 	super(pageNumber, pageSize);
     }
+
+    /*
+     * @see com.sitewhere.spi.search.batch.IBatchOperationSearchCriteria#
+     * getProcessingStatus()
+     */
+    @Override
+    public BatchOperationStatus getProcessingStatus() {
+	return processingStatus;
+    }
+
+    public void setProcessingStatus(BatchOperationStatus processingStatus) {
+	this.processingStatus = processingStatus;
+    }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@
  */
 package com.sitewhere.spi.asset;
 
+import java.util.List;
 import java.util.UUID;
 
 import com.sitewhere.spi.SiteWhereException;
@@ -52,6 +53,16 @@ public interface IAssetManagement extends ITenantEngineLifecycleComponent {
      */
     public IAsset getAsset(UUID assetId) throws SiteWhereException;
 
+    /**
+     * Get assets matching a list of unique ids. Ids that do not match an asset are
+     * ignored, so the result may contain fewer entries than requested.
+     * 
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<Assets> getIAssetById(List<UUID> ids) throws SiteWhereException;
+
     /**
      * Get asset by unique token.
      * 
@@ -7,6 +7,7 @@
  */
 package com.sitewhere.spi.batch;
 
+import java.util.Map;
 import java.util.UUID;
 
 import com.sitewhere.spi.SiteWhereException;
@@ -106,6 +107,17 @@ public interface IBatchManagement extends ITenantEngineLifecycleComponent {
     public IBatchElement updateBatchElement(UUID elementId, IBatchElementUpdateRequest request)
 	    throws SiteWhereException;
 
+    /**
+     * Applies updates to multiple batch operation elements in a single call.
+     * Implementations should use bulk writes where the underlying datastore
+     * supports them.
+     * 
+     * @param requests
+     *            update requests indexed by element id
+     * @throws SiteWhereException
+     */
+    public void updateBatchElements(Map<UUID, IBatchElementUpdateRequest> requests) throws SiteWhereException;
+
     /**
      * Creates an {@link ISearchResults} that will invoke a command on multiple
      * devices.
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.spi.common;
+
+import java.io.Serializable;
+
+import com.sitewhere.spi.error.ErrorCode;
+
+/**
+ * Result of creating a single entity as part of a bulk create operation.
+ * Either the created entity or the reason it was not created is populated.
+ * 
+ * @author Derek
+ * 
+ * @param <T>
+ */
+public interface IBulkCreateResult<T> extends Serializable {
+
+    /**
+     * Get index of the request in the batch.
+     * 
+     * @return
+     */
+    public int getIndex();
+
+    /**
+     * Get entity that was created. Null if creation failed.
+     * 
+     * @return
+     */
+    public T getEntity();
+
+    /**
+     * Get error code if creation failed.
+     * 
+     * @return
+     */
+    public ErrorCode getErrorCode();
+
+    /**
+     * Get error message if creation failed.
+     * 
+     * @return
+     */
+    public String getErrorMessage();
+}
@@ -17,6 +17,7 @@ import com.sitewhere.spi.area.IZone;
 import com.sitewhere.spi.area.request.IAreaCreateRequest;
 import com.sitewhere.spi.area.request.IAreaTypeCreateRequest;
 import com.sitewhere.spi.area.request.IZoneCreateRequest;
+import com.sitewhere.spi.common.IBulkCreateResult;
 import com.sitewhere.spi.customer.ICustomer;
 import com.sitewhere.spi.customer.ICustomerType;
 import com.sitewhere.spi.customer.request.ICustomerCreateRequest;
@@ -72,6 +73,16 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     public IDeviceType getDeviceType(UUID id) throws SiteWhereException;
 
+    /**
+     * Get device types matching a list of unique ids. Ids that do not match a device type are
+     * ignored, so the result may contain fewer entries than requested.
+     * 
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<DeviceTypes> getIDeviceTypeById(List<UUID> ids) throws SiteWhereException;
+
     /**
      * Get a device type by unique token.
      * 
@@ -235,6 +246,18 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     public IDevice createDevice(IDeviceCreateRequest device) throws SiteWhereException;
 
+    /**
+     * Create a batch of devices. Referenced entities are resolved once for the
+     * whole batch and a failure to create one device does not prevent the others
+     * from being created.
+     * 
+     * @param requests
+     * @return result for each request in the order they were passed
+     * @throws SiteWhereException
+     */
+    public List<IBulkCreateResult<IDevice>> createDevices(List<IDeviceCreateRequest> requests)
+	    throws SiteWhereException;
+
     /**
      * Get device by unique id.
      * 
@@ -244,6 +267,16 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     public IDevice getDevice(UUID deviceId) throws SiteWhereException;
 
+    /**
+     * Get devices matching a list of unique ids. Ids that do not match a device are
+     * ignored, so the result may contain fewer entries than requested.
+     * 
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<Devices> getIDeviceById(List<UUID> ids) throws SiteWhereException;
+
     /**
      * Gets a device by reference token.
      * 
@@ -310,6 +343,18 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     public IDeviceAssignment createDeviceAssignment(IDeviceAssignmentCreateRequest request) throws SiteWhereException;
 
+    /**
+     * Create a batch of device assignments. Referenced entities are resolved once
+     * for the whole batch and a failure to create one assignment does not prevent
+     * the others from being created.
+     * 
+     * @param requests
+     * @return result for each request in the order they were passed
+     * @throws SiteWhereException
+     */
+    public List<IBulkCreateResult<IDeviceAssignment>> createDeviceAssignments(
+	    List<IDeviceAssignmentCreateRequest> requests) throws SiteWhereException;
+
     /**
      * Get device assignment by unique id.
      * 
@@ -529,6 +574,16 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     public ICustomer getCustomer(UUID id) throws SiteWhereException;
 
+    /**
+     * Get customers matching a list of unique ids. Ids that do not match a customer are
+     * ignored, so the result may contain fewer entries than requested.
+     * 
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<Customers> getICustomerById(List<UUID> ids) throws SiteWhereException;
+
     /**
      * Get a customer by alias token.
      * 
@@ -547,6 +602,16 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     public List<ICustomer> getCustomerChildren(String token) throws SiteWhereException;
 
+    /**
+     * Get list of all customers nested below the given customer at any depth. The
+     * given customer is not included.
+     * 
+     * @param token
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<ICustomer> getCustomerDescendants(String token) throws SiteWhereException;
+
     /**
      * Update information for a customer.
      * 
@@ -593,6 +658,16 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     public IAreaType getAreaType(UUID id) throws SiteWhereException;
 
+    /**
+     * Get area types matching a list of unique ids. Ids that do not match an area type are
+     * ignored, so the result may contain fewer entries than requested.
+     * 
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<AreaTypes> getIAreaTypeById(List<UUID> ids) throws SiteWhereException;
+
     /**
      * Get a area type by alias token.
      * 
@@ -648,6 +723,16 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     public IArea getArea(UUID id) throws SiteWhereException;
 
+    /**
+     * Get areas matching a list of unique ids. Ids that do not match an area are
+     * ignored, so the result may contain fewer entries than requested.
+     * 
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<Areas> getIAreaById(List<UUID> ids) throws SiteWhereException;
+
     /**
      * Get a area by alias token.
      * 
@@ -666,6 +751,26 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     public List<IArea> getAreaChildren(String token) throws SiteWhereException;
 
+    /**
+     * Get list of all areas nested below the given area at any depth. The given
+     * area is not included.
+     * 
+     * @param token
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<IArea> getAreaDescendants(String token) throws SiteWhereException;
+
+    /**
+     * Rebuild the hierarchy information used to find area and customer
+     * descendants from the parent references of each entity. Used to repair
+     * the hierarchy after a move that did not complete.
+     * 
+     * @return number of areas and customers that were updated
+     * @throws SiteWhereException
+     */
+    public int rebuildHierarchyPaths() throws SiteWhereException;
+
     /**
      * Update information for an area.
      * 
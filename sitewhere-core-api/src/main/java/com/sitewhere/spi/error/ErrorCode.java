@@ -110,6 +110,9 @@ public enum ErrorCode {
     /** Invalid customer token */
     InvalidCustomerToken(4007, "Customer not found."),
 
+    /** Customer moved below itself or a descendant */
+    InvalidParentCustomer(4008, "Customer can not be moved below itself or one of its descendants."),
+
     /** Malformed device hardware id */
     MalformedHardwareId(4010,
 	    "Hardware id must consist of alphanumeric values with dashes, underscores, and no spaces."),
@@ -153,6 +156,9 @@ public enum ErrorCode {
     /** Invalid area token */
     InvalidAreaToken(4130, "Area not found."),
 
+    /** Area moved below itself or a descendant */
+    InvalidParentArea(4135, "Area can not be moved below itself or one of its descendants."),
+
     /** Invalid area type token */
     InvalidAreaTypeToken(4140, "Area type not found."),
 
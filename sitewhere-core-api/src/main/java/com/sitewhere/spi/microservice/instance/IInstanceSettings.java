@@ -90,4 +90,80 @@ public interface IInstanceSettings {
      * @return
      */
     public boolean isLogMetrics();
+
+    /**
+     * Get maximum number of tenant engines initialized or started concurrently.
+     * 
+     * @return
+     */
+    public int getTenantOperationsConcurrency();
+
+    /**
+     * Indicates whether tenant engines are only activated when first requested
+     * rather than when the microservice starts.
+     * 
+     * @return
+     */
+    public boolean isTenantLazyActivation();
+
+    /**
+     * Get interval in seconds between keepalive pings on GRPC connections.
+     * Servers permit pings at this interval.
+     * 
+     * @return
+     */
+    public int getGrpcKeepAliveTimeSecs();
+
+    /**
+     * Get seconds to wait for a keepalive ping to be acknowledged before the
+     * connection is considered dead.
+     * 
+     * @return
+     */
+    public int getGrpcKeepAliveTimeoutSecs();
+
+    /**
+     * Get default deadline in milliseconds for unary GRPC client calls.
+     * 
+     * @return
+     */
+    public long getGrpcClientDeadlineMs();
+
+    /**
+     * Get deadlines for specific GRPC methods as a comma-delimited list of
+     * method=milliseconds entries.
+     * 
+     * @return
+     */
+    public String getGrpcClientMethodDeadlines();
+
+    /**
+     * Get maximum number of attempts (including the first) for idempotent GRPC
+     * reads.
+     * 
+     * @return
+     */
+    public int getGrpcClientMaxAttempts();
+
+    /**
+     * Get compression used for GRPC client calls. Empty for no compression.
+     * 
+     * @return
+     */
+    public String getGrpcClientCompression();
+
+    /**
+     * Get strategy used to route GRPC calls across microservice replicas.
+     * 
+     * @return
+     */
+    public String getGrpcClientRoutingStrategy();
+
+    /**
+     * Get time in milliseconds after which a MongoDB query is recorded as a slow
+     * query.
+     * 
+     * @return
+     */
+    public long getMongoSlowQueryThresholdMs();
 }
\ No newline at end of file
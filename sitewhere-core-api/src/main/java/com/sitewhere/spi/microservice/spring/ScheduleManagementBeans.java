@@ -19,4 +19,7 @@ public class ScheduleManagementBeans {
 
     /** Bean id for schedule management in server configuration */
     public static final String BEAN_SCHEDULE_MANAGEMENT = "scheduleManagement";
+
+    /** Bean id for schedule manager in server configuration */
+    public static final String BEAN_SCHEDULE_MANAGER = "scheduleManager";
 }
\ No newline at end of file
@@ -40,16 +40,13 @@ public interface IDeviceEventSearchProvider extends ISearchProvider {
     public JsonNode executeQueryWithRawResponse(String query) throws SiteWhereException;
 
     /**
-     * Get a list of device locations near the given lat/long in the given time
-     * period.
+     * Get a page of device locations within a distance of a point in the given
+     * time period, nearest first.
      * 
-     * @param latitude
-     * @param longitude
-     * @param distance
      * @param criteria
      * @return
      * @throws SiteWhereException
      */
-    public List<IDeviceLocation> getLocationsNear(double latitude, double longitude, double distance,
-	    IDateRangeSearchCriteria criteria) throws SiteWhereException;
+    public ISearchResults<IDeviceLocation> getLocationsNear(IProximitySearchCriteria criteria)
+	    throws SiteWhereException;
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.spi.search;
+
+/**
+ * Criteria for searching for entities near a point. Results are ordered by
+ * distance from the point (nearest first), then by date (most recent first).
+ * 
+ * @author Derek
+ */
+public interface IProximitySearchCriteria extends IDateRangeSearchCriteria {
+
+    /**
+     * Get latitude of point to search from.
+     * 
+     * @return
+     */
+    public Double getLatitude();
+
+    /**
+     * Get longitude of point to search from.
+     * 
+     * @return
+     */
+    public Double getLongitude();
+
+    /**
+     * Get maximum distance from point in meters.
+     * 
+     * @return
+     */
+    public Double getMaxDistance();
+
+    /**
+     * Get minimum distance from point in meters. Passing the distance of the last
+     * result of a page allows the next page to be read without skipping over
+     * earlier results.
+     * 
+     * @return
+     */
+    public Double getMinDistance();
+}
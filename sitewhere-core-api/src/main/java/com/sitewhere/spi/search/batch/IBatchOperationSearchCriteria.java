@@ -7,6 +7,7 @@
  */
 package com.sitewhere.spi.search.batch;
 
+import com.sitewhere.spi.batch.BatchOperationStatus;
 import com.sitewhere.spi.search.ISearchCriteria;
 
 /**
@@ -15,4 +16,11 @@ import com.sitewhere.spi.search.ISearchCriteria;
  * @author Derek
  */
 public interface IBatchOperationSearchCriteria extends ISearchCriteria {
+
+    /**
+     * Gets processing status to match. Null matches all.
+     * 
+     * @return
+     */
+    public BatchOperationStatus getProcessingStatus();
 }
\ No newline at end of file
@@ -7,6 +7,7 @@
  */
 package com.sitewhere.asset;
 
+import java.util.List;
 import java.util.UUID;
 
 import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponentDecorator;
@@ -60,6 +61,14 @@ public class AssetManagementDecorator extends TenantEngineLifecycleComponentDeco
 	return getDelegate().getAsset(assetId);
     }
 
+    /*
+     * @see com.sitewhere.spi.asset.IAssetManagement#getAssetsById(java.util.List)
+     */
+    @Override
+    public List<IAsset> getAssetsById(List<UUID> ids) throws SiteWhereException {
+	return getDelegate().getAssetsById(ids);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.asset.IAssetManagement#getAssetByToken(java.lang.String)
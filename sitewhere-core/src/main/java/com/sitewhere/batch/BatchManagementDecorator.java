@@ -7,6 +7,7 @@
  */
 package com.sitewhere.batch;
 
+import java.util.Map;
 import java.util.UUID;
 
 import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponentDecorator;
@@ -117,6 +118,15 @@ public class BatchManagementDecorator extends TenantEngineLifecycleComponentDeco
 	return getDelegate().updateBatchElement(elementId, request);
     }
 
+    /*
+     * @see com.sitewhere.spi.batch.IBatchManagement#updateBatchElements(java.util.
+     * Map)
+     */
+    @Override
+    public void updateBatchElements(Map<UUID, IBatchElementUpdateRequest> requests) throws SiteWhereException {
+	getDelegate().updateBatchElements(requests);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.batch.IBatchManagement#createBatchCommandInvocation(com.
@@ -10,6 +10,8 @@ package com.sitewhere.configuration;
 import java.io.ByteArrayInputStream;
 import java.util.Map;
 
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.GenericApplicationContext;
@@ -78,4 +80,20 @@ public class ConfigurationUtils {
 	context.refresh();
 	return context;
     }
+
+    /**
+     * Parse the bean definitions in a tenant configuration without creating any
+     * beans. Used to compare an updated configuration with the one in use.
+     * 
+     * @param configuration
+     * @return
+     * @throws SiteWhereException
+     */
+    public static BeanDefinitionRegistry parseBeanDefinitions(byte[] configuration) throws SiteWhereException {
+	DefaultListableBeanFactory registry = new DefaultListableBeanFactory();
+	XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(registry);
+	reader.setValidationMode(XmlBeanDefinitionReader.VALIDATION_XSD);
+	reader.loadBeanDefinitions(new InputStreamResource(new ByteArrayInputStream(configuration)));
+	return registry;
+    }
 }
\ No newline at end of file
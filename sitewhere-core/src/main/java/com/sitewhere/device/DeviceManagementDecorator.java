@@ -18,6 +18,7 @@ import com.sitewhere.spi.area.IZone;
 import com.sitewhere.spi.area.request.IAreaCreateRequest;
 import com.sitewhere.spi.area.request.IAreaTypeCreateRequest;
 import com.sitewhere.spi.area.request.IZoneCreateRequest;
+import com.sitewhere.spi.common.IBulkCreateResult;
 import com.sitewhere.spi.customer.ICustomer;
 import com.sitewhere.spi.customer.ICustomerType;
 import com.sitewhere.spi.customer.request.ICustomerCreateRequest;
@@ -85,6 +86,15 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().getDeviceType(id);
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getDeviceTypesById(java.util.List)
+     */
+    @Override
+    public List<IDeviceType> getDeviceTypesById(List<UUID> ids) throws SiteWhereException {
+	return getDelegate().getDeviceTypesById(ids);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceTypeByToken(java.lang.
@@ -253,6 +263,15 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().createDevice(device);
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#createDevices(java.util.List)
+     */
+    @Override
+    public List<IBulkCreateResult<IDevice>> createDevices(List<IDeviceCreateRequest> requests)
+	    throws SiteWhereException {
+	return getDelegate().createDevices(requests);
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getDevice(java.util.UUID)
      */
@@ -261,6 +280,15 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().getDevice(deviceId);
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getDevicesById(java.util.List)
+     */
+    @Override
+    public List<IDevice> getDevicesById(List<UUID> ids) throws SiteWhereException {
+	return getDelegate().getDevicesById(ids);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceByToken(java.lang.String)
@@ -336,6 +364,17 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().createDeviceAssignment(request);
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#createDeviceAssignments(java.util.
+     * List)
+     */
+    @Override
+    public List<IBulkCreateResult<IDeviceAssignment>> createDeviceAssignments(
+	    List<IDeviceAssignmentCreateRequest> requests) throws SiteWhereException {
+	return getDelegate().createDeviceAssignments(requests);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceAssignment(java.util.
@@ -554,6 +593,15 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().getCustomer(id);
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getCustomersById(java.util.List)
+     */
+    @Override
+    public List<ICustomer> getCustomersById(List<UUID> ids) throws SiteWhereException {
+	return getDelegate().getCustomersById(ids);
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getCustomerByToken(java.lang.
      * String)
@@ -573,6 +621,16 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().getCustomerChildren(token);
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#getCustomerDescendants(java.lang.
+     * String)
+     */
+    @Override
+    public List<ICustomer> getCustomerDescendants(String token) throws SiteWhereException {
+	return getDelegate().getCustomerDescendants(token);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#updateCustomer(java.util.UUID,
@@ -620,6 +678,15 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().getAreaType(id);
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getAreaTypesById(java.util.List)
+     */
+    @Override
+    public List<IAreaType> getAreaTypesById(List<UUID> ids) throws SiteWhereException {
+	return getDelegate().getAreaTypesById(ids);
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getAreaTypeByToken(java.lang.
      * String)
@@ -676,6 +743,14 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().getArea(id);
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#getAreasById(java.util.List)
+     */
+    @Override
+    public List<IArea> getAreasById(List<UUID> ids) throws SiteWhereException {
+	return getDelegate().getAreasById(ids);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getAreaByToken(java.lang.String)
@@ -694,6 +769,24 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().getAreaChildren(token);
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#getAreaDescendants(java.lang.
+     * String)
+     */
+    @Override
+    public List<IArea> getAreaDescendants(String token) throws SiteWhereException {
+	return getDelegate().getAreaDescendants(token);
+    }
+
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#rebuildHierarchyPaths()
+     */
+    @Override
+    public int rebuildHierarchyPaths() throws SiteWhereException {
+	return getDelegate().rebuildHierarchyPaths();
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#updateArea(java.util.UUID,
      * com.sitewhere.spi.area.request.IAreaCreateRequest)
@@ -10,7 +10,9 @@ package com.sitewhere.device.marshaling;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -84,6 +86,84 @@ public class AreaMarshalHelper {
      * @throws SiteWhereException
      */
     public MarshaledArea convert(IArea source) throws SiteWhereException {
+	return convert(source, new MarshalingEntityCache(getDeviceManagement(), getAssetManagement()), null);
+    }
+
+    /**
+     * Convert a list of SPI objects into model objects. Entities referenced by
+     * the areas are loaded in bulk and active assignments for all areas are
+     * found with a single search before converting.
+     * 
+     * @param sources
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<MarshaledArea> convertAll(List<? extends IArea> sources) throws SiteWhereException {
+	MarshalingEntityCache cache = new MarshalingEntityCache(getDeviceManagement(), getAssetManagement());
+	List<UUID> areaTypeIds = new ArrayList<UUID>();
+	List<UUID> parentAreaIds = new ArrayList<UUID>();
+	List<UUID> areaIds = new ArrayList<UUID>();
+	for (IArea source : sources) {
+	    areaTypeIds.add(source.getAreaTypeId());
+	    parentAreaIds.add(source.getParentAreaId());
+	    areaIds.add(source.getId());
+	}
+	if (isIncludeAreaType()) {
+	    cache.loadAreaTypes(areaTypeIds);
+	}
+	if (isIncludeParentArea()) {
+	    cache.loadAreas(parentAreaIds);
+	}
+	Map<UUID, List<IDeviceAssignment>> assignmentsByArea = null;
+	if (isIncludeAssignments() && !areaIds.isEmpty()) {
+	    List<IDeviceAssignment> assignments = getActiveAssignments(areaIds);
+	    assignmentHelper.load(assignments, cache);
+	    assignmentsByArea = new HashMap<UUID, List<IDeviceAssignment>>();
+	    for (UUID areaId : areaIds) {
+		assignmentsByArea.put(areaId, new ArrayList<IDeviceAssignment>());
+	    }
+	    for (IDeviceAssignment assignment : assignments) {
+		List<IDeviceAssignment> forArea = assignmentsByArea.get(assignment.getAreaId());
+		if (forArea != null) {
+		    forArea.add(assignment);
+		}
+	    }
+	}
+	List<MarshaledArea> results = new ArrayList<MarshaledArea>();
+	for (IArea source : sources) {
+	    results.add(convert(source, cache, assignmentsByArea));
+	}
+	return results;
+    }
+
+    /**
+     * Get active assignments for a list of areas.
+     * 
+     * @param areaIds
+     * @return
+     * @throws SiteWhereException
+     */
+    protected List<IDeviceAssignment> getActiveAssignments(List<UUID> areaIds) throws SiteWhereException {
+	DeviceAssignmentSearchCriteria criteria = new DeviceAssignmentSearchCriteria(1, 0);
+	criteria.setStatus(DeviceAssignmentStatus.Active);
+	criteria.setAreaIds(areaIds);
+	ISearchResults<IDeviceAssignment> matches = getDeviceManagement().listDeviceAssignments(criteria);
+	return matches.getResults();
+    }
+
+    /**
+     * Convert the SPI into a model object, resolving references from the given
+     * cache. If assignments have not already been found for the area, they are
+     * looked up.
+     * 
+     * @param source
+     * @param cache
+     * @param assignmentsByArea
+     * @return
+     * @throws SiteWhereException
+     */
+    protected MarshaledArea convert(IArea source, MarshalingEntityCache cache,
+	    Map<UUID, List<IDeviceAssignment>> assignmentsByArea) throws SiteWhereException {
 	if (source == null) {
 	    return null;
 	}
@@ -95,24 +175,26 @@ public class AreaMarshalHelper {
 	area.setBounds(Location.copy(source.getBounds()));
 	BrandedEntity.copy(source, area);
 	if (isIncludeAreaType()) {
-	    area.setAreaType(getDeviceManagement().getAreaType(source.getAreaTypeId()));
+	    area.setAreaType(cache.getAreaType(source.getAreaTypeId()));
 	}
 	if (isIncludeParentArea()) {
 	    if (source.getParentAreaId() != null) {
-		IArea parent = getDeviceManagement().getArea(source.getParentAreaId());
+		IArea parent = cache.getArea(source.getParentAreaId());
 		area.setParentArea(parent);
 	    }
 	}
 	if (isIncludeAssignments()) {
-	    List<UUID> areaIds = new ArrayList<>();
-	    areaIds.add(area.getId());
-	    DeviceAssignmentSearchCriteria criteria = new DeviceAssignmentSearchCriteria(1, 0);
-	    criteria.setStatus(DeviceAssignmentStatus.Active);
-	    criteria.setAreaIds(areaIds);
-	    ISearchResults<IDeviceAssignment> matches = getDeviceManagement().listDeviceAssignments(criteria);
+	    List<IDeviceAssignment> matches = (assignmentsByArea != null) ? assignmentsByArea.get(area.getId())
+		    : null;
+	    if (matches == null) {
+		List<UUID> areaIds = new ArrayList<>();
+		areaIds.add(area.getId());
+		matches = getActiveAssignments(areaIds);
+		assignmentHelper.load(matches, cache);
+	    }
 	    List<DeviceAssignment> assignments = new ArrayList<DeviceAssignment>();
-	    for (IDeviceAssignment match : matches.getResults()) {
-		assignments.add(assignmentHelper.convert(match, getAssetManagement()));
+	    for (IDeviceAssignment match : matches) {
+		assignments.add(assignmentHelper.convert(match, cache));
 	    }
 	    area.setDeviceAssignments(assignments);
 	}
@@ -7,6 +7,10 @@
  */
 package com.sitewhere.device.marshaling;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,6 +70,80 @@ public class DeviceAssignmentMarshalHelper {
      */
     public MarshaledDeviceAssignment convert(IDeviceAssignment source, IAssetManagement assetManagement)
 	    throws SiteWhereException {
+	return convert(source, new MarshalingEntityCache(getDeviceManagement(), assetManagement));
+    }
+
+    /**
+     * Convert a list of SPI objects into model objects. Entities referenced by
+     * the assignments are loaded in bulk before converting.
+     * 
+     * @param sources
+     * @param assetManagement
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<MarshaledDeviceAssignment> convertAll(List<? extends IDeviceAssignment> sources,
+	    IAssetManagement assetManagement) throws SiteWhereException {
+	MarshalingEntityCache cache = new MarshalingEntityCache(getDeviceManagement(), assetManagement);
+	load(sources, cache);
+	List<MarshaledDeviceAssignment> results = new ArrayList<MarshaledDeviceAssignment>();
+	for (IDeviceAssignment source : sources) {
+	    results.add(convert(source, cache));
+	}
+	return results;
+    }
+
+    /**
+     * Load entities referenced by a list of assignments into the cache based on
+     * marshaling parameters.
+     * 
+     * @param sources
+     * @param cache
+     * @throws SiteWhereException
+     */
+    public void load(List<? extends IDeviceAssignment> sources, MarshalingEntityCache cache)
+	    throws SiteWhereException {
+	List<UUID> assetIds = new ArrayList<UUID>();
+	List<UUID> customerIds = new ArrayList<UUID>();
+	List<UUID> areaIds = new ArrayList<UUID>();
+	List<UUID> deviceIds = new ArrayList<UUID>();
+	for (IDeviceAssignment source : sources) {
+	    assetIds.add(source.getAssetId());
+	    customerIds.add(source.getCustomerId());
+	    areaIds.add(source.getAreaId());
+	    deviceIds.add(source.getDeviceId());
+	}
+	cache.loadAssets(assetIds);
+	if (isIncludeCustomer()) {
+	    cache.loadCustomers(customerIds);
+	}
+	if (isIncludeArea()) {
+	    cache.loadAreas(areaIds);
+	}
+	if (isIncludeDevice()) {
+	    cache.loadDevices(deviceIds);
+	    List<IDevice> devices = new ArrayList<IDevice>();
+	    for (UUID deviceId : deviceIds) {
+		IDevice device = cache.getDevice(deviceId);
+		if (device != null) {
+		    devices.add(device);
+		}
+	    }
+	    getDeviceHelper().load(devices, cache);
+	}
+    }
+
+    /**
+     * Convert the SPI object into a model object, resolving references from the
+     * given cache.
+     * 
+     * @param source
+     * @param cache
+     * @return
+     * @throws SiteWhereException
+     */
+    public MarshaledDeviceAssignment convert(IDeviceAssignment source, MarshalingEntityCache cache)
+	    throws SiteWhereException {
 	MarshaledDeviceAssignment result = new MarshaledDeviceAssignment();
 	result.setActiveDate(source.getActiveDate());
 	result.setReleasedDate(source.getReleasedDate());
@@ -75,7 +153,7 @@ public class DeviceAssignmentMarshalHelper {
 	// If asset is assigned, look it up.
 	result.setAssetId(source.getAssetId());
 	if (source.getAssetId() != null) {
-	    IAsset asset = assetManagement.getAsset(source.getAssetId());
+	    IAsset asset = cache.getAsset(source.getAssetId());
 	    if (asset == null) {
 		LOGGER.warn("Device assignment has reference to non-existent asset.");
 		asset = new InvalidAsset();
@@ -90,21 +168,21 @@ public class DeviceAssignmentMarshalHelper {
 	// If customer is assigned, look it up.
 	result.setCustomerId(source.getCustomerId());
 	if ((isIncludeCustomer()) && (source.getCustomerId() != null)) {
-	    result.setCustomer(getDeviceManagement().getCustomer(source.getCustomerId()));
+	    result.setCustomer(cache.getCustomer(source.getCustomerId()));
 	}
 
 	// If area is assigned, look it up.
 	result.setAreaId(source.getAreaId());
 	if ((isIncludeArea()) && (source.getAreaId() != null)) {
-	    result.setArea(getDeviceManagement().getArea(source.getAreaId()));
+	    result.setArea(cache.getArea(source.getAreaId()));
 	}
 
 	// Add device information.
 	result.setDeviceId(source.getDeviceId());
 	if (isIncludeDevice()) {
-	    IDevice device = getDeviceManagement().getDevice(source.getDeviceId());
+	    IDevice device = cache.getDevice(source.getDeviceId());
 	    if (device != null) {
-		result.setDevice(getDeviceHelper().convert(device, assetManagement));
+		result.setDevice(getDeviceHelper().convert(device, cache));
 	    } else {
 		LOGGER.error("Assignment references invalid device id.");
 	    }
@@ -7,6 +7,11 @@
  */
 package com.sitewhere.device.marshaling;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,6 +74,57 @@ public class DeviceMarshalHelper {
      * @throws SiteWhereException
      */
     public MarshaledDevice convert(IDevice source, IAssetManagement assetManagement) throws SiteWhereException {
+	return convert(source, new MarshalingEntityCache(getDeviceManagement(), assetManagement));
+    }
+
+    /**
+     * Convert a list of SPI objects into model objects. Entities referenced by
+     * the devices are loaded in bulk before converting.
+     * 
+     * @param sources
+     * @param assetManagement
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<MarshaledDevice> convertAll(Collection<? extends IDevice> sources, IAssetManagement assetManagement)
+	    throws SiteWhereException {
+	MarshalingEntityCache cache = new MarshalingEntityCache(getDeviceManagement(), assetManagement);
+	load(sources, cache);
+	List<MarshaledDevice> results = new ArrayList<MarshaledDevice>();
+	for (IDevice source : sources) {
+	    results.add(convert(source, cache));
+	}
+	return results;
+    }
+
+    /**
+     * Load entities referenced by a list of devices into the cache based on
+     * marshaling parameters.
+     * 
+     * @param sources
+     * @param cache
+     * @throws SiteWhereException
+     */
+    public void load(Collection<? extends IDevice> sources, MarshalingEntityCache cache) throws SiteWhereException {
+	if (isIncludeDeviceType()) {
+	    List<UUID> deviceTypeIds = new ArrayList<UUID>();
+	    for (IDevice source : sources) {
+		deviceTypeIds.add(source.getDeviceTypeId());
+	    }
+	    cache.loadDeviceTypes(deviceTypeIds);
+	}
+    }
+
+    /**
+     * Convert an IDevice SPI object into a model object, resolving references
+     * from the given cache.
+     * 
+     * @param source
+     * @param cache
+     * @return
+     * @throws SiteWhereException
+     */
+    public MarshaledDevice convert(IDevice source, MarshalingEntityCache cache) throws SiteWhereException {
 	MarshaledDevice result = new MarshaledDevice();
 	result.setDeviceTypeId(source.getDeviceTypeId());
 	result.setDeviceAssignmentId(source.getDeviceAssignmentId());
@@ -81,14 +137,14 @@ public class DeviceMarshalHelper {
 	    DeviceElementMapping cnvMapping = DeviceElementMapping.copy(mapping);
 	    if (isIncludeNested()) {
 		IDevice device = getDeviceManagement().getDeviceByToken(mapping.getDeviceToken());
-		cnvMapping.setDevice(getNestedHelper().convert(device, assetManagement));
+		cnvMapping.setDevice(getNestedHelper().convert(device, cache));
 	    }
 	    result.getDeviceElementMappings().add(cnvMapping);
 	}
 
 	// Look up device type information.
 	if ((source.getDeviceTypeId() != null) && (isIncludeDeviceType())) {
-	    IDeviceType deviceType = getDeviceManagement().getDeviceType(source.getDeviceTypeId());
+	    IDeviceType deviceType = cache.getDeviceType(source.getDeviceTypeId());
 	    if (deviceType == null) {
 		throw new SiteWhereException("Device references non-existent device type.");
 	    }
@@ -103,7 +159,7 @@ public class DeviceMarshalHelper {
 		if (assignment == null) {
 		    throw new SiteWhereException("Device contains an invalid assignment reference.");
 		}
-		result.setAssignment(getAssignmentHelper().convert(assignment, assetManagement));
+		result.setAssignment(getAssignmentHelper().convert(assignment, cache));
 	    } catch (SiteWhereException e) {
 		LOGGER.warn("Device has token for non-existent assignment.");
 	    }
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.device.marshaling;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.area.IArea;
+import com.sitewhere.spi.area.IAreaType;
+import com.sitewhere.spi.asset.IAsset;
+import com.sitewhere.spi.asset.IAssetManagement;
+import com.sitewhere.spi.common.IPersistentEntity;
+import com.sitewhere.spi.customer.ICustomer;
+import com.sitewhere.spi.device.IDevice;
+import com.sitewhere.spi.device.IDeviceManagement;
+import com.sitewhere.spi.device.IDeviceType;
+
+/**
+ * Holds entities referenced by a list of results being marshaled. Marshal
+ * helpers collect the ids referenced by a whole page and load each entity type
+ * with a single call, then resolve references for individual results from the
+ * cache. Entities that were not loaded in advance are looked up individually
+ * and remembered, so each id is only requested once per cache.
+ * 
+ * @author Derek
+ */
+public class MarshalingEntityCache {
+
+    /** Device management */
+    private IDeviceManagement deviceManagement;
+
+    /** Asset management */
+    private IAssetManagement assetManagement;
+
+    /** Devices by id */
+    private Map<UUID, IDevice> devices = new HashMap<UUID, IDevice>();
+
+    /** Device types by id */
+    private Map<UUID, IDeviceType> deviceTypes = new HashMap<UUID, IDeviceType>();
+
+    /** Customers by id */
+    private Map<UUID, ICustomer> customers = new HashMap<UUID, ICustomer>();
+
+    /** Areas by id */
+    private Map<UUID, IArea> areas = new HashMap<UUID, IArea>();
+
+    /** Area types by id */
+    private Map<UUID, IAreaType> areaTypes = new HashMap<UUID, IAreaType>();
+
+    /** Assets by id */
+    private Map<UUID, IAsset> assets = new HashMap<UUID, IAsset>();
+
+    public MarshalingEntityCache(IDeviceManagement deviceManagement, IAssetManagement assetManagement) {
+	this.deviceManagement = deviceManagement;
+	this.assetManagement = assetManagement;
+    }
+
+    /**
+     * Load devices that are not already cached.
+     * 
+     * @param ids
+     * @throws SiteWhereException
+     */
+    public void loadDevices(Collection<UUID> ids) throws SiteWhereException {
+	List<UUID> missing = getMissingIds(devices, ids);
+	if (!missing.isEmpty()) {
+	    addEntities(devices, missing, getDeviceManagement().getDevicesById(missing));
+	}
+    }
+
+    /**
+     * Get a device, looking it up if not cached.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    public IDevice getDevice(UUID id) throws SiteWhereException {
+	if (!devices.containsKey(id)) {
+	    devices.put(id, getDeviceManagement().getDevice(id));
+	}
+	return devices.get(id);
+    }
+
+    /**
+     * Load device types that are not already cached.
+     * 
+     * @param ids
+     * @throws SiteWhereException
+     */
+    public void loadDeviceTypes(Collection<UUID> ids) throws SiteWhereException {
+	List<UUID> missing = getMissingIds(deviceTypes, ids);
+	if (!missing.isEmpty()) {
+	    addEntities(deviceTypes, missing, getDeviceManagement().getDeviceTypesById(missing));
+	}
+    }
+
+    /**
+     * Get a device type, looking it up if not cached.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    public IDeviceType getDeviceType(UUID id) throws SiteWhereException {
+	if (!deviceTypes.containsKey(id)) {
+	    deviceTypes.put(id, getDeviceManagement().getDeviceType(id));
+	}
+	return deviceTypes.get(id);
+    }
+
+    /**
+     * Load customers that are not already cached.
+     * 
+     * @param ids
+     * @throws SiteWhereException
+     */
+    public void loadCustomers(Collection<UUID> ids) throws SiteWhereException {
+	List<UUID> missing = getMissingIds(customers, ids);
+	if (!missing.isEmpty()) {
+	    addEntities(customers, missing, getDeviceManagement().getCustomersById(missing));
+	}
+    }
+
+    /**
+     * Get a customer, looking it up if not cached.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    public ICustomer getCustomer(UUID id) throws SiteWhereException {
+	if (!customers.containsKey(id)) {
+	    customers.put(id, getDeviceManagement().getCustomer(id));
+	}
+	return customers.get(id);
+    }
+
+    /**
+     * Load areas that are not already cached.
+     * 
+     * @param ids
+     * @throws SiteWhereException
+     */
+    public void loadAreas(Collection<UUID> ids) throws SiteWhereException {
+	List<UUID> missing = getMissingIds(areas, ids);
+	if (!missing.isEmpty()) {
+	    addEntities(areas, missing, getDeviceManagement().getAreasById(missing));
+	}
+    }
+
+    /**
+     * Get an area, looking it up if not cached.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    public IArea getArea(UUID id) throws SiteWhereException {
+	if (!areas.containsKey(id)) {
+	    areas.put(id, getDeviceManagement().getArea(id));
+	}
+	return areas.get(id);
+    }
+
+    /**
+     * Load area types that are not already cached.
+     * 
+     * @param ids
+     * @throws SiteWhereException
+     */
+    public void loadAreaTypes(Collection<UUID> ids) throws SiteWhereException {
+	List<UUID> missing = getMissingIds(areaTypes, ids);
+	if (!missing.isEmpty()) {
+	    addEntities(areaTypes, missing, getDeviceManagement().getAreaTypesById(missing));
+	}
+    }
+
+    /**
+     * Get an area type, looking it up if not cached.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    public IAreaType getAreaType(UUID id) throws SiteWhereException {
+	if (!areaTypes.containsKey(id)) {
+	    areaTypes.put(id, getDeviceManagement().getAreaType(id));
+	}
+	return areaTypes.get(id);
+    }
+
+    /**
+     * Load assets that are not already cached.
+     * 
+     * @param ids
+     * @throws SiteWhereException
+     */
+    public void loadAssets(Collection<UUID> ids) throws SiteWhereException {
+	List<UUID> missing = getMissingIds(assets, ids);
+	if (!missing.isEmpty()) {
+	    addEntities(assets, missing, getAssetManagement().getAssetsById(missing));
+	}
+    }
+
+    /**
+     * Get an asset, looking it up if not cached.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    public IAsset getAsset(UUID id) throws SiteWhereException {
+	if (!assets.containsKey(id)) {
+	    assets.put(id, getAssetManagement().getAsset(id));
+	}
+	return assets.get(id);
+    }
+
+    /**
+     * Get distinct ids that have not been looked up yet.
+     * 
+     * @param cached
+     * @param ids
+     * @return
+     */
+    protected static List<UUID> getMissingIds(Map<UUID, ?> cached, Collection<UUID> ids) {
+	List<UUID> missing = new ArrayList<UUID>();
+	for (UUID id : ids) {
+	    if ((id != null) && !cached.containsKey(id) && !missing.contains(id)) {
+		missing.add(id);
+	    }
+	}
+	return missing;
+    }
+
+    /**
+     * Add loaded entities to the cache. Requested ids that were not found are
+     * stored as null so they are not requested again.
+     * 
+     * @param cached
+     * @param requested
+     * @param found
+     */
+    protected static <T extends IPersistentEntity> void addEntities(Map<UUID, T> cached, List<UUID> requested,
+	    List<T> found) {
+	for (UUID id : requested) {
+	    cached.put(id, null);
+	}
+	if (found != null) {
+	    for (T entity : found) {
+		cached.put(entity.getId(), entity);
+	    }
+	}
+    }
+
+    public IDeviceManagement getDeviceManagement() {
+	return deviceManagement;
+    }
+
+    public IAssetManagement getAssetManagement() {
+	return assetManagement;
+    }
+}
@@ -47,6 +47,9 @@ public interface IGroovyVariables {
     /** Groovy variable used for passing a REST client */
     public static final String VAR_REST_CLIENT = "rest";
 
+    /** Groovy variable used for passing state of a polled endpoint */
+    public static final String VAR_POLLING_ENDPOINT = "endpoint";
+
     /** Groovy variable used for passing logger */
     public static final String VAR_LOGGER = "logger";
 
@@ -7,6 +7,7 @@
  */
 package com.sitewhere.grpc.client.asset;
 
+import java.util.List;
 import java.util.UUID;
 
 import com.sitewhere.grpc.client.GrpcUtils;
@@ -32,6 +33,8 @@ import com.sitewhere.grpc.service.GGetAssetTypeByIdRequest;
 import com.sitewhere.grpc.service.GGetAssetTypeByIdResponse;
 import com.sitewhere.grpc.service.GGetAssetTypeByTokenRequest;
 import com.sitewhere.grpc.service.GGetAssetTypeByTokenResponse;
+import com.sitewhere.grpc.service.GGetAssetsByIdRequest;
+import com.sitewhere.grpc.service.GGetAssetsByIdResponse;
 import com.sitewhere.grpc.service.GListAssetTypesRequest;
 import com.sitewhere.grpc.service.GListAssetTypesResponse;
 import com.sitewhere.grpc.service.GListAssetsRequest;
@@ -258,6 +261,24 @@ public class AssetManagementApiChannel extends MultitenantApiChannel<AssetManage
 	}
     }
 
+    /*
+     * @see com.sitewhere.spi.asset.IAssetManagement#getAssetsById(java.util.List)
+     */
+    @Override
+    public List<IAsset> getAssetsById(List<UUID> ids) throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, AssetManagementGrpc.getGetAssetsByIdMethod());
+	    GGetAssetsByIdRequest.Builder grequest = GGetAssetsByIdRequest.newBuilder();
+	    grequest.addAllAssetIds(CommonModelConverter.asGrpcUuids(ids));
+	    GGetAssetsByIdResponse gresponse = getGrpcChannel().getBlockingStub().getAssetsById(grequest.build());
+	    List<IAsset> response = AssetModelConverter.asApiAssets(gresponse.getAssetsList());
+	    GrpcUtils.logClientMethodResponse(AssetManagementGrpc.getGetAssetsByIdMethod(), response);
+	    return response;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(AssetManagementGrpc.getGetAssetsByIdMethod(), t);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.spi.asset.IAssetManagement#getAssetByToken(java.lang.String)
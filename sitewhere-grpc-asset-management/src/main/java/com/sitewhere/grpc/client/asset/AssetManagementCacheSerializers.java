@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.grpc.client.asset;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.sitewhere.grpc.client.cache.CacheSerializerRegistry;
+import com.sitewhere.grpc.client.cache.ProtobufStreamSerializer;
+import com.sitewhere.grpc.model.AssetModel.GAsset;
+import com.sitewhere.grpc.model.AssetModel.GAssetType;
+import com.sitewhere.grpc.model.asset.AssetModelConverter;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.asset.IAsset;
+import com.sitewhere.spi.asset.IAssetType;
+
+/**
+ * Hazelcast serializers for cached asset management entities.
+ * 
+ * @author Derek
+ */
+public class AssetManagementCacheSerializers {
+
+    /** Type id for asset type serializer */
+    public static final int ASSET_TYPE_TYPE_ID = 1101;
+
+    /** Type id for asset serializer */
+    public static final int ASSET_TYPE_ID = 1102;
+
+    /**
+     * Create registry with serializers for all cached asset management entities.
+     * 
+     * @return
+     */
+    public static CacheSerializerRegistry createRegistry() {
+	return new CacheSerializerRegistry().register(IAssetType.class, new AssetTypeSerializer())
+		.register(IAsset.class, new AssetSerializer());
+    }
+
+    /**
+     * Serializer for asset types.
+     * 
+     * @author Derek
+     */
+    public static class AssetTypeSerializer extends ProtobufStreamSerializer<IAssetType, GAssetType> {
+
+	/*
+	 * @see com.hazelcast.nio.serialization.Serializer#getTypeId()
+	 */
+	@Override
+	public int getTypeId() {
+	    return ASSET_TYPE_TYPE_ID;
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asGrpc(java.lang.
+	 * Object)
+	 */
+	@Override
+	protected GAssetType asGrpc(IAssetType api) throws SiteWhereException {
+	    return AssetModelConverter.asGrpcAssetType(api);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asApi(com.google.
+	 * protobuf.Message)
+	 */
+	@Override
+	protected IAssetType asApi(GAssetType grpc) throws SiteWhereException {
+	    return AssetModelConverter.asApiAssetType(grpc);
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#parse(byte[])
+	 */
+	@Override
+	protected GAssetType parse(byte[] data) throws InvalidProtocolBufferException {
+	    return GAssetType.parseFrom(data);
+	}
+    }
+
+    /**
+     * Serializer for assets.
+     * 
+     * @author Derek
+     */
+    public static class AssetSerializer extends ProtobufStreamSerializer<IAsset, GAsset> {
+
+	/*
+	 * @see com.hazelcast.nio.serialization.Serializer#getTypeId()
+	 */
+	@Override
+	public int getTypeId() {
+	    return ASSET_TYPE_ID;
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asGrpc(java.lang.
+	 * Object)
+	 */
+	@Override
+	protected GAsset asGrpc(IAsset api) throws SiteWhereException {
+	    return AssetModelConverter.asGrpcAsset(api);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asApi(com.google.
+	 * protobuf.Message)
+	 */
+	@Override
+	protected IAsset asApi(GAsset grpc) throws SiteWhereException {
+	    return AssetModelConverter.asApiAsset(grpc);
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#parse(byte[])
+	 */
+	@Override
+	protected GAsset parse(byte[] data) throws InvalidProtocolBufferException {
+	    return GAsset.parseFrom(data);
+	}
+    }
+}
@@ -7,6 +7,8 @@
  */
 package com.sitewhere.grpc.client.asset;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import com.sitewhere.grpc.client.cache.AssetManagementCacheProviders;
@@ -46,7 +48,8 @@ public class CachedAssetManagementApiChannel extends AssetManagementApiChannel {
 
     public CachedAssetManagementApiChannel(IApiDemux<?> demux, String host, int port) {
 	super(demux, host, port);
-	this.nearCacheManager = new NearCacheManager(MicroserviceIdentifier.AssetManagement);
+	this.nearCacheManager = new NearCacheManager(MicroserviceIdentifier.AssetManagement,
+		AssetManagementCacheSerializers.createRegistry());
 	this.assetTypeCache = new AssetManagementCacheProviders.AssetTypeByTokenCache(nearCacheManager);
 	this.assetTypeByIdCache = new AssetManagementCacheProviders.AssetTypeByIdCache(nearCacheManager);
 	this.assetCache = new AssetManagementCacheProviders.AssetByTokenCache(nearCacheManager);
@@ -110,6 +113,31 @@ public class CachedAssetManagementApiChannel extends AssetManagementApiChannel {
 	return super.getAsset(assetId);
     }
 
+    /*
+     * @see com.sitewhere.grpc.client.asset.AssetManagementApiChannel#
+     * getAssetsById(java.util.List)
+     */
+    @Override
+    public List<IAsset> getAssetsById(List<UUID> ids) throws SiteWhereException {
+	ITenant tenant = UserContextManager.getCurrentTenant(true);
+	List<IAsset> results = new ArrayList<IAsset>();
+	List<UUID> missing = new ArrayList<UUID>();
+	for (UUID id : ids) {
+	    IAsset asset = getAssetByIdCache().getCacheEntry(tenant, id);
+	    if (asset != null) {
+		CacheUtils.logCacheHit(asset);
+		results.add(asset);
+	    } else {
+		missing.add(id);
+	    }
+	}
+	if (!missing.isEmpty()) {
+	    getLogger().debug("No cached information for " + missing.size() + " assets.");
+	    results.addAll(super.getAssetsById(missing));
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.spi.asset.IAssetManagement#getAssetByToken(java.lang.String)
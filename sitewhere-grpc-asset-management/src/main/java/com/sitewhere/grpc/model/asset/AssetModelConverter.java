@@ -8,6 +8,7 @@
 package com.sitewhere.grpc.model.asset;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import com.sitewhere.grpc.model.AssetModel.GAsset;
@@ -271,6 +272,36 @@ public class AssetModelConverter {
 	return grpc.build();
     }
 
+    /**
+     * Convert list of assets from GRPC to API.
+     * 
+     * @param grpcs
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<IAsset> asApiAssets(Collection<GAsset> grpcs) throws SiteWhereException {
+	List<IAsset> apis = new ArrayList<>();
+	for (GAsset grpc : grpcs) {
+	    apis.add(AssetModelConverter.asApiAsset(grpc));
+	}
+	return apis;
+    }
+
+    /**
+     * Convert list of assets from API to GRPC.
+     * 
+     * @param apis
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<GAsset> asGrpcAssets(List<IAsset> apis) throws SiteWhereException {
+	List<GAsset> grpcs = new ArrayList<>();
+	for (IAsset api : apis) {
+	    grpcs.add(AssetModelConverter.asGrpcAsset(api));
+	}
+	return grpcs;
+    }
+
     /**
      * Convert asset search results from GRPC to API.
      * 
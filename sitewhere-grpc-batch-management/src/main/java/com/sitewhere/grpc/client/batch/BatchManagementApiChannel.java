@@ -7,6 +7,7 @@
  */
 package com.sitewhere.grpc.client.batch;
 
+import java.util.Map;
 import java.util.UUID;
 
 import com.sitewhere.grpc.client.GrpcUtils;
@@ -279,4 +280,16 @@ public class BatchManagementApiChannel extends MultitenantApiChannel<BatchManage
 	    throw GrpcUtils.handleClientMethodException(BatchManagementGrpc.getUpdateBatchOperationElementMethod(), t);
 	}
     }
+
+    /*
+     * @see com.sitewhere.spi.batch.IBatchManagement#updateBatchElements(java.util.
+     * Map)
+     */
+    @Override
+    public void updateBatchElements(Map<UUID, IBatchElementUpdateRequest> requests) throws SiteWhereException {
+	// No bulk GRPC call is defined, so send individual updates.
+	for (Map.Entry<UUID, IBatchElementUpdateRequest> entry : requests.entrySet()) {
+	    updateBatchElement(entry.getKey(), entry.getValue());
+	}
+    }
 }
\ No newline at end of file
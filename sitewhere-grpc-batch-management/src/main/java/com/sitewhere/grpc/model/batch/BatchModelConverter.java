@@ -22,6 +22,7 @@ import com.sitewhere.grpc.model.BatchModel.GBatchOperationSearchResults;
 import com.sitewhere.grpc.model.BatchModel.GBatchOperationStatus;
 import com.sitewhere.grpc.model.BatchModel.GBatchOperationUpdateRequest;
 import com.sitewhere.grpc.model.BatchModel.GElementProcessingStatus;
+import com.sitewhere.grpc.model.BatchModel.GOptionalBatchOperationStatus;
 import com.sitewhere.grpc.model.CommonModel.GOptionalString;
 import com.sitewhere.grpc.model.converter.CommonModelConverter;
 import com.sitewhere.rest.model.batch.BatchElement;
@@ -216,6 +217,10 @@ public class BatchModelConverter {
 	    throws SiteWhereException {
 	BatchOperationSearchCriteria api = new BatchOperationSearchCriteria(grpc.getPaging().getPageNumber(),
 		grpc.getPaging().getPageSize());
+	if (grpc.hasProcessingStatus()) {
+	    api.setProcessingStatus(
+		    BatchModelConverter.asApiBatchOperationStatus(grpc.getProcessingStatus().getValue()));
+	}
 	return api;
     }
 
@@ -230,6 +235,10 @@ public class BatchModelConverter {
 	    throws SiteWhereException {
 	GBatchOperationSearchCriteria.Builder grpc = GBatchOperationSearchCriteria.newBuilder();
 	grpc.setPaging(CommonModelConverter.asGrpcPaging(api));
+	if (api.getProcessingStatus() != null) {
+	    grpc.setProcessingStatus(GOptionalBatchOperationStatus.newBuilder()
+		    .setValue(BatchModelConverter.asGrpcBatchOperationStatus(api.getProcessingStatus())));
+	}
 	return grpc.build();
     }
 
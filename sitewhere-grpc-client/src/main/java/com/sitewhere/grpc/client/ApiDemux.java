@@ -58,6 +58,9 @@ public abstract class ApiDemux<T extends IApiChannel> extends TenantEngineLifecy
     /** Interval at which channels are re-verified */
     protected static final long CHANNEL_VALID_CHECK_INTERVAL_IN_MS = 5 * 1000;
 
+    /** Setting value for power-of-two-choices routing */
+    public static final String ROUTING_POWER_OF_TWO_CHOICES = "power-of-two-choices";
+
     /** Map of API channels indexed by hostname */
     private Map<String, T> apiChannels = new ConcurrentHashMap<>();
 
@@ -79,10 +82,27 @@ public abstract class ApiDemux<T extends IApiChannel> extends TenantEngineLifecy
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	executor = Executors.newSingleThreadExecutor();
+	setRoutingStrategy(
+		createRoutingStrategy(getMicroservice().getInstanceSettings().getGrpcClientRoutingStrategy()));
 	getMicroservice().getTopologyStateAggregator().addInstanceTopologyUpdatesListener(this);
 	bootstrapFromExistingTopology();
     }
 
+    /**
+     * Create routing strategy based on the configured strategy name. Uses round
+     * robin unless another strategy is chosen.
+     * 
+     * @param name
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    protected IApiDemuxRoutingStrategy<T> createRoutingStrategy(String name) {
+	if (ROUTING_POWER_OF_TWO_CHOICES.equals(name)) {
+	    return new PowerOfTwoChoicesDemuxRoutingStrategy();
+	}
+	return new RoundRobinDemuxRoutingStrategy();
+    }
+
     /**
      * Since the topology updates manager may have already captured information
      * before the listener was registered, loop through existing members and
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.grpc.client;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * GRPC interceptor that tracks calls made to a single host. Keeps a count of
+ * outstanding calls used for load-aware routing and records call latency along
+ * with a meter of calls that failed for reasons that indicate a problem with
+ * the host rather than with the request.
+ * 
+ * @author Derek
+ */
+public class ChannelMetricsClientInterceptor implements ClientInterceptor {
+
+    /** Status codes counted as host errors */
+    private static final Set<Status.Code> ERROR_CODES = EnumSet.of(Status.Code.UNAVAILABLE,
+	    Status.Code.DEADLINE_EXCEEDED, Status.Code.RESOURCE_EXHAUSTED, Status.Code.INTERNAL,
+	    Status.Code.UNKNOWN);
+
+    /** Calls started but not yet closed */
+    private AtomicInteger outstanding = new AtomicInteger();
+
+    /** Call latency */
+    private Timer latency;
+
+    /** Calls that failed with host errors */
+    private Meter errors;
+
+    public ChannelMetricsClientInterceptor(Timer latency, Meter errors) {
+	this.latency = latency;
+	this.errors = errors;
+    }
+
+    /*
+     * @see io.grpc.ClientInterceptor#interceptCall(io.grpc.MethodDescriptor,
+     * io.grpc.CallOptions, io.grpc.Channel)
+     */
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+	    CallOptions callOptions, Channel next) {
+	return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+
+	    /*
+	     * @see io.grpc.ForwardingClientCall#start(io.grpc.ClientCall.Listener,
+	     * io.grpc.Metadata)
+	     */
+	    @Override
+	    public void start(Listener<RespT> responseListener, Metadata headers) {
+		final long start = System.nanoTime();
+		getOutstanding().incrementAndGet();
+		try {
+		    super.start(new SimpleForwardingClientCallListener<RespT>(responseListener) {
+
+			/*
+			 * @see io.grpc.ForwardingClientCallListener#onClose(io.grpc.Status,
+			 * io.grpc.Metadata)
+			 */
+			@Override
+			public void onClose(Status status, Metadata trailers) {
+			    recordClose(status, System.nanoTime() - start);
+			    super.onClose(status, trailers);
+			}
+		    }, headers);
+		} catch (RuntimeException e) {
+		    recordClose(Status.fromThrowable(e), System.nanoTime() - start);
+		    throw e;
+		}
+	    }
+	};
+    }
+
+    /**
+     * Record a call that has completed.
+     * 
+     * @param status
+     * @param nanos
+     */
+    protected void recordClose(Status status, long nanos) {
+	getOutstanding().decrementAndGet();
+	getLatency().update(nanos, TimeUnit.NANOSECONDS);
+	if (ERROR_CODES.contains(status.getCode())) {
+	    getErrors().mark();
+	}
+    }
+
+    /**
+     * Get number of calls started but not yet closed.
+     * 
+     * @return
+     */
+    public int getOutstandingCount() {
+	return getOutstanding().get();
+    }
+
+    protected AtomicInteger getOutstanding() {
+	return outstanding;
+    }
+
+    public Timer getLatency() {
+	return latency;
+    }
+
+    public Meter getErrors() {
+	return errors;
+    }
+}
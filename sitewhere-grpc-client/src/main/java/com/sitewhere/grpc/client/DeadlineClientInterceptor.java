@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.grpc.client;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+
+/**
+ * GRPC interceptor that applies a deadline to calls that do not already have
+ * one. Deadlines may be configured for individual methods by name. Otherwise
+ * unary calls use the default deadline while streaming calls are left without
+ * a deadline since they may legitimately run for a long time. Also applies
+ * compression if configured.
+ * 
+ * @author Derek
+ */
+public class DeadlineClientInterceptor implements ClientInterceptor {
+
+    /** Static logger instance */
+    private static Logger LOGGER = LoggerFactory.getLogger(DeadlineClientInterceptor.class);
+
+    /** Default deadline for unary calls in milliseconds */
+    private long defaultDeadlineMs;
+
+    /** Deadlines in milliseconds indexed by method name */
+    private Map<String, Long> methodDeadlines;
+
+    /** Compression for calls (null for none) */
+    private String compression;
+
+    public DeadlineClientInterceptor(long defaultDeadlineMs, Map<String, Long> methodDeadlines, String compression) {
+	this.defaultDeadlineMs = defaultDeadlineMs;
+	this.methodDeadlines = methodDeadlines;
+	this.compression = ((compression != null) && (compression.trim().length() > 0)) ? compression.trim() : null;
+    }
+
+    /*
+     * @see io.grpc.ClientInterceptor#interceptCall(io.grpc.MethodDescriptor,
+     * io.grpc.CallOptions, io.grpc.Channel)
+     */
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+	    CallOptions callOptions, Channel next) {
+	if (callOptions.getDeadline() == null) {
+	    Long deadline = getDeadlineMs(method);
+	    if ((deadline != null) && (deadline > 0)) {
+		callOptions = callOptions.withDeadlineAfter(deadline, TimeUnit.MILLISECONDS);
+	    }
+	}
+	if ((getCompression() != null) && (callOptions.getCompressor() == null)) {
+	    callOptions = callOptions.withCompression(getCompression());
+	}
+	return next.newCall(method, callOptions);
+    }
+
+    /**
+     * Get deadline for a method. Methods may be configured by full name or by
+     * the method name without the service prefix.
+     * 
+     * @param method
+     * @return
+     */
+    protected Long getDeadlineMs(MethodDescriptor<?, ?> method) {
+	Long deadline = getMethodDeadlines().get(method.getFullMethodName());
+	if (deadline == null) {
+	    deadline = getMethodDeadlines().get(getMethodName(method));
+	}
+	if ((deadline == null) && (method.getType() == MethodType.UNARY)) {
+	    deadline = getDefaultDeadlineMs();
+	}
+	return deadline;
+    }
+
+    /**
+     * Get method name without the service prefix.
+     * 
+     * @param method
+     * @return
+     */
+    public static String getMethodName(MethodDescriptor<?, ?> method) {
+	String name = method.getFullMethodName();
+	return name.substring(name.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Parse method deadlines from a comma-delimited list of method=milliseconds
+     * entries. Invalid entries are logged and ignored.
+     * 
+     * @param value
+     * @return
+     */
+    public static Map<String, Long> parseMethodDeadlines(String value) {
+	Map<String, Long> deadlines = new HashMap<String, Long>();
+	if (value == null) {
+	    return deadlines;
+	}
+	for (String entry : value.split(",")) {
+	    if (entry.trim().length() == 0) {
+		continue;
+	    }
+	    String[] parts = entry.split("=");
+	    try {
+		if (parts.length != 2) {
+		    throw new NumberFormatException();
+		}
+		deadlines.put(parts[0].trim(), Long.parseLong(parts[1].trim()));
+	    } catch (NumberFormatException e) {
+		LOGGER.warn("Ignoring invalid GRPC method deadline '" + entry + "'.");
+	    }
+	}
+	return deadlines;
+    }
+
+    public long getDefaultDeadlineMs() {
+	return defaultDeadlineMs;
+    }
+
+    public Map<String, Long> getMethodDeadlines() {
+	return methodDeadlines;
+    }
+
+    public String getCompression() {
+	return compression;
+    }
+}
@@ -7,10 +7,14 @@
  */
 package com.sitewhere.grpc.client;
 
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.MetricRegistry;
 import com.sitewhere.grpc.client.spi.IGrpcChannel;
 import com.sitewhere.grpc.model.tracing.ClientTracingInterceptor;
 import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent;
 import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.microservice.instance.IInstanceSettings;
 import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.tracing.ITracerProvider;
 
@@ -55,6 +59,15 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
     /** Client interceptor for GRPC tracing */
     private ClientTracingInterceptor tracingInterceptor;
 
+    /** Client interceptor for retrying idempotent reads */
+    private RetryingClientInterceptor retryInterceptor;
+
+    /** Client interceptor for applying deadlines */
+    private DeadlineClientInterceptor deadlineInterceptor;
+
+    /** Client interceptor for tracking calls to host */
+    private ChannelMetricsClientInterceptor metricsInterceptor;
+
     public GrpcChannel(ITracerProvider tracerProvider, String hostname, int port) {
 	this.tracerProvider = tracerProvider;
 	this.hostname = hostname;
@@ -71,16 +84,43 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
      */
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	IInstanceSettings settings = getMicroservice().getInstanceSettings();
+	this.retryInterceptor = new RetryingClientInterceptor(settings.getGrpcClientMaxAttempts());
+	this.deadlineInterceptor = new DeadlineClientInterceptor(settings.getGrpcClientDeadlineMs(),
+		DeadlineClientInterceptor.parseMethodDeadlines(settings.getGrpcClientMethodDeadlines()),
+		settings.getGrpcClientCompression());
+	MetricRegistry metrics = getMicroservice().getMetricRegistry();
+	String prefix = "grpc.client." + getHostname() + ".";
+	this.metricsInterceptor = new ChannelMetricsClientInterceptor(metrics.timer(prefix + "latency"),
+		metrics.meter(prefix + "errors"));
+
 	ManagedChannelBuilder<?> builder = ManagedChannelBuilder.forAddress(getHostname(), getPort()).usePlaintext()
-		.intercept(getJwtInterceptor());
-	if (isUseTracingInterceptor()) {
-	    builder.intercept(getTracingInterceptor());
-	}
+		.keepAliveTime(settings.getGrpcKeepAliveTimeSecs(), TimeUnit.SECONDS)
+		.keepAliveTimeout(settings.getGrpcKeepAliveTimeoutSecs(), TimeUnit.SECONDS).keepAliveWithoutCalls(true);
+
+	// Interceptors added last are invoked first.
+	builder.intercept(getRetryInterceptor());
+	addInterceptors(builder);
+	builder.intercept(getDeadlineInterceptor()).intercept(getMetricsInterceptor());
 	this.channel = builder.build();
 	this.blockingStub = createBlockingStub();
 	this.asyncStub = createAsyncStub();
     }
 
+    /**
+     * Add interceptors that decorate each call with credentials and tracing.
+     * These run before retries so that attempts started from other threads reuse
+     * the headers captured from the calling thread.
+     * 
+     * @param builder
+     */
+    protected void addInterceptors(ManagedChannelBuilder<?> builder) {
+	builder.intercept(getJwtInterceptor());
+	if (isUseTracingInterceptor()) {
+	    builder.intercept(getTracingInterceptor());
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.server.lifecycle.LifecycleComponent#stop(com.sitewhere.spi.
@@ -105,6 +145,14 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
 	this.channel = channel;
     }
 
+    /*
+     * @see com.sitewhere.grpc.client.spi.IGrpcChannel#getOutstandingCount()
+     */
+    @Override
+    public int getOutstandingCount() {
+	return (getMetricsInterceptor() != null) ? getMetricsInterceptor().getOutstandingCount() : 0;
+    }
+
     /*
      * @see com.sitewhere.grpc.model.spi.IGrpcChannel#getBlockingStub()
      */
@@ -165,6 +213,18 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
 	this.tracingInterceptor = tracingInterceptor;
     }
 
+    public RetryingClientInterceptor getRetryInterceptor() {
+	return retryInterceptor;
+    }
+
+    public DeadlineClientInterceptor getDeadlineInterceptor() {
+	return deadlineInterceptor;
+    }
+
+    public ChannelMetricsClientInterceptor getMetricsInterceptor() {
+	return metricsInterceptor;
+    }
+
     public ITracerProvider getTracerProvider() {
 	return tracerProvider;
     }
@@ -12,8 +12,6 @@ import com.sitewhere.grpc.service.GCheckTenantEngineAvailableRequest;
 import com.sitewhere.grpc.service.GCheckTenantEngineAvailableResponse;
 import com.sitewhere.grpc.service.MultitenantManagementGrpc;
 import com.sitewhere.grpc.service.MultitenantManagementGrpc.MultitenantManagementBlockingStub;
-import com.sitewhere.spi.SiteWhereException;
-import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.tracing.ITracerProvider;
 
 import io.grpc.ManagedChannelBuilder;
@@ -37,22 +35,13 @@ public abstract class MultitenantGrpcChannel<B, A> extends GrpcChannel<B, A> imp
     }
 
     /*
-     * (non-Javadoc)
-     * 
      * @see
-     * com.sitewhere.server.lifecycle.LifecycleComponent#start(com.sitewhere.spi
-     * .server.lifecycle.ILifecycleProgressMonitor)
+     * com.sitewhere.grpc.client.GrpcChannel#addInterceptors(io.grpc.ManagedChannelBuilder)
      */
     @Override
-    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
-	ManagedChannelBuilder<?> builder = ManagedChannelBuilder.forAddress(getHostname(), getPort()).usePlaintext()
-		.intercept(getTenantTokenInterceptor()).intercept(getJwtInterceptor());
-	if (isUseTracingInterceptor()) {
-	    builder.intercept(getTracingInterceptor());
-	}
-	this.channel = builder.build();
-	this.blockingStub = createBlockingStub();
-	this.asyncStub = createAsyncStub();
+    protected void addInterceptors(ManagedChannelBuilder<?> builder) {
+	builder.intercept(getTenantTokenInterceptor());
+	super.addInterceptors(builder);
     }
 
     /*
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.grpc.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.sitewhere.grpc.client.spi.IApiDemuxRoutingStrategy;
+
+/**
+ * Routes to API channels by picking two channels at random and using the one
+ * with fewer outstanding calls. A slow host accumulates outstanding calls and
+ * receives less traffic, while sampling only two channels avoids every client
+ * choosing the same least loaded host at once.
+ * 
+ * @author Derek
+ */
+@SuppressWarnings("rawtypes")
+public class PowerOfTwoChoicesDemuxRoutingStrategy<T extends ApiChannel> implements IApiDemuxRoutingStrategy<T> {
+
+    /*
+     * @see
+     * com.sitewhere.grpc.client.spi.IApiDemuxRoutingStrategy#chooseApiChannel(java.
+     * util.Map)
+     */
+    @Override
+    public T chooseApiChannel(Map<String, T> apiChannels) {
+	List<T> channels = new ArrayList<>(apiChannels.values());
+	if (channels.size() == 0) {
+	    throw new ApiChannelNotAvailableException();
+	}
+	if (channels.size() == 1) {
+	    return channels.get(0);
+	}
+	ThreadLocalRandom random = ThreadLocalRandom.current();
+	int first = random.nextInt(channels.size());
+	int second = random.nextInt(channels.size() - 1);
+	if (second >= first) {
+	    second++;
+	}
+	T a = channels.get(first);
+	T b = channels.get(second);
+	return (getOutstandingCount(b) < getOutstandingCount(a)) ? b : a;
+    }
+
+    /**
+     * Get number of outstanding calls for an API channel.
+     * 
+     * @param channel
+     * @return
+     */
+    protected int getOutstandingCount(T channel) {
+	GrpcChannel<?, ?> grpc = channel.getGrpcChannel();
+	return (grpc != null) ? grpc.getOutstandingCount() : Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.grpc.client;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.Context;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Status;
+
+/**
+ * GRPC interceptor that transparently retries idempotent reads. Unary methods
+ * whose names start with one of the read prefixes are retried with exponential
+ * backoff when a call fails with a status that indicates the request was not
+ * handled. All attempts share the deadline of the original call.
+ * 
+ * Retries are started from a timer thread within the GRPC {@link Context} of
+ * the caller, so context values and cancellation carry over to every attempt.
+ * This interceptor must be added before interceptors that read other
+ * thread-local state such as the security context. Headers added by those
+ * interceptors are copied to every attempt.
+ * 
+ * @author Derek
+ */
+public class RetryingClientInterceptor implements ClientInterceptor {
+
+    /** Prefixes for names of methods that only read data */
+    private static final String[] READ_PREFIXES = { "Get", "List", "Search", "Check" };
+
+    /** Status codes that indicate a request was not handled */
+    private static final Set<Status.Code> RETRYABLE_CODES = EnumSet.of(Status.Code.UNAVAILABLE,
+	    Status.Code.RESOURCE_EXHAUSTED);
+
+    /** Backoff before the first retry */
+    private static final long INITIAL_BACKOFF_MS = 100;
+
+    /** Maximum backoff between retries */
+    private static final long MAX_BACKOFF_MS = 2 * 1000;
+
+    /** Timer used to start retries */
+    private static final ScheduledExecutorService SCHEDULER = Executors
+	    .newSingleThreadScheduledExecutor(new RetryThreadFactory());
+
+    /** Maximum number of attempts including the first */
+    private int maxAttempts;
+
+    public RetryingClientInterceptor(int maxAttempts) {
+	this.maxAttempts = maxAttempts;
+    }
+
+    /*
+     * @see io.grpc.ClientInterceptor#interceptCall(io.grpc.MethodDescriptor,
+     * io.grpc.CallOptions, io.grpc.Channel)
+     */
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+	    CallOptions callOptions, Channel next) {
+	if ((getMaxAttempts() < 2) || !isIdempotentRead(method)) {
+	    return next.newCall(method, callOptions);
+	}
+	return new RetryingCall<ReqT, RespT>(method, callOptions, next);
+    }
+
+    /**
+     * Indicates whether a method is a unary call that only reads data.
+     * 
+     * @param method
+     * @return
+     */
+    public static boolean isIdempotentRead(MethodDescriptor<?, ?> method) {
+	if (method.getType() != MethodType.UNARY) {
+	    return false;
+	}
+	String name = DeadlineClientInterceptor.getMethodName(method);
+	for (String prefix : READ_PREFIXES) {
+	    if (name.startsWith(prefix)) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Get backoff before a retry. Uses exponential backoff with full jitter.
+     * 
+     * @param attempt
+     * @return
+     */
+    protected static long getBackoffMs(int attempt) {
+	long max = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << Math.min(attempt - 1, 16));
+	return ThreadLocalRandom.current().nextLong(max + 1);
+    }
+
+    public int getMaxAttempts() {
+	return maxAttempts;
+    }
+
+    /**
+     * Call that buffers the request and replays it on a new attempt until one
+     * of them responds. Once an attempt has received headers, a message or a
+     * status that is not retried, it is committed and its results are passed
+     * to the listener.
+     * 
+     * @author Derek
+     * 
+     * @param <ReqT>
+     * @param <RespT>
+     */
+    private class RetryingCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+	/** Method being called */
+	private MethodDescriptor<ReqT, RespT> method;
+
+	/** Options for each attempt */
+	private CallOptions callOptions;
+
+	/** Channel used to create attempts */
+	private Channel next;
+
+	/** Context of the caller that retries are run in */
+	private Context context;
+
+	/** Listener for the call */
+	private Listener<RespT> listener;
+
+	/** Headers copied to each attempt */
+	private Metadata headers;
+
+	/** Request message */
+	private ReqT message;
+
+	/** Number of response messages requested */
+	private int requested;
+
+	/** Attempt that is in flight */
+	private Attempt current;
+
+	/** Number of attempts started */
+	private int started;
+
+	/** Attempt whose results are passed to the listener */
+	private volatile Attempt committed;
+
+	/** Indicates call was cancelled by the caller */
+	private volatile boolean cancelled;
+
+	/** Pending retry */
+	private ScheduledFuture<?> pending;
+
+	public RetryingCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+	    this.method = method;
+	    this.callOptions = callOptions;
+	    this.next = next;
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#start(io.grpc.ClientCall.Listener,
+	 * io.grpc.Metadata)
+	 */
+	@Override
+	public void start(Listener<RespT> listener, Metadata headers) {
+	    this.listener = listener;
+	    this.headers = headers;
+	    this.context = Context.current();
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#request(int)
+	 */
+	@Override
+	public void request(int numMessages) {
+	    Attempt attempt;
+	    synchronized (this) {
+		requested += numMessages;
+		attempt = committed;
+	    }
+	    if ((attempt != null) && (attempt.getCall() != null)) {
+		attempt.getCall().request(numMessages);
+	    }
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#sendMessage(java.lang.Object)
+	 */
+	@Override
+	public void sendMessage(ReqT message) {
+	    this.message = message;
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#halfClose()
+	 */
+	@Override
+	public void halfClose() {
+	    startAttempt();
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#cancel(java.lang.String, java.lang.Throwable)
+	 */
+	@Override
+	public void cancel(String message, Throwable cause) {
+	    Attempt attempt;
+	    synchronized (this) {
+		if (cancelled) {
+		    return;
+		}
+		cancelled = true;
+		cancelPending();
+		attempt = (committed != null) ? committed : current;
+		if (attempt == null) {
+		    committed = new Attempt();
+		}
+	    }
+	    if (attempt != null) {
+		attempt.cancel(message, cause);
+	    } else if (listener != null) {
+		listener.onClose(Status.CANCELLED.withDescription(message).withCause(cause), new Metadata());
+	    }
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#isReady()
+	 */
+	@Override
+	public boolean isReady() {
+	    Attempt attempt = committed;
+	    return (attempt == null) || (attempt.getCall() == null) || attempt.getCall().isReady();
+	}
+
+	/**
+	 * Start a new attempt unless the call has completed or attempts are
+	 * exhausted.
+	 */
+	protected void startAttempt() {
+	    Attempt attempt;
+	    synchronized (this) {
+		pending = null;
+		if (cancelled || (committed != null) || (started >= getMaxAttempts())) {
+		    return;
+		}
+		started++;
+		attempt = new Attempt();
+		current = attempt;
+	    }
+	    attempt.start();
+	}
+
+	/**
+	 * Commit an attempt if no other attempt has been committed.
+	 * 
+	 * @param attempt
+	 * @return true if the attempt is the committed attempt
+	 */
+	protected synchronized boolean commit(Attempt attempt) {
+	    if (committed != null) {
+		return committed == attempt;
+	    }
+	    committed = attempt;
+	    current = null;
+	    cancelPending();
+	    return true;
+	}
+
+	/**
+	 * Handle an attempt being closed. Schedules a retry in the context of the
+	 * caller if the status allows it. Otherwise commits the attempt and passes
+	 * the status to the listener.
+	 * 
+	 * @param attempt
+	 * @param status
+	 * @param trailers
+	 */
+	protected void onAttemptClosed(Attempt attempt, Status status, Metadata trailers) {
+	    synchronized (this) {
+		if ((committed == null) && !cancelled && RETRYABLE_CODES.contains(status.getCode())
+			&& (started < getMaxAttempts()) && !context.isCancelled()) {
+		    current = null;
+		    cancelPending();
+		    pending = SCHEDULER.schedule(context.wrap(new Runnable() {
+
+			@Override
+			public void run() {
+			    startAttempt();
+			}
+		    }), getBackoffMs(started), TimeUnit.MILLISECONDS);
+		    return;
+		}
+	    }
+	    if (commit(attempt)) {
+		listener.onClose(status, trailers);
+	    }
+	}
+
+	/**
+	 * Cancel pending retry.
+	 */
+	protected void cancelPending() {
+	    if (pending != null) {
+		pending.cancel(false);
+		pending = null;
+	    }
+	}
+
+	/**
+	 * Single attempt at sending the request.
+	 * 
+	 * @author Derek
+	 */
+	private class Attempt extends ClientCall.Listener<RespT> {
+
+	    /** Underlying call */
+	    private volatile ClientCall<ReqT, RespT> call;
+
+	    /**
+	     * Start call and send the buffered request.
+	     */
+	    public void start() {
+		ClientCall<ReqT, RespT> created = next.newCall(method, callOptions);
+		int count;
+		synchronized (RetryingCall.this) {
+		    this.call = created;
+		    count = requested;
+		}
+		Metadata copy = new Metadata();
+		copy.merge(headers);
+		created.start(this, copy);
+		if (count > 0) {
+		    created.request(count);
+		}
+		created.sendMessage(message);
+		created.halfClose();
+		if (cancelled && (committed != this)) {
+		    created.cancel("Call was cancelled.", null);
+		}
+	    }
+
+	    /**
+	     * Cancel the attempt.
+	     * 
+	     * @param message
+	     * @param cause
+	     */
+	    public void cancel(String message, Throwable cause) {
+		if (call != null) {
+		    call.cancel(message, cause);
+		}
+	    }
+
+	    /*
+	     * @see io.grpc.ClientCall.Listener#onHeaders(io.grpc.Metadata)
+	     */
+	    @Override
+	    public void onHeaders(Metadata headers) {
+		if (commit(this)) {
+		    listener.onHeaders(headers);
+		}
+	    }
+
+	    /*
+	     * @see io.grpc.ClientCall.Listener#onMessage(java.lang.Object)
+	     */
+	    @Override
+	    public void onMessage(RespT message) {
+		if (commit(this)) {
+		    listener.onMessage(message);
+		}
+	    }
+
+	    /*
+	     * @see io.grpc.ClientCall.Listener#onClose(io.grpc.Status,
+	     * io.grpc.Metadata)
+	     */
+	    @Override
+	    public void onClose(Status status, Metadata trailers) {
+		onAttemptClosed(this, status, trailers);
+	    }
+
+	    /*
+	     * @see io.grpc.ClientCall.Listener#onReady()
+	     */
+	    @Override
+	    public void onReady() {
+		if (committed == this) {
+		    listener.onReady();
+		}
+	    }
+
+	    public ClientCall<ReqT, RespT> getCall() {
+		return call;
+	    }
+	}
+    }
+
+    /**
+     * Creates daemon threads for scheduling retries.
+     * 
+     * @author Derek
+     */
+    private static class RetryThreadFactory implements ThreadFactory {
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public Thread newThread(Runnable r) {
+	    Thread thread = new Thread(r, "GRPC Retry " + counter.incrementAndGet());
+	    thread.setDaemon(true);
+	    return thread;
+	}
+    }
+}
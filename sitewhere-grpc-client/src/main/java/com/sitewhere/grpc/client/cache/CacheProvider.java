@@ -7,7 +7,13 @@
  */
 package com.sitewhere.grpc.client.cache;
 
+import com.hazelcast.core.EntryEvent;
 import com.hazelcast.core.IMap;
+import com.hazelcast.core.MapEvent;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import com.sitewhere.grpc.client.spi.cache.ICacheListener;
 import com.sitewhere.grpc.client.spi.cache.ICacheProvider;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.microservice.hazelcast.IHazelcastProvider;
@@ -85,6 +91,34 @@ public abstract class CacheProvider<K, V> implements ICacheProvider<K, V> {
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.grpc.client.spi.cache.ICacheProvider#addCacheListener(com.
+     * sitewhere.spi.tenant.ITenant,
+     * com.sitewhere.grpc.client.spi.cache.ICacheListener)
+     */
+    @Override
+    public String addCacheListener(ITenant tenant, ICacheListener<K> listener) throws SiteWhereException {
+	IMap<K, V> cache = getCache(tenant);
+	if (cache == null) {
+	    return null;
+	}
+	return cache.addEntryListener(new CacheListenerAdapter<K, V>(listener), false);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.grpc.client.spi.cache.ICacheProvider#removeCacheListener(com.
+     * sitewhere.spi.tenant.ITenant, java.lang.String)
+     */
+    @Override
+    public void removeCacheListener(ITenant tenant, String registrationId) throws SiteWhereException {
+	IMap<K, V> cache = getCache(tenant);
+	if (cache != null) {
+	    cache.removeEntryListener(registrationId);
+	}
+    }
+
     /**
      * Get cache (create if not found).
      * 
@@ -145,4 +179,55 @@ public abstract class CacheProvider<K, V> implements ICacheProvider<K, V> {
     public void setHazelcastProvider(IHazelcastProvider hazelcastProvider) {
 	this.hazelcastProvider = hazelcastProvider;
     }
+
+    /**
+     * Forwards Hazelcast map events to a cache listener. Additions and evictions
+     * are not forwarded since they do not indicate that the underlying data
+     * changed.
+     * 
+     * @author Derek
+     *
+     * @param <K>
+     * @param <V>
+     */
+    private static class CacheListenerAdapter<K, V>
+	    implements EntryUpdatedListener<K, V>, EntryRemovedListener<K, V>, MapClearedListener {
+
+	/** Wrapped listener */
+	private ICacheListener<K> listener;
+
+	public CacheListenerAdapter(ICacheListener<K> listener) {
+	    this.listener = listener;
+	}
+
+	/*
+	 * @see
+	 * com.hazelcast.map.listener.EntryUpdatedListener#entryUpdated(com.hazelcast.
+	 * core.EntryEvent)
+	 */
+	@Override
+	public void entryUpdated(EntryEvent<K, V> event) {
+	    listener.entryChanged(event.getKey());
+	}
+
+	/*
+	 * @see
+	 * com.hazelcast.map.listener.EntryRemovedListener#entryRemoved(com.hazelcast.
+	 * core.EntryEvent)
+	 */
+	@Override
+	public void entryRemoved(EntryEvent<K, V> event) {
+	    listener.entryChanged(event.getKey());
+	}
+
+	/*
+	 * @see
+	 * com.hazelcast.map.listener.MapClearedListener#mapCleared(com.hazelcast.core.
+	 * MapEvent)
+	 */
+	@Override
+	public void mapCleared(MapEvent event) {
+	    listener.cacheCleared();
+	}
+    }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.grpc.client.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.nio.serialization.StreamSerializer;
+
+/**
+ * Holds the Hazelcast serializers used for entities stored in a cache. The
+ * same registry must be applied to the Hazelcast members that own the data
+ * and to the clients that connect to them with a near cache.
+ * 
+ * @author Derek
+ */
+public class CacheSerializerRegistry {
+
+    /** Serializer configurations */
+    private List<SerializerConfig> serializerConfigs = new ArrayList<SerializerConfig>();
+
+    /**
+     * Register a serializer for a type. Serializers may be registered for
+     * interfaces, in which case they apply to all implementations.
+     * 
+     * @param type
+     * @param serializer
+     * @return
+     */
+    public <T> CacheSerializerRegistry register(Class<T> type, StreamSerializer<? super T> serializer) {
+	getSerializerConfigs().add(new SerializerConfig().setTypeClass(type).setImplementation(serializer));
+	return this;
+    }
+
+    /**
+     * Add all serializers from another registry.
+     * 
+     * @param other
+     * @return
+     */
+    public CacheSerializerRegistry registerAll(CacheSerializerRegistry other) {
+	getSerializerConfigs().addAll(other.getSerializerConfigs());
+	return this;
+    }
+
+    /**
+     * Add registered serializers to a Hazelcast serialization configuration.
+     * 
+     * @param config
+     */
+    public void configure(SerializationConfig config) {
+	for (SerializerConfig serializer : getSerializerConfigs()) {
+	    config.addSerializerConfig(serializer);
+	}
+    }
+
+    public List<SerializerConfig> getSerializerConfigs() {
+	return serializerConfigs;
+    }
+}
@@ -47,6 +47,9 @@ public class NearCacheManager extends LifecycleComponent implements INearCacheMa
     /** Cache providers served by this manager */
     private ICacheProvider<?, ?>[] cacheProviders;
 
+    /** Serializers for cached entities */
+    private CacheSerializerRegistry serializerRegistry;
+
     /** Wrapped Hazelcast client instance */
     private HazelcastInstance hazelcastInstance;
 
@@ -54,7 +57,12 @@ public class NearCacheManager extends LifecycleComponent implements INearCacheMa
     private ExecutorService executor;
 
     public NearCacheManager(IFunctionIdentifier target) {
+	this(target, new CacheSerializerRegistry());
+    }
+
+    public NearCacheManager(IFunctionIdentifier target, CacheSerializerRegistry serializerRegistry) {
 	this.target = target;
+	this.serializerRegistry = serializerRegistry;
     }
 
     /*
@@ -80,6 +88,9 @@ public class NearCacheManager extends LifecycleComponent implements INearCacheMa
 	config.getNetworkConfig().setAddresses(members);
 	config.setProperty("hazelcast.logging.type", "slf4j");
 
+	// Use the same serializers as the members that own the data.
+	getSerializerRegistry().configure(config.getSerializationConfig());
+
 	// Create the default near cache configuration.
 	config.addNearCacheConfig(createNearCacheConfig());
 
@@ -176,6 +187,14 @@ public class NearCacheManager extends LifecycleComponent implements INearCacheMa
 	this.target = target;
     }
 
+    public CacheSerializerRegistry getSerializerRegistry() {
+	return serializerRegistry;
+    }
+
+    public void setSerializerRegistry(CacheSerializerRegistry serializerRegistry) {
+	this.serializerRegistry = serializerRegistry;
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.client.spi.cache.INearCacheManager#getCacheProviders()
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.grpc.client.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.HazelcastSerializationException;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import com.sitewhere.spi.SiteWhereException;
+
+/**
+ * Hazelcast serializer that stores cached entities in the same protobuf
+ * format used to return them over GRPC. This is considerably more compact and
+ * faster than the Java serialization Hazelcast uses by default. Entities that
+ * can not be converted (for instance because a field required by the GRPC
+ * model is missing) are stored with Java serialization instead so that caching
+ * never fails.
+ * 
+ * @author Derek
+ * 
+ * @param <T>
+ * @param <G>
+ */
+public abstract class ProtobufStreamSerializer<T, G extends Message> implements StreamSerializer<T> {
+
+    /** Static logger instance */
+    private static Logger LOGGER = LoggerFactory.getLogger(ProtobufStreamSerializer.class);
+
+    /** Marker for payloads stored as protobuf */
+    private static final byte FORMAT_PROTOBUF = 1;
+
+    /** Marker for payloads stored with Java serialization */
+    private static final byte FORMAT_JAVA = 2;
+
+    /**
+     * Convert API entity to GRPC message.
+     * 
+     * @param api
+     * @return
+     * @throws SiteWhereException
+     */
+    protected abstract G asGrpc(T api) throws SiteWhereException;
+
+    /**
+     * Convert GRPC message to API entity.
+     * 
+     * @param grpc
+     * @return
+     * @throws SiteWhereException
+     */
+    protected abstract T asApi(G grpc) throws SiteWhereException;
+
+    /**
+     * Parse GRPC message from its binary form.
+     * 
+     * @param data
+     * @return
+     * @throws InvalidProtocolBufferException
+     */
+    protected abstract G parse(byte[] data) throws InvalidProtocolBufferException;
+
+    /*
+     * @see com.hazelcast.nio.serialization.StreamSerializer#write(com.hazelcast.nio.
+     * ObjectDataOutput, java.lang.Object)
+     */
+    @Override
+    public void write(ObjectDataOutput out, T object) throws IOException {
+	byte[] data;
+	try {
+	    data = asGrpc(object).toByteArray();
+	} catch (SiteWhereException | RuntimeException e) {
+	    LOGGER.debug("Unable to convert " + object.getClass().getName()
+		    + " to GRPC. Using Java serialization for cache entry.", e);
+	    out.writeByte(FORMAT_JAVA);
+	    out.writeByteArray(toJavaBytes(object));
+	    return;
+	}
+	out.writeByte(FORMAT_PROTOBUF);
+	out.writeByteArray(data);
+    }
+
+    /*
+     * @see
+     * com.hazelcast.nio.serialization.StreamSerializer#read(com.hazelcast.nio.
+     * ObjectDataInput)
+     */
+    @Override
+    public T read(ObjectDataInput in) throws IOException {
+	byte format = in.readByte();
+	byte[] data = in.readByteArray();
+	switch (format) {
+	case FORMAT_PROTOBUF: {
+	    try {
+		return asApi(parse(data));
+	    } catch (SiteWhereException e) {
+		throw new HazelcastSerializationException("Unable to convert cached entity from GRPC.", e);
+	    }
+	}
+	case FORMAT_JAVA: {
+	    return fromJavaBytes(data);
+	}
+	default:
+	    throw new HazelcastSerializationException("Unknown cache entry format: " + format);
+	}
+    }
+
+    /**
+     * Serialize an entity using Java serialization.
+     * 
+     * @param object
+     * @return
+     * @throws IOException
+     */
+    protected byte[] toJavaBytes(T object) throws IOException {
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+	    out.writeObject(object);
+	}
+	return bytes.toByteArray();
+    }
+
+    /**
+     * Deserialize an entity stored with Java serialization.
+     * 
+     * @param data
+     * @return
+     * @throws IOException
+     */
+    @SuppressWarnings("unchecked")
+    protected T fromJavaBytes(byte[] data) throws IOException {
+	try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+	    return (T) in.readObject();
+	} catch (ClassNotFoundException e) {
+	    throw new HazelcastSerializationException("Unable to deserialize cached entity.", e);
+	}
+    }
+
+    /*
+     * @see com.hazelcast.nio.serialization.Serializer#destroy()
+     */
+    @Override
+    public void destroy() {
+    }
+}
@@ -29,6 +29,13 @@ public interface IGrpcChannel<B, A> extends ITenantEngineLifecycleComponent, ITr
      */
     public ManagedChannel getChannel();
 
+    /**
+     * Get number of calls started on the channel that have not completed.
+     * 
+     * @return
+     */
+    public int getOutstandingCount();
+
     /**
      * Create blocking version of stub.
      * 
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.grpc.client.spi.cache;
+
+/**
+ * Receives notifications when entries in a shared cache change so that data
+ * derived from cached values can be invalidated.
+ * 
+ * @author Derek
+ * 
+ * @param <K>
+ */
+public interface ICacheListener<K> {
+
+    /**
+     * Called when an entry is updated or removed. Additions are not reported
+     * since entries are added whenever a value is loaded into the cache.
+     * 
+     * @param key
+     */
+    public void entryChanged(K key);
+
+    /**
+     * Called when all entries are removed from the cache.
+     */
+    public void cacheCleared();
+}
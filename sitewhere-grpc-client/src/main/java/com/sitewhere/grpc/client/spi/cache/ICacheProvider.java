@@ -66,6 +66,28 @@ public interface ICacheProvider<K, V> {
      */
     public void removeCacheEntry(ITenant tenant, K key) throws SiteWhereException;
 
+    /**
+     * Add a listener that is notified when entries change. Returns an id used
+     * to remove the listener, or null if the cache is not available yet, in
+     * which case the caller should try again later.
+     * 
+     * @param tenant
+     * @param listener
+     * @return
+     * @throws SiteWhereException
+     */
+    public String addCacheListener(ITenant tenant, ICacheListener<K> listener) throws SiteWhereException;
+
+    /**
+     * Remove a listener added with
+     * {@link #addCacheListener(ITenant, ICacheListener)}.
+     * 
+     * @param tenant
+     * @param registrationId
+     * @throws SiteWhereException
+     */
+    public void removeCacheListener(ITenant tenant, String registrationId) throws SiteWhereException;
+
     /**
      * Get logger for cache.
      * 
@@ -31,6 +31,7 @@ import com.sitewhere.spi.device.event.request.IDeviceLocationCreateRequest;
 import com.sitewhere.spi.device.event.request.IDeviceMeasurementCreateRequest;
 import com.sitewhere.spi.device.event.request.IDeviceStateChangeCreateRequest;
 import com.sitewhere.spi.search.IDateRangeSearchCriteria;
+import com.sitewhere.spi.search.IProximitySearchCriteria;
 import com.sitewhere.spi.search.ISearchResults;
 
 import io.grpc.stub.StreamObserver;
@@ -120,6 +121,16 @@ public interface IDeviceEventManagementApiChannel<T extends MultitenantGrpcChann
 	    IDateRangeSearchCriteria criteria, StreamObserver<ISearchResults<IDeviceLocation>> observer)
 	    throws SiteWhereException;
 
+    /**
+     * List device location entries near a point based on criteria.
+     * 
+     * @param criteria
+     * @param observer
+     * @throws SiteWhereException
+     */
+    public void listDeviceLocationsNear(IProximitySearchCriteria criteria,
+	    StreamObserver<ISearchResults<IDeviceLocation>> observer) throws SiteWhereException;
+
     /**
      * Add alerts for a given device assignment.
      * 
@@ -7,6 +7,8 @@
  */
 package com.sitewhere.grpc.client.device;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import com.sitewhere.grpc.client.cache.CacheUtils;
@@ -60,7 +62,8 @@ public class CachedDeviceManagementApiChannel extends DeviceManagementApiChannel
 
     public CachedDeviceManagementApiChannel(IApiDemux<?> demux, String host, int port) {
 	super(demux, host, port);
-	this.nearCacheManager = new NearCacheManager(MicroserviceIdentifier.DeviceManagement);
+	this.nearCacheManager = new NearCacheManager(MicroserviceIdentifier.DeviceManagement,
+		DeviceManagementCacheSerializers.createRegistry());
 	this.areaCache = new DeviceManagementCacheProviders.AreaByTokenCache(nearCacheManager);
 	this.areaByIdCache = new DeviceManagementCacheProviders.AreaByIdCache(nearCacheManager);
 	this.deviceTypeCache = new DeviceManagementCacheProviders.DeviceTypeByTokenCache(nearCacheManager);
@@ -145,6 +148,31 @@ public class CachedDeviceManagementApiChannel extends DeviceManagementApiChannel
 	return super.getArea(id);
     }
 
+    /*
+     * @see com.sitewhere.grpc.client.device.DeviceManagementApiChannel#
+     * getAreasById(java.util.List)
+     */
+    @Override
+    public List<IArea> getAreasById(List<UUID> ids) throws SiteWhereException {
+	ITenant tenant = UserContextManager.getCurrentTenant(true);
+	List<IArea> results = new ArrayList<IArea>();
+	List<UUID> missing = new ArrayList<UUID>();
+	for (UUID id : ids) {
+	    IArea area = getAreaByIdCache().getCacheEntry(tenant, id);
+	    if (area != null) {
+		CacheUtils.logCacheHit(area);
+		results.add(area);
+	    } else {
+		missing.add(id);
+	    }
+	}
+	if (!missing.isEmpty()) {
+	    getLogger().trace("No cached information for " + missing.size() + " areas.");
+	    results.addAll(super.getAreasById(missing));
+	}
+	return results;
+    }
+
     /*
      * @see com.sitewhere.grpc.client.device.DeviceManagementApiChannel#
      * getDeviceTypeByToken(java.lang.String)
@@ -180,6 +208,31 @@ public class CachedDeviceManagementApiChannel extends DeviceManagementApiChannel
 	return super.getDeviceType(id);
     }
 
+    /*
+     * @see com.sitewhere.grpc.client.device.DeviceManagementApiChannel#
+     * getDeviceTypesById(java.util.List)
+     */
+    @Override
+    public List<IDeviceType> getDeviceTypesById(List<UUID> ids) throws SiteWhereException {
+	ITenant tenant = UserContextManager.getCurrentTenant(true);
+	List<IDeviceType> results = new ArrayList<IDeviceType>();
+	List<UUID> missing = new ArrayList<UUID>();
+	for (UUID id : ids) {
+	    IDeviceType deviceType = getDeviceTypeByIdCache().getCacheEntry(tenant, id);
+	    if (deviceType != null) {
+		CacheUtils.logCacheHit(deviceType);
+		results.add(deviceType);
+	    } else {
+		missing.add(id);
+	    }
+	}
+	if (!missing.isEmpty()) {
+	    getLogger().trace("No cached information for " + missing.size() + " device types.");
+	    results.addAll(super.getDeviceTypesById(missing));
+	}
+	return results;
+    }
+
     /*
      * @see
      * com.sitewhere.grpc.client.device.DeviceManagementApiChannel#getDeviceByToken(
@@ -216,6 +269,31 @@ public class CachedDeviceManagementApiChannel extends DeviceManagementApiChannel
 	return super.getDevice(deviceId);
     }
 
+    /*
+     * @see com.sitewhere.grpc.client.device.DeviceManagementApiChannel#
+     * getDevicesById(java.util.List)
+     */
+    @Override
+    public List<IDevice> getDevicesById(List<UUID> ids) throws SiteWhereException {
+	ITenant tenant = UserContextManager.getCurrentTenant(true);
+	List<IDevice> results = new ArrayList<IDevice>();
+	List<UUID> missing = new ArrayList<UUID>();
+	for (UUID id : ids) {
+	    IDevice device = getDeviceByIdCache().getCacheEntry(tenant, id);
+	    if (device != null) {
+		CacheUtils.logCacheHit(device);
+		results.add(device);
+	    } else {
+		missing.add(id);
+	    }
+	}
+	if (!missing.isEmpty()) {
+	    getLogger().trace("No cached information for " + missing.size() + " devices.");
+	    results.addAll(super.getDevicesById(missing));
+	}
+	return results;
+    }
+
     /*
      * @see com.sitewhere.grpc.model.client.DeviceManagementApiChannel#
      * getDeviceAssignmentByToken(java.lang.String)
@@ -290,7 +368,7 @@ public class CachedDeviceManagementApiChannel extends DeviceManagementApiChannel
 	this.deviceTypeByIdCache = deviceTypeByIdCache;
     }
 
-    protected ICacheProvider<String, IDevice> getDeviceCache() {
+    public ICacheProvider<String, IDevice> getDeviceCache() {
 	return deviceCache;
     }
 
@@ -23,6 +23,7 @@ import com.sitewhere.spi.area.IZone;
 import com.sitewhere.spi.area.request.IAreaCreateRequest;
 import com.sitewhere.spi.area.request.IAreaTypeCreateRequest;
 import com.sitewhere.spi.area.request.IZoneCreateRequest;
+import com.sitewhere.spi.common.IBulkCreateResult;
 import com.sitewhere.spi.customer.ICustomer;
 import com.sitewhere.spi.customer.ICustomerType;
 import com.sitewhere.spi.customer.request.ICustomerCreateRequest;
@@ -256,6 +257,25 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getCustomersById(java.util.List)
+     */
+    @Override
+    public List<ICustomer> getCustomersById(List<UUID> ids) throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetCustomersByIdMethod());
+	    GGetCustomersByIdRequest.Builder grequest = GGetCustomersByIdRequest.newBuilder();
+	    grequest.addAllIds(CommonModelConverter.asGrpcUuids(ids));
+	    GGetCustomersByIdResponse gresponse = getGrpcChannel().getBlockingStub().getCustomersById(grequest.build());
+	    List<ICustomer> response = DeviceModelConverter.asApiCustomers(gresponse.getCustomersList());
+	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetCustomersByIdMethod(), response);
+	    return response;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(DeviceManagementGrpc.getGetCustomersByIdMethod(), t);
+	}
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getCustomerByToken(java.lang.
      * String)
@@ -298,6 +318,27 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#getCustomerDescendants(java.lang.
+     * String)
+     */
+    @Override
+    public List<ICustomer> getCustomerDescendants(String token) throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetCustomerDescendantsMethod());
+	    GGetCustomerDescendantsRequest.Builder grequest = GGetCustomerDescendantsRequest.newBuilder();
+	    grequest.setToken(token);
+	    GGetCustomerDescendantsResponse gresponse = getGrpcChannel().getBlockingStub()
+		    .getCustomerDescendants(grequest.build());
+	    List<ICustomer> response = DeviceModelConverter.asApiCustomers(gresponse.getCustomersList());
+	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetCustomerDescendantsMethod(), response);
+	    return response;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(DeviceManagementGrpc.getGetCustomerDescendantsMethod(), t);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#updateCustomer(java.util.UUID,
@@ -400,6 +441,25 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getAreaTypesById(java.util.List)
+     */
+    @Override
+    public List<IAreaType> getAreaTypesById(List<UUID> ids) throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetAreaTypesByIdMethod());
+	    GGetAreaTypesByIdRequest.Builder grequest = GGetAreaTypesByIdRequest.newBuilder();
+	    grequest.addAllIds(CommonModelConverter.asGrpcUuids(ids));
+	    GGetAreaTypesByIdResponse gresponse = getGrpcChannel().getBlockingStub().getAreaTypesById(grequest.build());
+	    List<IAreaType> response = DeviceModelConverter.asApiAreaTypes(gresponse.getAreaTypesList());
+	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetAreaTypesByIdMethod(), response);
+	    return response;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(DeviceManagementGrpc.getGetAreaTypesByIdMethod(), t);
+	}
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getAreaTypeByToken(java.lang.
      * String)
@@ -521,6 +581,24 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#getAreasById(java.util.List)
+     */
+    @Override
+    public List<IArea> getAreasById(List<UUID> ids) throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetAreasByIdMethod());
+	    GGetAreasByIdRequest.Builder grequest = GGetAreasByIdRequest.newBuilder();
+	    grequest.addAllIds(CommonModelConverter.asGrpcUuids(ids));
+	    GGetAreasByIdResponse gresponse = getGrpcChannel().getBlockingStub().getAreasById(grequest.build());
+	    List<IArea> response = DeviceModelConverter.asApiAreas(gresponse.getAreasList());
+	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetAreasByIdMethod(), response);
+	    return response;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(DeviceManagementGrpc.getGetAreasByIdMethod(), t);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getAreaByToken(java.lang.String)
@@ -559,6 +637,45 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#getAreaDescendants(java.lang.
+     * String)
+     */
+    @Override
+    public List<IArea> getAreaDescendants(String token) throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetAreaDescendantsMethod());
+	    GGetAreaDescendantsRequest.Builder grequest = GGetAreaDescendantsRequest.newBuilder();
+	    grequest.setToken(token);
+	    GGetAreaDescendantsResponse gresponse = getGrpcChannel().getBlockingStub()
+		    .getAreaDescendants(grequest.build());
+	    List<IArea> response = DeviceModelConverter.asApiAreas(gresponse.getAreasList());
+	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetAreaDescendantsMethod(), response);
+	    return response;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(DeviceManagementGrpc.getGetAreaDescendantsMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#rebuildHierarchyPaths()
+     */
+    @Override
+    public int rebuildHierarchyPaths() throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getRebuildHierarchyPathsMethod());
+	    GRebuildHierarchyPathsRequest.Builder grequest = GRebuildHierarchyPathsRequest.newBuilder();
+	    GRebuildHierarchyPathsResponse gresponse = getGrpcChannel().getBlockingStub()
+		    .rebuildHierarchyPaths(grequest.build());
+	    int response = gresponse.getUpdated();
+	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getRebuildHierarchyPathsMethod(), response);
+	    return response;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(DeviceManagementGrpc.getRebuildHierarchyPathsMethod(), t);
+	}
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#updateArea(java.util.UUID,
      * com.sitewhere.spi.area.request.IAreaCreateRequest)
@@ -774,6 +891,25 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getDeviceTypesById(java.util.List)
+     */
+    @Override
+    public List<IDeviceType> getDeviceTypesById(List<UUID> ids) throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetDeviceTypesByIdMethod());
+	    GGetDeviceTypesByIdRequest.Builder grequest = GGetDeviceTypesByIdRequest.newBuilder();
+	    grequest.addAllIds(CommonModelConverter.asGrpcUuids(ids));
+	    GGetDeviceTypesByIdResponse gresponse = getGrpcChannel().getBlockingStub().getDeviceTypesById(grequest.build());
+	    List<IDeviceType> response = DeviceModelConverter.asApiDeviceTypes(gresponse.getDeviceTypesList());
+	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetDeviceTypesByIdMethod(), response);
+	    return response;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(DeviceManagementGrpc.getGetDeviceTypesByIdMethod(), t);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceTypeByToken(java.lang.
@@ -1158,6 +1294,26 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#createDevices(java.util.List)
+     */
+    @Override
+    public List<IBulkCreateResult<IDevice>> createDevices(List<IDeviceCreateRequest> requests)
+	    throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getCreateDevicesMethod());
+	    GCreateDevicesRequest.Builder grequest = GCreateDevicesRequest.newBuilder();
+	    grequest.addAllRequests(DeviceModelConverter.asGrpcDeviceCreateRequests(requests));
+	    GCreateDevicesResponse gresponse = getGrpcChannel().getBlockingStub().createDevices(grequest.build());
+	    List<IBulkCreateResult<IDevice>> response = DeviceModelConverter
+		    .asApiDeviceCreateResults(gresponse.getResultsList());
+	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getCreateDevicesMethod(), response);
+	    return response;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(DeviceManagementGrpc.getCreateDevicesMethod(), t);
+	}
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getDevice(java.util.UUID)
      */
@@ -1176,6 +1332,25 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see com.sitewhere.spi.device.IDeviceManagement#
+     * getDevicesById(java.util.List)
+     */
+    @Override
+    public List<IDevice> getDevicesById(List<UUID> ids) throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetDevicesByIdMethod());
+	    GGetDevicesByIdRequest.Builder grequest = GGetDevicesByIdRequest.newBuilder();
+	    grequest.addAllIds(CommonModelConverter.asGrpcUuids(ids));
+	    GGetDevicesByIdResponse gresponse = getGrpcChannel().getBlockingStub().getDevicesById(grequest.build());
+	    List<IDevice> response = DeviceModelConverter.asApiDevices(gresponse.getDevicesList());
+	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetDevicesByIdMethod(), response);
+	    return response;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(DeviceManagementGrpc.getGetDevicesByIdMethod(), t);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceByToken(java.lang.String)
@@ -1321,6 +1496,29 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.device.IDeviceManagement#createDeviceAssignments(java.util.
+     * List)
+     */
+    @Override
+    public List<IBulkCreateResult<IDeviceAssignment>> createDeviceAssignments(
+	    List<IDeviceAssignmentCreateRequest> requests) throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getCreateDeviceAssignmentsMethod());
+	    GCreateDeviceAssignmentsRequest.Builder grequest = GCreateDeviceAssignmentsRequest.newBuilder();
+	    grequest.addAllRequests(DeviceModelConverter.asGrpcDeviceAssignmentCreateRequests(requests));
+	    GCreateDeviceAssignmentsResponse gresponse = getGrpcChannel().getBlockingStub()
+		    .createDeviceAssignments(grequest.build());
+	    List<IBulkCreateResult<IDeviceAssignment>> response = DeviceModelConverter
+		    .asApiDeviceAssignmentCreateResults(gresponse.getResultsList());
+	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getCreateDeviceAssignmentsMethod(), response);
+	    return response;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(DeviceManagementGrpc.getCreateDeviceAssignmentsMethod(), t);
+	}
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceAssignment(java.util.
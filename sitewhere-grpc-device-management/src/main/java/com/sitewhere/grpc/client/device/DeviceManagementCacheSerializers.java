@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.grpc.client.device;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.sitewhere.grpc.client.cache.CacheSerializerRegistry;
+import com.sitewhere.grpc.client.cache.ProtobufStreamSerializer;
+import com.sitewhere.grpc.model.DeviceModel.GArea;
+import com.sitewhere.grpc.model.DeviceModel.GDevice;
+import com.sitewhere.grpc.model.DeviceModel.GDeviceAssignment;
+import com.sitewhere.grpc.model.DeviceModel.GDeviceType;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.area.IArea;
+import com.sitewhere.spi.device.IDevice;
+import com.sitewhere.spi.device.IDeviceAssignment;
+import com.sitewhere.spi.device.IDeviceType;
+
+/**
+ * Hazelcast serializers for cached device management entities.
+ * 
+ * @author Derek
+ */
+public class DeviceManagementCacheSerializers {
+
+    /** Type id for area serializer */
+    public static final int AREA_TYPE_ID = 1001;
+
+    /** Type id for device type serializer */
+    public static final int DEVICE_TYPE_TYPE_ID = 1002;
+
+    /** Type id for device serializer */
+    public static final int DEVICE_TYPE_ID = 1003;
+
+    /** Type id for device assignment serializer */
+    public static final int DEVICE_ASSIGNMENT_TYPE_ID = 1004;
+
+    /**
+     * Create registry with serializers for all cached device management
+     * entities.
+     * 
+     * @return
+     */
+    public static CacheSerializerRegistry createRegistry() {
+	return new CacheSerializerRegistry().register(IArea.class, new AreaSerializer())
+		.register(IDeviceType.class, new DeviceTypeSerializer()).register(IDevice.class, new DeviceSerializer())
+		.register(IDeviceAssignment.class, new DeviceAssignmentSerializer());
+    }
+
+    /**
+     * Serializer for areas.
+     * 
+     * @author Derek
+     */
+    public static class AreaSerializer extends ProtobufStreamSerializer<IArea, GArea> {
+
+	/*
+	 * @see com.hazelcast.nio.serialization.Serializer#getTypeId()
+	 */
+	@Override
+	public int getTypeId() {
+	    return AREA_TYPE_ID;
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asGrpc(java.lang.
+	 * Object)
+	 */
+	@Override
+	protected GArea asGrpc(IArea api) throws SiteWhereException {
+	    return DeviceModelConverter.asGrpcArea(api);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asApi(com.google.
+	 * protobuf.Message)
+	 */
+	@Override
+	protected IArea asApi(GArea grpc) throws SiteWhereException {
+	    return DeviceModelConverter.asApiArea(grpc);
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#parse(byte[])
+	 */
+	@Override
+	protected GArea parse(byte[] data) throws InvalidProtocolBufferException {
+	    return GArea.parseFrom(data);
+	}
+    }
+
+    /**
+     * Serializer for device types.
+     * 
+     * @author Derek
+     */
+    public static class DeviceTypeSerializer extends ProtobufStreamSerializer<IDeviceType, GDeviceType> {
+
+	/*
+	 * @see com.hazelcast.nio.serialization.Serializer#getTypeId()
+	 */
+	@Override
+	public int getTypeId() {
+	    return DEVICE_TYPE_TYPE_ID;
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asGrpc(java.lang.
+	 * Object)
+	 */
+	@Override
+	protected GDeviceType asGrpc(IDeviceType api) throws SiteWhereException {
+	    return DeviceModelConverter.asGrpcDeviceType(api);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asApi(com.google.
+	 * protobuf.Message)
+	 */
+	@Override
+	protected IDeviceType asApi(GDeviceType grpc) throws SiteWhereException {
+	    return DeviceModelConverter.asApiDeviceType(grpc);
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#parse(byte[])
+	 */
+	@Override
+	protected GDeviceType parse(byte[] data) throws InvalidProtocolBufferException {
+	    return GDeviceType.parseFrom(data);
+	}
+    }
+
+    /**
+     * Serializer for devices.
+     * 
+     * @author Derek
+     */
+    public static class DeviceSerializer extends ProtobufStreamSerializer<IDevice, GDevice> {
+
+	/*
+	 * @see com.hazelcast.nio.serialization.Serializer#getTypeId()
+	 */
+	@Override
+	public int getTypeId() {
+	    return DEVICE_TYPE_ID;
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asGrpc(java.lang.
+	 * Object)
+	 */
+	@Override
+	protected GDevice asGrpc(IDevice api) throws SiteWhereException {
+	    return DeviceModelConverter.asGrpcDevice(api);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asApi(com.google.
+	 * protobuf.Message)
+	 */
+	@Override
+	protected IDevice asApi(GDevice grpc) throws SiteWhereException {
+	    return DeviceModelConverter.asApiDevice(grpc);
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#parse(byte[])
+	 */
+	@Override
+	protected GDevice parse(byte[] data) throws InvalidProtocolBufferException {
+	    return GDevice.parseFrom(data);
+	}
+    }
+
+    /**
+     * Serializer for device assignments.
+     * 
+     * @author Derek
+     */
+    public static class DeviceAssignmentSerializer
+	    extends ProtobufStreamSerializer<IDeviceAssignment, GDeviceAssignment> {
+
+	/*
+	 * @see com.hazelcast.nio.serialization.Serializer#getTypeId()
+	 */
+	@Override
+	public int getTypeId() {
+	    return DEVICE_ASSIGNMENT_TYPE_ID;
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asGrpc(java.lang.
+	 * Object)
+	 */
+	@Override
+	protected GDeviceAssignment asGrpc(IDeviceAssignment api) throws SiteWhereException {
+	    return DeviceModelConverter.asGrpcDeviceAssignment(api);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asApi(com.google.
+	 * protobuf.Message)
+	 */
+	@Override
+	protected IDeviceAssignment asApi(GDeviceAssignment grpc) throws SiteWhereException {
+	    return DeviceModelConverter.asApiDeviceAssignment(grpc);
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#parse(byte[])
+	 */
+	@Override
+	protected GDeviceAssignment parse(byte[] data) throws InvalidProtocolBufferException {
+	    return GDeviceAssignment.parseFrom(data);
+	}
+    }
+}
@@ -42,6 +42,7 @@ import com.sitewhere.grpc.model.DeviceModel.GDeviceAlarmSearchCriteria;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceAlarmSearchResults;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceAssignment;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceAssignmentCreateRequest;
+import com.sitewhere.grpc.model.DeviceModel.GDeviceAssignmentCreateResult;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceAssignmentSearchCriteria;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceAssignmentSearchResults;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceCommand;
@@ -49,6 +50,7 @@ import com.sitewhere.grpc.model.DeviceModel.GDeviceCommandCreateRequest;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceCommandSearchCriteria;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceCommandSearchResults;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceCreateRequest;
+import com.sitewhere.grpc.model.DeviceModel.GDeviceCreateResult;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceElementMapping;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceElementSchema;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceGroup;
@@ -88,6 +90,7 @@ import com.sitewhere.rest.model.area.Zone;
 import com.sitewhere.rest.model.area.request.AreaCreateRequest;
 import com.sitewhere.rest.model.area.request.AreaTypeCreateRequest;
 import com.sitewhere.rest.model.area.request.ZoneCreateRequest;
+import com.sitewhere.rest.model.common.BulkCreateResult;
 import com.sitewhere.rest.model.customer.Customer;
 import com.sitewhere.rest.model.customer.CustomerType;
 import com.sitewhere.rest.model.customer.request.CustomerCreateRequest;
@@ -131,6 +134,7 @@ import com.sitewhere.spi.area.IZone;
 import com.sitewhere.spi.area.request.IAreaCreateRequest;
 import com.sitewhere.spi.area.request.IAreaTypeCreateRequest;
 import com.sitewhere.spi.area.request.IZoneCreateRequest;
+import com.sitewhere.spi.common.IBulkCreateResult;
 import com.sitewhere.spi.customer.ICustomer;
 import com.sitewhere.spi.customer.ICustomerType;
 import com.sitewhere.spi.customer.request.ICustomerCreateRequest;
@@ -161,6 +165,7 @@ import com.sitewhere.spi.device.request.IDeviceGroupElementCreateRequest;
 import com.sitewhere.spi.device.request.IDeviceStatusCreateRequest;
 import com.sitewhere.spi.device.request.IDeviceTypeCreateRequest;
 import com.sitewhere.spi.device.streaming.IDeviceStream;
+import com.sitewhere.spi.error.ErrorCode;
 import com.sitewhere.spi.search.ISearchCriteria;
 import com.sitewhere.spi.search.ISearchResults;
 import com.sitewhere.spi.search.area.IAreaSearchCriteria;
@@ -483,6 +488,36 @@ public class DeviceModelConverter {
 	return grpc.build();
     }
 
+    /**
+     * Convert list of device types from GRPC to API.
+     * 
+     * @param grpcs
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<IDeviceType> asApiDeviceTypes(Collection<GDeviceType> grpcs) throws SiteWhereException {
+	List<IDeviceType> apis = new ArrayList<>();
+	for (GDeviceType grpc : grpcs) {
+	    apis.add(DeviceModelConverter.asApiDeviceType(grpc));
+	}
+	return apis;
+    }
+
+    /**
+     * Convert list of device types from API to GRPC.
+     * 
+     * @param apis
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<GDeviceType> asGrpcDeviceTypes(List<IDeviceType> apis) throws SiteWhereException {
+	List<GDeviceType> grpcs = new ArrayList<>();
+	for (IDeviceType api : apis) {
+	    grpcs.add(DeviceModelConverter.asGrpcDeviceType(api));
+	}
+	return grpcs;
+    }
+
     /**
      * Convert parameter type from GRPC to API.
      * 
@@ -1106,6 +1141,116 @@ public class DeviceModelConverter {
 	return grpc.build();
     }
 
+    /**
+     * Convert list of device create requests from GRPC to API.
+     * 
+     * @param grpcs
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<IDeviceCreateRequest> asApiDeviceCreateRequests(List<GDeviceCreateRequest> grpcs)
+	    throws SiteWhereException {
+	List<IDeviceCreateRequest> apis = new ArrayList<>();
+	for (GDeviceCreateRequest grpc : grpcs) {
+	    apis.add(DeviceModelConverter.asApiDeviceCreateRequest(grpc));
+	}
+	return apis;
+    }
+
+    /**
+     * Convert list of device create requests from API to GRPC.
+     * 
+     * @param apis
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<GDeviceCreateRequest> asGrpcDeviceCreateRequests(List<IDeviceCreateRequest> apis)
+	    throws SiteWhereException {
+	List<GDeviceCreateRequest> grpcs = new ArrayList<>();
+	for (IDeviceCreateRequest api : apis) {
+	    grpcs.add(DeviceModelConverter.asGrpcDeviceCreateRequest(api));
+	}
+	return grpcs;
+    }
+
+    /**
+     * Convert list of bulk device create results from GRPC to API.
+     * 
+     * @param grpcs
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<IBulkCreateResult<IDevice>> asApiDeviceCreateResults(List<GDeviceCreateResult> grpcs)
+	    throws SiteWhereException {
+	List<IBulkCreateResult<IDevice>> apis = new ArrayList<>();
+	for (GDeviceCreateResult grpc : grpcs) {
+	    if (grpc.hasDevice()) {
+		apis.add(BulkCreateResult.success(grpc.getIndex(), DeviceModelConverter.asApiDevice(grpc.getDevice())));
+	    } else {
+		apis.add(BulkCreateResult.failure(grpc.getIndex(), ErrorCode.fromCode(grpc.getErrorCode()),
+			grpc.getErrorMessage()));
+	    }
+	}
+	return apis;
+    }
+
+    /**
+     * Convert list of bulk device create results from API to GRPC.
+     * 
+     * @param apis
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<GDeviceCreateResult> asGrpcDeviceCreateResults(List<IBulkCreateResult<IDevice>> apis)
+	    throws SiteWhereException {
+	List<GDeviceCreateResult> grpcs = new ArrayList<>();
+	for (IBulkCreateResult<IDevice> api : apis) {
+	    GDeviceCreateResult.Builder grpc = GDeviceCreateResult.newBuilder();
+	    grpc.setIndex(api.getIndex());
+	    if (api.getEntity() != null) {
+		grpc.setDevice(DeviceModelConverter.asGrpcDevice(api.getEntity()));
+	    }
+	    if (api.getErrorCode() != null) {
+		grpc.setErrorCode(api.getErrorCode().getCode());
+	    }
+	    if (api.getErrorMessage() != null) {
+		grpc.setErrorMessage(api.getErrorMessage());
+	    }
+	    grpcs.add(grpc.build());
+	}
+	return grpcs;
+    }
+
+    /**
+     * Convert list of devices from GRPC to API.
+     * 
+     * @param grpcs
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<IDevice> asApiDevices(Collection<GDevice> grpcs) throws SiteWhereException {
+	List<IDevice> apis = new ArrayList<>();
+	for (GDevice grpc : grpcs) {
+	    apis.add(DeviceModelConverter.asApiDevice(grpc));
+	}
+	return apis;
+    }
+
+    /**
+     * Convert list of devices from API to GRPC.
+     * 
+     * @param apis
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<GDevice> asGrpcDevices(List<IDevice> apis) throws SiteWhereException {
+	List<GDevice> grpcs = new ArrayList<>();
+	for (IDevice api : apis) {
+	    grpcs.add(DeviceModelConverter.asGrpcDevice(api));
+	}
+	return grpcs;
+    }
+
     /**
      * Convert device search criteria from GRPC to API.
      * 
@@ -1589,6 +1734,87 @@ public class DeviceModelConverter {
 	return grpc.build();
     }
 
+    /**
+     * Convert list of device assignment create requests from GRPC to API.
+     * 
+     * @param grpcs
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<IDeviceAssignmentCreateRequest> asApiDeviceAssignmentCreateRequests(
+	    List<GDeviceAssignmentCreateRequest> grpcs) throws SiteWhereException {
+	List<IDeviceAssignmentCreateRequest> apis = new ArrayList<>();
+	for (GDeviceAssignmentCreateRequest grpc : grpcs) {
+	    apis.add(DeviceModelConverter.asApiDeviceAssignmentCreateRequest(grpc));
+	}
+	return apis;
+    }
+
+    /**
+     * Convert list of device assignment create requests from API to GRPC.
+     * 
+     * @param apis
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<GDeviceAssignmentCreateRequest> asGrpcDeviceAssignmentCreateRequests(
+	    List<IDeviceAssignmentCreateRequest> apis) throws SiteWhereException {
+	List<GDeviceAssignmentCreateRequest> grpcs = new ArrayList<>();
+	for (IDeviceAssignmentCreateRequest api : apis) {
+	    grpcs.add(DeviceModelConverter.asGrpcDeviceAssignmentCreateRequest(api));
+	}
+	return grpcs;
+    }
+
+    /**
+     * Convert list of bulk device assignment create results from GRPC to API.
+     * 
+     * @param grpcs
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<IBulkCreateResult<IDeviceAssignment>> asApiDeviceAssignmentCreateResults(
+	    List<GDeviceAssignmentCreateResult> grpcs) throws SiteWhereException {
+	List<IBulkCreateResult<IDeviceAssignment>> apis = new ArrayList<>();
+	for (GDeviceAssignmentCreateResult grpc : grpcs) {
+	    if (grpc.hasAssignment()) {
+		apis.add(BulkCreateResult.success(grpc.getIndex(),
+			DeviceModelConverter.asApiDeviceAssignment(grpc.getAssignment())));
+	    } else {
+		apis.add(BulkCreateResult.failure(grpc.getIndex(), ErrorCode.fromCode(grpc.getErrorCode()),
+			grpc.getErrorMessage()));
+	    }
+	}
+	return apis;
+    }
+
+    /**
+     * Convert list of bulk device assignment create results from API to GRPC.
+     * 
+     * @param apis
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<GDeviceAssignmentCreateResult> asGrpcDeviceAssignmentCreateResults(
+	    List<IBulkCreateResult<IDeviceAssignment>> apis) throws SiteWhereException {
+	List<GDeviceAssignmentCreateResult> grpcs = new ArrayList<>();
+	for (IBulkCreateResult<IDeviceAssignment> api : apis) {
+	    GDeviceAssignmentCreateResult.Builder grpc = GDeviceAssignmentCreateResult.newBuilder();
+	    grpc.setIndex(api.getIndex());
+	    if (api.getEntity() != null) {
+		grpc.setAssignment(DeviceModelConverter.asGrpcDeviceAssignment(api.getEntity()));
+	    }
+	    if (api.getErrorCode() != null) {
+		grpc.setErrorCode(api.getErrorCode().getCode());
+	    }
+	    if (api.getErrorMessage() != null) {
+		grpc.setErrorMessage(api.getErrorMessage());
+	    }
+	    grpcs.add(grpc.build());
+	}
+	return grpcs;
+    }
+
     /**
      * Convert device alarm state from GRPC to API.
      * 
@@ -2344,6 +2570,36 @@ public class DeviceModelConverter {
 	return grpc.build();
     }
 
+    /**
+     * Convert list of area types from GRPC to API.
+     * 
+     * @param grpcs
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<IAreaType> asApiAreaTypes(Collection<GAreaType> grpcs) throws SiteWhereException {
+	List<IAreaType> apis = new ArrayList<>();
+	for (GAreaType grpc : grpcs) {
+	    apis.add(DeviceModelConverter.asApiAreaType(grpc));
+	}
+	return apis;
+    }
+
+    /**
+     * Convert list of area types from API to GRPC.
+     * 
+     * @param apis
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<GAreaType> asGrpcAreaTypes(List<IAreaType> apis) throws SiteWhereException {
+	List<GAreaType> grpcs = new ArrayList<>();
+	for (IAreaType api : apis) {
+	    grpcs.add(DeviceModelConverter.asGrpcAreaType(api));
+	}
+	return grpcs;
+    }
+
     /**
      * Convert area create request from GRPC to API.
      * 
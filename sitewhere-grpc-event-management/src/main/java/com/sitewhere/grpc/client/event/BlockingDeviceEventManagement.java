@@ -8,6 +8,7 @@
 package com.sitewhere.grpc.client.event;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiChannel;
@@ -31,6 +32,7 @@ import com.sitewhere.spi.device.event.request.IDeviceLocationCreateRequest;
 import com.sitewhere.spi.device.event.request.IDeviceMeasurementCreateRequest;
 import com.sitewhere.spi.device.event.request.IDeviceStateChangeCreateRequest;
 import com.sitewhere.spi.search.IDateRangeSearchCriteria;
+import com.sitewhere.spi.search.IProximitySearchCriteria;
 import com.sitewhere.spi.search.ISearchResults;
 
 /**
@@ -138,6 +140,18 @@ public class BlockingDeviceEventManagement extends TenantEngineLifecycleComponen
 	return observer.getResult();
     }
 
+    /*
+     * @see com.sitewhere.spi.device.event.IDeviceEventManagement#
+     * listDeviceLocationsNear(com.sitewhere.spi.search.IProximitySearchCriteria)
+     */
+    @Override
+    public ISearchResults<IDeviceLocation> listDeviceLocationsNear(IProximitySearchCriteria criteria)
+	    throws SiteWhereException {
+	BlockingStreamObserver<ISearchResults<IDeviceLocation>> observer = new BlockingStreamObserver<>();
+	api.listDeviceLocationsNear(criteria, observer);
+	return observer.getResult();
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.event.IDeviceEventManagement#addDeviceAlert(java.
@@ -245,6 +259,28 @@ public class BlockingDeviceEventManagement extends TenantEngineLifecycleComponen
 	return observer.getResult();
     }
 
+    /**
+     * Add state changes for multiple device assignments. All requests are sent
+     * before waiting so that the batch completes in about the time of a single
+     * call rather than one round trip per assignment.
+     * 
+     * @param requests
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<IDeviceStateChange> addDeviceStateChanges(Map<UUID, IDeviceStateChangeCreateRequest> requests)
+	    throws SiteWhereException {
+	BlockingStreamListObserver<IDeviceStateChange> observer = new BlockingStreamListObserver<>(requests.size());
+	for (Map.Entry<UUID, IDeviceStateChangeCreateRequest> request : requests.entrySet()) {
+	    try {
+		api.addDeviceStateChanges(request.getKey(), observer, request.getValue());
+	    } catch (SiteWhereException e) {
+		observer.onError(e);
+	    }
+	}
+	return observer.getResult();
+    }
+
     /*
      * @see com.sitewhere.spi.device.event.IDeviceEventManagement#
      * listDeviceStateChangesForIndex(com.sitewhere.spi.device.event.
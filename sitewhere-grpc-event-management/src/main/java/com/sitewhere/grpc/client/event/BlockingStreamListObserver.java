@@ -8,6 +8,7 @@
 package com.sitewhere.grpc.client.event;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
@@ -19,7 +20,9 @@ import com.sitewhere.spi.SiteWhereException;
 import io.grpc.stub.StreamObserver;
 
 /**
- * Blocks while waiting for a stream to return a single result or error.
+ * Blocks while waiting for one or more streams to return results or errors.
+ * When shared by several calls, results from all calls are collected and the
+ * first error is reported once every call has completed.
  * 
  * @author Derek
  *
@@ -31,13 +34,21 @@ public class BlockingStreamListObserver<T> implements StreamObserver<T> {
     private static Logger LOGGER = LoggerFactory.getLogger(BlockingStreamObserver.class);
 
     /** Operation result */
-    private List<T> response = new ArrayList<>();
+    private List<T> response = Collections.synchronizedList(new ArrayList<>());
 
     /** Operation exception */
-    private Throwable exception;
+    private volatile Throwable exception;
 
     /** Latch for blocking */
-    private CountDownLatch latch = new CountDownLatch(1);
+    private CountDownLatch latch;
+
+    public BlockingStreamListObserver() {
+	this(1);
+    }
+
+    public BlockingStreamListObserver(int calls) {
+	this.latch = new CountDownLatch(calls);
+    }
 
     public List<T> getResult() throws SiteWhereException {
 	try {
@@ -68,7 +79,9 @@ public class BlockingStreamListObserver<T> implements StreamObserver<T> {
      */
     @Override
     public void onError(Throwable t) {
-	this.exception = t;
+	if (this.exception == null) {
+	    this.exception = t;
+	}
 	LOGGER.debug("Exception in API implementation.", t);
 	getLatch().countDown();
     }
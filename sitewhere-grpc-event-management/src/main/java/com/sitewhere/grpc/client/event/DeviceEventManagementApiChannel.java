@@ -45,6 +45,8 @@ import com.sitewhere.grpc.service.GListCommandResponsesForInvocationRequest;
 import com.sitewhere.grpc.service.GListCommandResponsesForInvocationResponse;
 import com.sitewhere.grpc.service.GListLocationsForIndexRequest;
 import com.sitewhere.grpc.service.GListLocationsForIndexResponse;
+import com.sitewhere.grpc.service.GListLocationsNearRequest;
+import com.sitewhere.grpc.service.GListLocationsNearResponse;
 import com.sitewhere.grpc.service.GListMeasurementsForIndexRequest;
 import com.sitewhere.grpc.service.GListMeasurementsForIndexResponse;
 import com.sitewhere.grpc.service.GListStateChangesForIndexRequest;
@@ -73,6 +75,7 @@ import com.sitewhere.spi.device.event.request.IDeviceLocationCreateRequest;
 import com.sitewhere.spi.device.event.request.IDeviceMeasurementCreateRequest;
 import com.sitewhere.spi.device.event.request.IDeviceStateChangeCreateRequest;
 import com.sitewhere.spi.search.IDateRangeSearchCriteria;
+import com.sitewhere.spi.search.IProximitySearchCriteria;
 import com.sitewhere.spi.search.ISearchResults;
 import com.sitewhere.spi.tracing.ITracerProvider;
 
@@ -418,6 +421,48 @@ public class DeviceEventManagementApiChannel extends MultitenantApiChannel<Devic
 		});
     }
 
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiChannel#
+     * listDeviceLocationsNear(com.sitewhere.spi.search.IProximitySearchCriteria,
+     * io.grpc.stub.StreamObserver)
+     */
+    @Override
+    public void listDeviceLocationsNear(IProximitySearchCriteria criteria,
+	    StreamObserver<ISearchResults<IDeviceLocation>> observer) throws SiteWhereException {
+	GrpcUtils.handleClientMethodEntry(this, DeviceEventManagementGrpc.getListLocationsNearMethod(),
+		DebugParameter.create("Criteria", criteria));
+	GListLocationsNearRequest.Builder grequest = GListLocationsNearRequest.newBuilder();
+	grequest.setCriteria(CommonModelConverter.asGrpcProximitySearchCriteria(criteria));
+	getGrpcChannel().getAsyncStub().listLocationsNear(GrpcUtils
+		.logGrpcClientRequest(DeviceEventManagementGrpc.getListLocationsNearMethod(), grequest.build()),
+		new StreamObserver<GListLocationsNearResponse>() {
+
+		    @Override
+		    public void onNext(GListLocationsNearResponse gresponse) {
+			try {
+			    ISearchResults<IDeviceLocation> response = EventModelConverter
+				    .asApiDeviceLocationSearchResults(gresponse.getResults());
+			    GrpcUtils.logClientMethodResponse(
+				    DeviceEventManagementGrpc.getListLocationsNearMethod(), response);
+			    observer.onNext(response);
+			} catch (Throwable t) {
+			    observer.onError(GrpcUtils.handleClientMethodException(
+				    DeviceEventManagementGrpc.getListLocationsNearMethod(), t));
+			}
+		    }
+
+		    @Override
+		    public void onError(Throwable t) {
+			observer.onError(t);
+		    }
+
+		    @Override
+		    public void onCompleted() {
+			observer.onCompleted();
+		    }
+		});
+    }
+
     /*
      * @see com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiChannel#
      * addDeviceAlerts(java.util.UUID, io.grpc.stub.StreamObserver,
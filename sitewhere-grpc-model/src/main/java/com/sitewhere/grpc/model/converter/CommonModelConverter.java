@@ -23,6 +23,7 @@ import com.sitewhere.grpc.model.CommonModel.GLocation;
 import com.sitewhere.grpc.model.CommonModel.GOptionalDouble;
 import com.sitewhere.grpc.model.CommonModel.GOptionalString;
 import com.sitewhere.grpc.model.CommonModel.GPaging;
+import com.sitewhere.grpc.model.CommonModel.GProximitySearchCriteria;
 import com.sitewhere.grpc.model.CommonModel.GUUID;
 import com.sitewhere.grpc.model.CommonModel.GUserReference;
 import com.sitewhere.rest.model.common.BrandedEntity;
@@ -30,6 +31,7 @@ import com.sitewhere.rest.model.common.Location;
 import com.sitewhere.rest.model.common.PersistentEntity;
 import com.sitewhere.rest.model.common.request.BrandedEntityCreateRequest;
 import com.sitewhere.rest.model.search.DateRangeSearchCriteria;
+import com.sitewhere.rest.model.search.ProximitySearchCriteria;
 import com.sitewhere.rest.model.search.SearchCriteria;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.common.IBrandedEntity;
@@ -38,6 +40,7 @@ import com.sitewhere.spi.common.IPersistentEntity;
 import com.sitewhere.spi.common.request.IBrandedEntityCreateRequest;
 import com.sitewhere.spi.device.DeviceAssignmentStatus;
 import com.sitewhere.spi.search.IDateRangeSearchCriteria;
+import com.sitewhere.spi.search.IProximitySearchCriteria;
 import com.sitewhere.spi.search.ISearchCriteria;
 
 /**
@@ -183,6 +186,52 @@ public class CommonModelConverter {
 	return grpc.build();
     }
 
+    /**
+     * Convert proximity search criteria from GRPC to API.
+     * 
+     * @param grpc
+     * @return
+     * @throws SiteWhereException
+     */
+    public static ProximitySearchCriteria asApiProximitySearchCriteria(GProximitySearchCriteria grpc)
+	    throws SiteWhereException {
+	Date startDate = CommonModelConverter.asApiDate(grpc.getStartDate());
+	Date endDate = CommonModelConverter.asApiDate(grpc.getEndDate());
+	ProximitySearchCriteria api = new ProximitySearchCriteria(grpc.getPageNumber(), grpc.getPageSize(), startDate,
+		endDate);
+	api.setLatitude(grpc.getLatitude());
+	api.setLongitude(grpc.getLongitude());
+	api.setMaxDistance(grpc.getMaxDistance());
+	api.setMinDistance(grpc.hasMinDistance() ? grpc.getMinDistance().getValue() : null);
+	return api;
+    }
+
+    /**
+     * Convert proximity search criteria from API to GRPC.
+     * 
+     * @param api
+     * @return
+     * @throws SiteWhereException
+     */
+    public static GProximitySearchCriteria asGrpcProximitySearchCriteria(IProximitySearchCriteria api)
+	    throws SiteWhereException {
+	if ((api.getLatitude() == null) || (api.getLongitude() == null) || (api.getMaxDistance() == null)) {
+	    throw new SiteWhereException("Proximity search requires latitude, longitude and maximum distance.");
+	}
+	GProximitySearchCriteria.Builder grpc = GProximitySearchCriteria.newBuilder();
+	grpc.setLatitude(api.getLatitude());
+	grpc.setLongitude(api.getLongitude());
+	grpc.setMaxDistance(api.getMaxDistance());
+	if (api.getMinDistance() != null) {
+	    grpc.setMinDistance(GOptionalDouble.newBuilder().setValue(api.getMinDistance()).build());
+	}
+	grpc.setStartDate(CommonModelConverter.asGrpcDate(api.getStartDate()));
+	grpc.setEndDate(CommonModelConverter.asGrpcDate(api.getEndDate()));
+	grpc.setPageNumber(api.getPageNumber());
+	grpc.setPageSize(api.getPageSize());
+	return grpc.build();
+    }
+
     /**
      * Convert paging information from API to GRPC.
      * 
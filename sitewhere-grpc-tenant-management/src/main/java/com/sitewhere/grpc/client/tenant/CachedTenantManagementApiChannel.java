@@ -35,7 +35,8 @@ public class CachedTenantManagementApiChannel extends TenantManagementApiChannel
 
     public CachedTenantManagementApiChannel(IApiDemux<?> demux, String host, int port) {
 	super(demux, host, port);
-	this.nearCacheManager = new NearCacheManager(MicroserviceIdentifier.TenantManagement);
+	this.nearCacheManager = new NearCacheManager(MicroserviceIdentifier.TenantManagement,
+		TenantManagementCacheSerializers.createRegistry());
 	this.tenantByTokenCache = new TenantManagementCacheProviders.TenantByTokenCache(nearCacheManager);
 	this.tenantByIdCache = new TenantManagementCacheProviders.TenantByIdCache(nearCacheManager);
 	getNearCacheManager().setCacheProviders(tenantByTokenCache, tenantByIdCache);
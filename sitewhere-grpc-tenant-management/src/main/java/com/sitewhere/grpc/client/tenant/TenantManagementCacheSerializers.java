@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.grpc.client.tenant;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.sitewhere.grpc.client.cache.CacheSerializerRegistry;
+import com.sitewhere.grpc.client.cache.ProtobufStreamSerializer;
+import com.sitewhere.grpc.model.TenantModel.GTenant;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.tenant.ITenant;
+
+/**
+ * Hazelcast serializers for cached tenant management entities.
+ * 
+ * @author Derek
+ */
+public class TenantManagementCacheSerializers {
+
+    /** Type id for tenant serializer */
+    public static final int TENANT_TYPE_ID = 1301;
+
+    /**
+     * Create registry with serializers for all cached tenant management entities.
+     * 
+     * @return
+     */
+    public static CacheSerializerRegistry createRegistry() {
+	return new CacheSerializerRegistry().register(ITenant.class, new TenantSerializer());
+    }
+
+    /**
+     * Serializer for tenants.
+     * 
+     * @author Derek
+     */
+    public static class TenantSerializer extends ProtobufStreamSerializer<ITenant, GTenant> {
+
+	/*
+	 * @see com.hazelcast.nio.serialization.Serializer#getTypeId()
+	 */
+	@Override
+	public int getTypeId() {
+	    return TENANT_TYPE_ID;
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asGrpc(java.lang.
+	 * Object)
+	 */
+	@Override
+	protected GTenant asGrpc(ITenant api) throws SiteWhereException {
+	    return TenantModelConverter.asGrpcTenant(api);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asApi(com.google.
+	 * protobuf.Message)
+	 */
+	@Override
+	protected ITenant asApi(GTenant grpc) throws SiteWhereException {
+	    return TenantModelConverter.asApiTenant(grpc);
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#parse(byte[])
+	 */
+	@Override
+	protected GTenant parse(byte[] data) throws InvalidProtocolBufferException {
+	    return GTenant.parseFrom(data);
+	}
+    }
+}
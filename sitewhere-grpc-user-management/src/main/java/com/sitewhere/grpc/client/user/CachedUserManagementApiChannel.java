@@ -36,7 +36,8 @@ public class CachedUserManagementApiChannel extends UserManagementApiChannel {
 
     public CachedUserManagementApiChannel(IApiDemux<?> demux, String host, int port) {
 	super(demux, host, port);
-	this.nearCacheManager = new NearCacheManager(MicroserviceIdentifier.UserManagement);
+	this.nearCacheManager = new NearCacheManager(MicroserviceIdentifier.UserManagement,
+		UserManagementCacheSerializers.createRegistry());
 	this.userCache = new UserManagementCacheProviders.UserByTokenCache(nearCacheManager);
 	this.grantedAuthorityCache = new UserManagementCacheProviders.GrantedAuthorityByTokenCache(nearCacheManager);
 	getNearCacheManager().setCacheProviders(userCache, grantedAuthorityCache);
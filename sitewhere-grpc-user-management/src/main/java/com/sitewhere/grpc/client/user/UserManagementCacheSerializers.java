@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.grpc.client.user;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.sitewhere.grpc.client.cache.CacheSerializerRegistry;
+import com.sitewhere.grpc.client.cache.ProtobufStreamSerializer;
+import com.sitewhere.grpc.model.UserModel.GUser;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.user.IUser;
+
+/**
+ * Hazelcast serializers for cached user management entities. Lists of granted
+ * authorities are left to the default serialization since a serializer for
+ * {@link java.util.List} would apply to every list stored in the grid.
+ * 
+ * @author Derek
+ */
+public class UserManagementCacheSerializers {
+
+    /** Type id for user serializer */
+    public static final int USER_TYPE_ID = 1201;
+
+    /**
+     * Create registry with serializers for all cached user management entities.
+     * 
+     * @return
+     */
+    public static CacheSerializerRegistry createRegistry() {
+	return new CacheSerializerRegistry().register(IUser.class, new UserSerializer());
+    }
+
+    /**
+     * Serializer for users.
+     * 
+     * @author Derek
+     */
+    public static class UserSerializer extends ProtobufStreamSerializer<IUser, GUser> {
+
+	/*
+	 * @see com.hazelcast.nio.serialization.Serializer#getTypeId()
+	 */
+	@Override
+	public int getTypeId() {
+	    return USER_TYPE_ID;
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asGrpc(java.lang.
+	 * Object)
+	 */
+	@Override
+	protected GUser asGrpc(IUser api) throws SiteWhereException {
+	    return UserModelConverter.asGrpcUser(api);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#asApi(com.google.
+	 * protobuf.Message)
+	 */
+	@Override
+	protected IUser asApi(GUser grpc) throws SiteWhereException {
+	    return UserModelConverter.asApiUser(grpc);
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.cache.ProtobufStreamSerializer#parse(byte[])
+	 */
+	@Override
+	protected GUser parse(byte[] data) throws InvalidProtocolBufferException {
+	    return GUser.parseFrom(data);
+	}
+    }
+}
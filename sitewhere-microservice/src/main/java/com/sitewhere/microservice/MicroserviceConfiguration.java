@@ -39,8 +39,11 @@ public class MicroserviceConfiguration {
     }
 
     @Bean
-    public ITokenManagement tokenManagement() {
-	return new TokenManagement();
+    @Autowired
+    public ITokenManagement tokenManagement(IMicroservice<?> microservice) {
+	TokenManagement tokenManagement = new TokenManagement();
+	tokenManagement.getVerifiedTokenCache().registerMetrics(microservice.getMetricRegistry());
+	return tokenManagement;
     }
 
     @Bean
@@ -8,6 +8,7 @@
 package com.sitewhere.microservice.grpc;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import com.sitewhere.grpc.client.spi.server.IGrpcServer;
 import com.sitewhere.grpc.model.tracing.ServerTracingInterceptor;
@@ -18,6 +19,7 @@ import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
 import io.grpc.BindableService;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
+import io.grpc.netty.NettyServerBuilder;
 
 /**
  * Base class for GRPC servers used by microservices.
@@ -55,7 +57,7 @@ public class GrpcServer extends TenantEngineLifecycleComponent implements IGrpcS
      * @return
      */
     protected Server buildServer() {
-	ServerBuilder<?> builder = ServerBuilder.forPort(port);
+	ServerBuilder<?> builder = createServerBuilder(port);
 	builder.addService(getServiceImplementation()).intercept(getJwtInterceptor());
 	if (isUseTracingInterceptor()) {
 	    builder.intercept(getTracingInterceptor());
@@ -63,6 +65,20 @@ public class GrpcServer extends TenantEngineLifecycleComponent implements IGrpcS
 	return builder.build();
     }
 
+    /**
+     * Create builder for server. Clients send keepalive pings at the configured
+     * interval, so the server must permit pings at least that often or it will
+     * close their connections.
+     * 
+     * @param port
+     * @return
+     */
+    protected ServerBuilder<?> createServerBuilder(int port) {
+	int keepAlive = getMicroservice().getInstanceSettings().getGrpcKeepAliveTimeSecs();
+	return NettyServerBuilder.forPort(port).permitKeepAliveTime(keepAlive, TimeUnit.SECONDS)
+		.permitKeepAliveWithoutCalls(true);
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -34,7 +34,7 @@ public class MultitenantGrpcServer extends GrpcServer {
      */
     protected Server buildServer() {
 	this.tenantTokenInterceptor = new TenantTokenServerInterceptor(getMicroservice());
-	ServerBuilder<?> builder = ServerBuilder.forPort(getPort());
+	ServerBuilder<?> builder = createServerBuilder(getPort());
 	builder.addService(getServiceImplementation()).intercept(getTenantTokenInterceptor())
 		.intercept(getJwtInterceptor());
 	builder.addService(new MultitenantManagementImpl((IMultitenantMicroservice<?, ?>) getMicroservice()));
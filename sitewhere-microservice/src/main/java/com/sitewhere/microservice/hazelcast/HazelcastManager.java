@@ -29,6 +29,7 @@ import com.hazelcast.config.NetworkConfig;
 import com.hazelcast.config.TcpIpConfig;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import com.sitewhere.grpc.client.cache.CacheSerializerRegistry;
 import com.sitewhere.server.lifecycle.LifecycleComponent;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.microservice.hazelcast.IHazelcastManager;
@@ -44,12 +45,23 @@ import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
  */
 public class HazelcastManager extends LifecycleComponent implements IHazelcastManager {
 
+    /** Serializers for cached entities */
+    private CacheSerializerRegistry serializerRegistry;
+
     /** Singleton hazelcast instance */
     private HazelcastInstance hazelcastInstance;
 
     /** For background threads */
     private ExecutorService executor;
 
+    public HazelcastManager() {
+	this(new CacheSerializerRegistry());
+    }
+
+    public HazelcastManager(CacheSerializerRegistry serializerRegistry) {
+	this.serializerRegistry = serializerRegistry;
+    }
+
     /*
      * @see
      * com.sitewhere.server.lifecycle.LifecycleComponent#start(com.sitewhere.spi.
@@ -93,6 +105,9 @@ public class HazelcastManager extends LifecycleComponent implements IHazelcastMa
 	    // Use near cache for fast response.
 	    config.addMapConfig(createDefaultMapConfig());
 
+	    // Use compact serializers for cached entities.
+	    getSerializerRegistry().configure(config.getSerializationConfig());
+
 	    HazelcastManager.configureManagementCenter(config);
 	    HazelcastManager.performGroupOverrides(config, IHazelcastManager.GROUP_NAME,
 		    IHazelcastManager.GROUP_PASSWORD);
@@ -147,6 +162,14 @@ public class HazelcastManager extends LifecycleComponent implements IHazelcastMa
 	this.hazelcastInstance = hazelcastInstance;
     }
 
+    public CacheSerializerRegistry getSerializerRegistry() {
+	return serializerRegistry;
+    }
+
+    public void setSerializerRegistry(CacheSerializerRegistry serializerRegistry) {
+	this.serializerRegistry = serializerRegistry;
+    }
+
     /**
      * Configure Hazelcast Management Center.
      * 
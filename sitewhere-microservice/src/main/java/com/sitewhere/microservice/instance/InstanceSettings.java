@@ -62,6 +62,46 @@ public class InstanceSettings implements IInstanceSettings {
     @Value("${sitewhere.log.metrics:false}")
     private boolean logMetrics;
 
+    /** Max number of tenant engines initialized or started concurrently */
+    @Value("${sitewhere.tenant.operations.concurrency:5}")
+    private int tenantOperationsConcurrency;
+
+    /** Flag for whether tenant engines are activated on first request */
+    @Value("${sitewhere.tenant.lazy.activation:false}")
+    private boolean tenantLazyActivation;
+
+    /** Interval between keepalive pings on GRPC connections */
+    @Value("${sitewhere.grpc.keepalive.time.secs:30}")
+    private int grpcKeepAliveTimeSecs;
+
+    /** Time to wait for keepalive ping acknowledgement before closing */
+    @Value("${sitewhere.grpc.keepalive.timeout.secs:10}")
+    private int grpcKeepAliveTimeoutSecs;
+
+    /** Default deadline for unary GRPC client calls */
+    @Value("${sitewhere.grpc.client.deadline.ms:30000}")
+    private long grpcClientDeadlineMs;
+
+    /** Deadlines for specific GRPC methods (GetDevice=2000,ListDevices=10000) */
+    @Value("${sitewhere.grpc.client.method.deadlines:}")
+    private String grpcClientMethodDeadlines;
+
+    /** Max attempts (including the first) for idempotent GRPC reads */
+    @Value("${sitewhere.grpc.client.max.attempts:3}")
+    private int grpcClientMaxAttempts;
+
+    /** Compression used for GRPC client calls (empty for none) */
+    @Value("${sitewhere.grpc.client.compression:}")
+    private String grpcClientCompression;
+
+    /** Strategy for routing GRPC calls across microservice replicas */
+    @Value("${sitewhere.grpc.client.routing.strategy:round-robin}")
+    private String grpcClientRoutingStrategy;
+
+    /** MongoDB queries slower than this are recorded as slow queries */
+    @Value("${sitewhere.mongodb.slow.query.threshold.ms:250}")
+    private long mongoSlowQueryThresholdMs;
+
     /*
      * @see com.sitewhere.spi.microservice.instance.IInstanceSettings#getProductId()
      */
@@ -201,4 +241,134 @@ public class InstanceSettings implements IInstanceSettings {
     public void setLogMetrics(boolean logMetrics) {
 	this.logMetrics = logMetrics;
     }
+
+    /*
+     * @see com.sitewhere.spi.microservice.instance.IInstanceSettings#
+     * getTenantOperationsConcurrency()
+     */
+    @Override
+    public int getTenantOperationsConcurrency() {
+	return tenantOperationsConcurrency;
+    }
+
+    public void setTenantOperationsConcurrency(int tenantOperationsConcurrency) {
+	this.tenantOperationsConcurrency = tenantOperationsConcurrency;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.instance.IInstanceSettings#
+     * isTenantLazyActivation()
+     */
+    @Override
+    public boolean isTenantLazyActivation() {
+	return tenantLazyActivation;
+    }
+
+    public void setTenantLazyActivation(boolean tenantLazyActivation) {
+	this.tenantLazyActivation = tenantLazyActivation;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.instance.IInstanceSettings#
+     * getGrpcKeepAliveTimeSecs()
+     */
+    @Override
+    public int getGrpcKeepAliveTimeSecs() {
+	return grpcKeepAliveTimeSecs;
+    }
+
+    public void setGrpcKeepAliveTimeSecs(int grpcKeepAliveTimeSecs) {
+	this.grpcKeepAliveTimeSecs = grpcKeepAliveTimeSecs;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.instance.IInstanceSettings#
+     * getGrpcKeepAliveTimeoutSecs()
+     */
+    @Override
+    public int getGrpcKeepAliveTimeoutSecs() {
+	return grpcKeepAliveTimeoutSecs;
+    }
+
+    public void setGrpcKeepAliveTimeoutSecs(int grpcKeepAliveTimeoutSecs) {
+	this.grpcKeepAliveTimeoutSecs = grpcKeepAliveTimeoutSecs;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.instance.IInstanceSettings#
+     * getGrpcClientDeadlineMs()
+     */
+    @Override
+    public long getGrpcClientDeadlineMs() {
+	return grpcClientDeadlineMs;
+    }
+
+    public void setGrpcClientDeadlineMs(long grpcClientDeadlineMs) {
+	this.grpcClientDeadlineMs = grpcClientDeadlineMs;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.instance.IInstanceSettings#
+     * getGrpcClientMethodDeadlines()
+     */
+    @Override
+    public String getGrpcClientMethodDeadlines() {
+	return grpcClientMethodDeadlines;
+    }
+
+    public void setGrpcClientMethodDeadlines(String grpcClientMethodDeadlines) {
+	this.grpcClientMethodDeadlines = grpcClientMethodDeadlines;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.instance.IInstanceSettings#
+     * getGrpcClientMaxAttempts()
+     */
+    @Override
+    public int getGrpcClientMaxAttempts() {
+	return grpcClientMaxAttempts;
+    }
+
+    public void setGrpcClientMaxAttempts(int grpcClientMaxAttempts) {
+	this.grpcClientMaxAttempts = grpcClientMaxAttempts;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.instance.IInstanceSettings#
+     * getGrpcClientCompression()
+     */
+    @Override
+    public String getGrpcClientCompression() {
+	return grpcClientCompression;
+    }
+
+    public void setGrpcClientCompression(String grpcClientCompression) {
+	this.grpcClientCompression = grpcClientCompression;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.instance.IInstanceSettings#
+     * getGrpcClientRoutingStrategy()
+     */
+    @Override
+    public String getGrpcClientRoutingStrategy() {
+	return grpcClientRoutingStrategy;
+    }
+
+    public void setGrpcClientRoutingStrategy(String grpcClientRoutingStrategy) {
+	this.grpcClientRoutingStrategy = grpcClientRoutingStrategy;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.instance.IInstanceSettings#
+     * getMongoSlowQueryThresholdMs()
+     */
+    @Override
+    public long getMongoSlowQueryThresholdMs() {
+	return mongoSlowQueryThresholdMs;
+    }
+
+    public void setMongoSlowQueryThresholdMs(long mongoSlowQueryThresholdMs) {
+	this.mongoSlowQueryThresholdMs = mongoSlowQueryThresholdMs;
+    }
 }
\ No newline at end of file
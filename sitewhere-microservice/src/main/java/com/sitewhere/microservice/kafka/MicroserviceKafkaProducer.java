@@ -8,6 +8,7 @@
 package com.sitewhere.microservice.kafka;
 
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -37,10 +38,14 @@ public abstract class MicroserviceKafkaProducer extends TenantEngineLifecycleCom
     /** Static logger instance for callback */
     private static Log CALLBACK_LOGGER = LogFactory.getLog(MicroserviceApplication.class);
 
-    /** Create single callback */
-    private static Callback CALLBACK = new Callback() {
+    /** Number of messages that could not be delivered */
+    private AtomicLong failedSends = new AtomicLong();
+
+    /** Callback that logs and counts failed deliveries */
+    private Callback callback = new Callback() {
 	public void onCompletion(RecordMetadata metadata, Exception e) {
 	    if (e != null) {
+		failedSends.incrementAndGet();
 		CALLBACK_LOGGER.error("Unable to complete delivery of Kafka message.", e);
 	    }
 	}
@@ -88,7 +93,29 @@ public abstract class MicroserviceKafkaProducer extends TenantEngineLifecycleCom
     @Override
     public void send(String key, byte[] message) throws SiteWhereException {
 	ProducerRecord<String, byte[]> record = new ProducerRecord<String, byte[]>(getTargetTopicName(), key, message);
-	getProducer().send(record, CALLBACK);
+	getProducer().send(record, callback);
+    }
+
+    /**
+     * Block until all messages previously passed to
+     * {@link #send(String, byte[])} have either been acknowledged by Kafka or
+     * failed. Combined with {@link #getFailedSendCount()}, this allows callers to
+     * confirm delivery before acknowledging the source of the messages.
+     */
+    public void flush() {
+	if (getProducer() != null) {
+	    getProducer().flush();
+	}
+    }
+
+    /**
+     * Get number of messages that could not be delivered since the producer was
+     * created.
+     * 
+     * @return
+     */
+    public long getFailedSendCount() {
+	return failedSends.get();
     }
 
     /**
@@ -7,12 +7,21 @@
  */
 package com.sitewhere.microservice.multitenant;
 
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.curator.framework.CuratorFramework;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.ClassUtils;
 
+import com.codahale.metrics.Timer;
 import com.sitewhere.common.MarshalUtils;
 import com.sitewhere.configuration.ConfigurationUtils;
 import com.sitewhere.microservice.groovy.GroovyConfiguration;
@@ -22,6 +31,8 @@ import com.sitewhere.rest.model.microservice.state.TenantEngineState;
 import com.sitewhere.rest.model.tenant.DatasetTemplate;
 import com.sitewhere.rest.model.tenant.TenantTemplate;
 import com.sitewhere.server.lifecycle.CompositeLifecycleStep;
+import com.sitewhere.server.lifecycle.LifecycleProgressContext;
+import com.sitewhere.server.lifecycle.LifecycleProgressMonitor;
 import com.sitewhere.server.lifecycle.SimpleLifecycleStep;
 import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent;
 import com.sitewhere.spi.SiteWhereException;
@@ -63,6 +74,12 @@ public abstract class MicroserviceTenantEngine extends TenantEngineLifecycleComp
     /** Dataset template path (relative to configuration root) */
     public static final String DATASET_TEMPLATE_PATH = "dataset-template.json";
 
+    /** Timer for applying a configuration update without restart */
+    public static final String TIMER_RELOAD = "tenantEngine.reload";
+
+    /** Prefix for timers that track reload of individual components */
+    public static final String TIMER_RELOAD_COMPONENT_PREFIX = "tenantEngine.reload.";
+
     /** Hosted tenant */
     private ITenant tenant;
 
@@ -413,13 +430,226 @@ public abstract class MicroserviceTenantEngine extends TenantEngineLifecycleComp
 	    // Handle updated configuration file.
 	    if (getModuleConfigurationName().equals(path)) {
 		getLogger().info("Tenant engine configuration updated.");
-		((IMultitenantMicroservice<?, ?>) getMicroservice()).restartTenantEngine(getTenant().getId());
+		if (!reloadModuleConfiguration(data)) {
+		    ((IMultitenantMicroservice<?, ?>) getMicroservice()).restartTenantEngine(getTenant().getId());
+		}
 	    }
 	} catch (SiteWhereException e) {
 	    getLogger().error("Unable to process updated configuration file.", e);
 	}
     }
 
+    /**
+     * Attempt to apply an updated module configuration to the running engine.
+     * The updated bean definitions are compared with those of the module
+     * context and only beans whose definitions changed are rebuilt. Returns
+     * false if the update could not be applied in place, in which case the
+     * engine should be restarted.
+     * 
+     * @param data
+     * @return
+     */
+    protected boolean reloadModuleConfiguration(byte[] data) {
+	if ((data == null) || (getLifecycleStatus() != LifecycleStatus.Started)
+		|| !(getModuleContext() instanceof GenericApplicationContext)) {
+	    return false;
+	}
+	Timer.Context timer = createTimerMetric(TIMER_RELOAD).time();
+	try {
+	    GenericApplicationContext context = (GenericApplicationContext) getModuleContext();
+	    ModuleConfigurationChanges changes = ModuleConfigurationChanges
+		    .compute(context.getDefaultListableBeanFactory(), ConfigurationUtils.parseBeanDefinitions(data));
+	    if (changes.isEmpty()) {
+		getLogger().info("Updated configuration has no bean changes. Engine will not be restarted.");
+		return true;
+	    }
+	    getLogger().info("Updated configuration changes beans (" + changes.toString() + ").");
+	    ILifecycleProgressMonitor monitor = new LifecycleProgressMonitor(
+		    new LifecycleProgressContext(1, "Reload tenant engine configuration."), getMicroservice());
+	    if (tenantReload(changes, monitor)) {
+		getLogger().info("Applied configuration update without restarting tenant engine.");
+		return true;
+	    }
+	    getLogger().info("Configuration update requires tenant engine restart.");
+	    return false;
+	} catch (Exception e) {
+	    getLogger().error("Unable to apply configuration update in place.", e);
+	    return false;
+	} finally {
+	    timer.stop();
+	}
+    }
+
+    /**
+     * Apply bean changes from an updated configuration to the running engine.
+     * The default implementation handles changes that only affect
+     * {@link IDiscoverableTenantLifecycleComponent} beans that no other bean
+     * depends on, since those are not referenced by the engine. Subclasses may
+     * handle other changes and should return false for any they can not apply.
+     * 
+     * @param changes
+     * @param monitor
+     * @return
+     * @throws SiteWhereException
+     */
+    protected boolean tenantReload(ModuleConfigurationChanges changes, ILifecycleProgressMonitor monitor)
+	    throws SiteWhereException {
+	return reloadDiscoverableBeans(changes, monitor);
+    }
+
+    /**
+     * Replace discoverable components whose definitions were added, changed or
+     * removed. Returns false without changing anything if any other kind of
+     * bean is affected.
+     * 
+     * @param changes
+     * @param monitor
+     * @return
+     * @throws SiteWhereException
+     */
+    protected boolean reloadDiscoverableBeans(ModuleConfigurationChanges changes, ILifecycleProgressMonitor monitor)
+	    throws SiteWhereException {
+	ConfigurableListableBeanFactory factory = changes.getCurrent();
+	Set<String> existing = new HashSet<String>(changes.getChanged());
+	existing.addAll(changes.getRemoved());
+	for (String name : existing) {
+	    if (!(factory.getBean(name) instanceof IDiscoverableTenantLifecycleComponent)
+		    || (factory.getDependentBeans(name).length > 0)) {
+		return false;
+	    }
+	}
+	for (String name : changes.getAdded()) {
+	    if (!isDiscoverable(changes.getUpdatedDefinition(name))) {
+		return false;
+	    }
+	}
+
+	for (String name : changes.getRemoved()) {
+	    stopDiscoverableBean(name, monitor);
+	    ((BeanDefinitionRegistry) getModuleContext()).removeBeanDefinition(name);
+	}
+	for (String name : changes.getChanged()) {
+	    Timer.Context timer = createTimerMetric(TIMER_RELOAD_COMPONENT_PREFIX + name).time();
+	    try {
+		stopDiscoverableBean(name, monitor);
+		replaceBeanDefinition(name, changes.getUpdatedDefinition(name));
+		startDiscoverableBean(name, monitor);
+	    } finally {
+		timer.stop();
+	    }
+	}
+	for (String name : changes.getAdded()) {
+	    Timer.Context timer = createTimerMetric(TIMER_RELOAD_COMPONENT_PREFIX + name).time();
+	    try {
+		replaceBeanDefinition(name, changes.getUpdatedDefinition(name));
+		startDiscoverableBean(name, monitor);
+	    } finally {
+		timer.stop();
+	    }
+	}
+	return true;
+    }
+
+    /**
+     * Register a bean definition in the module context, replacing any existing
+     * definition and discarding its singleton instance.
+     * 
+     * @param name
+     * @param definition
+     */
+    protected void replaceBeanDefinition(String name, BeanDefinition definition) {
+	BeanDefinitionRegistry registry = (BeanDefinitionRegistry) getModuleContext();
+	if (registry.containsBeanDefinition(name)) {
+	    registry.removeBeanDefinition(name);
+	}
+	registry.registerBeanDefinition(name, definition);
+    }
+
+    /**
+     * Create a bean from a definition using the module context to resolve
+     * references. The bean is not registered in the context.
+     * 
+     * @param name
+     * @param definition
+     * @return
+     */
+    protected Object createBean(String name, BeanDefinition definition) {
+	BeanDefinition prototype = ((AbstractBeanDefinition) definition).cloneBeanDefinition();
+	prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+	String temporary = name + "#reload";
+	BeanDefinitionRegistry registry = (BeanDefinitionRegistry) getModuleContext();
+	registry.registerBeanDefinition(temporary, prototype);
+	try {
+	    return getModuleContext().getBean(temporary);
+	} finally {
+	    registry.removeBeanDefinition(temporary);
+	}
+    }
+
+    /**
+     * Replace the definition of a bean in the module context while keeping the
+     * running instance, which has been updated in place to match it.
+     * 
+     * @param name
+     * @param definition
+     * @param instance
+     */
+    protected void retainBean(String name, BeanDefinition definition, Object instance) {
+	replaceBeanDefinition(name, definition);
+	((GenericApplicationContext) getModuleContext()).getBeanFactory().registerSingleton(name, instance);
+    }
+
+    /**
+     * Indicates whether a bean definition creates a discoverable component.
+     * 
+     * @param definition
+     * @return
+     */
+    protected boolean isDiscoverable(BeanDefinition definition) {
+	if ((definition.getBeanClassName() == null) || (definition.getFactoryMethodName() != null)) {
+	    return false;
+	}
+	try {
+	    Class<?> type = ClassUtils.forName(definition.getBeanClassName(), getClass().getClassLoader());
+	    return IDiscoverableTenantLifecycleComponent.class.isAssignableFrom(type);
+	} catch (ClassNotFoundException e) {
+	    return false;
+	}
+    }
+
+    /**
+     * Stop and terminate a discoverable component from the module context.
+     * 
+     * @param name
+     * @param monitor
+     * @throws SiteWhereException
+     */
+    protected void stopDiscoverableBean(String name, ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	IDiscoverableTenantLifecycleComponent component = getModuleContext().getBean(name,
+		IDiscoverableTenantLifecycleComponent.class);
+	ICompositeLifecycleStep stop = new CompositeLifecycleStep("Stop " + name);
+	stop.addStopStep(this, component);
+	stop.addTerminateStep(this, component);
+	stop.execute(monitor);
+    }
+
+    /**
+     * Create, initialize and start a discoverable component from the module
+     * context.
+     * 
+     * @param name
+     * @param monitor
+     * @throws SiteWhereException
+     */
+    protected void startDiscoverableBean(String name, ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	IDiscoverableTenantLifecycleComponent component = getModuleContext().getBean(name,
+		IDiscoverableTenantLifecycleComponent.class);
+	ICompositeLifecycleStep start = new CompositeLifecycleStep("Start " + name);
+	start.addInitializeStep(this, component, component.isRequired());
+	start.addStartStep(this, component, component.isRequired());
+	start.execute(monitor);
+    }
+
     /*
      * (non-Javadoc)
      * 
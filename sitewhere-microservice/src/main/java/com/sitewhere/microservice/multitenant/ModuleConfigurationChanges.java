@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.microservice.multitenant;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionVisitor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.util.StringValueResolver;
+
+/**
+ * Differences between the bean definitions of a running tenant module context
+ * and those parsed from an updated module configuration. Placeholders in the
+ * updated definitions are resolved against the running context before they
+ * are compared, since the running definitions had placeholders resolved when
+ * the context was refreshed. Infrastructure beans registered by Spring are not
+ * compared.
+ * 
+ * @author Derek
+ */
+public class ModuleConfigurationChanges {
+
+    /** Definitions in running context */
+    private ConfigurableListableBeanFactory current;
+
+    /** Definitions parsed from updated configuration */
+    private BeanDefinitionRegistry updated;
+
+    /** Names of beans only in updated configuration */
+    private Set<String> added = new TreeSet<String>();
+
+    /** Names of beans whose definitions changed */
+    private Set<String> changed = new TreeSet<String>();
+
+    /** Names of beans no longer in configuration */
+    private Set<String> removed = new TreeSet<String>();
+
+    public ModuleConfigurationChanges(ConfigurableListableBeanFactory current, BeanDefinitionRegistry updated) {
+	this.current = current;
+	this.updated = updated;
+    }
+
+    /**
+     * Compare running definitions with updated definitions.
+     * 
+     * @param current
+     * @param updated
+     * @return
+     */
+    public static ModuleConfigurationChanges compute(ConfigurableListableBeanFactory current,
+	    BeanDefinitionRegistry updated) {
+	ModuleConfigurationChanges changes = new ModuleConfigurationChanges(current, updated);
+	BeanDefinitionVisitor visitor = new BeanDefinitionVisitor(new StringValueResolver() {
+
+	    @Override
+	    public String resolveStringValue(String value) {
+		return current.resolveEmbeddedValue(value);
+	    }
+	});
+
+	Set<String> before = new HashSet<String>();
+	for (String name : current.getBeanDefinitionNames()) {
+	    if (current.getBeanDefinition(name).getRole() != BeanDefinition.ROLE_INFRASTRUCTURE) {
+		before.add(name);
+	    }
+	}
+	for (String name : updated.getBeanDefinitionNames()) {
+	    BeanDefinition definition = updated.getBeanDefinition(name);
+	    if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+		continue;
+	    }
+	    visitor.visitBeanDefinition(definition);
+	    if (!before.remove(name)) {
+		changes.getAdded().add(name);
+	    } else if (!definition.equals(current.getBeanDefinition(name))) {
+		changes.getChanged().add(name);
+	    }
+	}
+	changes.getRemoved().addAll(before);
+	return changes;
+    }
+
+    /**
+     * Indicates whether any bean definitions differ.
+     * 
+     * @return
+     */
+    public boolean isEmpty() {
+	return getAdded().isEmpty() && getChanged().isEmpty() && getRemoved().isEmpty();
+    }
+
+    /**
+     * Get definition for a bean in the running context.
+     * 
+     * @param name
+     * @return
+     */
+    public BeanDefinition getCurrentDefinition(String name) {
+	return getCurrent().getBeanDefinition(name);
+    }
+
+    /**
+     * Get definition for a bean in the updated configuration.
+     * 
+     * @param name
+     * @return
+     */
+    public BeanDefinition getUpdatedDefinition(String name) {
+	return getUpdated().getBeanDefinition(name);
+    }
+
+    /*
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+	return "added=" + getAdded() + ", changed=" + getChanged() + ", removed=" + getRemoved();
+    }
+
+    public ConfigurableListableBeanFactory getCurrent() {
+	return current;
+    }
+
+    public BeanDefinitionRegistry getUpdated() {
+	return updated;
+    }
+
+    public Set<String> getAdded() {
+	return added;
+    }
+
+    public Set<String> getChanged() {
+	return changed;
+    }
+
+    public Set<String> getRemoved() {
+	return removed;
+    }
+}
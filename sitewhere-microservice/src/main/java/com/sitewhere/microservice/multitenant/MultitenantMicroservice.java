@@ -9,12 +9,14 @@ package com.sitewhere.microservice.multitenant;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -54,9 +56,6 @@ import com.sitewhere.spi.tenant.ITenant;
 public abstract class MultitenantMicroservice<I extends IFunctionIdentifier, T extends IMicroserviceTenantEngine>
 	extends ConfigurableMicroservice<I> implements IMultitenantMicroservice<I, T> {
 
-    /** Max number of tenants being added/removed concurrently */
-    private static final int MAX_CONCURRENT_TENANT_OPERATIONS = 5;
-
     /** Tenant management API demux */
     private ITenantManagementApiDemux tenantManagementApiDemux;
 
@@ -75,6 +74,12 @@ public abstract class MultitenantMicroservice<I extends IFunctionIdentifier, T e
     /** Executor for tenant operations */
     private ExecutorService tenantOperations;
 
+    /** Executor for thread that schedules tenant engine startup */
+    private ExecutorService tenantStarter;
+
+    /** Limits number of tenant engines being started concurrently */
+    private Semaphore tenantOperationPermits;
+
     /*
      * (non-Javadoc)
      * 
@@ -89,9 +94,11 @@ public abstract class MultitenantMicroservice<I extends IFunctionIdentifier, T e
 	createGrpcComponents();
 
 	// Handles threading for tenant operations.
-	this.tenantOperations = Executors.newFixedThreadPool(MAX_CONCURRENT_TENANT_OPERATIONS,
-		new TenantOperationsThreadFactory());
-	tenantOperations.execute(new TenantEngineStarter(this));
+	int concurrency = Math.max(1, getInstanceSettings().getTenantOperationsConcurrency());
+	this.tenantOperationPermits = new Semaphore(concurrency);
+	this.tenantOperations = Executors.newFixedThreadPool(concurrency, new TenantOperationsThreadFactory());
+	this.tenantStarter = Executors.newSingleThreadExecutor(new TenantStarterThreadFactory());
+	tenantStarter.execute(new TenantEngineStarter(this));
 
 	// Create step that will start components.
 	ICompositeLifecycleStep init = new CompositeLifecycleStep("Initialize " + getName());
@@ -176,6 +183,9 @@ public abstract class MultitenantMicroservice<I extends IFunctionIdentifier, T e
     @Override
     public void terminate(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	// Shut down any tenant operations.
+	if (tenantStarter != null) {
+	    tenantStarter.shutdownNow();
+	}
 	if (tenantOperations != null) {
 	    tenantOperations.shutdown();
 	}
@@ -199,6 +209,20 @@ public abstract class MultitenantMicroservice<I extends IFunctionIdentifier, T e
      */
     @Override
     public T getTenantEngineByTenantId(UUID id) throws SiteWhereException {
+	T engine = findTenantEngine(id);
+	if ((engine == null) && (getInstanceSettings().isTenantLazyActivation())) {
+	    requestTenantEngineActivation(id);
+	}
+	return engine;
+    }
+
+    /**
+     * Find an initialized or failed tenant engine without triggering activation.
+     * 
+     * @param id
+     * @return
+     */
+    protected T findTenantEngine(UUID id) {
 	T engine = getInitializedTenantEngines().get(id);
 	if (engine == null) {
 	    engine = getFailedTenantEngines().get(id);
@@ -213,8 +237,9 @@ public abstract class MultitenantMicroservice<I extends IFunctionIdentifier, T e
     @Override
     public T assureTenantEngineAvailable(UUID tenantId) throws TenantEngineNotAvailableException {
 	try {
-	    T engine = getTenantEngineByTenantId(tenantId);
+	    T engine = findTenantEngine(tenantId);
 	    if (engine == null) {
+		requestTenantEngineActivation(tenantId);
 		throw new TenantEngineNotAvailableException("No tenant engine found for tenant id.");
 	    } else if (engine.getLifecycleStatus() == LifecycleStatus.InitializationError) {
 		throw new TenantEngineNotAvailableException("Requested tenant engine failed initialization.");
@@ -229,20 +254,40 @@ public abstract class MultitenantMicroservice<I extends IFunctionIdentifier, T e
 	}
     }
 
+    /**
+     * Move a tenant to the front of the startup queue since it is receiving
+     * requests. Used to start tenants with active traffic before idle tenants and
+     * to activate tenants on demand when lazy activation is enabled.
+     * 
+     * @param tenantId
+     */
+    protected void requestTenantEngineActivation(UUID tenantId) {
+	if (getInitializingTenantEngines().containsKey(tenantId)) {
+	    return;
+	}
+	getTenantInitializationQueue().remove(tenantId);
+	getTenantInitializationQueue().offerFirst(tenantId);
+    }
+
     /**
      * Initialize tenant engines by inspecting the list of tenant configurations,
-     * loading tenant information, then creating a tenant engine for each.
+     * loading tenant information, then creating a tenant engine for each. If lazy
+     * activation is enabled, engines are instead created when first requested.
      * 
      * @throws SiteWhereException
      */
     protected void initializeTenantEngines() throws SiteWhereException {
+	if (getInstanceSettings().isTenantLazyActivation()) {
+	    getLogger().info("Tenant engines will be activated on first request.");
+	    return;
+	}
 	CuratorFramework curator = getZookeeperManager().getCurator();
 	try {
 	    if (curator.checkExists().forPath(getInstanceTenantsConfigurationPath()) != null) {
 		List<String> tenantIds = curator.getChildren().forPath(getInstanceTenantsConfigurationPath());
 		for (String tenantIdStr : tenantIds) {
 		    UUID tenantId = UUID.fromString(tenantIdStr);
-		    if (getTenantEngineByTenantId(tenantId) == null) {
+		    if (findTenantEngine(tenantId) == null) {
 			if (!getTenantInitializationQueue().contains(tenantId)) {
 			    getTenantInitializationQueue().offer(tenantId);
 			}
@@ -266,9 +311,11 @@ public abstract class MultitenantMicroservice<I extends IFunctionIdentifier, T e
      */
     protected IMicroserviceTenantEngine getTenantEngineForPathInfo(TenantPathInfo pathInfo) throws SiteWhereException {
 	if (pathInfo != null) {
-	    IMicroserviceTenantEngine engine = getTenantEngineByTenantId(pathInfo.getTenantId());
+	    IMicroserviceTenantEngine engine = findTenantEngine(pathInfo.getTenantId());
 	    if (engine != null) {
 		return engine;
+	    } else if (getInstanceSettings().isTenantLazyActivation()) {
+		return null;
 	    } else if (!getTenantInitializationQueue().contains(pathInfo.getTenantId())) {
 		getTenantInitializationQueue().offer(pathInfo.getTenantId());
 	    }
@@ -510,6 +557,10 @@ public abstract class MultitenantMicroservice<I extends IFunctionIdentifier, T e
 	this.tenantOperations = tenantOperations;
     }
 
+    public Semaphore getTenantOperationPermits() {
+	return tenantOperationPermits;
+    }
+
     /**
      * Processes the list of tenants waiting for tenant engines to be started.
      * 
@@ -527,10 +578,16 @@ public abstract class MultitenantMicroservice<I extends IFunctionIdentifier, T e
 	@Override
 	public void runAsSystemUser() {
 	    while (true) {
+		boolean permitHeld = false;
 		try {
 		    // Wait for tenant API available.
 		    getTenantManagementApiDemux().waitForMicroserviceAvailable();
 
+		    // Wait for a free slot before choosing the next tenant so that tenants
+		    // moved to the front of the queue in the meantime are started first.
+		    getTenantOperationPermits().acquire();
+		    permitHeld = true;
+
 		    // Get next tenant id from the queue and look up the tenant.
 		    UUID tenantId = getTenantInitializationQueue().take();
 
@@ -548,29 +605,55 @@ public abstract class MultitenantMicroservice<I extends IFunctionIdentifier, T e
 		    getInitializingTenantEngines().put(tenantId, tenant);
 
 		    // Start tenant initialization.
-		    if (getTenantEngineByTenantId(tenantId) == null) {
-			InitializeTenantEngineOperation
-				.createCompletableFuture(MultitenantMicroservice.this, tenant, getTenantOperations())
-				.thenCompose(engine -> StartTenantEngineOperation.createCompletableFuture(engine,
+		    if (findTenantEngine(tenantId) == null) {
+			CompletableFuture<T> initialized;
+			try {
+			    initialized = InitializeTenantEngineOperation
+				    .createCompletableFuture(MultitenantMicroservice.this, tenant, getTenantOperations());
+			} catch (Throwable t) {
+			    getInitializingTenantEngines().remove(tenantId);
+			    throw t;
+			}
+
+			// Permit is released once the engine has finished starting.
+			permitHeld = false;
+			initialized.thenCompose(engine -> StartTenantEngineOperation.createCompletableFuture(engine,
 					getTenantOperations()))
 				.thenCompose(engine -> BootstrapTenantEngineOperation.createCompletableFuture(engine,
 					getTenantOperations()))
+				.whenComplete((engine, t) -> getTenantOperationPermits().release())
 				.exceptionally(t -> {
 				    getLogger().error("Unable to bootstrap tenant engine.", t);
 				    return null;
 				});
 		    } else {
+			getInitializingTenantEngines().remove(tenantId);
 			getLogger().info("Tenant engine already exists for '" + tenantId + "'.");
 		    }
+		} catch (InterruptedException e) {
+		    getLogger().info("Tenant engine starter shutting down.");
+		    return;
 		} catch (SiteWhereException e) {
 		    getLogger().warn("Exception processing tenant engine.", e);
 		} catch (Throwable e) {
 		    getLogger().warn("Unhandled exception processing tenant engine.", e);
+		} finally {
+		    if (permitHeld) {
+			getTenantOperationPermits().release();
+		    }
 		}
 	    }
 	}
     }
 
+    /** Used for naming tenant starter thread */
+    private class TenantStarterThreadFactory implements ThreadFactory {
+
+	public Thread newThread(Runnable r) {
+	    return new Thread(r, "Tenant Engine Starter");
+	}
+    }
+
     /** Used for naming tenant operation threads */
     private class TenantOperationsThreadFactory implements ThreadFactory {
 
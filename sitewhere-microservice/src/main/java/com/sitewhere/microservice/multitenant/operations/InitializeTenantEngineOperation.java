@@ -14,6 +14,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.curator.framework.CuratorFramework;
 
+import com.codahale.metrics.Timer;
 import com.sitewhere.microservice.multitenant.MultitenantMicroservice;
 import com.sitewhere.server.lifecycle.LifecycleProgressContext;
 import com.sitewhere.server.lifecycle.LifecycleProgressMonitor;
@@ -41,6 +42,9 @@ public class InitializeTenantEngineOperation<I extends IFunctionIdentifier, T ex
     /** Max time to wait for tenant to be bootstrapped from template */
     private static final long MAX_WAIT_FOR_TENANT_BOOTSTRAPPED = 60 * 1000;
 
+    /** Name of timer metric for tenant engine initialization */
+    public static final String TIMER_INITIALIZE = "tenantEngine.initialize";
+
     /** Parent microservice */
     private MultitenantMicroservice<I, T> microservice;
 
@@ -66,6 +70,7 @@ public class InitializeTenantEngineOperation<I extends IFunctionIdentifier, T ex
 	    LOGGER.info("Creating tenant engine for '" + getTenant().getName() + "'...");
 	    created = getMicroservice().createTenantEngine(getTenant());
 	    created.setTenantEngine(created); // Required for nested components.
+	    created.setMicroservice(getMicroservice()); // Required for metrics.
 
 	    // Configuration files must be present before initialization.
 	    LOGGER.info("Verifying tenant '" + getTenant().getName() + "' configuration bootstrapped.");
@@ -76,7 +81,12 @@ public class InitializeTenantEngineOperation<I extends IFunctionIdentifier, T ex
 	    ILifecycleProgressMonitor monitor = new LifecycleProgressMonitor(
 		    new LifecycleProgressContext(1, "Initialize tenant engine."), getMicroservice());
 	    long start = System.currentTimeMillis();
-	    getMicroservice().initializeNestedComponent(created, monitor, true);
+	    Timer.Context timer = created.createTimerMetric(TIMER_INITIALIZE).time();
+	    try {
+		getMicroservice().initializeNestedComponent(created, monitor, true);
+	    } finally {
+		timer.stop();
+	    }
 
 	    // Mark tenant engine as initialized and remove failed engine if present.
 	    getMicroservice().getInitializedTenantEngines().put(getTenant().getId(), created);
@@ -13,6 +13,7 @@ import java.util.concurrent.ExecutorService;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import com.codahale.metrics.Timer;
 import com.sitewhere.server.lifecycle.LifecycleProgressContext;
 import com.sitewhere.server.lifecycle.LifecycleProgressMonitor;
 import com.sitewhere.spi.microservice.multitenant.IMicroserviceTenantEngine;
@@ -32,6 +33,9 @@ public class StartTenantEngineOperation<T extends IMicroserviceTenantEngine>
     /** Static logger instance */
     private static Log LOGGER = LogFactory.getLog(StartTenantEngineOperation.class);
 
+    /** Name of timer metric for tenant engine startup */
+    public static final String TIMER_START = "tenantEngine.start";
+
     /** Tenant engine being started */
     private T tenantEngine;
 
@@ -53,7 +57,12 @@ public class StartTenantEngineOperation<T extends IMicroserviceTenantEngine>
 	    ILifecycleProgressMonitor monitor = new LifecycleProgressMonitor(
 		    new LifecycleProgressContext(1, "Start tenant engine."), getTenantEngine().getMicroservice());
 	    long start = System.currentTimeMillis();
-	    getTenantEngine().lifecycleStart(monitor);
+	    Timer.Context timer = getTenantEngine().createTimerMetric(TIMER_START).time();
+	    try {
+		getTenantEngine().lifecycleStart(monitor);
+	    } finally {
+		timer.stop();
+	    }
 	    if (getTenantEngine().getLifecycleStatus() == LifecycleStatus.LifecycleError) {
 		throw getTenantEngine().getLifecycleError();
 	    }
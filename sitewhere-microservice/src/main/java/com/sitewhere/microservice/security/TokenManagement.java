@@ -44,6 +44,9 @@ public class TokenManagement implements ITokenManagement {
     /** Signature algorithm */
     private SignatureAlgorithm SIGNATURE_ALGORITHM = SignatureAlgorithm.HS512;
 
+    /** Cache of claims for tokens that have already been verified */
+    private VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+
     /*
      * (non-Javadoc)
      * 
@@ -69,8 +72,14 @@ public class TokenManagement implements ITokenManagement {
      * getClaimsForToken(java.lang.String)
      */
     public Claims getClaimsForToken(String token) throws SiteWhereException {
+	Claims cached = getVerifiedTokenCache().get(token);
+	if (cached != null) {
+	    return cached;
+	}
 	try {
-	    return Jwts.parser().setSigningKey(getSecret()).parseClaimsJws(token).getBody();
+	    Claims claims = Jwts.parser().setSigningKey(getSecret()).parseClaimsJws(token).getBody();
+	    getVerifiedTokenCache().put(token, claims);
+	    return claims;
 	} catch (ExpiredJwtException e) {
 	    throw new JwtExpiredException("JWT has expired.", e);
 	} catch (UnsupportedJwtException e) {
@@ -142,5 +151,14 @@ public class TokenManagement implements ITokenManagement {
 
     public void setSecret(String secret) {
 	this.secret = secret;
+	getVerifiedTokenCache().clear();
+    }
+
+    public VerifiedTokenCache getVerifiedTokenCache() {
+	return verifiedTokenCache;
+    }
+
+    public void setVerifiedTokenCache(VerifiedTokenCache verifiedTokenCache) {
+	this.verifiedTokenCache = verifiedTokenCache;
     }
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.microservice.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Size-bounded cache of claims for JWTs whose signature has already been
+ * verified. Entries are keyed by a SHA-256 digest of the token so raw
+ * credentials are not held as map keys, and each entry expires at the
+ * expiration time of its token. When the cache is full, the least recently
+ * used entry is evicted.
+ * 
+ * @author Derek
+ */
+public class VerifiedTokenCache {
+
+    /** Default maximum number of cached tokens */
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    /** Default lifetime for tokens that do not have an expiration claim */
+    public static final long DEFAULT_MAX_LIFETIME_MS = 5 * 60 * 1000;
+
+    /** Prefix for metric names */
+    private static final String METRIC_PREFIX = "security.verifiedTokenCache.";
+
+    /** Cached entries indexed by token digest */
+    private Map<String, Entry> entries;
+
+    /** Maximum number of cached tokens */
+    private int maxEntries;
+
+    /** Lifetime for tokens that do not have an expiration claim */
+    private long maxLifetimeMs = DEFAULT_MAX_LIFETIME_MS;
+
+    /** Counts cache hits */
+    private Counter hits = new Counter();
+
+    /** Counts cache misses */
+    private Counter misses = new Counter();
+
+    /** Counts entries removed due to size limit or expiration */
+    private Counter evictions = new Counter();
+
+    public VerifiedTokenCache() {
+	this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public VerifiedTokenCache(int maxEntries) {
+	this.maxEntries = maxEntries;
+	this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+	    /** Serial version UID */
+	    private static final long serialVersionUID = 5304950163817419021L;
+
+	    /*
+	     * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
+	     */
+	    @Override
+	    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+		if (size() > getMaxEntries()) {
+		    evictions.inc();
+		    return true;
+		}
+		return false;
+	    }
+	};
+    }
+
+    /**
+     * Register cache counters with a metric registry.
+     * 
+     * @param registry
+     */
+    public void registerMetrics(MetricRegistry registry) {
+	registry.register(METRIC_PREFIX + "hits", hits);
+	registry.register(METRIC_PREFIX + "misses", misses);
+	registry.register(METRIC_PREFIX + "evictions", evictions);
+    }
+
+    /**
+     * Get claims for a previously verified token. Returns null if the token has
+     * not been verified or has expired.
+     * 
+     * @param token
+     * @return
+     */
+    public Claims get(String token) {
+	String key = digest(token);
+	long now = System.currentTimeMillis();
+	synchronized (entries) {
+	    Entry entry = entries.get(key);
+	    if (entry != null) {
+		if (entry.getExpiresAt() > now) {
+		    hits.inc();
+		    return entry.getClaims();
+		}
+		entries.remove(key);
+		evictions.inc();
+	    }
+	}
+	misses.inc();
+	return null;
+    }
+
+    /**
+     * Add claims for a token whose signature has been verified.
+     * 
+     * @param token
+     * @param claims
+     */
+    public void put(String token, Claims claims) {
+	long now = System.currentTimeMillis();
+	long expiresAt = (claims.getExpiration() != null) ? claims.getExpiration().getTime() : now + getMaxLifetimeMs();
+	if (expiresAt <= now) {
+	    return;
+	}
+	String key = digest(token);
+	synchronized (entries) {
+	    entries.put(key, new Entry(claims, expiresAt));
+	}
+    }
+
+    /**
+     * Remove all cached tokens.
+     */
+    public void clear() {
+	synchronized (entries) {
+	    entries.clear();
+	}
+    }
+
+    /**
+     * Compute digest used as key for a token.
+     * 
+     * @param token
+     * @return
+     */
+    protected static String digest(String token) {
+	try {
+	    MessageDigest md = MessageDigest.getInstance("SHA-256");
+	    return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+	} catch (NoSuchAlgorithmException e) {
+	    throw new RuntimeException("SHA-256 digest not available.", e);
+	}
+    }
+
+    public int getSize() {
+	synchronized (entries) {
+	    return entries.size();
+	}
+    }
+
+    public int getMaxEntries() {
+	return maxEntries;
+    }
+
+    public long getMaxLifetimeMs() {
+	return maxLifetimeMs;
+    }
+
+    public void setMaxLifetimeMs(long maxLifetimeMs) {
+	this.maxLifetimeMs = maxLifetimeMs;
+    }
+
+    public long getHits() {
+	return hits.getCount();
+    }
+
+    public long getMisses() {
+	return misses.getCount();
+    }
+
+    public long getEvictions() {
+	return evictions.getCount();
+    }
+
+    /**
+     * Verified claims along with the time they expire.
+     * 
+     * @author Derek
+     */
+    private static class Entry {
+
+	/** Verified claims */
+	private Claims claims;
+
+	/** Time at which token expires */
+	private long expiresAt;
+
+	public Entry(Claims claims, long expiresAt) {
+	    this.claims = claims;
+	    this.expiresAt = expiresAt;
+	}
+
+	public Claims getClaims() {
+	    return claims;
+	}
+
+	public long getExpiresAt() {
+	    return expiresAt;
+	}
+    }
+}
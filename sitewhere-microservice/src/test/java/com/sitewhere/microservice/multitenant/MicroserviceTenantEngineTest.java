@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.microservice.multitenant;
+
+import static com.sitewhere.microservice.multitenant.ModuleConfigurationChangesTest.bean;
+import static com.sitewhere.microservice.multitenant.ModuleConfigurationChangesTest.config;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+
+import com.codahale.metrics.Timer;
+import com.sitewhere.rest.model.tenant.Tenant;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.microservice.multitenant.IDatasetTemplate;
+import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
+import com.sitewhere.spi.server.lifecycle.LifecycleStatus;
+
+/**
+ * Tests for applying configuration updates to a running
+ * {@link MicroserviceTenantEngine}.
+ * 
+ * @author Derek
+ */
+public class MicroserviceTenantEngineTest {
+
+    /** Engine under test */
+    private TestTenantEngine engine;
+
+    @Before
+    public void setup() {
+	GenericApplicationContext context = new GenericApplicationContext();
+	new XmlBeanDefinitionReader(context)
+		.loadBeanDefinitions(new ByteArrayResource(config(bean("a", "1"), bean("b", "2"), bean("c", "3"))));
+	context.refresh();
+
+	engine = new TestTenantEngine();
+	engine.setModuleContext(context);
+	engine.setLifecycleStatus(LifecycleStatus.Started);
+    }
+
+    @Test
+    public void testUnchangedConfigurationNotReloaded() {
+	assertTrue(engine.reloadModuleConfiguration(config(bean("a", "1"), bean("b", "2"), bean("c", "3"))));
+	assertNull(engine.getChanges());
+    }
+
+    @Test
+    public void testChangesPassedToReload() {
+	assertTrue(engine.reloadModuleConfiguration(config(bean("a", "1"), bean("b", "20"), bean("d", "4"))));
+	assertEquals(new TreeSet<String>(Arrays.asList("d")), engine.getChanges().getAdded());
+	assertEquals(new TreeSet<String>(Arrays.asList("b")), engine.getChanges().getChanged());
+	assertEquals(new TreeSet<String>(Arrays.asList("c")), engine.getChanges().getRemoved());
+    }
+
+    @Test
+    public void testFailedReloadRequiresRestart() {
+	engine.setReloadResult(false);
+	assertFalse(engine.reloadModuleConfiguration(config(bean("a", "1"), bean("b", "20"), bean("c", "3"))));
+	assertEquals(new TreeSet<String>(Arrays.asList("b")), engine.getChanges().getChanged());
+    }
+
+    @Test
+    public void testStoppedEngineRequiresRestart() {
+	engine.setLifecycleStatus(LifecycleStatus.Stopped);
+	assertFalse(engine.reloadModuleConfiguration(config(bean("a", "1"), bean("b", "20"), bean("c", "3"))));
+	assertNull(engine.getChanges());
+    }
+
+    @Test
+    public void testInvalidConfigurationRequiresRestart() {
+	assertFalse(engine.reloadModuleConfiguration("<beans".getBytes()));
+	assertNull(engine.getChanges());
+    }
+
+    /**
+     * Engine that records the changes it is asked to apply.
+     * 
+     * @author Derek
+     */
+    private static class TestTenantEngine extends MicroserviceTenantEngine {
+
+	/** Changes passed to last reload */
+	private ModuleConfigurationChanges changes;
+
+	/** Result returned from reload */
+	private boolean reloadResult = true;
+
+	public TestTenantEngine() {
+	    super(new Tenant());
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.multitenant.MicroserviceTenantEngine#
+	 * tenantReload(com.sitewhere.microservice.multitenant.
+	 * ModuleConfigurationChanges,
+	 * com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor)
+	 */
+	@Override
+	protected boolean tenantReload(ModuleConfigurationChanges changes, ILifecycleProgressMonitor monitor)
+		throws SiteWhereException {
+	    this.changes = changes;
+	    return reloadResult;
+	}
+
+	/*
+	 * @see com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent#
+	 * createTimerMetric(java.lang.String)
+	 */
+	@Override
+	public Timer createTimerMetric(String name) {
+	    return new Timer();
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.multitenant.MicroserviceTenantEngine#
+	 * lifecycleStatusChanged(com.sitewhere.spi.server.lifecycle.LifecycleStatus,
+	 * com.sitewhere.spi.server.lifecycle.LifecycleStatus)
+	 */
+	@Override
+	public void lifecycleStatusChanged(LifecycleStatus before, LifecycleStatus after) {
+	}
+
+	@Override
+	public void tenantInitialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	}
+
+	@Override
+	public void tenantStart(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	}
+
+	@Override
+	public void tenantBootstrap(IDatasetTemplate template, ILifecycleProgressMonitor monitor)
+		throws SiteWhereException {
+	}
+
+	@Override
+	public void tenantStop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	}
+
+	public ModuleConfigurationChanges getChanges() {
+	    return changes;
+	}
+
+	public void setReloadResult(boolean reloadResult) {
+	    this.reloadResult = reloadResult;
+	}
+    }
+}
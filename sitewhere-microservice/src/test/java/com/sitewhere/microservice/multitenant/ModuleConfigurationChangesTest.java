@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.microservice.multitenant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.util.StringValueResolver;
+
+import com.sitewhere.configuration.ConfigurationUtils;
+import com.sitewhere.spi.SiteWhereException;
+
+/**
+ * Tests for comparing module configurations.
+ * 
+ * @author Derek
+ */
+public class ModuleConfigurationChangesTest {
+
+    @Test
+    public void testIdenticalConfigurationHasNoChanges() throws SiteWhereException {
+	DefaultListableBeanFactory current = parse(bean("a", "1"), bean("b", "2"));
+	ModuleConfigurationChanges changes = ModuleConfigurationChanges.compute(current,
+		ConfigurationUtils.parseBeanDefinitions(config("  " + bean("a", "1"), "\n" + bean("b", "2"))));
+	assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void testAddedChangedAndRemovedBeans() throws SiteWhereException {
+	DefaultListableBeanFactory current = parse(bean("a", "1"), bean("b", "2"), bean("c", "3"));
+	ModuleConfigurationChanges changes = ModuleConfigurationChanges.compute(current,
+		ConfigurationUtils.parseBeanDefinitions(config(bean("a", "1"), bean("b", "20"), bean("d", "4"))));
+	assertEquals(new TreeSet<String>(Arrays.asList("d")), changes.getAdded());
+	assertEquals(new TreeSet<String>(Arrays.asList("b")), changes.getChanged());
+	assertEquals(new TreeSet<String>(Arrays.asList("c")), changes.getRemoved());
+    }
+
+    @Test
+    public void testPlaceholdersResolvedBeforeCompare() throws SiteWhereException {
+	DefaultListableBeanFactory current = parse(bean("a", "1"), bean("b", "2"));
+	current.addEmbeddedValueResolver(new StringValueResolver() {
+
+	    @Override
+	    public String resolveStringValue(String value) {
+		return value.replace("${value}", "2");
+	    }
+	});
+	ModuleConfigurationChanges changes = ModuleConfigurationChanges.compute(current,
+		ConfigurationUtils.parseBeanDefinitions(config(bean("a", "1"), bean("b", "${value}"))));
+	assertTrue(changes.isEmpty());
+	assertEquals(Collections.<String> emptySet(), changes.getChanged());
+    }
+
+    /**
+     * Parse definitions for the running context.
+     * 
+     * @param beans
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static DefaultListableBeanFactory parse(String... beans) throws SiteWhereException {
+	return (DefaultListableBeanFactory) ConfigurationUtils.parseBeanDefinitions(config(beans));
+    }
+
+    /**
+     * Build XML for a single bean.
+     * 
+     * @param id
+     * @param value
+     * @return
+     */
+    protected static String bean(String id, String value) {
+	return "<bean id=\"" + id + "\" class=\"java.lang.StringBuilder\"><constructor-arg value=\"" + value
+		+ "\"/></bean>";
+    }
+
+    /**
+     * Build module configuration XML containing the given beans.
+     * 
+     * @param beans
+     * @return
+     */
+    protected static byte[] config(String... beans) {
+	StringBuilder xml = new StringBuilder();
+	xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+	xml.append("<beans xmlns=\"http://www.springframework.org/schema/beans\"");
+	xml.append(" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"");
+	xml.append(" xsi:schemaLocation=\"http://www.springframework.org/schema/beans");
+	xml.append(" http://www.springframework.org/schema/beans/spring-beans.xsd\">\n");
+	for (String bean : beans) {
+	    xml.append(bean).append("\n");
+	}
+	xml.append("</beans>\n");
+	return xml.toString().getBytes();
+    }
+}
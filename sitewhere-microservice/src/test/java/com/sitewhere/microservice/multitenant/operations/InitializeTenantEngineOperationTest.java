@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.microservice.multitenant.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sitewhere.microservice.instance.InstanceSettings;
+import com.sitewhere.microservice.multitenant.MicroserviceTenantEngine;
+import com.sitewhere.microservice.multitenant.MultitenantMicroservice;
+import com.sitewhere.rest.model.configuration.ConfigurationModel;
+import com.sitewhere.rest.model.configuration.ElementNode;
+import com.sitewhere.rest.model.configuration.ElementRole;
+import com.sitewhere.rest.model.tenant.Tenant;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.microservice.MicroserviceIdentifier;
+import com.sitewhere.spi.microservice.configuration.model.IConfigurationModel;
+import com.sitewhere.spi.microservice.configuration.model.IElementNode;
+import com.sitewhere.spi.microservice.multitenant.IDatasetTemplate;
+import com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor;
+import com.sitewhere.spi.server.lifecycle.LifecycleStatus;
+import com.sitewhere.spi.tenant.ITenant;
+
+import io.opentracing.Tracer;
+
+/**
+ * Tests for initializing a tenant engine through
+ * {@link InitializeTenantEngineOperation}. The engine uses the metrics support
+ * inherited from its base class so that initialization fails if the engine is
+ * not wired to the microservice before metrics are created.
+ * 
+ * @author Derek
+ */
+public class InitializeTenantEngineOperationTest {
+
+    /** Root role used by the configuration model */
+    private static final String ROOT_ROLE = "root";
+
+    /** Microservice that hosts the engine */
+    private TestMicroservice microservice;
+
+    /** Tenant being initialized */
+    private Tenant tenant;
+
+    @Before
+    public void setup() {
+	InstanceSettings settings = new InstanceSettings();
+	settings.setInstanceId("test");
+
+	microservice = new TestMicroservice();
+	microservice.setInstanceSettings(settings);
+	microservice.setTracer(stub(Tracer.class));
+
+	tenant = new Tenant();
+	tenant.setId(UUID.randomUUID());
+	tenant.setToken("tenant");
+	tenant.setName("Tenant");
+    }
+
+    @Test
+    public void testEngineInitialized() throws Exception {
+	CompletableFuture<TestTenantEngine> future = new CompletableFuture<>();
+	TestTenantEngine engine = new TestOperation(microservice, tenant, future).call();
+
+	assertTrue(engine.isInitialized());
+	assertSame(microservice, engine.getMicroservice());
+	assertEquals(LifecycleStatus.Stopped, engine.getLifecycleStatus());
+	assertSame(engine, future.get());
+	assertSame(engine, microservice.getInitializedTenantEngines().get(tenant.getId()));
+	assertFalse(microservice.getFailedTenantEngines().containsKey(tenant.getId()));
+	assertEquals(1, microservice.getMetricRegistry()
+		.timer("test." + MicroserviceIdentifier.DeviceState.getPath() + ".tenant."
+			+ InitializeTenantEngineOperation.TIMER_INITIALIZE)
+		.getCount());
+    }
+
+    /**
+     * Create a stub for an interface. Methods that return interfaces return
+     * further stubs so that call chains do not fail.
+     * 
+     * @param type
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T> T stub(Class<T> type) {
+	return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+
+	    @Override
+	    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		Class<?> result = method.getReturnType();
+		if (result.isInterface()) {
+		    return stub(result);
+		} else if (result == boolean.class) {
+		    return false;
+		}
+		return null;
+	    }
+	});
+    }
+
+    /**
+     * Operation that does not wait for tenant configuration in Zookeeper.
+     * 
+     * @author Derek
+     */
+    private static class TestOperation
+	    extends InitializeTenantEngineOperation<MicroserviceIdentifier, TestTenantEngine> {
+
+	public TestOperation(MultitenantMicroservice<MicroserviceIdentifier, TestTenantEngine> microservice,
+		ITenant tenant, CompletableFuture<TestTenantEngine> completableFuture) {
+	    super(microservice, tenant, completableFuture);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.multitenant.operations.
+	 * InitializeTenantEngineOperation#waitForTenantConfigurationBootstrapped()
+	 */
+	@Override
+	protected void waitForTenantConfigurationBootstrapped() throws SiteWhereException {
+	}
+    }
+
+    /**
+     * Microservice with a minimal configuration model.
+     * 
+     * @author Derek
+     */
+    private static class TestMicroservice extends MultitenantMicroservice<MicroserviceIdentifier, TestTenantEngine> {
+
+	@Override
+	public String getName() {
+	    return "Test";
+	}
+
+	@Override
+	public MicroserviceIdentifier getIdentifier() {
+	    return MicroserviceIdentifier.DeviceState;
+	}
+
+	@Override
+	public boolean isGlobal() {
+	    return false;
+	}
+
+	@Override
+	public IConfigurationModel buildConfigurationModel() {
+	    ElementNode root = new ElementNode();
+	    root.setName("Test");
+	    root.setRole(ROOT_ROLE);
+	    List<IElementNode> roots = new ArrayList<IElementNode>();
+	    roots.add(root);
+
+	    ConfigurationModel model = new ConfigurationModel();
+	    model.setRootRoleId(ROOT_ROLE);
+	    model.getRolesById().put(ROOT_ROLE, new ElementRole());
+	    model.getElementsByRole().put(ROOT_ROLE, roots);
+	    return model;
+	}
+
+	@Override
+	public TestTenantEngine createTenantEngine(ITenant tenant) throws SiteWhereException {
+	    return new TestTenantEngine(tenant);
+	}
+    }
+
+    /**
+     * Engine that records initialization without loading configuration.
+     * 
+     * @author Derek
+     */
+    private static class TestTenantEngine extends MicroserviceTenantEngine {
+
+	/** Indicates engine was initialized */
+	private boolean initialized;
+
+	public TestTenantEngine(ITenant tenant) {
+	    super(tenant);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.multitenant.MicroserviceTenantEngine#
+	 * initialize(com.sitewhere.spi.server.lifecycle.ILifecycleProgressMonitor)
+	 */
+	@Override
+	public void initialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	    tenantInitialize(monitor);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.multitenant.MicroserviceTenantEngine#
+	 * lifecycleStatusChanged(com.sitewhere.spi.server.lifecycle.LifecycleStatus,
+	 * com.sitewhere.spi.server.lifecycle.LifecycleStatus)
+	 */
+	@Override
+	public void lifecycleStatusChanged(LifecycleStatus before, LifecycleStatus after) {
+	}
+
+	@Override
+	public void tenantInitialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	    this.initialized = true;
+	}
+
+	@Override
+	public void tenantStart(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	}
+
+	@Override
+	public void tenantBootstrap(IDatasetTemplate template, ILifecycleProgressMonitor monitor)
+		throws SiteWhereException {
+	}
+
+	@Override
+	public void tenantStop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	}
+
+	public boolean isInitialized() {
+	    return initialized;
+	}
+    }
+}
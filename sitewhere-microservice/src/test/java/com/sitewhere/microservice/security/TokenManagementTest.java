@@ -8,6 +8,7 @@
 package com.sitewhere.microservice.security;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.util.Arrays;
 import java.util.List;
@@ -17,6 +18,8 @@ import org.junit.Test;
 import com.sitewhere.rest.model.user.User;
 import com.sitewhere.spi.SiteWhereException;
 
+import io.jsonwebtoken.Claims;
+
 public class TokenManagementTest {
 
     /** Username */
@@ -35,4 +38,18 @@ public class TokenManagementTest {
 	String username = tokens.getUsernameFromToken(token);
 	assertEquals(username, USERNAME);
     }
+
+    @Test
+    public void testVerifiedTokenCached() throws SiteWhereException {
+	TokenManagement tokens = new TokenManagement();
+	User user = new User();
+	user.setUsername(USERNAME);
+	user.setAuthorities(AUTHS);
+	String token = tokens.generateToken(user, 60);
+	Claims first = tokens.getClaimsForToken(token);
+	Claims second = tokens.getClaimsForToken(token);
+	assertSame(first, second);
+	assertEquals(1, tokens.getVerifiedTokenCache().getHits());
+	assertEquals(1, tokens.getVerifiedTokenCache().getSize());
+    }
 }
\ No newline at end of file
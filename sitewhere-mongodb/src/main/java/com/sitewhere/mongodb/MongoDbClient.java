@@ -138,6 +138,13 @@ public abstract class MongoDbClient extends TenantEngineLifecycleComponent
 
 	    // Force interaction to test connectivity.
 	    getDatabase().listCollectionNames();
+
+	    // Publish query profiler metrics with microservice metrics.
+	    if (getMicroservice() != null) {
+		MongoQueryProfiler profiler = MongoQueryProfiler.getInstance();
+		profiler.setSlowQueryThreshold(getMicroservice().getInstanceSettings().getMongoSlowQueryThresholdMs());
+		profiler.setMetricRegistry(getMicroservice().getMetricRegistry());
+	    }
 	} catch (MongoTimeoutException e) {
 	    throw new SiteWhereException(
 		    "Timed out connecting to MongoDB instance. " + "Verify that MongoDB is running on "
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.mongodb;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.MongoException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+import com.sitewhere.spi.SiteWhereException;
+
+/**
+ * Declares the indexes a persistence implementation expects for its
+ * collections. When reconciled, missing indexes are created in a single
+ * request per collection and indexes that are not in the catalog are reported
+ * so that unused indexes can be cleaned up. Indexes whose options no longer
+ * match the catalog are reported unless rebuilding them has been explicitly
+ * enabled, since rebuilding a large index is expensive. Indexes declared as
+ * optional are created separately and a failure to create them is logged
+ * rather than failing reconciliation.
+ * 
+ * @author Derek
+ */
+public class MongoIndexCatalog {
+
+    /** Static logger instance */
+    private static Logger LOGGER = LoggerFactory.getLogger(MongoIndexCatalog.class);
+
+    /** Name of id field */
+    private static final String ID_FIELD = "_id";
+
+    /** Name of index MongoDB creates for the id field */
+    private static final String ID_INDEX_NAME = "_id_";
+
+    /** Suffix for temporary index that covers queries while an index is rebuilt */
+    private static final String REBUILD_INDEX_SUFFIX = "_rebuild";
+
+    /** Index entries grouped by collection */
+    private Map<MongoNamespace, List<Entry>> entries = new LinkedHashMap<MongoNamespace, List<Entry>>();
+
+    /** Indicates whether indexes with mismatched options are rebuilt */
+    private boolean rebuildMismatched;
+
+    public MongoIndexCatalog() {
+	this(false);
+    }
+
+    public MongoIndexCatalog(boolean rebuildMismatched) {
+	this.rebuildMismatched = rebuildMismatched;
+    }
+
+    /**
+     * Declare an index.
+     * 
+     * @param collection
+     * @param keys
+     * @return
+     */
+    public MongoIndexCatalog index(MongoCollection<Document> collection, Bson keys) {
+	return index(collection, keys, new IndexOptions());
+    }
+
+    /**
+     * Declare a unique index.
+     * 
+     * @param collection
+     * @param keys
+     * @return
+     */
+    public MongoIndexCatalog unique(MongoCollection<Document> collection, Bson keys) {
+	return index(collection, keys, new IndexOptions().unique(true));
+    }
+
+    /**
+     * Declare an index with the given options.
+     * 
+     * @param collection
+     * @param keys
+     * @param options
+     * @return
+     */
+    public MongoIndexCatalog index(MongoCollection<Document> collection, Bson keys, IndexOptions options) {
+	return add(new Entry(collection, keys, options, false));
+    }
+
+    /**
+     * Declare an index that is not required for startup. Data that can not be
+     * indexed (for instance invalid coordinates for a geospatial index) causes
+     * an error to be logged without preventing other indexes from being created.
+     * 
+     * @param collection
+     * @param keys
+     * @return
+     */
+    public MongoIndexCatalog optional(MongoCollection<Document> collection, Bson keys) {
+	return add(new Entry(collection, keys, new IndexOptions(), true));
+    }
+
+    /**
+     * Add an entry to the catalog.
+     * 
+     * @param entry
+     * @return
+     */
+    protected MongoIndexCatalog add(Entry entry) {
+	MongoNamespace namespace = entry.getCollection().getNamespace();
+	List<Entry> existing = getEntries().get(namespace);
+	if (existing == null) {
+	    existing = new ArrayList<Entry>();
+	    getEntries().put(namespace, existing);
+	}
+	existing.add(entry);
+	return this;
+    }
+
+    /**
+     * Make the indexes on each collection match the catalog. Collections are
+     * processed independently so that a failure on one does not prevent indexes
+     * from being created on the others.
+     * 
+     * @throws SiteWhereException
+     */
+    public void reconcile() throws SiteWhereException {
+	List<MongoNamespace> failed = new ArrayList<MongoNamespace>();
+	for (List<Entry> collectionEntries : getEntries().values()) {
+	    MongoCollection<Document> collection = collectionEntries.get(0).getCollection();
+	    try {
+		reconcile(collection, collectionEntries);
+	    } catch (MongoException e) {
+		LOGGER.error("Unable to reconcile indexes for " + collection.getNamespace() + ".", e);
+		failed.add(collection.getNamespace());
+	    }
+	}
+	if (!failed.isEmpty()) {
+	    throw new SiteWhereException("Unable to reconcile MongoDB indexes for " + failed + ".");
+	}
+    }
+
+    /**
+     * Reconcile indexes for a single collection.
+     * 
+     * @param collection
+     * @param collectionEntries
+     */
+    protected void reconcile(MongoCollection<Document> collection, List<Entry> collectionEntries) {
+	Map<String, Document> existing = new HashMap<String, Document>();
+	for (Document index : collection.listIndexes()) {
+	    existing.put(getKeySignature(collection, (Document) index.get("key")), index);
+	}
+
+	List<IndexModel> missing = new ArrayList<IndexModel>();
+	List<Entry> missingOptional = new ArrayList<Entry>();
+	for (Entry entry : collectionEntries) {
+	    String signature = getKeySignature(collection, entry.getKeys());
+	    Document current = existing.remove(signature);
+	    if ((current == null) && entry.isOptional()) {
+		missingOptional.add(entry);
+	    } else if (current == null) {
+		missing.add(new IndexModel(entry.getKeys(), entry.getOptions()));
+	    } else if (!isMatchingOptions(current, entry.getOptions())) {
+		if (isRebuildMismatched()) {
+		    rebuild(collection, current.getString("name"), entry);
+		} else {
+		    LOGGER.warn("Options for index '" + current.getString("name") + "' on " + collection.getNamespace()
+			    + " do not match the index catalog. Enable index rebuilding to recreate it.");
+		}
+	    }
+	}
+	if (!missing.isEmpty()) {
+	    long start = System.currentTimeMillis();
+	    List<String> created = collection.createIndexes(missing);
+	    LOGGER.info("Created indexes " + created + " on " + collection.getNamespace() + " in "
+		    + (System.currentTimeMillis() - start) + " ms.");
+	}
+	for (Entry entry : missingOptional) {
+	    createOptional(collection, entry);
+	}
+	for (Document unknown : existing.values()) {
+	    if (!ID_INDEX_NAME.equals(unknown.getString("name"))) {
+		LOGGER.info("Index '" + unknown.getString("name") + "' on " + collection.getNamespace()
+			+ " is not declared in the index catalog.");
+	    }
+	}
+    }
+
+    /**
+     * Create an optional index. Failures are logged since queries that do not
+     * depend on the index are unaffected.
+     * 
+     * @param collection
+     * @param entry
+     */
+    protected void createOptional(MongoCollection<Document> collection, Entry entry) {
+	String signature = getKeySignature(collection, entry.getKeys());
+	try {
+	    long start = System.currentTimeMillis();
+	    String created = collection.createIndex(entry.getKeys(), entry.getOptions());
+	    LOGGER.info("Created index '" + created + "' on " + collection.getNamespace() + " in "
+		    + (System.currentTimeMillis() - start) + " ms.");
+	} catch (MongoException e) {
+	    LOGGER.error("Unable to create optional index [" + signature + "] on " + collection.getNamespace()
+		    + ". Queries that require it will fail until existing data can be indexed.", e);
+	}
+    }
+
+    /**
+     * Rebuild an index whose options do not match the catalog. MongoDB does not
+     * allow two indexes with the same keys, so a temporary index on the same keys
+     * plus the id is created first to keep queries covered while the existing
+     * index is dropped and recreated. If recreating fails, the temporary index is
+     * left in place.
+     * 
+     * @param collection
+     * @param name
+     * @param entry
+     */
+    protected void rebuild(MongoCollection<Document> collection, String name, Entry entry) {
+	LOGGER.warn("Rebuilding index '" + name + "' on " + collection.getNamespace()
+		+ " since its options do not match the index catalog.");
+	long start = System.currentTimeMillis();
+	String temporary = name + REBUILD_INDEX_SUFFIX;
+	BsonDocument temporaryKeys = entry.getKeys().toBsonDocument(Document.class, collection.getCodecRegistry())
+		.clone();
+	boolean covered = !temporaryKeys.containsKey(ID_FIELD);
+	if (covered) {
+	    temporaryKeys.append(ID_FIELD, new BsonInt32(1));
+	    collection.createIndex(temporaryKeys, new IndexOptions().name(temporary));
+	}
+	collection.dropIndex(name);
+	collection.createIndex(entry.getKeys(), entry.getOptions());
+	if (covered) {
+	    collection.dropIndex(temporary);
+	}
+	LOGGER.info("Rebuilt index '" + name + "' on " + collection.getNamespace() + " in "
+		+ (System.currentTimeMillis() - start) + " ms.");
+    }
+
+    /**
+     * Indicates whether options of an existing index match the catalog.
+     * 
+     * @param index
+     * @param options
+     * @return
+     */
+    protected boolean isMatchingOptions(Document index, IndexOptions options) {
+	return (index.getBoolean("unique", false) == options.isUnique())
+		&& (index.getBoolean("sparse", false) == options.isSparse());
+    }
+
+    /**
+     * Get a signature for index keys that ignores how the key direction was
+     * encoded (for instance 1 vs 1.0).
+     * 
+     * @param collection
+     * @param keys
+     * @return
+     */
+    protected String getKeySignature(MongoCollection<Document> collection, Bson keys) {
+	BsonDocument document = keys.toBsonDocument(Document.class, collection.getCodecRegistry());
+	StringBuilder signature = new StringBuilder();
+	for (Map.Entry<String, BsonValue> key : document.entrySet()) {
+	    BsonValue value = key.getValue();
+	    signature.append(key.getKey()).append(':');
+	    signature.append(value.isNumber() ? String.valueOf(value.asNumber().intValue()) : value.toString());
+	    signature.append(',');
+	}
+	return signature.toString();
+    }
+
+    public Map<MongoNamespace, List<Entry>> getEntries() {
+	return entries;
+    }
+
+    public boolean isRebuildMismatched() {
+	return rebuildMismatched;
+    }
+
+    /**
+     * Single index declared in the catalog.
+     * 
+     * @author Derek
+     */
+    public static class Entry {
+
+	/** Collection index applies to */
+	private MongoCollection<Document> collection;
+
+	/** Index keys */
+	private Bson keys;
+
+	/** Index options */
+	private IndexOptions options;
+
+	/** Indicates whether failure to create the index is tolerated */
+	private boolean optional;
+
+	public Entry(MongoCollection<Document> collection, Bson keys, IndexOptions options, boolean optional) {
+	    this.collection = collection;
+	    this.keys = keys;
+	    this.options = options;
+	    this.optional = optional;
+	}
+
+	public MongoCollection<Document> getCollection() {
+	    return collection;
+	}
+
+	public Bson getKeys() {
+	    return keys;
+	}
+
+	public IndexOptions getOptions() {
+	    return options;
+	}
+
+	public boolean isOptional() {
+	    return optional;
+	}
+    }
+}
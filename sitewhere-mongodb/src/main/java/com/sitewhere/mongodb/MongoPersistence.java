@@ -8,27 +8,35 @@
 package com.sitewhere.mongodb;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.mongodb.BulkWriteError;
 import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClientException;
 import com.mongodb.MongoCommandException;
 import com.mongodb.MongoTimeoutException;
 import com.mongodb.MongoWriteException;
+import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.result.DeleteResult;
 import com.sitewhere.rest.model.search.SearchResults;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.error.ErrorCode;
 import com.sitewhere.spi.error.ResourceExistsException;
 import com.sitewhere.spi.search.IDateRangeSearchCriteria;
+import com.sitewhere.spi.search.IProximitySearchCriteria;
 import com.sitewhere.spi.search.ISearchCriteria;
 
 /**
@@ -41,6 +49,12 @@ public class MongoPersistence {
     /** Static logger instance */
     private static Logger LOGGER = LoggerFactory.getLogger(MongoPersistence.class);
 
+    /** Field that holds calculated distance in proximity searches */
+    private static final String DISTANCE_FIELD = "_distance";
+
+    /** Earth radius in meters used to convert distances to radians */
+    private static final double EARTH_RADIUS_METERS = 6378100;
+
     /**
      * Common handler for creating new objects. Assures that errors are handled in a
      * consistent way.
@@ -66,6 +80,47 @@ public class MongoPersistence {
 	}
     }
 
+    /**
+     * Common handler for creating a batch of new objects. Documents are written
+     * with an unordered insert so that one failure does not prevent the remaining
+     * documents from being written. Failures are returned indexed by the position
+     * of the document in the list.
+     * 
+     * @param collection
+     * @param objects
+     * @param ifDuplicate
+     * @return
+     * @throws SiteWhereException
+     */
+    public static Map<Integer, SiteWhereException> insertMany(MongoCollection<Document> collection,
+	    List<Document> objects, ErrorCode ifDuplicate) throws SiteWhereException {
+	Map<Integer, SiteWhereException> failures = new HashMap<Integer, SiteWhereException>();
+	if (objects.isEmpty()) {
+	    return failures;
+	}
+	try {
+	    long start = System.currentTimeMillis();
+	    collection.insertMany(objects, new InsertManyOptions().ordered(false));
+	    LOGGER.debug("Insert of " + objects.size() + " documents took " + (System.currentTimeMillis() - start)
+		    + " ms.");
+	} catch (MongoBulkWriteException e) {
+	    if (e.getWriteConcernError() != null) {
+		throw new SiteWhereException("Error during MongoDB bulk insert.", e);
+	    }
+	    for (BulkWriteError error : e.getWriteErrors()) {
+		if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+		    failures.put(error.getIndex(), new ResourceExistsException(ifDuplicate));
+		} else {
+		    failures.put(error.getIndex(),
+			    new SiteWhereException("Error during MongoDB insert. " + error.getMessage()));
+		}
+	    }
+	} catch (MongoClientException e) {
+	    throw handleClientException(e);
+	}
+	return failures;
+    }
+
     /**
      * Common handler for updating existing objects. Assures that errors are handled
      * in a consistent way.
@@ -159,13 +214,11 @@ public class MongoPersistence {
 	    MongoCursor<Document> cursor = found.iterator();
 	    LOGGER.debug("Executing search query " + query.toJson() + " with sort " + sort.toJson() + " on collection "
 		    + collection.getNamespace());
-	    LOGGER.debug("Search took " + (System.currentTimeMillis() - start) + " ms.");
 
 	    List<T> matches = new ArrayList<T>();
 	    SearchResults<T> results = new SearchResults<T>(matches);
 	    MongoConverter<T> converter = lookup.getConverterFor(api);
 	    try {
-		results.setNumResults(collection.count(query));
 		while (cursor.hasNext()) {
 		    Document match = cursor.next();
 		    matches.add(converter.convert(match));
@@ -173,12 +226,117 @@ public class MongoPersistence {
 	    } finally {
 		cursor.close();
 	    }
+	    profile(collection, "search", query, sort, start);
+
+	    long countStart = System.currentTimeMillis();
+	    results.setNumResults(collection.count(query));
+	    profile(collection, "count", query, null, countStart);
+	    return results;
+	} catch (MongoClientException e) {
+	    throw handleClientException(e);
+	}
+    }
+
+    /**
+     * Search for documents with a location within a distance of a point. Results
+     * are ordered nearest first, with documents at the same distance ordered by
+     * the provided sort. The location field must have a 2dsphere index.
+     * 
+     * @param api
+     * @param collection
+     * @param locationField
+     * @param query
+     * @param sort
+     * @param criteria
+     * @param lookup
+     * @return
+     * @throws SiteWhereException
+     */
+    public static <T> SearchResults<T> searchNear(Class<T> api, MongoCollection<Document> collection,
+	    String locationField, Document query, Document sort, IProximitySearchCriteria criteria,
+	    IMongoConverterLookup lookup) throws SiteWhereException {
+	if ((criteria.getLatitude() == null) || (criteria.getLongitude() == null)
+		|| (criteria.getMaxDistance() == null)) {
+	    throw new SiteWhereException("Proximity search requires latitude, longitude and maximum distance.");
+	}
+	try {
+	    int offset = 0;
+	    int limit = Integer.MAX_VALUE;
+	    if (criteria.getPageSize() > 0) {
+		offset = Math.max(0, criteria.getPageNumber() - 1) * criteria.getPageSize();
+		limit = criteria.getPageSize();
+	    }
+
+	    // Stage limit includes skipped documents since paging is applied after sort.
+	    Document point = new Document("type", "Point").append("coordinates",
+		    Arrays.asList(criteria.getLongitude(), criteria.getLatitude()));
+	    Document geoNear = new Document("near", point).append("distanceField", DISTANCE_FIELD)
+		    .append("spherical", true).append("maxDistance", criteria.getMaxDistance()).append("query", query)
+		    .append("num", (int) Math.min((long) offset + limit, Integer.MAX_VALUE));
+	    if (criteria.getMinDistance() != null) {
+		geoNear.append("minDistance", criteria.getMinDistance());
+	    }
+	    Document order = new Document(DISTANCE_FIELD, 1);
+	    order.putAll(sort);
+	    List<Document> pipeline = new ArrayList<Document>();
+	    pipeline.add(new Document("$geoNear", geoNear));
+	    pipeline.add(new Document("$sort", order));
+	    pipeline.add(new Document("$skip", offset));
+	    pipeline.add(new Document("$limit", limit));
+
+	    long start = System.currentTimeMillis();
+	    AggregateIterable<Document> found = collection.aggregate(pipeline).allowDiskUse(true);
+	    MongoCursor<Document> cursor = found.iterator();
+
+	    List<T> matches = new ArrayList<T>();
+	    SearchResults<T> results = new SearchResults<T>(matches);
+	    MongoConverter<T> converter = lookup.getConverterFor(api);
+	    try {
+		while (cursor.hasNext()) {
+		    Document match = cursor.next();
+		    matches.add(converter.convert(match));
+		}
+	    } finally {
+		cursor.close();
+	    }
+	    profile(collection, "searchNear", geoNear, order, start);
+
+	    // Aggregation can not count past the page, so count matches within the circle.
+	    List<Document> clauses = new ArrayList<Document>();
+	    clauses.add(query);
+	    clauses.add(createWithinClause(locationField, criteria, criteria.getMaxDistance()));
+	    if (criteria.getMinDistance() != null) {
+		clauses.add(new Document("$nor",
+			Arrays.asList(createWithinClause(locationField, criteria, criteria.getMinDistance()))));
+	    }
+	    Document countQuery = new Document("$and", clauses);
+	    long countStart = System.currentTimeMillis();
+	    results.setNumResults(collection.count(countQuery));
+	    profile(collection, "count", countQuery, null, countStart);
 	    return results;
 	} catch (MongoClientException e) {
 	    throw handleClientException(e);
+	} catch (MongoCommandException e) {
+	    throw new SiteWhereException("Proximity search failed. Verify that a 2dsphere index exists.", e);
 	}
     }
 
+    /**
+     * Create a clause that matches locations within a distance of the search
+     * point.
+     * 
+     * @param locationField
+     * @param criteria
+     * @param distance
+     * @return
+     */
+    protected static Document createWithinClause(String locationField, IProximitySearchCriteria criteria,
+	    double distance) {
+	List<Object> center = Arrays.asList(Arrays.asList(criteria.getLongitude(), criteria.getLatitude()),
+		distance / EARTH_RADIUS_METERS);
+	return new Document(locationField, new Document("$geoWithin", new Document("$centerSphere", center)));
+    }
+
     /**
      * Search the given collection using the provided query and sort.
      * 
@@ -196,13 +354,11 @@ public class MongoPersistence {
 	    long start = System.currentTimeMillis();
 	    FindIterable<Document> found = collection.find(query).sort(sort);
 	    MongoCursor<Document> cursor = found.iterator();
-	    LOGGER.debug("Search took " + (System.currentTimeMillis() - start) + " ms.");
 
 	    List<T> matches = new ArrayList<T>();
 	    SearchResults<T> results = new SearchResults<T>(matches);
 	    MongoConverter<T> converter = lookup.getConverterFor(api);
 	    try {
-		results.setNumResults(collection.count(query));
 		while (cursor.hasNext()) {
 		    Document match = cursor.next();
 		    matches.add(converter.convert(match));
@@ -210,6 +366,8 @@ public class MongoPersistence {
 	    } finally {
 		cursor.close();
 	    }
+	    results.setNumResults(matches.size());
+	    profile(collection, "search", query, sort, start);
 	    return results;
 	} catch (MongoTimeoutException e) {
 	    throw new SiteWhereException("Connection to MongoDB lost.", e);
@@ -233,7 +391,6 @@ public class MongoPersistence {
 	    long start = System.currentTimeMillis();
 	    FindIterable<Document> found = collection.find(query);
 	    MongoCursor<Document> cursor = found.iterator();
-	    LOGGER.debug("List took " + (System.currentTimeMillis() - start) + " ms.");
 
 	    List<T> matches = new ArrayList<T>();
 	    MongoConverter<T> converter = lookup.getConverterFor(api);
@@ -245,12 +402,29 @@ public class MongoPersistence {
 	    } finally {
 		cursor.close();
 	    }
+	    profile(collection, "list", query, null, start);
 	    return matches;
 	} catch (MongoClientException e) {
 	    throw handleClientException(e);
 	}
     }
 
+    /**
+     * Record query timing with the query profiler.
+     * 
+     * @param collection
+     * @param operation
+     * @param query
+     * @param sort
+     * @param start
+     */
+    protected static void profile(MongoCollection<Document> collection, String operation, Document query,
+	    Document sort, long start) {
+	long elapsed = System.currentTimeMillis() - start;
+	LOGGER.debug(operation + " on " + collection.getNamespace() + " took " + elapsed + " ms.");
+	MongoQueryProfiler.getInstance().record(collection, operation, query, sort, elapsed);
+    }
+
     /**
      * Appends filter criteria onto exiting query based on the given date range.
      * 
@@ -0,0 +1,397 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.mongodb;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+
+/**
+ * Records timing for MongoDB queries and keeps statistics for query shapes
+ * that exceed the slow query threshold. The first time a shape is seen to be
+ * slow, its plan is captured with explain on a background thread so that
+ * queries answered by a collection scan can be found before they become a
+ * problem. Timers and meters are published to the microservice metric
+ * registry once one has been assigned, along with gauges for each collection
+ * that has slow queries:
+ * <ul>
+ * <li><code>mongodb.[namespace].slowQueryShapes</code> - number of slow query
+ * shapes</li>
+ * <li><code>mongodb.[namespace].collectionScanShapes</code> - number of those
+ * answered by a collection scan</li>
+ * <li><code>mongodb.[namespace].collectionScanQueries</code> - query, sort and
+ * winning plan for each of them</li>
+ * </ul>
+ * 
+ * @author Derek
+ */
+public class MongoQueryProfiler {
+
+    /** Static logger instance */
+    private static Logger LOGGER = LoggerFactory.getLogger(MongoQueryProfiler.class);
+
+    /** Default slow query threshold in milliseconds */
+    public static final long DEFAULT_SLOW_QUERY_THRESHOLD = 250;
+
+    /** Maximum number of query shapes tracked */
+    private static final int MAX_TRACKED_QUERIES = 200;
+
+    /** Singleton instance */
+    private static final MongoQueryProfiler INSTANCE = new MongoQueryProfiler();
+
+    /** Queries slower than this (in ms) are recorded */
+    private volatile long slowQueryThreshold = DEFAULT_SLOW_QUERY_THRESHOLD;
+
+    /** Registry metrics are published to */
+    private volatile MetricRegistry metricRegistry;
+
+    /** Namespaces with gauges registered in the current registry */
+    private Set<String> gaugeNamespaces = new HashSet<String>();
+
+    /** Slow queries by shape, least recently seen first */
+    private Map<String, MongoSlowQuery> slowQueries = new LinkedHashMap<String, MongoSlowQuery>(16, 0.75f, true) {
+
+	/** Serial version UID */
+	private static final long serialVersionUID = -1553196254409526302L;
+
+	@Override
+	protected boolean removeEldestEntry(Map.Entry<String, MongoSlowQuery> eldest) {
+	    return size() > MAX_TRACKED_QUERIES;
+	}
+    };
+
+    /** Executor for capturing query plans */
+    private ExecutorService explainer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+	    new ArrayBlockingQueue<Runnable>(MAX_TRACKED_QUERIES), new ExplainThreadFactory(),
+	    new ThreadPoolExecutor.DiscardPolicy());
+
+    public static MongoQueryProfiler getInstance() {
+	return INSTANCE;
+    }
+
+    /**
+     * Record execution of a query.
+     * 
+     * @param collection
+     * @param operation
+     * @param query
+     * @param sort
+     * @param elapsedMs
+     */
+    public void record(MongoCollection<Document> collection, String operation, Document query, Document sort,
+	    long elapsedMs) {
+	String namespace = collection.getNamespace().getFullName();
+	MetricRegistry registry = getMetricRegistry();
+	if (registry != null) {
+	    registry.timer(MetricRegistry.name("mongodb", namespace, operation)).update(elapsedMs,
+		    TimeUnit.MILLISECONDS);
+	}
+	if (elapsedMs < getSlowQueryThreshold()) {
+	    return;
+	}
+	if (registry != null) {
+	    registry.meter(MetricRegistry.name("mongodb", "slowQueries")).mark();
+	}
+
+	String shape = getShape(query).toJson();
+	String sortJson = (sort != null) ? sort.toJson() : null;
+	String key = namespace + "|" + operation + "|" + shape + "|" + sortJson;
+	MongoSlowQuery slow;
+	boolean added = false;
+	synchronized (slowQueries) {
+	    slow = slowQueries.get(key);
+	    if (slow == null) {
+		slow = new MongoSlowQuery(namespace, operation, shape, sortJson);
+		slowQueries.put(key, slow);
+		added = true;
+	    }
+	}
+	slow.record(elapsedMs);
+	if (added && (registry != null)) {
+	    registerGauges(registry, namespace);
+	}
+	LOGGER.warn("Slow MongoDB " + operation + " on " + namespace + " took " + elapsedMs + " ms. Query: " + shape
+		+ " Sort: " + sortJson);
+	if (added) {
+	    explainLater(collection, query, sort, slow);
+	}
+    }
+
+    /**
+     * Register gauges that expose slow queries for a collection if not already
+     * registered.
+     * 
+     * @param registry
+     * @param namespace
+     */
+    protected void registerGauges(MetricRegistry registry, final String namespace) {
+	synchronized (gaugeNamespaces) {
+	    if ((registry != getMetricRegistry()) || !gaugeNamespaces.add(namespace)) {
+		return;
+	    }
+	}
+	try {
+	    registry.register(MetricRegistry.name("mongodb", namespace, "slowQueryShapes"), new Gauge<Integer>() {
+
+		@Override
+		public Integer getValue() {
+		    return getSlowQueries(namespace).size();
+		}
+	    });
+	    registry.register(MetricRegistry.name("mongodb", namespace, "collectionScanShapes"), new Gauge<Integer>() {
+
+		@Override
+		public Integer getValue() {
+		    return getCollectionScans(namespace).size();
+		}
+	    });
+	    registry.register(MetricRegistry.name("mongodb", namespace, "collectionScanQueries"),
+		    new Gauge<List<String>>() {
+
+			@Override
+			public List<String> getValue() {
+			    List<String> queries = new ArrayList<String>();
+			    for (MongoSlowQuery slow : getCollectionScans(namespace)) {
+				queries.add(slow.getOperation() + " query: " + slow.getQueryShape() + " sort: "
+					+ slow.getSort() + " plan: " + slow.getWinningPlan());
+			    }
+			    return queries;
+			}
+		    });
+	} catch (IllegalArgumentException e) {
+	    LOGGER.debug("Slow query gauges already registered for " + namespace + ".", e);
+	}
+    }
+
+    /**
+     * Capture the plan for a slow query on a background thread.
+     * 
+     * @param collection
+     * @param query
+     * @param sort
+     * @param slow
+     */
+    protected void explainLater(final MongoCollection<Document> collection, final Document query, final Document sort,
+	    final MongoSlowQuery slow) {
+	try {
+	    explainer.execute(new Runnable() {
+
+		@Override
+		public void run() {
+		    explain(collection, query, sort, slow);
+		}
+	    });
+	} catch (RejectedExecutionException e) {
+	    LOGGER.debug("Skipping explain for slow query.", e);
+	}
+    }
+
+    /**
+     * Capture the winning plan for a query.
+     * 
+     * @param collection
+     * @param query
+     * @param sort
+     * @param slow
+     */
+    @SuppressWarnings("deprecation")
+    protected void explain(MongoCollection<Document> collection, Document query, Document sort, MongoSlowQuery slow) {
+	try {
+	    Document explained = collection.find(query).sort(sort).modifiers(new Document("$explain", true)).first();
+	    Document planner = (explained != null) ? (Document) explained.get("queryPlanner") : null;
+	    Document winning = (planner != null) ? (Document) planner.get("winningPlan") : null;
+	    if (winning == null) {
+		return;
+	    }
+	    slow.setWinningPlan(winning.toJson());
+	    slow.setCollectionScan(usesStage(winning, "COLLSCAN"));
+	    if (slow.isCollectionScan()) {
+		MetricRegistry registry = getMetricRegistry();
+		if (registry != null) {
+		    registry.meter(MetricRegistry.name("mongodb", "collectionScans")).mark();
+		}
+		LOGGER.warn("Slow MongoDB " + slow.getOperation() + " on " + slow.getNamespace()
+			+ " uses a collection scan. Add an index for query " + slow.getQueryShape() + " with sort "
+			+ slow.getSort() + ".");
+	    }
+	} catch (MongoException e) {
+	    LOGGER.warn("Unable to explain slow query on " + slow.getNamespace() + ".", e);
+	}
+    }
+
+    /**
+     * Indicates whether a plan (or any of its input stages) uses the given stage.
+     * 
+     * @param plan
+     * @param stage
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    protected static boolean usesStage(Document plan, String stage) {
+	if (stage.equals(plan.getString("stage"))) {
+	    return true;
+	}
+	Object input = plan.get("inputStage");
+	if ((input instanceof Document) && usesStage((Document) input, stage)) {
+	    return true;
+	}
+	Object inputs = plan.get("inputStages");
+	if (inputs instanceof List) {
+	    for (Object current : (List<Object>) inputs) {
+		if ((current instanceof Document) && usesStage((Document) current, stage)) {
+		    return true;
+		}
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Get the shape of a query by replacing values with placeholders so that
+     * queries differing only in their values are grouped together.
+     * 
+     * @param query
+     * @return
+     */
+    protected static Document getShape(Document query) {
+	Document shape = new Document();
+	if (query != null) {
+	    for (Map.Entry<String, Object> entry : query.entrySet()) {
+		shape.put(entry.getKey(), getValueShape(entry.getValue()));
+	    }
+	}
+	return shape;
+    }
+
+    /**
+     * Get placeholder for a query value.
+     * 
+     * @param value
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    protected static Object getValueShape(Object value) {
+	if (value instanceof Document) {
+	    return getShape((Document) value);
+	} else if (value instanceof List) {
+	    List<Object> shapes = new ArrayList<Object>();
+	    for (Object current : (List<Object>) value) {
+		if ((current instanceof Document) || (current instanceof List)) {
+		    shapes.add(getValueShape(current));
+		}
+	    }
+	    return shapes;
+	}
+	return "?";
+    }
+
+    /**
+     * Get a snapshot of recorded slow queries.
+     * 
+     * @return
+     */
+    public List<MongoSlowQuery> getSlowQueries() {
+	synchronized (slowQueries) {
+	    return new ArrayList<MongoSlowQuery>(slowQueries.values());
+	}
+    }
+
+    /**
+     * Get a snapshot of recorded slow queries for a collection.
+     * 
+     * @param namespace
+     * @return
+     */
+    public List<MongoSlowQuery> getSlowQueries(String namespace) {
+	List<MongoSlowQuery> matches = new ArrayList<MongoSlowQuery>();
+	for (MongoSlowQuery slow : getSlowQueries()) {
+	    if (slow.getNamespace().equals(namespace)) {
+		matches.add(slow);
+	    }
+	}
+	return matches;
+    }
+
+    /**
+     * Get slow queries for a collection whose plan uses a collection scan.
+     * 
+     * @param namespace
+     * @return
+     */
+    public List<MongoSlowQuery> getCollectionScans(String namespace) {
+	List<MongoSlowQuery> matches = new ArrayList<MongoSlowQuery>();
+	for (MongoSlowQuery slow : getSlowQueries(namespace)) {
+	    if (slow.isCollectionScan()) {
+		matches.add(slow);
+	    }
+	}
+	return matches;
+    }
+
+    public long getSlowQueryThreshold() {
+	return slowQueryThreshold;
+    }
+
+    public void setSlowQueryThreshold(long slowQueryThreshold) {
+	this.slowQueryThreshold = slowQueryThreshold;
+    }
+
+    public MetricRegistry getMetricRegistry() {
+	return metricRegistry;
+    }
+
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+	synchronized (gaugeNamespaces) {
+	    if (metricRegistry != this.metricRegistry) {
+		gaugeNamespaces.clear();
+	    }
+	    this.metricRegistry = metricRegistry;
+	}
+	if (metricRegistry != null) {
+	    for (MongoSlowQuery slow : getSlowQueries()) {
+		registerGauges(metricRegistry, slow.getNamespace());
+	    }
+	}
+    }
+
+    /**
+     * Creates daemon threads for capturing query plans.
+     * 
+     * @author Derek
+     */
+    private static class ExplainThreadFactory implements ThreadFactory {
+
+	/*
+	 * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+	 */
+	@Override
+	public Thread newThread(Runnable r) {
+	    Thread thread = new Thread(r, "MongoDB Query Explain");
+	    thread.setDaemon(true);
+	    return thread;
+	}
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.mongodb;
+
+/**
+ * Statistics for a query shape that exceeded the slow query threshold along
+ * with the plan MongoDB chose for it.
+ * 
+ * @author Derek
+ */
+public class MongoSlowQuery {
+
+    /** Collection namespace */
+    private String namespace;
+
+    /** Operation that issued the query */
+    private String operation;
+
+    /** Query with values replaced by placeholders */
+    private String queryShape;
+
+    /** Sort applied to the query */
+    private String sort;
+
+    /** Number of slow executions */
+    private long count;
+
+    /** Total time for slow executions */
+    private long totalMs;
+
+    /** Slowest execution */
+    private long maxMs;
+
+    /** Time of most recent slow execution */
+    private long lastSeen;
+
+    /** Winning plan from explain */
+    private String winningPlan;
+
+    /** Indicates whether the winning plan scans the whole collection */
+    private boolean collectionScan;
+
+    public MongoSlowQuery(String namespace, String operation, String queryShape, String sort) {
+	this.namespace = namespace;
+	this.operation = operation;
+	this.queryShape = queryShape;
+	this.sort = sort;
+    }
+
+    /**
+     * Record a slow execution.
+     * 
+     * @param elapsedMs
+     */
+    public synchronized void record(long elapsedMs) {
+	count++;
+	totalMs += elapsedMs;
+	maxMs = Math.max(maxMs, elapsedMs);
+	lastSeen = System.currentTimeMillis();
+    }
+
+    public String getNamespace() {
+	return namespace;
+    }
+
+    public String getOperation() {
+	return operation;
+    }
+
+    public String getQueryShape() {
+	return queryShape;
+    }
+
+    public String getSort() {
+	return sort;
+    }
+
+    public synchronized long getCount() {
+	return count;
+    }
+
+    public synchronized long getTotalMs() {
+	return totalMs;
+    }
+
+    public synchronized long getMaxMs() {
+	return maxMs;
+    }
+
+    public synchronized long getLastSeen() {
+	return lastSeen;
+    }
+
+    public synchronized String getWinningPlan() {
+	return winningPlan;
+    }
+
+    public synchronized void setWinningPlan(String winningPlan) {
+	this.winningPlan = winningPlan;
+    }
+
+    public synchronized boolean isCollectionScan() {
+	return collectionScan;
+    }
+
+    public synchronized void setCollectionScan(boolean collectionScan) {
+	this.collectionScan = collectionScan;
+    }
+}
@@ -44,9 +44,12 @@ public interface ISolrFields {
     /** Measurement value */
     public static final String MX_VALUE = "mxValue";
 
-    /** Location */
+    /** Location stored as "latitude,longitude" */
     public static final String LOCATION = "location";
 
+    /** Spatial field type used for location (supports geofilt, bbox and geodist) */
+    public static final String LOCATION_FIELD_TYPE = "location_rpt";
+
     /** Elevation */
     public static final String ELEVATION = "elevation";
 
@@ -9,7 +9,6 @@ package com.sitewhere.solr;
 
 import java.util.Date;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -64,7 +63,7 @@ public class SiteWhereSolrFactory {
 	SolrInputDocument document = new SolrInputDocument();
 	document.addField(ISolrFields.EVENT_TYPE, SolrEventType.Location.name());
 	addFieldsForEvent(document, location);
-	String latLong = "" + location.getLatitude() + ", " + location.getLongitude();
+	String latLong = "" + location.getLatitude() + "," + location.getLongitude();
 	document.addField(ISolrFields.LOCATION, latLong);
 	document.addField(ISolrFields.ELEVATION, location.getElevation());
 	return document;
@@ -125,15 +124,15 @@ public class SiteWhereSolrFactory {
      * @return
      * @throws SiteWhereException
      */
-    @SuppressWarnings("unchecked")
     protected static IDeviceLocation parseLocationFromDocument(SolrDocument document) throws SiteWhereException {
 	DeviceLocation location = new DeviceLocation();
 
-	List<String> latLong = (List<String>) document.get(ISolrFields.LOCATION);
+	// Older schemas stored location as a multivalued field.
+	Object latLong = document.getFirstValue(ISolrFields.LOCATION);
 	if (latLong == null) {
 	    throw new SiteWhereException("Invalid location document. No location data stored.");
 	}
-	String[] split = latLong.get(0).split("[,]");
+	String[] split = latLong.toString().split("[,]");
 	location.setLatitude(Double.parseDouble(split[0].trim()));
 	location.setLongitude(Double.parseDouble(split[1].trim()));
 
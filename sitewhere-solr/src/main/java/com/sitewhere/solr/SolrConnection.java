@@ -7,8 +7,18 @@
  */
 package com.sitewhere.solr;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.apache.solr.client.solrj.request.schema.FieldTypeDefinition;
+import org.apache.solr.client.solrj.request.schema.SchemaRequest;
+import org.apache.solr.client.solrj.response.schema.FieldTypeRepresentation;
+import org.apache.solr.client.solrj.response.schema.SchemaResponse;
 
 import com.sitewhere.configuration.instance.solr.SolrConfiguration;
 import com.sitewhere.server.lifecycle.TenantEngineLifecycleComponent;
@@ -60,6 +70,75 @@ public class SolrConnection extends TenantEngineLifecycleComponent implements ID
 	setSolrClient(new HttpSolrClient.Builder(getSolrConfiguration().getSolrServerUrl()).build());
     }
 
+    /**
+     * Make sure the location field uses a spatial field type so that proximity
+     * queries can be executed. Missing field types and fields are added through
+     * the Solr schema API, which requires a managed schema.
+     * 
+     * @throws SiteWhereException
+     */
+    public void ensureSpatialSchema() throws SiteWhereException {
+	try {
+	    boolean hasType = false;
+	    List<FieldTypeRepresentation> types = new SchemaRequest.FieldTypes().process(getSolrClient())
+		    .getFieldTypes();
+	    for (FieldTypeRepresentation type : types) {
+		if (ISolrFields.LOCATION_FIELD_TYPE.equals(type.getAttributes().get("name"))) {
+		    hasType = true;
+		}
+	    }
+	    if (!hasType) {
+		Map<String, Object> attributes = new HashMap<String, Object>();
+		attributes.put("name", ISolrFields.LOCATION_FIELD_TYPE);
+		attributes.put("class", "solr.SpatialRecursivePrefixTreeFieldType");
+		attributes.put("geo", true);
+		attributes.put("distErrPct", 0.025);
+		attributes.put("maxDistErr", 0.001);
+		attributes.put("distanceUnits", "kilometers");
+		FieldTypeDefinition definition = new FieldTypeDefinition();
+		definition.setAttributes(attributes);
+		assertSchemaUpdated(new SchemaRequest.AddFieldType(definition).process(getSolrClient()));
+		getLogger().info("Added Solr field type '" + ISolrFields.LOCATION_FIELD_TYPE + "'.");
+	    }
+
+	    List<Map<String, Object>> fields = new SchemaRequest.Fields().process(getSolrClient()).getFields();
+	    for (Map<String, Object> field : fields) {
+		if (ISolrFields.LOCATION.equals(field.get("name"))) {
+		    if (!ISolrFields.LOCATION_FIELD_TYPE.equals(field.get("type"))) {
+			throw new SiteWhereException("Solr field '" + ISolrFields.LOCATION + "' has type '"
+				+ field.get("type") + "' rather than '" + ISolrFields.LOCATION_FIELD_TYPE
+				+ "'. Proximity searches will not be available.");
+		    }
+		    return;
+		}
+	    }
+	    Map<String, Object> attributes = new HashMap<String, Object>();
+	    attributes.put("name", ISolrFields.LOCATION);
+	    attributes.put("type", ISolrFields.LOCATION_FIELD_TYPE);
+	    attributes.put("indexed", true);
+	    attributes.put("stored", true);
+	    attributes.put("multiValued", false);
+	    assertSchemaUpdated(new SchemaRequest.AddField(attributes).process(getSolrClient()));
+	    getLogger().info("Added Solr field '" + ISolrFields.LOCATION + "'.");
+	} catch (SolrServerException e) {
+	    throw new SiteWhereException("Unable to update Solr schema for spatial fields.", e);
+	} catch (IOException e) {
+	    throw new SiteWhereException("Unable to update Solr schema for spatial fields.", e);
+	}
+    }
+
+    /**
+     * Verify that a schema update did not report errors.
+     * 
+     * @param response
+     * @throws SiteWhereException
+     */
+    protected void assertSchemaUpdated(SchemaResponse.UpdateResponse response) throws SiteWhereException {
+	if (response.getResponse().get("errors") != null) {
+	    throw new SiteWhereException("Solr schema update failed: " + response.getResponse().get("errors"));
+	}
+    }
+
     public SolrConfiguration getSolrConfiguration() {
 	return solrConfiguration;
     }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.spark;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+/**
+ * Settings for reading the enriched events topic of a SiteWhere tenant.
+ * 
+ * @author Derek
+ */
+public class EnrichedEventStreamConfiguration implements Serializable {
+
+    /** Serial version UID */
+    private static final long serialVersionUID = 2241693150183528873L;
+
+    /** Default product id used in topic names */
+    public static final String DEFAULT_PRODUCT_ID = "sitewhere";
+
+    /** Default instance id used in topic names */
+    public static final String DEFAULT_INSTANCE_ID = "sitewhere1";
+
+    /** Topic suffix for events that have been persisted and enriched */
+    public static final String ENRICHED_EVENTS_SUFFIX = "inbound-enriched-events";
+
+    /** Kafka bootstrap servers */
+    private String bootstrapServers = "localhost:9092";
+
+    /** Product id */
+    private String productId = DEFAULT_PRODUCT_ID;
+
+    /** Instance id */
+    private String instanceId = DEFAULT_INSTANCE_ID;
+
+    /** Tenant id */
+    private String tenantId;
+
+    /** Consumer group id */
+    private String groupId;
+
+    /** Where to start reading when no checkpoint exists ("latest" or "earliest") */
+    private String autoOffsetReset = "latest";
+
+    /** Additional Kafka consumer properties */
+    private Map<String, Object> consumerProperties = new HashMap<String, Object>();
+
+    /**
+     * Get name of enriched events topic for the tenant. Matches the naming used
+     * by the SiteWhere microservices.
+     * 
+     * @return
+     */
+    public String getTopic() {
+	return getProductId() + "." + getInstanceId() + ".tenant." + getTenantId() + "." + ENRICHED_EVENTS_SUFFIX;
+    }
+
+    /**
+     * Get consumer properties for Kafka. Offsets are not committed to Kafka since
+     * they are tracked in Spark checkpoints.
+     * 
+     * @return
+     */
+    public Map<String, Object> getKafkaParameters() {
+	Map<String, Object> params = new HashMap<String, Object>();
+	params.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, getBootstrapServers());
+	String group = getGroupId();
+	if (group == null) {
+	    group = getProductId() + "." + getInstanceId() + ".spark." + getTenantId();
+	}
+	params.put(ConsumerConfig.GROUP_ID_CONFIG, group);
+	params.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+	params.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+	params.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, getAutoOffsetReset());
+	params.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+	params.putAll(getConsumerProperties());
+	return params;
+    }
+
+    public String getBootstrapServers() {
+	return bootstrapServers;
+    }
+
+    public void setBootstrapServers(String bootstrapServers) {
+	this.bootstrapServers = bootstrapServers;
+    }
+
+    public String getProductId() {
+	return productId;
+    }
+
+    public void setProductId(String productId) {
+	this.productId = productId;
+    }
+
+    public String getInstanceId() {
+	return instanceId;
+    }
+
+    public void setInstanceId(String instanceId) {
+	this.instanceId = instanceId;
+    }
+
+    public String getTenantId() {
+	return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+	this.tenantId = tenantId;
+    }
+
+    public String getGroupId() {
+	return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+	this.groupId = groupId;
+    }
+
+    public String getAutoOffsetReset() {
+	return autoOffsetReset;
+    }
+
+    public void setAutoOffsetReset(String autoOffsetReset) {
+	this.autoOffsetReset = autoOffsetReset;
+    }
+
+    public Map<String, Object> getConsumerProperties() {
+	return consumerProperties;
+    }
+
+    public void setConsumerProperties(Map<String, Object> consumerProperties) {
+	this.consumerProperties = consumerProperties;
+    }
+}
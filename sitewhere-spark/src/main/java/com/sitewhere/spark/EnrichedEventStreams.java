@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.spark;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.apache.spark.streaming.api.java.JavaDStream;
+import org.apache.spark.streaming.api.java.JavaInputDStream;
+import org.apache.spark.streaming.api.java.JavaStreamingContext;
+import org.apache.spark.streaming.kafka010.ConsumerStrategies;
+import org.apache.spark.streaming.kafka010.KafkaUtils;
+import org.apache.spark.streaming.kafka010.LocationStrategies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sitewhere.grpc.client.event.EventModelConverter;
+import com.sitewhere.grpc.client.event.EventModelMarshaler;
+import com.sitewhere.grpc.model.DeviceEventModel.GEnrichedEventPayload;
+import com.sitewhere.spark.model.AlertRow;
+import com.sitewhere.spark.model.EventRow;
+import com.sitewhere.spark.model.LocationRow;
+import com.sitewhere.spark.model.MeasurementRow;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.event.IDeviceAlert;
+import com.sitewhere.spi.device.event.IDeviceEvent;
+import com.sitewhere.spi.device.event.IDeviceEventContext;
+import com.sitewhere.spi.device.event.IDeviceLocation;
+import com.sitewhere.spi.device.event.IDeviceMeasurement;
+import com.sitewhere.spi.microservice.kafka.payload.IEnrichedEventPayload;
+
+/**
+ * Creates Spark streams from the enriched events Kafka topic of a SiteWhere
+ * tenant. The stream is read with the Kafka direct API, so each batch has one
+ * partition per Kafka partition. Offsets are stored in the Spark checkpoint
+ * rather than committed to Kafka, so the streaming context should be created
+ * with {@link JavaStreamingContext#getOrCreate(String, org.apache.spark.api.java.function.Function0)}
+ * and a checkpoint directory to resume where a previous run stopped.
+ * 
+ * @author Derek
+ */
+public class EnrichedEventStreams {
+
+    /**
+     * Create a direct stream of raw records from the enriched events topic.
+     * 
+     * @param context
+     * @param configuration
+     * @return
+     */
+    public static JavaInputDStream<ConsumerRecord<String, byte[]>> createDirectStream(JavaStreamingContext context,
+	    EnrichedEventStreamConfiguration configuration) {
+	return KafkaUtils.createDirectStream(context, LocationStrategies.PreferConsistent(), ConsumerStrategies
+		.<String, byte[]>Subscribe(Collections.singletonList(configuration.getTopic()),
+			configuration.getKafkaParameters()));
+    }
+
+    /**
+     * Create a stream of decoded events from the enriched events topic.
+     * 
+     * @param context
+     * @param configuration
+     * @return
+     */
+    public static JavaDStream<EventRow> createEventStream(JavaStreamingContext context,
+	    EnrichedEventStreamConfiguration configuration) {
+	return decode(createDirectStream(context, configuration));
+    }
+
+    /**
+     * Decode raw records into rows. Events are converted to a row type based on
+     * event type, with events that have no specific row type (such as command
+     * invocations) returned as {@link EventRow}.
+     * 
+     * @param records
+     * @return
+     */
+    public static JavaDStream<EventRow> decode(JavaDStream<ConsumerRecord<String, byte[]>> records) {
+	return records.flatMap(new EnrichedEventDecoder());
+    }
+
+    /**
+     * Get measurements from a stream of decoded events.
+     * 
+     * @param events
+     * @return
+     */
+    public static JavaDStream<MeasurementRow> measurements(JavaDStream<EventRow> events) {
+	return events.filter(row -> row instanceof MeasurementRow).map(row -> (MeasurementRow) row);
+    }
+
+    /**
+     * Get locations from a stream of decoded events.
+     * 
+     * @param events
+     * @return
+     */
+    public static JavaDStream<LocationRow> locations(JavaDStream<EventRow> events) {
+	return events.filter(row -> row instanceof LocationRow).map(row -> (LocationRow) row);
+    }
+
+    /**
+     * Get alerts from a stream of decoded events.
+     * 
+     * @param events
+     * @return
+     */
+    public static JavaDStream<AlertRow> alerts(JavaDStream<EventRow> events) {
+	return events.filter(row -> row instanceof AlertRow).map(row -> (AlertRow) row);
+    }
+
+    /**
+     * Convert an enriched event payload to a row.
+     * 
+     * @param payload
+     * @param partition
+     * @param offset
+     * @return
+     */
+    public static EventRow asRow(IEnrichedEventPayload payload, int partition, long offset) {
+	IDeviceEventContext context = payload.getEventContext();
+	IDeviceEvent event = payload.getEvent();
+	switch (event.getEventType()) {
+	case Measurement: {
+	    IDeviceMeasurement mx = (IDeviceMeasurement) event;
+	    MeasurementRow row = new MeasurementRow();
+	    row.copyFrom(context, event, partition, offset);
+	    row.setName(mx.getName());
+	    row.setValue(mx.getValue());
+	    return row;
+	}
+	case Location: {
+	    IDeviceLocation location = (IDeviceLocation) event;
+	    LocationRow row = new LocationRow();
+	    row.copyFrom(context, event, partition, offset);
+	    row.setLatitude(location.getLatitude());
+	    row.setLongitude(location.getLongitude());
+	    row.setElevation(location.getElevation());
+	    return row;
+	}
+	case Alert: {
+	    IDeviceAlert alert = (IDeviceAlert) event;
+	    AlertRow row = new AlertRow();
+	    row.copyFrom(context, event, partition, offset);
+	    row.setSource(alert.getSource() != null ? alert.getSource().name() : null);
+	    row.setLevel(alert.getLevel() != null ? alert.getLevel().name() : null);
+	    row.setType(alert.getType());
+	    row.setMessage(alert.getMessage());
+	    return row;
+	}
+	default: {
+	    EventRow row = new EventRow();
+	    row.copyFrom(context, event, partition, offset);
+	    return row;
+	}
+	}
+    }
+
+    /**
+     * Decodes enriched event payloads from Kafka records. Records that can not be
+     * decoded are logged and skipped so that a single bad record does not stop
+     * the stream.
+     * 
+     * @author Derek
+     */
+    public static class EnrichedEventDecoder implements FlatMapFunction<ConsumerRecord<String, byte[]>, EventRow> {
+
+	/** Serial version UID */
+	private static final long serialVersionUID = -6020934412583146611L;
+
+	/** Static logger instance */
+	private static final Logger LOGGER = LoggerFactory.getLogger(EnrichedEventDecoder.class);
+
+	/*
+	 * @see org.apache.spark.api.java.function.FlatMapFunction#call(java.lang.
+	 * Object)
+	 */
+	@Override
+	public Iterator<EventRow> call(ConsumerRecord<String, byte[]> record) throws Exception {
+	    try {
+		GEnrichedEventPayload grpc = EventModelMarshaler.parseEnrichedEventPayloadMessage(record.value());
+		IEnrichedEventPayload payload = EventModelConverter.asApiEnrichedEventPayload(grpc);
+		return Collections.singletonList(asRow(payload, record.partition(), record.offset())).iterator();
+	    } catch (SiteWhereException e) {
+		LOGGER.warn("Skipping enriched event at " + record.topic() + "/" + record.partition() + "@"
+			+ record.offset() + " that could not be decoded.", e);
+		return Collections.<EventRow>emptyIterator();
+	    }
+	}
+    }
+}
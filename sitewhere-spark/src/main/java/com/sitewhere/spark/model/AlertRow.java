@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.spark.model;
+
+/**
+ * Row for a device alert event.
+ * 
+ * @author Derek
+ */
+public class AlertRow extends EventRow {
+
+    /** Serial version UID */
+    private static final long serialVersionUID = 4906219184873530147L;
+
+    /** Alert source */
+    private String source;
+
+    /** Alert level */
+    private String level;
+
+    /** Alert type */
+    private String type;
+
+    /** Alert message */
+    private String message;
+
+    public String getSource() {
+	return source;
+    }
+
+    public void setSource(String source) {
+	this.source = source;
+    }
+
+    public String getLevel() {
+	return level;
+    }
+
+    public void setLevel(String level) {
+	this.level = level;
+    }
+
+    public String getType() {
+	return type;
+    }
+
+    public void setType(String type) {
+	this.type = type;
+    }
+
+    public String getMessage() {
+	return message;
+    }
+
+    public void setMessage(String message) {
+	this.message = message;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.spark.model;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import com.sitewhere.spi.device.event.IDeviceEvent;
+import com.sitewhere.spi.device.event.IDeviceEventContext;
+
+/**
+ * Flattened view of an enriched event that can be used as a Spark SQL bean.
+ * Identifiers are stored as strings and dates as timestamps so that rows map
+ * directly onto Spark SQL column types.
+ * 
+ * @author Derek
+ */
+public class EventRow implements Serializable {
+
+    /** Serial version UID */
+    private static final long serialVersionUID = -3046514379427025562L;
+
+    /** Event id */
+    private String eventId;
+
+    /** Event type */
+    private String eventType;
+
+    /** Device id */
+    private String deviceId;
+
+    /** Device type id */
+    private String deviceTypeId;
+
+    /** Device assignment id */
+    private String assignmentId;
+
+    /** Customer id */
+    private String customerId;
+
+    /** Area id */
+    private String areaId;
+
+    /** Asset id */
+    private String assetId;
+
+    /** Date event occurred */
+    private Timestamp eventDate;
+
+    /** Date event was received */
+    private Timestamp receivedDate;
+
+    /** Kafka partition event was read from */
+    private int partition;
+
+    /** Kafka offset event was read from */
+    private long offset;
+
+    /**
+     * Copy common fields from an enriched event.
+     * 
+     * @param context
+     * @param event
+     * @param partition
+     * @param offset
+     */
+    public void copyFrom(IDeviceEventContext context, IDeviceEvent event, int partition, long offset) {
+	setEventId(asString(event.getId()));
+	setEventType(event.getEventType() != null ? event.getEventType().name() : null);
+	setDeviceId(asString(context.getDeviceId() != null ? context.getDeviceId() : event.getDeviceId()));
+	setDeviceTypeId(asString(context.getDeviceTypeId()));
+	setAssignmentId(asString(event.getDeviceAssignmentId()));
+	setCustomerId(asString(event.getCustomerId()));
+	setAreaId(asString(event.getAreaId()));
+	setAssetId(asString(event.getAssetId()));
+	setEventDate(event.getEventDate() != null ? new Timestamp(event.getEventDate().getTime()) : null);
+	setReceivedDate(event.getReceivedDate() != null ? new Timestamp(event.getReceivedDate().getTime()) : null);
+	setPartition(partition);
+	setOffset(offset);
+    }
+
+    protected static String asString(UUID id) {
+	return (id != null) ? id.toString() : null;
+    }
+
+    public String getEventId() {
+	return eventId;
+    }
+
+    public void setEventId(String eventId) {
+	this.eventId = eventId;
+    }
+
+    public String getEventType() {
+	return eventType;
+    }
+
+    public void setEventType(String eventType) {
+	this.eventType = eventType;
+    }
+
+    public String getDeviceId() {
+	return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+	this.deviceId = deviceId;
+    }
+
+    public String getDeviceTypeId() {
+	return deviceTypeId;
+    }
+
+    public void setDeviceTypeId(String deviceTypeId) {
+	this.deviceTypeId = deviceTypeId;
+    }
+
+    public String getAssignmentId() {
+	return assignmentId;
+    }
+
+    public void setAssignmentId(String assignmentId) {
+	this.assignmentId = assignmentId;
+    }
+
+    public String getCustomerId() {
+	return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+	this.customerId = customerId;
+    }
+
+    public String getAreaId() {
+	return areaId;
+    }
+
+    public void setAreaId(String areaId) {
+	this.areaId = areaId;
+    }
+
+    public String getAssetId() {
+	return assetId;
+    }
+
+    public void setAssetId(String assetId) {
+	this.assetId = assetId;
+    }
+
+    public Timestamp getEventDate() {
+	return eventDate;
+    }
+
+    public void setEventDate(Timestamp eventDate) {
+	this.eventDate = eventDate;
+    }
+
+    public Timestamp getReceivedDate() {
+	return receivedDate;
+    }
+
+    public void setReceivedDate(Timestamp receivedDate) {
+	this.receivedDate = receivedDate;
+    }
+
+    public int getPartition() {
+	return partition;
+    }
+
+    public void setPartition(int partition) {
+	this.partition = partition;
+    }
+
+    public long getOffset() {
+	return offset;
+    }
+
+    public void setOffset(long offset) {
+	this.offset = offset;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.spark.model;
+
+/**
+ * Row for a device measurement event.
+ * 
+ * @author Derek
+ */
+public class MeasurementRow extends EventRow {
+
+    /** Serial version UID */
+    private static final long serialVersionUID = 8713920647253610358L;
+
+    /** Measurement name */
+    private String name;
+
+    /** Measurement value */
+    private Double value;
+
+    public String getName() {
+	return name;
+    }
+
+    public void setName(String name) {
+	this.name = name;
+    }
+
+    public Double getValue() {
+	return value;
+    }
+
+    public void setValue(Double value) {
+	this.value = value;
+    }
+}
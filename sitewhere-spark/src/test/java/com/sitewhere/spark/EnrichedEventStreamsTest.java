@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) SiteWhere, LLC. All rights reserved. http://www.sitewhere.com
+ *
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package com.sitewhere.spark;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.curator.test.TestingServer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.spark.SparkConf;
+import org.apache.spark.streaming.Durations;
+import org.apache.spark.streaming.api.java.JavaDStream;
+import org.apache.spark.streaming.api.java.JavaStreamingContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sitewhere.grpc.client.event.EventModelMarshaler;
+import com.sitewhere.rest.model.device.event.DeviceEvent;
+import com.sitewhere.rest.model.device.event.DeviceEventContext;
+import com.sitewhere.rest.model.device.event.DeviceLocation;
+import com.sitewhere.rest.model.device.event.DeviceMeasurement;
+import com.sitewhere.rest.model.microservice.kafka.payload.EnrichedEventPayload;
+import com.sitewhere.spark.model.EventRow;
+import com.sitewhere.spark.model.LocationRow;
+import com.sitewhere.spark.model.MeasurementRow;
+import com.sitewhere.spi.device.DeviceAssignmentStatus;
+
+import kafka.server.KafkaConfig;
+import kafka.server.KafkaServerStartable;
+
+/**
+ * Runs the enriched event stream in Spark local mode against an embedded Kafka
+ * broker.
+ * 
+ * @author Derek
+ */
+public class EnrichedEventStreamsTest {
+
+    /** Tenant id used for topic */
+    private static final String TENANT_ID = "test";
+
+    /** Number of measurements sent */
+    private static final int NUM_MEASUREMENTS = 20;
+
+    /** Number of locations sent */
+    private static final int NUM_LOCATIONS = 5;
+
+    /** Measurements received by Spark */
+    private static final ConcurrentLinkedQueue<MeasurementRow> MEASUREMENTS = new ConcurrentLinkedQueue<>();
+
+    /** Locations received by Spark */
+    private static final ConcurrentLinkedQueue<LocationRow> LOCATIONS = new ConcurrentLinkedQueue<>();
+
+    /** Embedded ZooKeeper */
+    private TestingServer zookeeper;
+
+    /** Embedded Kafka broker */
+    private KafkaServerStartable kafka;
+
+    /** Kafka bootstrap servers */
+    private String bootstrapServers;
+
+    @Before
+    public void setup() throws Exception {
+	zookeeper = new TestingServer(true);
+	int port;
+	try (ServerSocket socket = new ServerSocket(0)) {
+	    port = socket.getLocalPort();
+	}
+	bootstrapServers = "localhost:" + port;
+	File logs = Files.createTempDirectory("kafka").toFile();
+	Properties props = new Properties();
+	props.put("zookeeper.connect", zookeeper.getConnectString());
+	props.put("broker.id", "0");
+	props.put("listeners", "PLAINTEXT://" + bootstrapServers);
+	props.put("log.dirs", logs.getAbsolutePath());
+	props.put("num.partitions", "2");
+	props.put("offsets.topic.replication.factor", "1");
+	props.put("auto.create.topics.enable", "true");
+	kafka = new KafkaServerStartable(KafkaConfig.fromProps(props));
+	kafka.startup();
+	MEASUREMENTS.clear();
+	LOCATIONS.clear();
+    }
+
+    @After
+    public void teardown() throws Exception {
+	if (kafka != null) {
+	    kafka.shutdown();
+	}
+	if (zookeeper != null) {
+	    zookeeper.close();
+	}
+    }
+
+    @Test
+    public void testDecodeEnrichedEvents() throws Exception {
+	EnrichedEventStreamConfiguration config = new EnrichedEventStreamConfiguration();
+	config.setBootstrapServers(bootstrapServers);
+	config.setTenantId(TENANT_ID);
+	config.setAutoOffsetReset("earliest");
+	sendEvents(config.getTopic());
+
+	SparkConf conf = new SparkConf().setMaster("local[2]").setAppName("EnrichedEventStreamsTest");
+	JavaStreamingContext context = new JavaStreamingContext(conf, Durations.seconds(1));
+	context.checkpoint(Files.createTempDirectory("checkpoint").toString());
+	try {
+	    JavaDStream<EventRow> events = EnrichedEventStreams.createEventStream(context, config);
+	    EnrichedEventStreams.measurements(events).foreachRDD(rdd -> MEASUREMENTS.addAll(rdd.collect()));
+	    EnrichedEventStreams.locations(events).foreachRDD(rdd -> LOCATIONS.addAll(rdd.collect()));
+	    context.start();
+
+	    long deadline = System.currentTimeMillis() + 60 * 1000;
+	    while (((MEASUREMENTS.size() < NUM_MEASUREMENTS) || (LOCATIONS.size() < NUM_LOCATIONS))
+		    && (System.currentTimeMillis() < deadline)) {
+		Thread.sleep(250);
+	    }
+	} finally {
+	    context.stop(true, false);
+	}
+
+	assertEquals(NUM_MEASUREMENTS, MEASUREMENTS.size());
+	assertEquals(NUM_LOCATIONS, LOCATIONS.size());
+	double total = 0;
+	for (MeasurementRow row : MEASUREMENTS) {
+	    assertEquals("temperature", row.getName());
+	    assertEquals("Measurement", row.getEventType());
+	    total += row.getValue();
+	}
+	assertEquals((NUM_MEASUREMENTS - 1) * NUM_MEASUREMENTS / 2, total, 0.001);
+	for (LocationRow row : LOCATIONS) {
+	    assertEquals(33.75, row.getLatitude(), 0.001);
+	    assertEquals(-84.39, row.getLongitude(), 0.001);
+	}
+    }
+
+    /**
+     * Send enriched events to the topic.
+     * 
+     * @param topic
+     * @throws Exception
+     */
+    protected void sendEvents(String topic) throws Exception {
+	Properties props = new Properties();
+	props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+	props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+	props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+	List<DeviceEvent> events = new ArrayList<>();
+	for (int i = 0; i < NUM_MEASUREMENTS; i++) {
+	    DeviceMeasurement mx = new DeviceMeasurement();
+	    mx.setName("temperature");
+	    mx.setValue((double) i);
+	    events.add(mx);
+	}
+	for (int i = 0; i < NUM_LOCATIONS; i++) {
+	    DeviceLocation location = new DeviceLocation();
+	    location.setLatitude(33.75);
+	    location.setLongitude(-84.39);
+	    location.setElevation(0.0);
+	    events.add(location);
+	}
+	try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(props)) {
+	    for (DeviceEvent event : events) {
+		UUID deviceId = UUID.randomUUID();
+		event.setId(UUID.randomUUID());
+		event.setDeviceId(deviceId);
+		event.setDeviceAssignmentId(UUID.randomUUID());
+		event.setEventDate(new Date());
+		event.setReceivedDate(new Date());
+
+		DeviceEventContext context = new DeviceEventContext();
+		context.setDeviceId(deviceId);
+		context.setDeviceTypeId(UUID.randomUUID());
+		context.setDeviceMetadata(new HashMap<String, String>());
+		context.setAssignmentStatus(DeviceAssignmentStatus.Active);
+		context.setAssignmentMetadata(new HashMap<String, String>());
+
+		EnrichedEventPayload payload = new EnrichedEventPayload();
+		payload.setEventContext(context);
+		payload.setEvent(event);
+		producer.send(new ProducerRecord<String, byte[]>(topic, deviceId.toString(),
+			EventModelMarshaler.buildEnrichedEventPayloadMessage(payload)));
+	    }
+	    producer.flush();
+	}
+    }
+}